@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.benchmarks;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Common utilities for creating the inputs of kernel benchmarks. All 
+ * inputs are generated with fixed seeds in order to obtain comparable
+ * results across runs and releases.
+ * 
+ */
+public class BenchmarkUtils 
+{
+	public static final long SEED = 7;
+	
+	/**
+	 * Creates a random matrix block with values in [-1,1], where the
+	 * representation is determined by the given sparsity (dense for 
+	 * sparsity above the sparse turn point, MCSR otherwise).
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param sparsity
+	 * @param seed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock createMatrix( int rows, int cols, double sparsity, long seed ) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", seed);
+		ret.examSparsity();
+		return ret;
+	}
+	
+	/**
+	 * Creates a random matrix block as above, but converts sparse 
+	 * blocks into the given sparse block type.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param sparsity
+	 * @param stype
+	 * @param seed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock createMatrix( int rows, int cols, double sparsity, SparseBlock.Type stype, long seed ) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = createMatrix(rows, cols, sparsity, seed);
+		if( ret.isInSparseFormat() && stype != SparseBlock.Type.MCSR )
+			ret = new MatrixBlock(ret, stype, true);
+		return ret;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+
+/**
+ * Benchmarks of cell-wise binary operations (LibMatrixBincell.bincellOp)
+ * for matrix-matrix and matrix-row vector operations with sparse-safe
+ * (multiply) and sparse-unsafe (plus) operators.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BinaryBenchmark 
+{
+	@Param({"10000", "50000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.0001"})
+	public double sparsity;
+	
+	@Param({"1", "4"})
+	public int threads;
+	
+	private MatrixBlock _m1 = null;
+	private MatrixBlock _m2 = null;
+	private MatrixBlock _v = null;
+	private BinaryOperator _plus = null;
+	private BinaryOperator _mult = null;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException {
+		_m1 = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED);
+		_m2 = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED+1);
+		_v = BenchmarkUtils.createMatrix(1, cols, 1.0, BenchmarkUtils.SEED+2);
+		_plus = new BinaryOperator(Plus.getPlusFnObject(), threads);
+		_mult = new BinaryOperator(Multiply.getMultiplyFnObject(), threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock plusMatrixMatrix() throws DMLRuntimeException {
+		return execute(_m1, _m2, _plus);
+	}
+	
+	@Benchmark
+	public MatrixBlock multMatrixMatrix() throws DMLRuntimeException {
+		return execute(_m1, _m2, _mult);
+	}
+	
+	@Benchmark
+	public MatrixBlock multMatrixRowVector() throws DMLRuntimeException {
+		return execute(_m1, _v, _mult);
+	}
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param op
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock execute(MatrixBlock m1, MatrixBlock m2, BinaryOperator op) 
+		throws DMLRuntimeException 
+	{
+		//incl output sparsity estimate and allocation,
+		//core operation via LibMatrixBincell.bincellOp
+		return (MatrixBlock) m1.binaryOperations(op, m2, new MatrixBlock());
+	}
+}
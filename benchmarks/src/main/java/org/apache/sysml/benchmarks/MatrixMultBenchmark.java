@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Benchmarks of matrix multiplication (LibMatrixMult.matrixMult) for 
+ * matrix-matrix and matrix-vector products over dense, sparse, and 
+ * ultra-sparse left-hand-side inputs.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MatrixMultBenchmark 
+{
+	@Param({"1000", "4000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.0001"})
+	public double sparsity;
+	
+	@Param({"1", "4"})
+	public int threads;
+	
+	private MatrixBlock _m1 = null;
+	private MatrixBlock _m2 = null;
+	private MatrixBlock _v = null;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException {
+		_m1 = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED);
+		_m2 = BenchmarkUtils.createMatrix(cols, cols, 1.0, BenchmarkUtils.SEED+1);
+		_v = BenchmarkUtils.createMatrix(cols, 1, 1.0, BenchmarkUtils.SEED+2);
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixMatrix() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(rows, cols, false);
+		LibMatrixMult.matrixMult(_m1, _m2, ret, threads);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixVector() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(rows, 1, false);
+		LibMatrixMult.matrixMult(_m1, _v, ret, threads);
+		return ret;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.CacheDataInput;
+import org.apache.sysml.runtime.controlprogram.caching.CacheDataOutput;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Benchmarks of matrix block serialization and deserialization, via the
+ * in-memory cache data input/output (buffer pool) and via generic data
+ * streams (e.g., local files, shuffle).
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SerializationBenchmark 
+{
+	@Param({"1000", "10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.0001"})
+	public double sparsity;
+	
+	private MatrixBlock _mb = null;
+	private byte[] _cdata = null;
+	private byte[] _sdata = null;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException, IOException {
+		_mb = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED);
+		_cdata = writeCacheData();
+		_sdata = writeStream();
+	}
+	
+	@Benchmark
+	public byte[] writeCacheData() throws IOException {
+		byte[] ret = new byte[(int)_mb.getExactSizeOnDisk()];
+		_mb.write(new CacheDataOutput(ret));
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock readCacheData() throws IOException {
+		MatrixBlock ret = new MatrixBlock();
+		ret.readFields(new CacheDataInput(_cdata));
+		return ret;
+	}
+	
+	@Benchmark
+	public byte[] writeStream() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream((int)_mb.getExactSizeOnDisk());
+		DataOutputStream dos = new DataOutputStream(bos);
+		_mb.write(dos);
+		dos.flush();
+		return bos.toByteArray();
+	}
+	
+	@Benchmark
+	public MatrixBlock readStream() throws IOException {
+		MatrixBlock ret = new MatrixBlock();
+		ret.readFields(new DataInputStream(new ByteArrayInputStream(_sdata)));
+		return ret;
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockFactory;
+
+/**
+ * Benchmarks of basic sparse block operations (row scans, random 
+ * lookups, appends, and copies) for the MCSR, CSR, and COO sparse
+ * block representations.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SparseBlockBenchmark 
+{
+	private static final int NUM_LOOKUPS = 100000;
+	
+	@Param({"10000", "100000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"0.1", "0.0001"})
+	public double sparsity;
+	
+	@Param({"MCSR", "CSR", "COO"})
+	public SparseBlock.Type type;
+	
+	private SparseBlock _sblock = null;
+	private int[] _rix = null;
+	private int[] _cix = null;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException {
+		MatrixBlock mb = BenchmarkUtils.createMatrix(rows, cols, sparsity, type, BenchmarkUtils.SEED);
+		_sblock = mb.getSparseBlock();
+		
+		//random lookup positions
+		Random rand = new Random(BenchmarkUtils.SEED);
+		_rix = new int[NUM_LOOKUPS];
+		_cix = new int[NUM_LOOKUPS];
+		for( int i=0; i<NUM_LOOKUPS; i++ ) {
+			_rix[i] = rand.nextInt(rows);
+			_cix[i] = rand.nextInt(cols);
+		}
+	}
+	
+	@Benchmark
+	public double scanRows() {
+		SparseBlock a = _sblock;
+		double sum = 0;
+		for( int i=0; i<rows; i++ ) {
+			if( a.isEmpty(i) ) continue;
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			double[] avals = a.values(i);
+			for( int j=apos; j<apos+alen; j++ )
+				sum += avals[j];
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public double getRandom() {
+		double sum = 0;
+		for( int i=0; i<NUM_LOOKUPS; i++ )
+			sum += _sblock.get(_rix[i], _cix[i]);
+		return sum;
+	}
+	
+	@Benchmark
+	public SparseBlock appendRows() {
+		SparseBlock a = _sblock;
+		SparseBlock c = SparseBlockFactory.createSparseBlock(type, rows);
+		for( int i=0; i<rows; i++ ) {
+			if( a.isEmpty(i) ) continue;
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			int[] aix = a.indexes(i);
+			double[] avals = a.values(i);
+			for( int j=apos; j<apos+alen; j++ )
+				c.append(i, aix[j], avals[j]);
+		}
+		return c;
+	}
+	
+	@Benchmark
+	public SparseBlock copy() {
+		return SparseBlockFactory.copySparseBlock(type, _sblock, true);
+	}
+}
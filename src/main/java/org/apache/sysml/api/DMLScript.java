@@ -82,6 +82,7 @@ import org.apache.sysml.runtime.util.MapReduceTool;
 import org.apache.sysml.utils.Explain;
 import org.apache.sysml.utils.Explain.ExplainCounts;
 import org.apache.sysml.utils.Explain.ExplainType;
+import org.apache.sysml.utils.InstructionProfiler;
 import org.apache.sysml.utils.Statistics;
 import org.apache.sysml.yarn.DMLAppMasterUtils;
 import org.apache.sysml.yarn.DMLYarnClientProxy;
@@ -103,6 +104,7 @@ public class DMLScript
 	public static boolean USE_LOCAL_SPARK_CONFIG = false; //set default local spark configuration - used for local testing
 	public static String DML_FILE_PATH_ANTLR_PARSER = null;
 	public static ExplainType EXPLAIN = ExplainType.NONE; //default explain
+	public static String PROFILE_FILE = null; //optional json output of instruction profile
 	
 	public static boolean USE_ACCELERATOR = false;
 	public static boolean FORCE_ACCELERATOR = false;
@@ -133,6 +135,9 @@ public class DMLScript
 			+ "   -exec: <mode> (optional) execution mode (hadoop, singlenode, [hybrid], hybrid_spark)\n"
 			+ "   -explain: <type> (optional) explain plan (hops, [runtime], recompile_hops, recompile_runtime)\n"
 			+ "   -stats: (optional) monitor and report caching/recompilation statistics\n"
+			+ "   -profile: <filename> (optional) profile instruction latencies per opcode, line, input\n"
+			+ "         shape, and degree of parallelism, optionally exported as json to <filename>\n"
+			+ "         (with runtime explain, the program is explained again after execution)\n"
 			+ "   -clean: (optional) cleanup all SystemML working directories (FS, DFS).\n"
 			+ "         All other flags are ignored in this mode. \n"
 			+ "   -config: (optional) use config file <config_filename> (default: use parameter\n"
@@ -279,6 +284,8 @@ public class DMLScript
 		
 		// Reset global flags to avoid errors in test suite
 		ENABLE_DEBUG_MODE = false;
+		InstructionProfiler.PROFILE = false;
+		PROFILE_FILE = null;
 		
 		boolean parsePyDML = false;
 		try
@@ -296,6 +303,11 @@ public class DMLScript
 				}
 				else if( args[i].equalsIgnoreCase("-stats") )
 					STATISTICS = true;
+				else if( args[i].equalsIgnoreCase("-profile") ) {
+					InstructionProfiler.PROFILE = true;
+					if( args.length > (i+1) && !args[i+1].startsWith("-") )
+						PROFILE_FILE = args[++i];
+				}
 				else if ( args[i].equalsIgnoreCase("-exec")) {
 					rtplatform = parseRuntimePlatform(args[++i]);
 					if( rtplatform==null ) 
@@ -410,6 +422,7 @@ public class DMLScript
 				arg.equalsIgnoreCase("-explain") || 
 				arg.equalsIgnoreCase("-debug") || 
 				arg.equalsIgnoreCase("-stats") || 
+				arg.equalsIgnoreCase("-profile") || 
 				arg.equalsIgnoreCase("-exec") ||
 				arg.equalsIgnoreCase("-debug") ||
 				arg.startsWith("-config="))
@@ -706,6 +719,16 @@ public class DMLScript
 			//display statistics (incl caching stats if enabled)
 			Statistics.stopRunTimer();
 			LOG.info(Statistics.display());
+			
+			//explain runtime program w/ instruction profile (if enabled), 
+			//because the initial explain happens before execution
+			if( InstructionProfiler.PROFILE && (EXPLAIN == ExplainType.RUNTIME 
+				|| EXPLAIN == ExplainType.RECOMPILE_RUNTIME) )
+				LOG.info("EXPLAIN ("+EXPLAIN.toString()+", PROFILED):\n" + Explain.explain(rtprog));
+			
+			//export instruction profile (if enabled)
+			if( InstructionProfiler.PROFILE && PROFILE_FILE != null )
+				InstructionProfiler.writeJSON(PROFILE_FILE);
 			LOG.info("END DML run " + getDateTime() );
 			
 			//cleanup scratch_space and all working dirs
@@ -800,6 +823,8 @@ public class DMLScript
 			CacheStatistics.reset();
 			Statistics.reset();
 		}
+		if( InstructionProfiler.PROFILE )
+			InstructionProfiler.reset();
 	}
 	
 	/**
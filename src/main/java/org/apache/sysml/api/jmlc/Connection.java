@@ -93,6 +93,7 @@ import org.apache.wink.json4j.JSONObject;
 public class Connection implements Closeable
 {		
 	private DMLConfig _dmlconf = null;
+	private CompilerConfig _cconf = null;
 
 	/**
 	 * Connection constructor, the starting point for any other JMLC API calls.
@@ -118,6 +119,7 @@ public class Connection implements Closeable
 		cconf.set(ConfigType.ALLOW_INDIVIDUAL_SB_SPECIFIC_OPS, false);
 		cconf.set(ConfigType.ALLOW_CSE_PERSISTENT_READS, false);
 		ConfigurationManager.setLocalConfig(cconf);
+		_cconf = cconf;
 		
 		//disable caching globally 
 		CacheableData.disableCaching();
@@ -200,7 +202,7 @@ public class Connection implements Closeable
 		}
 			
 		//return newly create precompiled script 
-		return new PreparedScript(rtprog, inputs, outputs);
+		return new PreparedScript(rtprog, inputs, outputs, _dmlconf, _cconf);
 	}
 	
 	/**
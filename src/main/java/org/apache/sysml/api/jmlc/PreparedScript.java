@@ -28,7 +28,10 @@ import java.util.List;
 import java.util.Map.Entry;
 
 import org.apache.sysml.api.DMLException;
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.CompilerConfig.ConfigType;
 import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
 import org.apache.sysml.runtime.controlprogram.Program;
@@ -53,6 +56,12 @@ import org.apache.sysml.utils.Explain;
 
 /**
  * Representation of a prepared (precompiled) DML/PyDML script.
+ * 
+ * A prepared script is not thread-safe because it holds the bound inputs.
+ * For concurrent scoring, each thread should use its own copy obtained via
+ * {@link #clone()}, which shares the immutable compiled program, configurations,
+ * and reused inputs but has a private symbol table (see also
+ * {@link PreparedScriptPool}).
  */
 public class PreparedScript 
 {
@@ -65,14 +74,20 @@ public class PreparedScript
 	private Program _prog = null;
 	private LocalVariableMap _vars = null; 
 	
+	//configurations of the creating connection (shared by all copies)
+	private DMLConfig _dmlconf = null;
+	private CompilerConfig _cconf = null;
+	
 	/**
 	 * Meant to be invoked only from Connection.
 	 * 
 	 * @param prog the DML/PyDML program
 	 * @param inputs input variables to register
 	 * @param outputs output variables to register
+	 * @param dmlconf dml configuration of the connection
+	 * @param cconf compiler configuration of the connection
 	 */
-	protected PreparedScript( Program prog, String[] inputs, String[] outputs ) 
+	protected PreparedScript( Program prog, String[] inputs, String[] outputs, DMLConfig dmlconf, CompilerConfig cconf ) 
 	{
 		_prog = prog;
 		_vars = new LocalVariableMap();
@@ -83,6 +98,38 @@ public class PreparedScript
 		_outVarnames = new HashSet<String>();
 		Collections.addAll(_outVarnames, outputs);
 		_inVarReuse = new HashMap<String, Data>();
+		
+		_dmlconf = dmlconf;
+		_cconf = cconf;
+	}
+	
+	/**
+	 * Copy constructor, sharing the compiled program and reused inputs.
+	 * 
+	 * @param that prepared script to copy
+	 */
+	private PreparedScript( PreparedScript that )
+	{
+		_prog = that._prog;
+		_vars = new LocalVariableMap();
+		_inVarnames = that._inVarnames;
+		_outVarnames = that._outVarnames;
+		_inVarReuse = new HashMap<String, Data>(that._inVarReuse);
+		_dmlconf = that._dmlconf;
+		_cconf = that._cconf;
+	}
+	
+	/**
+	 * Creates a lightweight copy of this prepared script for use in another
+	 * thread. The copy shares the compiled program and all inputs bound with 
+	 * reuse (e.g., models), but binds other inputs into a private symbol table. 
+	 * Hence, copies can be executed concurrently without recompilation.
+	 * 
+	 * @return copy of this prepared script
+	 */
+	@Override
+	public PreparedScript clone() {
+		return new PreparedScript(this);
 	}
 	
 	/**
@@ -193,6 +240,8 @@ public class PreparedScript
 			throw new DMLException("Unspecified input variable: "+varname);
 		
 		_vars.put(varname, scalar);
+		if( reuse )
+			_inVarReuse.put(varname, scalar);
 	}
 
 	/**
@@ -234,8 +283,8 @@ public class PreparedScript
 		if( !_inVarnames.contains(varname) )
 			throw new DMLException("Unspecified input variable: "+varname);
 				
-		String scratch_space = ConfigurationManager.getScratchSpace();
-		int blocksize = ConfigurationManager.getBlocksize();
+		String scratch_space = getScratchSpace();
+		int blocksize = getBlocksize();
 		
 		//create new matrix object
 		MatrixCharacteristics mc = new MatrixCharacteristics(matrix.getNumRows(), matrix.getNumColumns(), blocksize, blocksize);
@@ -343,7 +392,7 @@ public class PreparedScript
 		if( !_inVarnames.contains(varname) )
 			throw new DMLException("Unspecified input variable: "+varname);
 				
-		String scratch_space = ConfigurationManager.getScratchSpace();
+		String scratch_space = getScratchSpace();
 		
 		//create new frame object
 		MatrixCharacteristics mc = new MatrixCharacteristics(frame.getNumRows(), frame.getNumColumns(), -1, -1);
@@ -378,6 +427,12 @@ public class PreparedScript
 	public ResultVariables executeScript() 
 		throws DMLException
 	{
+		//set thread-local configurations (for use from arbitrary threads)
+		if( _dmlconf != null )
+			ConfigurationManager.setLocalConfig(_dmlconf);
+		if( _cconf != null )
+			ConfigurationManager.setLocalConfig(_cconf);
+		
 		//add reused variables
 		for( Entry<String,Data> e : _inVarReuse.entrySet() )
 			_vars.put(e.getKey(), e.getValue());
@@ -413,4 +468,14 @@ public class PreparedScript
 	public String explain() throws DMLException {
 		return Explain.explain(_prog);
 	}
+	
+	private String getScratchSpace() {
+		return (_dmlconf != null) ? _dmlconf.getTextValue(DMLConfig.SCRATCH_SPACE) :
+			ConfigurationManager.getScratchSpace();
+	}
+	
+	private int getBlocksize() {
+		return (_cconf != null) ? _cconf.getInt(ConfigType.BLOCK_SIZE) :
+			ConfigurationManager.getBlocksize();
+	}
 }
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.api.jmlc;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.api.DMLException;
+import org.apache.sysml.utils.Histogram;
+
+/**
+ * Micro-batched scoring facade of a prepared scoring script (e.g., GLM or
+ * SVM predict), where each output row depends only on the respective input 
+ * row. Single-row requests from many threads are coalesced into batches of 
+ * up to a maximum batch size, where a batch is closed at the latest after 
+ * the given latency window since its first request. The rows of each batch 
+ * are copied into a single multi-row input matrix, scored with one script 
+ * execution, and the output rows are handed back to the individual callers. Hence, the 
+ * per-call overhead of variable setup, instruction interpretation, and small
+ * matrix multiplications is amortized over the batch, while the latency 
+ * window bounds the additional wait of each request.
+ * 
+ * Batches are scored concurrently by a {@link PreparedScriptPool} of the 
+ * given number of threads. Models and other constant inputs should be bound 
+ * with reuse to the prepared script before creating the batcher.
+ */
+public class PreparedScriptBatcher implements Closeable
+{
+	private static final Request CLOSE = new Request(null);
+	
+	private final String _inVar;
+	private final String _outVar;
+	private final int _numCols;
+	private final int _maxBatchSize;
+	private final long _windowNanos;
+	
+	private final PreparedScriptPool _pool;
+	private final ExecutorService _exec;
+	private final BlockingQueue<Request> _queue;
+	private final Thread _dispatcher;
+	
+	//guards enqueue against close, so no request follows the close marker
+	private final Object _closeLock = new Object();
+	private boolean _closed = false;
+	
+	//statistics of request latency and batch sizes
+	private final Histogram _latency = new Histogram();
+	private final Histogram _batchSizes = new Histogram();
+	
+	/**
+	 * Creates a batcher and starts its dispatcher thread.
+	 * 
+	 * @param pstmt prepared script, including reused inputs
+	 * @param inVar input matrix variable of batched rows
+	 * @param outVar output matrix variable of scored rows
+	 * @param numCols number of columns of input rows
+	 * @param maxBatchSize maximum number of rows per batch
+	 * @param windowMicros maximum wait for additional requests in microseconds
+	 * @param numThreads number of concurrently scored batches
+	 */
+	public PreparedScriptBatcher(PreparedScript pstmt, String inVar, String outVar, 
+		int numCols, int maxBatchSize, long windowMicros, int numThreads)
+	{
+		if( maxBatchSize < 1 || windowMicros < 0 )
+			throw new IllegalArgumentException("Invalid batch size or latency window: "
+				+ maxBatchSize + ", " + windowMicros);
+		
+		_inVar = inVar;
+		_outVar = outVar;
+		_numCols = numCols;
+		_maxBatchSize = maxBatchSize;
+		_windowNanos = windowMicros * 1000;
+		
+		_pool = new PreparedScriptPool(pstmt, numThreads);
+		_exec = Executors.newFixedThreadPool(numThreads);
+		_queue = new LinkedBlockingQueue<Request>();
+		_dispatcher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				dispatch();
+			}
+		}, "jmlc-batcher");
+		_dispatcher.setDaemon(true);
+		_dispatcher.start();
+	}
+	
+	/**
+	 * Scores a single input row, blocking until its batch is executed.
+	 * 
+	 * @param row input row of numCols values
+	 * @return output row
+	 * @throws DMLException
+	 */
+	public double[] score(double[] row) 
+		throws DMLException
+	{
+		if( row == null || row.length != _numCols )
+			throw new DMLException("Invalid input row length: "
+				+ ((row!=null) ? row.length : -1) + " (expected " + _numCols + ").");
+		
+		Request req = new Request(row);
+		synchronized( _closeLock ) {
+			if( _closed )
+				throw new DMLException("Scoring request after close.");
+			_queue.add(req);
+		}
+		try {
+			req._done.await();
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new DMLException(ex);
+		}
+		
+		if( req._err != null )
+			throw new DMLException(req._err);
+		synchronized( this ) {
+			_latency.add(System.nanoTime() - req._t0);
+		}
+		return req._out;
+	}
+	
+	/**
+	 * Get the number of executed batches.
+	 * 
+	 * @return number of batches
+	 */
+	public synchronized long getNumBatches() {
+		return _batchSizes.getCount();
+	}
+	
+	/**
+	 * Get the average number of rows per executed batch.
+	 * 
+	 * @return average batch size
+	 */
+	public synchronized double getMeanBatchSize() {
+		long n = _batchSizes.getCount();
+		return (n > 0) ? (double)_batchSizes.getTotal() / n : 0;
+	}
+	
+	/**
+	 * Get the given percentile of the request latency, from 
+	 * submission until the output row is available.
+	 * 
+	 * @param q percentile in [0,1], e.g., 0.99
+	 * @return latency in nanoseconds
+	 */
+	public synchronized long getLatency(double q) {
+		return _latency.getPercentile(q);
+	}
+	
+	/**
+	 * Get the pool of script copies, e.g., for its latency statistics
+	 * of script executions.
+	 * 
+	 * @return pool of script copies
+	 */
+	public PreparedScriptPool getPool() {
+		return _pool;
+	}
+	
+	/**
+	 * Closes the batcher, after scoring all previously submitted requests.
+	 */
+	@Override
+	public void close() {
+		synchronized( _closeLock ) {
+			if( _closed )
+				return;
+			_closed = true;
+			_queue.add(CLOSE);
+		}
+		try {
+			_dispatcher.join();
+
+			//reject requests left behind by an interrupted dispatcher
+			Request req = null;
+			while( (req = _queue.poll()) != null ) {
+				req._err = new DMLException("Scoring request after close.");
+				req._done.countDown();
+			}
+
+			_exec.shutdown();
+			_exec.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		_pool.close();
+	}
+	
+	/**
+	 * Main loop of the dispatcher thread, which collects requests into
+	 * batches until the batch is full or the latency window expired.
+	 */
+	private void dispatch()
+	{
+		boolean closed = false;
+		while( !closed ) {
+			ArrayList<Request> batch = new ArrayList<Request>();
+			try {
+				//block until the first request of the next batch
+				Request req = _queue.take();
+				if( req == CLOSE )
+					break;
+				batch.add(req);
+				
+				//collect requests until full or window expired
+				long deadline = req._t0 + _windowNanos;
+				while( batch.size() < _maxBatchSize ) {
+					//drain already queued requests w/o wait
+					if( (req = _queue.poll()) == null ) {
+						long wait = deadline - System.nanoTime();
+						if( wait <= 0 || (req = _queue.poll(wait, TimeUnit.NANOSECONDS)) == null )
+							break;
+					}
+					if( req == CLOSE ) {
+						closed = true;
+						break;
+					}
+					batch.add(req);
+				}
+			}
+			catch(InterruptedException ex) {
+				closed = true;
+			}
+			
+			if( !batch.isEmpty() )
+				submitBatch(batch);
+		}
+	}
+	
+	private void submitBatch(final ArrayList<Request> batch) 
+	{
+		synchronized( this ) {
+			_batchSizes.add(batch.size());
+		}
+		_exec.execute(new Runnable() {
+			@Override
+			public void run() {
+				executeBatch(batch);
+			}
+		});
+	}
+	
+	private void executeBatch(ArrayList<Request> batch) 
+	{
+		try {
+			//create multi-row input (rows are copied once into the
+			//input matrix block when bound via setMatrix)
+			double[][] in = new double[batch.size()][];
+			for( int i=0; i<in.length; i++ )
+				in[i] = batch.get(i)._in;
+			Map<String, Object> inputs = new HashMap<String, Object>();
+			inputs.put(_inVar, in);
+			
+			//score batch and split output rows 
+			double[][] out = _pool.execute(inputs).getMatrix(_outVar);
+			if( out.length != in.length )
+				throw new DMLException("Number of output rows does not match batch size: "
+					+ out.length + " vs " + in.length + ".");
+			for( int i=0; i<out.length; i++ )
+				batch.get(i)._out = out[i];
+		}
+		catch(Exception ex) {
+			for( Request req : batch )
+				req._err = ex;
+		}
+		finally {
+			for( Request req : batch )
+				req._done.countDown();
+		}
+	}
+	
+	/**
+	 * Single-row scoring request.
+	 */
+	private static class Request
+	{
+		private final double[] _in;
+		private final long _t0 = System.nanoTime();
+		private final CountDownLatch _done = new CountDownLatch(1);
+		private double[] _out = null;
+		private Exception _err = null;
+		
+		private Request(double[] in) {
+			_in = in;
+		}
+	}
+}
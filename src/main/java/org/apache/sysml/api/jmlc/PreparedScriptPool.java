@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.api.jmlc;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.sysml.api.DMLException;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.utils.Histogram;
+
+/**
+ * Pool of copies of a prepared script for concurrent scoring. All copies 
+ * share the compiled program and reused inputs (e.g., models bound via 
+ * {@code setMatrix(varname, matrix, true)} before creating the pool), while 
+ * the per-request inputs are bound to a private copy that is borrowed for 
+ * the duration of a single call. Calls are either executed in the calling
+ * thread via {@link #execute(Map)} or asynchronously by the pool's threads
+ * via {@link #submit(Map)}.
+ * 
+ * The pool maintains latency histograms (in nanoseconds) of the script 
+ * execution itself and of the entire call including the wait for a free 
+ * copy or thread.
+ */
+public class PreparedScriptPool implements Closeable
+{
+	private final BlockingQueue<PreparedScript> _scripts;
+	private final ExecutorService _pool;
+	
+	//latency statistics of all calls
+	private final Histogram _execTimes = new Histogram();
+	private final Histogram _callTimes = new Histogram();
+	
+	/**
+	 * Creates a pool with the given number of script copies and threads.
+	 * 
+	 * @param pstmt prepared script, including reused inputs
+	 * @param numThreads number of concurrent executions
+	 */
+	public PreparedScriptPool(PreparedScript pstmt, int numThreads) 
+	{
+		if( numThreads < 1 )
+			throw new IllegalArgumentException("Invalid number of threads: "+numThreads);
+		
+		_scripts = new LinkedBlockingQueue<PreparedScript>();
+		for( int i=0; i<numThreads; i++ )
+			_scripts.add(pstmt.clone());
+		_pool = Executors.newFixedThreadPool(numThreads);
+	}
+	
+	/**
+	 * Executes the script over the given inputs in the calling thread,
+	 * waiting for a free script copy if necessary. Inputs are matrices
+	 * (MatrixBlock or double[][]), frames (FrameBlock or String[][]), or
+	 * scalars (Boolean, Integer, Long, Double, or String).
+	 * 
+	 * @param inputs map of input variable names and values
+	 * @return ResultVariables object encapsulating output results
+	 * @throws DMLException
+	 */
+	public ResultVariables execute(Map<String, Object> inputs) 
+		throws DMLException 
+	{
+		return execute(inputs, System.nanoTime());
+	}
+	
+	/**
+	 * Submits the execution of the script over the given inputs
+	 * to the threads of this pool (see {@link #execute(Map)}).
+	 * 
+	 * @param inputs map of input variable names and values
+	 * @return future of the ResultVariables object
+	 */
+	public Future<ResultVariables> submit(final Map<String, Object> inputs) 
+	{
+		final long t0 = System.nanoTime();
+		return _pool.submit(new Callable<ResultVariables>() {
+			@Override
+			public ResultVariables call() throws DMLException {
+				return execute(inputs, t0);
+			}
+		});
+	}
+	
+	private ResultVariables execute(Map<String, Object> inputs, long t0) 
+		throws DMLException 
+	{
+		PreparedScript pstmt = null;
+		try {
+			pstmt = _scripts.take();
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new DMLException(ex);
+		}
+		
+		try {
+			//bind inputs and execute script
+			long t1 = System.nanoTime();
+			for( Entry<String, Object> e : inputs.entrySet() )
+				bindInput(pstmt, e.getKey(), e.getValue());
+			ResultVariables ret = pstmt.executeScript();
+			long t2 = System.nanoTime();
+			
+			//maintain latency statistics
+			synchronized( this ) {
+				_execTimes.add(t2 - t1);
+				_callTimes.add(t2 - t0);
+			}
+			return ret;
+		}
+		finally {
+			//release bound inputs and return copy to pool
+			pstmt.clearParameters();
+			_scripts.add(pstmt);
+		}
+	}
+	
+	/**
+	 * Get the number of completed calls.
+	 * 
+	 * @return number of calls
+	 */
+	public synchronized long getNumCalls() {
+		return _execTimes.getCount();
+	}
+	
+	/**
+	 * Get the given percentile of the script execution latency, 
+	 * excluding the wait for a free copy or thread.
+	 * 
+	 * @param q percentile in [0,1], e.g., 0.99
+	 * @return latency in nanoseconds
+	 */
+	public synchronized long getExecLatency(double q) {
+		return _execTimes.getPercentile(q);
+	}
+	
+	/**
+	 * Get the given percentile of the end-to-end call latency,
+	 * including the wait for a free copy or thread.
+	 * 
+	 * @param q percentile in [0,1], e.g., 0.99
+	 * @return latency in nanoseconds
+	 */
+	public synchronized long getCallLatency(double q) {
+		return _callTimes.getPercentile(q);
+	}
+	
+	/**
+	 * Get the average script execution latency.
+	 * 
+	 * @return latency in nanoseconds
+	 */
+	public synchronized long getMeanExecLatency() {
+		long n = _execTimes.getCount();
+		return (n > 0) ? _execTimes.getTotal() / n : 0;
+	}
+	
+	/**
+	 * Get the maximum end-to-end call latency.
+	 * 
+	 * @return latency in nanoseconds
+	 */
+	public synchronized long getMaxCallLatency() {
+		return _callTimes.getMax();
+	}
+	
+	/**
+	 * Obtain a summary of the latency statistics in milliseconds.
+	 * 
+	 * @return string of latency statistics
+	 */
+	public synchronized String getLatencyStatistics() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Calls:\t\t\t"+_execTimes.getCount()+".\n");
+		sb.append("Exec latency (p50/p99/max):\t"+toMs(_execTimes.getPercentile(0.5))+"/"
+			+toMs(_execTimes.getPercentile(0.99))+"/"+toMs(_execTimes.getMax())+" ms.\n");
+		sb.append("Call latency (p50/p99/max):\t"+toMs(_callTimes.getPercentile(0.5))+"/"
+			+toMs(_callTimes.getPercentile(0.99))+"/"+toMs(_callTimes.getMax())+" ms.\n");
+		return sb.toString();
+	}
+	
+	/**
+	 * Shuts down the threads of this pool, after completing
+	 * all previously submitted calls.
+	 */
+	@Override
+	public void close() {
+		_pool.shutdown();
+	}
+	
+	private static void bindInput(PreparedScript pstmt, String varname, Object in) 
+		throws DMLException
+	{
+		if( in instanceof MatrixBlock )
+			pstmt.setMatrix(varname, (MatrixBlock)in, false);
+		else if( in instanceof double[][] )
+			pstmt.setMatrix(varname, (double[][])in);
+		else if( in instanceof FrameBlock )
+			pstmt.setFrame(varname, (FrameBlock)in, false);
+		else if( in instanceof String[][] )
+			pstmt.setFrame(varname, (String[][])in);
+		else if( in instanceof Boolean )
+			pstmt.setScalar(varname, (Boolean)in);
+		else if( in instanceof Integer || in instanceof Long )
+			pstmt.setScalar(varname, ((Number)in).longValue());
+		else if( in instanceof Double )
+			pstmt.setScalar(varname, (Double)in);
+		else if( in instanceof String )
+			pstmt.setScalar(varname, (String)in);
+		else
+			throw new DMLException("Unsupported input type for variable '"+varname+"': "
+				+ ((in!=null) ? in.getClass().getName() : "null"));
+	}
+	
+	private static String toMs(long nanos) {
+		return String.format("%.3f", nanos / 1e6);
+	}
+}
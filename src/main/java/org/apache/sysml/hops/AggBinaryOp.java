@@ -22,6 +22,7 @@ package org.apache.sysml.hops;
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
 import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.estim.DensityMap;
 import org.apache.sysml.hops.rewrite.HopRewriteUtils;
 import org.apache.sysml.lops.Aggregate;
 import org.apache.sysml.lops.Binary;
@@ -343,7 +344,10 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 				sparsity = OptimizerUtils.getSparsity(dim1, dim2, nnz);
 		}
 		*/
-		//currently always estimated as dense in order to account for dense intermediate without unnecessary overestimation 
+		//currently always estimated as dense in order to account for dense intermediate without unnecessary overestimation,
+		//except for available density maps, where the dense intermediate is accounted for as intermediate
+		if( isMatrixMultiply() && _dmap != null )
+			sparsity = _dmap.getSparsity();
 		double ret = OptimizerUtils.estimateSizeExactSparsity(dim1, dim2, sparsity);
 		
 		return ret;
@@ -358,6 +362,10 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 		if( dim2 >= 2 ) //vectors always dense
 			ret = OptimizerUtils.estimateSizeExactSparsity(dim1, dim2, MatrixBlock.SPARSITY_TURN_POINT);
 		
+		//account for dense intermediate if output estimated via density map
+		if( isMatrixMultiply() && _dmap != null )
+			ret = OptimizerUtils.estimateSizeExactSparsity(dim1, dim2, 1.0);
+		
 		return ret;
 	}
 	
@@ -401,6 +409,21 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 		return true;
 	}
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//only the general dense-dense matrix multiply supports large dense blocks
+		if( !isMatrixMultiply() )
+			return false;
+		Hop input1 = getInput().get(0);
+		Hop input2 = getInput().get(1);
+		MMultMethod method = optFindMMultMethodCP( input1.getDim1(), input1.getDim2(),   
+			input2.getDim1(), input2.getDim2(), checkTransposeSelf(), checkMapMultChain(), _hasLeftPMInput );
+		return method == MMultMethod.MM 
+			&& (input1.getNnz() < 0 || !MatrixBlock.evalSparseFormatInMemory(input1.getDim1(), input1.getDim2(), input1.getNnz()))
+			&& (input2.getNnz() < 0 || !MatrixBlock.evalSparseFormatInMemory(input2.getDim1(), input2.getDim2(), input2.getNnz()));
+	}
+	
 	@Override
 	protected ExecType optFindExecType() 
 		throws HopsException 
@@ -1995,6 +2018,8 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 		{
 			setDim1(input1.getDim1());
 			setDim2(input2.getDim2());
+			setDensityMap(DensityMap.estimMatMult(
+				input1.getDensityMap(), input2.getDensityMap()));
 		}
 	}
 	
@@ -320,6 +320,14 @@ public class AggUnaryOp extends Hop implements MultiThreadedHop
 		return true;
 	}
 
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//fused ternary aggregates and outer aggregates access single arrays
+		return !isTernaryAggregateRewriteApplicable() 
+			&& !isUnaryAggregateOuterCPRewriteApplicable();
+	}
+
 	@Override
 	protected double computeOutputMemEstimate( long dim1, long dim2, long nnz )
 	{		
@@ -20,6 +20,8 @@
 package org.apache.sysml.hops;
 
 import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.estim.DensityMap;
 import org.apache.sysml.hops.rewrite.HopRewriteUtils;
 import org.apache.sysml.lops.Aggregate;
 import org.apache.sysml.lops.AppendGAlignedSP;
@@ -62,7 +64,7 @@ import org.apache.sysml.runtime.matrix.mapred.DistributedCacheInput;
  * 		Semantic: align indices (sort), then perform operation
  */
 
-public class BinaryOp extends Hop 
+public class BinaryOp extends Hop implements MultiThreadedHop
 {
 	
 	//we use the full remote memory budget (but reduced by sort buffer), 
@@ -70,6 +72,7 @@ public class BinaryOp extends Hop
 	
 	private Hop.OpOp2 op;
 	private boolean outer = false;
+	private int _maxNumThreads = -1; //-1 for unlimited
 	
 	public static AppendMethod FORCED_APPEND_METHOD = null;
 	public enum AppendMethod { 
@@ -123,6 +126,16 @@ public class BinaryOp extends Hop
 		return outer;
 	}
 	
+	@Override
+	public void setMaxNumThreads( int k ) {
+		_maxNumThreads = k;
+	}
+	
+	@Override
+	public int getMaxNumThreads() {
+		return _maxNumThreads;
+	}
+	
 	@Override
 	public Lop constructLops() 
 		throws HopsException, LopsException 
@@ -251,6 +264,8 @@ public class BinaryOp extends Hop
 					getInput().get(1).constructLops(), 
 					SortKeys.OperationTypes.WithWeights, 
 					getInput().get(0).getDataType(), getInput().get(0).getValueType(), et);
+			if( et == ExecType.CP )
+				sort.setNumThreads( OptimizerUtils.getConstrainedNumThreads(_maxNumThreads) );
 			sort.getOutputParameters().setDimensions(
 					getInput().get(0).getDim1(),
 					getInput().get(0).getDim2(), 
@@ -318,6 +333,8 @@ public class BinaryOp extends Hop
 					getInput().get(1).constructLops(), 
 					SortKeys.OperationTypes.WithWeights, 
 					getInput().get(0).getDataType(), getInput().get(0).getValueType(), et);
+			if( et == ExecType.CP )
+				sort.setNumThreads( OptimizerUtils.getConstrainedNumThreads(_maxNumThreads) );
 			sort.getOutputParameters().setDimensions(
 					getInput().get(0).getDim1(),
 					getInput().get(0).getDim2(),
@@ -471,6 +488,8 @@ public class BinaryOp extends Hop
 								getInput().get(0).constructLops(), 
 								SortKeys.OperationTypes.WithoutWeights, 
 								DataType.MATRIX, ValueType.DOUBLE, et );
+			if( et == ExecType.CP )
+				sort.setNumThreads( OptimizerUtils.getConstrainedNumThreads(_maxNumThreads) );
 			sort.getOutputParameters().setDimensions(
 					getInput().get(0).getDim1(),
 					getInput().get(0).getDim2(),
@@ -587,8 +606,9 @@ public class BinaryOp extends Hop
 				ot = HopsOpOp2LopsU.get(op);
 			
 			
+			int k = (et == ExecType.CP) ? OptimizerUtils.getConstrainedNumThreads( _maxNumThreads ) : 1;
 			Unary unary1 = new Unary(getInput().get(0).constructLops(),
-						   getInput().get(1).constructLops(), ot, getDataType(), getValueType(), et);
+						   getInput().get(1).constructLops(), ot, getDataType(), getValueType(), et, k);
 		
 			setOutputDimensions(unary1);
 			setLineNumbers(unary1);
@@ -601,8 +621,9 @@ public class BinaryOp extends Hop
 			ExecType et = optFindExecType();
 			if ( et == ExecType.CP ) 
 			{
+				int k = OptimizerUtils.getConstrainedNumThreads( _maxNumThreads );
 				Binary binary = new Binary(getInput().get(0).constructLops(), getInput().get(1).constructLops(), HopsOpOp2LopsB.get(op),
-						getDataType(), getValueType(), et);
+						getDataType(), getValueType(), et, k);
 				
 				setOutputDimensions(binary);
 				setLineNumbers(binary);
@@ -790,6 +811,9 @@ public class BinaryOp extends Hop
 						//sparsity estimates are conservative in terms of the worstcase behavior, however,
 						//for outer vector operations the average case is equivalent to the worst case.
 						sparsity = OptimizerUtils.getBinaryOpSparsity(sp1, sp2, op, !outer);
+						//blockwise worst-case estimates via density maps, if available
+						if( _dmap != null )
+							sparsity = Math.min(sparsity, _dmap.getSparsity());
 					}
 				}
 			}
@@ -928,6 +952,16 @@ public class BinaryOp extends Hop
 		return true;
 	}
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//only cell-wise matrix-matrix, matrix-vector, and matrix-scalar operations
+		return !outer && op != OpOp2.CBIND && op != OpOp2.RBIND && op != OpOp2.SOLVE
+			&& op != OpOp2.QUANTILE && op != OpOp2.INTERQUANTILE && op != OpOp2.IQM 
+			&& op != OpOp2.MEDIAN && op != OpOp2.CENTRALMOMENT && op != OpOp2.COVARIANCE
+			&& op != OpOp2.PRINT && op != OpOp2.CONCAT;
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
@@ -1514,6 +1548,10 @@ public class BinaryOp extends Hop
 				{
 					setNnz( lnnz1 );
 				}
+				
+				//propagate density maps of cell-wise matrix-matrix operations
+				setDensityMap( (dt1==DataType.MATRIX && dt2==DataType.MATRIX && !outer) ?
+					DensityMap.estimBinary(input1.getDensityMap(), input2.getDensityMap(), op) : null );
 			}
 		}	
 	}
@@ -1529,6 +1567,7 @@ public class BinaryOp extends Hop
 		//copy specific attributes
 		ret.op = op;
 		ret.outer = outer;
+		ret._maxNumThreads = _maxNumThreads;
 		
 		return ret;
 	}
@@ -1542,6 +1581,7 @@ public class BinaryOp extends Hop
 		BinaryOp that2 = (BinaryOp)that;
 		return (   op == that2.op
 				&& outer == that2.outer
+				&& _maxNumThreads == that2._maxNumThreads
 				&& getInput().get(0) == that2.getInput().get(0)
 				&& getInput().get(1) == that2.getInput().get(1));
 	}
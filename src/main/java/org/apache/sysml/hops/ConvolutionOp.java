@@ -130,7 +130,7 @@ public class ConvolutionOp extends Hop  implements MultiThreadedHop
 			case DIRECT_CONV2D_BACKWARD_DATA:
 			case DIRECT_CONV2D_BACKWARD_FILTER:
 			{	
-				if( et == ExecType.GPU )
+				if( et == ExecType.GPU || et == ExecType.CP )
 				{
 					setLops(constructConvolutionLops(et, inputs));
 					break;
@@ -173,8 +173,9 @@ public class ConvolutionOp extends Hop  implements MultiThreadedHop
 		}
 		
 		Lop in = inputs.get(0).constructLops();
+		int k = (et == ExecType.CP) ? OptimizerUtils.getConstrainedNumThreads(primaryOp.getMaxNumThreads()) : 1;
 		ConvolutionTransform transform1 = new ConvolutionTransform( in, 
-				HopsConv2Lops.get(op), primaryOp.getDataType(), primaryOp.getValueType(), et, 1);
+				HopsConv2Lops.get(op), primaryOp.getDataType(), primaryOp.getValueType(), et, k);
 		
 		// setOutputDimensions(transform1);
 		transform1.getOutputParameters().setDimensions(
@@ -197,6 +197,12 @@ public class DataGenOp extends Hop implements MultiThreadedHop
 		return true;
 	}	
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		return _op == DataGenMethod.RAND;
+	}
+	
 	@Override
 	protected double computeOutputMemEstimate( long dim1, long dim2, long nnz )
 	{		
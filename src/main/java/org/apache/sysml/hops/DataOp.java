@@ -350,6 +350,13 @@ public class DataOp extends Hop
 		return false;
 	}	
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//transient reads/writes and binary block reads/writes (via slice/copy)
+		return !isPersistentReadWrite() || _inFormat == FileFormatTypes.BINARY;
+	}
+	
 	@Override
 	protected double computeOutputMemEstimate( long dim1, long dim2, long nnz )
 	{		
@@ -436,7 +443,8 @@ public class DataOp extends Hop
 			checkAndSetForcedPlatform();
 
 			//additional check for write only
-			if( getDataType()==DataType.SCALAR || (getDataType()==DataType.FRAME && REMOTE==ExecType.MR) )
+			if( getDataType()==DataType.SCALAR || (getDataType()==DataType.FRAME && REMOTE==ExecType.MR) 
+				|| (_inFormat==FileFormatTypes.LIBSVM && REMOTE==ExecType.MR) ) //no libsvm write in MR
 				_etypeForced = ExecType.CP;
 			
 			if( _etypeForced != null ) 			
@@ -491,6 +499,7 @@ public class DataOp extends Hop
 			setDim1(input1.getDim1());
 			setDim2(input1.getDim2());
 			setNnz(input1.getNnz());
+			setDensityMap(input1.getDensityMap());
 		}
 		else //READ
 		{
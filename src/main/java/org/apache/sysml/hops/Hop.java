@@ -27,8 +27,10 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
 import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.estim.DensityMap;
 import org.apache.sysml.lops.CSVReBlock;
 import org.apache.sysml.lops.Checkpoint;
+import org.apache.sysml.lops.Compression;
 import org.apache.sysml.lops.Data;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.lops.LopsException;
@@ -83,6 +85,7 @@ public abstract class Hop
 	protected long _rows_in_block = -1;
 	protected long _cols_in_block = -1;
 	protected long _nnz = -1;
+	protected DensityMap _dmap = null; //optional, for sparsity estimates
 	protected UpdateType _updateType = UpdateType.COPY;
 
 	protected ArrayList<Hop> _parent = new ArrayList<Hop>();
@@ -112,6 +115,10 @@ public abstract class Hop
 	// (the default storage level for caching is not yet exposed here)
 	protected boolean _requiresCheckpoint = false;
 	
+	// indicates if the output of this hop needs to be compressed
+	// (usually this happens on persistent reads of read-only matrices)
+	protected boolean _requiresCompression = false;
+	
 	// indicates if the output of this hops needs to contain materialized empty blocks 
 	// if those exists; otherwise only blocks w/ non-zero values are materialized
 	protected boolean _outputEmptyBlocks = true;
@@ -224,6 +231,13 @@ public abstract class Hop
 				invalid |= !(   OptimizerUtils.isValidCPMatrixSize(in._dim1, in._dim2, OptimizerUtils.getSparsity(in._dim1, in._dim2, in._nnz))
 						     || in.getOutputMemEstimate() < OptimizerUtils.MAX_NUMCELLS_CP_DENSE);
 			
+			//Step 3: check for large dense blocks (>16GB) of operations w/o support
+			if( OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS && !isLargeDenseBlockSupported() ) {
+				invalid |= OptimizerUtils.isLargeDenseBlock(_dim1, _dim2, _nnz);
+				for( Hop in : getInput() )
+					invalid |= OptimizerUtils.isLargeDenseBlock(in._dim1, in._dim2, in._nnz);
+			}
+			
 			//force exec type mr if necessary
 			if( invalid ) { 
 				if( DMLScript.rtplatform == RUNTIME_PLATFORM.HYBRID )
@@ -234,6 +248,18 @@ public abstract class Hop
 		}
 	}
 	
+	/**
+	 * Indicates if the CP operations of this hop support large dense blocks
+	 * (see OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS) as inputs and output. All
+	 * other operations access dense blocks as single arrays and hence, are
+	 * not compiled to CP for large dense inputs or outputs.
+	 * 
+	 * @return
+	 */
+	protected boolean isLargeDenseBlockSupported() {
+		return false;
+	}
+	
 	public void setRequiresReblock(boolean flag)
 	{
 		_requiresReblock = flag;
@@ -274,6 +300,16 @@ public abstract class Hop
 		return _requiresCheckpoint;
 	}
 	
+	public void setRequiresCompression(boolean flag)
+	{
+		_requiresCompression = flag;
+	}
+	
+	public boolean requiresCompression()
+	{
+		return _requiresCompression;
+	}
+	
 	
 	/**
 	 * 
@@ -285,10 +321,58 @@ public abstract class Hop
 		//Step 1: construct reblock lop if required (output of hop)
 		constructAndSetReblockLopIfRequired();
 		
-		//Step 2: construct checkpoint lop if required (output of hop or reblock)
+		//Step 2: construct compression lop if required (output of hop or reblock)
+		constructAndSetCompressionLopIfRequired();
+		
+		//Step 3: construct checkpoint lop if required (output of hop, reblock, or compression)
 		constructAndSetCheckpointLopIfRequired();
 	}
 	
+	/**
+	 * 
+	 * @throws HopsException
+	 */
+	private void constructAndSetCompressionLopIfRequired() 
+		throws HopsException
+	{
+		//determine execution type
+		ExecType et = ExecType.CP;
+		if( OptimizerUtils.isSparkExecutionMode() 
+			&& getDataType()!=DataType.SCALAR )
+		{
+			//conditional compression based on memory estimate (similar to checkpoints)
+			if(    OptimizerUtils.isHybridExecutionMode() 
+				&& _outputMemEstimate < OptimizerUtils.getLocalMemBudget()
+				|| _etypeForced == ExecType.CP )
+			{
+				et = ExecType.CP;
+			}
+			else //default case
+			{
+				et = ExecType.SPARK;
+			}
+		}
+		
+		//add compression lop to output if required (not supported in MR)
+		if( _requiresCompression && getDataType()==DataType.MATRIX 
+			&& (et == ExecType.CP || et == ExecType.SPARK) 
+			&& DMLScript.rtplatform != RUNTIME_PLATFORM.HADOOP )
+		{
+			try
+			{
+				Lop compress = new Compression(getLops(), getDataType(), getValueType(), 
+					et, OptimizerUtils.getConstrainedNumThreads(-1));
+				
+				setOutputDimensions( compress );
+				setLineNumbers( compress );
+				setLops( compress );
+			}
+			catch( LopsException ex ) {
+				throw new HopsException(ex);
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @throws HopsException
@@ -302,6 +386,11 @@ public abstract class Hop
 			&& !(getDataType()==DataType.SCALAR) )
 		{
 			et = OptimizerUtils.isSparkExecutionMode() ? ExecType.SPARK : ExecType.MR;
+			
+			//libsvm is only supported by in-memory reads in CP or reblocks in SPARK
+			if( et == ExecType.MR && this instanceof DataOp 
+				&& ((DataOp)this).getInputFormatType() == FileFormatTypes.LIBSVM )
+				et = ExecType.CP;
 		}
 
 		//add reblock lop to output if required
@@ -841,6 +930,14 @@ public abstract class Hop
 	public long getNnz(){
 		return _nnz;
 	}
+	
+	public void setDensityMap(DensityMap dmap){
+		_dmap = dmap;
+	}
+	
+	public DensityMap getDensityMap(){
+		return _dmap;
+	}
 
 	public void setUpdateType(UpdateType update){
 		_updateType = update;
@@ -1115,7 +1212,7 @@ public abstract class Hop
 	};
 
 	public enum FileFormatTypes {
-		TEXT, BINARY, MM, CSV
+		TEXT, BINARY, MM, CSV, LIBSVM
 	};
 
 	public enum DataOpTypes {
@@ -1864,6 +1961,7 @@ public abstract class Hop
 		_rows_in_block = that._rows_in_block;
 		_cols_in_block = that._cols_in_block;
 		_nnz = that._nnz;
+		_dmap = that._dmap;
 		_updateType = that._updateType;
 
 		//no copy of lops (regenerated)
@@ -1879,6 +1977,7 @@ public abstract class Hop
 		_requiresRecompile = that._requiresRecompile;
 		_requiresReblock = that._requiresReblock;
 		_requiresCheckpoint = that._requiresCheckpoint;
+		_requiresCompression = that._requiresCompression;
 		_outputEmptyBlocks = that._outputEmptyBlocks;
 		
 		_beginLine = that._beginLine;
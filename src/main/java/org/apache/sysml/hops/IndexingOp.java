@@ -210,6 +210,12 @@ public class IndexingOp extends Hop
 		return true;
 	}
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		return true;
+	}
+	
 	@Override
 	public void computeMemEstimate( MemoTable memo )
 	{
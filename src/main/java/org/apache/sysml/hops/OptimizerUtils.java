@@ -93,6 +93,17 @@ public class OptimizerUtils
 	public static final long MAX_NUMCELLS_CP_DENSE = Integer.MAX_VALUE;
 	public static final long MAX_NNZ_CP_SPARSE = (MatrixBlock.DEFAULT_SPARSEBLOCK == 
 			SparseBlock.Type.MCSR) ? Long.MAX_VALUE : Integer.MAX_VALUE;
+	
+	/**
+	 * Enables dense matrix blocks with more than 2^31-1 cells (16GB) in CP, which
+	 * are represented as multiple row-aligned arrays. Only the core kernels (dense
+	 * matrix mult, unary aggregates, cell-wise operations, transpose, rev, rowwise
+	 * reshape, indexing, and rand) support such large dense blocks, which is
+	 * enforced by compiling all other operations with large dense inputs or
+	 * outputs to MR/Spark (see Hop.isLargeDenseBlockSupported). Hence, this is
+	 * disabled by default.
+	 */
+	public static boolean ALLOW_LARGE_DENSE_BLOCKS = false;
 
 	/**
 	 * Enables common subexpression elimination in dags. There is however, a potential tradeoff
@@ -179,6 +190,20 @@ public class OptimizerUtils
 	 */
 	public static boolean ALLOW_LOOP_UPDATE_IN_PLACE = true;
 	
+	/**
+	 * Enables the reuse of recompiled plans per statement block for repeated
+	 * input size signatures (dimensions, sparsity classes, scalar values), 
+	 * which avoids the entire hop-lop-instruction recompilation in loops.
+	 */
+	public static boolean ALLOW_RECOMPILE_PLAN_CACHE = true;
+	
+	/**
+	 * Enables the collection of block-level density maps of in-memory matrices
+	 * at read time, and their use for sparsity estimates of matrix products,
+	 * matrix multiplication chains, and cell-wise operations during recompilation.
+	 */
+	public static boolean ALLOW_DENSITY_MAP_ESTIMATES = true;
+	
 	
 	/**
 	 * Specifies a multiplier computing the degree of parallelism of parallel
@@ -858,7 +883,7 @@ public class OptimizerUtils
 		long bsize = MatrixBlock.estimateSizeOnDisk(rows, cols, nnz);
 		if( oinfo == OutputInfo.TextCellOutputInfo || oinfo == OutputInfo.MatrixMarketOutputInfo )
 			return bsize * 3;
-		else if( oinfo == OutputInfo.CSVOutputInfo )
+		else if( oinfo == OutputInfo.CSVOutputInfo || oinfo == OutputInfo.LIBSVMOutputInfo )
 			return bsize * 2;
 		
 		//unknown output info
@@ -908,7 +933,8 @@ public class OptimizerUtils
 		boolean ret = true;
 		
 		//the current CP runtime implementation has several limitations:
-		//1) for dense: 16GB because we use a linearized array (bounded to int in java)
+		//1) for dense: 16GB because we use a linearized array (bounded to int in java),
+		//   unless large dense blocks w/ multiple arrays are enabled (see DenseBlockLDRB)
 		//2) for sparse: 2G x 2G nnz because (1) nnz maintained as long, (2) potential changes 
 		//   to dense, and (3) sparse row arrays also of max int size (worst case in case of skew)  
 		long nnz = (long)(sparsity * rows * cols);
@@ -921,14 +947,33 @@ public class OptimizerUtils
 		}
 		else //DENSE
 		{
-			//check number of matrix cell
-			ret = ((rows * cols) <= MAX_NUMCELLS_CP_DENSE);
+			//check number of matrix cell (or rows/cols for large dense blocks)
+			ret = ALLOW_LARGE_DENSE_BLOCKS ? 
+				(rows <= Integer.MAX_VALUE && cols <= Integer.MAX_VALUE) :
+				((rows * cols) <= MAX_NUMCELLS_CP_DENSE);
 		}
 			
 		return ret;
 	}
 	
 
+	/**
+	 * Indicates if a matrix of the given dimensions and number of non-zeros 
+	 * is represented as a large dense block (>2^31-1 cells) in CP, where an
+	 * unknown number of non-zeros is conservatively treated as dense.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param nnz
+	 * @return
+	 */
+	public static boolean isLargeDenseBlock( long rows, long cols, long nnz )
+	{
+		return ALLOW_LARGE_DENSE_BLOCKS && rows > 0 && cols > 0 
+			&& rows * cols > MAX_NUMCELLS_CP_DENSE
+			&& !MatrixBlock.evalSparseFormatInMemory(rows, cols, (nnz >= 0) ? nnz : rows * cols);
+	}
+	
 	/**
 	 * 
 	 * @return
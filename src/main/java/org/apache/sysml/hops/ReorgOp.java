@@ -119,14 +119,14 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 		if( getLops() != null )
 			return getLops();
 
-		Lop ret = ConvolutionUtils.constructConvolutionBackwardFilterLops(this);
+		ExecType et = optFindExecType();
+		
+		Lop ret = ConvolutionUtils.constructConvolutionBackwardFilterLops(this, et);
 		if(ret != null) {
 			setLops( ret );
 			return ret;
 		}
 		
-		ExecType et = optFindExecType();
-		
 		switch( op )
 		{
 			case TRANSPOSE:
@@ -291,7 +291,7 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 						voutput = new ReorgOp("tmp3", getDataType(), getValueType(), ReOrgOp.SORT, sinputs); 
 						HopRewriteUtils.copyLineNumbers(this, voutput);	
 						//explicitly construct CP lop; otherwise there is danger of infinite recursion if forced runtime platform.
-						voutput.setLops( constructCPOrSparkSortLop(vinput, sinputs.get(1), sinputs.get(2), sinputs.get(3), ExecType.CP, false) );
+						voutput.setLops( constructCPOrSparkSortLop(vinput, sinputs.get(1), sinputs.get(2), sinputs.get(3), ExecType.CP, false, 1) );
 						voutput.getLops().getOutputParameters().setDimensions(vinput.getDim1(), vinput.getDim2(), vinput.getRowsInBlock(), vinput.getColsInBlock(), vinput.getNnz());
 						setLops( voutput.constructLops() );								
 					}
@@ -331,7 +331,8 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 					if( et==ExecType.SPARK && !FORCE_DIST_SORT_INDEXES)
 						bSortSPRewriteApplicable = isSortSPRewriteApplicable();
 					
-					Lop transform1 = constructCPOrSparkSortLop(input, by, desc, ixret, et, bSortSPRewriteApplicable);
+					int k = (et==ExecType.CP) ? OptimizerUtils.getConstrainedNumThreads(_maxNumThreads) : 1;
+					Lop transform1 = constructCPOrSparkSortLop(input, by, desc, ixret, et, bSortSPRewriteApplicable, k);
 					setOutputDimensions(transform1);
 					setLineNumbers(transform1);
 					
@@ -350,11 +351,11 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 		return getLops();
 	}
 
-	private static Lop constructCPOrSparkSortLop( Hop input, Hop by, Hop desc, Hop ixret, ExecType et, boolean bSortIndInMem ) 
+	private static Lop constructCPOrSparkSortLop( Hop input, Hop by, Hop desc, Hop ixret, ExecType et, boolean bSortIndInMem, int k ) 
 		throws HopsException, LopsException
 	{
 		Transform transform1 = new Transform( input.constructLops(), HopsTransf2Lops.get(ReOrgOp.SORT), 
-				     input.getDataType(), input.getValueType(), et, bSortIndInMem);
+				     input.getDataType(), input.getValueType(), et, bSortIndInMem, k);
 		
 		for( Hop c : new Hop[]{by,desc,ixret} ) {
 			Lop ltmp = c.constructLops();
@@ -384,9 +385,14 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 			if( !(ixreturn instanceof LiteralOp && !HopRewriteUtils.getBooleanValueSafe((LiteralOp)ixreturn)
 				 && (dim2==1 || nnz==0) ) ) //NOT early abort case 
 			{
+				//Version 3: memory requirements for temporary index int[] and 
+				//value double[] arrays, incl buffers of parallel merge and 
+				//position/permutation int[] arrays for multiple orderby columns
+				return dim1 * 32;
+				
 				//Version 2: memory requirements for temporary index int[] array,
 				//(temporary double[] array already covered by output)
-				return dim1 * 4;
+				//return dim1 * 4;
 				
 				//Version 1: memory requirements for temporary index Integer[] array
 				//8-16 (12) bytes for object, 4byte int payload, 4-8 (8) byte pointers.
@@ -484,6 +490,13 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 		return true;
 	}
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//note: colwise reshapes of large dense blocks fail at runtime
+		return op == ReOrgOp.TRANSPOSE || op == ReOrgOp.REV || op == ReOrgOp.RESHAPE;
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
@@ -514,6 +527,10 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 			checkAndSetInvalidCPDimsAndSize();
 		}
 		
+		//force CP for sort with vector of orderby columns (CP only)
+		if( op == ReOrgOp.SORT && getInput().get(1).getDataType() == DataType.MATRIX )
+			_etype = ExecType.CP;
+		
 		//mark for recompile (forever)
 		if( ConfigurationManager.isDynamicRecompilation() && !dimsKnown(true) && _etype==REMOTE )
 			setRequiresRecompile();
@@ -535,6 +552,8 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 				setDim1(input1.getDim2());
 				setDim2(input1.getDim1());
 				setNnz(input1.getNnz());
+				setDensityMap((input1.getDensityMap()!=null) ? 
+					input1.getDensityMap().transpose() : null);
 				break;
 			}
 			case REV:
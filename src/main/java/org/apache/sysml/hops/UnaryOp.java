@@ -231,6 +231,8 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 								getInput().get(0).constructLops(), 
 								SortKeys.OperationTypes.WithoutWeights, 
 								DataType.MATRIX, ValueType.DOUBLE, et );
+			if( et == ExecType.CP )
+				sort.setNumThreads( OptimizerUtils.getConstrainedNumThreads(_maxNumThreads) );
 			sort.getOutputParameters().setDimensions(
 					getInput().get(0).getDim1(),
 					getInput().get(0).getDim2(),
@@ -340,6 +342,8 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 					input.constructLops(), 
 					SortKeys.OperationTypes.WithoutWeights, 
 					DataType.MATRIX, ValueType.DOUBLE, et );
+			if( et == ExecType.CP )
+				sort.setNumThreads( OptimizerUtils.getConstrainedNumThreads(_maxNumThreads) );
 			sort.getOutputParameters().setDimensions(
 					input.getDim1(),
 					input.getDim2(),
@@ -606,6 +610,17 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 		return true;
 	}
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//only cell-wise and cumulative unary operations
+		return isCumulativeUnaryOperation() 
+			|| (!isCastUnaryOperation() && _op != OpOp1.PRINT && _op != OpOp1.EIGEN 
+			&& _op != OpOp1.NROW && _op != OpOp1.NCOL && _op != OpOp1.LENGTH 
+			&& _op != OpOp1.IQM && _op != OpOp1.STOP && _op != OpOp1.MEDIAN 
+			&& _op != OpOp1.INVERSE && _op != OpOp1.CHOLESKY);
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.hops.estim;
+
+import org.apache.sysml.hops.Hop.OpOp2;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Block-level density map of a matrix, i.e., a grid of non-zero counts per
+ * block, used as metadata-based sparsity estimator for matrix products, chains
+ * of matrix products, and cell-wise operations. In contrast to closed-form 
+ * estimates over the overall sparsity, density maps capture skew such as dense 
+ * rows/columns of power-law graphs or the structure of one-hot encoded features.
+ * 
+ * The block sizes are a function of the respective dimension only (multiples
+ * of the default blocksize, with at most MAX_BLOCKS blocks per dimension), 
+ * which ensures aligned grids of all maps over common dimensions. Maps are 
+ * immutable, and estimated maps hold fractional non-zero counts.
+ * 
+ */
+public class DensityMap 
+{
+	public static final int MAX_BLOCKS = 64;
+	private static final double EPS = 1e-12;
+	
+	private final long _rlen;
+	private final long _clen;
+	private final int _brlen;
+	private final int _bclen;
+	private final int _nrb;
+	private final int _ncb;
+	private final double[] _nnz; //row-major grid of nnz
+	
+	private DensityMap(long rlen, long clen) {
+		_rlen = rlen;
+		_clen = clen;
+		_brlen = getBlocksize(rlen);
+		_bclen = getBlocksize(clen);
+		_nrb = (int)Math.max((rlen + _brlen - 1) / _brlen, 1);
+		_ncb = (int)Math.max((clen + _bclen - 1) / _bclen, 1);
+		_nnz = new double[_nrb * _ncb];
+	}
+	
+	/**
+	 * Creates the density map of the given matrix block. Sparse blocks are
+	 * scanned once, while dense blocks are summarized by a uniform map over
+	 * their number of non-zeros in order to avoid a scan over all cells.
+	 * 
+	 * @param mb matrix block
+	 * @return density map
+	 */
+	public static DensityMap create(MatrixBlock mb) 
+	{
+		DensityMap ret = new DensityMap(mb.getNumRows(), mb.getNumColumns());
+		long nnz = mb.getNonZeros();
+		
+		if( mb.isEmptyBlock(false) ) {
+			//empty map
+		}
+		else if( mb.isInSparseFormat() ) {
+			SparseBlock a = mb.getSparseBlock();
+			for( int i=0; i<mb.getNumRows(); i++ ) {
+				if( a.isEmpty(i) ) 
+					continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				int ix = (i / ret._brlen) * ret._ncb;
+				for( int j=apos; j<apos+alen; j++ )
+					ret._nnz[ix + aix[j] / ret._bclen] ++;
+			}
+		}
+		else if( nnz > 0 ) {
+			double sp = OptimizerUtils.getSparsity(ret._rlen, ret._clen, nnz);
+			for( int bi=0; bi<ret._nrb; bi++ )
+				for( int bj=0; bj<ret._ncb; bj++ )
+					ret._nnz[bi*ret._ncb+bj] = sp * ret.getBlockCells(bi, bj);
+		}
+		
+		return ret;
+	}
+	
+	public long getNumRows() {
+		return _rlen;
+	}
+	
+	public long getNumColumns() {
+		return _clen;
+	}
+	
+	/**
+	 * Gets the number of non-zeros of the matrix, where estimated non-zero
+	 * counts of each block are rounded up to guarantee that non-empty 
+	 * blocks are never estimated as empty (with a small relative tolerance
+	 * for floating point errors of exact counts).
+	 * 
+	 * @return number of non-zeros
+	 */
+	public long getNonZeros() {
+		long ret = 0;
+		for( int bi=0; bi<_nrb; bi++ )
+			for( int bj=0; bj<_ncb; bj++ )
+				ret += Math.min((long)Math.ceil(_nnz[bi*_ncb+bj] * (1 - EPS)), getBlockCells(bi, bj));
+		return ret;
+	}
+	
+	public double getSparsity() {
+		return OptimizerUtils.getSparsity(_rlen, _clen, getNonZeros());
+	}
+	
+	/**
+	 * Gets a coarse fingerprint of the map, i.e., a hash over the grid and
+	 * the density classes (empty, full, log2 buckets) of all blocks, which
+	 * distinguishes maps of different skew but is robust to minor changes
+	 * of the non-zero counts.
+	 * 
+	 * @return fingerprint
+	 */
+	public int getFingerprint() {
+		int ret = 31 * _nrb + _ncb;
+		for( int bi=0; bi<_nrb; bi++ )
+			for( int bj=0; bj<_ncb; bj++ ) {
+				double sp = getBlockSparsity(bi, bj);
+				int dclass = (sp <= 0) ? 0 : (sp >= 1) ? 1 :
+					2 + (int)Math.floor(-Math.log(sp)/Math.log(2));
+				ret = 31 * ret + dclass;
+			}
+		return ret;
+	}
+	
+	/**
+	 * Gets the density map of the transposed matrix.
+	 * 
+	 * @return transposed density map
+	 */
+	public DensityMap transpose() {
+		DensityMap ret = new DensityMap(_clen, _rlen);
+		for( int bi=0; bi<_nrb; bi++ )
+			for( int bj=0; bj<_ncb; bj++ )
+				ret._nnz[bj*_nrb+bi] = _nnz[bi*_ncb+bj];
+		return ret;
+	}
+	
+	/**
+	 * Estimates the density map of the matrix product m1 %*% m2, where each 
+	 * output block is estimated under the assumption of uniformly distributed 
+	 * non-zeros within, but not across, the input blocks.
+	 * 
+	 * @param m1 density map of left input 
+	 * @param m2 density map of right input
+	 * @return density map of output, or null if unavailable
+	 */
+	public static DensityMap estimMatMult(DensityMap m1, DensityMap m2) 
+	{
+		if( m1 == null || m2 == null || m1._clen != m2._rlen )
+			return null;
+		
+		DensityMap ret = new DensityMap(m1._rlen, m2._clen);
+		for( int bi=0; bi<ret._nrb; bi++ ) {
+			for( int bj=0; bj<ret._ncb; bj++ ) {
+				//probability of an output cell to be zero, i.e., the product of 
+				//all (1 - sp1*sp2)^blen, computed in log-space for numerical stability
+				double lzero = 0;
+				for( int bk=0; bk<m1._ncb; bk++ ) {
+					double sp = m1.getBlockSparsity(bi, bk) * m2.getBlockSparsity(bk, bj);
+					if( sp > 0 )
+						lzero += m1.getBlockCols(bk) * Math.log1p(-Math.min(sp, 1));
+				}
+				ret._nnz[bi*ret._ncb+bj] = -Math.expm1(lzero) * ret.getBlockCells(bi, bj);
+			}
+		}
+		return ret;
+	}
+	
+	/**
+	 * Estimates the number of floating point multiply-adds of the matrix product
+	 * m1 %*% m2, when exploiting the sparsity of both inputs.
+	 * 
+	 * @param m1 density map of left input
+	 * @param m2 density map of right input
+	 * @return estimated number of multiply-adds, or -1 if unavailable
+	 */
+	public static double estimMatMultCost(DensityMap m1, DensityMap m2) 
+	{
+		if( m1 == null || m2 == null || m1._clen != m2._rlen )
+			return -1;
+		
+		//each pair of non-zeros a_ik, b_kj contributes one multiply-add,
+		//where nnz per common dimension is uniform within each block
+		double ret = 0;
+		for( int bk=0; bk<m1._ncb; bk++ ) {
+			double nnz1 = 0, nnz2 = 0;
+			for( int bi=0; bi<m1._nrb; bi++ )
+				nnz1 += m1._nnz[bi*m1._ncb+bk];
+			for( int bj=0; bj<m2._ncb; bj++ )
+				nnz2 += m2._nnz[bk*m2._ncb+bj];
+			ret += nnz1 * nnz2 / m1.getBlockCols(bk);
+		}
+		return ret;
+	}
+	
+	/**
+	 * Estimates the density map of the cell-wise operation m1 op m2 of equal
+	 * dimensions, using the worst-case estimates of OptimizerUtils per block.
+	 * 
+	 * @param m1 density map of left input
+	 * @param m2 density map of right input
+	 * @param op cell-wise binary operation
+	 * @return density map of output, or null if unavailable
+	 */
+	public static DensityMap estimBinary(DensityMap m1, DensityMap m2, OpOp2 op) 
+	{
+		if( m1 == null || m2 == null || m1._rlen != m2._rlen || m1._clen != m2._clen )
+			return null;
+		
+		DensityMap ret = new DensityMap(m1._rlen, m1._clen);
+		for( int bi=0; bi<ret._nrb; bi++ )
+			for( int bj=0; bj<ret._ncb; bj++ ) {
+				double sp = OptimizerUtils.getBinaryOpSparsity(
+					m1.getBlockSparsity(bi, bj), m2.getBlockSparsity(bi, bj), op, true);
+				ret._nnz[bi*ret._ncb+bj] = sp * ret.getBlockCells(bi, bj);
+			}
+		return ret;
+	}
+	
+	@Override
+	public String toString() {
+		return "DensityMap [" + _rlen + "x" + _clen + ", blocks " + _nrb + "x" + _ncb + ", nnz=" + getNonZeros() + "]";
+	}
+	
+	private static int getBlocksize(long dim) {
+		long blen = OptimizerUtils.DEFAULT_BLOCKSIZE;
+		return (int)(blen * Math.max((dim + blen*MAX_BLOCKS - 1) / (blen*MAX_BLOCKS), 1));
+	}
+	
+	private long getBlockRows(int bi) {
+		return Math.min(_brlen, _rlen - (long)bi * _brlen);
+	}
+	
+	private long getBlockCols(int bj) {
+		return Math.min(_bclen, _clen - (long)bj * _bclen);
+	}
+	
+	private long getBlockCells(int bi, int bj) {
+		return getBlockRows(bi) * getBlockCols(bj);
+	}
+	
+	private double getBlockSparsity(int bi, int bj) {
+		long cells = getBlockCells(bi, bj);
+		return (cells > 0) ? _nnz[bi*_ncb+bj] / cells : 0;
+	}
+}
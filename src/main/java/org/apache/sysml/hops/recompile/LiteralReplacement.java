@@ -55,13 +55,16 @@ public class LiteralReplacement
 	 * 
 	 * @param hop
 	 * @param vars
+	 * @return true if any literal was derived from matrix values (not just scalars)
 	 * @throws DMLRuntimeException
 	 */
-	protected static void rReplaceLiterals( Hop hop, LocalVariableMap vars ) 
+	protected static boolean rReplaceLiterals( Hop hop, LocalVariableMap vars ) 
 		throws DMLRuntimeException
 	{
 		if( hop.getVisited() == VisitStatus.DONE )
-			return;
+			return false;
+		
+		boolean ret = false;
 
 		if( hop.getInput() != null )
 		{
@@ -75,6 +78,7 @@ public class LiteralReplacement
 				lit = (lit==null) ? replaceLiteralScalarRead(c, vars) : lit;
 				lit = (lit==null) ? replaceLiteralValueTypeCastScalarRead(c, vars) : lit;
 				lit = (lit==null) ? replaceLiteralValueTypeCastLiteral(c, vars) : lit;
+				boolean scalarLit = (lit!=null);
 				lit = (lit==null) ? replaceLiteralDataTypeCastMatrixRead(c, vars) : lit;
 				lit = (lit==null) ? replaceLiteralValueTypeCastRightIndexing(c, vars) : lit;
 				lit = (lit==null) ? replaceLiteralFullUnaryAggregate(c, vars) : lit;
@@ -83,6 +87,8 @@ public class LiteralReplacement
 				//replace hop w/ literal on demand
 				if( lit != null )
 				{
+					ret |= !scalarLit;
+					
 					//replace hop c by literal, for all parents to prevent (1) missed opportunities
 					//because hop c marked as visited, and (2) repeated evaluation of uagg ops
 					
@@ -102,12 +108,14 @@ public class LiteralReplacement
 				//recursively process children
 				else 
 				{
-					rReplaceLiterals(c, vars);	
+					ret |= rReplaceLiterals(c, vars);	
 				}			
 			}
 		}
 		
 		hop.setVisited(VisitStatus.DONE);
+		
+		return ret;
 	}
 	
 
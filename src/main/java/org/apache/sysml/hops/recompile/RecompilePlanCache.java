@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.recompile;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.sysml.hops.BinaryOp;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.Hop.OpOp2;
+import org.apache.sysml.hops.Hop.VisitStatus;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysml.runtime.controlprogram.caching.FrameObject;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.Data;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Bounded (LRU) cache of recompiled runtime instructions of a single statement 
+ * block, keyed by a size signature of the hop dag inputs, i.e., dimensions and 
+ * sparsity classes of matrices, dimensions of frames, and values of scalars, 
+ * as well as the local memory budget and optimizer-modified hop properties. 
+ * Since recompilation replaces all scalar reads by literals (which are used
+ * by rewrites, size propagation, and as instruction parameters), the scalar
+ * values are part of the signature, i.e., plans are reused across loop 
+ * iterations with repeated scalar values. Plans are stored as compiled for 
+ * the root thread, and hence, are independent of parfor worker thread ids, 
+ * which are replaced in the deep copy obtained on each probe.
+ * 
+ * Plans are not cacheable if literal replacement used matrix values (e.g., 
+ * as.scalar or small full aggregates), or if the dag contains persistent reads
+ * of unknown size (read meta data from the file system). If the dag contains 
+ * nnz computations (e.g., sum(X!=0), potentially rewritten to literals), the 
+ * signature uses the exact number of non-zeros instead of sparsity classes. 
+ * Density maps of matrices (used by sparsity estimates of the dag, if enabled)
+ * are included as presence and coarse fingerprint of the block densities.
+ * 
+ */
+public class RecompilePlanCache 
+{
+	public static final int DEFAULT_CAPACITY = 16;
+	
+	//sparsity classes (besides exact unknown -1 and empty 0)
+	private static final long SPCLASS_FULL = -2;
+	private static final long SPCLASS_DENSE = -3;
+	private static final long SPCLASS_SPARSE = -4; //minus log2 buckets
+	
+	private final LinkedHashMap<String, ArrayList<Instruction>> _plans;
+	private boolean _disabled = false;
+	
+	public RecompilePlanCache() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	@SuppressWarnings("serial")
+	public RecompilePlanCache( final int capacity ) {
+		_plans = new LinkedHashMap<String, ArrayList<Instruction>>(capacity, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ArrayList<Instruction>> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+	
+	public synchronized ArrayList<Instruction> get( String key ) {
+		return _plans.get(key);
+	}
+	
+	public synchronized void put( String key, ArrayList<Instruction> inst ) {
+		if( !_disabled )
+			_plans.put(key, inst);
+	}
+	
+	public synchronized int size() {
+		return _plans.size();
+	}
+	
+	public synchronized void clear() {
+		_plans.clear();
+	}
+	
+	/**
+	 * Disables the cache for dags whose plans are not reusable
+	 * (e.g., instructions that cannot be cloned).
+	 */
+	public synchronized void disable() {
+		_plans.clear();
+		_disabled = true;
+	}
+	
+	public synchronized boolean isDisabled() {
+		return _disabled;
+	}
+	
+	/**
+	 * Creates the size signature of the given hop dag and symbol table.
+	 * 
+	 * @param hops
+	 * @param vars
+	 * @return signature, or null if the plan is not cacheable
+	 */
+	public static String createSignature( ArrayList<Hop> hops, LocalVariableMap vars ) 
+	{
+		//collect transient reads and hop properties
+		TreeSet<String> reads = new TreeSet<String>();
+		StringBuilder sb = new StringBuilder();
+		boolean[] flags = new boolean[2]; //[exactNnz, notCacheable]
+		Hop.resetVisitStatus(hops);
+		for( Hop hop : hops )
+			rCollectSignature(hop, reads, sb, flags);
+		Hop.resetVisitStatus(hops);
+		if( flags[1] )
+			return null;
+		
+		//append memory budget and input characteristics
+		sb.append(OptimizerUtils.getLocalMemBudget());
+		for( String var : reads ) {
+			Data dat = vars.get(var);
+			sb.append('|');
+			sb.append(var);
+			sb.append('=');
+			if( dat instanceof MatrixObject ) {
+				MatrixObject mo = (MatrixObject) dat;
+				long rows = mo.getNumRows();
+				long cols = mo.getNumColumns();
+				long nnz = mo.getNnz();
+				sb.append(rows);
+				sb.append('x');
+				sb.append(cols);
+				sb.append(',');
+				sb.append(flags[0] ? nnz : getSparsityClass(rows, cols, nnz));
+				sb.append(',');
+				sb.append(mo.getUpdateType().ordinal());
+				if( mo.isPartitioned() )
+					sb.append(",p");
+				if( OptimizerUtils.ALLOW_DENSITY_MAP_ESTIMATES && mo.getDensityMap() != null ) {
+					sb.append(",d");
+					sb.append(mo.getDensityMap().getFingerprint());
+				}
+			}
+			else if( dat instanceof FrameObject ) {
+				FrameObject fo = (FrameObject) dat;
+				sb.append(fo.getNumRows());
+				sb.append('x');
+				sb.append(fo.getNumColumns());
+			}
+			else if( dat instanceof ScalarObject ) {
+				ScalarObject so = (ScalarObject) dat;
+				sb.append(so.getValueType().ordinal());
+				sb.append(':');
+				sb.append(so.getStringValue());
+			}
+			else if( dat == null )
+				sb.append('-');
+			else
+				return null; //unsupported data type
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @param reads
+	 * @param sb
+	 * @param flags
+	 */
+	private static void rCollectSignature( Hop hop, TreeSet<String> reads, StringBuilder sb, boolean[] flags )
+	{
+		if( hop.getVisited() == VisitStatus.DONE )
+			return;
+		
+		if( hop.getInput() != null )
+			for( Hop c : hop.getInput() )
+				rCollectSignature(c, reads, sb, flags);
+		
+		if( hop instanceof DataOp ) {
+			DataOp dop = (DataOp) hop;
+			if( dop.getDataOpType() == DataOpTypes.TRANSIENTREAD )
+				reads.add(dop.getName());
+			else if( dop.getDataOpType() == DataOpTypes.PERSISTENTREAD && !dop.dimsKnown() )
+				flags[1] = true;
+		}
+		else if( hop instanceof BinaryOp && ((BinaryOp)hop).getOp() == OpOp2.NOTEQUAL )
+			flags[0] = true;
+		
+		//hop properties modified by optimizers (w/o in-place recompile)
+		int k = (hop instanceof MultiThreadedHop) ? ((MultiThreadedHop)hop).getMaxNumThreads() : -1;
+		if( hop.getForcedExecType() != null || k > 0 || hop.getUpdateType().isInPlace() ) {
+			sb.append(hop.getHopID());
+			sb.append(':');
+			sb.append(hop.getForcedExecType());
+			sb.append(':');
+			sb.append(k);
+			sb.append(':');
+			sb.append(hop.getUpdateType().ordinal());
+			sb.append(';');
+		}
+		
+		hop.setVisited(VisitStatus.DONE);
+	}
+	
+	/**
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param nnz
+	 * @return
+	 */
+	private static long getSparsityClass( long rows, long cols, long nnz )
+	{
+		if( nnz <= 0 || rows <= 0 || cols <= 0 )
+			return nnz; //unknown or empty
+		if( nnz == rows * cols )
+			return SPCLASS_FULL;
+		double sp = (double)nnz / rows / cols;
+		if( sp >= MatrixBlock.SPARSITY_TURN_POINT )
+			return SPCLASS_DENSE;
+		return SPCLASS_SPARSE - (long)Math.floor(-Math.log(sp)/Math.log(2));
+	}
+}
@@ -103,6 +103,7 @@ import org.apache.sysml.runtime.util.MapReduceTool;
 import org.apache.sysml.utils.Explain;
 import org.apache.sysml.utils.Explain.ExplainType;
 import org.apache.sysml.utils.JSONHelper;
+import org.apache.sysml.utils.Statistics;
 
 /**
  * Dynamic recompilation of hop dags to runtime instructions, which includes the 
@@ -159,6 +160,8 @@ public class Recompiler
 		throws DMLRuntimeException, HopsException, LopsException, IOException
 	{
 		ArrayList<Instruction> newInst = null;
+		RecompilePlanCache cache = null;
+		String key = null;
 
 		//need for synchronization as we do temp changes in shared hops/lops
 		//however, we create deep copies for most dags to allow for concurrent recompile
@@ -167,6 +170,22 @@ public class Recompiler
 			LOG.debug ("\n**************** Optimizer (Recompile) *************\nMemory Budget = " + 
 					   OptimizerUtils.toMB(OptimizerUtils.getLocalMemBudget()) + " MB");
 	
+			// probe plan cache of statement block (same size signature)
+			if( OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE && sb != null && status == null ) {
+				if( !inplace ) {
+					cache = sb.getPlanCache();
+					key = !cache.isDisabled() ? RecompilePlanCache.createSignature(hops, vars) : null;
+					ArrayList<Instruction> tmp = (key != null) ? cache.get(key) : null;
+					if( tmp != null ) {
+						if( DMLScript.STATISTICS )
+							Statistics.incrementHOPRecompilePlanCacheHits();
+						return ProgramConverter.createDeepCopyInstructionSet(tmp, tid, -1, null, null, null, false, false);
+					}
+				}
+				else //invalidate on in-place modifications
+					sb.clearPlanCache();
+			}
+			
 			// prepare hops dag for recompile
 			if( !inplace ){ 
 				// deep copy hop dag (for non-reversable rewrites)
@@ -180,10 +199,14 @@ public class Recompiler
 			}
 
 			// replace scalar reads with literals 
+			// (scalar values are part of the plan cache signature)
 			if( !inplace ) {
+				boolean dataLiterals = false;
 				Hop.resetVisitStatus(hops);
 				for( Hop hopRoot : hops )
-					rReplaceLiterals( hopRoot, vars );
+					dataLiterals |= rReplaceLiterals( hopRoot, vars );
+				if( dataLiterals ) //plan depends on matrix values
+					key = null;
 			}
 			
 			// refresh matrix characteristics (update stats)			
@@ -217,8 +240,21 @@ public class Recompiler
 			newInst = dag.getJobs(sb, ConfigurationManager.getDMLConfig());	
 		}
 		
-		// replace thread ids in new instructions
-		if( tid != 0 ) //only in parfor context
+		// put root thread plan into cache, and replace thread ids 
+		if( key != null ) {
+			ArrayList<Instruction> tmp = newInst;
+			try {
+				newInst = ProgramConverter.createDeepCopyInstructionSet(tmp, tid, -1, null, null, null, false, false);
+				cache.put(key, tmp);
+			}
+			catch(DMLRuntimeException ex) { //e.g., non-cloneable instructions
+				LOG.debug("Disabled recompile plan cache: "+ex.getMessage());
+				cache.disable();
+				if( tid != 0 ) //only in parfor context
+					newInst = ProgramConverter.createDeepCopyInstructionSet(tmp, tid, -1, null, null, null, false, false);
+			}
+		}
+		else if( tid != 0 ) //only in parfor context
 			newInst = ProgramConverter.createDeepCopyInstructionSet(newInst, tid, -1, null, null, null, false, false);
 		
 		// explain recompiled hops / instructions
@@ -345,6 +381,10 @@ public class Recompiler
 			LOG.debug ("\n**************** Optimizer (Recompile) *************\nMemory Budget = " + 
 					   OptimizerUtils.toMB(OptimizerUtils.getLocalMemBudget()) + " MB");
 	
+			// invalidate cached plans (in-place modifications)
+			if( sb != null )
+				sb.clearPlanCache();
+			
 			// clear existing lops
 			Hop.resetVisitStatus(hops);
 			for( Hop hopRoot : hops )
@@ -1644,6 +1684,8 @@ public class Recompiler
 					d.setDim1(mo.getNumRows());
 					d.setDim2(mo.getNumColumns());
 					d.setNnz(mo.getNnz());
+					d.setDensityMap(OptimizerUtils.ALLOW_DENSITY_MAP_ESTIMATES ? 
+						mo.getDensityMap() : null);
 				}
 			}
 		}
@@ -1745,11 +1787,11 @@ public class Recompiler
 	 * @param vars
 	 * @throws DMLRuntimeException
 	 */
-	public static void rReplaceLiterals( Hop hop, LocalVariableMap vars ) 
+	public static boolean rReplaceLiterals( Hop hop, LocalVariableMap vars ) 
 		throws DMLRuntimeException
 	{
 		//public interface 
-		LiteralReplacement.rReplaceLiterals(hop, vars);
+		return LiteralReplacement.rReplaceLiterals(hop, vars);
 	}
 	
 	/**
@@ -1878,6 +1920,7 @@ public class Recompiler
 				if((   iimd.getInputInfo()==InputInfo.TextCellInputInfo
 					|| iimd.getInputInfo()==InputInfo.MatrixMarketInputInfo
 					|| iimd.getInputInfo()==InputInfo.CSVInputInfo
+					|| iimd.getInputInfo()==InputInfo.LIBSVMInputInfo
 					|| iimd.getInputInfo()==InputInfo.BinaryCellInputInfo)
 					&& !mo.isDirty() )
 				{
@@ -104,6 +104,7 @@ public class ProgramRewriter
 			if( OptimizerUtils.ALLOW_AUTO_VECTORIZATION )
 				_dagRuleSet.add( new RewriteIndexingVectorization()              ); //dependency: cse, simplifications
 			_dagRuleSet.add( new RewriteInjectSparkPReadCheckpointing()          ); //dependency: reblock
+			_dagRuleSet.add( new RewriteCompressedReblock()                      ); //dependency: reblock
 			
 			//add statment block rewrite rules
  			if( OptimizerUtils.ALLOW_BRANCH_REMOVAL )			
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.hops.rewrite;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.parser.Expression.DataType;
+
+/**
+ * Rule: CompressedReblock. If compressed linear algebra is enabled, mark
+ * all persistent reads of matrices for compression (after potential 
+ * reblocks), which are read-only and hence amortize the compression costs.
+ */
+public class RewriteCompressedReblock extends HopRewriteRule
+{
+	
+	@Override
+	public ArrayList<Hop> rewriteHopDAGs(ArrayList<Hop> roots, ProgramRewriteStatus state)
+		throws HopsException
+	{
+		if( roots == null )
+			return null;
+		
+		//check for enabled compression 
+		if( !isCompressionEnabled() )
+			return roots;
+		
+		//top-level hops never modified
+		for( Hop h : roots ) 
+			rInjectCompressionAfterPRead(h);
+		
+		return roots;
+	}
+
+	@Override
+	public Hop rewriteHopDAG(Hop root, ProgramRewriteStatus state) 
+		throws HopsException
+	{
+		//not applicable to predicates (we do not allow persistent reads there)
+		return root;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private static boolean isCompressionEnabled() {
+		return ConfigurationManager.getDMLConfig()
+			.getBooleanValue(DMLConfig.COMPRESSED_LINALG);
+	}
+
+	/**
+	 * 
+	 * @param hop
+	 * @throws HopsException
+	 */
+	private void rInjectCompressionAfterPRead( Hop hop ) 
+		throws HopsException 
+	{
+		if(hop.getVisited() == Hop.VisitStatus.DONE)
+			return;
+		
+		if( hop instanceof DataOp && ((DataOp)hop).getDataOpType()==DataOpTypes.PERSISTENTREAD
+			&& hop.getDataType()==DataType.MATRIX && !HopRewriteUtils.hasTransformParents(hop) )
+		{
+			//mark given hop for compression (of the output matrix)
+			hop.setRequiresCompression(true);
+		}
+		else if( hop.getInput() != null )
+		{
+			//process all childs (prevent concurrent modification by index access)
+			for( int i=0; i<hop.getInput().size(); i++ )
+				rInjectCompressionAfterPRead( hop.getInput().get(i) );
+		}
+		
+		hop.setVisited(Hop.VisitStatus.DONE);
+	}
+}
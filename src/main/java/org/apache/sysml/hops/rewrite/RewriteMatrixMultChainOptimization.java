@@ -30,12 +30,15 @@ import org.apache.log4j.Logger;
 import org.apache.sysml.hops.AggBinaryOp;
 import org.apache.sysml.hops.Hop;
 import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.estim.DensityMap;
 import org.apache.sysml.utils.Explain;
 
 /**
  * Rule: Determine the optimal order of execution for a chain of
  * matrix multiplications Solution: Classic Dynamic Programming
- * Approach Currently, the approach based only on matrix dimensions
+ * Approach Currently, the approach based only on matrix dimensions,
+ * or on density maps of all inputs if available (sparsity-aware costs)
  * Goal: To reduce the number of computations in the run-time
  * (map-reduce) layer
  */
@@ -210,7 +213,8 @@ public class RewriteMatrixMultChainOptimization extends HopRewriteRule
 				
 				// Invoke Dynamic Programming
 				int size = mmChain.size();
-				int[][] split = mmChainDP(dimsArray, mmChain.size());
+				int[][] split = densityMapsKnown(mmChain) ?
+					mmChainDPSparse(mmChain, size) : mmChainDP(dimsArray, size);
 				
 				 // Step 5: Relink the hops using the optimal ordering (split[][]) found from DP.
 				LOG.trace("Optimal MM Chain: ");
@@ -265,6 +269,68 @@ public class RewriteMatrixMultChainOptimization extends HopRewriteRule
 		return split;
 	}
 
+	/**
+	 * mmChainDPSparse(): Sparsity-aware variant of mmChainDP over the density 
+	 * maps of all matrices in the chain, where the costs are the estimated number 
+	 * of multiply-adds, and the density maps of intermediates are estimated from
+	 * the optimal split of the respective subchain.
+	 */
+	private int[][] mmChainDPSparse(ArrayList<Hop> chain, int size) 
+	{
+		double[][] dpMatrix = new double[size][size]; //min cost table
+		int[][] split = new int[size][size]; //min cost index table
+		DensityMap[][] maps = new DensityMap[size][size]; //density maps of subchains
+		
+		//init minimum costs for chains of length 1
+		for (int i = 0; i < size; i++) {
+			Arrays.fill(dpMatrix[i], 0);
+			Arrays.fill(split[i], -1);
+			maps[i][i] = chain.get(i).getDensityMap();
+		}
+		
+		//compute cost-optimal chains for increasing chain sizes 
+		for (int l = 2; l <= size; l++) { // chain length
+			for (int i = 0; i < size - l + 1; i++) {
+				int j = i + l - 1;
+				// find cost of (i,j)
+				dpMatrix[i][j] = Double.MAX_VALUE;
+				for (int k = i; k <= j - 1; k++) 
+				{
+					//recursive cost computation
+					double cost = dpMatrix[i][k] + dpMatrix[k + 1][j] 
+							  + DensityMap.estimMatMultCost(maps[i][k], maps[k + 1][j]);
+					
+					//prune suboptimal
+					if (cost < dpMatrix[i][j]) {
+						dpMatrix[i][j] = cost;
+						split[i][j] = k;
+					}
+				}
+				maps[i][j] = DensityMap.estimMatMult(maps[i][split[i][j]], maps[split[i][j] + 1][j]);
+				
+				if( LOG.isTraceEnabled() ){
+					LOG.trace("mmchainopt sparse [i="+(i+1)+",j="+(j+1)+"]: costs = "+dpMatrix[i][j]+", split = "+(split[i][j]+1));
+				}
+			}
+		}
+		
+		return split;
+	}
+	
+	/**
+	 * 
+	 * @param chain
+	 * @return
+	 */
+	private boolean densityMapsKnown( ArrayList<Hop> chain ) {
+		if( !OptimizerUtils.ALLOW_DENSITY_MAP_ESTIMATES )
+			return false;
+		for( Hop h : chain )
+			if( h.getDensityMap() == null )
+				return false;
+		return true;
+	}
+
 	/**
 	 * mmChainRelinkHops(): This method gets invoked after finding the optimal
 	 * order (split[][]) from dynamic programming. It relinks the Hops that are
@@ -170,6 +170,21 @@ public class Binary extends Lop
 		}
 	}
 	
+	/**
+	 * Indicates if the given cell-wise operation supports multi-threaded
+	 * execution in CP (arithmetic, relational, and min/max operations).
+	 * 
+	 * @param op
+	 * @return
+	 */
+	public static boolean isMultiThreadedOp( OperationTypes op ) {
+		return op != OperationTypes.MATMULT
+			&& op != OperationTypes.SOLVE
+			&& op != OperationTypes.AND
+			&& op != OperationTypes.OR
+			&& op != OperationTypes.NOTSUPPORTED;
+	}
+	
 	@Override
 	public String getInstructions(String input1, String input2, String output) 
 		throws LopsException 
@@ -193,6 +208,11 @@ public class Binary extends Lop
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( numThreads );
 		}
+		//append degree of parallelism for cp cell-wise operations
+		else if( isMultiThreadedOp(operation) && getExecType()==ExecType.CP ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( numThreads );
+		}
 		else if( operation == OperationTypes.MATMULT && getExecType()==ExecType.GPU ) {
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( isLeftTransposed );
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.lops;
+
+import org.apache.sysml.lops.LopProperties.ExecLocation;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.lops.compile.JobType;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+
+
+/**
+ * Lop for the compression of matrix blocks into compressed column 
+ * groups, which is placed after persistent reads of read-only matrices. 
+ * In CP, the output is a single compressed block; in Spark, all blocks 
+ * of the output rdd are compressed individually.
+ * 
+ */
+public class Compression extends Lop 
+{
+	public static final String OPCODE = "compress"; 
+	
+	private int _numThreads = 1;
+	
+	/**
+	 * 
+	 * @param input
+	 * @param dt
+	 * @param vt
+	 * @param et
+	 * @param k
+	 * @throws LopsException
+	 */
+	public Compression(Lop input, DataType dt, ValueType vt, ExecType et, int k) 
+		throws LopsException
+	{
+		super(Lop.Type.Compression, dt, vt);		
+		this.addInput(input);
+		input.addOutput(this);
+		_numThreads = k;
+		
+		boolean breaksAlignment = false;
+		boolean aligner = false;
+		boolean definesMRJob = false;
+		
+		lps.addCompatibility(JobType.INVALID);
+		lps.setProperties( inputs, et, ExecLocation.ControlProgram, breaksAlignment, aligner, definesMRJob );
+	}
+
+	@Override
+	public String toString() {
+		return "Compress";
+	}
+	
+	@Override
+	public String getInstructions(String input1, String output) 
+		throws LopsException 
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append( getExecType() );
+		sb.append( Lop.OPERAND_DELIMITOR );
+		sb.append( OPCODE );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( getInputs().get(0).prepInputOperand(input1));
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( prepOutputOperand(output));
+		
+		//append degree of parallelism (CP only)
+		if( getExecType() == ExecType.CP ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
+		return sb.toString();
+	}
+}
@@ -59,6 +59,7 @@ public abstract class Lop
 		WeightedSquaredLoss, WeightedSigmoid, WeightedDivMM, WeightedCeMM, WeightedUMM,
 		SortKeys, PickValues,
 		Checkpoint, 										//Spark persist into storage level
+		Compression,                                        //CP/Spark compression of matrix blocks
 	};
 
 	/**
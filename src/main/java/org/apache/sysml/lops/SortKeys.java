@@ -40,11 +40,16 @@ public class SortKeys extends Lop
 	
 	private OperationTypes operation;
 	private boolean descending = false;
+	private int _numThreads = 1;
 	
 	public OperationTypes getOpType() {
 		return operation;
 	}
 	
+	public void setNumThreads(int k) {
+		_numThreads = k;
+	}
+	
 	public SortKeys(Lop input, OperationTypes op, DataType dt, ValueType vt) {
 		super(Lop.Type.SortKeys, dt, vt);		
 		init(input, null, op, ExecType.MR);
@@ -124,6 +129,10 @@ public class SortKeys extends Lop
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( descending );
 		}
+		else if( getExecType() == ExecType.CP ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
 		
 		return sb.toString();
 	}
@@ -141,6 +150,11 @@ public class SortKeys extends Lop
 		sb.append( Lop.OPERAND_DELIMITOR );
 		sb.append( this.prepOutputOperand(output));
 		
+		if( getExecType() == ExecType.CP ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 	
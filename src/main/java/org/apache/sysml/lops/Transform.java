@@ -66,8 +66,13 @@ public class Transform extends Lop
 	}
 
 	public Transform(Lop input, Transform.OperationTypes op, DataType dt, ValueType vt, ExecType et, boolean bSortIndInMem) {
+		this(input, op, dt, vt, et, bSortIndInMem, 1);
+	}
+	
+	public Transform(Lop input, Transform.OperationTypes op, DataType dt, ValueType vt, ExecType et, boolean bSortIndInMem, int k) {
 		super(Lop.Type.Transform, dt, vt);		
 		_bSortIndInMem = bSortIndInMem;
+		_numThreads = k;
 		init(input, op, dt, vt, et);
 	}
 	
@@ -189,12 +194,16 @@ public class Transform extends Lop
 		sb.append( OPERAND_DELIMITOR );
 		sb.append( getInputs().get(0).prepInputOperand(input1));
 		
-		//rows, cols, byrow
+		//rows, cols, byrow (reshape) or by, desc, ixret (sort, 
+		//where by might be a vector of orderby columns in CP)
 		String[] inputX = new String[]{input2,input3,input4};
 		for( int i=1; i<=(inputX.length); i++ ) {
 			Lop ltmp = getInputs().get(i);
 			sb.append( OPERAND_DELIMITOR );
-			sb.append( ltmp.prepScalarInputOperand(getExecType()));
+			if( ltmp.getDataType() == DataType.MATRIX )
+				sb.append( ltmp.prepInputOperand(inputX[i-1]));
+			else
+				sb.append( ltmp.prepScalarInputOperand(getExecType()));
 		}
 		
 		//output
@@ -205,6 +214,10 @@ public class Transform extends Lop
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( _bSortIndInMem );
 		}
+		else if( getExecType()==ExecType.CP && operation == OperationTypes.Sort ){
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
 		
 		return sb.toString();
 	}
@@ -66,6 +66,12 @@ public class Unary extends Lop
 		init(input1, input2, op, dt, vt, et);
 	}
 	
+	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt, ExecType et, int numThreads) {
+		super(Lop.Type.UNARY, dt, vt);
+		init(input1, input2, op, dt, vt, et);
+		_numThreads = numThreads;
+	}
+	
 	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt) {
 		super(Lop.Type.UNARY, dt, vt);
 		init(input1, input2, op, dt, vt, ExecType.MR);
@@ -351,6 +357,35 @@ public class Unary extends Lop
 			|| op==OperationTypes.CUMMAX;
 	}
 	
+	/**
+	 * Indicates if the given matrix-scalar operation supports multi-threaded
+	 * execution in CP (arithmetic, relational, and min/max operations).
+	 * 
+	 * @param op
+	 * @return
+	 */
+	public static boolean isMultiThreadedOp(OperationTypes op) {
+		return op==OperationTypes.ADD
+			|| op==OperationTypes.SUBTRACT
+			|| op==OperationTypes.MULTIPLY
+			|| op==OperationTypes.MULTIPLY2
+			|| op==OperationTypes.DIVIDE
+			|| op==OperationTypes.MODULUS
+			|| op==OperationTypes.INTDIV
+			|| op==OperationTypes.MINUS1_MULTIPLY
+			|| op==OperationTypes.POW
+			|| op==OperationTypes.POW2
+			|| op==OperationTypes.LESS_THAN
+			|| op==OperationTypes.LESS_THAN_OR_EQUALS
+			|| op==OperationTypes.GREATER_THAN
+			|| op==OperationTypes.GREATER_THAN_OR_EQUALS
+			|| op==OperationTypes.EQUALS
+			|| op==OperationTypes.NOT_EQUALS
+			|| op==OperationTypes.MAX
+			|| op==OperationTypes.MIN
+			|| op==OperationTypes.SUBTRACT_NZ;
+	}
+	
 	@Override
 	public String getInstructions(String input1, String output) 
 		throws LopsException 
@@ -414,6 +449,13 @@ public class Unary extends Lop
 		
 		sb.append( this.prepOutputOperand(output));
 		
+		//num threads for matrix-scalar cp ops
+		if( getExecType() == ExecType.CP && getDataType() == DataType.MATRIX 
+			&& isMultiThreadedOp(operation) ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 	
@@ -708,8 +708,10 @@ public class Dag<N extends Lop>
 		
 		//send write lop to MR if (1) it is marked with exec type MR (based on its memory estimate), or
 		//(2) if the input lop is in MR and the write format allows to pack it into the same job (this does
-		//not apply to csv write because MR csvwrite is a separate MR job type)
-		if( node.getExecType() == ExecType.MR || (in.getExecType() == ExecType.MR && nodeFormat != Format.CSV ) )
+		//not apply to csv write because MR csvwrite is a separate MR job type, and libsvm write which
+		//is only supported in CP and Spark)
+		if( node.getExecType() == ExecType.MR || (in.getExecType() == ExecType.MR 
+			&& nodeFormat != Format.CSV && nodeFormat != Format.LIBSVM) )
 			return true;
 		else
 			return false;
@@ -69,6 +69,7 @@ public class DataExpression extends DataIdentifier
 	public static final String FORMAT_TYPE_VALUE_BINARY 		= "binary";
 	public static final String FORMAT_TYPE_VALUE_CSV			= "csv";
 	public static final String FORMAT_TYPE_VALUE_MATRIXMARKET	= "mm";
+	public static final String FORMAT_TYPE_VALUE_LIBSVM			= "libsvm";
 	
 	public static final String ROWBLOCKCOUNTPARAM = "rows_in_block";
 	public static final String COLUMNBLOCKCOUNTPARAM = "cols_in_block";
@@ -939,6 +940,11 @@ public class DataExpression extends DataIdentifier
 				{
 					getOutput().setFormatType(FormatType.MM);
 					format = 1;
+				} 
+				else if ( fmt.equalsIgnoreCase(FORMAT_TYPE_VALUE_LIBSVM) )
+				{
+					getOutput().setFormatType(FormatType.LIBSVM);
+					format = 1;
 				} else {
 					raiseValidateError("Invalid format '" + fmt+ "' in statement: " + this.toString(), conditional);
 				}
@@ -1060,7 +1066,8 @@ public class DataExpression extends DataIdentifier
 				getOutput().setBlockDimensions(-1, -1);
 			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase("binary"))
 				getOutput().setBlockDimensions(ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize());
-			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_MATRIXMARKET) || (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_CSV)))
+			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_MATRIXMARKET) || (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_CSV))
+					|| getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_LIBSVM))
 				getOutput().setBlockDimensions(-1, -1);
 			
 			else{
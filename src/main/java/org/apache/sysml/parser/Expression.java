@@ -198,7 +198,7 @@ public abstract class Expression
 	 * Format types (text, binary, matrix market, csv, unknown).
 	 */
 	public enum FormatType {
-		TEXT, BINARY, MM, CSV, UNKNOWN
+		TEXT, BINARY, MM, CSV, LIBSVM, UNKNOWN
 	};
 	
 	protected static final Log LOG = LogFactory.getLog(Expression.class.getName());
@@ -339,10 +339,11 @@ public abstract class Expression
 	/**
 	 * Convert string format type to {@code Hop.FileFormatTypes}.
 	 * 
-	 * @param format String format type ("text", "binary", "mm", "csv")
+	 * @param format String format type ("text", "binary", "mm", "csv", "libsvm")
 	 * @return Format as {@code Hop.FileFormatTypes}. Can be
 	 * {@code FileFormatTypes.TEXT}, {@code FileFormatTypes.BINARY}, 
-	 * {@code FileFormatTypes.MM}, or {@code FileFormatTypes.CSV}. Unrecognized
+	 * {@code FileFormatTypes.MM}, {@code FileFormatTypes.CSV}, or 
+	 * {@code FileFormatTypes.LIBSVM}. Unrecognized
 	 * type is set to {@code FileFormatTypes.TEXT}.
 	 */
 	public static FileFormatTypes convertFormatType(String format) {
@@ -360,6 +361,9 @@ public abstract class Expression
 		if (format.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_CSV))  {
 			return FileFormatTypes.CSV;
 		}
+		if (format.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_LIBSVM))  {
+			return FileFormatTypes.LIBSVM;
+		}
 		// ToDo : throw parse exception for invalid / unsupported format type
 		return FileFormatTypes.TEXT;
 	}
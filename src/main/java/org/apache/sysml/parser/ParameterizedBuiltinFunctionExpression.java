@@ -481,8 +481,9 @@ public class ParameterizedBuiltinFunctionExpression extends DataIdentifier
 			orderby = new IntIdentifier(1, "1", -1, -1, -1, -1);
 			addVarParam("by", orderby);
 		}
-		else if( orderby !=null && orderby.getOutput().getDataType() != DataType.SCALAR ){				
-			raiseValidateError("Orderby column 'by' is of type '"+orderby.getOutput().getDataType()+"'. Please, specify a scalar order by column index.", conditional, LanguageErrorCodes.INVALID_PARAMETERS);
+		else if( orderby !=null && orderby.getOutput().getDataType() != DataType.SCALAR 
+			&& orderby.getOutput().getDataType() != DataType.MATRIX ){				
+			raiseValidateError("Orderby column 'by' is of type '"+orderby.getOutput().getDataType()+"'. Please, specify a scalar order by column index or a vector of column indexes.", conditional, LanguageErrorCodes.INVALID_PARAMETERS);
 		}	
 		
 		Expression decreasing = getVarParam("decreasing"); //[OPTIONAL] DECREASING
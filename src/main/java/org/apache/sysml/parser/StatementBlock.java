@@ -30,6 +30,7 @@ import org.apache.sysml.api.MLContextProxy;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.hops.Hop;
 import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.recompile.RecompilePlanCache;
 import org.apache.sysml.hops.recompile.Recompiler;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.parser.Expression.DataType;
@@ -55,6 +56,7 @@ public class StatementBlock extends LiveVariableAnalysis
 	
 	private ArrayList<String> _updateInPlaceVars = null;
 	private boolean _requiresRecompile = false;
+	private RecompilePlanCache _planCache = null;
 	
 	public StatementBlock() {
 		_dmlProg = null;
@@ -149,6 +151,7 @@ public class StatementBlock extends LiveVariableAnalysis
 
 	public void set_hops(ArrayList<Hop> hops) {
 		_hops = hops;
+		_planCache = null; //invalidate plans of old dag
 	}
 
 	public void setLops(ArrayList<Lop> lops) {
@@ -797,7 +800,7 @@ public class StatementBlock extends LiveVariableAnalysis
 	 		Expression formatTypeExpr = s.getExprParam(DataExpression.FORMAT_TYPE);  
 			if (!(formatTypeExpr instanceof StringIdentifier)){
 				raiseValidateError("IO statement parameter " + DataExpression.FORMAT_TYPE 
-						+ " can only be a string with one of following values: binary, text, mm, csv.", false, LanguageErrorCodes.INVALID_PARAMETERS);
+						+ " can only be a string with one of following values: binary, text, mm, csv, libsvm.", false, LanguageErrorCodes.INVALID_PARAMETERS);
 			}
 			String ft = formatTypeExpr.toString();
 			if (ft.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_BINARY)){
@@ -808,9 +811,11 @@ public class StatementBlock extends LiveVariableAnalysis
 				s.getIdentifier().setFormatType(FormatType.MM);
 			} else if (ft.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_CSV)){
 				s.getIdentifier().setFormatType(FormatType.CSV);
+			} else if (ft.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_LIBSVM)){
+				s.getIdentifier().setFormatType(FormatType.LIBSVM);
 			} else{ 
 				raiseValidateError("IO statement parameter " + DataExpression.FORMAT_TYPE 
-						+ " can only be a string with one of following values: binary, text, mm, csv; invalid format: '"+ft+"'.", false, LanguageErrorCodes.INVALID_PARAMETERS);
+						+ " can only be a string with one of following values: binary, text, mm, csv, libsvm; invalid format: '"+ft+"'.", false, LanguageErrorCodes.INVALID_PARAMETERS);
 			}
 		} 
 		//case of unspecified format parameter, use default
@@ -846,9 +851,11 @@ public class StatementBlock extends LiveVariableAnalysis
 				s.getTarget().setFormatType(FormatType.MM);
 			} else if (ft.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_CSV)){
 				s.getTarget().setFormatType(FormatType.CSV);
+			} else if (ft.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_LIBSVM)){
+				s.getTarget().setFormatType(FormatType.LIBSVM);
 			} else{ 
 				raiseValidateError("IO statement parameter " + DataExpression.FORMAT_TYPE 
-						+ " can only be a string with one of following values: binary, text, mm, csv", conditionalValidate, LanguageErrorCodes.INVALID_PARAMETERS);
+						+ " can only be a string with one of following values: binary, text, mm, csv, libsvm", conditionalValidate, LanguageErrorCodes.INVALID_PARAMETERS);
 			}
 		} else {
 			dataExpr.addVarParam(DataExpression.FORMAT_TYPE, new StringIdentifier(FormatType.TEXT.toString(),
@@ -1062,6 +1069,17 @@ public class StatementBlock extends LiveVariableAnalysis
 		return _requiresRecompile;
 	}
 	
+	public RecompilePlanCache getPlanCache() {
+		if( _planCache == null )
+			_planCache = new RecompilePlanCache();
+		return _planCache;
+	}
+	
+	public void clearPlanCache() {
+		if( _planCache != null )
+			_planCache.clear();
+	}
+	
 	public ArrayList<String> getUpdateInPlaceVars() {
 		return _updateInPlaceVars;
 	}
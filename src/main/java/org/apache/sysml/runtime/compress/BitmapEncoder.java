@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import org.apache.sysml.runtime.compress.utils.DblArray;
+import org.apache.sysml.runtime.compress.utils.IntArrayList;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Static functions for encapsulating bitmaps, i.e., the extraction of 
+ * distinct value tuples with their row offsets, and the encoding of 
+ * offset lists into segmented offset lists (OLE) or run-length (RLE) 
+ * representations with 2 bytes per offset or run. 
+ * 
+ */
+public class BitmapEncoder 
+{
+	/**
+	 * Generate uncompressed bitmaps for a set of columns in an uncompressed
+	 * matrix block.
+	 * 
+	 * @param colIndices indexes (within the block) of the columns to extract
+	 * @param rawblock an uncompressed matrix block (transposed)
+	 * @return uncompressed bitmap representation of the columns
+	 */
+	public static UncompressedBitmap extractBitmap(int[] colIndices, MatrixBlock rawblock) {
+		return extractBitmap(colIndices, rawblock, null);
+	}
+	
+	/**
+	 * Generate uncompressed bitmaps for a set of columns over a sample of rows, 
+	 * where the row offsets refer to positions within the sample.
+	 * 
+	 * @param colIndices indexes (within the block) of the columns to extract
+	 * @param rawblock an uncompressed matrix block (transposed)
+	 * @param sampleRows sorted sample row indexes, or null for all rows
+	 * @return uncompressed bitmap representation of the columns
+	 */
+	public static UncompressedBitmap extractBitmap(int[] colIndices, MatrixBlock rawblock, int[] sampleRows) 
+	{
+		//probe map of distinct value tuples (in order of first occurrence)
+		LinkedHashMap<DblArray, IntArrayList> distinctVals = 
+			new LinkedHashMap<DblArray, IntArrayList>();
+		
+		//scan rows and append row offsets to the lists of distinct tuples
+		ReaderColumnSelection reader = new ReaderColumnSelection(rawblock, colIndices, sampleRows);
+		DblArray cellVals = null;
+		while( (cellVals = reader.nextRow()) != null ) {
+			IntArrayList lstPtr = distinctVals.get(cellVals);
+			if( lstPtr == null ) {
+				lstPtr = new IntArrayList();
+				distinctVals.put(new DblArray(cellVals), lstPtr);
+			}
+			lstPtr.appendValue(reader.getCurrentRowIndex());
+		}
+		
+		return new UncompressedBitmap(distinctVals, colIndices.length);
+	}
+	
+	/**
+	 * Encodes the bitmap as a series of run lengths and offsets, where each
+	 * run is represented by the distance to the end of the previous run and
+	 * the run length. Distances and lengths that exceed the range of char 
+	 * are split into multiple runs.
+	 * 
+	 * @param offsets uncompressed offset list
+	 * @param len logical length of the given offset list
+	 * @return compressed version of said bitmap
+	 */
+	public static char[] genRLEBitmap(int[] offsets, int len) 
+	{
+		if( len == 0 )
+			return new char[0]; //empty list
+
+		//init output (max size of 2 chars per offset)
+		char[] buf = new char[Math.min(2*len, 64)];
+		int pos = 0;
+		
+		//create runs of consecutive offsets
+		int lastRunEnd = 0;
+		for( int i=0; i<len; ) {
+			int start = offsets[i++];
+			int end = start + 1;
+			while( i<len && offsets[i] == end ) {
+				end++; i++;
+			}
+			
+			//split distances > char max into empty runs
+			int gap = start - lastRunEnd;
+			int rlen = end - start;
+			while( gap > CompressedMatrixBlock.CHAR_MAX ) {
+				buf = ensureCapacity(buf, pos+2, 2*len);
+				buf[pos++] = (char)CompressedMatrixBlock.CHAR_MAX;
+				buf[pos++] = 0;
+				gap -= CompressedMatrixBlock.CHAR_MAX;
+			}
+			
+			//split lengths > char max into adjacent runs
+			while( rlen > 0 ) {
+				int tmp = Math.min(rlen, CompressedMatrixBlock.CHAR_MAX);
+				buf = ensureCapacity(buf, pos+2, 2*len);
+				buf[pos++] = (char)gap;
+				buf[pos++] = (char)tmp;
+				rlen -= tmp;
+				gap = 0;
+			}
+			lastRunEnd = end;
+		}
+		
+		return Arrays.copyOf(buf, pos);
+	}
+	
+	/**
+	 * Encodes the bitmap in blocks of offsets. Within each block, the bits
+	 * are stored as absolute offsets from the start of the block, prefixed 
+	 * by the number of offsets in the block. Blocks after the last non-empty 
+	 * block are omitted.
+	 * 
+	 * @param offsets uncompressed offset list
+	 * @param len logical length of the given offset list
+	 * @return compressed version of said bitmap
+	 */
+	public static char[] genOffsetBitmap(int[] offsets, int len) 
+	{
+		if( len == 0 )
+			return new char[0]; //empty list
+		
+		final int blksz = CompressedMatrixBlock.BITMAP_BLOCK_SZ;
+		int numBlocks = offsets[len-1] / blksz + 1;
+		char[] encodedBlocks = new char[len + numBlocks];
+		
+		int inputIx = 0;
+		int outputIx = 0;
+		for( int bix=0; bix<numBlocks; bix++ ) {
+			int blockStart = bix * blksz;
+			int blockEnd = blockStart + blksz;
+			int lenIx = outputIx++;
+			int blen = 0;
+			while( inputIx < len && offsets[inputIx] < blockEnd ) {
+				encodedBlocks[outputIx++] = (char)(offsets[inputIx++] - blockStart);
+				blen++;
+			}
+			encodedBlocks[lenIx] = (char)blen;
+		}
+		
+		return encodedBlocks;
+	}
+	
+	/**
+	 * 
+	 * @param buf
+	 * @param minCapacity
+	 * @param maxCapacity
+	 * @return
+	 */
+	private static char[] ensureCapacity(char[] buf, int minCapacity, int maxCapacity) {
+		if( minCapacity <= buf.length )
+			return buf;
+		int newCapacity = Math.max(minCapacity, (int)Math.min(2L*buf.length, maxCapacity));
+		return Arrays.copyOf(buf, newCapacity);
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Class that stores information about a column group within a compressed matrix
+ * block. There are subclasses specific to each compression type.
+ * 
+ */
+public abstract class ColGroup 
+{
+	public enum CompressionType {
+		UNCOMPRESSED, //uncompressed sparse/dense 
+		RLE_BITMAP,   //RLE bitmap
+		OLE_BITMAP;   //OLE bitmap
+	}
+	
+	/**
+	 * Offsets of the columns that make up the column group. Zero-based, and
+	 * relative to the matrix block.
+	 */
+	protected int[] _colIndexes;
+
+	/** Number of rows in the matrix, for use by child classes. */
+	protected int _numRows;
+
+	/**
+	 * Main constructor.
+	 * 
+	 * @param colIndices
+	 *            offsets of the columns in the matrix block that make up the
+	 *            group (sorted)
+	 * @param numRows
+	 *            total number of rows in the parent block
+	 */
+	protected ColGroup(int[] colIndices, int numRows) {
+		_colIndexes = colIndices;
+		_numRows = numRows;
+	}
+
+	/**
+	 * @return offsets of the columns in the matrix block that make up the group
+	 */
+	public int[] getColIndices() {
+		return _colIndexes;
+	}
+
+	/**
+	 * @param colNum
+	 *            column number within the group
+	 * @return the global column index of this column in the matrix block
+	 */
+	public int getColIndex(int colNum) {
+		return _colIndexes[colNum];
+	}
+
+	/**
+	 * @return number of rows in the parent block
+	 */
+	public int getNumRows() {
+		return _numRows;
+	}
+	
+	/**
+	 * @return number of columns in this column group
+	 */
+	public int getNumCols() {
+		return _colIndexes.length;
+	}
+
+	/**
+	 * @return How the elements of the column group are compressed.
+	 */
+	public abstract CompressionType getCompType();
+	
+	/**
+	 * Note: Must be overridden by child classes to account for additional data
+	 * and metadata
+	 * 
+	 * @return an upper bound on the number of bytes used to store this ColGroup
+	 *         in memory.
+	 */
+	public long estimateInMemorySize() {
+		//object header, references, _numRows, array header and indexes
+		return 16 + 8 + 4 + 16 + 4L * _colIndexes.length;
+	}
+
+	/**
+	 * Decompress the contents of this column group into the specified full
+	 * dense matrix block, for the given range of rows.
+	 * 
+	 * @param target
+	 *            a dense matrix block of the full size of the parent block
+	 * @param rl
+	 *            row lower bound, inclusive
+	 * @param ru
+	 *            row upper bound, exclusive
+	 */
+	public abstract void decompressToBlock(MatrixBlock target, int rl, int ru);
+
+	/**
+	 * Get the value of a single cell.
+	 * 
+	 * @param r
+	 *            row index (parent block)
+	 * @param c
+	 *            column index (parent block)
+	 * @return cell value
+	 */
+	public abstract double get(int r, int c);
+	
+	/**
+	 * @return number of non-zero values in this column group
+	 */
+	public abstract long getNumberNonZeros();
+
+	/**
+	 * Multiply the slice of the matrix that this column group represents by a
+	 * vector on the right, and add the result to the given output vector.
+	 * 
+	 * @param b
+	 *            dense input vector of length number of columns in the parent block
+	 * @param c
+	 *            dense output vector of length number of rows in the parent block
+	 * @param rl
+	 *            row lower bound, inclusive
+	 * @param ru
+	 *            row upper bound, exclusive
+	 */
+	public abstract void rightMultByVector(double[] b, double[] c, int rl, int ru);
+
+	/**
+	 * Multiply the slice of the matrix that this column group represents by a
+	 * row vector on the left (the original column vector is assumed to be
+	 * transposed already i.e. its size now is 1xn), and write the result into 
+	 * the columns of the output vector.
+	 * 
+	 * @param a
+	 *            dense input vector of length number of rows in the parent block
+	 * @param c
+	 *            dense output vector of length number of columns in the parent block
+	 */
+	public abstract void leftMultByRowVector(double[] a, double[] c);
+
+	/**
+	 * Perform the specified scalar operation directly on the compressed column
+	 * group, without decompressing individual cells if possible.
+	 * 
+	 * @param op
+	 *            operation to perform
+	 * @return version of this column group with the operation applied
+	 * @throws DMLRuntimeException
+	 */
+	public abstract ColGroup scalarOperation(ScalarOperator op) 
+		throws DMLRuntimeException;
+
+	/**
+	 * Unary aggregate operator (sum, sumsq, min, max as full, row, and column 
+	 * aggregates) over this column group, which updates the given output in 
+	 * the layout of the unary aggregate (incl corrections).
+	 * 
+	 * @param op
+	 *            aggregation operator
+	 * @param result
+	 *            dense output block of the unary aggregate
+	 * @throws DMLRuntimeException
+	 */
+	public abstract void unaryAggregateOperations(AggregateUnaryOperator op, MatrixBlock result)
+		throws DMLRuntimeException;
+	
+	/**
+	 * Serializes column group to data output.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	public abstract void write(DataOutput out) 
+		throws IOException;
+	
+	/**
+	 * Deserializes column group from data input.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	public abstract void readFields(DataInput in) 
+		throws IOException;
+		
+	/**
+	 * Returns the exact serialized size of column group.
+	 * This can be used for example for buffer preallocation.
+	 * 
+	 * @return
+	 */
+	public abstract long getExactSizeOnDisk();
+	
+	/**
+	 * Gets the position of the given column index within this column group.
+	 * 
+	 * @param c
+	 *            column index (parent block)
+	 * @return position in _colIndexes, or a negative value if not contained
+	 */
+	protected int getColPos(int c) {
+		return Arrays.binarySearch(_colIndexes, c);
+	}
+	
+	/**
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	protected void writeHeader(DataOutput out) 
+		throws IOException 
+	{
+		out.writeInt(_numRows);
+		out.writeInt(_colIndexes.length);
+		for( int i=0; i<_colIndexes.length; i++ )
+			out.writeInt(_colIndexes[i]);
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	protected void readHeader(DataInput in) 
+		throws IOException 
+	{
+		_numRows = in.readInt();
+		_colIndexes = new int[in.readInt()];
+		for( int i=0; i<_colIndexes.length; i++ )
+			_colIndexes[i] = in.readInt();
+	}
+}
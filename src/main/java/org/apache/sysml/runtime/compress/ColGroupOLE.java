@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Arrays;
+
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Class to encapsulate information about a column group that is encoded with
+ * simple lists of offsets for each set of distinct values (OLE). The offset 
+ * lists are split into segments of BITMAP_BLOCK_SZ rows, each stored as the 
+ * number of offsets followed by the offsets relative to the segment start.
+ * 
+ */
+public class ColGroupOLE extends ColGroupOffset 
+{
+	protected ColGroupOLE() {
+		super();
+	}
+	
+	/**
+	 * Main constructor. Constructs and stores the necessary bitmaps.
+	 * 
+	 * @param colIndices
+	 *            indices (within the block) of the columns included in this
+	 *            column group
+	 * @param numRows
+	 *            total number of rows in the parent block
+	 * @param ubm
+	 *            Uncompressed bitmap representation of the block
+	 */
+	public ColGroupOLE(int[] colIndices, int numRows, UncompressedBitmap ubm) {
+		super(colIndices, numRows, ubm);
+		encodeBitmaps(ubm);
+	}
+
+	public ColGroupOLE(int[] colIndices, int numRows, double[] values, int[] ptr, char[] data) {
+		super(colIndices, numRows, values, ptr, data);
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.OLE_BITMAP;
+	}
+	
+	@Override
+	protected char[] encodeOffsets(int[] offsets, int len) {
+		return BitmapEncoder.genOffsetBitmap(offsets, len);
+	}
+	
+	@Override
+	protected ColGroupOffset create(int[] colIndices, int numRows, double[] values, int[] ptr, char[] data) {
+		return new ColGroupOLE(colIndices, numRows, values, ptr, data);
+	}
+	
+	@Override
+	public int[] getOffsets(int k) {
+		final int blksz = CompressedMatrixBlock.BITMAP_BLOCK_SZ;
+		final int boff = _ptr[k];
+		final int blen = len(k);
+		int[] ret = new int[getCount(k)];
+		for( int bix=0, off=0, pos=0; bix<blen; bix+=_data[boff+bix]+1, off+=blksz ) {
+			int slen = _data[boff+bix];
+			for( int i=1; i<=slen; i++ )
+				ret[pos++] = off + _data[boff+bix+i];
+		}
+		return ret;
+	}
+	
+	/**
+	 * @param k value index
+	 * @return number of offsets of the given value
+	 */
+	private int getCount(int k) {
+		final int boff = _ptr[k];
+		final int blen = len(k);
+		int count = 0;
+		for( int bix=0; bix<blen; bix+=_data[boff+bix]+1 )
+			count += _data[boff+bix];
+		return count;
+	}
+	
+	@Override
+	public int[] getCounts() {
+		final int numVals = getNumValues();
+		int[] ret = new int[numVals];
+		for( int k=0; k<numVals; k++ )
+			ret[k] = getCount(k);
+		return ret;
+	}
+
+	/**
+	 * Finds the position of the first segment that covers rows at or
+	 * after the given row, i.e., the segment of row rl.
+	 * 
+	 * @param k value index
+	 * @param rl row lower bound
+	 * @return relative position within the bitmap of value k
+	 */
+	private int skipScan(int k, int rl) {
+		final int blksz = CompressedMatrixBlock.BITMAP_BLOCK_SZ;
+		final int boff = _ptr[k];
+		final int blen = len(k);
+		int bix = 0;
+		for( int start=0; bix<blen && start+blksz<=rl; start+=blksz )
+			bix += _data[boff+bix] + 1;
+		return bix;
+	}
+	
+	@Override
+	public void decompressToBlock(MatrixBlock target, int rl, int ru) 
+	{
+		final int blksz = CompressedMatrixBlock.BITMAP_BLOCK_SZ;
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		DenseBlock c = target.getDenseBlock();
+		
+		//cache conscious append via horizontal scans 
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			int boff = _ptr[k];
+			int blen = len(k);
+			int bix = skipScan(k, rl);
+			for( int start=rl/blksz*blksz; bix<blen && start<ru; start+=blksz ) {
+				int slen = _data[boff+bix];
+				for( int i=1; i<=slen; i++ ) {
+					int row = start + _data[boff+bix+i];
+					if( row < rl || row >= ru )
+						continue;
+					double[] cvals = c.values(row);
+					int cix = c.pos(row);
+					for( int j=0; j<numCols; j++ )
+						cvals[cix+_colIndexes[j]] = _values[valOff+j];
+				}
+				bix += slen + 1;
+			}
+		}
+	}
+	
+	@Override
+	public double get(int r, int c) 
+	{
+		final int blksz = CompressedMatrixBlock.BITMAP_BLOCK_SZ;
+		final int numVals = getNumValues();
+		int colPos = getColPos(c);
+		if( colPos < 0 )
+			return 0;
+		
+		//find value tuple via binary search within the segment of r
+		char roff = (char)(r % blksz);
+		for( int k=0; k<numVals; k++ ) {
+			int boff = _ptr[k];
+			int bix = skipScan(k, r);
+			if( bix >= len(k) )
+				continue;
+			int slen = _data[boff+bix];
+			int pos = boff + bix + 1;
+			if( Arrays.binarySearch(_data, pos, pos+slen, roff) >= 0 )
+				return _values[k*getNumCols()+colPos];
+		}
+		return 0;
+	}
+	
+	@Override
+	public void rightMultByVector(double[] b, double[] c, int rl, int ru) 
+	{
+		final int blksz = CompressedMatrixBlock.BITMAP_BLOCK_SZ;
+		final int numVals = getNumValues();
+		
+		//pre-aggregate the value tuples with the vector (once per value)
+		double[] vals = preaggValues(b);
+		
+		//iterate over segments and add the pre-aggregated value to all rows
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			if( val == 0 )
+				continue;
+			int boff = _ptr[k];
+			int blen = len(k);
+			int bix = skipScan(k, rl);
+			for( int start=rl/blksz*blksz; bix<blen && start<ru; start+=blksz ) {
+				int slen = _data[boff+bix];
+				if( start >= rl && start+blksz <= ru ) {
+					//full segment (no boundary checks)
+					for( int i=1; i<=slen; i++ )
+						c[start+_data[boff+bix+i]] += val;
+				}
+				else {
+					for( int i=1; i<=slen; i++ ) {
+						int row = start + _data[boff+bix+i];
+						if( row >= rl && row < ru )
+							c[row] += val;
+					}
+				}
+				bix += slen + 1;
+			}
+		}
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) 
+	{
+		final int blksz = CompressedMatrixBlock.BITMAP_BLOCK_SZ;
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		
+		//gather the vector entries per value, and scale the value tuple once
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			int boff = _ptr[k];
+			int blen = len(k);
+			double vsum = 0;
+			for( int bix=0, off=0; bix<blen; bix+=_data[boff+bix]+1, off+=blksz ) {
+				int slen = _data[boff+bix];
+				for( int i=1; i<=slen; i++ )
+					vsum += a[off+_data[boff+bix+i]];
+			}
+			if( vsum != 0 )
+				for( int j=0; j<numCols; j++ )
+					c[_colIndexes[j]] += vsum * _values[valOff+j];
+		}
+	}
+	
+	@Override
+	protected void computeRowSums(double[] c, boolean sq) 
+	{
+		final int blksz = CompressedMatrixBlock.BITMAP_BLOCK_SZ;
+		final int numVals = getNumValues();
+		double[] vals = sumAllValues(sq);
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		
+		//add the pre-aggregated value tuples to the sum and 
+		//correction of all covered rows (in layout rlen x 2)
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			if( val == 0 )
+				continue;
+			int boff = _ptr[k];
+			int blen = len(k);
+			for( int bix=0, off=0; bix<blen; bix+=_data[boff+bix]+1, off+=blksz ) {
+				int slen = _data[boff+bix];
+				for( int i=1; i<=slen; i++ ) {
+					int rix = 2 * (off + _data[boff+bix+i]);
+					kbuff.set(c[rix], c[rix+1]);
+					kplus.execute2(kbuff, val);
+					c[rix] = kbuff._sum;
+					c[rix+1] = kbuff._correction;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Builtin;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Base class for column groups encoded with value dictionary and 
+ * compressed offset lists per value tuple (OLE and RLE), where the 
+ * offset lists of all values are stored in a single linearized char
+ * array with pointers to the start of each list.
+ * 
+ */
+public abstract class ColGroupOffset extends ColGroupValue 
+{
+	/** Bitmaps, one per uncompressed value in _values. */
+	protected int[] _ptr; //bitmap offsets per value
+	protected char[] _data; //linearized bitmaps (variable length)
+	
+	protected ColGroupOffset() {
+		super();
+	}
+	
+	/**
+	 * Main constructor. Stores the headers for the individual bitmaps.
+	 * 
+	 * @param colIndices
+	 *            indices (within the block) of the columns included in this
+	 *            column group
+	 * @param numRows
+	 *            total number of rows in the parent block
+	 * @param ubm
+	 *            Uncompressed bitmap representation of the block
+	 */
+	protected ColGroupOffset(int[] colIndices, int numRows, UncompressedBitmap ubm) {
+		super(colIndices, numRows, ubm);
+	}
+	
+	/**
+	 * Constructor for subclass methods that need to create shallow copies
+	 * 
+	 * @param colIndices
+	 *            raw column index information
+	 * @param numRows
+	 *            number of rows in the block
+	 * @param values
+	 *            set of distinct values for the block
+	 * @param ptr
+	 *            pointers to the start of the bitmaps per value
+	 * @param data
+	 *            linearized bitmaps
+	 */
+	protected ColGroupOffset(int[] colIndices, int numRows, double[] values, int[] ptr, char[] data) {
+		super(colIndices, numRows, values);
+		_ptr = ptr;
+		_data = data;
+	}
+	
+	/**
+	 * Linearizes the given compressed bitmaps into _ptr and _data.
+	 * 
+	 * @param numVals
+	 * @param totalLen
+	 * @param lbitmaps
+	 */
+	protected final void createCompressedBitmaps(int numVals, int totalLen, char[][] lbitmaps) {
+		_ptr = new int[numVals+1];
+		_data = new char[totalLen];
+		for( int i=0, off=0; i<numVals; i++ ) {
+			int len = lbitmaps[i].length;
+			_ptr[i] = off;
+			System.arraycopy(lbitmaps[i], 0, _data, off, len);
+			off += len;
+		}
+		_ptr[numVals] = totalLen;
+	}
+	
+	/**
+	 * Encodes the uncompressed offset lists of the given bitmap.
+	 * 
+	 * @param ubm
+	 */
+	protected final void encodeBitmaps(UncompressedBitmap ubm) {
+		final int numVals = ubm.getNumValues();
+		char[][] lbitmaps = new char[numVals][];
+		int totalLen = 0;
+		for( int i=0; i<numVals; i++ ) {
+			lbitmaps[i] = encodeOffsets(ubm.getOffsetsList(i), ubm.getNumOffsets(i));
+			totalLen += lbitmaps[i].length;
+		}
+		createCompressedBitmaps(numVals, totalLen, lbitmaps);
+	}
+	
+	/**
+	 * @param k value index
+	 * @return length of the compressed bitmap of the given value
+	 */
+	protected final int len(int k) {
+		return _ptr[k+1] - _ptr[k];
+	}
+	
+	/**
+	 * Decodes the offset list of the given value.
+	 * 
+	 * @param k value index
+	 * @return sorted row offsets of the given value
+	 */
+	public abstract int[] getOffsets(int k);
+	
+	/**
+	 * Encodes the given uncompressed offset list.
+	 * 
+	 * @param offsets
+	 * @param len
+	 * @return
+	 */
+	protected abstract char[] encodeOffsets(int[] offsets, int len);
+	
+	/**
+	 * Creates a column group of the same type over the given data.
+	 * 
+	 * @param colIndices
+	 * @param numRows
+	 * @param values
+	 * @param ptr
+	 * @param data
+	 * @return
+	 */
+	protected abstract ColGroupOffset create(int[] colIndices, int numRows, double[] values, int[] ptr, char[] data);
+	
+	@Override
+	public long getNumberNonZeros() {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		int[] counts = getCounts();
+		long nnz = 0;
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			for( int j=0; j<numCols; j++ )
+				nnz += (_values[valOff+j] != 0) ? counts[k] : 0;
+		return nnz;
+	}
+	
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op) 
+		throws DMLRuntimeException 
+	{
+		double val0 = op.executeScalar(0);
+		
+		//fast path: sparse-safe operations
+		// Note that bitmaps don't change and are shallow-copied
+		if( val0 == 0 || !hasZeroTuple() ) {
+			return create(_colIndexes, _numRows, 
+				applyScalarOp(op), _ptr, _data);
+		}
+		
+		//slow path: sparse-unsafe operations (potentially create new bitmap)
+		//note: for efficiency, we currently don't drop values that become 0
+		boolean[] lind = computeZeroIndicatorVector();
+		int[] loff = computeOffsets(lind);
+		char[] lbitmap = encodeOffsets(loff, loff.length);
+		double[] rvalues = applyScalarOp(op, val0, getNumCols());
+		
+		int numVals = getNumValues();
+		int[] rptr = new int[numVals+2];
+		System.arraycopy(_ptr, 0, rptr, 0, numVals+1);
+		rptr[numVals+1] = _data.length + lbitmap.length;
+		char[] rdata = new char[_data.length + lbitmap.length];
+		System.arraycopy(_data, 0, rdata, 0, _data.length);
+		System.arraycopy(lbitmap, 0, rdata, _data.length, lbitmap.length);
+		
+		return create(_colIndexes, _numRows, rvalues, rptr, rdata);
+	}
+	
+	/**
+	 * @return indicator vector of rows that are not covered by any value tuple
+	 */
+	protected boolean[] computeZeroIndicatorVector() {
+		boolean[] ret = new boolean[_numRows];
+		Arrays.fill(ret, true);
+		final int numVals = getNumValues();
+		for( int k=0; k<numVals; k++ )
+			for( int off : getOffsets(k) )
+				ret[off] = false;
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param ind
+	 * @return
+	 */
+	protected static int[] computeOffsets(boolean[] ind) {
+		int len = 0;
+		for( int i=0; i<ind.length; i++ )
+			len += ind[i] ? 1 : 0;
+		int[] ret = new int[len];
+		for( int i=0, pos=0; i<ind.length; i++ )
+			if( ind[i] )
+				ret[pos++] = i;
+		return ret;
+	}
+	
+	@Override
+	protected void computeRowMxx(double[] c, Builtin builtin) {
+		final int numVals = getNumValues();
+		double[] vals = mxxAllValues(builtin);
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			for( int off : getOffsets(k) )
+				c[off] = builtin.execute2(c[off], val);
+		}
+		
+		//rows without any value tuple are all zero
+		if( hasZeroTuple() ) {
+			boolean[] lind = computeZeroIndicatorVector();
+			for( int i=0; i<_numRows; i++ )
+				if( lind[i] )
+					c[i] = builtin.execute2(c[i], 0);
+		}
+	}
+	
+	@Override
+	public void write(DataOutput out) 
+		throws IOException 
+	{
+		writeHeader(out);
+		
+		//write distinct values
+		out.writeInt(_values.length);
+		for( int i=0; i<_values.length; i++ )
+			out.writeDouble(_values[i]);
+		
+		//write bitmaps (lens and data, offset later recreated)
+		int numVals = getNumValues();
+		for( int i=0; i<numVals; i++ )
+			out.writeInt(len(i));
+		for( int i=0; i<_data.length; i++ )
+			out.writeChar(_data[i]);
+	}
+
+	@Override
+	public void readFields(DataInput in) 
+		throws IOException 
+	{
+		readHeader(in);
+		
+		//read distinct values
+		_values = new double[in.readInt()];
+		for( int i=0; i<_values.length; i++ )
+			_values[i] = in.readDouble();
+		
+		//read bitmaps
+		int numVals = getNumValues();
+		_ptr = new int[numVals+1];
+		for( int i=0; i<numVals; i++ )
+			_ptr[i+1] = _ptr[i] + in.readInt();
+		_data = new char[_ptr[numVals]];
+		for( int i=0; i<_data.length; i++ )
+			_data[i] = in.readChar();
+	}
+	
+	@Override
+	public long getExactSizeOnDisk() {
+		long ret = 8 + 4L * _colIndexes.length; //header
+		ret += 4 + 8L * _values.length; //distinct values
+		ret += 4L * getNumValues() + 2L * _data.length; //bitmaps
+		return ret;
+	}
+	
+	@Override
+	public long estimateInMemorySize() {
+		long size = super.estimateInMemorySize();
+		size += 16 + 4L * _ptr.length; //ptr array
+		size += 16 + 2L * _data.length; //data array
+		return size;
+	}
+}
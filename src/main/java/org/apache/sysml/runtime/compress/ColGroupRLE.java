@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Arrays;
+
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * A group of columns compressed with a single run-length encoded bitmap 
+ * per set of distinct values (RLE). Each run is stored as two chars of
+ * the distance to the end of the previous run and the run length.
+ * 
+ */
+public class ColGroupRLE extends ColGroupOffset 
+{
+	protected ColGroupRLE() {
+		super();
+	}
+	
+	/**
+	 * Main constructor. Constructs and stores the necessary bitmaps.
+	 * 
+	 * @param colIndices
+	 *            indices (within the block) of the columns included in this
+	 *            column group
+	 * @param numRows
+	 *            total number of rows in the parent block
+	 * @param ubm
+	 *            Uncompressed bitmap representation of the block
+	 */
+	public ColGroupRLE(int[] colIndices, int numRows, UncompressedBitmap ubm) {
+		super(colIndices, numRows, ubm);
+		encodeBitmaps(ubm);
+	}
+
+	public ColGroupRLE(int[] colIndices, int numRows, double[] values, int[] ptr, char[] data) {
+		super(colIndices, numRows, values, ptr, data);
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.RLE_BITMAP;
+	}
+	
+	@Override
+	protected char[] encodeOffsets(int[] offsets, int len) {
+		return BitmapEncoder.genRLEBitmap(offsets, len);
+	}
+	
+	@Override
+	protected ColGroupOffset create(int[] colIndices, int numRows, double[] values, int[] ptr, char[] data) {
+		return new ColGroupRLE(colIndices, numRows, values, ptr, data);
+	}
+	
+	@Override
+	public int[] getOffsets(int k) {
+		final int boff = _ptr[k];
+		final int blen = len(k);
+		int[] ret = new int[getCount(k)];
+		int curRunEnd = 0;
+		for( int bix=0, pos=0; bix<blen; bix+=2 ) {
+			int start = curRunEnd + _data[boff+bix];
+			curRunEnd = start + _data[boff+bix+1];
+			for( int i=start; i<curRunEnd; i++ )
+				ret[pos++] = i;
+		}
+		return ret;
+	}
+	
+	/**
+	 * @param k value index
+	 * @return number of offsets of the given value
+	 */
+	private int getCount(int k) {
+		final int boff = _ptr[k];
+		final int blen = len(k);
+		int count = 0;
+		for( int bix=0; bix<blen; bix+=2 )
+			count += _data[boff+bix+1];
+		return count;
+	}
+	
+	@Override
+	public int[] getCounts() {
+		final int numVals = getNumValues();
+		int[] ret = new int[numVals];
+		for( int k=0; k<numVals; k++ )
+			ret[k] = getCount(k);
+		return ret;
+	}
+	
+	@Override
+	public void decompressToBlock(MatrixBlock target, int rl, int ru) 
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		DenseBlock c = target.getDenseBlock();
+		
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			int boff = _ptr[k];
+			int blen = len(k);
+			int curRunEnd = 0;
+			for( int bix=0; bix<blen && curRunEnd<ru; bix+=2 ) {
+				int start = curRunEnd + _data[boff+bix];
+				curRunEnd = start + _data[boff+bix+1];
+				for( int i=Math.max(start, rl); i<Math.min(curRunEnd, ru); i++ ) {
+					double[] cvals = c.values(i);
+					int cix = c.pos(i);
+					for( int j=0; j<numCols; j++ )
+						cvals[cix+_colIndexes[j]] = _values[valOff+j];
+				}
+			}
+		}
+	}
+	
+	@Override
+	public double get(int r, int c) 
+	{
+		final int numVals = getNumValues();
+		int colPos = getColPos(c);
+		if( colPos < 0 )
+			return 0;
+		
+		//find value tuple via scan of runs up to r
+		for( int k=0; k<numVals; k++ ) {
+			int boff = _ptr[k];
+			int blen = len(k);
+			int curRunEnd = 0;
+			for( int bix=0; bix<blen && curRunEnd<=r; bix+=2 ) {
+				int start = curRunEnd + _data[boff+bix];
+				curRunEnd = start + _data[boff+bix+1];
+				if( r >= start && r < curRunEnd )
+					return _values[k*getNumCols()+colPos];
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public void rightMultByVector(double[] b, double[] c, int rl, int ru) 
+	{
+		final int numVals = getNumValues();
+		
+		//pre-aggregate the value tuples with the vector (once per value)
+		double[] vals = preaggValues(b);
+		
+		//add the pre-aggregated value to all rows of the runs 
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			if( val == 0 )
+				continue;
+			int boff = _ptr[k];
+			int blen = len(k);
+			int curRunEnd = 0;
+			for( int bix=0; bix<blen && curRunEnd<ru; bix+=2 ) {
+				int start = curRunEnd + _data[boff+bix];
+				curRunEnd = start + _data[boff+bix+1];
+				for( int i=Math.max(start, rl); i<Math.min(curRunEnd, ru); i++ )
+					c[i] += val;
+			}
+		}
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) 
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		
+		//gather the vector entries per value, and scale the value tuple once
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			int boff = _ptr[k];
+			int blen = len(k);
+			double vsum = 0;
+			int curRunEnd = 0;
+			for( int bix=0; bix<blen; bix+=2 ) {
+				int start = curRunEnd + _data[boff+bix];
+				curRunEnd = start + _data[boff+bix+1];
+				for( int i=start; i<curRunEnd; i++ )
+					vsum += a[i];
+			}
+			if( vsum != 0 )
+				for( int j=0; j<numCols; j++ )
+					c[_colIndexes[j]] += vsum * _values[valOff+j];
+		}
+	}
+	
+	@Override
+	protected void computeRowSums(double[] c, boolean sq) 
+	{
+		final int numVals = getNumValues();
+		double[] vals = sumAllValues(sq);
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		
+		//add the pre-aggregated value tuples to the sum and 
+		//correction of all covered rows (in layout rlen x 2)
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			if( val == 0 )
+				continue;
+			int boff = _ptr[k];
+			int blen = len(k);
+			int curRunEnd = 0;
+			for( int bix=0; bix<blen; bix+=2 ) {
+				int start = curRunEnd + _data[boff+bix];
+				curRunEnd = start + _data[boff+bix+1];
+				for( int i=start; i<curRunEnd; i++ ) {
+					kbuff.set(c[2*i], c[2*i+1]);
+					kplus.execute2(kbuff, val);
+					c[2*i] = kbuff._sum;
+					c[2*i+1] = kbuff._correction;
+				}
+			}
+		}
+	}
+	
+	@Override
+	protected boolean[] computeZeroIndicatorVector() {
+		//mark uncovered rows via runs (no decoding of offsets)
+		boolean[] ret = new boolean[_numRows];
+		Arrays.fill(ret, true);
+		final int numVals = getNumValues();
+		for( int k=0; k<numVals; k++ ) {
+			int boff = _ptr[k];
+			int blen = len(k);
+			int curRunEnd = 0;
+			for( int bix=0; bix<blen; bix+=2 ) {
+				int start = curRunEnd + _data[boff+bix];
+				curRunEnd = start + _data[boff+bix+1];
+				Arrays.fill(ret, start, curRunEnd, false);
+			}
+		}
+		return ret;
+	}
+}
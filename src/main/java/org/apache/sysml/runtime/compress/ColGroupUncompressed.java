@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Builtin;
+import org.apache.sysml.runtime.functionobjects.KahanFunction;
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.functionobjects.ReduceAll;
+import org.apache.sysml.runtime.functionobjects.ReduceCol;
+import org.apache.sysml.runtime.functionobjects.ReduceRow;
+import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Column group type for columns that are stored as dense or sparse 
+ * uncompressed matrices, i.e., for columns that are not compressible
+ * (e.g., with too many distinct values).
+ * 
+ */
+public class ColGroupUncompressed extends ColGroup 
+{
+	/**
+	 * We store the contents of the columns as a MatrixBlock to take advantage
+	 * of high-performance routines available for this data structure.
+	 */
+	private MatrixBlock _data;
+	
+	protected ColGroupUncompressed() {
+		super((int[]) null, -1);
+	}
+	
+	/**
+	 * Main constructor.
+	 * 
+	 * @param colIndicesList
+	 *            indices (relative to the current block) of the columns that
+	 *            this column group represents.
+	 * @param rawblock
+	 *            the uncompressed block in transposed layout, i.e., with 
+	 *            columns as rows; uncompressed columns are copied to new 
+	 *            storage
+	 * @throws DMLRuntimeException 
+	 */
+	public ColGroupUncompressed(int[] colIndicesList, MatrixBlock rawblock) 
+		throws DMLRuntimeException 
+	{
+		super(colIndicesList, rawblock.getNumColumns());
+		
+		//prepare meta data
+		int numRows = rawblock.getNumColumns();
+		int numCols = colIndicesList.length;
+		
+		//extract the rows of the transposed input (selected columns)
+		MatrixBlock tmp = new MatrixBlock(numCols, numRows, rawblock.isInSparseFormat());
+		if( rawblock.isInSparseFormat() && rawblock.getSparseBlock() != null ) {
+			SparseBlock a = rawblock.getSparseBlock();
+			for( int i=0; i<numCols; i++ ) {
+				int col = colIndicesList[i];
+				if( a.isEmpty(col) )
+					continue;
+				int apos = a.pos(col);
+				int alen = a.size(col);
+				int[] aix = a.indexes(col);
+				double[] avals = a.values(col);
+				for( int j=apos; j<apos+alen; j++ )
+					tmp.appendValue(i, aix[j], avals[j]);
+			}
+		}
+		else if( !rawblock.isInSparseFormat() && rawblock.getDenseBlock() != null ) {
+			DenseBlock a = rawblock.getDenseBlock();
+			for( int i=0; i<numCols; i++ ) {
+				double[] avals = a.values(colIndicesList[i]);
+				int apos = a.pos(colIndicesList[i]);
+				for( int j=0; j<numRows; j++ )
+					tmp.appendValue(i, j, avals[apos+j]);
+			}
+		}
+		tmp.examSparsity();
+		
+		//transpose back into the original row-major layout
+		_data = LibMatrixReorg.transpose(tmp, 
+			new MatrixBlock(numRows, numCols, tmp.isInSparseFormat()));
+	}
+	
+	/**
+	 * Constructor for internal use. Used when a method needs to build an
+	 * instance of this class from scratch.
+	 * 
+	 * @param colIndices
+	 *            column mapping for this column group
+	 * @param numRows
+	 *            number of rows in the column, for passing to the superclass
+	 * @param data
+	 *            matrix block
+	 */
+	public ColGroupUncompressed(int[] colIndices, int numRows, MatrixBlock data) {
+		super(colIndices, numRows);
+		_data = data;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.UNCOMPRESSED;
+	}
+	
+	/**
+	 * Access for superclass
+	 * 
+	 * @return direct pointer to the internal representation of the columns
+	 */
+	public MatrixBlock getData() {
+		return _data;
+	}
+	
+	@Override
+	public long estimateInMemorySize() {
+		return super.estimateInMemorySize() + 8 + _data.getInMemorySize();
+	}
+
+	@Override
+	public void decompressToBlock(MatrixBlock target, int rl, int ru) {
+		DenseBlock c = target.getDenseBlock();
+		final int numCols = getNumCols();
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock a = _data.getSparseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) )
+					continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				double[] cvals = c.values(i);
+				int cix = c.pos(i);
+				for( int j=apos; j<apos+alen; j++ )
+					cvals[cix+_colIndexes[aix[j]]] = avals[j];
+			}
+		}
+		else {
+			DenseBlock a = _data.getDenseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				double[] cvals = c.values(i);
+				int cix = c.pos(i);
+				for( int j=0; j<numCols; j++ )
+					cvals[cix+_colIndexes[j]] = avals[aix+j];
+			}
+		}
+	}
+	
+	@Override
+	public double get(int r, int c) {
+		int colPos = getColPos(c);
+		return (colPos < 0) ? 0 : _data.quickGetValue(r, colPos);
+	}
+	
+	@Override
+	public long getNumberNonZeros() {
+		return _data.getNonZeros();
+	}
+	
+	@Override
+	public void rightMultByVector(double[] b, double[] c, int rl, int ru) {
+		final int numCols = getNumCols();
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock a = _data.getSparseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) )
+					continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				double val = 0;
+				for( int j=apos; j<apos+alen; j++ )
+					val += avals[j] * b[_colIndexes[aix[j]]];
+				c[i] += val;
+			}
+		}
+		else {
+			DenseBlock a = _data.getDenseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				double val = 0;
+				for( int j=0; j<numCols; j++ )
+					val += avals[aix+j] * b[_colIndexes[j]];
+				c[i] += val;
+			}
+		}
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		final int numCols = getNumCols();
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock b = _data.getSparseBlock();
+			for( int i=0; i<_numRows; i++ ) {
+				if( b.isEmpty(i) || a[i] == 0 )
+					continue;
+				int bpos = b.pos(i);
+				int blen = b.size(i);
+				int[] bix = b.indexes(i);
+				double[] bvals = b.values(i);
+				for( int j=bpos; j<bpos+blen; j++ )
+					c[_colIndexes[bix[j]]] += a[i] * bvals[j];
+			}
+		}
+		else {
+			DenseBlock b = _data.getDenseBlock();
+			for( int i=0; i<_numRows; i++ ) {
+				if( a[i] == 0 )
+					continue;
+				double[] bvals = b.values(i);
+				int bix = b.pos(i);
+				for( int j=0; j<numCols; j++ )
+					c[_colIndexes[j]] += a[i] * bvals[bix+j];
+			}
+		}
+	}
+
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op) 
+		throws DMLRuntimeException 
+	{
+		//execute scalar operations
+		MatrixBlock retContent = (MatrixBlock) _data
+			.scalarOperations(op, new MatrixBlock());
+
+		//construct new uncompressed column group
+		return new ColGroupUncompressed(getColIndices(), _data.getNumRows(), retContent);
+	}
+	
+	@Override
+	public void unaryAggregateOperations(AggregateUnaryOperator op, MatrixBlock result) 
+		throws DMLRuntimeException 
+	{
+		//execute unary aggregate operations (w/ corrections)
+		MatrixBlock tmp = (MatrixBlock) _data.aggregateUnaryOperations(op, new MatrixBlock(),
+			_data.getNumRows(), _data.getNumColumns(), new MatrixIndexes(1, 1), false);
+		double[] c = result.getDenseBlockValues();
+		
+		//shift result into correct column indexes and merge with output
+		if( op.aggOp.increOp.fn instanceof KahanFunction ) {
+			KahanObject kbuff = new KahanObject(0, 0);
+			KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+			if( op.indexFn instanceof ReduceAll ) {
+				kbuff.set(c[0], c[1]);
+				kplus.execute(kbuff, tmp.quickGetValue(0, 0), tmp.quickGetValue(0, 1));
+				c[0] = kbuff._sum;
+				c[1] = kbuff._correction;
+			}
+			else if( op.indexFn instanceof ReduceCol ) {
+				for( int i=0; i<_numRows; i++ ) {
+					kbuff.set(c[2*i], c[2*i+1]);
+					kplus.execute(kbuff, tmp.quickGetValue(i, 0), tmp.quickGetValue(i, 1));
+					c[2*i] = kbuff._sum;
+					c[2*i+1] = kbuff._correction;
+				}
+			}
+			else if( op.indexFn instanceof ReduceRow ) {
+				int clen = result.getNumColumns();
+				for( int j=0; j<_colIndexes.length; j++ ) {
+					int cix = _colIndexes[j];
+					kbuff.set(c[cix], c[clen+cix]);
+					kplus.execute(kbuff, tmp.quickGetValue(0, j), tmp.quickGetValue(1, j));
+					c[cix] = kbuff._sum;
+					c[clen+cix] = kbuff._correction;
+				}
+			}
+		}
+		else {
+			Builtin builtin = (Builtin) op.aggOp.increOp.fn;
+			if( op.indexFn instanceof ReduceAll )
+				c[0] = builtin.execute2(c[0], tmp.quickGetValue(0, 0));
+			else if( op.indexFn instanceof ReduceCol )
+				for( int i=0; i<_numRows; i++ )
+					c[i] = builtin.execute2(c[i], tmp.quickGetValue(i, 0));
+			else if( op.indexFn instanceof ReduceRow )
+				for( int j=0; j<_colIndexes.length; j++ )
+					c[_colIndexes[j]] = builtin.execute2(c[_colIndexes[j]], tmp.quickGetValue(0, j));
+		}
+	}
+	
+	@Override
+	public void write(DataOutput out) 
+		throws IOException 
+	{
+		writeHeader(out);
+		_data.write(out);
+	}
+
+	@Override
+	public void readFields(DataInput in) 
+		throws IOException 
+	{
+		readHeader(in);
+		_data = new MatrixBlock();
+		_data.readFields(in);
+	}
+	
+	@Override
+	public long getExactSizeOnDisk() {
+		return 8 + 4L * _colIndexes.length + _data.getExactSizeOnDisk();
+	}
+}
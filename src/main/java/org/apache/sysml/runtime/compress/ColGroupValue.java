@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Builtin;
+import org.apache.sysml.runtime.functionobjects.Builtin.BuiltinFunctionCode;
+import org.apache.sysml.runtime.functionobjects.KahanFunction;
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.functionobjects.KahanPlusSq;
+import org.apache.sysml.runtime.functionobjects.ReduceAll;
+import org.apache.sysml.runtime.functionobjects.ReduceCol;
+import org.apache.sysml.runtime.functionobjects.ReduceRow;
+import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Base class for column groups encoded with value dictionary, i.e., the 
+ * distinct value tuples of the column group, where operations over the 
+ * distinct tuples can be shared by all rows of the same tuple.
+ * 
+ */
+public abstract class ColGroupValue extends ColGroup 
+{
+	/** Distinct values associated with individual bitmaps (linearized tuples). */
+	protected double[] _values;
+	
+	protected ColGroupValue() {
+		super((int[]) null, -1);
+	}
+	
+	/**
+	 * Stores the headers for the individual bitmaps.
+	 * 
+	 * @param colIndices
+	 *            indices (within the block) of the columns included in this
+	 *            column group
+	 * @param numRows
+	 *            total number of rows in the parent block
+	 * @param ubm
+	 *            Uncompressed bitmap representation of the block
+	 */
+	protected ColGroupValue(int[] colIndices, int numRows, UncompressedBitmap ubm) {
+		super(colIndices, numRows);
+		_values = ubm.getValues();
+	}
+	
+	/**
+	 * Constructor for subclass methods that need to create shallow copies
+	 * 
+	 * @param colIndices
+	 *            raw column index information
+	 * @param numRows
+	 *            number of rows in the block
+	 * @param values
+	 *            set of distinct values for the block (associated bitmaps are
+	 *            kept in the subclass)
+	 */
+	protected ColGroupValue(int[] colIndices, int numRows, double[] values) {
+		super(colIndices, numRows);
+		_values = values;
+	}
+	
+	/**
+	 * @return number of distinct value tuples
+	 */
+	public int getNumValues() {
+		return _values.length / _colIndexes.length;
+	}
+	
+	public double[] getValues() {
+		return _values;
+	}
+	
+	@Override
+	public long estimateInMemorySize() {
+		return super.estimateInMemorySize() + 8 + 16 + 8L * _values.length;
+	}
+	
+	/**
+	 * Obtain number of rows per distinct value tuple.
+	 * 
+	 * @return counts of rows per value tuple
+	 */
+	public abstract int[] getCounts();
+	
+	/**
+	 * Pre-aggregates the value tuples with the given dense vector, 
+	 * i.e., computes the dot product of each tuple with the vector
+	 * entries of the group columns.
+	 * 
+	 * @param b
+	 * @return
+	 */
+	protected final double[] preaggValues(double[] b) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		double[] ret = new double[numVals];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			double aval = 0;
+			for( int j=0; j<numCols; j++ )
+				aval += _values[valOff+j] * b[_colIndexes[j]];
+			ret[k] = aval;
+		}
+		return ret;
+	}
+	
+	/**
+	 * Computes the sum (or sum of squares) per value tuple.
+	 * 
+	 * @param sq
+	 * @return
+	 */
+	protected final double[] sumAllValues(boolean sq) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		double[] ret = new double[numVals];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			double val = 0;
+			for( int j=0; j<numCols; j++ ) {
+				double v = _values[valOff+j];
+				val += sq ? v * v : v;
+			}
+			ret[k] = val;
+		}
+		return ret;
+	}
+	
+	/**
+	 * Computes the min or max per value tuple.
+	 * 
+	 * @param builtin
+	 * @return
+	 */
+	protected final double[] mxxAllValues(Builtin builtin) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		double[] ret = new double[numVals];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			double val = _values[valOff];
+			for( int j=1; j<numCols; j++ )
+				val = builtin.execute2(val, _values[valOff+j]);
+			ret[k] = val;
+		}
+		return ret;
+	}
+	
+	/**
+	 * Applies the scalar operation to all distinct values.
+	 * 
+	 * @param op
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	protected double[] applyScalarOp(ScalarOperator op)
+		throws DMLRuntimeException 
+	{
+		double[] ret = new double[_values.length];
+		for( int i=0; i<_values.length; i++ )
+			ret[i] = op.executeScalar(_values[i]);
+		return ret;
+	}
+	
+	/**
+	 * Applies the scalar operation to all distinct values and appends 
+	 * a new value tuple of the given value (e.g., for the zero tuple).
+	 * 
+	 * @param op
+	 * @param newVal
+	 * @param numCols
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	protected double[] applyScalarOp(ScalarOperator op, double newVal, int numCols)
+		throws DMLRuntimeException 
+	{
+		double[] ret = new double[_values.length + numCols];
+		for( int i=0; i<_values.length; i++ )
+			ret[i] = op.executeScalar(_values[i]);
+		for( int i=_values.length; i<_values.length+numCols; i++ )
+			ret[i] = newVal;
+		return ret;
+	}
+	
+	@Override
+	public void unaryAggregateOperations(AggregateUnaryOperator op, MatrixBlock result) 
+		throws DMLRuntimeException 
+	{
+		double[] c = result.getDenseBlockValues();
+		
+		//sum and sumsq (reduceall/reducerow/reducecol)
+		if( op.aggOp.increOp.fn instanceof KahanFunction ) {
+			boolean sq = (op.aggOp.increOp.fn instanceof KahanPlusSq);
+			if( op.indexFn instanceof ReduceAll )
+				computeSum(c, sq);
+			else if( op.indexFn instanceof ReduceCol )
+				computeRowSums(c, sq);
+			else if( op.indexFn instanceof ReduceRow )
+				computeColSums(c, result.getNumColumns(), sq);
+		}
+		//min and max (reduceall/reducerow/reducecol)
+		else if( op.aggOp.increOp.fn instanceof Builtin
+			&& (((Builtin)op.aggOp.increOp.fn).getBuiltinFunctionCode()==BuiltinFunctionCode.MAX 
+			|| ((Builtin)op.aggOp.increOp.fn).getBuiltinFunctionCode()==BuiltinFunctionCode.MIN) )
+		{
+			Builtin builtin = (Builtin) op.aggOp.increOp.fn;
+			if( op.indexFn instanceof ReduceAll )
+				computeMxx(c, builtin);
+			else if( op.indexFn instanceof ReduceCol )
+				computeRowMxx(c, builtin);
+			else if( op.indexFn instanceof ReduceRow )
+				computeColMxx(c, builtin);
+		}
+		else {
+			throw new DMLRuntimeException("Unsupported unary aggregate operator "
+				+ "over compressed column group: "+op.aggOp.increOp.fn);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param c
+	 * @param sq
+	 */
+	protected void computeSum(double[] c, boolean sq) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		int[] counts = getCounts();
+		KahanObject kbuff = new KahanObject(c[0], c[1]);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			for( int j=0; j<numCols; j++ ) {
+				double v = _values[valOff+j];
+				kplus.execute2(kbuff, (sq ? v * v : v) * counts[k]);
+			}
+		c[0] = kbuff._sum;
+		c[1] = kbuff._correction;
+	}
+	
+	/**
+	 * 
+	 * @param c
+	 * @param clen
+	 * @param sq
+	 */
+	protected void computeColSums(double[] c, int clen, boolean sq) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		int[] counts = getCounts();
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		for( int j=0; j<numCols; j++ ) {
+			int cix = _colIndexes[j];
+			kbuff.set(c[cix], c[clen+cix]);
+			for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+				double v = _values[valOff+j];
+				kplus.execute2(kbuff, (sq ? v * v : v) * counts[k]);
+			}
+			c[cix] = kbuff._sum;
+			c[clen+cix] = kbuff._correction;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param c
+	 * @param builtin
+	 */
+	protected void computeMxx(double[] c, Builtin builtin) {
+		double val = c[0];
+		for( int i=0; i<_values.length; i++ )
+			val = builtin.execute2(val, _values[i]);
+		if( hasZeroTuple() )
+			val = builtin.execute2(val, 0);
+		c[0] = val;
+	}
+	
+	/**
+	 * 
+	 * @param c
+	 * @param builtin
+	 */
+	protected void computeColMxx(double[] c, Builtin builtin) {
+		final int numCols = getNumCols();
+		boolean zeros = hasZeroTuple();
+		for( int j=0; j<numCols; j++ ) {
+			int cix = _colIndexes[j];
+			double val = c[cix];
+			for( int i=j; i<_values.length; i+=numCols )
+				val = builtin.execute2(val, _values[i]);
+			if( zeros )
+				val = builtin.execute2(val, 0);
+			c[cix] = val;
+		}
+	}
+	
+	/**
+	 * @return true if some rows are not covered by any value tuple (all-zero rows)
+	 */
+	protected boolean hasZeroTuple() {
+		long nnzRows = 0;
+		for( int cnt : getCounts() )
+			nnzRows += cnt;
+		return nnzRows < _numRows;
+	}
+	
+	/**
+	 * 
+	 * @param c
+	 * @param sq
+	 */
+	protected abstract void computeRowSums(double[] c, boolean sq);
+	
+	/**
+	 * 
+	 * @param c
+	 * @param builtin
+	 */
+	protected abstract void computeRowMxx(double[] c, Builtin builtin);
+}
@@ -0,0 +1,1607 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysml.lops.MMTSJ.MMTSJType;
+import org.apache.sysml.lops.MapMultChain.ChainType;
+import org.apache.sysml.lops.PartialAggregate.CorrectionLocationType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.ColGroup.CompressionType;
+import org.apache.sysml.runtime.compress.estim.CompressedSizeEstimator;
+import org.apache.sysml.runtime.compress.estim.CompressedSizeInfo;
+import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.Timing;
+import org.apache.sysml.runtime.functionobjects.Builtin;
+import org.apache.sysml.runtime.functionobjects.Builtin.BuiltinFunctionCode;
+import org.apache.sysml.runtime.functionobjects.KahanFunction;
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.functionobjects.KahanPlusSq;
+import org.apache.sysml.runtime.functionobjects.ReduceAll;
+import org.apache.sysml.runtime.functionobjects.ReduceCol;
+import org.apache.sysml.runtime.functionobjects.ReduceRow;
+import org.apache.sysml.runtime.instructions.cp.CM_COV_Object;
+import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.matrix.data.CTableMap;
+import org.apache.sysml.runtime.matrix.data.LibMatrixAgg;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.MatrixValue;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.CMOperator;
+import org.apache.sysml.runtime.matrix.operators.COVOperator;
+import org.apache.sysml.runtime.matrix.operators.Operator;
+import org.apache.sysml.runtime.matrix.operators.QuaternaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.UnaryOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+import org.apache.sysml.runtime.util.IndexRange;
+
+/**
+ * Experimental version of MatrixBlock that allows a compressed internal
+ * representation, i.e., a list of column groups that are either encoded
+ * with offset lists (OLE), run-length encoded (RLE) bitmaps, or stored 
+ * uncompressed. Matrix-vector multiplications, transpose-matrix-vector
+ * multiplications (incl mmchain), unary aggregates (sum, sumsq, min, max),
+ * and scalar operations are executed directly over the compressed 
+ * representation; all other operations decompress the block first.
+ * 
+ * Compression is planned via samples of rows: the size of each column 
+ * is estimated per encoding format, incompressible columns are kept 
+ * uncompressed, and the remaining columns are greedily co-coded into 
+ * column groups that share distinct value tuples.
+ * 
+ */
+public class CompressedMatrixBlock extends MatrixBlock
+{
+	private static final long serialVersionUID = 7319372019143154058L;
+	private static final Log LOG = LogFactory.getLog(CompressedMatrixBlock.class.getName());
+	
+	//internal configuration
+	public static final int BITMAP_BLOCK_SZ = Character.MAX_VALUE; //max segment length (OLE)
+	public static final int CHAR_MAX = Character.MAX_VALUE; //max offset/run length
+	public static final long MIN_PAR_AGG_THRESHOLD = 16*1024*1024; //16MB
+	
+	//block type marker of serialized compressed blocks 
+	//(not a valid MatrixBlock.BlockType of uncompressed blocks)
+	public static final byte COMPRESSED_BLOCK = (byte) BlockType.values().length;
+	
+	protected ArrayList<ColGroup> _colGroups = null;
+	
+	public CompressedMatrixBlock() {
+		super(-1, -1, true);
+	}
+	
+	/**
+	 * Main constructor for building a block from scratch.
+	 * 
+	 * @param rl
+	 *            number of rows in the block
+	 * @param cl
+	 *            number of columns
+	 * @param sparse
+	 *            true if the UNCOMPRESSED representation of the block should be
+	 *            sparse
+	 */
+	public CompressedMatrixBlock(int rl, int cl, boolean sparse) {
+		super(rl, cl, sparse);
+	}
+
+	/**
+	 * "Copy" constructor to populate this compressed block with the
+	 * uncompressed contents of a conventional block. Does <b>not</b> compress
+	 * the block.
+	 * 
+	 * @param mb
+	 */
+	public CompressedMatrixBlock(MatrixBlock mb) {
+		super(mb.getNumRows(), mb.getNumColumns(), mb.isInSparseFormat());
+		
+		//shallow copy (deep copy on compression, prevents unnecessary copy) 
+		if( isInSparseFormat() )
+			sparseBlock = mb.getSparseBlock();
+		else
+			denseBlock = mb.getDenseBlock();
+		nonZeros = mb.getNonZeros();
+	}
+	
+	/**
+	 * Shallow copy of a compressed block, which shares the immutable 
+	 * column groups of the given block.
+	 * 
+	 * @param that
+	 */
+	public CompressedMatrixBlock(CompressedMatrixBlock that) {
+		super(that.getNumRows(), that.getNumColumns(), that.isInSparseFormat());
+		if( that.isCompressed() ) {
+			_colGroups = new ArrayList<ColGroup>(that._colGroups);
+			nonZeros = that.getNonZeros();
+		}
+		else {
+			copy(that);
+		}
+	}
+	
+	/**
+	 * 
+	 * @return true if this block is in compressed form; false if the block has
+	 *         not yet been compressed
+	 */
+	public boolean isCompressed() {
+		return (_colGroups != null);
+	}
+	
+	/**
+	 * 
+	 * @return the column groups of the compressed representation
+	 */
+	public ArrayList<ColGroup> getColGroups() {
+		return _colGroups;
+	}
+	
+	/**
+	 * Compress the contents of this matrix block. After compression, the
+	 * uncompressed data is discarded. Attempts to update this block after
+	 * calling this method currently result in INCORRECT BEHAVIOR, something
+	 * which should be fixed if we move ahead with this compression strategy.
+	 *
+	 * +per column sparsity
+	 * 
+	 * @throws DMLRuntimeException
+	 */
+	public void compress() 
+		throws DMLRuntimeException
+	{
+		compress(1);
+	}
+	
+	/**
+	 * 
+	 * @param k  number of threads
+	 * @throws DMLRuntimeException
+	 */
+	public void compress(int k) 
+		throws DMLRuntimeException 
+	{
+		//check for redundant compression
+		if( isCompressed() ){
+			throw new DMLRuntimeException("Redundant compression, block already compressed.");
+		}
+
+		Timing time = new Timing(true);
+		final int numRows = getNumRows();
+		final int numCols = getNumColumns();
+		final long sizeUC = estimateSizeInMemory();
+		
+		// Prepare basic meta data and deep copy / transpose input
+		// (transposed layout for efficient extraction of column values)
+		MatrixBlock rawblock = LibMatrixReorg.transpose(this, 
+			new MatrixBlock(numCols, numRows, isInSparseFormat()), k);
+		
+		// Classify columns according to ratio (size uncompressed / size compressed), 
+		// where a column is compressible if ratio > 1.
+		CompressedSizeEstimator estim = new CompressedSizeEstimator(rawblock, 7);
+		CompressedSizeInfo[] sizeInfos = computeCompressedSizeInfos(estim, numCols, k);
+		List<Integer> colsC = new ArrayList<Integer>();
+		List<Integer> colsUC = new ArrayList<Integer>();
+		List<CompressedSizeInfo> compressedSizeInfos = new ArrayList<CompressedSizeInfo>();
+		for( int col=0; col<numCols; col++ ) {
+			long uncompSize = getUncompressedSize(numRows, 1);
+			double compRatio = (double)uncompSize / sizeInfos[col].getMinSize();
+			if( compRatio > 1 ) {
+				colsC.add(col);
+				compressedSizeInfos.add(sizeInfos[col]);
+			}
+			else {
+				colsUC.add(col); 
+			}
+		}
+		
+		if( LOG.isDebugEnabled() )
+			LOG.debug("compression phase 1 (classify): "+time.stop()+" ms, "
+				+colsC.size()+"/"+numCols+" compressible columns.");
+		
+		// Group the columns by co-coding based on the estimated sizes
+		List<int[]> bitmapColGrps = PlanningCoCoder.findCocodesByPartitioning(
+			estim, colsC, compressedSizeInfos);
+		
+		if( LOG.isDebugEnabled() )
+			LOG.debug("compression phase 2 (grouping): "+time.stop()+" ms, "
+				+bitmapColGrps.size()+" column groups.");
+		
+		// Compress the column groups (exact bitmaps and encoding format),
+		// columns of groups without size reduction fall back to uncompressed
+		ColGroup[] colGroups = compressColGroups(rawblock, estim, bitmapColGrps, k);
+		_colGroups = new ArrayList<ColGroup>();
+		for( int j=0; j<colGroups.length; j++ ) {
+			if( colGroups[j] != null )
+				_colGroups.add(colGroups[j]);
+			else
+				for( int col : bitmapColGrps.get(j) )
+					colsUC.add(col);
+		}
+		
+		// Collect the remaining uncompressed columns into a single group
+		if( !colsUC.isEmpty() ) {
+			int[] colIndexes = new int[colsUC.size()];
+			for( int i=0; i<colIndexes.length; i++ )
+				colIndexes[i] = colsUC.get(i);
+			Arrays.sort(colIndexes);
+			_colGroups.add(new ColGroupUncompressed(colIndexes, rawblock));
+		}
+		
+		if( LOG.isDebugEnabled() )
+			LOG.debug("compression phase 3 (compress): "+time.stop()+" ms, "
+				+colsUC.size()+"/"+numCols+" uncompressed columns.");
+		
+		// Abort compression if the compressed size exceeds the uncompressed 
+		// size (with the original, shallow-copied block still available)
+		long sizeC = estimateCompressedSizeInMemory();
+		if( sizeC >= sizeUC ) {
+			LOG.warn("Abort block compression because compression ratio is less than 1 ("
+				+sizeUC+" / "+sizeC+").");
+			_colGroups = null;
+			return;
+		}
+		
+		// Cleanup uncompressed data, which is no longer needed 
+		cleanupBlock(true, true);
+		
+		if( LOG.isDebugEnabled() ) {
+			LOG.debug("compression phase 4 (cleanup): "+time.stop()+" ms.");
+			LOG.debug("compression ratio: "+((double)sizeUC/sizeC)+" ("+sizeUC+" / "+sizeC+" bytes).");
+		}
+	}
+	
+	/**
+	 * 
+	 * @param estim
+	 * @param clen
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static CompressedSizeInfo[] computeCompressedSizeInfos(CompressedSizeEstimator estim, int clen, int k) 
+		throws DMLRuntimeException 
+	{
+		CompressedSizeInfo[] ret = new CompressedSizeInfo[clen];
+		if( k <= 1 || clen <= 1 ) {
+			for( int col=0; col<clen; col++ )
+				ret[col] = estim.estimateCompressedColGroupSize(new int[]{col});
+			return ret;
+		}
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			ArrayList<SizeEstimTask> tasks = new ArrayList<SizeEstimTask>();
+			for( int col=0; col<clen; col++ )
+				tasks.add(new SizeEstimTask(estim, col));
+			List<Future<CompressedSizeInfo>> rtask = pool.invokeAll(tasks);
+			for( int col=0; col<clen; col++ )
+				ret[col] = rtask.get(col).get();
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param estim
+	 * @param groups
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static ColGroup[] compressColGroups(MatrixBlock in, CompressedSizeEstimator estim, List<int[]> groups, int k) 
+		throws DMLRuntimeException 
+	{
+		ColGroup[] ret = new ColGroup[groups.size()];
+		if( k <= 1 || groups.size() <= 1 ) {
+			for( int i=0; i<groups.size(); i++ )
+				ret[i] = compressColGroup(in, estim, groups.get(i));
+			return ret;
+		}
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			ArrayList<CompressTask> tasks = new ArrayList<CompressTask>();
+			for( int[] colIndexes : groups )
+				tasks.add(new CompressTask(in, estim, colIndexes));
+			List<Future<ColGroup>> rtask = pool.invokeAll(tasks);
+			for( int i=0; i<groups.size(); i++ )
+				ret[i] = rtask.get(i).get();
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		return ret;
+	}
+	
+	/**
+	 * Compresses the given column group with the smaller of OLE and RLE,
+	 * based on the exact sizes of the full bitmap.
+	 * 
+	 * @param in  input matrix block in transposed layout
+	 * @param estim
+	 * @param colIndexes
+	 * @return compressed column group, or null if not compressible
+	 */
+	private static ColGroup compressColGroup(MatrixBlock in, CompressedSizeEstimator estim, int[] colIndexes) 
+	{
+		int numRows = in.getNumColumns();
+		UncompressedBitmap ubm = BitmapEncoder.extractBitmap(colIndexes, in);
+		CompressedSizeInfo sizeInfo = estim.estimateCompressedColGroupSize(ubm);
+		
+		//check actual compression ratio (estimates might be inaccurate)
+		if( sizeInfo.getMinSize() >= getUncompressedSize(numRows, colIndexes.length) )
+			return null;
+		
+		//create compressed column group
+		return (sizeInfo.getRLESize() < sizeInfo.getOLESize()) ?
+			new ColGroupRLE(colIndexes, numRows, ubm) :
+			new ColGroupOLE(colIndexes, numRows, ubm);
+	}
+	
+	/**
+	 * Computes the size of dense uncompressed columns (without sparse
+	 * representation, similar to the assumptions of sizes per column group).
+	 * 
+	 * @param rlen
+	 * @param clen
+	 * @return
+	 */
+	private static long getUncompressedSize(int rlen, int clen) {
+		return 8L * rlen * clen;
+	}
+	
+	/**
+	 * Decompress block.
+	 * 
+	 * @return a new uncompressed matrix block containing the contents of this
+	 *         block
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock decompress() 
+		throws DMLRuntimeException 
+	{
+		//early abort for not yet compressed blocks
+		if( !isCompressed() )
+			return new MatrixBlock(this); 
+		
+		//preallocation sparse rows to avoid repeated reallocations		
+		MatrixBlock ret = new MatrixBlock(getNumRows(), getNumColumns(), false, getNonZeros());
+		ret.allocateDenseBlock();
+		
+		//core decompression (append if sparse)
+		for( ColGroup grp : _colGroups )
+			grp.decompressToBlock(ret, 0, getNumRows());
+		
+		//post-processing (for append in decompress)
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Decompress block.
+	 * 
+	 * @param k degree of parallelism
+	 * @return a new uncompressed matrix block containing the contents 
+	 * of this block
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock decompress(int k) 
+		throws DMLRuntimeException 
+	{
+		//early abort for not yet compressed blocks
+		if( !isCompressed() )
+			return new MatrixBlock(this); 
+		if( k <= 1 || getNumRows() <= BITMAP_BLOCK_SZ )
+			return decompress();
+		
+		MatrixBlock ret = new MatrixBlock(getNumRows(), getNumColumns(), false, getNonZeros());
+		ret.allocateDenseBlock();
+		
+		//multi-threaded decompression over row partitions
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			ArrayList<DecompressTask> tasks = new ArrayList<DecompressTask>();
+			int blklen = getAlignedBlockSize((int)Math.ceil((double)rlen/k));
+			for( int i=0; i<k && i*blklen<getNumRows(); i++ )
+				tasks.add(new DecompressTask(_colGroups, ret, i*blklen, Math.min((i+1)*blklen, rlen)));
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//post-processing 
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Obtain an uncompressed block of the given matrix value, i.e., 
+	 * decompresses compressed blocks and returns all others as is.
+	 * 
+	 * @param mVal
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock getUncompressed(MatrixValue mVal) 
+		throws DMLRuntimeException 
+	{
+		return (mVal instanceof CompressedMatrixBlock 
+			&& ((CompressedMatrixBlock)mVal).isCompressed()) ?
+			((CompressedMatrixBlock)mVal).decompress() : 
+			(MatrixBlock) mVal;
+	}
+	
+	/**
+	 * Obtain an uncompressed block of the given matrix value for operations
+	 * outside of matrix blocks (e.g., reshape or convolution kernels), which
+	 * read the raw dense/sparse blocks. Decompressing a block prints the
+	 * usual warning for the given operation.
+	 * 
+	 * @param mVal
+	 * @param operation
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock getUncompressed(MatrixValue mVal, String operation) 
+		throws DMLRuntimeException 
+	{
+		if( mVal instanceof CompressedMatrixBlock 
+			&& ((CompressedMatrixBlock)mVal).isCompressed() ) {
+			printDecompressWarning(operation);
+			return ((CompressedMatrixBlock)mVal).decompress();
+		}
+		return (MatrixBlock) mVal;
+	}
+	
+	/**
+	 * 
+	 * @param blklen
+	 * @return
+	 */
+	private static int getAlignedBlockSize(int blklen) {
+		return blklen + ((blklen % BITMAP_BLOCK_SZ != 0) ? 
+			BITMAP_BLOCK_SZ - blklen % BITMAP_BLOCK_SZ : 0);
+	}
+	
+	/**
+	 * @return an upper bound on the memory used to store this compressed block
+	 *         considering class overhead.
+	 */
+	public long estimateCompressedSizeInMemory() {
+		if( !isCompressed() )
+			return 0;
+		// basic data inherited from MatrixBlock
+		long total = MatrixBlock.estimateSizeInMemory(0, 0, 0);
+		// adjustment for references and the list of column groups
+		total += 8 + 40 + 8L * _colGroups.size();
+		for( ColGroup grp : _colGroups )
+			total += grp.estimateInMemorySize();
+		return total;
+	}
+	
+	//////////////////////////////////////////
+	// Serialization / Deserialization
+
+	@Override
+	public long getExactSizeOnDisk() {
+		if( !isCompressed() )
+			return super.getExactSizeOnDisk();
+		//header (rlen, clen, type, nnz, num groups)
+		long ret = 4 + 4 + 1 + 8 + 4;
+		for( ColGroup grp : _colGroups )
+			ret += 1 + grp.getExactSizeOnDisk(); //type info
+		return ret;
+	}
+	
+	@Override
+	public long estimateSizeInMemory() {
+		if( !isCompressed() )
+			return super.estimateSizeInMemory();
+		return estimateCompressedSizeInMemory();
+	}
+	
+	@Override
+	public long getInMemorySize() {
+		if( !isCompressed() )
+			return super.getInMemorySize();
+		return estimateCompressedSizeInMemory();
+	}
+	
+	@Override
+	public boolean isShallowSerialize() {
+		//compressed blocks are immutable and written via write
+		return isCompressed() || super.isShallowSerialize();
+	}
+	
+	@Override
+	public void compactEmptyBlock() {
+		if( !isCompressed() )
+			super.compactEmptyBlock();
+	}
+	
+	@Override
+	public void write(DataOutput out) 
+		throws IOException 
+	{
+		if( !isCompressed() ) {
+			super.write(out);
+			return;
+		}
+		
+		//write header (w/ compressed block type)
+		out.writeInt(rlen);
+		out.writeInt(clen);
+		out.writeByte(COMPRESSED_BLOCK);
+		out.writeLong(nonZeros);
+		
+		//write individual column groups
+		out.writeInt(_colGroups.size());
+		for( ColGroup grp : _colGroups ) {
+			out.writeByte(grp.getCompType().ordinal());
+			grp.write(out); //delegate serialization
+		}
+	}
+	
+	@Override
+	protected void readFields(DataInput in, byte bformat) 
+		throws IOException 
+	{
+		//read uncompressed block
+		if( bformat != COMPRESSED_BLOCK ) {
+			_colGroups = null;
+			super.readFields(in, bformat);
+			return;
+		}
+		
+		//read header
+		cleanupBlock(true, true);
+		nonZeros = in.readLong();
+		
+		//read individual column groups
+		int ncolGroups = in.readInt();
+		_colGroups = new ArrayList<ColGroup>(ncolGroups);
+		for( int i=0; i<ncolGroups; i++ ) 
+		{
+			CompressionType ctype = CompressionType.values()[in.readByte()];
+			ColGroup grp = null;
+			
+			//create instance of column group
+			switch( ctype ) {
+				case UNCOMPRESSED:
+					grp = new ColGroupUncompressed(); break;
+				case OLE_BITMAP:
+					grp = new ColGroupOLE(); break;
+				case RLE_BITMAP:
+					grp = new ColGroupRLE(); break;
+			}
+			
+			//deserialize and add column group
+			grp.readFields(in);
+			_colGroups.add(grp);
+		}
+	}
+	
+	//////////////////////////////////////////
+	// Operations (overwrite existing ops for seamless integration)
+
+	@Override
+	public double quickGetValue(int r, int c) {
+		if( !isCompressed() )
+			return super.quickGetValue(r, c);
+		
+		//find column group according to col index
+		for( ColGroup grp : _colGroups )
+			if( grp.getColPos(c) >= 0 )
+				return grp.get(r, c);
+		return 0;
+	}
+	
+	@Override
+	public double getValue(int r, int c) {
+		if( !isCompressed() )
+			return super.getValue(r, c);
+		return quickGetValue(r, c);
+	}
+	
+	@Override
+	public void recomputeNonZeros() {
+		if( !isCompressed() ) {
+			super.recomputeNonZeros();
+			return;
+		}
+		long nnz = 0;
+		for( ColGroup grp : _colGroups )
+			nnz += grp.getNumberNonZeros();
+		nonZeros = nnz;
+	}
+	
+	@Override
+	public boolean isEmptyBlock(boolean safe) {
+		if( !isCompressed() )
+			return super.isEmptyBlock(safe);
+		if( safe )
+			recomputeNonZeros();
+		return (nonZeros == 0);
+	}
+	
+	@Override
+	public void examSparsity() 
+		throws DMLRuntimeException 
+	{
+		//no sparsity change for compressed blocks
+		if( !isCompressed() )
+			super.examSparsity();
+	}
+	
+	@Override
+	public MatrixValue scalarOperations(ScalarOperator sop, MatrixValue result) 
+		throws DMLRuntimeException 
+	{
+		//call uncompressed matrix scalar if necessary
+		if( !isCompressed() ) {
+			return super.scalarOperations(sop, result);
+		}
+		
+		//allocate the output matrix block
+		CompressedMatrixBlock ret = new CompressedMatrixBlock(getNumRows(), getNumColumns(), sparse);
+		
+		// Apply the operation recursively to each of the column groups.
+		// Most implementations will only modify metadata.
+		ArrayList<ColGroup> newColGroups = new ArrayList<ColGroup>();
+		for( ColGroup grp : _colGroups )
+			newColGroups.add(grp.scalarOperation(sop));
+		ret._colGroups = newColGroups;
+		ret.recomputeNonZeros();
+		
+		return ret;
+	}
+	
+	@Override
+	public MatrixBlock chainMatrixMultOperations(MatrixBlock v, MatrixBlock w, MatrixBlock out, ChainType ctype) 
+		throws DMLRuntimeException 
+	{
+		return chainMatrixMultOperations(v, w, out, ctype, 1);
+	}
+	
+	@Override
+	public MatrixBlock chainMatrixMultOperations(MatrixBlock v, MatrixBlock w, MatrixBlock out, ChainType ctype, int k) 
+		throws DMLRuntimeException 
+	{
+		//call uncompressed matrix mult if necessary
+		if( !isCompressed() ) {
+			return super.chainMatrixMultOperations(v, w, out, ctype, k);
+		}
+		
+		//check for transpose type
+		if( !(ctype == ChainType.XtXv || ctype == ChainType.XtwXv || ctype == ChainType.XtXvy) )
+			throw new DMLRuntimeException("Invalid mmchain type '"+ctype.toString()+"'.");
+		
+		//check for matching dimensions
+		if( this.getNumColumns() != v.getNumRows() )
+			throw new DMLRuntimeException("Dimensions mismatch on mmchain operation ("+this.getNumColumns()+" != "+v.getNumRows()+")");
+		if( v.getNumColumns() != 1 )
+			throw new DMLRuntimeException("Invalid input vector (column vector expected, but ncol="+v.getNumColumns()+")");
+		if( w!=null && w.getNumColumns() != 1 )
+			throw new DMLRuntimeException("Invalid weight vector (column vector expected, but ncol="+w.getNumColumns()+")");
+		
+		//prepare result
+		if( out != null )
+			out.reset(clen, 1, false);
+		else 
+			out = new MatrixBlock(clen, 1, false);
+		
+		//empty block handling
+		if( isEmptyBlock(false) ) 
+			return out;
+		
+		//compute matrix mult
+		MatrixBlock tmp = new MatrixBlock(rlen, 1, false);
+		rightMultByVector(v, tmp, k);
+		if( ctype == ChainType.XtwXv || ctype == ChainType.XtXvy ) {
+			tmp.allocateDenseBlock(false);
+			double[] c = tmp.getDenseBlockValues();
+			for( int i=0; i<rlen; i++ ) {
+				double wval = w.quickGetValue(i, 0);
+				c[i] = (ctype == ChainType.XtwXv) ? c[i] * wval : c[i] - wval;
+			}
+			tmp.recomputeNonZeros();
+		}
+		leftMultByVector(tmp, out, k);
+		
+		return out;
+	}
+	
+	@Override
+	public MatrixValue aggregateBinaryOperations(MatrixValue mv1, MatrixValue mv2, MatrixValue result, AggregateBinaryOperator op) 
+		throws DMLRuntimeException 
+	{
+		//call uncompressed matrix mult if necessary
+		if( !isCompressed() ) {
+			return super.aggregateBinaryOperations(mv1, mv2, result, op);
+		}
+		
+		//multi-threaded mm of single uncompressed colgroup
+		boolean rightMult = (mv1 == this);
+		MatrixBlock m1 = rightMult ? this : getUncompressed(mv1);
+		MatrixBlock m2 = rightMult ? getUncompressed(mv2) : this;
+		if( m1.getNumColumns() != m2.getNumRows() )
+			throw new RuntimeException("Dimensions do not match for matrix multiplication ("
+				+m1.getNumColumns()+"!="+m2.getNumRows()+").");
+		
+		//prepare output (dense, since vectors are typically dense)
+		int rl = m1.getNumRows();
+		int cl = m2.getNumColumns();
+		MatrixBlock ret = (result==null) ? new MatrixBlock(rl, cl, false) : (MatrixBlock)result;
+		ret.reset(rl, cl, false);
+		int k = op.getNumThreads();
+		
+		if( rightMult ) {
+			//compute matrix-vector or column-wise matrix-matrix mult
+			if( m2.getNumColumns() == 1 ) {
+				rightMultByVector(m2, ret, k);
+			}
+			else {
+				ret.allocateDenseBlock();
+				MatrixBlock tmpIn = new MatrixBlock(m2.getNumRows(), 1, false);
+				MatrixBlock tmpOut = new MatrixBlock(rl, 1, false);
+				for( int j=0; j<cl; j++ ) {
+					extractColumn(m2, tmpIn, j);
+					rightMultByVector(tmpIn, tmpOut, k);
+					for( int i=0; i<rl; i++ )
+						ret.getDenseBlock().set(i, j, tmpOut.quickGetValue(i, 0));
+				}
+			}
+		}
+		else {
+			//compute vector-matrix or row-wise matrix-matrix mult
+			if( m1.getNumRows() == 1 ) {
+				leftMultByVector(m1, ret, k);
+			}
+			else {
+				ret.allocateDenseBlock();
+				MatrixBlock tmpIn = new MatrixBlock(m1.getNumColumns(), 1, false);
+				MatrixBlock tmpOut = new MatrixBlock(1, cl, false);
+				for( int i=0; i<rl; i++ ) {
+					extractRow(m1, tmpIn, i);
+					leftMultByVector(tmpIn, tmpOut, k);
+					for( int j=0; j<cl; j++ )
+						ret.getDenseBlock().set(i, j, tmpOut.quickGetValue(0, j));
+				}
+			}
+		}
+		
+		//post-processing
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param out
+	 * @param j
+	 */
+	private static void extractColumn(MatrixBlock in, MatrixBlock out, int j) {
+		out.reset(in.getNumRows(), 1, false);
+		out.allocateDenseBlock();
+		double[] c = out.getDenseBlockValues();
+		for( int i=0; i<in.getNumRows(); i++ )
+			c[i] = in.quickGetValue(i, j);
+		out.recomputeNonZeros();
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param out
+	 * @param i
+	 */
+	private static void extractRow(MatrixBlock in, MatrixBlock out, int i) {
+		out.reset(in.getNumColumns(), 1, false);
+		out.allocateDenseBlock();
+		double[] c = out.getDenseBlockValues();
+		for( int j=0; j<in.getNumColumns(); j++ )
+			c[j] = in.quickGetValue(i, j);
+		out.recomputeNonZeros();
+	}
+	
+	/**
+	 * Multiply this matrix block by a column vector on the right.
+	 * 
+	 * @param vector
+	 *            right-hand operand of the multiplication
+	 * @param result
+	 *            buffer to hold the result; must have the appropriate size
+	 *            already
+	 * @param k 
+	 *            degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private void rightMultByVector(MatrixBlock vector, MatrixBlock result, int k)
+		throws DMLRuntimeException 
+	{
+		//prepare inputs and outputs (dense vectors)
+		result.reset(rlen, 1, false);
+		result.allocateDenseBlock();
+		double[] b = getDenseVector(vector);
+		double[] c = result.getDenseBlockValues();
+		
+		//multi-threaded execution over aligned row partitions, where all 
+		//column groups add their contribution to the same output rows
+		if( k > 1 && rlen > BITMAP_BLOCK_SZ ) {
+			try {
+				ExecutorService pool = CommonThreadPool.get(k);
+				ArrayList<RightMatrixMultTask> tasks = new ArrayList<RightMatrixMultTask>();
+				int blklen = getAlignedBlockSize((int)Math.ceil((double)rlen/k));
+				for( int i=0; i<k && i*blklen<rlen; i++ )
+					tasks.add(new RightMatrixMultTask(_colGroups, b, c, i*blklen, Math.min((i+1)*blklen, rlen)));
+				for( Future<Object> task : pool.invokeAll(tasks) )
+					task.get();
+				pool.shutdown();
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+		else {
+			for( ColGroup grp : _colGroups )
+				grp.rightMultByVector(b, c, 0, rlen);
+		}
+		
+		//post-processing
+		result.recomputeNonZeros();
+	}
+	
+	/**
+	 * Multiply this matrix block by the transpose of a column vector (i.e.
+	 * t(v)%*%X) or a row vector on the left.
+	 * 
+	 * @param vector
+	 *            left-hand operand of the multiplication (row or column vector)
+	 * @param result
+	 *            buffer to hold the result; must have the appropriate size
+	 *            already
+	 * @param k 
+	 *            degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private void leftMultByVector(MatrixBlock vector, MatrixBlock result, int k)
+		throws DMLRuntimeException 
+	{
+		//prepare inputs and outputs (dense vectors, row vector output
+		//or column vector output according to the preset dimensions)
+		boolean rowVect = !(result.getNumRows() == clen && result.getNumColumns() == 1);
+		result.reset(rowVect ? 1 : clen, rowVect ? clen : 1, false);
+		result.allocateDenseBlock();
+		double[] a = getDenseVector(vector);
+		double[] c = result.getDenseBlockValues();
+		
+		//multi-threaded execution over column groups, which write
+		//disjoint columns of the output (no synchronization required)
+		if( k > 1 && _colGroups.size() > 1 ) {
+			try {
+				ExecutorService pool = CommonThreadPool.get(Math.min(k, _colGroups.size()));
+				ArrayList<LeftMatrixMultTask> tasks = new ArrayList<LeftMatrixMultTask>();
+				for( ColGroup grp : _colGroups )
+					tasks.add(new LeftMatrixMultTask(grp, a, c));
+				for( Future<Object> task : pool.invokeAll(tasks) )
+					task.get();
+				pool.shutdown();
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+		else {
+			for( ColGroup grp : _colGroups )
+				grp.leftMultByRowVector(a, c);
+		}
+		
+		//post-processing
+		result.recomputeNonZeros();
+	}
+	
+	/**
+	 * Obtains the values of the given row or column vector as dense array.
+	 * 
+	 * @param vector
+	 * @return
+	 * @throws DMLRuntimeException 
+	 */
+	private static double[] getDenseVector(MatrixBlock vector) 
+		throws DMLRuntimeException 
+	{
+		int len = vector.getNumRows() * vector.getNumColumns();
+		if( !vector.isInSparseFormat() && vector.getDenseBlock() != null )
+			return vector.getDenseBlockValues();
+		double[] ret = new double[len];
+		if( !vector.isEmptyBlock(false) ) {
+			boolean col = (vector.getNumColumns() == 1);
+			for( int i=0; i<len; i++ )
+				ret[i] = col ? vector.quickGetValue(i, 0) : vector.quickGetValue(0, i);
+		}
+		return ret;
+	}
+	
+	@Override
+	public MatrixValue aggregateUnaryOperations(AggregateUnaryOperator op, MatrixValue result, 
+			int blockingFactorRow, int blockingFactorCol, MatrixIndexes indexesIn, boolean inCP) 
+		throws DMLRuntimeException
+	{
+		//call uncompressed matrix aggregate if necessary (or for unsupported ops)
+		if( !isCompressed() ) {
+			return super.aggregateUnaryOperations(op, result, 
+				blockingFactorRow, blockingFactorCol, indexesIn, inCP);
+		}
+		if( !isSupportedUnaryAggregateOperator(op) ) {
+			return decompress().aggregateUnaryOperations(op, result, 
+				blockingFactorRow, blockingFactorCol, indexesIn, inCP);
+		}
+		
+		//prepare output dimensions
+		CellIndex tempCellIndex = new CellIndex(-1,-1);
+		op.indexFn.computeDimension(rlen, clen, tempCellIndex);
+		if( op.aggOp.correctionExists ) {
+			switch( op.aggOp.correctionLocation ) {
+				case LASTROW: tempCellIndex.row++; break;
+				case LASTCOLUMN: tempCellIndex.column++; break;
+				default:
+					throw new DMLRuntimeException("unrecognized correctionLocation: "+op.aggOp.correctionLocation);	
+			}
+		}
+		
+		//prepare output
+		MatrixBlock ret = (result==null) ? new MatrixBlock() : (MatrixBlock)result;
+		ret.reset(tempCellIndex.row, tempCellIndex.column, false);
+		ret.allocateDenseBlock();
+		if( op.aggOp.increOp.fn instanceof Builtin )
+			Arrays.fill(ret.getDenseBlockValues(), op.aggOp.initialValue);
+		
+		//core unary aggregate 
+		if( op.getNumThreads() > 1 && _colGroups.size() > 1 
+			&& estimateCompressedSizeInMemory() > MIN_PAR_AGG_THRESHOLD )
+		{
+			//multi-threaded execution over column groups into partial results 
+			//(reduceall, reducecol update the same output cells)
+			try {
+				int k = Math.min(op.getNumThreads(), _colGroups.size());
+				ExecutorService pool = CommonThreadPool.get(k);
+				ArrayList<UnaryAggregateTask> tasks = new ArrayList<UnaryAggregateTask>();
+				for( int i=0; i<k; i++ ) {
+					ArrayList<ColGroup> grps = new ArrayList<ColGroup>();
+					for( int j=i; j<_colGroups.size(); j+=k ) //round-robin
+						grps.add(_colGroups.get(j));
+					tasks.add(new UnaryAggregateTask(grps, ret, op));
+				}
+				for( Future<MatrixBlock> task : pool.invokeAll(tasks) )
+					mergeUnaryAggregate(op, ret, task.get());
+				pool.shutdown();
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+		else {
+			for( ColGroup grp : _colGroups )
+				grp.unaryAggregateOperations(op, ret);
+		}
+		
+		//post-processing
+		ret.recomputeNonZeros();
+		LibMatrixAgg.recomputeIndexes(ret, op, blockingFactorRow, blockingFactorCol, indexesIn);
+		if( op.aggOp.correctionExists && inCP )
+			ret.dropLastRowsOrColums(op.aggOp.correctionLocation);
+		
+		return ret;
+	}
+	
+	/**
+	 * Indicates if the given unary aggregate is supported over the compressed
+	 * representation, i.e., sum, sumsq, min, max as full, row, or column 
+	 * aggregates with the default correction layout.
+	 * 
+	 * @param op
+	 * @return
+	 */
+	private static boolean isSupportedUnaryAggregateOperator(AggregateUnaryOperator op) {
+		boolean indexFn = (op.indexFn instanceof ReduceAll 
+			|| op.indexFn instanceof ReduceCol || op.indexFn instanceof ReduceRow);
+		if( op.aggOp.increOp.fn instanceof KahanPlus || op.aggOp.increOp.fn instanceof KahanPlusSq ) {
+			CorrectionLocationType corr = (op.indexFn instanceof ReduceRow) ?
+				CorrectionLocationType.LASTROW : CorrectionLocationType.LASTCOLUMN;
+			return indexFn && op.aggOp.correctionExists && op.aggOp.correctionLocation == corr;
+		}
+		if( op.aggOp.increOp.fn instanceof Builtin ) {
+			BuiltinFunctionCode code = ((Builtin)op.aggOp.increOp.fn).getBuiltinFunctionCode();
+			return indexFn && !op.aggOp.correctionExists 
+				&& (code == BuiltinFunctionCode.MIN || code == BuiltinFunctionCode.MAX);
+		}
+		return false;
+	}
+	
+	/**
+	 * Merges the partial unary aggregate into the given output
+	 * (in the layout of the unary aggregate incl corrections).
+	 * 
+	 * @param op
+	 * @param ret
+	 * @param part
+	 * @throws DMLRuntimeException 
+	 */
+	private static void mergeUnaryAggregate(AggregateUnaryOperator op, MatrixBlock ret, MatrixBlock part) 
+		throws DMLRuntimeException 
+	{
+		double[] c = ret.getDenseBlockValues();
+		double[] p = part.getDenseBlockValues();
+		if( op.aggOp.increOp.fn instanceof KahanFunction ) {
+			KahanObject kbuff = new KahanObject(0, 0);
+			KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+			int len = c.length / 2;
+			boolean rowLayout = (op.indexFn instanceof ReduceRow);
+			for( int i=0; i<len; i++ ) {
+				int six = rowLayout ? i : 2*i;
+				int cix = rowLayout ? len+i : 2*i+1;
+				kbuff.set(c[six], c[cix]);
+				kplus.execute(kbuff, p[six], p[cix]);
+				c[six] = kbuff._sum;
+				c[cix] = kbuff._correction;
+			}
+		}
+		else {
+			Builtin builtin = (Builtin) op.aggOp.increOp.fn;
+			for( int i=0; i<c.length; i++ )
+				c[i] = builtin.execute2(c[i], p[i]);
+		}
+	}
+	
+	@Override
+	public double sum() 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.sum();
+		return aggregateAll(new AggregateOperator(0, 
+			KahanPlus.getKahanPlusFnObject(), true, CorrectionLocationType.LASTCOLUMN));
+	}
+	
+	@Override
+	public double sumSq() 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.sumSq();
+		return aggregateAll(new AggregateOperator(0, 
+			KahanPlusSq.getKahanPlusSqFnObject(), true, CorrectionLocationType.LASTCOLUMN));
+	}
+	
+	@Override
+	public double min() 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.min();
+		return aggregateAll(new AggregateOperator(Double.MAX_VALUE, Builtin.getBuiltinFnObject("min")));
+	}
+	
+	@Override
+	public double max() 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.max();
+		return aggregateAll(new AggregateOperator(-Double.MAX_VALUE, Builtin.getBuiltinFnObject("max")));
+	}
+	
+	/**
+	 * 
+	 * @param aop
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private double aggregateAll(AggregateOperator aop) 
+		throws DMLRuntimeException 
+	{
+		AggregateUnaryOperator auop = new AggregateUnaryOperator(aop, ReduceAll.getReduceAllFnObject());
+		MatrixBlock out = (MatrixBlock) aggregateUnaryOperations(auop, 
+			new MatrixBlock(), rlen, clen, new MatrixIndexes(1, 1), true);
+		return out.quickGetValue(0, 0);
+	}
+	
+	//////////////////////////////////////////
+	// Graceful fallback to uncompressed linear algebra
+	
+	@Override
+	public MatrixValue unaryOperations(UnaryOperator op, MatrixValue result) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.unaryOperations(op, result);
+		printDecompressWarning("unaryOperations");
+		return decompress().unaryOperations(op, result);
+	}
+	
+	@Override
+	public MatrixValue binaryOperations(BinaryOperator op, MatrixValue thatValue, MatrixValue result) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.binaryOperations(op, getUncompressed(thatValue), result);
+		printDecompressWarning("binaryOperations");
+		MatrixBlock left = decompress();
+		MatrixBlock right = (thatValue == this) ? left : getUncompressed(thatValue);
+		return left.binaryOperations(op, right, result);
+	}
+	
+	@Override
+	public MatrixValue reorgOperations(ReorgOperator op, MatrixValue ret, int startRow, int startColumn, int length)
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.reorgOperations(op, ret, startRow, startColumn, length);
+		printDecompressWarning("reorgOperations");
+		return decompress().reorgOperations(op, ret, startRow, startColumn, length);
+	}
+	
+	@Override
+	public MatrixBlock appendOperations(MatrixBlock that, MatrixBlock ret, boolean cbind) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.appendOperations(getUncompressed(that), ret, cbind);
+		printDecompressWarning("appendOperations");
+		MatrixBlock left = decompress();
+		MatrixBlock right = (that == this) ? left : getUncompressed(that);
+		return left.appendOperations(right, ret, cbind);
+	}
+	
+	@Override
+	public MatrixBlock transposeSelfMatrixMultOperations(MatrixBlock out, MMTSJType tstype, int k) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.transposeSelfMatrixMultOperations(out, tstype, k);
+		printDecompressWarning("transposeSelfMatrixMultOperations");
+		return decompress(k).transposeSelfMatrixMultOperations(out, tstype, k);
+	}
+	
+	@Override
+	public MatrixBlock leftIndexingOperations(MatrixBlock rhsMatrix, int rl, int ru, int cl, int cu, MatrixBlock ret, UpdateType update) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.leftIndexingOperations(getUncompressed(rhsMatrix), rl, ru, cl, cu, ret, update);
+		printDecompressWarning("leftIndexingOperations");
+		return decompress().leftIndexingOperations(getUncompressed(rhsMatrix), rl, ru, cl, cu, ret, update);
+	}
+	
+	@Override
+	public MatrixBlock leftIndexingOperations(ScalarObject scalar, int rl, int cl, MatrixBlock ret, UpdateType update) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.leftIndexingOperations(scalar, rl, cl, ret, update);
+		printDecompressWarning("leftIndexingOperations");
+		return decompress().leftIndexingOperations(scalar, rl, cl, ret, update);
+	}
+	
+	@Override
+	public MatrixBlock sliceOperations(int rl, int ru, int cl, int cu, CacheBlock ret) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.sliceOperations(rl, ru, cl, cu, ret);
+		printDecompressWarning("sliceOperations");
+		return decompress().sliceOperations(rl, ru, cl, cu, ret);
+	}
+	
+	@Override
+	public MatrixValue zeroOutOperations(MatrixValue result, IndexRange range, boolean complementary)
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.zeroOutOperations(result, range, complementary);
+		printDecompressWarning("zeroOutOperations");
+		return decompress().zeroOutOperations(result, range, complementary);
+	}
+	
+	@Override
+	public CM_COV_Object cmOperations(CMOperator op) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.cmOperations(op);
+		printDecompressWarning("cmOperations");
+		return decompress().cmOperations(op);
+	}
+	
+	@Override
+	public CM_COV_Object cmOperations(CMOperator op, MatrixBlock weights) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.cmOperations(op, getUncompressed(weights));
+		printDecompressWarning("cmOperations");
+		return decompress().cmOperations(op, getUncompressed(weights));
+	}
+	
+	@Override
+	public CM_COV_Object covOperations(COVOperator op, MatrixBlock that) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.covOperations(op, getUncompressed(that));
+		printDecompressWarning("covOperations");
+		return decompress().covOperations(op, getUncompressed(that));
+	}
+	
+	@Override
+	public CM_COV_Object covOperations(COVOperator op, MatrixBlock that, MatrixBlock weights) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.covOperations(op, getUncompressed(that), getUncompressed(weights));
+		printDecompressWarning("covOperations");
+		return decompress().covOperations(op, getUncompressed(that), getUncompressed(weights));
+	}
+	
+	@Override
+	public MatrixValue sortOperations(MatrixValue weights, MatrixValue result, int k) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.sortOperations(getUncompressed(weights), result, k);
+		printDecompressWarning("sortOperations");
+		return decompress().sortOperations(getUncompressed(weights), result, k);
+	}
+	
+	@Override
+	public MatrixBlock groupedAggOperations(MatrixValue tgt, MatrixValue wghts, MatrixValue ret, int ngroups, Operator op, int k) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.groupedAggOperations(getUncompressed(tgt), getUncompressed(wghts), ret, ngroups, op, k);
+		printDecompressWarning("groupedAggOperations");
+		return decompress().groupedAggOperations(getUncompressed(tgt), getUncompressed(wghts), ret, ngroups, op, k);
+	}
+	
+	@Override
+	public MatrixBlock removeEmptyOperations(MatrixBlock ret, boolean rows, MatrixBlock select) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.removeEmptyOperations(ret, rows, getUncompressed(select));
+		printDecompressWarning("removeEmptyOperations");
+		return decompress().removeEmptyOperations(ret, rows, getUncompressed(select));
+	}
+	
+	@Override
+	public MatrixBlock rexpandOperations(MatrixBlock ret, double max, boolean rows, boolean cast, boolean ignore) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.rexpandOperations(ret, max, rows, cast, ignore);
+		printDecompressWarning("rexpandOperations");
+		return decompress().rexpandOperations(ret, max, rows, cast, ignore);
+	}
+	
+	@Override
+	public MatrixValue replaceOperations(MatrixValue result, double pattern, double replacement) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.replaceOperations(result, pattern, replacement);
+		printDecompressWarning("replaceOperations");
+		return decompress().replaceOperations(result, pattern, replacement);
+	}
+	
+	@Override
+	public void ternaryOperations(Operator op, double scalarThat, MatrixValue that2Val, CTableMap resultMap, MatrixBlock resultBlock) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() ) {
+			super.ternaryOperations(op, scalarThat, getUncompressed(that2Val), resultMap, resultBlock);
+			return;
+		}
+		printDecompressWarning("ternaryOperations");
+		decompress().ternaryOperations(op, scalarThat, getUncompressed(that2Val), resultMap, resultBlock);
+	}
+	
+	@Override
+	public void ternaryOperations(Operator op, double scalarThat, double scalarThat2, CTableMap resultMap, MatrixBlock resultBlock) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() ) {
+			super.ternaryOperations(op, scalarThat, scalarThat2, resultMap, resultBlock);
+			return;
+		}
+		printDecompressWarning("ternaryOperations");
+		decompress().ternaryOperations(op, scalarThat, scalarThat2, resultMap, resultBlock);
+	}
+	
+	@Override
+	public void ternaryOperations(Operator op, MatrixIndexes ix1, double scalarThat, boolean left, int brlen, CTableMap resultMap, MatrixBlock resultBlock) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() ) {
+			super.ternaryOperations(op, ix1, scalarThat, left, brlen, resultMap, resultBlock);
+			return;
+		}
+		printDecompressWarning("ternaryOperations");
+		decompress().ternaryOperations(op, ix1, scalarThat, left, brlen, resultMap, resultBlock);
+	}
+	
+	@Override
+	public void ternaryOperations(Operator op, MatrixValue thatVal, double scalarThat2, boolean ignoreZeros, CTableMap resultMap, MatrixBlock resultBlock) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() ) {
+			super.ternaryOperations(op, getUncompressed(thatVal), scalarThat2, ignoreZeros, resultMap, resultBlock);
+			return;
+		}
+		printDecompressWarning("ternaryOperations");
+		decompress().ternaryOperations(op, getUncompressed(thatVal), scalarThat2, ignoreZeros, resultMap, resultBlock);
+	}
+	
+	@Override
+	public void ternaryOperations(Operator op, MatrixValue thatMatrix, double thatScalar, MatrixBlock resultBlock) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() ) {
+			super.ternaryOperations(op, getUncompressed(thatMatrix), thatScalar, resultBlock);
+			return;
+		}
+		printDecompressWarning("ternaryOperations");
+		decompress().ternaryOperations(op, getUncompressed(thatMatrix), thatScalar, resultBlock);
+	}
+	
+	@Override
+	public void ternaryOperations(Operator op, MatrixValue thatVal, MatrixValue that2Val, CTableMap resultMap, MatrixBlock resultBlock) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() ) {
+			super.ternaryOperations(op, getUncompressed(thatVal), getUncompressed(that2Val), resultMap, resultBlock);
+			return;
+		}
+		printDecompressWarning("ternaryOperations");
+		decompress().ternaryOperations(op, getUncompressed(thatVal), getUncompressed(that2Val), resultMap, resultBlock);
+	}
+	
+	@Override
+	public MatrixValue quaternaryOperations(QuaternaryOperator qop, MatrixValue um, MatrixValue vm, MatrixValue wm, MatrixValue out, int k) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() )
+			return super.quaternaryOperations(qop, getUncompressed(um), getUncompressed(vm), getUncompressed(wm), out, k);
+		printDecompressWarning("quaternaryOperations");
+		return decompress().quaternaryOperations(qop, getUncompressed(um), getUncompressed(vm), getUncompressed(wm), out, k);
+	}
+	
+	@Override
+	public ScalarObject aggregateTernaryOperations(MatrixBlock m1, MatrixBlock m2, MatrixBlock m3, AggregateBinaryOperator op) 
+		throws DMLRuntimeException
+	{
+		if( !isCompressed() )
+			return super.aggregateTernaryOperations(getUncompressed(m1), getUncompressed(m2), getUncompressed(m3), op);
+		printDecompressWarning("aggregateTernaryOperations");
+		MatrixBlock tmp = decompress();
+		return tmp.aggregateTernaryOperations((m1 == this) ? tmp : getUncompressed(m1), 
+			(m2 == this) ? tmp : getUncompressed(m2), (m3 == this) ? tmp : getUncompressed(m3), op);
+	}
+	
+	@Override
+	public void permutationMatrixMultOperations(MatrixValue m2Val, MatrixValue out1Val, MatrixValue out2Val, int k) 
+		throws DMLRuntimeException 
+	{
+		if( !isCompressed() ) {
+			super.permutationMatrixMultOperations(getUncompressed(m2Val), out1Val, out2Val, k);
+			return;
+		}
+		printDecompressWarning("permutationMatrixMultOperations");
+		decompress(k).permutationMatrixMultOperations(getUncompressed(m2Val), out1Val, out2Val, k);
+	}
+	
+	@Override
+	public MatrixBlock uaggouterchainOperations(MatrixBlock mbLeft, MatrixBlock mbRight, MatrixBlock mbOut, BinaryOperator bOp, AggregateUnaryOperator uaggOp) 
+		throws DMLRuntimeException
+	{
+		if( !isCompressed() )
+			return super.uaggouterchainOperations(getUncompressed(mbLeft), getUncompressed(mbRight), mbOut, bOp, uaggOp);
+		printDecompressWarning("uaggouterchainOperations");
+		MatrixBlock tmp = decompress();
+		return tmp.uaggouterchainOperations((mbLeft == this) ? tmp : getUncompressed(mbLeft), 
+			(mbRight == this) ? tmp : getUncompressed(mbRight), mbOut, bOp, uaggOp);
+	}
+	
+	/**
+	 * 
+	 * @param operation
+	 */
+	private static void printDecompressWarning(String operation) {
+		LOG.warn("Operation '"+operation+"' not supported yet - decompressing for ULA operations.");
+	}
+	
+	//////////////////////////////////////////
+	// Task Implementations
+	
+	private static class SizeEstimTask implements Callable<CompressedSizeInfo> 
+	{
+		private final CompressedSizeEstimator _estim;
+		private final int _col;
+		
+		protected SizeEstimTask( CompressedSizeEstimator estim, int col ) {
+			_estim = estim;
+			_col = col;
+		}
+		
+		@Override
+		public CompressedSizeInfo call() throws DMLRuntimeException {
+			return _estim.estimateCompressedColGroupSize(new int[] { _col });
+		}
+	}
+
+	private static class CompressTask implements Callable<ColGroup> 
+	{
+		private final MatrixBlock _in;
+		private final CompressedSizeEstimator _estim;
+		private final int[] _colIndexes;
+		
+		protected CompressTask( MatrixBlock in, CompressedSizeEstimator estim, int[] colIndexes ) {
+			_in = in;
+			_estim = estim;
+			_colIndexes = colIndexes;
+		}
+		
+		@Override
+		public ColGroup call() throws DMLRuntimeException {
+			return compressColGroup(_in, _estim, _colIndexes);
+		}
+	}
+	
+	private static class DecompressTask implements Callable<Object> 
+	{
+		private final List<ColGroup> _colGroups;
+		private final MatrixBlock _ret;
+		private final int _rl;
+		private final int _ru;
+
+		protected DecompressTask( List<ColGroup> colGroups, MatrixBlock ret, int rl, int ru ) {
+			_colGroups = colGroups;
+			_ret = ret;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() throws DMLRuntimeException {
+			//decompress row partition
+			for( ColGroup grp : _colGroups )
+				grp.decompressToBlock(_ret, _rl, _ru);
+			return null;
+		}
+	}
+	
+	private static class RightMatrixMultTask implements Callable<Object> 
+	{
+		private final List<ColGroup> _colGroups;
+		private final double[] _b;
+		private final double[] _c;
+		private final int _rl;
+		private final int _ru;
+
+		protected RightMatrixMultTask( List<ColGroup> colGroups, double[] b, double[] c, int rl, int ru ) {
+			_colGroups = colGroups;
+			_b = b;
+			_c = c;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() throws DMLRuntimeException {
+			//compute matrix-vector product of row partition
+			for( ColGroup grp : _colGroups )
+				grp.rightMultByVector(_b, _c, _rl, _ru);
+			return null;
+		}
+	}
+	
+	private static class LeftMatrixMultTask implements Callable<Object> 
+	{
+		private final ColGroup _group;
+		private final double[] _a;
+		private final double[] _c;
+
+		protected LeftMatrixMultTask( ColGroup group, double[] a, double[] c ) {
+			_group = group;
+			_a = a;
+			_c = c;
+		}
+		
+		@Override
+		public Object call() throws DMLRuntimeException {
+			//compute vector-matrix product of column group
+			_group.leftMultByRowVector(_a, _c);
+			return null;
+		}
+	}
+	
+	private static class UnaryAggregateTask implements Callable<MatrixBlock> 
+	{
+		private final List<ColGroup> _groups;
+		private final MatrixBlock _ret;
+		private final AggregateUnaryOperator _op;
+		
+		protected UnaryAggregateTask( List<ColGroup> groups, MatrixBlock ret, AggregateUnaryOperator op ) {
+			_groups = groups;
+			_op = op;
+			
+			//partial result of same layout and initial values
+			_ret = new MatrixBlock(ret.getNumRows(), ret.getNumColumns(), false);
+			_ret.allocateDenseBlock();
+			if( _op.aggOp.increOp.fn instanceof Builtin )
+				Arrays.fill(_ret.getDenseBlockValues(), _op.aggOp.initialValue);
+		}
+		
+		@Override
+		public MatrixBlock call() throws DMLRuntimeException {
+			//aggregate the column groups into the partial result
+			for( ColGroup grp : _groups )
+				grp.unaryAggregateOperations(_op, _ret);
+			return _ret;
+		}
+	}
+}
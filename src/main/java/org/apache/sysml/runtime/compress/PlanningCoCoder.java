@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.sysml.runtime.compress.estim.CompressedSizeEstimator;
+import org.apache.sysml.runtime.compress.estim.CompressedSizeInfo;
+
+/**
+ * Greedy planning of column co-coding, i.e., grouping of compressible 
+ * columns into column groups that are encoded with shared value tuples.
+ * Columns are ordered by their estimated cardinality, and adjacent groups
+ * are merged as long as the estimated compressed size of the merged group 
+ * is smaller than the sum of the sizes of the separate groups.
+ * 
+ */
+public class PlanningCoCoder 
+{
+	//upper bound on the number of columns per group (limits the
+	//cardinality of value tuples and the number of size estimates)
+	private static final int MAX_GROUP_SIZE = 8;
+	
+	/**
+	 * 
+	 * @param sizeEstimator
+	 * @param colIndexes  compressible columns
+	 * @param colInfos  size estimates of compressible columns (same order)
+	 * @return list of column groups (sorted column indexes per group)
+	 */
+	public static List<int[]> findCocodesByPartitioning(CompressedSizeEstimator sizeEstimator, 
+			List<Integer> colIndexes, List<CompressedSizeInfo> colInfos) 
+	{
+		//order columns by estimated cardinality (similar columns adjacent)
+		final int numCols = colIndexes.size();
+		Integer[] order = new Integer[numCols];
+		final int[] card = new int[numCols];
+		for( int i=0; i<numCols; i++ ) {
+			order[i] = i;
+			card[i] = colInfos.get(i).getEstCarinality();
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer arg0, Integer arg1) {
+				return Integer.compare(card[arg0], card[arg1]);
+			}
+		});
+		
+		//greedy merge of adjacent columns into groups
+		List<int[]> ret = new ArrayList<int[]>();
+		int[] curGroup = null;
+		long curSize = -1;
+		for( int i=0; i<numCols; i++ ) {
+			int ix = order[i];
+			int col = colIndexes.get(ix);
+			long colSize = colInfos.get(ix).getMinSize();
+			if( curGroup != null && curGroup.length < MAX_GROUP_SIZE ) {
+				int[] merged = merge(curGroup, col);
+				long mergedSize = sizeEstimator
+					.estimateCompressedColGroupSize(merged).getMinSize();
+				if( mergedSize < curSize + colSize ) {
+					curGroup = merged;
+					curSize = mergedSize;
+					continue;
+				}
+			}
+			if( curGroup != null )
+				ret.add(curGroup);
+			curGroup = new int[]{col};
+			curSize = colSize;
+		}
+		if( curGroup != null )
+			ret.add(curGroup);
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param group
+	 * @param col
+	 * @return
+	 */
+	private static int[] merge(int[] group, int col) {
+		int[] ret = Arrays.copyOf(group, group.length+1);
+		ret[group.length] = col;
+		Arrays.sort(ret);
+		return ret;
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import org.apache.sysml.runtime.compress.utils.DblArray;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Reader of the non-zero rows of a column selection, which returns the 
+ * values of the selected columns as reused array. The input is expected 
+ * in transposed representation (i.e., columns as rows), which allows for 
+ * sequential access of dense and sparse columns. If a sample of rows is 
+ * given, only these rows are read and row indexes refer to positions 
+ * within the sample.
+ * 
+ */
+public class ReaderColumnSelection 
+{
+	private final MatrixBlock _data;
+	private final int[] _colIndexes;
+	private final int[] _sampleRows;
+	private final int _numRows;
+	
+	//reused return value and current position
+	private final double[] _reusableArr;
+	private final DblArray _reusableReturn;
+	private int _lastRow = -1;
+	
+	//column cursors for sparse inputs
+	private int[] _cursors = null;
+	
+	/**
+	 * 
+	 * @param data transposed input block
+	 * @param colIndexes column indexes (rows of the transposed input)
+	 * @param sampleRows sorted sample of row indexes, or null for all rows
+	 */
+	public ReaderColumnSelection(MatrixBlock data, int[] colIndexes, int[] sampleRows) {
+		_data = data;
+		_colIndexes = colIndexes;
+		_sampleRows = sampleRows;
+		_numRows = (sampleRows != null) ? sampleRows.length : data.getNumColumns();
+		_reusableArr = new double[colIndexes.length];
+		_reusableReturn = new DblArray(_reusableArr);
+		if( data.isInSparseFormat() && sampleRows == null )
+			_cursors = new int[colIndexes.length];
+	}
+	
+	/**
+	 * Gets the next row with at least one non-zero value in the 
+	 * selected columns, or null if there are no more rows.
+	 * 
+	 * @return
+	 */
+	public DblArray nextRow() {
+		if( _data.isEmptyBlock(false) )
+			return null;
+		else if( _cursors != null )
+			return nextRowSparse();
+		
+		while( ++_lastRow < _numRows ) {
+			int r = (_sampleRows != null) ? _sampleRows[_lastRow] : _lastRow;
+			if( _data.isInSparseFormat() ) {
+				SparseBlock a = _data.getSparseBlock();
+				for( int j=0; j<_colIndexes.length; j++ )
+					_reusableArr[j] = a.get(_colIndexes[j], r);
+			}
+			else {
+				DenseBlock a = _data.getDenseBlock();
+				for( int j=0; j<_colIndexes.length; j++ )
+					_reusableArr[j] = a.values(_colIndexes[j])[a.pos(_colIndexes[j])+r];
+			}
+			if( !DblArray.isZero(_reusableArr) )
+				return _reusableReturn;
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the row index of the last returned row (or sample position).
+	 * 
+	 * @return
+	 */
+	public int getCurrentRowIndex() {
+		return _lastRow;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private DblArray nextRowSparse() {
+		SparseBlock a = _data.getSparseBlock();
+		
+		while( true ) {
+			//determine next row as minimum row index over all column cursors
+			int r = Integer.MAX_VALUE;
+			for( int j=0; j<_colIndexes.length; j++ ) {
+				int cix = _colIndexes[j];
+				if( !a.isEmpty(cix) && _cursors[j] < a.size(cix) )
+					r = Math.min(r, a.indexes(cix)[a.pos(cix)+_cursors[j]]);
+			}
+			if( r == Integer.MAX_VALUE )
+				return null;
+			
+			//collect values and advance cursors
+			for( int j=0; j<_colIndexes.length; j++ ) {
+				int cix = _colIndexes[j];
+				_reusableArr[j] = 0;
+				if( !a.isEmpty(cix) && _cursors[j] < a.size(cix) ) {
+					int pos = a.pos(cix) + _cursors[j];
+					if( a.indexes(cix)[pos] == r ) {
+						_reusableArr[j] = a.values(cix)[pos];
+						_cursors[j]++;
+					}
+				}
+			}
+			_lastRow = r;
+			
+			//skip explicitly stored zeros
+			if( !DblArray.isZero(_reusableArr) )
+				return _reusableReturn;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Map.Entry;
+import java.util.LinkedHashMap;
+
+import org.apache.sysml.runtime.compress.utils.DblArray;
+import org.apache.sysml.runtime.compress.utils.IntArrayList;
+
+/** 
+ * Uncompressed representation of one or more columns in bitmap format, i.e.,
+ * the distinct value tuples (w/o the all-zero tuple) and the sorted lists of 
+ * row offsets per distinct tuple. 
+ * 
+ */
+public final class UncompressedBitmap 
+{
+	private final int _numCols;
+
+	//linearized <numCols> values per distinct tuple
+	private final double[] _values;
+	
+	//sorted row offsets per distinct tuple
+	private final int[][] _offsetsLists;
+	
+	/**
+	 * 
+	 * @param distinctVals
+	 * @param numColumns
+	 */
+	public UncompressedBitmap( LinkedHashMap<DblArray, IntArrayList> distinctVals, int numColumns ) 
+	{
+		// added for one pass bitmap construction
+		// Convert inputs to arrays
+		int numVals = distinctVals.size();
+		_values = new double[numVals*numColumns];
+		_offsetsLists = new int[numVals][];
+		int bitmapIx = 0;
+		for( Entry<DblArray, IntArrayList> val : distinctVals.entrySet() ) {
+			System.arraycopy(val.getKey().getData(), 0, 
+				_values, bitmapIx*numColumns, numColumns);
+			_offsetsLists[bitmapIx++] = val.getValue().extractValuesTrimmed();
+		}
+		_numCols = numColumns;
+	}
+	
+	/**
+	 * 
+	 * @param values
+	 * @param offsetsLists
+	 * @param numColumns
+	 */
+	public UncompressedBitmap( double[] values, int[][] offsetsLists, int numColumns ) {
+		_values = values;
+		_offsetsLists = offsetsLists;
+		_numCols = numColumns;
+	}
+	
+	public int getNumColumns() {
+		return _numCols;
+	}
+	
+	/**
+	 * @return all values in the bitmap (linearized tuples)
+	 */
+	public double[] getValues() {
+		return _values;
+	}
+	
+	/**
+	 * @param ix index of a particular distinct value
+	 * @return the tuple of column values associated with the specified index
+	 */
+	public double[] getValues(int ix) {
+		double[] ret = new double[_numCols];
+		System.arraycopy(_values, ix*_numCols, ret, 0, _numCols);
+		return ret;
+	}
+
+	/**
+	 * @return number of distinct values in the column; this number is also the
+	 *         number of bitmaps, since there is one bitmap per value
+	 */
+	public int getNumValues() {
+		return _values.length / _numCols;
+	}
+
+	public int[] getOffsetsList(int ix) {
+		return _offsetsLists[ix];
+	}
+
+	public int getNumOffsets(int ix) {
+		return _offsetsLists[ix].length;
+	}
+	
+	/**
+	 * @return total number of offsets (i.e., non-zero rows) over all values
+	 */
+	public long getNumOffsets() {
+		long ret = 0;
+		for( int[] offlist : _offsetsLists )
+			ret += offlist.length;
+		return ret;
+	}
+	
+	/**
+	 * @return total number of runs of consecutive row offsets over all values
+	 */
+	public long getNumRuns() {
+		long ret = 0;
+		for( int[] offlist : _offsetsLists )
+			for( int i=0; i<offlist.length; i++ )
+				ret += (i==0 || offlist[i-1]+1 != offlist[i]) ? 1 : 0;
+		return ret;
+	}
+	
+	/**
+	 * @return total number of non-empty offset list segments over all values
+	 */
+	public long getNumSegments() {
+		long ret = 0;
+		for( int[] offlist : _offsetsLists )
+			for( int i=0; i<offlist.length; i++ )
+				ret += (i==0 || offlist[i-1]/CompressedMatrixBlock.BITMAP_BLOCK_SZ 
+					!= offlist[i]/CompressedMatrixBlock.BITMAP_BLOCK_SZ) ? 1 : 0;
+		return ret;
+	}
+}
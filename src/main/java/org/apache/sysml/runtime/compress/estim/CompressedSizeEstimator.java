@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress.estim;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.apache.sysml.runtime.compress.BitmapEncoder;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.compress.UncompressedBitmap;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Estimates the compressed size (and cardinality) of column groups, either
+ * exactly via the full bitmaps or via a uniform sample of rows, where the
+ * number of distinct values is extrapolated with the Duj1 estimator (Haas
+ * and Stokes) and the number of offsets, runs, and segments are scaled 
+ * by the inverse sampling fraction.
+ * 
+ */
+public class CompressedSizeEstimator 
+{
+	private static final double SAMPLING_RATIO = 0.05; //5% sample
+	private static final int MIN_SAMPLE_SIZE = 2000; //exact below
+	
+	private final MatrixBlock _data;
+	private final int _numRows;
+	private final int[] _sampleRows;
+	
+	/**
+	 * 
+	 * @param data  uncompressed input in transposed layout (columns as rows)
+	 * @param seed
+	 */
+	public CompressedSizeEstimator(MatrixBlock data, long seed) {
+		_data = data;
+		_numRows = data.getNumColumns();
+		
+		//draw sorted sample of row indexes (or full scan for small inputs)
+		int sampleSize = (int) Math.max(MIN_SAMPLE_SIZE, Math.ceil(SAMPLING_RATIO * _numRows));
+		_sampleRows = (sampleSize < _numRows) ? 
+			getSortedUniformSample(_numRows, sampleSize, seed) : null;
+	}
+	
+	/**
+	 * @return true if the estimates are based on a sample of rows
+	 */
+	public boolean isSampled() {
+		return _sampleRows != null;
+	}
+	
+	/**
+	 * 
+	 * @param colIndexes
+	 * @return
+	 */
+	public CompressedSizeInfo estimateCompressedColGroupSize(int[] colIndexes) 
+	{
+		//exact estimate via the full bitmap
+		if( _sampleRows == null )
+			return estimateCompressedColGroupSize(
+				BitmapEncoder.extractBitmap(colIndexes, _data));
+		
+		//sample-based estimate
+		UncompressedBitmap ubm = BitmapEncoder.extractBitmap(colIndexes, _data, _sampleRows);
+		int numCols = colIndexes.length;
+		int sampleSize = _sampleRows.length;
+		double scale = (double) _numRows / sampleSize;
+		
+		//estimate number of distinct values (Duj1) based on the frequency
+		//of values that appear exactly once in the sample
+		int dsample = ubm.getNumValues();
+		int f1 = 0;
+		long nnzSample = 0;
+		for( int i=0; i<dsample; i++ ) {
+			f1 += (ubm.getNumOffsets(i) == 1) ? 1 : 0;
+			nnzSample += ubm.getNumOffsets(i);
+		}
+		double q = (double) sampleSize / _numRows;
+		double denom = 1 - (1 - q) * f1 / Math.max(nnzSample, 1);
+		int estCard = (int) Math.min(Math.round(dsample / Math.max(denom, q)), 
+			Math.max(Math.round(nnzSample * scale), dsample));
+		
+		//scale offsets and runs by the sampling fraction, and estimate the
+		//segments per value (bounded by the number of row segments), where
+		//unseen values are assumed to occur in a single segment
+		//(note: offsets of sampled bitmaps are positions within the sample)
+		long numRowSegs = (long)Math.ceil((double)_numRows/CompressedMatrixBlock.BITMAP_BLOCK_SZ);
+		long estOffs = Math.round(nnzSample * scale);
+		long estRuns = Math.min(estOffs, Math.round(ubm.getNumRuns() * scale));
+		long estSegs = Math.max(estCard - dsample, 0);
+		for( int i=0; i<dsample; i++ )
+			estSegs += Math.min(numRowSegs, Math.round(ubm.getNumOffsets(i) * scale));
+		
+		return new CompressedSizeInfo(estCard, 
+			getRLESize(estCard, estRuns, numCols), 
+			getOLESize(estCard, estOffs, estSegs, numCols));
+	}
+	
+	/**
+	 * 
+	 * @param ubm
+	 * @return
+	 */
+	public CompressedSizeInfo estimateCompressedColGroupSize(UncompressedBitmap ubm) {
+		int numVals = ubm.getNumValues();
+		int numCols = ubm.getNumColumns();
+		return new CompressedSizeInfo(numVals, 
+			getRLESize(numVals, ubm.getNumRuns(), numCols), 
+			getOLESize(numVals, ubm.getNumOffsets(), ubm.getNumSegments(), numCols));
+	}
+	
+	/**
+	 * Estimates the number of bytes needed to encode this column group
+	 * in RLE encoding format.
+	 * 
+	 * @param numVals
+	 * @param numRuns
+	 * @param numCols
+	 * @return
+	 */
+	public static long getRLESize(int numVals, long numRuns, int numCols) {
+		long ret = 8L * numVals * numCols; //distinct values
+		ret += 4L * (numVals + 1); //bitmap pointers
+		ret += 4L * numRuns; //2 chars per run
+		return ret;
+	}
+	
+	/**
+	 * Estimates the number of bytes needed to encode this column group 
+	 * in OLE format.
+	 * 
+	 * @param numVals
+	 * @param numOffs
+	 * @param numSeqs
+	 * @param numCols
+	 * @return
+	 */
+	public static long getOLESize(int numVals, long numOffs, long numSeqs, int numCols) {
+		long ret = 8L * numVals * numCols; //distinct values
+		ret += 4L * (numVals + 1); //bitmap pointers
+		ret += 2L * (numOffs + numSeqs); //offsets and segment lengths
+		return ret;
+	}
+	
+	/**
+	 * Draws a sorted uniform sample of row indexes without replacement 
+	 * via Floyd's algorithm.
+	 * 
+	 * @param range
+	 * @param smplSize
+	 * @param seed
+	 * @return
+	 */
+	private static int[] getSortedUniformSample(int range, int smplSize, long seed) {
+		Random rand = new Random(seed);
+		HashMap<Integer, Boolean> sample = new HashMap<Integer, Boolean>();
+		for( int j=range-smplSize; j<range; j++ ) {
+			int t = rand.nextInt(j+1);
+			sample.put(sample.containsKey(t) ? j : t, Boolean.TRUE);
+		}
+		int[] ret = new int[smplSize];
+		int pos = 0;
+		for( Integer ix : sample.keySet() )
+			ret[pos++] = ix;
+		Arrays.sort(ret);
+		return ret;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress.utils;
+
+import java.util.Arrays;
+
+/**
+ * This class provides a memory-efficient replacement for
+ * ArrayList<Integer> for restricted use cases (append only).
+ * 
+ */
+public class IntArrayList 
+{
+	private static final int INIT_CAPACITY = 4;
+	private static final int RESIZE_FACTOR = 2;
+
+	private int[] _data = null;
+	private int _size = -1;
+
+	public IntArrayList() {
+		_data = new int[INIT_CAPACITY];
+		_size = 0;
+	}
+
+	public int size() {
+		return _size;
+	}
+
+	public void appendValue(int value) {
+		//resize if required (amortized constant costs)
+		if( _size == _data.length )
+			_data = Arrays.copyOf(_data, _data.length * RESIZE_FACTOR);
+		_data[_size++] = value;
+	}
+	
+	public int get(int ix) {
+		return _data[ix];
+	}
+
+	/**
+	 * Returns the underlying array of offsets. Note that this array might be 
+	 * physically larger than the actual length of the offset lists. Use size() 
+	 * to obtain the actual length.
+	 * 
+	 * @return
+	 */
+	public int[] extractValues() {
+		return _data;
+	}
+	
+	/**
+	 * Returns a copy of the offsets, trimmed to the actual length. 
+	 * 
+	 * @return
+	 */
+	public int[] extractValuesTrimmed() {
+		return (_size == _data.length) ? _data : Arrays.copyOf(_data, _size);
+	}
+}
@@ -27,6 +27,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map.Entry;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -50,6 +51,7 @@ import org.apache.sysml.parser.VariableSet;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.caching.CacheException;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
 import org.apache.sysml.runtime.controlprogram.parfor.DataPartitioner;
@@ -69,6 +71,7 @@ import org.apache.sysml.runtime.controlprogram.parfor.ResultMerge;
 import org.apache.sysml.runtime.controlprogram.parfor.ResultMergeLocalAutomatic;
 import org.apache.sysml.runtime.controlprogram.parfor.ResultMergeLocalFile;
 import org.apache.sysml.runtime.controlprogram.parfor.ResultMergeLocalMemory;
+import org.apache.sysml.runtime.controlprogram.parfor.ResultMergeLocalShared;
 import org.apache.sysml.runtime.controlprogram.parfor.ResultMergeRemoteMR;
 import org.apache.sysml.runtime.controlprogram.parfor.ResultMergeRemoteSpark;
 import org.apache.sysml.runtime.controlprogram.parfor.Task;
@@ -100,6 +103,7 @@ import org.apache.sysml.runtime.instructions.cp.DoubleObject;
 import org.apache.sysml.runtime.instructions.cp.IntObject;
 import org.apache.sysml.runtime.instructions.cp.StringObject;
 import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.OutputInfo;
 import org.apache.sysml.utils.Statistics;
 import org.apache.sysml.yarn.ropt.YarnClusterAnalyzer;
@@ -189,6 +193,7 @@ public class ParForProgramBlock extends ForProgramBlock
 		LOCAL_MEM,       // in-core (in-memory) result merge (output and one input at a time)
 		LOCAL_FILE,      // out-of-core result merge (file format dependent)
 		LOCAL_AUTOMATIC, // decides between MEM and FILE based on the size of the output matrix 
+		LOCAL_SHARED,    // no merge, shared dense output written by all workers (disjoint rows/cols)
 		REMOTE_MR,       // remote MR parallel result merge
 		REMOTE_SPARK,    // remote Spark parallel result merge
 		UNSPECIFIED,
@@ -702,6 +707,7 @@ public class ParForProgramBlock extends ForProgramBlock
 
 		int numExecutedTasks = 0;
 		int numExecutedIterations = 0;
+		long numStolenTasks = 0;
 		
 		//restrict recompilation to thread local memory
 		setMemoryBudget();
@@ -713,14 +719,16 @@ public class ParForProgramBlock extends ForProgramBlock
 		try
 		{
 			// Step 1) init parallel workers, task queue and threads
-			LocalTaskQueue<Task> queue = new LocalTaskQueue<Task>();
+			LocalTaskQueue<Task> queue = new LocalTaskQueue<Task>(_numThreads);
 			Thread[] threads         = new Thread[_numThreads];
 			LocalParWorker[] workers = new LocalParWorker[_numThreads];
+			HashMap<String, MatrixBlock> sharedOut = (_resultMerge == PResultMerge.LOCAL_SHARED) ?
+					createSharedResultOutputs( ec ) : null;
 			for( int i=0; i<_numThreads; i++ )
 			{
 				//create parallel workers as (lazy) deep copies
 				//including preparation of update-in-place variables
-				workers[i] = createParallelWorker( _pwIDs[i], queue, ec ); 
+				workers[i] = createParallelWorker( _pwIDs[i], queue, i, sharedOut, ec ); 
 				threads[i] = new Thread( workers[i] );
 				threads[i].setPriority(Thread.MAX_PRIORITY); 
 			}
@@ -764,9 +772,9 @@ public class ParForProgramBlock extends ForProgramBlock
 			for( Thread thread : threads )
 				thread.join();
 			
-			if( _monitor ) 
+			if( _monitor )
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_WAIT_EXEC_T, time.stop());
-				
+			numStolenTasks = queue.getNumStolenTasks();
 				
 			// Step 4) collecting results from each parallel worker
 			//obtain results
@@ -806,6 +814,7 @@ public class ParForProgramBlock extends ForProgramBlock
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_WAIT_RESULTS_T, time.stop());
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_NUMTASKS, numExecutedTasks);
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_NUMITERS, numExecutedIterations);
+				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_NUMSTEALS, numStolenTasks);
 			}
 		}
 	}	
@@ -1017,7 +1026,7 @@ public class ParForProgramBlock extends ForProgramBlock
 		// NOTES: each mapper changes filenames with regard to his ID as we submit a single job,
 		//        cannot reuse serialized string, since variables are serialized as well.
 		ParForBody body = new ParForBody( _childBlocks, _resultVars, ec );
-		String program = ProgramConverter.serializeParForBody( body );
+		byte[] program = ProgramConverter.serializeParForBodyBinary( body );
 		
 		if( _monitor ) 
 			StatisticMonitor.putPFStat(_ID, Stat.PARFOR_INIT_PARWRK_T, time.stop());
@@ -1080,7 +1089,7 @@ public class ParForProgramBlock extends ForProgramBlock
 		// NOTES: each mapper changes filenames with regard to his ID as we submit a single job,
 		//        cannot reuse serialized string, since variables are serialized as well.
 		ParForBody body = new ParForBody( _childBlocks, _resultVars, ec );
-		String program = ProgramConverter.serializeParForBody( body );
+		byte[] program = ProgramConverter.serializeParForBodyBinary( body );
 		
 		if( _monitor ) 
 			StatisticMonitor.putPFStat(_ID, Stat.PARFOR_INIT_PARWRK_T, time.stop());
@@ -1384,6 +1393,7 @@ public class ParForProgramBlock extends ForProgramBlock
 	 * 
 	 * @param pwID
 	 * @param queue
+	 * @param queueIx
 	 * @param ec
 	 * @return
 	 * @throws InstantiationException
@@ -1391,7 +1401,7 @@ public class ParForProgramBlock extends ForProgramBlock
 	 * @throws DMLRuntimeException
 	 * @throws CloneNotSupportedException
 	 */
-	private LocalParWorker createParallelWorker(long pwID, LocalTaskQueue<Task> queue, ExecutionContext ec) 
+	private LocalParWorker createParallelWorker(long pwID, LocalTaskQueue<Task> queue, int queueIx, HashMap<String, MatrixBlock> sharedOut, ExecutionContext ec) 
 		throws DMLRuntimeException
 	{
 		LocalParWorker pw = null; 
@@ -1424,12 +1434,18 @@ public class ParForProgramBlock extends ForProgramBlock
 			//prepare basic update-in-place variables (vars dropped on result merge)
 			prepareUpdateInPlaceVariables(cpEc, pwID);
 			
+			//bind shared result outputs (written by all workers, no copy)
+			if( sharedOut != null )
+				for( Entry<String, MatrixBlock> e : sharedOut.entrySet() )
+					cpEc.setVariable(e.getKey(), ResultMergeLocalShared.createSharedWorkerOutput(
+							cpEc.getMatrixObject(e.getKey()), e.getValue()));
+			
 			//copy compiler configuration (for jmlc w/o global config)
 			CompilerConfig cconf = ConfigurationManager.getCompilerConfig();
 			
 			//create the actual parallel worker
 			ParForBody body = new ParForBody( cpChildBlocks, _resultVars, cpEc );
-			pw = new LocalParWorker( pwID, queue, body, cconf, MAX_RETRYS_ON_ERROR, _monitor );
+			pw = new LocalParWorker( pwID, queue, queueIx, body, cconf, MAX_RETRYS_ON_ERROR, _monitor );
 			pw.setFunctionNames(fnNames);
 		}
 		catch(Exception ex)
@@ -1440,6 +1456,26 @@ public class ParForProgramBlock extends ForProgramBlock
 		return pw;
 	}
 	
+	/**
+	 * Creates the shared dense outputs of all result variables that are
+	 * marked for shared in-place updates by all parallel workers.
+	 * 
+	 * @param ec
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private HashMap<String, MatrixBlock> createSharedResultOutputs( ExecutionContext ec ) 
+		throws DMLRuntimeException
+	{
+		HashMap<String, MatrixBlock> ret = new HashMap<String, MatrixBlock>();
+		for( String var : _resultVars ) {
+			Data dat = ec.getVariable(var);
+			if( dat instanceof MatrixObject && ((MatrixObject)dat).getUpdateType()==UpdateType.INPLACE_SHARED )
+				ret.put(var, ResultMergeLocalShared.createSharedOutput((MatrixObject)dat));
+		}
+		return ret;
+	}
+	
 	/**
 	 * Creates a new task partitioner according to the specified runtime parameter.
 	 * 
@@ -1572,6 +1608,12 @@ public class ParForProgramBlock extends ForProgramBlock
 			case LOCAL_AUTOMATIC:
 				rm = new ResultMergeLocalAutomatic( out, in, fname );
 				break;
+			case LOCAL_SHARED: //fallback for results w/o shared output
+				if( out.getUpdateType() == UpdateType.INPLACE_SHARED )
+					rm = new ResultMergeLocalShared( out, in, fname );
+				else
+					rm = new ResultMergeLocalMemory( out, in, fname );
+				break;
 			case REMOTE_MR:
 				rm = new ResultMergeRemoteMR( out, in, fname, _ID, numMap, numRed,
 					                          WRITE_REPLICATION_FACTOR, 
@@ -31,9 +31,11 @@ import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.hops.recompile.Recompiler;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.parser.StatementBlock;
+import org.apache.sysml.parser.VariableSet;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.DMLScriptException;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
@@ -47,6 +49,7 @@ import org.apache.sysml.runtime.instructions.cp.ScalarObject;
 import org.apache.sysml.runtime.instructions.cp.StringObject;
 import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.utils.InstructionProfiler;
 import org.apache.sysml.utils.Statistics;
 import org.apache.sysml.yarn.DMLAppMasterUtils;
 
@@ -295,8 +298,10 @@ public class ProgramBlock
 		try 
 		{	
 			// start time measurement for statistics
-			long t0 = (DMLScript.STATISTICS || LOG.isTraceEnabled()) ? 
+			long t0 = (DMLScript.STATISTICS || InstructionProfiler.PROFILE || LOG.isTraceEnabled()) ? 
 					System.nanoTime() : 0;
+			int shape = InstructionProfiler.PROFILE ? 
+					InstructionProfiler.getShapeClass(currInst, ec) : 0;
 					
 			// pre-process instruction (debug state, inst patching, listeners)
 			Instruction tmp = currInst.preprocessInstruction( ec );
@@ -312,6 +317,11 @@ public class ProgramBlock
 				Statistics.maintainCPHeavyHitters(
 					tmp.getExtendedOpcode(), System.nanoTime()-t0);
 			}
+			
+			// maintain latency histograms (per opcode, line, shape, threads)
+			if( InstructionProfiler.PROFILE ) {
+				InstructionProfiler.maintain(tmp, shape, System.nanoTime()-t0);
+			}
 				
 			// optional trace information (instruction and runtime)
 			if( LOG.isTraceEnabled() ) {
@@ -341,6 +351,30 @@ public class ProgramBlock
 	}
 	
 
+	/**
+	 * Issues asynchronous prefetches of the loop-invariant inputs of the given
+	 * child program block (variables read by the child but not updated in this 
+	 * loop), in order to overlap restores of evicted inputs with computation.
+	 * 
+	 * @param ec
+	 * @param pb
+	 */
+	protected void prefetchLoopInvariantInputs(ExecutionContext ec, ProgramBlock pb)
+	{
+		StatementBlock csb = pb.getStatementBlock();
+		if( !CacheableData.CACHING_ASYNC_PREFETCH || _sb == null || csb == null )
+			return;
+		
+		VariableSet updated = _sb.variablesUpdated();
+		for( String varname : csb.variablesRead().getVariableNames() ) {
+			if( updated.containsVariable(varname) )
+				continue;
+			Data dat = ec.getVariable(varname);
+			if( dat instanceof CacheableData<?> )
+				((CacheableData<?>)dat).prefetch();
+		}
+	}
+	
 	/**
 	 *  
 	 * @param ec
@@ -166,6 +166,7 @@ public class WhileProgramBlock extends ProgramBlock
 				//execute all child blocks
 				for (int i=0 ; i < _childBlocks.size() ; i++) {
 					ec.updateDebugState(i);
+					prefetchLoopInvariantInputs(ec, _childBlocks.get((i+1) % _childBlocks.size()));
 					_childBlocks.get(i).execute(ec);
 				}
 			}
@@ -22,6 +22,7 @@ package org.apache.sysml.runtime.controlprogram.caching;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import org.apache.sysml.runtime.io.BlockCompressionUtils;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
@@ -32,12 +33,13 @@ import org.apache.sysml.runtime.util.LocalFileUtils;
  */
 public class ByteBuffer
 {
-	private boolean _serialized;	
+	private volatile boolean _serialized;	
 	private boolean _shallow;
 	private long _size;
+	private long _seq; //position in eviction order
 	
-	protected byte[]     _bdata = null; //sparse matrix
-	protected CacheBlock _cdata = null; //dense matrix/frame
+	protected volatile byte[]     _bdata = null; //sparse matrix
+	protected volatile CacheBlock _cdata = null; //dense matrix/frame
 	
 	public ByteBuffer( long size )
 	{
@@ -77,10 +79,16 @@ public class ByteBuffer
 			throw new IOException("Failed to serialize cache block.", ex);
 		}
 		
-		_serialized = true;
+		//notify pending evictions
+		synchronized( this ) {
+			_serialized = true;
+			notifyAll();
+		}
 	}
 	
 	/**
+	 * Deserializes the cache block, or returns null if the buffer
+	 * has been concurrently evicted and freed.
 	 * 
 	 * @return
 	 * @throws IOException
@@ -91,9 +99,12 @@ public class ByteBuffer
 		CacheBlock ret = null;
 		
 		if( !_shallow ) { //sparse matrix 
-			CacheDataInput din = new CacheDataInput(_bdata);
-			ret = new MatrixBlock();
-			ret.readFields(din);
+			byte[] bdata = _bdata;
+			if( bdata != null ) {
+				CacheDataInput din = new CacheDataInput(bdata);
+				ret = new MatrixBlock();
+				ret.readFields(din);
+			}
 		}
 		else { //dense matrix/frame
 			ret = _cdata;
@@ -111,8 +122,12 @@ public class ByteBuffer
 		throws IOException
 	{
 		if( !_shallow ) {
-			//write out byte serialized array
-			LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
+			//write out byte serialized array (block-compressed if compressible)
+			if( BlockCompressionUtils.isCompressionEnabled() 
+				&& BlockCompressionUtils.isCompressible(_bdata, 0, _bdata.length) )
+				LocalFileUtils.writeCompressedByteArrayToLocal(fname, _bdata);
+			else
+				LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
 		}
 		else {
 			//serialize cache block to output stream
@@ -129,6 +144,23 @@ public class ByteBuffer
 		return _size;
 	}
 	
+	/**
+	 * Returns the sequence number of this buffer in the eviction order.
+	 * 
+	 * @return
+	 */
+	public long getSequence() {
+		return _seq;
+	}
+	
+	/**
+	 * 
+	 * @param seq
+	 */
+	public void setSequence(long seq) {
+		_seq = seq;
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -160,8 +192,10 @@ public class ByteBuffer
 			return;
 		
 		//robust checking until serialized
-		while( !_serialized ) {
-			try{Thread.sleep(1);} catch(Exception e) {}
+		synchronized( this ) {
+			while( !_serialized ) {
+				try{ wait(); } catch(InterruptedException e) {}
+			}
 		}
 	}
 	
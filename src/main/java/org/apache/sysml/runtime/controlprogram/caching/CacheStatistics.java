@@ -67,6 +67,20 @@ public class CacheStatistics
 	private static AtomicLong _ctimeAcquireM   = null; //in nano sec
 	private static AtomicLong _ctimeRelease    = null; //in nano sec
 	private static AtomicLong _ctimeExport     = null; //in nano sec
+	
+	//contention statistics write buffer
+	private static AtomicLong _numBuffLockWaits   = null; //contended stripe locks
+	private static AtomicLong _ctimeBuffLockWait  = null; //in nano sec
+	private static AtomicLong _numBuffEvictWaits  = null; //waits for pending evictions
+	private static AtomicLong _ctimeBuffEvictWait = null; //in nano sec
+	private static AtomicLong _ctimeBuffEvict     = null; //in nano sec
+	
+	//prefetch and write-behind statistics
+	private static AtomicLong _numPrefetchHits    = null;
+	private static AtomicLong _numPrefetchMisses  = null;
+	private static AtomicLong _numWriteBehind     = null; //async evictions
+	private static AtomicLong _curWriteBehind     = null; //current queue depth
+	private static AtomicLong _maxWriteBehind     = null; //max queue depth
 
 	static
 	{
@@ -89,6 +103,18 @@ public class CacheStatistics
 		_ctimeAcquireM = new AtomicLong(0);
 		_ctimeRelease = new AtomicLong(0);
 		_ctimeExport = new AtomicLong(0);
+		
+		_numBuffLockWaits = new AtomicLong(0);
+		_ctimeBuffLockWait = new AtomicLong(0);
+		_numBuffEvictWaits = new AtomicLong(0);
+		_ctimeBuffEvictWait = new AtomicLong(0);
+		_ctimeBuffEvict = new AtomicLong(0);
+		
+		_numPrefetchHits = new AtomicLong(0);
+		_numPrefetchMisses = new AtomicLong(0);
+		_numWriteBehind = new AtomicLong(0);
+		_curWriteBehind = new AtomicLong(0);
+		_maxWriteBehind = new AtomicLong(0);
 	}
 	
 	public static void incrementTotalHits()
@@ -252,6 +278,99 @@ public class CacheStatistics
 		return _ctimeExport.get();
 	}
 	
+	public static void incrementBuffLockWaits(long time)
+	{
+		_numBuffLockWaits.incrementAndGet();
+		_ctimeBuffLockWait.addAndGet(time);
+	}
+	
+	public static long getBuffLockWaits()
+	{
+		return _numBuffLockWaits.get();
+	}
+	
+	public static long getBuffLockWaitTime()
+	{
+		return _ctimeBuffLockWait.get();
+	}
+	
+	public static void incrementBuffEvictWaits(long time)
+	{
+		_numBuffEvictWaits.incrementAndGet();
+		_ctimeBuffEvictWait.addAndGet(time);
+	}
+	
+	public static long getBuffEvictWaits()
+	{
+		return _numBuffEvictWaits.get();
+	}
+	
+	public static long getBuffEvictWaitTime()
+	{
+		return _ctimeBuffEvictWait.get();
+	}
+	
+	public static void incrementBuffEvictTime(long delta)
+	{
+		_ctimeBuffEvict.addAndGet(delta);
+	}
+	
+	public static long getBuffEvictTime()
+	{
+		return _ctimeBuffEvict.get();
+	}
+	
+	public static void incrementPrefetchHits()
+	{
+		_numPrefetchHits.incrementAndGet();
+	}
+	
+	public static long getPrefetchHits()
+	{
+		return _numPrefetchHits.get();
+	}
+	
+	public static void incrementPrefetchMisses()
+	{
+		_numPrefetchMisses.incrementAndGet();
+	}
+	
+	public static long getPrefetchMisses()
+	{
+		return _numPrefetchMisses.get();
+	}
+	
+	public static void incrementWriteBehind()
+	{
+		_numWriteBehind.incrementAndGet();
+		long depth = _curWriteBehind.incrementAndGet();
+		
+		//maintain max queue depth via compare and swap
+		long max = _maxWriteBehind.get();
+		while( depth > max && !_maxWriteBehind.compareAndSet(max, depth) )
+			max = _maxWriteBehind.get();
+	}
+	
+	public static void decrementWriteBehind()
+	{
+		_curWriteBehind.decrementAndGet();
+	}
+	
+	public static long getWriteBehind()
+	{
+		return _numWriteBehind.get();
+	}
+	
+	public static long getWriteBehindQueueDepth()
+	{
+		return _curWriteBehind.get();
+	}
+	
+	public static long getMaxWriteBehindQueueDepth()
+	{
+		return _maxWriteBehind.get();
+	}
+	
 
 	public static String displayHits()
 	{	
@@ -297,5 +416,49 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static String displayPrefetch()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numPrefetchHits.get());
+		sb.append("/");
+		sb.append(_numPrefetchMisses.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayWriteBehind()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numWriteBehind.get());
+		sb.append("/");
+		sb.append(_curWriteBehind.get());
+		sb.append("/");
+		sb.append(_maxWriteBehind.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayBuffWaits()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numBuffLockWaits.get());
+		sb.append("/");
+		sb.append(_numBuffEvictWaits.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayBuffTime()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%.3f", ((double)_ctimeBuffLockWait.get())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeBuffEvictWait.get())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeBuffEvict.get())/1000000000)); //in sec
+		
+		return sb.toString();
+	}
+	
 	
 }
@@ -22,6 +22,7 @@ package org.apache.sysml.runtime.controlprogram.caching;
 import java.io.File;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang.mutable.MutableBoolean;
 import org.apache.commons.logging.Log;
@@ -74,6 +75,10 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	public static final String  CACHING_COUNTER_GROUP_NAME    = "SystemML Caching Counters";
 	public static final String  CACHING_EVICTION_FILEEXTENSION = ".dat";
 	public static final boolean CACHING_ASYNC_FILECLEANUP = true;
+	public static final boolean CACHING_ASYNC_WRITEBEHIND = true;
+	public static final double  CACHING_WRITEBEHIND_SIZE = 0.25; //relative to buffer size
+	public static final boolean CACHING_ASYNC_PREFETCH = true;
+	public static final boolean CACHING_MAPPED_FILES = true; //page-aligned eviction files
     
 	/**
 	 * Defines all possible cache status types for a data blob.
@@ -104,6 +109,9 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	/** Global sequence for generating unique ids. */
 	private static IDSequence _seq = null;   
 
+	/** Global I/O thread for asynchronous prefetch of evicted cache blocks. */
+	private static volatile ExecutorService _prefetcher = null;
+	
 	// Global eviction path and prefix (prefix used for isolation purposes)
     public static String cacheEvictionLocalFilePath = null; //set during init
     public static String cacheEvictionLocalFilePrefix = "cache";
@@ -173,6 +181,7 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	private String  _cacheFileName = null; //local eviction file name
 	private boolean _requiresLocalWrite = false; //flag if local write for read obj
 	private boolean _isAcquireFromEmpty = false; //flag if read from status empty 
+	private volatile boolean _prefetch = false;  //flag if async prefetch issued
 	
 	//spark-specific handles
 	//note: we use the abstraction of LineageObjects for two reasons: (1) to keep track of cleanup
@@ -425,6 +434,17 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		if( _data == null )
 			getCache();
 		
+		//consume prefetch (hit if async restore completed before)
+		if( _prefetch ) {
+			_prefetch = false;
+			if( DMLScript.STATISTICS ) {
+				if( _data != null )
+					CacheStatistics.incrementPrefetchHits();
+				else
+					CacheStatistics.incrementPrefetchMisses();
+			}
+		}
+		
 		if( _gpuHandle != null )
 			_gpuHandle.acquireHostRead();
 		
@@ -512,6 +532,7 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		//get object from cache
 		if( _data == null )
 			getCache();
+		_prefetch = false;
 
 		//read data from HDFS if required
 		if( isEmpty(true) && _data == null )
@@ -691,6 +712,7 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		clearReusableData();
 		_data = null;	
 		clearCache();
+		_prefetch = false;
 		
 		// clear rdd/broadcast back refs
 		if( _rddHandle != null )
@@ -705,6 +727,58 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		setEmpty();
 	}
 	
+	/**
+	 * Issues an asynchronous restore of an evicted cache block into the soft
+	 * reference cache, in order to overlap local reads with computation. A 
+	 * subsequent acquireRead finds the block in memory (prefetch hit), unless 
+	 * the restore did not finish in time or the garbage collector reclaimed it.
+	 * 
+	 * In-Status:  any;
+	 * Out-Status: unchanged.
+	 */
+	public void prefetch()
+	{
+		//probe w/o lock (prefetch already issued)
+		if( _prefetch || _prefetcher == null )
+			return;
+		
+		synchronized( this ) {
+			//only evicted cache blocks are subject to prefetch
+			if( _prefetch || !isCached(false) || _data != null 
+				|| (_cache != null && _cache.get() != null) )
+				return;
+			_prefetch = true;
+		}
+		
+		try {
+			_prefetcher.submit(new PrefetchTask(this));
+		}
+		catch(Exception ex) { //e.g., rejected after cleanup
+			_prefetch = false;
+		}
+	}
+	
+	/**
+	 * Restores the evicted cache block into the soft reference cache, 
+	 * if the prefetch has not been consumed or invalidated in the meantime.
+	 * Failures are ignored because acquireRead falls back to a sync restore.
+	 */
+	private synchronized void prefetchBlob()
+	{
+		if( !_prefetch || !isCached(false) || _data != null 
+			|| (_cache != null && _cache.get() != null) )
+			return;
+		
+		try {
+			restoreBlobIntoMemory();
+			createCache();
+		}
+		catch(CacheException ex) {
+			LOG.warn("Prefetch of "+getVarName()+" failed.", ex);
+		}
+		_data = null;
+	}
+	
 	/**
 	 * 
 	 * @throws CacheException
@@ -1340,6 +1414,12 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	 * 
 	 */
 	public synchronized static void cleanupCacheDir() {
+		//stop pending prefetches
+		if( _prefetcher != null ) {
+			_prefetcher.shutdownNow();
+			_prefetcher = null;
+		}
+		
 		//cleanup remaining cached writes
 		LazyWriteBuffer.cleanup();
 		
@@ -1408,6 +1488,10 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		//init write-ahead buffer
 		LazyWriteBuffer.init();
 		
+		//init prefetch thread
+		if( CACHING_ASYNC_PREFETCH && _prefetcher == null )
+			_prefetcher = LazyWriteBuffer.createIOThreadPool();
+		
 		_activeFlag = true; //turn on caching
 	}
 	
@@ -1422,4 +1506,21 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	public static synchronized void enableCaching() {
 		_activeFlag = true;
 	}
+	
+	/**
+	 * Task for asynchronous restore of an evicted cache block.
+	 */
+	private static class PrefetchTask implements Runnable 
+	{
+		private CacheableData<?> _cdata = null;
+		
+		public PrefetchTask( CacheableData<?> cdata ) {
+			_cdata = cdata;
+		}
+		
+		@Override
+		public void run() {
+			_cdata.prefetchBlob();
+		}
+	}
 }
@@ -23,15 +23,34 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
 /**
+ * Buffer pool of serialized cache blocks, shared by all local (parfor) workers.
  * 
+ * In order to reduce contention, the eviction queue is striped by file name, 
+ * where each stripe is guarded by its own lock. A global sequence number per 
+ * entry (assigned on insert, and on access for LRU) preserves the global FIFO/LRU 
+ * eviction order across stripes. Both serialization and file eviction are done 
+ * outside any critical section; entries in the process of eviction are tracked 
+ * in a separate map of pending evictions until their files are written. If 
+ * enabled, evictions are written behind by a dedicated I/O thread, bounded by 
+ * a write-behind budget, in order to not block the compute threads. Failed 
+ * evictions are recorded per file name and reported on reads of the affected 
+ * block (not to unrelated writers that triggered the eviction) until it is 
+ * deleted or overwritten.
  * 
  */
 public class LazyWriteBuffer 
@@ -41,15 +60,33 @@ public class LazyWriteBuffer
 		LRU   //least recently used eviction
 	}
 	
+	//max number of lock stripes of the eviction queue
+	private static final int MAX_STRIPES = 64;
+	
 	//global size limit in bytes
 	private static long _limit; 
 	
-	//current size in bytes
-	private static long _size;  
+	//current size in bytes (incl reserved but not yet serialized buffers)
+	private static AtomicLong _size = new AtomicLong(0);
+	
+	//global sequence number for eviction order across stripes
+	private static AtomicLong _seq = new AtomicLong(0);
+	
+	//striped eviction queues of <filename,buffer> pairs (implemented via linked 
+	//hash maps for (1) queue semantics and (2) constant time get/insert/delete)
+	private static EvictionQueue[] _mQueues;
+	
+	//buffers removed from the eviction queues but not yet written to local FS
+	private static ConcurrentHashMap<String, ByteBuffer> _mPending;
+	
+	//size in bytes of pending asynchronous evictions (write-behind)
+	private static AtomicLong _mPendingSize = new AtomicLong(0);
 	
-	//eviction queue of <filename,buffer> pairs (implemented via linked hash map 
-	//for (1) queue semantics and (2) constant time get/insert/delete operations)
-	private static EvictionQueue _mQueue;
+	//dedicated I/O thread for asynchronous evictions (write-behind)
+	private static ExecutorService _mWriter;
+	
+	//failures of (asynchronous) evictions by file name, reported on read
+	private static ConcurrentHashMap<String, IOException> _mFailed;
 	
 	//file cleaner for synchronous or asynchronous delete of evicted files
 	private static FileCleaner _fClean;
@@ -77,40 +114,28 @@ public class LazyWriteBuffer
 		//handle caching/eviction if it fits in writebuffer
 		if( !requiresWrite ) 
 		{			
-			ByteBuffer bbuff = null;
+			//reserve memory in buffer pool
+			long size = _size.addAndGet(lSize);
 			
-			//modify buffer pool
-			synchronized( _mQueue )
-			{
-				//evict matrices to make room (by default FIFO)
-				while( _size+lSize >= _limit )
-				{
-					//remove first entry from eviction queue
-					Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-					String ftmp = entry.getKey();
-					ByteBuffer tmp = entry.getValue();
-					
-					if( tmp != null ) 
-					{
-						//wait for pending serialization
-						tmp.checkSerialized();
-						
-						//evict matrix
-						tmp.evictBuffer(ftmp);
-						tmp.freeMemory();
-						_size-=tmp.getSize();
-						
-						if( DMLScript.STATISTICS )
-							CacheStatistics.incrementFSWrites();
-					}
-				}
-				
-				//create buffer (reserve mem), and lock
-				bbuff = new ByteBuffer( lSize );
-				
-				//put placeholder into buffer pool 
-				_mQueue.addLast(fname, bbuff);
-				_size += lSize;	
+			//evict matrices to make room (by default FIFO), where
+			//serialization and writes happen outside critical sections
+			while( size >= _limit && evictFirst() )
+				size = _size.get();
+			
+			//wait for pending eviction of previous buffer w/ same file name
+			//(failures of the previous eviction obsolete due to overwrite)
+			waitForPendingEviction(fname);
+			_mFailed.remove(fname);
+			
+			//create buffer, and put placeholder into buffer pool 
+			ByteBuffer bbuff = new ByteBuffer( lSize );
+			EvictionQueue queue = getQueue(fname);
+			queue.lock();
+			try {
+				queue.addLast(fname, bbuff);
+			}
+			finally {
+				queue.unlock();
 			}
 			
 			//serialize matrix (outside synchronized critical path)
@@ -122,6 +147,8 @@ public class LazyWriteBuffer
 		else
 		{
 			//write directly to local FS (bypass buffer if too large)
+			waitForPendingEviction(fname);
+			_mFailed.remove(fname);
 			LocalFileUtils.writeCacheBlockToLocal(fname, cb);
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSWrites();
@@ -134,22 +161,28 @@ public class LazyWriteBuffer
 	 */
 	public static void deleteBlock( String fname )
 	{
-		boolean requiresDelete = true;
+		ByteBuffer ldata = null;
 		
-		synchronized( _mQueue )
-		{
-			//remove queue entry 
-			ByteBuffer ldata = _mQueue.remove(fname);
-			if( ldata != null ) {
-				_size -= ldata.getSize(); 
-				requiresDelete = false;
-				ldata.freeMemory(); //cleanup
-			}
+		//remove queue entry 
+		EvictionQueue queue = getQueue(fname);
+		queue.lock();
+		try {
+			ldata = queue.remove(fname);
+		}
+		finally {
+			queue.unlock();
 		}
 		
-		//delete from FS if required
-		if( requiresDelete )
+		if( ldata != null ) {
+			_size.addAndGet(-ldata.getSize()); 
+			ldata.freeMemory(); //cleanup
+		}
+		else {
+			//delete from FS, after a pending eviction is done
+			waitForPendingEviction(fname);
+			_mFailed.remove(fname);
 			_fClean.deleteFile(fname);
+		}
 	}
 	
 	/**
@@ -165,29 +198,39 @@ public class LazyWriteBuffer
 		ByteBuffer ldata = null;
 		
 		//probe write buffer
-		synchronized( _mQueue )
-		{
-			ldata = _mQueue.get(fname);
+		EvictionQueue queue = getQueue(fname);
+		queue.lock();
+		try {
+			ldata = queue.get(fname);
 			
 			//modify eviction order (accordingly to access)
 			if(    CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU 
 				&& ldata != null )
 			{
 				//reinsert entry at end of eviction queue
-				_mQueue.remove( fname );
-				_mQueue.addLast( fname, ldata );
+				queue.remove( fname );
+				queue.addLast( fname, ldata );
 			}
 		}
+		finally {
+			queue.unlock();
+		}
 		
-		//deserialize or read from FS if required
+		//deserialize (null if concurrently evicted and freed)
 		if( ldata != null )
-		{
 			cb = ldata.deserializeBlock();
+		
+		if( cb != null ) {
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSBuffHits();
 		}
-		else
-		{
+		else {
+			//read from FS, after a pending eviction is done
+			//(report failed eviction of this block until deleted/overwritten)
+			waitForPendingEviction(fname);
+			IOException err = _mFailed.get(fname);
+			if( err != null )
+				throw new IOException("Eviction of "+fname+" failed.", err);
 			cb = LocalFileUtils.readCacheBlockFromLocal(fname, matrix); 
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSHits();
@@ -195,14 +238,185 @@ public class LazyWriteBuffer
 		
 		return cb;
 	}
+	
+	/**
+	 * Evicts the globally first entry (w.r.t. FIFO/LRU order) of all stripes. 
+	 * Only the selection of the victim is done under the stripe locks, while the 
+	 * wait for pending serialization and the write to local FS are done outside.
+	 * 
+	 * @return false if the buffer pool is empty, otherwise true
+	 */
+	private static boolean evictFirst() 
+	{
+		Entry<String, ByteBuffer> entry = null;
+		
+		//select victim w/ min sequence number (retry on concurrent modification)
+		while( entry == null )
+		{
+			EvictionQueue victim = null;
+			long minSeq = Long.MAX_VALUE;
+			for( EvictionQueue queue : _mQueues ) {
+				queue.lock();
+				try {
+					long seq = queue.getFirstSequence();
+					if( seq < minSeq ) {
+						minSeq = seq;
+						victim = queue;
+					}
+				}
+				finally {
+					queue.unlock();
+				}
+			}
+			if( victim == null )
+				return false; //empty buffer pool
+			
+			victim.lock();
+			try {
+				if( victim.getFirstSequence() == minSeq ) {
+					entry = victim.removeFirst();
+					//register pending eviction before the stripe lock is released
+					_mPending.put(entry.getKey(), entry.getValue());
+					_size.addAndGet(-entry.getValue().getSize());
+				}
+			}
+			finally {
+				victim.unlock();
+			}
+		}
+		
+		String ftmp = entry.getKey();
+		ByteBuffer tmp = entry.getValue();
+		
+		//write-behind via I/O thread if within budget, otherwise sync write
+		ExecutorService writer = _mWriter;
+		if( writer != null ) {
+			long budget = (long)(CacheableData.CACHING_WRITEBEHIND_SIZE * _limit);
+			if( _mPendingSize.addAndGet(tmp.getSize()) <= budget ) {
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementWriteBehind();
+				try {
+					writer.execute(new EvictionTask(ftmp, tmp));
+					return true;
+				}
+				catch(RejectedExecutionException ex) {
+					//fallback to sync write (concurrent cleanup)
+					if( DMLScript.STATISTICS )
+						CacheStatistics.decrementWriteBehind();
+				}
+			}
+			_mPendingSize.addAndGet(-tmp.getSize());
+		}
+		evictBuffer(ftmp, tmp);
+		
+		return true;
+	}
+	
+	/**
+	 * Writes the given buffer, which has been removed from the eviction queue 
+	 * and registered as pending eviction, to local FS and frees its memory.
+	 * Failures are recorded for (and thrown on) subsequent reads of this block.
+	 * 
+	 * @param ftmp
+	 * @param tmp
+	 */
+	private static void evictBuffer( String ftmp, ByteBuffer tmp ) 
+	{
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		
+		try {
+			//wait for pending serialization
+			tmp.checkSerialized();
+			
+			//evict matrix
+			tmp.evictBuffer(ftmp);
+		}
+		catch(IOException ex) {
+			//record failure before readers of this file are unblocked
+			_mFailed.put(ftmp, ex);
+		}
+		finally {
+			//unblock readers/writers of the evicted file
+			_mPending.remove(ftmp);
+			synchronized( tmp ) {
+				tmp.notifyAll();
+			}
+		}
+		tmp.freeMemory();
+		
+		if( DMLScript.STATISTICS ) {
+			CacheStatistics.incrementFSWrites();
+			CacheStatistics.incrementBuffEvictTime(System.nanoTime()-t0);
+		}
+	}
+	
+	/**
+	 * Waits until a pending eviction of the given file (if any) is 
+	 * completed, i.e., the evicted buffer has been written to local FS.
+	 * 
+	 * @param fname
+	 */
+	private static void waitForPendingEviction( String fname )
+	{
+		ByteBuffer bbuff = _mPending.get(fname);
+		if( bbuff == null )
+			return;
+		
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		synchronized( bbuff ) {
+			while( _mPending.get(fname) == bbuff ) {
+				try {
+					bbuff.wait();
+				}
+				catch(InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementBuffEvictWaits(System.nanoTime()-t0);
+	}
+	
+	/**
+	 * Creates a pool with a single I/O thread, which terminates if idle 
+	 * in order to not prevent JVM shutdown without cleanup (e.g., JMLC).
+	 * 
+	 * @return
+	 */
+	protected static ExecutorService createIOThreadPool() {
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 
+			10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+	
+	/**
+	 * 
+	 * @param fname
+	 * @return
+	 */
+	private static EvictionQueue getQueue( String fname ) {
+		return _mQueues[(fname.hashCode() & Integer.MAX_VALUE) % _mQueues.length];
+	}
 		
 	/**
 	 * 
 	 */
 	public static void init() {
-		_mQueue = new EvictionQueue();
+		//number of stripes: power of two >= 2x local parallelism
+		int k = InfrastructureAnalyzer.getLocalParallelism();
+		int nstripes = Math.min(Integer.highestOneBit(Math.max(2*k-1, 1))<<1, MAX_STRIPES);
+		_mQueues = new EvictionQueue[nstripes];
+		for( int i=0; i<nstripes; i++ )
+			_mQueues[i] = new EvictionQueue();
+		_mPending = new ConcurrentHashMap<String, ByteBuffer>();
+		_mPendingSize.set(0);
+		_mWriter = CacheableData.CACHING_ASYNC_WRITEBEHIND ? 
+			createIOThreadPool() : null;
+		_mFailed = new ConcurrentHashMap<String, IOException>();
 		_fClean = new FileCleaner();
-		_size = 0;
+		_size.set(0);
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
 	}
@@ -211,8 +425,33 @@ public class LazyWriteBuffer
 	 * 
 	 */
 	public static void cleanup() {
-		if( _mQueue != null )
-			_mQueue.clear();
+		//drop queued and wait for running evictions
+		//(cache files are subsequently deleted anyway)
+		if( _mWriter != null ) {
+			for( Runnable task : _mWriter.shutdownNow() )
+				((EvictionTask)task).cancel();
+			try {
+				_mWriter.awaitTermination(60, TimeUnit.SECONDS);
+			}
+			catch(InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			_mWriter = null;
+		}
+		if( _mQueues != null )
+			for( EvictionQueue queue : _mQueues ) {
+				queue.lock();
+				try {
+					queue.clear();
+				}
+				finally {
+					queue.unlock();
+				}
+			}
+		if( _mPending != null )
+			_mPending.clear();
+		if( _mFailed != null )
+			_mFailed.clear();
 		if( _fClean != null )
 			_fClean.close();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
@@ -228,6 +467,16 @@ public class LazyWriteBuffer
 		return (long)(CacheableData.CACHING_BUFFER_SIZE * maxMem);
 	}
 	
+	/**
+	 * Sets the size limit of the write buffer in bytes, e.g., to test 
+	 * evictions with small buffers. Use getWriteBufferSize() to reset.
+	 * 
+	 * @param limit
+	 */
+	public static void setWriteBufferLimit( long limit ) {
+		_limit = limit;
+	}
+	
 	/**
 	 * 
 	 */
@@ -236,37 +485,73 @@ public class LazyWriteBuffer
 		System.out.println("WRITE BUFFER STATUS ("+position+") --");
 		
 		//print buffer meta data
+		int size = 0;
+		for( EvictionQueue queue : _mQueues )
+			size += queue.size();
 		System.out.println("\tWB: Buffer Meta Data: " +
 				     "limit="+_limit+", " +
-				     "size[bytes]="+_size+", " +
-				     "size[elements]="+_mQueue.size()+"/"+_mQueue.size());
+				     "size[bytes]="+_size.get()+", " +
+				     "size[elements]="+size+"/"+size+", " +
+				     "stripes="+_mQueues.length+", " +
+				     "pending="+_mPending.size()+"/"+_mPendingSize.get());
 		
-		//print current buffer entries
-		int count = _mQueue.size();
-		for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() )
-		{
-			String fname = entry.getKey();
-			ByteBuffer bbuff = entry.getValue();
-			
-			System.out.println("\tWB: buffer element ("+count+"): "+fname+", "+bbuff.getSize()+", "+bbuff.isShallow());
-			count--;
+		//print current buffer entries (per stripe)
+		int count = size;
+		for( EvictionQueue queue : _mQueues ) {
+			queue.lock();
+			try {
+				for( Entry<String, ByteBuffer> entry : queue.entrySet() )
+				{
+					String fname = entry.getKey();
+					ByteBuffer bbuff = entry.getValue();
+					
+					System.out.println("\tWB: buffer element ("+count+"): "+fname+", "+bbuff.getSize()+", "+bbuff.isShallow());
+					count--;
+				}
+			}
+			finally {
+				queue.unlock();
+			}
 		}
 	}
 	
 	/**
 	 * Extended LinkedHashMap with convenience methods for adding and removing 
-	 * last/first entries.
+	 * last/first entries, guarded by a stripe-local lock. All methods except 
+	 * lock/unlock require the caller to hold the lock.
 	 * 
 	 */
 	private static class EvictionQueue extends LinkedHashMap<String, ByteBuffer>
 	{
 		private static final long serialVersionUID = -5208333402581364859L;
 		
+		private final ReentrantLock _lock = new ReentrantLock();
+		
+		public void lock() {
+			//fast path w/o contention, otherwise blocking w/ statistics
+			if( _lock.tryLock() )
+				return;
+			long t0 = System.nanoTime();
+			_lock.lock();
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementBuffLockWaits(System.nanoTime()-t0);
+		}
+		
+		public void unlock() {
+			_lock.unlock();
+		}
+		
 		public void addLast( String fname, ByteBuffer bbuff ) {
 			//put entry into eviction queue w/ 'addLast' semantics
+			bbuff.setSequence(_seq.incrementAndGet());
 			put(fname, bbuff);
 		}
 		
+		public long getFirstSequence() {
+			return isEmpty() ? Long.MAX_VALUE : 
+				values().iterator().next().getSequence();
+		}
+		
 		public Entry<String, ByteBuffer> removeFirst() 
 		{
 			//move iterator to first entry
@@ -280,6 +565,43 @@ public class LazyWriteBuffer
 		}
 	}
 	
+	/**
+	 * Asynchronous eviction of a single buffer (write-behind).
+	 */
+	private static class EvictionTask implements Runnable
+	{
+		private final String _fname;
+		private final ByteBuffer _bbuff;
+		
+		public EvictionTask( String fname, ByteBuffer bbuff ) {
+			_fname = fname;
+			_bbuff = bbuff;
+		}
+		
+		@Override
+		public void run() {
+			try {
+				evictBuffer(_fname, _bbuff);
+			}
+			finally {
+				_mPendingSize.addAndGet(-_bbuff.getSize());
+				if( DMLScript.STATISTICS )
+					CacheStatistics.decrementWriteBehind();
+			}
+		}
+		
+		public void cancel() {
+			//unblock readers/writers w/o eviction
+			_mPending.remove(_fname);
+			synchronized( _bbuff ) {
+				_bbuff.notifyAll();
+			}
+			_mPendingSize.addAndGet(-_bbuff.getSize());
+			if( DMLScript.STATISTICS )
+				CacheStatistics.decrementWriteBehind();
+		}
+	}
+	
 	/**
 	 * File delete service for abstraction of synchronous and asynchronous 
 	 * file cleanup on rmvar/cpvar. The threadpool for asynchronous cleanup
@@ -27,10 +27,12 @@ import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.estim.DensityMap;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysml.runtime.controlprogram.ParForProgramBlock.PDataPartitionFormat;
 import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
 import org.apache.sysml.runtime.instructions.gpu.context.GPUContext;
@@ -67,7 +69,8 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	public enum UpdateType {
 		COPY,
 		INPLACE,
-		INPLACE_PINNED;
+		INPLACE_PINNED,
+		INPLACE_SHARED; //dense, pinned, and shared by concurrent parfor workers
 		public boolean isInPlace() {
 			return (this != COPY);
 		}
@@ -82,6 +85,9 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	private int _partitionSize = -1; //indicates n for BLOCKWISE_N
 	private String _partitionCacheName = null; //name of cache block
 	private MatrixBlock _partitionInMemory = null;
+	
+	//block-level density map of read data, for sparsity estimates
+	private transient DensityMap _dmap = null;
 
 	/**
 	 * Constructor that takes only the HDFS filename.
@@ -124,6 +130,7 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		_partitionFormat = mo._partitionFormat;
 		_partitionSize = mo._partitionSize;
 		_partitionCacheName = mo._partitionCacheName;
+		_dmap = mo._dmap;
 	}
 	
 
@@ -164,6 +171,9 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		mc.setDimension( _data.getNumRows(),
 						 _data.getNumColumns() );
 		mc.setNonZeros( _data.getNonZeros() );		
+		
+		//invalidate density map of modified data
+		_dmap = null;
 	}
 	
 	/**
@@ -220,6 +230,16 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		return ((double)mc.getNonZeros())/mc.getRows()/mc.getCols();
 	}
 	
+	/**
+	 * Get the block-level density map, which is collected whenever the
+	 * matrix is read from HDFS or collected from an RDD. 
+	 * 
+	 * @return density map, or null if unavailable
+	 */
+	public DensityMap getDensityMap() {
+		return _dmap;
+	}
+	
 	@Override
 	protected void clearReusableData() {
 		if(DMLScript.REUSE_NONZEROED_OUTPUT) {
@@ -229,7 +249,7 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 			if(_data != null &&  
 					// Not a column vector
 					_data.getNumRows() != 1 && _data.getNumColumns() != 1) {
-				double[] arr = _data.getDenseBlock();
+				double[] arr = _data.getDenseBlockValues();
 				LibMatrixDNN.cacheReuseableData(arr);
 			}
 		}
@@ -552,7 +572,8 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	@Override
 	protected boolean isBelowCachingThreshold() {
 		return super.isBelowCachingThreshold()
-			|| getUpdateType() == UpdateType.INPLACE_PINNED;
+			|| getUpdateType() == UpdateType.INPLACE_PINNED
+			|| getUpdateType() == UpdateType.INPLACE_SHARED;
 	}
 	
 	@Override
@@ -561,6 +582,15 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	}
 	
 
+	@Override
+	protected MatrixBlock readBlobFromHDFS(String fname) 
+		throws IOException
+	{
+		MatrixBlock mb = super.readBlobFromHDFS(fname);
+		collectDensityMap(mb);
+		return mb;
+	}
+	
 	@Override
 	protected MatrixBlock readBlobFromHDFS(String fname, long rlen, long clen)
 		throws IOException
@@ -635,15 +665,17 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 					((RDDObject)rdd).setHDFSFile(true); //mark rdd as hdfs file (for restore)
 					writeStatus.setValue(true);         //mark for no cache-write on read
 				}
-				mb = readBlobFromHDFS(_hdfsFileName);
+				mb = readBlobFromHDFS(_hdfsFileName); //incl density map
 			}
 			else if( ii == InputInfo.BinaryCellInputInfo ) {
 				//collect matrix block from binary block RDD
 				mb = SparkExecutionContext.toMatrixBlock(lrdd, rlen, clen, nnz);		
+				collectDensityMap(mb);
 			}
 			else {
 				//collect matrix block from binary cell RDD
 				mb = SparkExecutionContext.toMatrixBlock(lrdd, rlen, clen, brlen, bclen, nnz);	
+				collectDensityMap(mb);
 			}
 		}
 		catch(DMLRuntimeException ex) {
@@ -658,6 +690,17 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		return mb;
 	}
 	
+	/**
+	 * Collects the density map of the given, newly read matrix block 
+	 * (single pass over sparse blocks, no pass over dense blocks).
+	 * 
+	 * @param mb
+	 */
+	private void collectDensityMap(MatrixBlock mb) {
+		_dmap = OptimizerUtils.ALLOW_DENSITY_MAP_ESTIMATES ? 
+			DensityMap.create(mb) : null;
+	}
+	
 	/**
 	 * Writes in-memory matrix to HDFS in a specified format.
 	 * 
@@ -685,15 +728,18 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 			OutputInfo oinfo = (ofmt != null ? OutputInfo.stringToOutputInfo (ofmt) : 
 					InputInfo.getMatchingOutputInfo (iimd.getInputInfo ()));
 			
+			// decompress compressed blocks (not supported by output formats)
+			MatrixBlock data = CompressedMatrixBlock.getUncompressed(_data);
+			
 			// when outputFormat is binaryblock, make sure that matrixCharacteristics has correct blocking dimensions
 			// note: this is only required if singlenode (due to binarycell default) 
 			if ( oinfo == OutputInfo.BinaryBlockOutputInfo && DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE &&
 				(mc.getRowsPerBlock() != ConfigurationManager.getBlocksize() || mc.getColsPerBlock() != ConfigurationManager.getBlocksize()) ) 
 			{
-				DataConverter.writeMatrixToHDFS(_data, fname, oinfo, new MatrixCharacteristics(mc.getRows(), mc.getCols(), ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize(), mc.getNonZeros()), rep, fprop);
+				DataConverter.writeMatrixToHDFS(data, fname, oinfo, new MatrixCharacteristics(mc.getRows(), mc.getCols(), ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize(), mc.getNonZeros()), rep, fprop);
 			}
 			else {
-				DataConverter.writeMatrixToHDFS(_data, fname, oinfo, mc, rep, fprop);
+				DataConverter.writeMatrixToHDFS(data, fname, oinfo, mc, rep, fprop);
 			}
 
 			if( LOG.isTraceEnabled() )
@@ -28,6 +28,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.spark.SparkConf;
@@ -54,6 +55,7 @@ import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.instructions.cp.Data;
 import org.apache.sysml.runtime.instructions.spark.CheckpointSPInstruction;
+import org.apache.sysml.runtime.instructions.spark.CompressionSPInstruction.DecompressionFunction;
 import org.apache.sysml.runtime.instructions.spark.SPInstruction;
 import org.apache.sysml.runtime.instructions.spark.data.BlockPartitioner;
 import org.apache.sysml.runtime.instructions.spark.data.BroadcastObject;
@@ -68,7 +70,9 @@ import org.apache.sysml.runtime.instructions.spark.functions.CopyTextInputFuncti
 import org.apache.sysml.runtime.instructions.spark.functions.CreateSparseBlockFunction;
 import org.apache.sysml.runtime.instructions.spark.utils.FrameRDDConverterUtils.LongFrameToLongWritableFrameFunction;
 import org.apache.sysml.runtime.instructions.spark.utils.RDDAggregateUtils;
+import org.apache.sysml.runtime.instructions.spark.utils.SparkKryoRegistrator;
 import org.apache.sysml.runtime.instructions.spark.utils.SparkUtils;
+import org.apache.sysml.runtime.io.BlockCompressionUtils;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
@@ -92,6 +96,7 @@ public class SparkExecutionContext extends ExecutionContext
 	private static boolean LAZY_SPARKCTX_CREATION = true;
 	private static boolean ASYNCHRONOUS_VAR_DESTROY = true;
 	private static boolean FAIR_SCHEDULER_MODE = true;
+	private static boolean KRYO_SERIALIZATION = true;
 	
 	//executor memory and relative fractions as obtained from the spark configuration
 	private static SparkClusterConfig _sconf = null;
@@ -203,6 +208,7 @@ public class SparkExecutionContext extends ExecutionContext
 				// This is discouraged in spark but have added only for those testcase that cannot stop the context properly
 				// conf.set("spark.driver.allowMultipleContexts", "true");
 				conf.set("spark.ui.enabled", "false");
+				setSerializationConfig(conf);
 				_spctx = new JavaSparkContext(conf);
 			}
 			else //default cluster setup
@@ -220,6 +226,9 @@ public class SparkExecutionContext extends ExecutionContext
 					conf.set("spark.scheduler.mode", "FAIR");
 				}
 				
+				//use kryo with custom serializers for shuffle, broadcast, and storage
+				setSerializationConfig(conf);
+				
 				_spctx = new JavaSparkContext(conf);
 			}
 		}
@@ -235,6 +244,24 @@ public class SparkExecutionContext extends ExecutionContext
 		}
 	}	
 	
+	/**
+	 * Sets kryo as spark serializer with our custom registrator, which redirects the
+	 * serialization of matrix indexes, matrix/frame blocks, and partitioned blocks to
+	 * our efficient writable serialization. Existing user configurations of the spark
+	 * serializer or kryo registrator take precedence.
+	 * 
+	 * @param conf
+	 */
+	private static void setSerializationConfig(SparkConf conf)
+	{
+		if( !KRYO_SERIALIZATION || conf.contains("spark.serializer") )
+			return;
+		
+		conf.set("spark.serializer", "org.apache.spark.serializer.KryoSerializer");
+		if( !conf.contains("spark.kryo.registrator") )
+			conf.set("spark.kryo.registrator", SparkKryoRegistrator.class.getName());
+	}
+	
 	/**
 	 * Spark instructions should call this for all matrix inputs except broadcast
 	 * variables.
@@ -354,7 +381,8 @@ public class SparkExecutionContext extends ExecutionContext
 				//recordreader returns; the javadoc explicitly recommend to copy all key/value pairs
 				rdd = ((JavaPairRDD<MatrixIndexes, MatrixBlock>)rdd).mapToPair( new CopyBlockPairFunction() ); //cp is workaround for read bug
 			}
-			else if(inputInfo == InputInfo.TextCellInputInfo || inputInfo == InputInfo.CSVInputInfo || inputInfo == InputInfo.MatrixMarketInputInfo) {
+			else if(inputInfo == InputInfo.TextCellInputInfo || inputInfo == InputInfo.CSVInputInfo 
+				|| inputInfo == InputInfo.MatrixMarketInputInfo || inputInfo == InputInfo.LIBSVMInputInfo) {
 				rdd = getSparkContext().hadoopFile( mo.getFileName(), inputInfo.inputFormatClass, inputInfo.inputKeyClass, inputInfo.inputValueClass);
 				rdd = ((JavaPairRDD<LongWritable, Text>)rdd).mapToPair( new CopyTextInputFunction() ); //cp is workaround for read bug
 			}
@@ -993,17 +1021,29 @@ public class SparkExecutionContext extends ExecutionContext
 	 * 
 	 * @param rdd
 	 * @param oinfo
+	 * @throws IOException 
 	 */
 	@SuppressWarnings("unchecked")
-	public static long writeRDDtoHDFS( RDDObject rdd, String path, OutputInfo oinfo )
+	public static long writeRDDtoHDFS( RDDObject rdd, String path, OutputInfo oinfo ) 
+		throws IOException
 	{
 		JavaPairRDD<MatrixIndexes,MatrixBlock> lrdd = (JavaPairRDD<MatrixIndexes, MatrixBlock>) rdd.getRDD();
 		
+		//decompress compressed blocks (not supported by output formats)
+		lrdd = lrdd.mapValues(new DecompressionFunction());
+		
 		//recompute nnz 
 		long nnz = SparkUtils.computeNNZFromBlocks(lrdd);
 		
 		//save file is an action which also triggers nnz maintenance
-		lrdd.saveAsHadoopFile(path, 
+		//(binary block files block-compressed if configured)
+		Class<? extends CompressionCodec> codec = (oinfo == OutputInfo.BinaryBlockOutputInfo) ?
+				BlockCompressionUtils.getConfiguredCodecClass() : null;
+		if( codec != null )
+			lrdd.saveAsHadoopFile(path, oinfo.outputKeyClass, 
+				oinfo.outputValueClass, oinfo.outputFormatClass, codec);
+		else
+			lrdd.saveAsHadoopFile(path, 
 				oinfo.outputKeyClass, 
 				oinfo.outputValueClass, 
 				oinfo.outputFormatClass);
@@ -1233,8 +1273,10 @@ public class SparkExecutionContext extends ExecutionContext
 				in = in.coalesce( numPartitions );
 		}
 		
-		//repartition rdd (force creation of shuffled rdd via merge)
-		JavaPairRDD<MatrixIndexes,MatrixBlock> out = RDDAggregateUtils.mergeByKey(in);
+		//repartition rdd (force creation of shuffled rdd via merge), w/ block
+		//partitioner if possible in order to allow for partition pruning
+		JavaPairRDD<MatrixIndexes,MatrixBlock> out = mcIn.dimsKnown() ?
+				RDDAggregateUtils.mergeByKey(mcIn, in) : RDDAggregateUtils.mergeByKey(in);
 		
 		//convert mcsr into memory-efficient csr if potentially sparse
 		if( OptimizerUtils.checkSparseBlockCSRConversion(mcIn) ) {				
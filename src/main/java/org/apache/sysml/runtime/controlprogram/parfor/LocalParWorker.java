@@ -40,6 +40,7 @@ import org.apache.sysml.runtime.controlprogram.parfor.stat.Timing;
 public class LocalParWorker extends ParWorker implements Runnable
 {
 	protected LocalTaskQueue<Task> _taskQueue   = null;
+	protected int _queueIx = 0; //index of worker deque in task queue
 	
 	protected Collection<String> _fnNames = null;
 	
@@ -47,11 +48,12 @@ public class LocalParWorker extends ParWorker implements Runnable
 	protected boolean   _stopped     = false;
 	protected int 		_max_retry   = -1;
 	
-	public LocalParWorker( long ID, LocalTaskQueue<Task> q, ParForBody body, CompilerConfig cconf, int max_retry, boolean monitor )	
+	public LocalParWorker( long ID, LocalTaskQueue<Task> q, int qIx, ParForBody body, CompilerConfig cconf, int max_retry, boolean monitor )	
 	{
 		super(ID, body, monitor);
 
 		_taskQueue = q;
+		_queueIx = qIx;
 		
 		_cconf = cconf;
 		_stopped   = false;
@@ -91,13 +93,17 @@ public class LocalParWorker extends ParWorker implements Runnable
 		
 		// continuous execution (execute tasks until (1) stopped or (2) no more tasks)
 		Task lTask = null; 
+		long waitTime = 0; //queue wait time in ns
 		
 		while( !_stopped ) 
 		{
 			//dequeue the next task (abort on NO_MORE_TASKS or error)
 			try
 			{
-				lTask = _taskQueue.dequeueTask();
+				long t0 = _monitor ? System.nanoTime() : 0;
+				lTask = _taskQueue.dequeueTask(_queueIx);
+				if( _monitor )
+					waitTime += System.nanoTime() - t0;
 				
 				if( lTask == LocalTaskQueue.NO_MORE_TASKS ) // task queue closed (no more tasks)
 					break; //normal end of parallel worker
@@ -150,6 +156,7 @@ public class LocalParWorker extends ParWorker implements Runnable
 			StatisticMonitor.putPWStat(_workerID, Stat.PARWRK_NUMTASKS, _numTasks);
 			StatisticMonitor.putPWStat(_workerID, Stat.PARWRK_NUMITERS, _numIters);
 			StatisticMonitor.putPWStat(_workerID, Stat.PARWRK_EXEC_T, time1.stop());
+			StatisticMonitor.putPWStat(_workerID, Stat.PARWRK_WAIT_T, ((double)waitTime)/1000000);
 		}
 	}
 }
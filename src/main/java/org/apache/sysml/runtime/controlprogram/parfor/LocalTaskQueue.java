@@ -19,7 +19,11 @@
 
 package org.apache.sysml.runtime.controlprogram.parfor;
 
-import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -30,11 +34,14 @@ import org.apache.commons.logging.LogFactory;
  * for achieving dynamic load balancing. A good load balance between parallel workers is crucial
  * with regard to the overall speedup of parallelization (see Amdahl's law).
  * 
- * From a technical perspective, a thread monitor concept is used for blocking of waiting writers
- * and readers. Synchronized writes and reads ensure that each task is only read by exactly one
- * reader. Furthermore, the queue is implemented as a simple FIFO.
+ * From a technical perspective, the queue is lock-free: tasks are distributed round-robin 
+ * to per-worker concurrent deques, where each worker takes tasks from the head of its own
+ * deque and, if empty, steals tasks from the tail of other workers' deques (work stealing).
+ * Hence, idle workers take over remaining tasks of slow workers, while the common case 
+ * requires no contention on a shared monitor. Waiting readers spin briefly and are then 
+ * parked until new tasks arrive or the input is closed; the bounded queue size blocks 
+ * writers in the same manner. With a single deque (default), the queue is a simple FIFO.
  * 
- *
  */
 public class LocalTaskQueue<T> 
 {
@@ -42,104 +49,208 @@ public class LocalTaskQueue<T>
 	public static final int    MAX_SIZE      = 100000; //main memory constraint
 	public static final Object NO_MORE_TASKS = null; //object to signal NO_MORE_TASKS
 	
-	private LinkedList<T>  _data        = null;
-	private boolean 	   _closedInput = false; 
+	private static final int  SPIN_COUNT     = 64;      //spins before parking of readers
+	private static final long MAX_PARK_NANOS = 1000000; //max park time (1ms) to bound lost wake-ups
+	
+	private final ConcurrentLinkedDeque<T>[] _data;
+	private final AtomicInteger _size     = new AtomicInteger(0);
+	private final AtomicInteger _nextIx   = new AtomicInteger(0);
+	private final AtomicLong    _numSteals = new AtomicLong(0);
+	private final ConcurrentLinkedQueue<Thread> _waiting = new ConcurrentLinkedQueue<Thread>();
+	private volatile boolean _closedInput = false; 
+	
 	private static final Log LOG = LogFactory.getLog(LocalTaskQueue.class.getName());
 	
 	public LocalTaskQueue()
 	{
-		_data        = new LinkedList<T>();
+		this(1);
+	}
+	
+	/**
+	 * Creates a task queue with the given number of per-worker deques,
+	 * where workers are expected to dequeue with their worker index.
+	 * 
+	 * @param numWorkers
+	 */
+	@SuppressWarnings("unchecked")
+	public LocalTaskQueue( int numWorkers )
+	{
+		_data = (ConcurrentLinkedDeque<T>[]) new ConcurrentLinkedDeque[Math.max(numWorkers, 1)];
+		for( int i=0; i<_data.length; i++ )
+			_data[i] = new ConcurrentLinkedDeque<T>();
 		_closedInput = false;
 	}
 	
 	/**
-	 * Synchronized insert of a new task to the end of the FIFO queue.
+	 * Lock-free insert of a new task to the end of the next worker deque (round robin).
 	 * 
 	 * @param t
 	 * @throws InterruptedException
 	 */
-	public synchronized void enqueueTask( T t ) 
+	public void enqueueTask( T t ) 
 		throws InterruptedException
 	{
-		while( _data.size() + 1 > MAX_SIZE )
+		if( _size.get() + 1 > MAX_SIZE )
 		{
 			LOG.warn("MAX_SIZE of task queue reached.");
-			wait(); //max constraint reached, wait for read
+			while( _size.get() + 1 > MAX_SIZE ) { 
+				LockSupport.parkNanos(this, MAX_PARK_NANOS); //max constraint reached, wait for read
+				if( Thread.interrupted() )
+					throw new InterruptedException();
+			}
 		}
 		
-		_data.addLast( t );
+		int ix = (_data.length == 1) ? 0 :
+			(_nextIx.getAndIncrement() & Integer.MAX_VALUE) % _data.length;
+		_size.incrementAndGet();
+		_data[ix].offerLast( t );
 		
-		notify(); //notify waiting readers
+		//notify one waiting reader
+		Thread reader = _waiting.poll();
+		if( reader != null )
+			LockSupport.unpark(reader);
+	}
+	
+	/**
+	 * Lock-free read and delete from the top of the first deque.
+	 * 
+	 * @return
+	 * @throws InterruptedException
+	 */
+	public T dequeueTask() 
+		throws InterruptedException
+	{
+		return dequeueTask(0);
 	}
 	
 	/**
-	 * Synchronized read and delete from the top of the FIFO queue.
+	 * Lock-free read and delete from the top of the given worker's deque, or
+	 * from the tail of other deques if empty (work stealing). This call blocks
+	 * until a task is available or NO_MORE_TASKS if the input is closed. 
 	 * 
+	 * @param workerIx
 	 * @return
 	 * @throws InterruptedException
 	 */
 	@SuppressWarnings("unchecked")
-	public synchronized T dequeueTask() 
+	public T dequeueTask( int workerIx ) 
 		throws InterruptedException
 	{
-		while( _data.isEmpty() )
+		int ix = workerIx % _data.length;
+		int spins = 0;
+		
+		while( true )
 		{
-			if( !_closedInput )
-				wait(); // wait for writers
-			else
-				return (T)NO_MORE_TASKS; 
+			//read closed flag before poll in order to see all tasks of closed input
+			boolean closed = _closedInput;
+			T t = pollTask( ix );
+			if( t != null )
+				return t;
+			else if( closed )
+				return (T)NO_MORE_TASKS;
+			
+			//spin briefly for tasks of streaming task creation
+			if( ++spins < SPIN_COUNT ) {
+				Thread.yield();
+				continue;
+			}
+			
+			//register as waiting reader and recheck to prevent lost wake-ups
+			Thread self = Thread.currentThread();
+			_waiting.offer(self);
+			t = pollTask( ix );
+			if( t == null && !_closedInput )
+				LockSupport.parkNanos(this, MAX_PARK_NANOS); // wait for writers
+			_waiting.remove(self);
+			if( t != null )
+				return t;
+			if( Thread.interrupted() )
+				throw new InterruptedException();
 		}
-		
-		T t = _data.removeFirst();
-		
-		notify(); // notify waiting writers
-		
-		return t;
 	}
 	
 	/**
-	 * Synchronized (logical) insert of a NO_MORE_TASKS symbol at the end of the FIFO queue in order to
+	 * Lock-free (logical) insert of a NO_MORE_TASKS symbol at the end of the queue in order to
 	 * mark that no more tasks will be inserted into the queue.
 	 */
-	public synchronized void closeInput()
+	public void closeInput()
 	{
 		_closedInput = true;
-		notifyAll(); //notify all waiting readers
+		
+		//notify all waiting readers
+		Thread reader = null;
+		while( (reader = _waiting.poll()) != null )
+			LockSupport.unpark(reader);
 	}
 	
 	/**
-	 * Synchronized read of the current number of tasks in the queue.
+	 * Read of the current number of tasks in the queue.
 	 * 
 	 * @return
 	 * @throws InterruptedException
 	 */
-	public synchronized int size()
+	public int size()
 		throws InterruptedException
 	{
-		return _data.size();
+		return _size.get();
+	}
+	
+	/**
+	 * Returns the number of tasks that have been stolen from the deques
+	 * of other workers.
+	 * 
+	 * @return
+	 */
+	public long getNumStolenTasks()
+	{
+		return _numSteals.get();
+	}
+	
+	/**
+	 * 
+	 * @param ix
+	 * @return
+	 */
+	private T pollTask( int ix )
+	{
+		//take from head of own deque
+		T t = _data[ix].pollFirst();
+		
+		//steal from tail of other deques
+		for( int i=1; t==null && i<_data.length; i++ ) {
+			t = _data[(ix + i) % _data.length].pollLast();
+			if( t != null )
+				_numSteals.incrementAndGet();
+		}
+		
+		if( t != null )
+			_size.decrementAndGet();
+		
+		return t;
 	}
 
 	@Override
-	public synchronized String toString() 
+	public String toString() 
 	{
 		StringBuilder sb = new StringBuilder();
 		sb.append("TASK QUEUE (size=");
-		sb.append(_data.size());
+		sb.append(_size.get());
 		sb.append(",close=");
 		sb.append(_closedInput);
 		sb.append(")\n");
 		
 		int count = 1;
-		for( T t : _data )
-		{
-			sb.append("  TASK #");
-			sb.append(count);
-			sb.append(": ");
-			sb.append(t.toString());
-			sb.append("\n");
-			
-			count++;
-		}
+		for( ConcurrentLinkedDeque<T> deque : _data )
+			for( T t : deque )
+			{
+				sb.append("  TASK #");
+				sb.append(count);
+				sb.append(": ");
+				sb.append(t.toString());
+				sb.append("\n");
+				
+				count++;
+			}
 		
 		return sb.toString();
 	}
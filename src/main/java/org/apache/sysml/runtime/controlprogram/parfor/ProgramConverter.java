@@ -19,6 +19,11 @@
 
 package org.apache.sysml.runtime.controlprogram.parfor;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -77,6 +82,8 @@ import org.apache.sysml.runtime.instructions.cp.StringObject;
 import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
 import org.apache.sysml.runtime.instructions.mr.MRInstruction;
 import org.apache.sysml.runtime.instructions.spark.SPInstruction;
+import org.apache.sysml.runtime.io.BlockCompressedInputStream;
+import org.apache.sysml.runtime.io.BlockCompressedOutputStream;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
@@ -168,10 +175,12 @@ public class ProgramConverter
 		cpec.setVariables((LocalVariableMap) ec.getVariables().clone());
 	
 		//handle result variables with in-place update flag
-		//(each worker requires its own copy of the empty matrix object)
+		//(each worker requires its own copy of the empty matrix object,
+		//except for shared outputs that are bound by the parfor itself)
 		for( String var : cpec.getVariables().keySet() ) {
 			Data dat = cpec.getVariables().get(var);
-			if( dat instanceof MatrixObject && ((MatrixObject)dat).getUpdateType().isInPlace() ) {
+			if( dat instanceof MatrixObject && ((MatrixObject)dat).getUpdateType().isInPlace()
+				&& ((MatrixObject)dat).getUpdateType() != UpdateType.INPLACE_SHARED ) {
 				MatrixObject mo = (MatrixObject)dat;
 				MatrixObject moNew = new MatrixObject(mo); 
 				if( mo.getNnz() != 0 ){
@@ -885,6 +894,34 @@ public class ProgramConverter
 		return sb.toString();		
 	}
 	
+	/**
+	 * Serializes the given parfor body into a compact binary representation,
+	 * i.e., the block-compressed UTF-8 encoding of the normalized string 
+	 * representation (w/o newlines). Due to many repeated opcodes, variable 
+	 * names, and delimiters, this is typically an order of magnitude smaller
+	 * for large function libraries and symbol tables.
+	 * 
+	 * @param body
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static byte[] serializeParForBodyBinary( ParForBody body ) 
+		throws DMLRuntimeException
+	{
+		String str = serializeParForBody(body).replace(NEWLINE, "");
+		
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			OutputStream out = new BlockCompressedOutputStream(bos);
+			out.write(str.getBytes("UTF-8"));
+			out.close();
+			return bos.toByteArray();
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed to serialize parfor body.", ex);
+		}
+	}
+	
 	/**
 	 * 
 	 * @param prog
@@ -1576,6 +1613,35 @@ public class ProgramConverter
 		return body;		
 	}
 	
+	/**
+	 * Parses a parfor body from its binary representation 
+	 * (see serializeParForBodyBinary).
+	 * 
+	 * @param in
+	 * @param id
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static ParForBody parseParForBody( byte[] in, int id ) 
+		throws DMLRuntimeException
+	{
+		String str = null;
+		try {
+			InputStream is = new BlockCompressedInputStream(new ByteArrayInputStream(in));
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(4 * in.length);
+			byte[] buff = new byte[BlockCompressedOutputStream.BLOCK_SIZE];
+			for( int len = is.read(buff, 0, buff.length); len >= 0; len = is.read(buff, 0, buff.length) )
+				bos.write(buff, 0, len);
+			is.close();
+			str = bos.toString("UTF-8");
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed to deserialize parfor body.", ex);
+		}
+		
+		return parseParForBody(str, id);
+	}
+	
 	/**
 	 * 
 	 * @param in
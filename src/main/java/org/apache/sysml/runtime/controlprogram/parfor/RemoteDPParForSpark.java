@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.spark.Accumulator;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.broadcast.Broadcast;
 
 import scala.Tuple2;
 
@@ -68,7 +69,7 @@ public class RemoteDPParForSpark
 	 * @return
 	 * @throws DMLRuntimeException
 	 */
-	public static RemoteParForJobReturn runJob(long pfid, String itervar, String matrixvar, String program, String resultFile, MatrixObject input, 
+	public static RemoteParForJobReturn runJob(long pfid, String itervar, String matrixvar, byte[] program, String resultFile, MatrixObject input, 
 			                                   ExecutionContext ec,
 			                                   PDataPartitionFormat dpf, OutputInfo oi, boolean tSparseCol, //config params
 			                                   boolean enableCPCaching, int numReducers )  //opt params
@@ -89,15 +90,23 @@ public class RemoteDPParForSpark
 		Accumulator<Integer> aTasks = sc.accumulator(0);
 		Accumulator<Integer> aIters = sc.accumulator(0);
 		
+		//broadcast binary program (shipped once per executor instead of per task)
+		Broadcast<byte[]> bprog = sc.broadcast(program);
+		
 		JavaPairRDD<MatrixIndexes,MatrixBlock> in = sec.getBinaryBlockRDDHandleForVariable(matrixvar);
 		DataPartitionerRemoteSparkMapper dpfun = new DataPartitionerRemoteSparkMapper(mc, ii, oi, dpf);
-		RemoteDPParForSparkWorker efun = new RemoteDPParForSparkWorker(program, matrixvar, itervar, 
+		RemoteDPParForSparkWorker efun = new RemoteDPParForSparkWorker(bprog, matrixvar, itervar, 
 				          enableCPCaching, mc, tSparseCol, dpf, oi, aTasks, aIters);
-		List<Tuple2<Long,String>> out = 
-				in.flatMapToPair(dpfun)         //partition the input blocks
-		          .groupByKey(numReducers)      //group partition blocks 		          
-		          .mapPartitionsToPair( efun )  //execute parfor tasks, incl cleanup
-		          .collect();                   //get output handles
+		List<Tuple2<Long,String>> out = null;
+		try {
+			out = in.flatMapToPair(dpfun)         //partition the input blocks
+			        .groupByKey(numReducers)      //group partition blocks 		          
+			        .mapPartitionsToPair( efun )  //execute parfor tasks, incl cleanup
+			        .collect();                   //get output handles
+		}
+		finally {
+			bprog.unpersist(false);
+		}
 		
 		//de-serialize results
 		LocalVariableMap[] results = RemoteParForUtils.getResults(out, LOG);
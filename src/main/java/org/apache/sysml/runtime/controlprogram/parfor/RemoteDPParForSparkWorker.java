@@ -27,6 +27,7 @@ import org.apache.hadoop.io.Writable;
 import org.apache.spark.Accumulator;
 import org.apache.spark.TaskContext;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
+import org.apache.spark.broadcast.Broadcast;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.ParForProgramBlock.PDataPartitionFormat;
@@ -51,7 +52,7 @@ public class RemoteDPParForSparkWorker extends ParWorker implements PairFlatMapF
 {
 	private static final long serialVersionUID = 30223759283155139L;
 	
-	private String  _prog = null;
+	private Broadcast<byte[]> _prog = null; //binary program
 	private boolean _caching = true;
 	private String _inputVar = null;
 	private String _iterVar = null;
@@ -67,7 +68,7 @@ public class RemoteDPParForSparkWorker extends ParWorker implements PairFlatMapF
 	private Accumulator<Integer> _aTasks = null;
 	private Accumulator<Integer> _aIters = null;
 	
-	public RemoteDPParForSparkWorker(String program, String inputVar, String iterVar, boolean cpCaching, MatrixCharacteristics mc, boolean tSparseCol, PDataPartitionFormat dpf, OutputInfo oinfo, Accumulator<Integer> atasks, Accumulator<Integer> aiters) 
+	public RemoteDPParForSparkWorker(Broadcast<byte[]> program, String inputVar, String iterVar, boolean cpCaching, MatrixCharacteristics mc, boolean tSparseCol, PDataPartitionFormat dpf, OutputInfo oinfo, Accumulator<Integer> atasks, Accumulator<Integer> aiters) 
 		throws DMLRuntimeException
 	{
 		//keep inputs (unfortunately, spark does not expose task ids and it would be implementation-dependent
@@ -154,8 +155,8 @@ public class RemoteDPParForSparkWorker extends ParWorker implements PairFlatMapF
 	{
 		_workerID = ID;
 		
-		//parse and setup parfor body program
-		ParForBody body = ProgramConverter.parseParForBody(_prog, (int)_workerID);
+		//setup parfor body program (broadcast and parsed once per executor)
+		ParForBody body = RemoteParForSparkWorker.getParForBody(_prog, _workerID);
 		_childBlocks = body.getChildBlocks();
 		_ec          = body.getEc();				
 		_resultVars  = body.getResultVarNames();
@@ -25,6 +25,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.spark.Accumulator;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.broadcast.Broadcast;
 
 import scala.Tuple2;
 
@@ -45,7 +46,6 @@ import org.apache.sysml.utils.Statistics;
  * pre-aggregation by overwriting partial task results with pre-paggregated results from subsequent
  * iterations)
  * 
- * TODO broadcast variables if possible
  * TODO reducebykey on variable names
  */
 public class RemoteParForSpark 
@@ -64,7 +64,7 @@ public class RemoteParForSpark
 	 * @return
 	 * @throws DMLRuntimeException 
 	 */
-	public static RemoteParForJobReturn runJob(long pfid, String program, List<Task> tasks, ExecutionContext ec,
+	public static RemoteParForJobReturn runJob(long pfid, byte[] program, List<Task> tasks, ExecutionContext ec,
 			                                   boolean cpCaching, int numMappers) 
 		throws DMLRuntimeException  
 	{
@@ -78,13 +78,21 @@ public class RemoteParForSpark
 		Accumulator<Integer> aTasks = sc.accumulator(0);
 		Accumulator<Integer> aIters = sc.accumulator(0);
 		
+		//broadcast binary program (shipped once per executor instead of per task)
+		Broadcast<byte[]> bprog = sc.broadcast(program);
+		
 		//run remote_spark parfor job 
 		//(w/o lazy evaluation to fit existing parfor framework, e.g., result merge)
-		RemoteParForSparkWorker func = new RemoteParForSparkWorker(program, cpCaching, aTasks, aIters);
-		List<Tuple2<Long,String>> out = 
-				sc.parallelize( tasks, numMappers )  //create rdd of parfor tasks
-		          .flatMapToPair( func )             //execute parfor tasks 
-		          .collect();                        //get output handles
+		RemoteParForSparkWorker func = new RemoteParForSparkWorker(bprog, cpCaching, aTasks, aIters);
+		List<Tuple2<Long,String>> out = null;
+		try {
+			out = sc.parallelize( tasks, numMappers )  //create rdd of parfor tasks
+			        .flatMapToPair( func )             //execute parfor tasks 
+			        .collect();                        //get output handles
+		}
+		finally {
+			bprog.unpersist(false);
+		}
 		
 		//de-serialize results
 		LocalVariableMap[] results = RemoteParForUtils.getResults(out, LOG);
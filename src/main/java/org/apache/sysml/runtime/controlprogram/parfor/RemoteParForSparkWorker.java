@@ -21,14 +21,24 @@ package org.apache.sysml.runtime.controlprogram.parfor;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 
 import org.apache.spark.Accumulator;
 import org.apache.spark.TaskContext;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
+import org.apache.spark.broadcast.Broadcast;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysml.runtime.controlprogram.ProgramBlock;
 import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.FrameObject;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDHandler;
+import org.apache.sysml.runtime.instructions.cp.Data;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
 import scala.Tuple2;
@@ -41,15 +51,19 @@ public class RemoteParForSparkWorker extends ParWorker implements PairFlatMapFun
 {
 	
 	private static final long serialVersionUID = -3254950138084272296L;
+	
+	//executor-local cache of parsed parfor bodies (with root thread IDs), keyed by 
+	//broadcast id, which avoids parsing the program once per task (worker instance)
+	private static final HashMap<Long, ParForBody> _bodies = new HashMap<Long, ParForBody>();
 
 	private boolean _initialized = false;
-	private String  _prog = null;
+	private Broadcast<byte[]> _prog = null; //binary program
 	private boolean _caching = true;
 	
 	private Accumulator<Integer> _aTasks = null;
 	private Accumulator<Integer> _aIters = null;
 	
-	public RemoteParForSparkWorker(String program, boolean cpCaching, Accumulator<Integer> atasks, Accumulator<Integer> aiters) 
+	public RemoteParForSparkWorker(Broadcast<byte[]> program, boolean cpCaching, Accumulator<Integer> atasks, Accumulator<Integer> aiters) 
 		throws DMLRuntimeException
 	{
 		//keep inputs (unfortunately, spark does not expose task ids and it would be implementation-dependent
@@ -100,8 +114,8 @@ public class RemoteParForSparkWorker extends ParWorker implements PairFlatMapFun
 	{
 		_workerID = ID;
 		
-		//parse and setup parfor body program
-		ParForBody body = ProgramConverter.parseParForBody(_prog, (int)_workerID);
+		//setup parfor body program (broadcast and parsed once per executor)
+		ParForBody body = getParForBody(_prog, _workerID);
 		_childBlocks = body.getChildBlocks();
 		_ec          = body.getEc();				
 		_resultVars  = body.getResultVarNames();
@@ -128,4 +142,52 @@ public class RemoteParForSparkWorker extends ParWorker implements PairFlatMapFun
 		//make as lazily intialized
 		_initialized = true;
 	}
+	
+	/**
+	 * Obtains the parfor body of the given broadcast program for the given
+	 * worker. The broadcast program is parsed once per executor (only the 
+	 * body of the current program is kept), and each worker obtains a deep 
+	 * copy with its thread ID, similar to local parfor workers.
+	 * 
+	 * @param prog
+	 * @param workerID
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	protected static ParForBody getParForBody( Broadcast<byte[]> prog, long workerID ) 
+		throws DMLRuntimeException
+	{
+		synchronized( _bodies )
+		{
+			ParForBody body = _bodies.get(prog.id());
+			if( body == null ) {
+				_bodies.clear();
+				body = ProgramConverter.parseParForBody(prog.value(), 0);
+				_bodies.put(prog.id(), body);
+			}
+			
+			//deep copy of program blocks (incl functions) with worker thread ID
+			ArrayList<ProgramBlock> pbs = ProgramConverter.rcreateDeepCopyProgramBlocks(
+				body.getChildBlocks(), workerID, -1, new HashSet<String>(), new HashSet<String>(), false, false);
+			
+			//copy of execution context with meta data copies of all data objects,
+			//which keeps the per-worker cleanup and pinning independent of other workers
+			ExecutionContext ec = null;
+			if( body.getEc() != null ) {
+				LocalVariableMap vars = new LocalVariableMap();
+				for( String var : body.getEc().getVariables().keySet() ) {
+					Data dat = body.getEc().getVariables().get(var);
+					if( dat instanceof MatrixObject )
+						dat = new MatrixObject((MatrixObject)dat);
+					else if( dat instanceof FrameObject )
+						dat = new FrameObject((FrameObject)dat);
+					vars.put(var, dat);
+				}
+				ec = ExecutionContextFactory.createContext(false, body.getEc().getProgram());
+				ec.setVariables(vars);
+			}
+			
+			return new ParForBody(pbs, body.getResultVarNames(), ec);
+		}
+	}
 }
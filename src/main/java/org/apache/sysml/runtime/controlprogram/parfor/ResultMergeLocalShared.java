@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.controlprogram.parfor;
+
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Local in-memory result merge for results that are directly written by all 
+ * parfor workers into a shared, pre-allocated dense output block. This mode
+ * is only applied if all workers update disjoint rows or columns (indexed by 
+ * the parfor iteration variable), which guarantees that concurrent in-place 
+ * updates never touch the same cells (see OptimizerRuleBased). Hence, there is 
+ * no actual merge and no k worker copies of the output, except for the final 
+ * maintenance of the number of non-zeros and the dense/sparse representation.
+ * 
+ */
+public class ResultMergeLocalShared extends ResultMerge
+{
+	public ResultMergeLocalShared( MatrixObject out, MatrixObject[] in, String outputFilename )
+	{
+		super( out, in, outputFilename );
+	}
+	
+	@Override
+	public MatrixObject executeSerialMerge() 
+		throws DMLRuntimeException
+	{
+		LOG.trace("ResultMerge (local, shared): Execute merge for output "+_output.getVarName()+" (fname="+_output.getFileName()+")");
+		
+		//obtain shared output block from any worker
+		MatrixBlock outMB = null;
+		for( MatrixObject in : _inputs ) 
+			if( in != null && in != _output && in.getUpdateType()==UpdateType.INPLACE_SHARED ) {
+				outMB = in.acquireRead();
+				in.release();
+				break;
+			}
+		
+		//return old matrix if no iterations executed
+		if( outMB == null ) {
+			_output.setUpdateType(UpdateType.COPY);
+			return _output;
+		}
+		
+		//maintain nnz (upper bound during parfor) once for all workers
+		outMB.recomputeNonZeros();
+		Statistics.incrementParForSharedMerges();
+		
+		return createNewMatrixObject( outMB );
+	}
+	
+	@Override
+	public MatrixObject executeParallelMerge( int par ) 
+		throws DMLRuntimeException
+	{
+		//no merge required, single-threaded nnz maintenance only
+		return executeSerialMerge();
+	}
+	
+	/**
+	 * Creates the shared dense output block of the given result variable,
+	 * initialized with its current state. The number of non-zeros is set to
+	 * an upper bound in order to prevent empty block handling (e.g., freeing 
+	 * the dense block on release) during concurrent worker updates.
+	 * 
+	 * @param out
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock createSharedOutput( MatrixObject out ) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock outMB = out.acquireRead();
+		int rows = outMB.getNumRows();
+		int cols = outMB.getNumColumns();
+		
+		MatrixBlock ret = new MatrixBlock(rows, cols, false);
+		if( !outMB.isEmptyBlock(false) )
+			ret.copy(outMB, false);
+		else
+			ret.allocateDenseBlock();
+		out.release();
+		
+		ret.setNonZeros((long)rows*cols);
+		return ret;
+	}
+	
+	/**
+	 * Creates a worker-local matrix object that is bound to the given shared
+	 * output block. Cleanup is disabled because the shared block must neither
+	 * be evicted, nor freed or reused by any worker.
+	 * 
+	 * @param out
+	 * @param sharedMB
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixObject createSharedWorkerOutput( MatrixObject out, MatrixBlock sharedMB ) 
+		throws DMLRuntimeException
+	{
+		MatrixObject moNew = new MatrixObject( out );
+		moNew.acquireModify( sharedMB );
+		moNew.release();
+		moNew.setUpdateType( UpdateType.INPLACE_SHARED );
+		moNew.enableCleanup( false );
+		
+		return moNew;
+	}
+	
+	/**
+	 * 
+	 * @param data
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private MatrixObject createNewMatrixObject( MatrixBlock data ) 
+		throws DMLRuntimeException
+	{
+		String varName = _output.getVarName();
+		ValueType vt = _output.getValueType();
+		MatrixFormatMetaData metadata = (MatrixFormatMetaData) _output.getMetaData();
+		
+		MatrixObject moNew = new MatrixObject( vt, _outputFName );
+		moNew.setVarName( varName.contains(NAME_SUFFIX) ? varName : varName+NAME_SUFFIX );
+		moNew.setDataType( DataType.MATRIX );
+		
+		//create deep copy of metadata obj
+		MatrixCharacteristics mcOld = metadata.getMatrixCharacteristics();
+		MatrixCharacteristics mc = new MatrixCharacteristics(mcOld.getRows(),mcOld.getCols(),
+				                                             mcOld.getRowsPerBlock(),mcOld.getColsPerBlock());
+		mc.setNonZeros(data.getNonZeros());
+		moNew.setMetaData( new MatrixFormatMetaData(mc, metadata.getOutputInfo(), metadata.getInputInfo()) );
+		
+		//adjust dense/sparse representation
+		data.examSparsity();
+		
+		//release new output
+		moNew.acquireModify(data);	
+		moNew.release();	
+		
+		return moNew;
+	}
+}
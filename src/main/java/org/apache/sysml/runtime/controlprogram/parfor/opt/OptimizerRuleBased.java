@@ -159,6 +159,7 @@ public class OptimizerRuleBased extends Optimizer
 	public static final String FUNCTION_UNFOLD_NAMEPREFIX = "__unfold_";
 	
 	public static final boolean APPLY_REWRITE_UPDATE_INPLACE_INTERMEDIATE = true;
+	public static final boolean APPLY_REWRITE_SHARED_RESULT_MERGE = true;
 	
 	public static final double PAR_K_FACTOR        = OptimizationWrapper.PAR_FACTOR_INFRASTRUCTURE; 
 	public static final double PAR_K_MR_FACTOR     = 1.0 * OptimizationWrapper.PAR_FACTOR_INFRASTRUCTURE; 
@@ -3265,6 +3266,14 @@ public class OptimizerRuleBased extends Optimizer
 			ret = PResultMerge.LOCAL_AUTOMATIC;
 		}
 		
+		//CP w/o merge, if all in-place results are written to disjoint rows/cols
+		if( ret == PResultMerge.LOCAL_MEM && inLocal && isSharedResultMergeApplicable(n, pfpb, vars) )
+		{
+			ret = PResultMerge.LOCAL_SHARED;
+			for( String var : pfpb.getResultVariables() ) //no worker copies
+				((MatrixObject)vars.get(var)).setUpdateType(UpdateType.INPLACE_SHARED);
+		}
+		
 		// modify rtprog	
 		pfpb.setResultMerge(ret);
 			
@@ -3279,6 +3288,103 @@ public class OptimizerRuleBased extends Optimizer
 		LOG.debug(getOptMode()+" OPT: rewrite 'set result merge' - result="+ret );
 	}
 	
+	/**
+	 * Determines if all workers can directly write into shared dense outputs,
+	 * which requires local in-place result indexing (see rewrite 14), no nested
+	 * parfor, and per result variable left indexing of either rows or columns
+	 * that are exactly indexed by the parfor iteration variable. The latter
+	 * guarantees disjoint writes of all iterations.
+	 * 
+	 * @param n
+	 * @param pfpb
+	 * @param vars
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	protected boolean isSharedResultMergeApplicable( OptNode n, ParForProgramBlock pfpb, LocalVariableMap vars ) 
+		throws DMLRuntimeException
+	{
+		if( !APPLY_REWRITE_SHARED_RESULT_MERGE || n.getExecType() != ExecType.CP
+			|| pfpb.getExecMode() != PExecMode.LOCAL || !n.isCPOnly() || n.isLeaf() )
+			return false;
+		
+		//no nested parfor (shared outputs across levels)
+		for( OptNode c : n.getChilds() )
+			if( c.containsNode(NodeType.PARFOR) )
+				return false;
+		
+		//all result variables are in-place dense matrices 
+		ArrayList<String> retVars = pfpb.getResultVariables();
+		if( retVars.isEmpty() )
+			return false;
+		for( String var : retVars ) {
+			Data dat = vars.get(var);
+			if( !(dat instanceof MatrixObject) 
+				|| ((MatrixObject)dat).getUpdateType() != UpdateType.INPLACE_PINNED
+				|| ((MatrixObject)dat).getNumRows() * ((MatrixObject)dat).getNumColumns() >= Integer.MAX_VALUE )
+				return false;
+		}
+		
+		//disjoint row or column writes of all result variables
+		HashMap<String, Boolean> rowwise = new HashMap<String, Boolean>();
+		String iterVar = pfpb.getIterablePredicateVars()[0];
+		return rHasOnlyDisjointResultIndexing(n, retVars, iterVar, rowwise)
+			&& rowwise.keySet().containsAll(retVars);
+	}
+	
+	/**
+	 * 
+	 * @param n
+	 * @param retVars
+	 * @param iterVar
+	 * @param rowwise
+	 * @return
+	 */
+	protected boolean rHasOnlyDisjointResultIndexing( OptNode n, ArrayList<String> retVars, String iterVar, HashMap<String, Boolean> rowwise ) 
+	{
+		boolean ret = true;
+		
+		if( !n.isLeaf() )
+		{
+			for( OptNode cn : n.getChilds() )
+				ret &= rHasOnlyDisjointResultIndexing( cn, retVars, iterVar, rowwise );
+		}
+		else if(    n.getNodeType()== NodeType.HOP
+			     && n.getParam(ParamType.OPSTRING).equals(LeftIndexingOp.OPSTRING) )
+		{
+			Hop h = OptTreeConverter.getAbstractPlanMapping().getMappedHop(n.getID());
+			String var = h.getInput().get(0).getName();
+			if( retVars.contains(var) )
+			{
+				//inputs: lhs, rhs, rl, ru, cl, cu
+				boolean row = isIterVarRead(h.getInput().get(2), iterVar) && isIterVarRead(h.getInput().get(3), iterVar);
+				boolean col = isIterVarRead(h.getInput().get(4), iterVar) && isIterVarRead(h.getInput().get(5), iterVar);
+				Boolean prev = rowwise.get(var); //consistent dimension per variable
+				if( row && (prev == null || prev) )
+					rowwise.put(var, true);
+				else if( col && (prev == null || !prev) )
+					rowwise.put(var, false);
+				else
+					ret = false;
+			}
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param h
+	 * @param iterVar
+	 * @return
+	 */
+	private static boolean isIterVarRead( Hop h, String iterVar )
+	{
+		return h instanceof DataOp 
+			&& ((DataOp)h).getDataOpType() == DataOpTypes.TRANSIENTREAD
+			&& h.getName().equals(iterVar);
+	}
+	
 	/**
 	 * 
 	 * @param resultVars
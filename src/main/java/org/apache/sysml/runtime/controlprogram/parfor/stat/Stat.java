@@ -49,6 +49,7 @@ public enum Stat
 	PARFOR_INIT_TASKS_T,
 	PARFOR_WAIT_EXEC_T,
 	PARFOR_WAIT_RESULTS_T,
+	PARFOR_NUMSTEALS,
 	
 	//parallel worker statistics
 	PARWRK_NUMTASKS,
@@ -56,7 +57,8 @@ public enum Stat
 	PARWRK_TASKSIZE,
 	PARWRK_ITER_T,
 	PARWRK_TASK_T,
-	PARWRK_EXEC_T;
+	PARWRK_EXEC_T,
+	PARWRK_WAIT_T;
 	
 
 }
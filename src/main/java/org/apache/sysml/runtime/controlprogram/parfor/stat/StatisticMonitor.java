@@ -161,7 +161,9 @@ public class StatisticMonitor
 			sb.append("## ParFOR (ID="+ pfid +") Execution Statistics:\n");
 			HashMap<Stat,LinkedList<Double>> stats = _pfstats.get(pfid); 
 			
-			//foreach parfor execute
+			//foreach parfor execute (steals recorded for local runs only)
+			LinkedList<Double> steals = stats.get(Stat.PARFOR_NUMSTEALS);
+			int ixLocal = 0;
 			for( int i=0; i<stats.get(Stat.PARFOR_NUMTHREADS).size(); i++ )
 			{
 				//sb.append(" Optimization = "+stats.get(Stat.STAT_PARSE_T).get(i)+"ms\n");
@@ -189,6 +191,9 @@ public class StatisticMonitor
 				sb.append("  Time INIT TASKS   = "+stats.get(Stat.PARFOR_INIT_TASKS_T).get(i)+"ms\n");
 				sb.append("  Time WAIT EXEC    = "+stats.get(Stat.PARFOR_WAIT_EXEC_T).get(i)+"ms\n");
 				sb.append("  Time WAIT RESULT  = "+stats.get(Stat.PARFOR_WAIT_RESULTS_T).get(i)+"ms\n");
+				if( PExecMode.values()[(int)(double)stats.get(Stat.PARFOR_EXECMODE).get(i)] == PExecMode.LOCAL
+					&& steals != null && steals.size() > ixLocal )
+					sb.append("  Num Stolen Tasks  = "+(long)(double)steals.get(ixLocal++)+"\n");
 				
 				//foreach parworker of this parfor
 				
@@ -209,6 +214,8 @@ public class StatisticMonitor
 						sb.append("       Num Tasks = "+ntasks+"\n");
 						sb.append("       Num Iters = "+niters+"\n");
 						sb.append("       Time EXEC = "+stats2.get(Stat.PARWRK_EXEC_T).get(0)+"ms\n");
+						if( stats2.containsKey(Stat.PARWRK_WAIT_T) )
+							sb.append("       Time WAIT = "+stats2.get(Stat.PARWRK_WAIT_T).get(0)+"ms\n");
 						
 						LinkedList<Double> taskexec = stats2.get(Stat.PARWRK_TASK_T);
 						LinkedList<Double> tasksize = stats2.get(Stat.PARWRK_TASKSIZE);
@@ -21,6 +21,7 @@ package org.apache.sysml.runtime.functionobjects;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.CTableMap;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
 import org.apache.sysml.runtime.matrix.data.Pair;
@@ -128,6 +129,50 @@ public class CTable extends ValueFunction
 				ctableResult.quickGetValue((int)row-1, (int)col-1) + w);
 	}
 	
+	/**
+	 * Dense fast path for ctable outputs with known dimensions, which 
+	 * directly aggregates into the allocated dense block (w/o nnz maintenance).
+	 * 
+	 * @param v1
+	 * @param v2
+	 * @param w
+	 * @param ignoreZeros
+	 * @param ctableResult
+	 * @throws DMLRuntimeException
+	 */
+	public void execute(double v1, double v2, double w, boolean ignoreZeros, DenseBlock ctableResult) 
+		throws DMLRuntimeException 
+	{	
+		// If any of the values are NaN (i.e., missing) then 
+		// we skip this tuple, proceed to the next tuple
+		if ( Double.isNaN(v1) || Double.isNaN(v2) || Double.isNaN(w) ) {
+			return;
+		}
+		
+		// safe casts to long for consistent behavior with indexing
+		long row = UtilFunctions.toLong( v1 );
+		long col = UtilFunctions.toLong( v2 );
+		
+		// skip this entry as it does not fall within specified output dimensions
+		if( ignoreZeros && row == 0 && col == 0 ) {
+			return;
+		}
+		
+		//check for incorrect ctable inputs
+		if( row <= 0 || col <= 0 ) {
+			throw new DMLRuntimeException("Erroneous input while computing the contingency table (one of the value <= zero): "+v1+" "+v2);
+		}
+		
+		// skip this entry as it does not fall within specified output dimensions
+		if( row > ctableResult.numRows() || col > ctableResult.numCols() ) {
+			return;
+		}
+		
+		//add value
+		int r = (int)row-1;
+		ctableResult.values(r)[ctableResult.pos(r, (int)col-1)] += w;
+	}
+	
 	/**
 	 * 
 	 * @param row
@@ -22,6 +22,7 @@ package org.apache.sysml.runtime.instructions;
 
 import java.util.HashMap;
 
+import org.apache.sysml.lops.Compression;
 import org.apache.sysml.lops.DataGen;
 import org.apache.sysml.lops.UnaryCP;
 import org.apache.sysml.lops.LopProperties.ExecType;
@@ -37,6 +38,7 @@ import org.apache.sysml.runtime.instructions.cp.BuiltinBinaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.BuiltinUnaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CentralMomentCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CompressionCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.ConvolutionCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CovarianceCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.DataGenCPInstruction;
@@ -220,6 +222,9 @@ public class CPInstructionParser extends InstructionParser
 		String2CPInstructionType.put( "col2im"      , CPINSTRUCTION_TYPE.Convolution);
 		String2CPInstructionType.put( "maxpooling"      , CPINSTRUCTION_TYPE.Convolution);
 		String2CPInstructionType.put( "maxpooling_backward"      , CPINSTRUCTION_TYPE.Convolution);
+		String2CPInstructionType.put( "conv2d"      , CPINSTRUCTION_TYPE.Convolution);
+		String2CPInstructionType.put( "conv2d_backward_filter"      , CPINSTRUCTION_TYPE.Convolution);
+		String2CPInstructionType.put( "conv2d_backward_data"      , CPINSTRUCTION_TYPE.Convolution);
 
 		// Quaternary instruction opcodes
 		String2CPInstructionType.put( "wsloss"  , CPINSTRUCTION_TYPE.Quaternary);
@@ -261,6 +266,7 @@ public class CPInstructionParser extends InstructionParser
 		String2CPInstructionType.put( "eigen", CPINSTRUCTION_TYPE.MultiReturnBuiltin);
 		
 		String2CPInstructionType.put( "partition", CPINSTRUCTION_TYPE.Partition);
+		String2CPInstructionType.put( Compression.OPCODE, CPINSTRUCTION_TYPE.Compression);
 		
 		
 		//CP FILE instruction
@@ -335,6 +341,9 @@ public class CPInstructionParser extends InstructionParser
 				
 			case MatrixReshape:
 				return MatrixReshapeCPInstruction.parseInstruction(str);	
+			
+			case Compression:
+				return CompressionCPInstruction.parseInstruction(str);	
 	
 			case Append:
 				return AppendCPInstruction.parseInstruction(str);
@@ -103,6 +103,9 @@ public abstract class ArithmeticBinaryCPInstruction extends BinaryCPInstruction
 												  + " and "
 												  + out.getName());
 				
+			//set degree of parallelism for cell-wise matrix operations
+			parseNumThreads(str, operator);
+			
 			if(dt1 == DataType.MATRIX && dt2 == DataType.MATRIX)
 				return new MatrixMatrixArithmeticCPInstruction(operator, in1, in2, out, opcode, str);
 			else
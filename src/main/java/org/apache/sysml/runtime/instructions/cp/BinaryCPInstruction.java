@@ -21,7 +21,9 @@ package org.apache.sysml.runtime.instructions.cp;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.Operator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
 
 
 public abstract class BinaryCPInstruction extends ComputationCPInstruction
@@ -41,7 +43,7 @@ public abstract class BinaryCPInstruction extends ComputationCPInstruction
 		throws DMLRuntimeException
 	{	
 		String[] parts = InstructionUtils.getInstructionPartsWithValueType(instr);
-		InstructionUtils.checkNumFields ( parts, 3 );
+		InstructionUtils.checkNumFields ( parts, 3, 4 );
 		
 		String opcode = parts[0];
 		in1.split(parts[1]);
@@ -51,6 +53,26 @@ public abstract class BinaryCPInstruction extends ComputationCPInstruction
 		return opcode;
 	}
 	
+	/**
+	 * Sets the degree of parallelism of cell-wise matrix operations, which is 
+	 * optionally appended as the last field of the instruction (default: 1).
+	 * 
+	 * @param instr
+	 * @param op
+	 * @throws DMLRuntimeException
+	 */
+	protected static void parseNumThreads(String instr, Operator op)
+		throws DMLRuntimeException
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(instr);
+		int k = (parts.length == 5) ? Integer.parseInt(parts[4]) : 1;
+		
+		if( op instanceof BinaryOperator )
+			((BinaryOperator) op).setNumThreads(k);
+		else if( op instanceof ScalarOperator )
+			((ScalarOperator) op).setNumThreads(k);
+	}
+	
 	protected static String parseBinaryInstruction(String instr, CPOperand in1, CPOperand in2, CPOperand in3, CPOperand out)
 		throws DMLRuntimeException
 	{
@@ -59,9 +59,13 @@ public abstract class BuiltinBinaryCPInstruction extends BinaryCPInstruction
 		if ( in1.getDataType() == DataType.SCALAR && in2.getDataType() == DataType.SCALAR ) {
 			return new ScalarScalarBuiltinCPInstruction(new BinaryOperator(func), in1, in2, out, opcode, str);
 		} else if (in1.getDataType() != in2.getDataType()) {
-			return new MatrixScalarBuiltinCPInstruction(new RightScalarOperator(func, 0), in1, in2, out, opcode, str);					
+			RightScalarOperator sop = new RightScalarOperator(func, 0);
+			parseNumThreads(str, sop);
+			return new MatrixScalarBuiltinCPInstruction(sop, in1, in2, out, opcode, str);					
 		} else { // if ( in1.getDataType() == DataType.MATRIX && in2.getDataType() == DataType.MATRIX ) {
-			return new MatrixMatrixBuiltinCPInstruction(new BinaryOperator(func), in1, in2, out, opcode, str);	
+			BinaryOperator bop = new BinaryOperator(func);
+			parseNumThreads(str, bop);
+			return new MatrixMatrixBuiltinCPInstruction(bop, in1, in2, out, opcode, str);	
 		} 
 	}
 }
@@ -25,6 +25,7 @@ import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.functionobjects.SwapIndex;
 import org.apache.sysml.runtime.instructions.InstructionUtils;
@@ -37,7 +38,7 @@ import org.apache.sysml.utils.Statistics;
 
 public class ConvolutionCPInstruction extends UnaryCPInstruction {
 	
-	private CPOperand _in2; // used for pooling backward
+	private CPOperand _in2; // used for pooling backward and fused conv2d ops
 	private ArrayList<CPOperand> _input_shape;
 	private ArrayList<CPOperand> _filter_shape;
 	private ArrayList<CPOperand> _stride = new ArrayList<CPOperand>();
@@ -116,9 +117,12 @@ public class ConvolutionCPInstruction extends UnaryCPInstruction {
 					padding, input_shape, filter_shape, k);
 		} 
 		else if (opcode.equalsIgnoreCase("pooling_backward_reshape")
-				|| opcode.equalsIgnoreCase("maxpooling_backward")) {
+				|| opcode.equalsIgnoreCase("maxpooling_backward")
+				|| opcode.equalsIgnoreCase("conv2d")
+				|| opcode.equalsIgnoreCase("conv2d_backward_filter")
+				|| opcode.equalsIgnoreCase("conv2d_backward_data")) {
 			InstructionUtils.checkNumFields(parts, 16);
-			// dout, stride1, stride2, padding1, padding2
+			// dout (or filter), stride1, stride2, padding1, padding2
 			// input_shape1, input_shape2, input_shape3, input_shape4,
 			// filter_shape1, filter_shape2, filter_shape3, filter_shape4, k
 			in.split(parts[1]);
@@ -159,13 +163,18 @@ public class ConvolutionCPInstruction extends UnaryCPInstruction {
 				.getLongValue();
 	}
 	
+	@Override
+	public int getNumThreads() {
+		return Math.max(_numThreads, 1);
+	}
+	
 	// TODO: optimize "Sparse operations" once we are happy with the performance of single node Lenet script on dense MNIST dataset
 	@Override
 	public void processInstruction(ExecutionContext ec)
 			throws DMLRuntimeException {
 		// acquire inputs
 		MatrixBlock outputBlock = null;
-		MatrixBlock matBlock = ec.getMatrixInput(input1.getName());
+		MatrixBlock matBlock = CompressedMatrixBlock.getUncompressed(ec.getMatrixInput(input1.getName()), instOpcode);
 		int pad_h = getScalarInput(ec, _padding, 0);
 		int pad_w = getScalarInput(ec, _padding, 1);
 		int stride_h = getScalarInput(ec, _stride, 0);
@@ -227,12 +236,40 @@ public class ConvolutionCPInstruction extends UnaryCPInstruction {
 			outputBlock.setNonZeros(params.outputNNZ.get());
 		}
 		else if (instOpcode.equalsIgnoreCase("maxpooling_backward")) {
-			MatrixBlock dout = ec.getMatrixInput(_in2.getName());
+			MatrixBlock dout = CompressedMatrixBlock.getUncompressed(ec.getMatrixInput(_in2.getName()), instOpcode);
 			// Is eligible for REUSE_NONZEROED_OUTPUT but cannot guarantee that previous output has been rmvar-ed
 			// without somewhat expensive HashMap checks
 			outputBlock = getDenseOutputBlock(ec, N, C*H*W, false);
 			params.setReuseNonZeroedOutput(_reuseNonZeroedOutput);
-			LibMatrixDNN.maxpooling_backward(matBlock, dout, outputBlock, params); // No efficient nnz computation, so setting it to -1
+			LibMatrixDNN.maxpooling_backward(matBlock, dout, outputBlock, params);
+			outputBlock.setNonZeros(params.outputNNZ.get());
+			ec.releaseMatrixInput(_in2.getName());
+		}
+		else if (instOpcode.equalsIgnoreCase("conv2d")) {
+			checkHeightWidth(ec, params);
+			MatrixBlock filter = CompressedMatrixBlock.getUncompressed(ec.getMatrixInput(_in2.getName()), instOpcode);
+			// needs to be zeroed-out
+			outputBlock = getDenseOutputBlock(ec, N, K*P*Q, false);
+			LibMatrixDNN.conv2d(matBlock, filter, outputBlock, params);
+			outputBlock.setNonZeros(params.outputNNZ.get());
+			ec.releaseMatrixInput(_in2.getName());
+		}
+		else if (instOpcode.equalsIgnoreCase("conv2d_backward_filter")) {
+			checkHeightWidth(ec, params);
+			MatrixBlock dout = CompressedMatrixBlock.getUncompressed(ec.getMatrixInput(_in2.getName()), instOpcode);
+			// needs to be zeroed-out
+			outputBlock = getDenseOutputBlock(ec, K, C*R*S, false);
+			LibMatrixDNN.conv2d_backward_filter(matBlock, dout, outputBlock, params);
+			outputBlock.setNonZeros(params.outputNNZ.get());
+			ec.releaseMatrixInput(_in2.getName());
+		}
+		else if (instOpcode.equalsIgnoreCase("conv2d_backward_data")) {
+			checkHeightWidth(ec, params);
+			MatrixBlock dout = CompressedMatrixBlock.getUncompressed(ec.getMatrixInput(_in2.getName()), instOpcode);
+			// needs to be zeroed-out
+			outputBlock = getDenseOutputBlock(ec, N, C*H*W, false);
+			LibMatrixDNN.conv2d_backward_data(matBlock, dout, outputBlock, params);
+			outputBlock.setNonZeros(params.outputNNZ.get());
 			ec.releaseMatrixInput(_in2.getName());
 		}
 		else {
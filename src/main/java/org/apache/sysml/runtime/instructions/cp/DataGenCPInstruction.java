@@ -277,6 +277,11 @@ public class DataGenCPInstruction extends UnaryCPInstruction
 			throw new DMLRuntimeException("Unrecognized data generation method: " + method);
 	}
 	
+	@Override
+	public int getNumThreads() {
+		return Math.max(numThreads, 1);
+	}
+	
 	@Override
 	public void processInstruction( ExecutionContext ec )
 		throws DMLRuntimeException
@@ -80,6 +80,11 @@ public class MMChainCPInstruction extends UnaryCPInstruction
 		}
 	}
 	
+	@Override
+	public int getNumThreads() {
+		return Math.max(_numThreads, 1);
+	}
+	
 	@Override
 	public void processInstruction(ExecutionContext ec)
 		throws DMLRuntimeException 
@@ -68,6 +68,11 @@ public class MMTSJCPInstruction extends UnaryCPInstruction
 			return new MMTSJCPInstruction(new Operator(true), in1, titype, out, k, opcode, str);
 	}
 	
+	@Override
+	public int getNumThreads() {
+		return Math.max(_numThreads, 1);
+	}
+	
 	@Override
 	public void processInstruction(ExecutionContext ec)
 		throws DMLRuntimeException 
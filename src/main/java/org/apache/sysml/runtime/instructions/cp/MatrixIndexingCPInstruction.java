@@ -108,8 +108,9 @@ public final class MatrixIndexingCPInstruction extends IndexingCPInstruction
 			ec.releaseMatrixInput(input1.getName());
 			
 			//ensure correct sparse/dense output representation
-			//(memory guarded by release of input)
-			resultBlock.examSparsity();
+			//(memory guarded by release of input, except for shared dense outputs)
+			if( updateType != UpdateType.INPLACE_SHARED )
+				resultBlock.examSparsity();
 			
 			//unpin output
 			ec.setMatrixOutput(output.getName(), resultBlock, updateType);
@@ -65,6 +65,11 @@ public class PMMJCPInstruction extends ComputationCPInstruction
 			return new PMMJCPInstruction(new Operator(true), in1, in2, in3, out, k, opcode, str);
 	}
 	
+	@Override
+	public int getNumThreads() {
+		return Math.max(_numThreads, 1);
+	}
+	
 	@Override
 	public void processInstruction(ExecutionContext ec)
 		throws DMLRuntimeException 
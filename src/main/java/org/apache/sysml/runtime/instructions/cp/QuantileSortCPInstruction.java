@@ -36,18 +36,21 @@ public class QuantileSortCPInstruction extends UnaryCPInstruction
 	 * This class supports two variants of sort operation on a 1-dimensional input matrix. 
 	 * The two variants are <code> weighted </code> and <code> unweighted </code>.
 	 * Example instructions: 
-	 *     sort:mVar1:mVar2 (input=mVar1, output=mVar2)
-	 *     sort:mVar1:mVar2:mVar3 (input=mVar1, weights=mVar2, output=mVar3)
+	 *     sort:mVar1:mVar2:k (input=mVar1, output=mVar2, threads=k)
+	 *     sort:mVar1:mVar2:mVar3:k (input=mVar1, weights=mVar2, output=mVar3, threads=k)
 	 *  
 	 */
 	
-	public QuantileSortCPInstruction(Operator op, CPOperand in, CPOperand out, String opcode, String istr){
-		this(op, in, null, out, opcode, istr);
+	private int _numThreads = 1;
+	
+	public QuantileSortCPInstruction(Operator op, CPOperand in, CPOperand out, String opcode, String istr, int k){
+		this(op, in, null, out, opcode, istr, k);
 	}
 	
-	public QuantileSortCPInstruction(Operator op, CPOperand in1, CPOperand in2, CPOperand out, String opcode, String istr){
+	public QuantileSortCPInstruction(Operator op, CPOperand in1, CPOperand in2, CPOperand out, String opcode, String istr, int k){
 		super(op, in1, in2, out, opcode, istr);
 		_cptype = CPINSTRUCTION_TYPE.QSort;
+		_numThreads = k;
 	}
 	
 	public static QuantileSortCPInstruction parseInstruction ( String str ) 
@@ -61,16 +64,21 @@ public class QuantileSortCPInstruction extends UnaryCPInstruction
 		String opcode = parts[0];
 		
 		if ( opcode.equalsIgnoreCase(SortKeys.OPCODE) ) {
-			if ( parts.length == 3 ) {
-				// Example: sort:mVar1:mVar2 (input=mVar1, output=mVar2)
-				parseUnaryInstruction(str, in1, out);
-				return new QuantileSortCPInstruction(new SimpleOperator(null), in1, out, opcode, str);
+			if ( parts.length == 4 ) {
+				// Example: sort:mVar1:mVar2:k (input=mVar1, output=mVar2, threads=k)
+				in1.split(parts[1]);
+				out.split(parts[2]);
+				int k = Integer.parseInt(parts[3]);
+				return new QuantileSortCPInstruction(new SimpleOperator(null), in1, out, opcode, str, k);
 			}
-			else if ( parts.length == 4 ) {
-				// Example: sort:mVar1:mVar2:mVar3 (input=mVar1, weights=mVar2, output=mVar3)
+			else if ( parts.length == 5 ) {
+				// Example: sort:mVar1:mVar2:mVar3:k (input=mVar1, weights=mVar2, output=mVar3, threads=k)
 				in2 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
-				parseUnaryInstruction(str, in1, in2, out);
-				return new QuantileSortCPInstruction(new SimpleOperator(null), in1, in2, out, opcode, str);
+				in1.split(parts[1]);
+				in2.split(parts[2]);
+				out.split(parts[3]);
+				int k = Integer.parseInt(parts[4]);
+				return new QuantileSortCPInstruction(new SimpleOperator(null), in1, in2, out, opcode, str, k);
 			}
 			else {
 				throw new DMLRuntimeException("Invalid number of operands in instruction: " + str);
@@ -81,6 +89,11 @@ public class QuantileSortCPInstruction extends UnaryCPInstruction
 		}
 	}
 	
+	@Override
+	public int getNumThreads() {
+		return Math.max(_numThreads, 1);
+	}
+	
 	@Override
 	public void processInstruction(ExecutionContext ec)
 			throws DMLRuntimeException 
@@ -93,7 +106,7 @@ public class QuantileSortCPInstruction extends UnaryCPInstruction
 		}
 		
  		//process core instruction
-		MatrixBlock resultBlock = (MatrixBlock) matBlock.sortOperations(wtBlock, new MatrixBlock());
+		MatrixBlock resultBlock = (MatrixBlock) matBlock.sortOperations(wtBlock, new MatrixBlock(), _numThreads);
 		
 		//release inputs
 		ec.releaseMatrixInput(input1.getName());
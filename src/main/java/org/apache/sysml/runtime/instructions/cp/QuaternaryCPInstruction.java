@@ -113,6 +113,11 @@ public class QuaternaryCPInstruction extends ComputationCPInstruction
 	}
 
 	
+	@Override
+	public int getNumThreads() {
+		return Math.max(_numThreads, 1);
+	}
+	
 	@Override
 	public void processInstruction(ExecutionContext ec) 
 		throws DMLRuntimeException
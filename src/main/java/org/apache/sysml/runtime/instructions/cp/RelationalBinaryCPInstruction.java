@@ -36,7 +36,7 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 	}
 	
 	public static RelationalBinaryCPInstruction parseInstruction ( String str ) throws DMLRuntimeException {
-		InstructionUtils.checkNumFields (str, 3);
+		InstructionUtils.checkNumFields (str, 3, 4);
 		CPOperand in1 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand in2 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand out = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
@@ -89,6 +89,9 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 			return new ScalarScalarRelationalCPInstruction(operator, in1, in2, out, opcode, str);
 		
 		}else if (dt1 == DataType.MATRIX || dt2 == DataType.MATRIX){
+			//set degree of parallelism for cell-wise matrix operations
+			parseNumThreads(str, operator);
+			
 			if(dt1 == DataType.MATRIX && dt2 == DataType.MATRIX)
 				return new MatrixMatrixRelationalCPInstruction(operator, in1, in2, out, opcode, str);
 			else
@@ -31,6 +31,7 @@ import org.apache.sysml.runtime.instructions.InstructionUtils;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.operators.Operator;
 import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.util.DataConverter;
 
 
 public class ReorgCPInstruction extends UnaryCPInstruction
@@ -98,13 +99,14 @@ public class ReorgCPInstruction extends UnaryCPInstruction
 			return new ReorgCPInstruction(new ReorgOperator(DiagIndex.getDiagIndexFnObject()), in, out, opcode, str);
 		} 
 		else if ( opcode.equalsIgnoreCase("rsort") ) {
-			InstructionUtils.checkNumFields(parts, 5);
+			int numFields = InstructionUtils.checkNumFields(parts, 5, 6);
 			in.split(parts[1]);
 			out.split(parts[5]);
 			CPOperand col = new CPOperand(parts[2]);
 			CPOperand desc = new CPOperand(parts[3]);
 			CPOperand ixret = new CPOperand(parts[4]);
-			return new ReorgCPInstruction(new ReorgOperator(SortIndex.getSortIndexFnObject(1,false,false)), 
+			int k = (numFields == 6) ? Integer.parseInt(parts[6]) : 1;
+			return new ReorgCPInstruction(new ReorgOperator(SortIndex.getSortIndexFnObject(1,false,false), k), 
 					                      in, col, desc, ixret, out, opcode, str);
 		}
 		else {
@@ -120,11 +122,19 @@ public class ReorgCPInstruction extends UnaryCPInstruction
 		MatrixBlock matBlock = ec.getMatrixInput(input1.getName());		
 		ReorgOperator r_op = (ReorgOperator) _optr;
 		if( r_op.fn instanceof SortIndex ) {
-			//additional attributes for sort
-			int col = (int)ec.getScalarInput(_col.getName(), _col.getValueType(), _col.isLiteral()).getLongValue();
+			//additional attributes for sort (scalar or vector of orderby columns)
+			int[] cols = null;
+			if( _col.getDataType() == DataType.MATRIX ) {
+				MatrixBlock colBlock = ec.getMatrixInput(_col.getName());
+				cols = DataConverter.convertToIntVector(colBlock);
+				ec.releaseMatrixInput(_col.getName());
+			}
+			else {
+				cols = new int[]{(int)ec.getScalarInput(_col.getName(), _col.getValueType(), _col.isLiteral()).getLongValue()};
+			}
 			boolean desc = ec.getScalarInput(_desc.getName(), _desc.getValueType(), _desc.isLiteral()).getBooleanValue();
 			boolean ixret = ec.getScalarInput(_ixret.getName(), _ixret.getValueType(), _ixret.isLiteral()).getBooleanValue();
-			r_op.fn = SortIndex.getSortIndexFnObject(col, desc, ixret);
+			r_op.fn = SortIndex.getSortIndexFnObject(cols, desc, ixret);
 		}
 		
 		//execute operation
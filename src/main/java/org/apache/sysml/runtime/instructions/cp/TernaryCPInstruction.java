@@ -26,11 +26,10 @@ import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.instructions.Instruction;
 import org.apache.sysml.runtime.instructions.InstructionUtils;
-import org.apache.sysml.runtime.matrix.data.CTableMap;
+import org.apache.sysml.runtime.matrix.data.LibMatrixCTable;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.operators.Operator;
 import org.apache.sysml.runtime.matrix.operators.SimpleOperator;
-import org.apache.sysml.runtime.util.DataConverter;
 
 
 public class TernaryCPInstruction extends ComputationCPInstruction
@@ -42,10 +41,18 @@ public class TernaryCPInstruction extends ComputationCPInstruction
 	private boolean _dim2Literal;
 	private boolean _isExpand;
 	private boolean _ignoreZeros;
+	private int _numThreads;
 	
 	public TernaryCPInstruction(Operator op, CPOperand in1, CPOperand in2, CPOperand in3, CPOperand out, 
 							 String outputDim1, boolean dim1Literal,String outputDim2, boolean dim2Literal, 
 							 boolean isExpand, boolean ignoreZeros, String opcode, String istr )
+	{
+		this(op, in1, in2, in3, out, outputDim1, dim1Literal, outputDim2, dim2Literal, isExpand, ignoreZeros, 1, opcode, istr);
+	}
+	
+	public TernaryCPInstruction(Operator op, CPOperand in1, CPOperand in2, CPOperand in3, CPOperand out, 
+							 String outputDim1, boolean dim1Literal,String outputDim2, boolean dim2Literal, 
+							 boolean isExpand, boolean ignoreZeros, int k, String opcode, String istr )
 	{
 		super(op, in1, in2, in3, out, opcode, istr);
 		_outDim1 = outputDim1;
@@ -54,13 +61,14 @@ public class TernaryCPInstruction extends ComputationCPInstruction
 		_dim2Literal = dim2Literal;
 		_isExpand = isExpand;
 		_ignoreZeros = ignoreZeros;
+		_numThreads = k;
 	}
 
 	public static TernaryCPInstruction parseInstruction(String inst) 
 		throws DMLRuntimeException
 	{
 		String[] parts = InstructionUtils.getInstructionPartsWithValueType(inst);
-		InstructionUtils.checkNumFields ( parts, 7 );
+		int numFields = InstructionUtils.checkNumFields ( parts, 7, 8 );
 		
 		String opcode = parts[0];
 		
@@ -81,9 +89,10 @@ public class TernaryCPInstruction extends ComputationCPInstruction
 
 		CPOperand out = new CPOperand(parts[6]);
 		boolean ignoreZeros = Boolean.parseBoolean(parts[7]);
+		int k = (numFields == 8) ? Integer.parseInt(parts[8]) : 1;
 		
 		// ctable does not require any operator, so we simply pass-in a dummy operator with null functionobject
-		return new TernaryCPInstruction(new SimpleOperator(null), in1, in2, in3, out, dim1Fields[0], Boolean.parseBoolean(dim1Fields[1]), dim2Fields[0], Boolean.parseBoolean(dim2Fields[1]), isExpand, ignoreZeros, opcode, inst);
+		return new TernaryCPInstruction(new SimpleOperator(null), in1, in2, in3, out, dim1Fields[0], Boolean.parseBoolean(dim1Fields[1]), dim2Fields[0], Boolean.parseBoolean(dim2Fields[1]), isExpand, ignoreZeros, k, opcode, inst);
 	}
 
 	private Ternary.OperationTypes findCtableOperation() {
@@ -93,15 +102,19 @@ public class TernaryCPInstruction extends ComputationCPInstruction
 		return Ternary.findCtableOperationByInputDataTypes(dt1, dt2, dt3);
 	}
 	
+	@Override
+	public int getNumThreads() {
+		return _numThreads;
+	}
+	
 	@Override
 	public void processInstruction(ExecutionContext ec) 
 		throws DMLRuntimeException {
 		
 		MatrixBlock matBlock1 = ec.getMatrixInput(input1.getName());
 		MatrixBlock matBlock2=null, wtBlock=null;
-		double cst1, cst2;
+		double cst1=0, cst2=0;
 		
-		CTableMap resultMap = new CTableMap();
 		MatrixBlock resultBlock = null;
 		Ternary.OperationTypes ctableOp = findCtableOperation();
 		ctableOp = _isExpand ? Ternary.OperationTypes.CTABLE_EXPAND_SCALAR_WEIGHT : ctableOp;
@@ -109,57 +122,48 @@ public class TernaryCPInstruction extends ComputationCPInstruction
 		long outputDim1 = (_dim1Literal ? (long) Double.parseDouble(_outDim1) : (ec.getScalarInput(_outDim1, ValueType.DOUBLE, false)).getLongValue());
 		long outputDim2 = (_dim2Literal ? (long) Double.parseDouble(_outDim2) : (ec.getScalarInput(_outDim2, ValueType.DOUBLE, false)).getLongValue());
 		
-		boolean outputDimsKnown = (outputDim1 != -1 && outputDim2 != -1);
-		if ( outputDimsKnown ) {
-			int inputRows = matBlock1.getNumRows();
-			int inputCols = matBlock1.getNumColumns();
-			boolean sparse = MatrixBlock.evalSparseFormatInMemory(outputDim1, outputDim2, inputRows*inputCols);
-			//only create result block if dense; it is important not to aggregate on sparse result
-			//blocks because it would implicitly turn the O(N) algorithm into O(N log N). 
-			if( !sparse )
-				resultBlock = new MatrixBlock((int)outputDim1, (int)outputDim2, false); 
-		}
-		if( _isExpand ){
-			resultBlock = new MatrixBlock( matBlock1.getNumRows(), Integer.MAX_VALUE, true );
-		}
-		
 		switch(ctableOp) {
 		case CTABLE_TRANSFORM: //(VECTOR)
 			// F=ctable(A,B,W)
 			matBlock2 = ec.getMatrixInput(input2.getName());
 			wtBlock = ec.getMatrixInput(input3.getName());
-			matBlock1.ternaryOperations((SimpleOperator)_optr, matBlock2, wtBlock, resultMap, resultBlock);
 			break;
 		case CTABLE_TRANSFORM_SCALAR_WEIGHT: //(VECTOR/MATRIX)
 			// F = ctable(A,B) or F = ctable(A,B,1)
 			matBlock2 = ec.getMatrixInput(input2.getName());
-			cst1 = ec.getScalarInput(input3.getName(), input3.getValueType(), input3.isLiteral()).getDoubleValue();
-			matBlock1.ternaryOperations((SimpleOperator)_optr, matBlock2, cst1, _ignoreZeros, resultMap, resultBlock);
+			cst2 = ec.getScalarInput(input3.getName(), input3.getValueType(), input3.isLiteral()).getDoubleValue();
 			break;
 		case CTABLE_EXPAND_SCALAR_WEIGHT: //(VECTOR)
 			// F = ctable(seq,A) or F = ctable(seq,B,1)
 			matBlock2 = ec.getMatrixInput(input2.getName());
 			cst1 = ec.getScalarInput(input3.getName(), input3.getValueType(), input3.isLiteral()).getDoubleValue();
 			// only resultBlock.rlen known, resultBlock.clen set in operation
+			resultBlock = new MatrixBlock( matBlock1.getNumRows(), Integer.MAX_VALUE, true );
 			matBlock1.ternaryOperations((SimpleOperator)_optr, matBlock2, cst1, resultBlock);
+			resultBlock.examSparsity();
 			break;
 		case CTABLE_TRANSFORM_HISTOGRAM: //(VECTOR)
 			// F=ctable(A,1) or F = ctable(A,1,1)
 			cst1 = ec.getScalarInput(input2.getName(), input2.getValueType(), input2.isLiteral()).getDoubleValue();
 			cst2 = ec.getScalarInput(input3.getName(), input3.getValueType(), input3.isLiteral()).getDoubleValue();
-			matBlock1.ternaryOperations((SimpleOperator)_optr, cst1, cst2, resultMap, resultBlock);
 			break;
 		case CTABLE_TRANSFORM_WEIGHTED_HISTOGRAM: //(VECTOR)
 			// F=ctable(A,1,W)
 			wtBlock = ec.getMatrixInput(input3.getName());
 			cst1 = ec.getScalarInput(input2.getName(), input2.getValueType(), input2.isLiteral()).getDoubleValue();
-			matBlock1.ternaryOperations((SimpleOperator)_optr, cst1, wtBlock, resultMap, resultBlock);
 			break;
 		
 		default:
 			throw new DMLRuntimeException("Encountered an invalid ctable operation ("+ctableOp+") while executing instruction: " + this.toString());
 		}
 		
+		//core (multi-threaded) ctable computation, which respects potentially 
+		//specified output dimensions via dense or hash aggregation
+		if( resultBlock == null ) {
+			resultBlock = LibMatrixCTable.ctable(matBlock1, matBlock2, cst1, wtBlock, cst2, 
+				_ignoreZeros, outputDim1, outputDim2, _numThreads);
+		}
+		
 		if(input1.getDataType() == DataType.MATRIX)
 			ec.releaseMatrixInput(input1.getName());
 		if(input2.getDataType() == DataType.MATRIX)
@@ -167,17 +171,6 @@ public class TernaryCPInstruction extends ComputationCPInstruction
 		if(input3.getDataType() == DataType.MATRIX)
 			ec.releaseMatrixInput(input3.getName());
 		
-		if ( resultBlock == null ){
-			//we need to respect potentially specified output dimensions here, because we might have 
-			//decided for hash-aggregation just to prevent inefficiency in case of sparse outputs.  
-			if( outputDimsKnown )
-				resultBlock = DataConverter.convertToMatrixBlock( resultMap, (int)outputDim1, (int)outputDim2 );
-			else
-				resultBlock = DataConverter.convertToMatrixBlock( resultMap );
-		}
-		else
-			resultBlock.examSparsity();
-		
 		ec.setMatrixOutput(output.getName(), resultBlock);
 	}	
 }
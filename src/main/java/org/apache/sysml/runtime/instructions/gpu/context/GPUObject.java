@@ -154,7 +154,7 @@ public abstract class GPUObject
 //	public void exportData() throws CacheException {
 //		boolean isDeviceCopyModified = mat.getGPUObject() != null && mat.getGPUObject().isDeviceCopyModified;
 //		boolean isHostCopyUnavailable = mat.getMatrixBlock() == null || 
-//				(mat.getMatrixBlock().getDenseBlock() == null && mat.getMatrixBlock().getSparseBlock() == null);
+//				(mat.getMatrixBlock().getDenseBlockValues() == null && mat.getMatrixBlock().getSparseBlock() == null);
 //		
 //		if(mat.getGPUObject() != null && (isDeviceCopyModified || isHostCopyUnavailable)) {
 //			try {
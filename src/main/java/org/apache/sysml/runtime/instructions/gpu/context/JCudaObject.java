@@ -177,7 +177,7 @@ public class JCudaObject extends GPUObject {
 			// tmp.sparseToDense();
 		}
 		else {
-			double[] data = tmp.getDenseBlock();
+			double[] data = tmp.getDenseBlockValues();
 			
 			if( data == null && tmp.getSparseBlock() != null )
 				throw new DMLRuntimeException("Incorrect sparsity calculation");
@@ -211,7 +211,7 @@ public class JCudaObject extends GPUObject {
 				long start = System.nanoTime();
 				MatrixBlock tmp = new MatrixBlock((int)mat.getNumRows(), (int)mat.getNumColumns(), false);
 				tmp.allocateDenseBlock();
-				double [] data = tmp.getDenseBlock();
+				double [] data = tmp.getDenseBlockValues();
 				
 				cudaMemcpy(Pointer.to(data), jcudaPointer, data.length * Sizeof.DOUBLE, cudaMemcpyDeviceToHost);
 				
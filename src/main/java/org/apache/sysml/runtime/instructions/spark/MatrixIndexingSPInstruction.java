@@ -19,14 +19,21 @@
 
 package org.apache.sysml.runtime.instructions.spark;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 
+import org.apache.spark.Partitioner;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
 import org.apache.spark.api.java.function.PairFunction;
+import org.apache.spark.rdd.PartitionPruningRDD;
 
+import scala.Function1;
 import scala.Tuple2;
+import scala.reflect.ClassManifestFactory;
+import scala.runtime.AbstractFunction1;
 
 import org.apache.sysml.hops.AggBinaryOp.SparkAggType;
 import org.apache.sysml.runtime.DMLRuntimeException;
@@ -50,6 +57,9 @@ import org.apache.sysml.runtime.util.UtilFunctions;
 
 public class MatrixIndexingSPInstruction  extends IndexingSPInstruction
 {
+	//max number of requested blocks for partition pruning (driver-side partition lookup)
+	private static final long PRUNING_MAX_BLOCKS = 64*1024;
+	
 	/*
 	 * This class implements the matrix indexing functionality inside CP.  
 	 * Example instructions: 
@@ -107,6 +117,10 @@ public class MatrixIndexingSPInstruction  extends IndexingSPInstruction
 						new SliceBlockPartitionFunction(ixrange, mcOut), true);
 			}
 			else{
+				//prune partitions of partitioned inputs to avoid a scan of all blocks
+				if( isPartitionPruningApplicable(in1, mcIn, ixrange) )
+					in1 = createPartitionPruningRDD(in1, mcIn, ixrange);
+				
 				out = in1.filter(new IsBlockInRange(rl, ru, cl, cu, mcOut))
 			             .flatMapToPair(new SliceBlock(ixrange, mcOut));
 				
@@ -200,6 +214,70 @@ public class MatrixIndexingSPInstruction  extends IndexingSPInstruction
 	}
 	
 	
+	/**
+	 * Indicates if the input rdd has a known partitioner (e.g., after repartition
+	 * and caching) and the number of requested blocks is small enough for a 
+	 * driver-side lookup of their partitions.
+	 * 
+	 * @param in
+	 * @param mcIn
+	 * @param ixrange
+	 * @return
+	 */
+	public static boolean isPartitionPruningApplicable(JavaPairRDD<MatrixIndexes,MatrixBlock> in, MatrixCharacteristics mcIn, IndexRange ixrange)
+	{
+		if( !mcIn.dimsKnown() || !SparkUtils.isPartitioned(in) )
+			return false;
+		
+		long nrblks = UtilFunctions.computeBlockIndex(ixrange.rowEnd, mcIn.getRowsPerBlock())
+			- UtilFunctions.computeBlockIndex(ixrange.rowStart, mcIn.getRowsPerBlock()) + 1;
+		long ncblks = UtilFunctions.computeBlockIndex(ixrange.colEnd, mcIn.getColsPerBlock())
+			- UtilFunctions.computeBlockIndex(ixrange.colStart, mcIn.getColsPerBlock()) + 1;
+		return nrblks * ncblks <= PRUNING_MAX_BLOCKS
+			&& nrblks * ncblks < mcIn.getNumRowBlocks() * mcIn.getNumColBlocks();
+	}
+	
+	/**
+	 * Wraps the input into a partition pruning rdd that only contains the partitions 
+	 * of the requested blocks, obtained via lookups of all block indexes in the 
+	 * partitioner of the input rdd.
+	 * 
+	 * @param in
+	 * @param mcIn
+	 * @param ixrange
+	 * @return
+	 */
+	public static JavaPairRDD<MatrixIndexes,MatrixBlock> createPartitionPruningRDD( 
+			JavaPairRDD<MatrixIndexes,MatrixBlock> in, MatrixCharacteristics mcIn, IndexRange ixrange )
+	{
+		int brlen = mcIn.getRowsPerBlock();
+		int bclen = mcIn.getColsPerBlock();
+		
+		//build set of required partition ids via block index lookups
+		HashSet<Integer> flags = new HashSet<Integer>();
+		Partitioner partitioner = in.rdd().partitioner().get();
+		MatrixIndexes ix = new MatrixIndexes();
+		for( long i=UtilFunctions.computeBlockIndex(ixrange.rowStart, brlen); 
+			i<=UtilFunctions.computeBlockIndex(ixrange.rowEnd, brlen); i++ )
+			for( long j=UtilFunctions.computeBlockIndex(ixrange.colStart, bclen); 
+				j<=UtilFunctions.computeBlockIndex(ixrange.colEnd, bclen); j++ ) {
+				ix.setIndexes(i, j);
+				flags.add(partitioner.getPartition(ix));
+			}
+		
+		//no pruning if all partitions are required
+		if( flags.size() >= partitioner.numPartitions() )
+			return in;
+		
+		//create partition pruning rdd and wrap output into java pair rdd
+		Function1<Object,Object> f = new PartitionPruningFunction(flags);
+		PartitionPruningRDD<Tuple2<MatrixIndexes, MatrixBlock>> ppRDD = 
+				PartitionPruningRDD.create(in.rdd(), f);
+		return new JavaPairRDD<MatrixIndexes,MatrixBlock>(ppRDD, 
+				ClassManifestFactory.fromClass(MatrixIndexes.class), 
+				ClassManifestFactory.fromClass(MatrixBlock.class));
+	}
+	
 	/**
 	 * 
 	 */
@@ -413,4 +491,24 @@ public class MatrixIndexingSPInstruction  extends IndexingSPInstruction
 			}			
 		}
 	}
+	
+	/**
+	 * Filter function of partition pruning rdds, which keeps all partitions 
+	 * of the given set of partition ids.
+	 */
+	private static class PartitionPruningFunction extends AbstractFunction1<Object,Object> implements Serializable 
+	{
+		private static final long serialVersionUID = -9114299718258329951L;
+		
+		private HashSet<Integer> _flags = null;
+		
+		public PartitionPruningFunction(HashSet<Integer> flags) {
+			_flags = flags;
+		}
+		
+		@Override
+		public Boolean apply(Object partIndex) {
+			return _flags.contains((Integer)partIndex);
+		}
+	}
 }
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Random;
 
 import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.mapred.SequenceFileOutputFormat;
 import org.apache.spark.Accumulator;
 import org.apache.spark.api.java.JavaPairRDD;
@@ -35,12 +36,14 @@ import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
 import org.apache.sysml.runtime.instructions.InstructionUtils;
 import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.spark.CompressionSPInstruction.DecompressionFunction;
 import org.apache.sysml.runtime.instructions.spark.functions.ComputeBinaryBlockNnzFunction;
 import org.apache.sysml.runtime.instructions.spark.functions.ConvertMatrixBlockToIJVLines;
 import org.apache.sysml.runtime.instructions.spark.utils.FrameRDDConverterUtils;
 import org.apache.sysml.runtime.instructions.spark.utils.FrameRDDConverterUtils.LongFrameToLongWritableFrameFunction;
 import org.apache.sysml.runtime.instructions.spark.utils.RDDConverterUtils;
 import org.apache.sysml.runtime.instructions.spark.utils.SparkUtils;
+import org.apache.sysml.runtime.io.BlockCompressionUtils;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.FileFormatProperties;
@@ -174,6 +177,9 @@ public class WriteSPInstruction extends SPInstruction
 		JavaPairRDD<MatrixIndexes,MatrixBlock> in1 = sec.getBinaryBlockRDDHandleForVariable( input1.getName() );
 		MatrixCharacteristics mc = sec.getMatrixCharacteristics(input1.getName());
 		
+		//decompress compressed blocks (not supported by output formats)
+		in1 = in1.mapValues(new DecompressionFunction());
+		
 		if(    oi == OutputInfo.MatrixMarketOutputInfo
 			|| oi == OutputInfo.TextCellOutputInfo     ) 
 		{
@@ -248,6 +254,21 @@ public class WriteSPInstruction extends SPInstruction
 			if( isInputMatrixBlock && !mc.nnzKnown() )
 				mc.setNonZeros((long)aNnz.value().longValue());
 		}
+		else if( oi == OutputInfo.LIBSVMOutputInfo ) 
+		{
+			//piggyback nnz computation on actual write
+			Accumulator<Double> aNnz = null;
+			if( !mc.nnzKnown() ) {
+				aNnz = sec.getSparkContext().accumulator(0L);
+				in1 = in1.mapValues(new ComputeBinaryBlockNnzFunction(aNnz));
+			}
+			
+			JavaRDD<String> out = RDDConverterUtils.binaryBlockToLibsvm(in1, mc, true);
+			customSaveTextFile(out, fname, false);
+			
+			if( !mc.nnzKnown() )
+				mc.setNonZeros((long)aNnz.value().longValue());
+		}
 		else if( oi == OutputInfo.BinaryBlockOutputInfo ) {
 			//piggyback nnz computation on actual write
 			Accumulator<Double> aNnz = null;
@@ -256,8 +277,12 @@ public class WriteSPInstruction extends SPInstruction
 				in1 = in1.mapValues(new ComputeBinaryBlockNnzFunction(aNnz));
 			}
 			
-			//save binary block rdd on hdfs
-			in1.saveAsHadoopFile(fname, MatrixIndexes.class, MatrixBlock.class, SequenceFileOutputFormat.class);
+			//save binary block rdd on hdfs (block-compressed if configured)
+			Class<? extends CompressionCodec> codec = BlockCompressionUtils.getConfiguredCodecClass();
+			if( codec != null )
+				in1.saveAsHadoopFile(fname, MatrixIndexes.class, MatrixBlock.class, SequenceFileOutputFormat.class, codec);
+			else
+				in1.saveAsHadoopFile(fname, MatrixIndexes.class, MatrixBlock.class, SequenceFileOutputFormat.class);
 			
 			if( !mc.nnzKnown() )
 				mc.setNonZeros((long)aNnz.value().longValue());
@@ -113,4 +113,9 @@ public class BlockPartitioner extends Partitioner
 			&& _rbPerPart == that._rbPerPart
 			&& _cbPerPart == that._cbPerPart;
 	}
+	
+	@Override
+	public int hashCode() {
+		return _numParts * 31 + _ncparts;
+	}
 }
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.instructions.spark.data;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import org.apache.sysml.runtime.matrix.data.MatrixBlockDataInput;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+import com.esotericsoftware.kryo.io.Input;
+
+/**
+ * Custom DataInput to deserialize matrix and frame blocks via their writable
+ * serialization directly from a kryo input, see KryoDataOutput.
+ * 
+ */
+public class KryoDataInput implements DataInput, MatrixBlockDataInput
+{
+	private static final int BUFFER_SIZE = 8184; //multiple of 8 and 12
+	
+	private Input _in = null;
+	private final byte[] _buff = new byte[BUFFER_SIZE];
+	
+	public KryoDataInput() {
+		//do nothing (input set on reuse)
+	}
+	
+	public KryoDataInput( Input in ) {
+		_in = in;
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @return
+	 */
+	public KryoDataInput setInput( Input in ) {
+		_in = in;
+		return this;
+	}
+	
+	@Override
+	public void readFully(byte[] b) throws IOException {
+		_in.readBytes(b);
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		_in.readBytes(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(int n) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public boolean readBoolean() throws IOException {
+		return _in.readBoolean();
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		return _in.readByte();
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		return _in.readByteUnsigned();
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		return _in.readShort();
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		return _in.readShortUnsigned();
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		return _in.readChar();
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		return _in.readInt();
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		return _in.readLong();
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		return _in.readFloat();
+	}
+
+	@Override
+	public double readDouble() throws IOException {
+		return _in.readDouble();
+	}
+
+	@Override
+	public String readLine() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		//note: kryo string encoding, consistent with KryoDataOutput.writeUTF
+		return _in.readString();
+	}
+
+	
+	///////////////////////////////////////////////
+	// Implementation of MatrixBlockDataInput
+	///////////////////////////////////////////////	
+	
+	@Override
+	public long readDoubleArray(int len, double[] varr) 
+		throws IOException 
+	{
+		//counter for non-zero elements
+		long nnz = 0;
+		
+		//deserialize entire array in chunks of the buffer size
+		for( int i=0; i<len; ) {
+			int blen = Math.min(len-i, BUFFER_SIZE/8);
+			_in.readBytes(_buff, 0, blen*8);
+			for( int j=0; j<blen; j++, i++ ) {
+				varr[i] = Double.longBitsToDouble(baToLong(_buff, j*8));
+				nnz += (varr[i]!=0) ? 1 : 0;
+			}
+		}
+		
+		return nnz;
+	}
+
+	@Override
+	public long readSparseRows(int rlen, SparseBlock rows) 
+		throws IOException 
+	{
+		//counter for non-zero elements
+		long nnz = 0;
+		
+		//read all individual sparse rows from input
+		for( int i=0; i<rlen; i++ )
+		{
+			int lnnz = _in.readInt();
+			
+			if( lnnz > 0 ) //non-zero row
+			{
+				//get handle to sparse (allocate if necessary)
+				rows.allocate(i, lnnz);
+				
+				//read single sparse row in chunks of the buffer size
+				for( int j=0; j<lnnz; ) {
+					int blen = Math.min(lnnz-j, BUFFER_SIZE/12);
+					_in.readBytes(_buff, 0, blen*12);
+					for( int k=0; k<blen; k++, j++ ) {
+						int aix = baToInt(_buff, k*12);
+						double aval = Double.longBitsToDouble(baToLong(_buff, k*12+4));
+						rows.append(i, aix, aval);
+					}
+				}
+				
+				nnz += lnnz;	
+			}
+		}
+		
+		return nnz;
+	}
+	
+	/**
+	 * 
+	 * @param ba
+	 * @param off
+	 * @return
+	 */
+	private static int baToInt( byte[] ba, final int off )
+	{
+		//shift and add 4 bytes
+		return ((ba[off+0] & 0xFF) << 24)
+			 + ((ba[off+1] & 0xFF) << 16)
+			 + ((ba[off+2] & 0xFF) <<  8)
+			 + ((ba[off+3] & 0xFF) <<  0);
+	}
+	
+	/**
+	 * 
+	 * @param ba
+	 * @param off
+	 * @return
+	 */
+	private static long baToLong( byte[] ba, final int off )
+	{
+		//shift and add 8 bytes
+		return ((long)(ba[off+0] & 0xFF) << 56)
+			 + ((long)(ba[off+1] & 0xFF) << 48)
+			 + ((long)(ba[off+2] & 0xFF) << 40)
+			 + ((long)(ba[off+3] & 0xFF) << 32)
+			 + ((long)(ba[off+4] & 0xFF) << 24)
+			 + ((long)(ba[off+5] & 0xFF) << 16)
+			 + ((long)(ba[off+6] & 0xFF) <<  8)
+			 + ((long)(ba[off+7] & 0xFF) <<  0);
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.instructions.spark.data;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.sysml.runtime.matrix.data.MatrixBlockDataOutput;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Custom DataOutput to serialize matrix and frame blocks via their writable
+ * serialization directly into a kryo output (e.g., of spark shuffle or broadcast). 
+ * The byte layout is identical to the default DataOutput serialization but dense
+ * and sparse blocks are written in bulk through a small byte buffer.
+ * 
+ */
+public class KryoDataOutput implements DataOutput, MatrixBlockDataOutput 
+{
+	private static final int BUFFER_SIZE = 8192; //multiple of 8
+	
+	private Output _out = null;
+	private final byte[] _buff = new byte[BUFFER_SIZE];
+	
+	public KryoDataOutput() {
+		//do nothing (output set on reuse)
+	}
+	
+	public KryoDataOutput( Output out ) {
+		_out = out;
+	}
+	
+	/**
+	 * 
+	 * @param out
+	 * @return
+	 */
+	public KryoDataOutput setOutput( Output out ) {
+		_out = out;
+		return this;
+	}
+	
+	@Override
+	public void write(int b) throws IOException {
+		_out.writeByte(b);
+	}
+
+	@Override
+	public void write(byte[] b) throws IOException {
+		_out.writeBytes(b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		_out.writeBytes(b, off, len);
+	}
+
+	@Override
+	public void writeBoolean(boolean v) throws IOException {
+		_out.writeBoolean(v);
+	}
+
+	@Override
+	public void writeByte(int v) throws IOException {
+		_out.writeByte(v);
+	}
+
+	@Override
+	public void writeShort(int v) throws IOException {
+		_out.writeShort(v);
+	}
+
+	@Override
+	public void writeChar(int v) throws IOException {
+		_out.writeChar((char)v);
+	}
+
+	@Override
+	public void writeInt(int v) throws IOException {
+		_out.writeInt(v);
+	}
+
+	@Override
+	public void writeLong(long v) throws IOException {
+		_out.writeLong(v);
+	}
+
+	@Override
+	public void writeFloat(float v) throws IOException {
+		_out.writeFloat(v);
+	}
+
+	@Override
+	public void writeDouble(double v) throws IOException {
+		_out.writeDouble(v);
+	}
+
+	@Override
+	public void writeBytes(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeChars(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeUTF(String s) throws IOException {
+		//note: kryo string encoding, consistent with KryoDataInput.readUTF
+		_out.writeString(s);
+	}
+
+	
+	///////////////////////////////////////////////
+	// Implementation of MatrixBlockDataOutput
+	///////////////////////////////////////////////	
+	
+	@Override
+	public void writeDoubleArray(int len, double[] varr) 
+		throws IOException 
+	{
+		//serialize entire array in chunks of the buffer size
+		int off = 0;
+		for( int i=0; i<len; i++ ) {
+			if( off == BUFFER_SIZE ) {
+				_out.writeBytes(_buff, 0, off);
+				off = 0;
+			}
+			longToBa(Double.doubleToRawLongBits(varr[i]), _buff, off);
+			off += 8;
+		}
+		
+		//flush remaining buffer
+		if( off > 0 )
+			_out.writeBytes(_buff, 0, off);
+	}
+
+	@Override
+	public void writeSparseRows(int rlen, SparseBlock rows) 
+		throws IOException 
+	{
+		int lrlen = Math.min(rows.numRows(), rlen);
+		int off = 0;
+		
+		//process existing rows
+		for( int i=0; i<lrlen; i++ )
+		{
+			if( !rows.isEmpty(i) )
+			{
+				int apos = rows.pos(i);
+				int alen = rows.size(i);
+				int[] aix = rows.indexes(i);
+				double[] avals = rows.values(i);
+				
+				off = flushIfFull(off, 4);
+				intToBa(alen, _buff, off);
+				off += 4;
+				
+				for( int j=apos; j<apos+alen; j++ ) {
+					off = flushIfFull(off, 12);
+					intToBa(aix[j], _buff, off);
+					longToBa(Double.doubleToRawLongBits(avals[j]), _buff, off+4);
+					off += 12;
+				}
+			}
+			else {
+				off = flushIfFull(off, 4);
+				intToBa(0, _buff, off);
+				off += 4;
+			}
+		}
+		
+		//flush remaining buffer
+		if( off > 0 )
+			_out.writeBytes(_buff, 0, off);
+		
+		//process remaining empty rows
+		for( int i=lrlen; i<rlen; i++ )
+			_out.writeInt( 0 );
+	}
+	
+	/**
+	 * 
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	private int flushIfFull( int off, int len ) {
+		if( off + len > BUFFER_SIZE ) {
+			_out.writeBytes(_buff, 0, off);
+			return 0;
+		}
+		return off;
+	}
+	
+	/**
+	 * 
+	 * @param val
+	 * @param ba
+	 * @param off
+	 */
+	private static void intToBa( final int val, byte[] ba, final int off )
+	{
+		//shift and mask out 4 bytes
+		ba[ off+0 ] = (byte)((val >>> 24) & 0xFF);
+		ba[ off+1 ] = (byte)((val >>> 16) & 0xFF);
+		ba[ off+2 ] = (byte)((val >>>  8) & 0xFF);
+		ba[ off+3 ] = (byte)((val >>>  0) & 0xFF);
+	}
+	
+	/**
+	 * 
+	 * @param val
+	 * @param ba
+	 * @param off
+	 */
+	private static void longToBa( final long val, byte[] ba, final int off )
+	{
+		//shift and mask out 8 bytes
+		ba[ off+0 ] = (byte)((val >>> 56) & 0xFF);
+		ba[ off+1 ] = (byte)((val >>> 48) & 0xFF);
+		ba[ off+2 ] = (byte)((val >>> 40) & 0xFF);
+		ba[ off+3 ] = (byte)((val >>> 32) & 0xFF);
+		ba[ off+4 ] = (byte)((val >>> 24) & 0xFF);
+		ba[ off+5 ] = (byte)((val >>> 16) & 0xFF);
+		ba[ off+6 ] = (byte)((val >>>  8) & 0xFF);
+		ba[ off+7 ] = (byte)((val >>>  0) & 0xFF);
+	}
+}
@@ -33,6 +33,8 @@ import java.util.ArrayList;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.Pair;
 import org.apache.sysml.runtime.util.FastBufferedDataInputStream;
 import org.apache.sysml.runtime.util.FastBufferedDataOutputStream;
@@ -238,7 +240,7 @@ public class PartitionedBlock<T extends CacheBlock> implements Externalizable
 	
 	public long getExactSerializedSize()
 	{
-		long ret = 24; //header
+		long ret = 33; //header
 		
 		if( _partBlocks != null )
 			for( T block :  _partBlocks )
@@ -348,11 +350,13 @@ public class PartitionedBlock<T extends CacheBlock> implements Externalizable
 	}
 	
 	/**
+	 * Writes the header, block type, and all partition blocks via their
+	 * writable serialization (used for java and kryo serialization).
 	 * 
 	 * @param dos
 	 * @throws IOException 
 	 */
-	private void writeHeaderAndPayload(DataOutput dos) 
+	public void writeHeaderAndPayload(DataOutput dos) 
 		throws IOException
 	{
 		dos.writeLong(_rlen);
@@ -360,6 +364,8 @@ public class PartitionedBlock<T extends CacheBlock> implements Externalizable
 		dos.writeInt(_brlen);
 		dos.writeInt(_bclen);
 		dos.writeInt(_offset);
+		dos.writeByte(FrameBlock.class.isAssignableFrom(
+			_partBlocks.getClass().getComponentType()) ? 1 : 0); //block type
 		dos.writeInt(_partBlocks.length);
 		
 		for( T block : _partBlocks )
@@ -367,33 +373,39 @@ public class PartitionedBlock<T extends CacheBlock> implements Externalizable
 	}
 
 	/**
+	 * Reads the header, block type, and all partition blocks as written 
+	 * by writeHeaderAndPayload.
 	 * 
 	 * @param din
 	 * @throws IOException 
 	 */
 	@SuppressWarnings("unchecked")
-	private void readHeaderAndPayload(DataInput dis) 
+	public void readHeaderAndPayload(DataInput dis) 
 		throws IOException
 	{
-		_rlen = dis.readInt();
-		_clen = dis.readInt();
+		_rlen = dis.readLong();
+		_clen = dis.readLong();
 		_brlen = dis.readInt();
 		_bclen = dis.readInt();
 		_offset = dis.readInt();
 		
+		Class<?> clazz = (dis.readByte() == 1) ? FrameBlock.class : MatrixBlock.class;
 		int len = dis.readInt();
 		
 		try
 		{
-			_partBlocks = (T[])Array.newInstance(getClass(), len);
+			_partBlocks = (T[])Array.newInstance(clazz, len);
 			for( int i=0; i<len; i++ ) {
+				_partBlocks[i] = (T)clazz.newInstance();
 				_partBlocks[i].readFields(dis);
 			}
 		}
+		catch(IOException ex) {
+			throw ex;
+		}
 		catch(Exception ex) {
-			throw new RuntimeException("Failed partitioning of broadcast variable input.", ex);
+			throw new IOException("Failed deserialization of partitioned block.", ex);
 		}
-		
 	}
 	
 }
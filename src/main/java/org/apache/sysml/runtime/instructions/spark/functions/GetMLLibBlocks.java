@@ -59,7 +59,7 @@ public class GetMLLibBlocks implements PairFunction<Tuple2<MatrixIndexes,MatrixB
 			return nnz;
 		}
 		else {
-			return blk.getDenseBlock().length;
+			return blk.getDenseBlockValues().length;
 		}
 	}
 	
@@ -115,7 +115,7 @@ public class GetMLLibBlocks implements PairFunction<Tuple2<MatrixIndexes,MatrixB
 			mllibBlock = new SparseMatrix(lrlen, lclen, colPtrs, rowIndices, values);
 		}
 		else {
-			mllibBlock = new DenseMatrix(lrlen, lclen, blk.getDenseBlock());
+			mllibBlock = new DenseMatrix(lrlen, lclen, blk.getDenseBlockValues());
 		}
 		return new Tuple2<Tuple2<Object,Object>, Matrix>(new Tuple2<Object,Object>(blockRowIndex, blockColIndex), mllibBlock);
 	}
@@ -26,8 +26,10 @@ import org.apache.sysml.lops.PartialAggregate.CorrectionLocationType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.functionobjects.KahanPlus;
 import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.instructions.spark.data.BlockPartitioner;
 import org.apache.sysml.runtime.instructions.spark.data.CorrMatrixBlock;
 import org.apache.sysml.runtime.instructions.spark.data.RowMatrixBlock;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
@@ -243,17 +245,20 @@ public class RDDAggregateUtils
 	}
 	
 	/**
+	 * Merges disjoint data of all blocks per key, where the output is partitioned
+	 * with a tile-based block partitioner, which allows subsequent partition 
+	 * pruning via lookups of block indexes (e.g., for right indexing).
 	 * 
 	 * @param mc
 	 * @param in
 	 * @return
 	 */
-//	public static JavaPairRDD<MatrixIndexes, MatrixBlock> mergeByKey( MatrixCharacteristics mc, JavaPairRDD<MatrixIndexes, MatrixBlock> in )
-//	{
-//		return in.reduceByKey(
-//				new BlockPartitioner(mc, in.partitions().size()),
-//				new MergeBlocksFunction());
-//	}
+	public static JavaPairRDD<MatrixIndexes, MatrixBlock> mergeByKey( MatrixCharacteristics mc, JavaPairRDD<MatrixIndexes, MatrixBlock> in )
+	{
+		return in.reduceByKey(
+				new BlockPartitioner(mc, in.partitions().size()),
+				new MergeBlocksFunction());
+	}
 	
 	/**
 	 * Merges disjoint data of all blocks per key.
@@ -32,6 +32,7 @@ import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.api.java.function.FlatMapFunction;
 import org.apache.spark.api.java.function.Function;
+import org.apache.spark.api.java.function.Function2;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
 import org.apache.spark.api.java.function.PairFunction;
 import org.apache.spark.mllib.linalg.Vectors;
@@ -43,6 +44,9 @@ import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.instructions.spark.data.SerLongWritable;
 import org.apache.sysml.runtime.instructions.spark.data.SerText;
 import org.apache.sysml.runtime.io.IOUtilFunctions;
+import org.apache.sysml.runtime.io.ReaderTextLIBSVM;
+import org.apache.sysml.runtime.io.ReaderTextLIBSVM.LIBSVMRow;
+import org.apache.sysml.runtime.io.WriterTextLIBSVM;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
@@ -242,6 +246,78 @@ public class RDDConverterUtils
 		return csvToBinaryBlock(sc, prepinput, mcOut, hasHeader, delim, fill, fillValue);
 	}
 	
+	/**
+	 * Converts an rdd of libsvm lines ("label index:value ...") into a binary block rdd, 
+	 * where the features are stored in columns 1 to clen-1 and the label in column clen.
+	 * Unknown dimensions are determined in a single pass over the input.
+	 * 
+	 * @param sc
+	 * @param input
+	 * @param mcOut
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static JavaPairRDD<MatrixIndexes, MatrixBlock> libsvmToBinaryBlock(JavaSparkContext sc,
+			JavaPairRDD<LongWritable, Text> input, MatrixCharacteristics mcOut) 
+		throws DMLRuntimeException 
+	{
+		//determine unknown dimensions and sparsity if required
+		if( !mcOut.dimsKnown(true) ) {
+			long[] stats = input.values()
+					.map(new LIBSVMAnalysisFunction())
+					.reduce(new LIBSVMAnalysisAggFunction());
+			long clen = (mcOut.getCols() > 0) ? mcOut.getCols() : stats[1];
+			mcOut.set(stats[0], clen, mcOut.getRowsPerBlock(), mcOut.getColsPerBlock(), stats[2]);
+		}
+		
+		//prepare libsvm w/ row indexes (sorted by filenames)
+		JavaPairRDD<Text,Long> prepinput = input.values()
+				.zipWithIndex(); //zip row index
+		
+		//convert libsvm rdd to binary block rdd (w/ partial blocks)
+		JavaPairRDD<MatrixIndexes, MatrixBlock> out = 
+				prepinput.mapPartitionsToPair(new LIBSVMToBinaryBlockFunction(mcOut));
+		
+		//aggregate partial matrix blocks
+		out = RDDAggregateUtils.mergeByKey( out ); 
+		
+		return out;
+	}
+	
+	/**
+	 * Converts a binary block rdd into an rdd of libsvm lines, where the last column
+	 * is written as label and all other non-zero columns as features.
+	 * 
+	 * @param in
+	 * @param mcIn
+	 * @param strict
+	 * @return
+	 */
+	public static JavaRDD<String> binaryBlockToLibsvm(JavaPairRDD<MatrixIndexes,MatrixBlock> in, MatrixCharacteristics mcIn, boolean strict)
+	{
+		JavaPairRDD<MatrixIndexes,MatrixBlock> input = in;
+		
+		//fast path without, general case with shuffle
+		if( mcIn.getCols()>mcIn.getColsPerBlock() ) {
+			//create row partitioned matrix
+			input = input
+					.flatMapToPair(new SliceBinaryBlockToRowsFunction(mcIn.getRowsPerBlock()))
+					.groupByKey()
+					.mapToPair(new ConcatenateBlocksFunction(mcIn.getCols(), mcIn.getColsPerBlock()));	
+		}
+		
+		//sort if required (on blocks/rows)
+		if( strict ) {
+			input = input.sortByKey(true);
+		}
+		
+		//convert binary block to libsvm (from blocks/rows)
+		JavaRDD<String> out = input
+				.flatMap(new BinaryBlockToLIBSVMFunction());
+	
+		return out;
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -668,6 +744,166 @@ public class RDDConverterUtils
 		}
 	}
 	
+	/////////////////////////////////
+	// LIBSVM-SPECIFIC FUNCTIONS
+	
+	/**
+	 * Computes the number of rows (1), number of columns incl label, and 
+	 * number of non-zeros of a single libsvm line.
+	 */
+	private static class LIBSVMAnalysisFunction implements Function<Text,long[]> 
+	{
+		private static final long serialVersionUID = 3423105812394283916L;
+
+		@Override
+		public long[] call(Text v1) 
+			throws Exception 
+		{
+			LIBSVMRow row = new LIBSVMRow();
+			ReaderTextLIBSVM.parseLIBSVMRow(v1.getBytes(), 0, v1.getLength(), -1, row);
+			int len = row.size();
+			long ncol = (len > 0) ? row.indexes()[len-1] + 2 : 1;
+			return new long[]{1, ncol, len + ((row.getLabel()!=0) ? 1 : 0)};
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class LIBSVMAnalysisAggFunction implements Function2<long[],long[],long[]> 
+	{
+		private static final long serialVersionUID = -2390474367155374325L;
+
+		@Override
+		public long[] call(long[] v1, long[] v2) 
+			throws Exception 
+		{
+			return new long[]{v1[0]+v2[0], Math.max(v1[1], v2[1]), v1[2]+v2[2]};
+		}
+	}
+	
+	/**
+	 * This functions allows to map rdd partitions of libsvm rows into a set of partial 
+	 * binary blocks. Similar to the csv conversion, we keep the state of all column blocks
+	 * of the current row block, but allocate these blocks in sparse format and append the 
+	 * sorted features and label per row.
+	 * 
+	 */
+	private static class LIBSVMToBinaryBlockFunction implements PairFlatMapFunction<Iterator<Tuple2<Text,Long>>,MatrixIndexes,MatrixBlock> 
+	{
+		private static final long serialVersionUID = 5461298738261410522L;
+		
+		private long _rlen = -1;
+		private long _clen = -1;
+		private int _brlen = -1;
+		private int _bclen = -1;
+		
+		public LIBSVMToBinaryBlockFunction(MatrixCharacteristics mc)
+		{
+			_rlen = mc.getRows();
+			_clen = mc.getCols();
+			_brlen = mc.getRowsPerBlock();
+			_bclen = mc.getColsPerBlock();
+		}
+
+		@Override
+		public Iterable<Tuple2<MatrixIndexes, MatrixBlock>> call(Iterator<Tuple2<Text,Long>> arg0) 
+			throws Exception 
+		{
+			ArrayList<Tuple2<MatrixIndexes,MatrixBlock>> ret = new ArrayList<Tuple2<MatrixIndexes,MatrixBlock>>();
+
+			int ncblks = (int)Math.ceil((double)_clen/_bclen);
+			MatrixIndexes[] ix = new MatrixIndexes[ncblks];
+			MatrixBlock[] mb = new MatrixBlock[ncblks];
+			LIBSVMRow row = new LIBSVMRow();
+			
+			while( arg0.hasNext() )
+			{
+				Tuple2<Text,Long> tmp = arg0.next();
+				Text text = tmp._1();
+				long rowix = tmp._2() + 1;
+				
+				long rix = UtilFunctions.computeBlockIndex(rowix, _brlen);
+				int pos = UtilFunctions.computeCellInBlock(rowix, _brlen);
+			
+				//create new blocks for entire row
+				if( ix[0] == null || ix[0].getRowIndex() != rix ) {
+					if( ix[0] !=null )
+						flushBlocksToList(ix, mb, ret);
+					long len = UtilFunctions.computeBlockSize(_rlen, rix, _brlen);
+					createBlocks(rowix, (int)len, ix, mb);
+				}
+				
+				//process row data (sorted features, label in last column)
+				ReaderTextLIBSVM.parseLIBSVMRow(text.getBytes(), 0, text.getLength(), _clen, row);
+				int[] aix = row.indexes();
+				double[] avals = row.values();
+				for( int k=0; k<row.size(); k++ )
+					mb[aix[k]/_bclen].appendValue(pos, aix[k]%_bclen, avals[k]);
+				int lcol = (int)_clen - 1;
+				mb[lcol/_bclen].appendValue(pos, lcol%_bclen, row.getLabel());
+			}
+		
+			//flush last blocks
+			flushBlocksToList(ix, mb, ret);
+		
+			return ret;
+		}
+		
+		// Creates new state of empty column blocks for current global row index.
+		private void createBlocks(long rowix, int lrlen, MatrixIndexes[] ix, MatrixBlock[] mb)
+		{
+			//compute row block index and number of column blocks
+			long rix = UtilFunctions.computeBlockIndex(rowix, _brlen);
+			int ncblks = (int)Math.ceil((double)_clen/_bclen);
+			
+			//create all column blocks (assume sparse since libsvm is sparse text format)
+			for( int cix=1; cix<=ncblks; cix++ ) {
+				int lclen = (int)UtilFunctions.computeBlockSize(_clen, cix, _bclen);				
+				ix[cix-1] = new MatrixIndexes(rix, cix);
+				mb[cix-1] = new MatrixBlock(lrlen, lclen, true);		
+			}
+		}
+		
+		// Flushes current state of filled column blocks to output list.
+		private void flushBlocksToList( MatrixIndexes[] ix, MatrixBlock[] mb, ArrayList<Tuple2<MatrixIndexes,MatrixBlock>> ret ) 
+			throws DMLRuntimeException
+		{
+			int len = ix.length;			
+			for( int i=0; i<len; i++ )
+				if( mb[i] != null ) {
+					ret.add(new Tuple2<MatrixIndexes,MatrixBlock>(ix[i],mb[i]));
+					mb[i].examSparsity(); //ensure right representation
+				}	
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class BinaryBlockToLIBSVMFunction implements FlatMapFunction<Tuple2<MatrixIndexes,MatrixBlock>,String> 
+	{
+		private static final long serialVersionUID = -6722813385721744297L;
+
+		@Override
+		public Iterable<String> call(Tuple2<MatrixIndexes, MatrixBlock> arg0)
+			throws Exception 
+		{
+			MatrixBlock blk = arg0._2();
+			ArrayList<String> ret = new ArrayList<String>();
+		
+			//handle matrix block data
+			StringBuilder sb = new StringBuilder();
+			for(int i=0; i<blk.getNumRows(); i++) {
+				WriterTextLIBSVM.appendLIBSVMRow(sb, blk, i);
+				ret.add(sb.toString());
+				sb.setLength(0); //reset
+			}
+			
+			return ret;
+		}
+	}
+	
 	/**
 	 * 
 	 */
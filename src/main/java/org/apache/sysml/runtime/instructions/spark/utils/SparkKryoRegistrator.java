@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.instructions.spark.utils;
+
+import java.io.IOException;
+
+import org.apache.spark.serializer.KryoRegistrator;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysml.runtime.instructions.spark.data.KryoDataInput;
+import org.apache.sysml.runtime.instructions.spark.data.KryoDataOutput;
+import org.apache.sysml.runtime.instructions.spark.data.PartitionedBlock;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Kryo registrator for the core data types of spark shuffles, broadcasts, and
+ * serialized storage levels (matrix indexes, matrix/frame blocks, and partitioned 
+ * blocks). This registrator is set via 'spark.kryo.registrator' and redirects the
+ * kryo serialization to our custom writable serialization in order to avoid
+ * generic field serialization and redundant java serialization overheads.  
+ * 
+ */
+public class SparkKryoRegistrator implements KryoRegistrator
+{
+	@Override
+	public void registerClasses(Kryo kryo) 
+	{
+		//binary block keys
+		kryo.register(MatrixIndexes.class, new MatrixIndexesSerializer());
+		
+		//binary block values
+		kryo.register(MatrixBlock.class, new CacheBlockSerializer<MatrixBlock>());
+		kryo.register(CompressedMatrixBlock.class, new CacheBlockSerializer<CompressedMatrixBlock>());
+		kryo.register(FrameBlock.class, new CacheBlockSerializer<FrameBlock>());
+		
+		//partitioned broadcasts
+		kryo.register(PartitionedBlock.class, new PartitionedBlockSerializer());
+	}
+	
+	/**
+	 * Serializer of matrix indexes with variable-length encoding of 
+	 * the row and column block indexes.
+	 * 
+	 */
+	public static class MatrixIndexesSerializer extends Serializer<MatrixIndexes>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, MatrixIndexes ix) {
+			output.writeLong(ix.getRowIndex(), true);
+			output.writeLong(ix.getColumnIndex(), true);
+		}
+
+		@Override
+		public MatrixIndexes read(Kryo kryo, Input input, Class<MatrixIndexes> type) {
+			long rix = input.readLong(true);
+			long cix = input.readLong(true);
+			return new MatrixIndexes(rix, cix);
+		}
+	}
+	
+	/**
+	 * Serializer of matrix and frame blocks via their writable serialization,
+	 * incl fast serialization of dense and sparse matrix blocks. 
+	 * 
+	 */
+	public static class CacheBlockSerializer<T extends CacheBlock> extends Serializer<T>
+	{
+		//reused data input/output (serializers are used by a single kryo instance/thread)
+		private final KryoDataOutput _out = new KryoDataOutput();
+		private final KryoDataInput _in = new KryoDataInput();
+		
+		@Override
+		public void write(Kryo kryo, Output output, T block) {
+			try {
+				block.write(_out.setOutput(output));
+			}
+			catch(IOException ex) {
+				throw new KryoException(ex);
+			}
+		}
+
+		@Override
+		public T read(Kryo kryo, Input input, Class<T> type) {
+			try {
+				T ret = kryo.newInstance(type);
+				ret.readFields(_in.setInput(input));
+				return ret;
+			}
+			catch(IOException ex) {
+				throw new KryoException(ex);
+			}
+		}
+	}
+	
+	/**
+	 * Serializer of partitioned matrix and frame blocks via their header
+	 * and the writable serialization of all partition blocks.
+	 * 
+	 */
+	@SuppressWarnings("rawtypes")
+	public static class PartitionedBlockSerializer extends Serializer<PartitionedBlock>
+	{
+		private final KryoDataOutput _out = new KryoDataOutput();
+		private final KryoDataInput _in = new KryoDataInput();
+		
+		@Override
+		public void write(Kryo kryo, Output output, PartitionedBlock pblock) {
+			try {
+				pblock.writeHeaderAndPayload(_out.setOutput(output));
+			}
+			catch(IOException ex) {
+				throw new KryoException(ex);
+			}
+		}
+
+		@Override
+		public PartitionedBlock read(Kryo kryo, Input input, Class<PartitionedBlock> type) {
+			try {
+				PartitionedBlock ret = new PartitionedBlock();
+				ret.readHeaderAndPayload(_in.setInput(input));
+				return ret;
+			}
+			catch(IOException ex) {
+				throw new KryoException(ex);
+			}
+		}
+	}
+}
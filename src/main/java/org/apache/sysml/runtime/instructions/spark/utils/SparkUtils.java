@@ -243,6 +243,17 @@ public class SparkUtils
 	}
 			
 	
+	/**
+	 * Indicates if the given rdd has a known partitioner (e.g., after 
+	 * repartition and caching), which allows for partition pruning.
+	 * 
+	 * @param in
+	 * @return
+	 */
+	public static boolean isPartitioned( JavaPairRDD<?,?> in ) {
+		return in.rdd().partitioner().isDefined();
+	}
+	
 	// len = {clen or rlen}, blen = {brlen or bclen}
 	public static long getStartGlobalIndex(long blockIndex, int blen, long len) {
 		return UtilFunctions.computeCellIndex(blockIndex, blen, 0);
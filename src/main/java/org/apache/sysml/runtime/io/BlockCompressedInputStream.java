@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.hadoop.io.compress.CompressionInputStream;
+
+/**
+ * Streaming input stream of blocks written by BlockCompressedOutputStream,
+ * which decompresses one block at a time. Reads that cover an entire block
+ * (e.g., from a buffered stream of BLOCK_SIZE) decompress directly into the
+ * given buffer, and uncompressed blocks are read directly from the underlying
+ * stream, both without intermediate copy.
+ *
+ */
+public class BlockCompressedInputStream extends CompressionInputStream
+{
+	private final byte[] _header = new byte[BlockCompressedOutputStream.HEADER_SIZE];
+	private byte[] _buff = null;  //decompressed block
+	private byte[] _cbuff = null; //compressed block
+	private int _pos = 0;
+	private int _count = 0;
+
+	//header of current block
+	private int _len = -1;
+	private int _clen = -1;
+
+	public BlockCompressedInputStream(InputStream in)
+		throws IOException
+	{
+		super(in);
+	}
+
+	@Override
+	public int read()
+		throws IOException
+	{
+		if( _pos >= _count ) {
+			if( !readHeader() )
+				return -1;
+			if( _buff == null )
+				_buff = new byte[BlockCompressedOutputStream.BLOCK_SIZE];
+			readBlock(_buff, 0);
+		}
+		return _buff[_pos++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len)
+		throws IOException
+	{
+		int n = 0;
+		while( n < len )
+		{
+			//copy remaining data of current block
+			if( _pos < _count ) {
+				int k = Math.min(len - n, _count - _pos);
+				System.arraycopy(_buff, _pos, b, off + n, k);
+				_pos += k;
+				n += k;
+				continue;
+			}
+
+			//read next block, directly into target if possible
+			if( !readHeader() )
+				break;
+			if( _len <= len - n ) {
+				readBlock(b, off + n);
+				_pos = _count = 0;
+				n += _len;
+			}
+			else {
+				if( _buff == null )
+					_buff = new byte[BlockCompressedOutputStream.BLOCK_SIZE];
+				readBlock(_buff, 0);
+			}
+		}
+
+		return (n == 0 && len > 0) ? -1 : n;
+	}
+
+	@Override
+	public void resetState()
+		throws IOException
+	{
+		_pos = _count = 0;
+	}
+
+	/**
+	 * Reads the header of the next block, or returns false
+	 * at the end of the stream.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	private boolean readHeader()
+		throws IOException
+	{
+		int first = in.read();
+		if( first < 0 )
+			return false;
+		_header[0] = (byte)first;
+		readFully(_header, 1, _header.length-1);
+		_len = readInt(_header, 0);
+		_clen = readInt(_header, 4);
+		if( _len <= 0 || _len > BlockCompressedOutputStream.BLOCK_SIZE || _clen <= 0 || _clen > _len )
+			throw new IOException("Invalid compressed block header: len="+_len+", clen="+_clen+".");
+		return true;
+	}
+
+	/**
+	 * Reads the current block into the given buffer, and sets the
+	 * decompressed block as current block if the buffer is the internal one.
+	 *
+	 * @param b
+	 * @param off
+	 * @throws IOException
+	 */
+	private void readBlock(byte[] b, int off)
+		throws IOException
+	{
+		if( _clen == _len ) { //UNCOMPRESSED
+			readFully(b, off, _len);
+		}
+		else { //COMPRESSED
+			if( _cbuff == null )
+				_cbuff = new byte[BlockCompressedOutputStream.BLOCK_SIZE];
+			readFully(_cbuff, 0, _clen);
+			BlockCompressionUtils.decompress(_cbuff, 0, _clen, b, off, _len);
+		}
+
+		if( b == _buff ) {
+			_pos = 0;
+			_count = _len;
+		}
+	}
+
+	/**
+	 *
+	 * @param b
+	 * @param off
+	 * @param len
+	 * @throws IOException
+	 */
+	private void readFully(byte[] b, int off, int len)
+		throws IOException
+	{
+		for( int n = 0; n < len; ) {
+			int count = in.read(b, off + n, len - n);
+			if( count < 0 )
+				throw new EOFException("Unexpected end of compressed block.");
+			n += count;
+		}
+	}
+
+	/**
+	 *
+	 * @param b
+	 * @param off
+	 * @return
+	 */
+	private static int readInt(byte[] b, int off) {
+		return ((b[off] & 0xFF) << 24) | ((b[off+1] & 0xFF) << 16)
+			| ((b[off+2] & 0xFF) << 8) | (b[off+3] & 0xFF);
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+
+/**
+ * Output stream of independently compressed blocks of at most BLOCK_SIZE
+ * bytes, each with a header of [uncompressed length, compressed length].
+ * Blocks that do not compress by at least 1/8 are stored uncompressed
+ * (compressed length equals uncompressed length), and after such a block,
+ * the next SKIP_BLOCKS blocks are stored without compression attempt in
+ * order to avoid unnecessary overhead for incompressible data.
+ *
+ * Writes of entire blocks (e.g., from a buffered stream of BLOCK_SIZE)
+ * are compressed directly from the given buffer without intermediate copy.
+ *
+ */
+public class BlockCompressedOutputStream extends CompressionOutputStream
+{
+	public static final int BLOCK_SIZE = 64*1024;
+	public static final int HEADER_SIZE = 8;
+	private static final int SKIP_BLOCKS = 4;
+
+	private final byte[] _buff = new byte[BLOCK_SIZE];
+	private final byte[] _cbuff = new byte[HEADER_SIZE + BLOCK_SIZE];
+	private final int[] _table = new int[1 << BlockCompressionUtils.HASH_LOG];
+	private int _count = 0;
+	private int _skip = 0;
+
+	public BlockCompressedOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b)
+		throws IOException
+	{
+		if( _count >= BLOCK_SIZE )
+			flushBlock();
+		_buff[_count++] = (byte)b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len)
+		throws IOException
+	{
+		while( len > 0 ) {
+			if( _count == 0 && len >= BLOCK_SIZE ) {
+				//compress entire block w/o copy
+				writeBlock(b, off, BLOCK_SIZE);
+				off += BLOCK_SIZE;
+				len -= BLOCK_SIZE;
+			}
+			else {
+				int n = Math.min(len, BLOCK_SIZE - _count);
+				System.arraycopy(b, off, _buff, _count, n);
+				_count += n;
+				off += n;
+				len -= n;
+				if( _count == BLOCK_SIZE )
+					flushBlock();
+			}
+		}
+	}
+
+	@Override
+	public void finish()
+		throws IOException
+	{
+		flushBlock();
+	}
+
+	@Override
+	public void resetState()
+		throws IOException
+	{
+		_count = 0;
+		_skip = 0;
+	}
+
+	/**
+	 *
+	 * @throws IOException
+	 */
+	private void flushBlock()
+		throws IOException
+	{
+		if( _count > 0 )
+			writeBlock(_buff, 0, _count);
+		_count = 0;
+	}
+
+	/**
+	 *
+	 * @param b
+	 * @param off
+	 * @param len
+	 * @throws IOException
+	 */
+	private void writeBlock(byte[] b, int off, int len)
+		throws IOException
+	{
+		//compress block if estimated compressible (min savings of 1/8)
+		int clen = -1;
+		if( _skip > 0 )
+			_skip--;
+		else {
+			clen = BlockCompressionUtils.compress(
+				b, off, len, _cbuff, HEADER_SIZE, len - len/8 - 1, _table);
+			if( clen < 0 )
+				_skip = SKIP_BLOCKS;
+		}
+
+		//write block header and compressed or uncompressed data
+		writeHeader(len, (clen >= 0) ? clen : len);
+		if( clen >= 0 )
+			out.write(_cbuff, 0, HEADER_SIZE + clen);
+		else {
+			out.write(_cbuff, 0, HEADER_SIZE);
+			out.write(b, off, len);
+		}
+	}
+
+	/**
+	 *
+	 * @param len
+	 * @param clen
+	 */
+	private void writeHeader(int len, int clen) {
+		_cbuff[0] = (byte)(len >>> 24);
+		_cbuff[1] = (byte)(len >>> 16);
+		_cbuff[2] = (byte)(len >>> 8);
+		_cbuff[3] = (byte) len;
+		_cbuff[4] = (byte)(clen >>> 24);
+		_cbuff[5] = (byte)(clen >>> 16);
+		_cbuff[6] = (byte)(clen >>> 8);
+		_cbuff[7] = (byte) clen;
+	}
+}
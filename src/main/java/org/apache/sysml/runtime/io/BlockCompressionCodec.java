@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+
+/**
+ * Hadoop compression codec of the pure-java block compression (see
+ * BlockCompressionUtils), used for block-compressed sequence files of
+ * binary blocks. Since this codec requires no native libraries, it is
+ * available in all CP, MR, and Spark tasks that have SystemML on the
+ * classpath. The codec is stream-based and hence does not use pooled
+ * compressors or decompressors.
+ *
+ */
+public class BlockCompressionCodec implements CompressionCodec
+{
+	@Override
+	public CompressionOutputStream createOutputStream(OutputStream out)
+		throws IOException
+	{
+		return new BlockCompressedOutputStream(out);
+	}
+
+	@Override
+	public CompressionOutputStream createOutputStream(OutputStream out, Compressor compressor)
+		throws IOException
+	{
+		return new BlockCompressedOutputStream(out);
+	}
+
+	@Override
+	public Class<? extends Compressor> getCompressorType() {
+		return null;
+	}
+
+	@Override
+	public Compressor createCompressor() {
+		return null;
+	}
+
+	@Override
+	public CompressionInputStream createInputStream(InputStream in)
+		throws IOException
+	{
+		return new BlockCompressedInputStream(in);
+	}
+
+	@Override
+	public CompressionInputStream createInputStream(InputStream in, Decompressor decompressor)
+		throws IOException
+	{
+		return new BlockCompressedInputStream(in);
+	}
+
+	@Override
+	public Class<? extends Decompressor> getDecompressorType() {
+		return null;
+	}
+
+	@Override
+	public Decompressor createDecompressor() {
+		return null;
+	}
+
+	@Override
+	public String getDefaultExtension() {
+		return ".blz4";
+	}
+}
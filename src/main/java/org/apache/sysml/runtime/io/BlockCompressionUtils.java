@@ -0,0 +1,492 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Pure-java implementation of the LZ4 block format (byte-oriented LZ77 with
+ * a single-probe hash table and no entropy coding), which is used as fast
+ * block-level compression for binary block files and evicted buffer pool
+ * blocks. Decompression is a simple sequence of literal and match copies,
+ * which allows to directly decompress into the target buffer.
+ *
+ * Furthermore, this class provides sample-based estimates of the compression
+ * ratio in order to opt-in to compression only for compressible blocks, and
+ * access to the configured codec (see DMLConfig.COMPRESSED_IO).
+ *
+ */
+public class BlockCompressionUtils
+{
+	//configuration values of compressed block io
+	public static final String CODEC_NONE = "none";
+	public static final String CODEC_LZ4 = "lz4";
+
+	//max compression ratio (compressed/uncompressed) to opt-in to compression
+	public static final double COMPRESSION_RATIO_THRESHOLD = 0.8;
+
+	//LZ4 block format constants
+	private static final int MIN_MATCH = 4;
+	private static final int LAST_LITERALS = 5;
+	private static final int MF_LIMIT = 12;
+	private static final int MAX_OFFSET = 65535;
+	private static final int RUN_MASK = 15;
+	private static final int SKIP_TRIGGER = 6;
+	public static final int HASH_LOG = 14;
+
+	//sample size for compression ratio estimates
+	private static final int SAMPLE_SEGMENTS = 4;
+	private static final int SAMPLE_SEGMENT_SIZE = 16*1024;
+
+	/**
+	 * Indicates if block compression is enabled for binary block files
+	 * and the buffer pool.
+	 *
+	 * @return
+	 */
+	public static boolean isCompressionEnabled() {
+		return !CODEC_NONE.equalsIgnoreCase(getConfiguredCodecName());
+	}
+
+	/**
+	 * Returns the configured codec for binary block files, i.e., null if
+	 * compression is disabled, the builtin block compression codec for 'lz4',
+	 * and an instance of the given class name otherwise.
+	 *
+	 * @param job
+	 * @return
+	 * @throws IOException
+	 */
+	public static CompressionCodec getConfiguredCodec(JobConf job)
+		throws IOException
+	{
+		String name = getConfiguredCodecName();
+		if( CODEC_NONE.equalsIgnoreCase(name) )
+			return null;
+		if( CODEC_LZ4.equalsIgnoreCase(name) )
+			return new BlockCompressionCodec();
+		return ReflectionUtils.newInstance(getCodecClass(name), job);
+	}
+
+	/**
+	 * Returns the class of the configured codec for binary block files,
+	 * or null if compression is disabled.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public static Class<? extends CompressionCodec> getConfiguredCodecClass()
+		throws IOException
+	{
+		String name = getConfiguredCodecName();
+		if( CODEC_NONE.equalsIgnoreCase(name) )
+			return null;
+		if( CODEC_LZ4.equalsIgnoreCase(name) )
+			return BlockCompressionCodec.class;
+		return getCodecClass(name);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private static String getConfiguredCodecName() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String name = (conf != null) ? conf.getTextValue(DMLConfig.COMPRESSED_IO) : null;
+		return (name != null) ? name.trim() : CODEC_NONE;
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @return
+	 * @throws IOException
+	 */
+	private static Class<? extends CompressionCodec> getCodecClass(String name)
+		throws IOException
+	{
+		try {
+			return Class.forName(name).asSubclass(CompressionCodec.class);
+		}
+		catch(Exception ex) {
+			throw new IOException("Invalid compression codec '"+name+"'.", ex);
+		}
+	}
+
+	/**
+	 * Indicates if the given matrix block is estimated to be compressible,
+	 * which excludes empty and already compressed blocks.
+	 *
+	 * @param mb
+	 * @return
+	 */
+	public static boolean isCompressible(MatrixBlock mb) {
+		if( mb instanceof CompressedMatrixBlock && ((CompressedMatrixBlock)mb).isCompressed() )
+			return false;
+		if( mb.isEmptyBlock(false) )
+			return false;
+		return estimateCompressionRatio(mb) < COMPRESSION_RATIO_THRESHOLD;
+	}
+
+	/**
+	 * Indicates if the given byte range is estimated to be compressible.
+	 *
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	public static boolean isCompressible(byte[] buf, int off, int len) {
+		return estimateCompressionRatio(buf, off, len) < COMPRESSION_RATIO_THRESHOLD;
+	}
+
+	/**
+	 * Estimates the compression ratio (compressed/uncompressed size) of the
+	 * given matrix block by compressing a sample of its serialized values
+	 * (and column indexes) from contiguous row ranges, evenly distributed
+	 * over all rows.
+	 *
+	 * @param mb
+	 * @return
+	 */
+	public static double estimateCompressionRatio(MatrixBlock mb)
+	{
+		byte[] sample = new byte[SAMPLE_SEGMENTS * SAMPLE_SEGMENT_SIZE];
+		int rlen = mb.getNumRows();
+		int clen = mb.getNumColumns();
+		int pos = 0;
+
+		for( int s=0; s<SAMPLE_SEGMENTS; s++ ) {
+			int end = (s+1) * SAMPLE_SEGMENT_SIZE;
+			int rl = (int)((long)rlen * s / SAMPLE_SEGMENTS);
+			if( mb.isInSparseFormat() ) { //SPARSE
+				SparseBlock a = mb.getSparseBlock();
+				for( int i=rl; i<rlen && pos+12<=end; i++ ) {
+					if( a.isEmpty(i) ) continue;
+					int apos = a.pos(i);
+					int alen = a.size(i);
+					int[] aix = a.indexes(i);
+					double[] avals = a.values(i);
+					for( int j=apos; j<apos+alen && pos+12<=end; j++ ) {
+						pos = putInt(sample, pos, aix[j]);
+						pos = putLong(sample, pos, Double.doubleToRawLongBits(avals[j]));
+					}
+				}
+			}
+			else { //DENSE
+				DenseBlock a = mb.getDenseBlock();
+				for( int i=rl; i<rlen && pos+8<=end; i++ ) {
+					double[] avals = a.values(i);
+					int apos = a.pos(i);
+					for( int j=0; j<clen && pos+8<=end; j++ )
+						pos = putLong(sample, pos, Double.doubleToRawLongBits(avals[apos+j]));
+				}
+			}
+		}
+
+		return estimateCompressionRatio(sample, 0, pos);
+	}
+
+	/**
+	 * Estimates the compression ratio (compressed/uncompressed size) of the
+	 * given byte range by compressing a sample of contiguous segments, evenly
+	 * distributed over the entire range.
+	 *
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	public static double estimateCompressionRatio(byte[] buf, int off, int len)
+	{
+		if( len <= 0 )
+			return 1;
+
+		int[] table = new int[1 << HASH_LOG];
+		byte[] tmp = new byte[SAMPLE_SEGMENT_SIZE];
+		int nseg = Math.min(SAMPLE_SEGMENTS, (len + SAMPLE_SEGMENT_SIZE - 1) / SAMPLE_SEGMENT_SIZE);
+		long rawSize = 0, compSize = 0;
+
+		for( int s=0; s<nseg; s++ ) {
+			int soff = off + (int)((long)len * s / nseg);
+			int slen = Math.min(SAMPLE_SEGMENT_SIZE, off + len - soff);
+			int clen = compress(buf, soff, slen, tmp, 0, slen, table);
+			rawSize += slen;
+			compSize += (clen >= 0) ? clen : slen;
+		}
+
+		return (double) compSize / rawSize;
+	}
+
+	/**
+	 * Returns the worst-case compressed size of a block of the given size.
+	 *
+	 * @param len
+	 * @return
+	 */
+	public static int maxCompressedLength(int len) {
+		return len + len / 255 + 16;
+	}
+
+	/**
+	 * Compresses the given source range into the destination buffer, in the
+	 * LZ4 block format. Compression is aborted if the compressed size would
+	 * exceed the given maximum length (i.e., for incompressible data).
+	 *
+	 * @param src
+	 * @param soff
+	 * @param slen
+	 * @param dst
+	 * @param doff
+	 * @param dmax maximum compressed length
+	 * @param table hash table of size 2^HASH_LOG, reused across calls
+	 * @return compressed length, or -1 if the compressed size exceeds dmax
+	 */
+	public static int compress(byte[] src, int soff, int slen, byte[] dst, int doff, int dmax, int[] table)
+	{
+		final int send = soff + slen;
+		final int mflimit = send - MF_LIMIT;
+		final int matchlimit = send - LAST_LITERALS;
+		final int dend = doff + dmax;
+
+		int sp = soff;
+		int anchor = soff;
+		int dp = doff;
+
+		if( slen >= MF_LIMIT + 1 )
+		{
+			Arrays.fill(table, -1);
+			int searches = 1 << SKIP_TRIGGER;
+
+			while( sp < mflimit )
+			{
+				//find match candidate via hash table probe
+				int seq = readInt(src, sp);
+				int h = hash(seq);
+				int ref = table[h];
+				table[h] = sp;
+				if( ref < soff || sp - ref > MAX_OFFSET || readInt(src, ref) != seq ) {
+					//skip faster over incompressible regions
+					sp += searches++ >>> SKIP_TRIGGER;
+					continue;
+				}
+				searches = 1 << SKIP_TRIGGER;
+
+				//extend match backwards and forwards
+				while( sp > anchor && ref > soff && src[sp-1] == src[ref-1] ) {
+					sp--; ref--;
+				}
+				int mlen = MIN_MATCH;
+				while( sp + mlen < matchlimit && src[sp+mlen] == src[ref+mlen] )
+					mlen++;
+
+				//emit sequence (token, literals, offset, match length)
+				int llen = sp - anchor;
+				if( dp + 1 + llen + llen/255 + 1 + 2 + (mlen-MIN_MATCH)/255 + 1 > dend )
+					return -1;
+				int tokenPos = dp++;
+				int token = 0;
+				if( llen >= RUN_MASK ) {
+					token = RUN_MASK << 4;
+					dp = writeLength(dst, dp, llen - RUN_MASK);
+				}
+				else
+					token = llen << 4;
+				System.arraycopy(src, anchor, dst, dp, llen);
+				dp += llen;
+				int offset = sp - ref;
+				dst[dp++] = (byte) offset;
+				dst[dp++] = (byte) (offset >>> 8);
+				int mrem = mlen - MIN_MATCH;
+				if( mrem >= RUN_MASK ) {
+					token |= RUN_MASK;
+					dp = writeLength(dst, dp, mrem - RUN_MASK);
+				}
+				else
+					token |= mrem;
+				dst[tokenPos] = (byte) token;
+
+				sp += mlen;
+				anchor = sp;
+
+				//index position within the match for subsequent matches
+				if( sp < mflimit )
+					table[hash(readInt(src, sp-2))] = sp-2;
+			}
+		}
+
+		//emit last literals
+		int llen = send - anchor;
+		if( dp + 1 + llen + llen/255 + 1 > dend )
+			return -1;
+		if( llen >= RUN_MASK ) {
+			dst[dp++] = (byte) (RUN_MASK << 4);
+			dp = writeLength(dst, dp, llen - RUN_MASK);
+		}
+		else
+			dst[dp++] = (byte) (llen << 4);
+		System.arraycopy(src, anchor, dst, dp, llen);
+		dp += llen;
+
+		return dp - doff;
+	}
+
+	/**
+	 * Decompresses the given source range (in LZ4 block format) into the
+	 * destination buffer, which is required to hold exactly dlen bytes.
+	 *
+	 * @param src
+	 * @param soff
+	 * @param slen
+	 * @param dst
+	 * @param doff
+	 * @param dlen uncompressed length
+	 * @throws IOException if the compressed block is corrupted
+	 */
+	public static void decompress(byte[] src, int soff, int slen, byte[] dst, int doff, int dlen)
+		throws IOException
+	{
+		final int send = soff + slen;
+		final int dend = doff + dlen;
+		int sp = soff;
+		int dp = doff;
+
+		try
+		{
+			while( true )
+			{
+				int token = src[sp++] & 0xFF;
+
+				//copy literals
+				int llen = token >>> 4;
+				if( llen == RUN_MASK ) {
+					int b;
+					do { b = src[sp++] & 0xFF; llen += b; } while( b == 255 );
+				}
+				if( sp + llen > send || dp + llen > dend )
+					throw new IOException("Corrupted compressed block (literals out of bounds).");
+				System.arraycopy(src, sp, dst, dp, llen);
+				sp += llen;
+				dp += llen;
+
+				//last sequence w/o match
+				if( sp >= send )
+					break;
+
+				//copy match (byte-wise for overlapping matches)
+				int offset = (src[sp] & 0xFF) | ((src[sp+1] & 0xFF) << 8);
+				sp += 2;
+				int mlen = token & RUN_MASK;
+				if( mlen == RUN_MASK ) {
+					int b;
+					do { b = src[sp++] & 0xFF; mlen += b; } while( b == 255 );
+				}
+				mlen += MIN_MATCH;
+				int ref = dp - offset;
+				if( offset == 0 || ref < doff || dp + mlen > dend )
+					throw new IOException("Corrupted compressed block (match out of bounds).");
+				if( offset >= mlen )
+					System.arraycopy(dst, ref, dst, dp, mlen);
+				else
+					for( int i=0; i<mlen; i++ )
+						dst[dp+i] = dst[ref+i];
+				dp += mlen;
+			}
+		}
+		catch(ArrayIndexOutOfBoundsException ex) {
+			throw new IOException("Corrupted compressed block.", ex);
+		}
+
+		if( dp != dend )
+			throw new IOException("Invalid decompressed length: "+(dp-doff)+", expected: "+dlen+".");
+	}
+
+	/**
+	 *
+	 * @param dst
+	 * @param dp
+	 * @param len
+	 * @return
+	 */
+	private static int writeLength(byte[] dst, int dp, int len) {
+		for( ; len >= 255; len -= 255 )
+			dst[dp++] = (byte) 255;
+		dst[dp++] = (byte) len;
+		return dp;
+	}
+
+	/**
+	 *
+	 * @param seq
+	 * @return
+	 */
+	private static int hash(int seq) {
+		return (seq * -1640531535) >>> (32 - HASH_LOG);
+	}
+
+	/**
+	 *
+	 * @param buf
+	 * @param pos
+	 * @return
+	 */
+	private static int readInt(byte[] buf, int pos) {
+		return (buf[pos] & 0xFF) | ((buf[pos+1] & 0xFF) << 8)
+			| ((buf[pos+2] & 0xFF) << 16) | ((buf[pos+3] & 0xFF) << 24);
+	}
+
+	/**
+	 *
+	 * @param buf
+	 * @param pos
+	 * @param v
+	 * @return
+	 */
+	private static int putInt(byte[] buf, int pos, int v) {
+		buf[pos]   = (byte)(v >>> 24);
+		buf[pos+1] = (byte)(v >>> 16);
+		buf[pos+2] = (byte)(v >>> 8);
+		buf[pos+3] = (byte) v;
+		return pos + 4;
+	}
+
+	/**
+	 *
+	 * @param buf
+	 * @param pos
+	 * @param v
+	 * @return
+	 */
+	private static int putLong(byte[] buf, int pos, long v) {
+		putInt(buf, pos, (int)(v >>> 32));
+		return putInt(buf, pos+4, (int)v);
+	}
+}
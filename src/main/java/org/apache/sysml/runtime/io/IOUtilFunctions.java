@@ -24,6 +24,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Comparator;
 
@@ -46,6 +47,15 @@ public class IOUtilFunctions
 {
 	private static final Log LOG = LogFactory.getLog(UtilFunctions.class.getName());
 
+	public static final Charset UTF8 = Charset.forName("UTF-8");
+
+	//configuration of byte-level double parsing (exact fast path)
+	private static final int MAX_PARSE_DIGITS = 18;
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final double[] POW10 = new double[] {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
 	/**
 	 * 
 	 * @param io
@@ -85,6 +95,139 @@ public class IOUtilFunctions
 		return Double.parseDouble(str);
 	}
 
+	/**
+	 * Parses a double from the given range of UTF-8 bytes, without creating
+	 * intermediate strings for common decimal representations. Numbers with
+	 * a mantissa of at most 2^53 and a decimal exponent within [-22,22] are
+	 * computed exactly via a single rounded multiplication or division by
+	 * an exact power of ten (correctly rounded, i.e., equivalent to
+	 * Double.parseDouble). All other inputs (e.g., long mantissas, large
+	 * exponents, NaN, Infinity, hex) fall back to Double.parseDouble.
+	 *
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	public static double parseDouble( byte[] buf, int off, int len )
+	{
+		int pos = off;
+		int end = off + len;
+
+		//parse optional sign
+		boolean neg = false;
+		if( pos < end && (buf[pos]=='-' || buf[pos]=='+') )
+			neg = (buf[pos++]=='-');
+
+		//parse integer and fraction digits into mantissa (w/o leading zeros)
+		long mant = 0;
+		int ndigits = 0;
+		int exp = 0;
+		boolean digits = false;
+		for( ; pos < end && buf[pos]>='0' && buf[pos]<='9'; pos++ ) {
+			digits = true;
+			if( mant > 0 || buf[pos] != '0' ) {
+				if( ++ndigits > MAX_PARSE_DIGITS )
+					return parseDoubleFallback(buf, off, len);
+				mant = mant * 10 + (buf[pos]-'0');
+			}
+		}
+		if( pos < end && buf[pos]=='.' ) {
+			for( pos++; pos < end && buf[pos]>='0' && buf[pos]<='9'; pos++ ) {
+				digits = true;
+				if( mant > 0 || buf[pos] != '0' ) {
+					if( ++ndigits > MAX_PARSE_DIGITS )
+						return parseDoubleFallback(buf, off, len);
+					mant = mant * 10 + (buf[pos]-'0');
+				}
+				exp--;
+			}
+		}
+		if( !digits )
+			return parseDoubleFallback(buf, off, len);
+
+		//parse optional exponent
+		if( pos < end && (buf[pos]=='e' || buf[pos]=='E') ) {
+			pos++;
+			boolean eneg = false;
+			if( pos < end && (buf[pos]=='-' || buf[pos]=='+') )
+				eneg = (buf[pos++]=='-');
+			int e = 0, edigits = 0;
+			for( ; pos < end && buf[pos]>='0' && buf[pos]<='9'; pos++ ) {
+				if( ++edigits > 4 )
+					return parseDoubleFallback(buf, off, len);
+				e = e * 10 + (buf[pos]-'0');
+			}
+			if( edigits == 0 )
+				return parseDoubleFallback(buf, off, len);
+			exp += eneg ? -e : e;
+		}
+
+		//check for unconsumed characters (e.g., suffixes) and exact range
+		if( pos != end || mant > MAX_EXACT_MANTISSA )
+			return parseDoubleFallback(buf, off, len);
+
+		double ret = mant;
+		if( mant != 0 && exp != 0 ) {
+			if( exp > 0 && exp < POW10.length )
+				ret *= POW10[exp];
+			else if( exp < 0 && -exp < POW10.length )
+				ret /= POW10[-exp];
+			else
+				return parseDoubleFallback(buf, off, len);
+		}
+		return neg ? -ret : ret;
+	}
+
+	/**
+	 *
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	private static double parseDoubleFallback( byte[] buf, int off, int len ) {
+		return Double.parseDouble(new String(buf, off, len, UTF8));
+	}
+
+	/**
+	 * Indicates if the given byte is a whitespace or control character
+	 * with regard to String.trim (all ASCII characters up to space).
+	 *
+	 * @param b
+	 * @return
+	 */
+	public static boolean isTrimmable( byte b ) {
+		return (b & 0xff) <= ' ';
+	}
+
+	/**
+	 * Finds the first occurrence of the given delimiter bytes within
+	 * the range [beg,end) of the given buffer.
+	 *
+	 * @param buf
+	 * @param beg
+	 * @param end
+	 * @param delim
+	 * @return position of the delimiter, or -1 if not found
+	 */
+	public static int indexOf( byte[] buf, int beg, int end, byte[] delim )
+	{
+		final byte d0 = delim[0];
+		final int dlen = delim.length;
+
+		for( int i=beg; i<=end-dlen; i++ ) {
+			if( buf[i] != d0 )
+				continue;
+			boolean match = true;
+			for( int j=1; j<dlen && match; j++ )
+				match = (buf[i+j] == delim[j]);
+			if( match )
+				return i;
+		}
+		return -1;
+	}
+
 	/**
 	 * 
 	 * @param row
@@ -56,6 +56,13 @@ public class MatrixReaderFactory
 			else
 				reader = new ReaderTextCSV(new CSVFileFormatProperties());
 		}
+		else if( iinfo == InputInfo.LIBSVMInputInfo )
+		{
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new ReaderTextLIBSVMParallel();
+			else
+				reader = new ReaderTextLIBSVM();
+		}
 		else if( iinfo == InputInfo.BinaryCellInputInfo ) 
 			reader = new ReaderBinaryCell();
 		else if( iinfo == InputInfo.BinaryBlockInputInfo ) {
@@ -100,6 +107,12 @@ public class MatrixReaderFactory
 			else
 				reader = new ReaderTextCSV( props.formatProperties!=null ? (CSVFileFormatProperties)props.formatProperties : new CSVFileFormatProperties());
 		}
+		else if( iinfo == InputInfo.LIBSVMInputInfo ) {
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new ReaderTextLIBSVMParallel();
+			else
+				reader = new ReaderTextLIBSVM();
+		}
 		else if( iinfo == InputInfo.BinaryCellInputInfo ) 
 			reader = new ReaderBinaryCell();
 		else if( iinfo == InputInfo.BinaryBlockInputInfo ) {
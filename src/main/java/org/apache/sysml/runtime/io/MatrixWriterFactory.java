@@ -81,6 +81,12 @@ public class MatrixWriterFactory
 			else
 				writer = new WriterTextCSV((CSVFileFormatProperties)props);
 		}
+		else if( oinfo == OutputInfo.LIBSVMOutputInfo ) {
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_WRITE_TEXTFORMATS) )
+				writer = new WriterTextLIBSVMParallel();
+			else
+				writer = new WriterTextLIBSVM();
+		}
 		else if( oinfo == OutputInfo.BinaryCellOutputInfo ) {
 			writer = new WriterBinaryCell();
 		}
@@ -21,9 +21,11 @@ package org.apache.sysml.runtime.io;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.FileSystem;
@@ -41,26 +43,39 @@ import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseRow;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 
 /**
- * Parallel version of ReaderTextCSV.java. To summarize, we do two passes in
- * order to compute row offsets and the actual read. We accordingly create count
- * and read tasks and use fixed-size thread pools to execute these tasks. If the
- * target matrix is dense, the inserts are done lock-free. In contrast to
- * textcell parallel read, we also do lock-free inserts. If the matrix is
- * sparse, because splits contain row partitioned lines and hence there is no
- * danger of lost updates. Note, there is also no sorting of sparse rows
- * required because data comes in sorted order per row.
+ * Parallel version of ReaderTextCSV.java. To summarize, we read all splits 
+ * in a single pass, where each read task parses its lines into a split-local 
+ * staging block (without knowing its row offset in the output), and finally 
+ * stitch the staging blocks into the output matrix block at the row offsets 
+ * given by the prefix sums of the per-split row counts. The read tasks work 
+ * directly on the raw line bytes with a byte-level delimiter scanner and 
+ * double parser, i.e., without intermediate strings per line or cell. The 
+ * stitch tasks write disjoint row ranges, and hence do lock-free inserts 
+ * into dense and sparse outputs. Note, there is also no sorting of sparse 
+ * rows required because data comes in sorted order per row.
+ * 
+ * If the number of rows is unknown (and hence, the output is read as dense), 
+ * a cheap first pass counts the rows per split, and the read tasks write the 
+ * parsed rows directly into the output at the split row offsets, which avoids 
+ * dense staging blocks of the size of the output.
  * 
  */
 public class ReaderTextCSVParallel extends MatrixReader 
 {
+	//number of rows per chunk of dense staging blocks (bounded chunk size in order
+	//to avoid large reallocations and copies as the number of rows is unknown)
+	private static final int STAGING_CHUNK_SIZE = 64*1024;
+	
 	private CSVFileFormatProperties _props = null;
 	private int _numThreads = 1;
 
-	private SplitOffsetInfos _offsets = null;
-
 	public ReaderTextCSVParallel(CSVFileFormatProperties props) {
 		_numThreads = OptimizerUtils.getParallelTextReadParallelism();
 		_props = props;
@@ -86,17 +101,43 @@ public class ReaderTextCSVParallel extends MatrixReader
 		// check existence and non-empty file
 		checkValidInputFile(fs, path);
 
-		// allocate output matrix block
-		// First Read Pass (count rows/cols, determine offsets, allocate matrix block)
-		MatrixBlock ret = computeCSVSizeAndCreateOutputMatrixBlock(splits,
-				path, job, _props.hasHeader(), _props.getDelim(), estnnz);
-		rlen = ret.getNumRows();
-		clen = ret.getNumColumns();
-
-		// Second Read Pass (read, parse strings, append to matrix block)
-		readCSVMatrixFromHDFS(splits, path, job, ret, rlen, clen, brlen, bclen,
-				_props.hasHeader(), _props.getDelim(), _props.isFill(),
-				_props.getFillValue());
+		// determine number of columns from the first row
+		int ncol = computeCSVNumColumns(splits, informat, job, _props.getDelim());
+		
+		// staging in sparse format only if the output is known to be sparse
+		boolean sparse = (rlen > 0) && MatrixBlock.evalSparseFormatInMemory(rlen, ncol, estnnz);
+		
+		MatrixBlock ret = null;
+		long lnnz = 0;
+		if( rlen <= 0 ) {
+			// Unknown number of rows: first pass counts the rows per split, and the
+			// second pass reads the dense rows directly into the output at the split 
+			// row offsets (dense staging blocks would double the peak memory)
+			int[] offsets = countCSVRowsPerSplit(splits, informat, job, _props.hasHeader());
+			int nrow = offsets[splits.length];
+			ret = createOutputMatrixBlock(nrow, ncol, nrow, ncol, (long)nrow*ncol, true, false);
+			CSVStagingBlock[] direct = readCSVMatrixFromHDFS(splits, informat, job, ncol, ret, offsets,
+					_props.hasHeader(), _props.getDelim(), _props.isFill(), _props.getFillValue());
+			for( CSVStagingBlock sblock : direct )
+				lnnz += sblock.getNonZeros();
+		}
+		else {
+			// Single Read Pass (read, parse bytes, append to split-local staging blocks)
+			CSVStagingBlock[] staging = readCSVMatrixFromHDFS(splits, informat, job, ncol, sparse,
+					_props.hasHeader(), _props.getDelim(), _props.isFill(), _props.getFillValue());
+			
+			// allocate output matrix block (exact nnz known after read)
+			int nrow = 0;
+			for( CSVStagingBlock sblock : staging ) {
+				nrow += sblock.getNumRows();
+				lnnz += sblock.getNonZeros();
+			}
+			ret = createOutputMatrixBlock(nrow, ncol, nrow, ncol, lnnz, true, true);
+			
+			// stitch staging blocks into output at the split row offsets
+			stitchCSVStagingBlocks(staging, ret);
+		}
+		ret.setNonZeros(lnnz);
 		
 		//post-processing (representation-specific, change of sparse/dense block representation)
 		// - no sorting required for CSV because it is read in sorted order per row
@@ -113,13 +154,36 @@ public class ReaderTextCSVParallel extends MatrixReader
 
 	/**
 	 * 
-	 * @param path
+	 * @param splits
+	 * @param informat
+	 * @param job
+	 * @param ncol
+	 * @param sparse
+	 * @param hasHeader
+	 * @param delim
+	 * @param fill
+	 * @param fillValue
+	 * @return
+	 * @throws IOException
+	 */
+	private CSVStagingBlock[] readCSVMatrixFromHDFS(InputSplit[] splits, TextInputFormat informat, 
+			JobConf job, int ncol, boolean sparse, boolean hasHeader, String delim, boolean fill, double fillValue) 
+		throws IOException 
+	{
+		return readCSVMatrixFromHDFS(splits, informat, job, ncol, sparse, null, null, 
+			hasHeader, delim, fill, fillValue);
+	}
+	
+	/**
+	 * Reads the dense rows of all splits directly into the given dense output 
+	 * block, starting at the given row offsets per split.
+	 * 
+	 * @param splits
+	 * @param informat
 	 * @param job
+	 * @param ncol
 	 * @param dest
-	 * @param rlen
-	 * @param clen
-	 * @param brlen
-	 * @param bclen
+	 * @param offsets
 	 * @param hasHeader
 	 * @param delim
 	 * @param fill
@@ -127,66 +191,145 @@ public class ReaderTextCSVParallel extends MatrixReader
 	 * @return
 	 * @throws IOException
 	 */
-	private void readCSVMatrixFromHDFS(InputSplit[] splits, Path path, JobConf job, 
-			MatrixBlock dest, long rlen, long clen, int brlen, int bclen, 
-			boolean hasHeader, String delim, boolean fill, double fillValue) 
+	private CSVStagingBlock[] readCSVMatrixFromHDFS(InputSplit[] splits, TextInputFormat informat, 
+			JobConf job, int ncol, MatrixBlock dest, int[] offsets, boolean hasHeader, String delim, boolean fill, double fillValue) 
 		throws IOException 
 	{
-		FileInputFormat.addInputPath(job, path);
-		TextInputFormat informat = new TextInputFormat();
-		informat.configure(job);
-
-		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		return readCSVMatrixFromHDFS(splits, informat, job, ncol, false, dest, offsets, 
+			hasHeader, delim, fill, fillValue);
+	}
+	
+	/**
+	 * 
+	 * @param splits
+	 * @param informat
+	 * @param job
+	 * @param ncol
+	 * @param sparse
+	 * @param dest
+	 * @param offsets
+	 * @param hasHeader
+	 * @param delim
+	 * @param fill
+	 * @param fillValue
+	 * @return
+	 * @throws IOException
+	 */
+	private CSVStagingBlock[] readCSVMatrixFromHDFS(InputSplit[] splits, TextInputFormat informat, JobConf job, 
+			int ncol, boolean sparse, MatrixBlock dest, int[] offsets, boolean hasHeader, String delim, boolean fill, double fillValue) 
+		throws IOException 
+	{
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
 
 		try 
 		{
-			// create read tasks for all splits
+			// create read tasks for all splits (staging or direct output)
 			ArrayList<CSVReadTask> tasks = new ArrayList<CSVReadTask>();
-			int splitCount = 0;
-			for (InputSplit split : splits) {
-				tasks.add( new CSVReadTask(split, _offsets, informat, job, dest, 
-					rlen, clen, hasHeader, delim, fill, fillValue, splitCount++) );
+			for( int i=0; i<splits.length; i++ ) {
+				CSVStagingBlock sblock = (dest != null) ? 
+					new CSVStagingBlock(ncol, dest, offsets[i], offsets[i+1]-offsets[i]) : 
+					new CSVStagingBlock(ncol, sparse);
+				tasks.add( new CSVReadTask(splits[i], informat, job, ncol, sblock, 
+					hasHeader && i==0, delim, fill, fillValue) );
 			}
-			pool.invokeAll(tasks);
+			List<Future<CSVStagingBlock>> rt = pool.invokeAll(tasks);
 			pool.shutdown();
 
-			// check return codes and aggregate nnz
-			long lnnz = 0;
-			for (CSVReadTask rt : tasks) {
-				lnnz += rt.getPartialNnz();
-				if (!rt.getReturnCode()) {
-					Exception err = rt.getException();
-					throw new IOException("Read task for csv input failed: "+ err.toString(), err);
-				}
-			}
-			dest.setNonZeros(lnnz);
+			// collect staging blocks in split order (incl error handling)
+			CSVStagingBlock[] ret = new CSVStagingBlock[splits.length];
+			for( int i=0; i<splits.length; i++ )
+				ret[i] = rt.get(i).get();
+			return ret;
 		} 
+		catch (Exception e) {
+			throw new IOException("Read task for csv input failed: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param staging
+	 * @param dest
+	 * @throws IOException
+	 */
+	private void stitchCSVStagingBlocks(CSVStagingBlock[] staging, MatrixBlock dest) 
+		throws IOException
+	{
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
+		
+		try
+		{
+			// create stitch tasks for all non-empty staging blocks
+			ArrayList<CSVStitchTask> tasks = new ArrayList<CSVStitchTask>();
+			int offset = 0;
+			for( CSVStagingBlock sblock : staging ) {
+				if( sblock.getNumRows() > 0 )
+					tasks.add( new CSVStitchTask(sblock, dest, offset) );
+				offset += sblock.getNumRows();
+			}
+			List<Future<Object>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			for( Future<Object> task : rt )
+				task.get(); //error handling
+		}
 		catch (Exception e) {
 			throw new IOException("Threadpool issue, while parallel read.", e);
 		}
 	}
 
 	/**
+	 * Counts the rows of all splits in parallel (w/o parsing), and returns 
+	 * the row offsets per split, where the last entry is the total number 
+	 * of rows.
 	 * 
-	 * @param path
+	 * @param splits
+	 * @param informat
 	 * @param job
 	 * @param hasHeader
+	 * @return
+	 * @throws IOException
+	 */
+	private int[] countCSVRowsPerSplit(InputSplit[] splits, TextInputFormat informat, 
+			JobConf job, boolean hasHeader) 
+		throws IOException 
+	{
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
+		
+		try
+		{
+			ArrayList<CountRowsTask> tasks = new ArrayList<CountRowsTask>();
+			for( int i=0; i<splits.length; i++ )
+				tasks.add( new CountRowsTask(splits[i], informat, job, hasHeader && i==0) );
+			List<Future<Integer>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			// prefix sums of row counts (incl error handling)
+			int[] ret = new int[splits.length+1];
+			for( int i=0; i<splits.length; i++ )
+				ret[i+1] = ret[i] + rt.get(i).get();
+			return ret;
+		}
+		catch (Exception e) {
+			throw new IOException("Count task for csv input failed: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param splits
+	 * @param informat
+	 * @param job
 	 * @param delim
 	 * @return
 	 * @throws IOException
-	 * @throws DMLRuntimeException 
 	 */
-	private MatrixBlock computeCSVSizeAndCreateOutputMatrixBlock(
-			InputSplit[] splits, Path path, JobConf job, boolean hasHeader,
-			String delim, long estnnz) throws IOException, DMLRuntimeException 
+	private static int computeCSVNumColumns(InputSplit[] splits, TextInputFormat informat, 
+			JobConf job, String delim) 
+		throws IOException 
 	{
-		int nrow = 0;
 		int ncol = 0;
 		
-		FileInputFormat.addInputPath(job, path);
-		TextInputFormat informat = new TextInputFormat();
-		informat.configure(job);
-
 		// count no of entities in the first non-header row
 		LongWritable key = new LongWritable();
 		Text oneLine = new Text();
@@ -201,67 +344,152 @@ public class ReaderTextCSVParallel extends MatrixReader
 		finally {
 			IOUtilFunctions.closeSilently(reader);
 		}
-
-		// count rows in parallel per split
-		try 
-		{
-			ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
-			ArrayList<CountRowsTask> tasks = new ArrayList<CountRowsTask>();
-			for (InputSplit split : splits) {
-				tasks.add(new CountRowsTask(split, informat, job, hasHeader));
-				hasHeader = false;
-			}
-			pool.invokeAll(tasks);
-			pool.shutdown();
-
-			// collect row counts for offset computation
-			// early error notify in case not all tasks successful
-			_offsets = new SplitOffsetInfos(tasks.size());
-			for (CountRowsTask rt : tasks) {
-				if (!rt.getReturnCode())
-					throw new IOException("Count task for csv input failed: "+ rt.getErrMsg());
-				_offsets.setOffsetPerSplit(tasks.indexOf(rt), nrow);
-				_offsets.setLenghtPerSplit(tasks.indexOf(rt), rt.getRowCount());
-				nrow = nrow + rt.getRowCount();
-			}
-		} 
-		catch (Exception e) {
-			throw new IOException("Threadpool Error " + e.getMessage(), e);
-		}
-
-		// allocate target matrix block based on given size; 
-		// need to allocate sparse as well since lock-free insert into target
-		return createOutputMatrixBlock(nrow, ncol, nrow, ncol, estnnz, true, true);
+		
+		return ncol;
 	}
 
 	/**
-	 * 
+	 * Split-local staging block of parsed rows, which stores dense rows 
+	 * in chunks of fixed-size row-major arrays and sparse rows as sparse 
+	 * rows of exact size (which are reused in the output). If the split's
+	 * row offset is known, dense rows are directly written into the output.
 	 * 
 	 */
-	private static class SplitOffsetInfos {
-		// offset & length info per split
-		private int[] offsetPerSplit = null;
-		private int[] lenghtPerSplit = null;
-
-		public SplitOffsetInfos(int numSplits) {
-			lenghtPerSplit = new int[numSplits];
-			offsetPerSplit = new int[numSplits];
+	private static class CSVStagingBlock 
+	{
+		private final int _ncol;
+		private final boolean _sparse;
+		private final int _chunkRows;
+		private final ArrayList<double[]> _dchunks;
+		private final ArrayList<SparseRow> _srows;
+		private final DenseBlock _dest;
+		private final int _rl;
+		private final int _maxRows;
+		private int _nrow = 0;
+		private long _nnz = 0;
+		
+		public CSVStagingBlock(int ncol, boolean sparse) {
+			_ncol = ncol;
+			_sparse = sparse;
+			_chunkRows = Math.max(STAGING_CHUNK_SIZE / Math.max(ncol, 1), 1);
+			_dchunks = sparse ? null : new ArrayList<double[]>();
+			_srows = sparse ? new ArrayList<SparseRow>() : null;
+			_dest = null;
+			_rl = -1;
+			_maxRows = Integer.MAX_VALUE;
 		}
-
-		public int getLenghtPerSplit(int split) {
-			return lenghtPerSplit[split];
+		
+		public CSVStagingBlock(int ncol, MatrixBlock dest, int rl, int nrow) {
+			_ncol = ncol;
+			_sparse = false;
+			_chunkRows = -1;
+			_dchunks = null;
+			_srows = null;
+			_dest = dest.getDenseBlock();
+			_rl = rl;
+			_maxRows = nrow;
 		}
-
-		public void setLenghtPerSplit(int split, int r) {
-			lenghtPerSplit[split] = r;
+		
+		public int getNumRows() {
+			return _nrow;
 		}
-
-		public int getOffsetPerSplit(int split) {
-			return offsetPerSplit[split];
+		
+		public long getNonZeros() {
+			return _nnz;
 		}
-
-		public void setOffsetPerSplit(int split, int o) {
-			offsetPerSplit[split] = o;
+		
+		public boolean isSparse() {
+			return _sparse;
+		}
+		
+		/**
+		 * Appends the given dense row, which is reset to zeros 
+		 * if the staging block is sparse.
+		 * 
+		 * @param row
+		 * @param lnnz
+		 * @throws IOException 
+		 */
+		public void appendRow(double[] row, int lnnz) 
+			throws IOException 
+		{
+			if( _nrow >= _maxRows )
+				throw new IOException("Inconsistent number of rows in split: more than "+_maxRows+" rows.");
+			
+			if( _dest != null ) {
+				System.arraycopy(row, 0, _dest.values(_rl+_nrow), _dest.pos(_rl+_nrow), _ncol);
+			}
+			else if( _sparse ) {
+				SparseRow srow = null;
+				if( lnnz > 0 ) {
+					srow = new SparseRow(lnnz);
+					for( int j=0; j<_ncol; j++ )
+						if( row[j] != 0 ) {
+							srow.append(j, row[j]);
+							row[j] = 0;
+						}
+				}
+				_srows.add(srow);
+			}
+			else {
+				int pos = (_nrow % _chunkRows) * _ncol;
+				if( pos == 0 )
+					_dchunks.add(new double[_chunkRows * _ncol]);
+				System.arraycopy(row, 0, _dchunks.get(_dchunks.size()-1), pos, _ncol);
+			}
+			_nrow++;
+			_nnz += lnnz;
+		}
+		
+		/**
+		 * Copies all rows into the given output block, starting at row 
+		 * offset rl, and releases the staged rows.
+		 * 
+		 * @param dest
+		 * @param rl
+		 */
+		public void copyTo(MatrixBlock dest, int rl) {
+			if( _dest != null ) //rows already in output
+				return;
+			if( dest.isInSparseFormat() ) { //SPARSE
+				SparseBlock c = dest.getSparseBlock();
+				for( int i=0; i<_nrow; i++ ) {
+					if( _sparse ) {
+						//shallow copy of exact-sized sparse rows
+						c.set(rl+i, _srows.get(i), false);
+					}
+					else {
+						double[] a = _dchunks.get(i / _chunkRows);
+						int aix = (i % _chunkRows) * _ncol;
+						for( int j=0; j<_ncol; j++ )
+							if( a[aix+j] != 0 )
+								c.append(rl+i, j, a[aix+j]);
+					}
+				}
+			}
+			else { //DENSE
+				DenseBlock c = dest.getDenseBlock();
+				for( int i=0; i<_nrow; i++ ) {
+					double[] cvals = c.values(rl+i);
+					int cix = c.pos(rl+i);
+					if( _sparse ) {
+						SparseRow srow = _srows.get(i);
+						if( srow != null )
+							for( int k=0; k<srow.size(); k++ )
+								cvals[cix+srow.indexes()[k]] = srow.values()[k];
+					}
+					else {
+						System.arraycopy(_dchunks.get(i / _chunkRows), 
+							(i % _chunkRows) * _ncol, cvals, cix, _ncol);
+					}
+				}
+			}
+			
+			//release staged rows
+			if( _sparse )
+				_srows.clear();
+			else
+				_dchunks.clear();
 		}
 	}
 
@@ -269,249 +497,180 @@ public class ReaderTextCSVParallel extends MatrixReader
 	 * 
 	 * 
 	 */
-	private static class CountRowsTask implements Callable<Object> 
+	private static class CSVReadTask implements Callable<CSVStagingBlock> 
 	{
 		private InputSplit _split = null;
 		private TextInputFormat _informat = null;
 		private JobConf _job = null;
-		private boolean _rc = true;
-		private String _errMsg = null;
-		private int _nrows = -1;
+		private int _ncol = -1;
+		private CSVStagingBlock _sblock = null;
 		private boolean _hasHeader = false;
-
-		public CountRowsTask(InputSplit split, TextInputFormat informat,
-				JobConf job, boolean hasHeader) {
+		private boolean _fill = false;
+		private double _fillValue = 0;
+		private String _delim = null;
+		
+		public CSVReadTask(InputSplit split, TextInputFormat informat, JobConf job, int ncol, 
+				CSVStagingBlock sblock, boolean hasHeader, String delim, boolean fill, double fillValue) 
+		{
 			_split = split;
 			_informat = informat;
 			_job = job;
-			_nrows = 0;
+			_ncol = ncol;
+			_sblock = sblock;
 			_hasHeader = hasHeader;
-		}
-
-		public boolean getReturnCode() {
-			return _rc;
-		}
-
-		public int getRowCount() {
-			return _nrows;
-		}
-		
-		public String getErrMsg() {
-			return _errMsg;
+			_fill = fill;
+			_fillValue = fillValue;
+			_delim = delim;
 		}
 
 		@Override
-		public Object call() 
+		public CSVStagingBlock call() 
 			throws Exception 
 		{
+			CSVStagingBlock ret = _sblock;
+			byte[] delim = _delim.getBytes(IOUtilFunctions.UTF8);
+			double[] row = new double[_ncol];
+			
 			RecordReader<LongWritable, Text> reader = _informat.getRecordReader(_split, _job, Reporter.NULL);
 			LongWritable key = new LongWritable();
-			Text oneLine = new Text();
-
-			try {
-				// count rows from the first non-header row
+			Text value = new Text();
+			
+			try 
+			{
+				// skip the header line
 				if (_hasHeader) {
-					reader.next(key, oneLine);
+					reader.next(key, value);
 				}
-				while (reader.next(key, oneLine)) {
-					_nrows++;
+				
+				while (reader.next(key, value)) // foreach line
+				{
+					//trim line (w/o string creation) 
+					byte[] buf = value.getBytes();
+					int beg = 0, end = value.getLength();
+					while( beg < end && IOUtilFunctions.isTrimmable(buf[beg]) )
+						beg++;
+					while( end > beg && IOUtilFunctions.isTrimmable(buf[end-1]) )
+						end--;
+					
+					//scan and parse cells (incl empty cells), where an empty
+					//line has no cells (consistent with string split)
+					int col = 0;
+					int lnnz = 0;
+					boolean noFillEmpty = false;
+					for( int pos = beg, next = 0; beg < end && next >= 0; col++ ) {
+						next = IOUtilFunctions.indexOf(buf, pos, end, delim);
+						
+						//trim cell
+						int cbeg = pos;
+						int cend = (next >= 0) ? next : end;
+						while( cbeg < cend && IOUtilFunctions.isTrimmable(buf[cbeg]) )
+							cbeg++;
+						while( cend > cbeg && IOUtilFunctions.isTrimmable(buf[cend-1]) )
+							cend--;
+						
+						double cellValue = 0;
+						if( cbeg == cend ) {
+							noFillEmpty |= !_fill;
+							cellValue = _fillValue;
+						}
+						else {
+							cellValue = IOUtilFunctions.parseDouble(buf, cbeg, cend-cbeg);
+						}
+						if( cellValue != 0 && col < _ncol ) {
+							row[col] = cellValue;
+							lnnz++;
+						}
+						
+						//advance behind delimiter
+						pos = next + delim.length;
+					}
+					
+					// sanity checks (number of columns, fill values), where the 
+					// line string is only materialized for error messages
+					if( col != _ncol || noFillEmpty ) {
+						String cellStr = value.toString().trim();
+						IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
+						IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_split.toString(), cellStr, 
+								IOUtilFunctions.split(cellStr, _delim), _ncol);
+					}
+					
+					ret.appendRow(row, lnnz);
+					if( !ret.isSparse() && lnnz > 0 )
+						Arrays.fill(row, 0);
 				}
-			} 
-			catch (Exception e) {
-				_rc = false;
-				_errMsg = "RecordReader error CSV format. split: "+ _split.toString() + e.getMessage();
-				throw new IOException(_errMsg);
-			} 
+			}
+			catch(Exception ex) {
+				throw new IOException("Unable to read matrix in text CSV format. "+ ex.getMessage(), ex);
+			}
 			finally {
 				IOUtilFunctions.closeSilently(reader);
 			}
 
-			return null;
+			return ret;
 		}
 	}
-
+	
 	/**
 	 * 
 	 * 
 	 */
-	private static class CSVReadTask implements Callable<Object> 
+	private static class CountRowsTask implements Callable<Integer> 
 	{
 		private InputSplit _split = null;
-		private SplitOffsetInfos _splitoffsets = null;
-		private boolean _sparse = false;
 		private TextInputFormat _informat = null;
 		private JobConf _job = null;
-		private MatrixBlock _dest = null;
-		private long _rlen = -1;
-		private long _clen = -1;
-		private boolean _isFirstSplit = false;
 		private boolean _hasHeader = false;
-		private boolean _fill = false;
-		private double _fillValue = 0;
-		private String _delim = null;
-		private int _splitCount = 0;
 		
-		private boolean _rc = true;
-		private Exception _exception = null;
-		private long _nnz;
-		
-		public CSVReadTask(InputSplit split, SplitOffsetInfos offsets,
-				TextInputFormat informat, JobConf job, MatrixBlock dest,
-				long rlen, long clen, boolean hasHeader, String delim,
-				boolean fill, double fillValue, int splitCount) 
-		{
+		public CountRowsTask(InputSplit split, TextInputFormat informat, JobConf job, boolean hasHeader) {
 			_split = split;
-			_splitoffsets = offsets; // new SplitOffsetInfos(offsets);
-			_sparse = dest.isInSparseFormat();
 			_informat = informat;
 			_job = job;
-			_dest = dest;
-			_rlen = rlen;
-			_clen = clen;
-			_isFirstSplit = (splitCount == 0);
 			_hasHeader = hasHeader;
-			_fill = fill;
-			_fillValue = fillValue;
-			_delim = delim;
-			_rc = true;
-			_splitCount = splitCount;
-		}
-
-		public boolean getReturnCode() {
-			return _rc;
-		}
-
-		public Exception getException() {
-			return _exception;
 		}
 		
-		public long getPartialNnz() {
-			return _nnz;
-		}
-
 		@Override
-		public Object call() 
+		public Integer call() 
 			throws Exception 
 		{
-			int row = 0;
-			int col = 0;
-			double cellValue = 0;
-			long lnnz = 0;
+			RecordReader<LongWritable, Text> reader = _informat.getRecordReader(_split, _job, Reporter.NULL);
+			LongWritable key = new LongWritable();
+			Text value = new Text();
+			int nrows = 0;
 			
-			try 
-			{
-				RecordReader<LongWritable, Text> reader = _informat.getRecordReader(_split, _job, Reporter.NULL);
-				LongWritable key = new LongWritable();
-				Text value = new Text();
-				
-				// skip the header line
-				if (_isFirstSplit && _hasHeader) {
+			try {
+				// count rows from the first non-header row
+				if( _hasHeader )
 					reader.next(key, value);
-				}
-
-				boolean noFillEmpty = false;
-				row = _splitoffsets.getOffsetPerSplit(_splitCount);
-
-				try {
-					if (_sparse) // SPARSE<-value
-					{
-						while (reader.next(key, value)) // foreach line
-						{
-							String cellStr = value.toString().trim();
-							String[] parts = IOUtilFunctions.split(cellStr, _delim);
-							col = 0;
-
-							for (String part : parts) // foreach cell
-							{
-								part = part.trim();
-								if (part.isEmpty()) {
-									noFillEmpty |= !_fill;
-									cellValue = _fillValue;
-								} 
-								else {
-									cellValue = IOUtilFunctions.parseDoubleParallel(part);
-								}
-
-								if( cellValue != 0 ) {
-									_dest.appendValue(row, col, cellValue);
-									lnnz++;
-								}
-								col++;
-							}
-
-							// sanity checks (number of columns, fill values)
-							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
-							IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_split.toString(), cellStr, parts, _clen);
-							
-							row++;
-						}
-					} 
-					else // DENSE<-value
-					{
-						while (reader.next(key, value)) // foreach line
-						{
-							String cellStr = value.toString().trim();
-							String[] parts = IOUtilFunctions.split(cellStr, _delim);
-							col = 0;
-
-							for (String part : parts) // foreach cell
-							{
-								part = part.trim();
-								if (part.isEmpty()) {
-									noFillEmpty |= !_fill;
-									cellValue = _fillValue;
-								} 
-								else {
-									cellValue = IOUtilFunctions.parseDoubleParallel(part);
-								}
-								if( cellValue != 0 ) {
-									_dest.setValueDenseUnsafe(row, col, cellValue);
-									lnnz++;
-								}
-								col++;
-							}
-
-							// sanity checks (number of columns, fill values)
-							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
-							IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_split.toString(), cellStr, parts, _clen);
-							
-							row++;
-						}
-					}
-
-					// sanity checks (number of rows)
-					if (row != (_splitoffsets.getOffsetPerSplit(_splitCount) + _splitoffsets.getLenghtPerSplit(_splitCount)) ) 
-					{
-						throw new IOException("Incorrect number of rows ("+ row+ ") found in delimited file ("
-										+ (_splitoffsets.getOffsetPerSplit(_splitCount) 
-										+ _splitoffsets.getLenghtPerSplit(_splitCount))+ "): " + value);
-					}
-				} 
-				finally {
-					if (reader != null)
-						reader.close();
-				}
-			} 
-			catch (Exception ex) {
-				// central error handling (return code, message)
-				_rc = false;
-				_exception = ex;
-
-				// post-mortem error handling and bounds checking
-				if (row < 0 || row + 1 > _rlen || col < 0 || col + 1 > _clen) {
-					String errMsg = "CSV cell [" + (row + 1) + "," + (col + 1)+ "] " + 
-							"out of overall matrix range [1:" + _rlen+ ",1:" + _clen + "]. " + ex.getMessage();
-					throw new IOException(errMsg, _exception);
-				} 
-				else {
-					String errMsg = "Unable to read matrix in text CSV format. "+ ex.getMessage();
-					throw new IOException(errMsg, _exception);
-				}
+				while( reader.next(key, value) )
+					nrows++;
+			}
+			finally {
+				IOUtilFunctions.closeSilently(reader);
 			}
-
-			//post processing
-			_nnz = lnnz;
 			
+			return nrows;
+		}
+	}
+	
+	/**
+	 * 
+	 * 
+	 */
+	private static class CSVStitchTask implements Callable<Object> 
+	{
+		private CSVStagingBlock _sblock = null;
+		private MatrixBlock _dest = null;
+		private int _rl = -1;
+		
+		public CSVStitchTask(CSVStagingBlock sblock, MatrixBlock dest, int rl) {
+			_sblock = sblock;
+			_dest = dest;
+			_rl = rl;
+		}
+
+		@Override
+		public Object call() throws Exception {
+			_sblock.copyTo(_dest, _rl);
 			return null;
 		}
 	}
@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.TextInputFormat;
+
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.util.SortUtils;
+
+/**
+ * Reader for the LIBSVM text format, where every line "label index:value ..."
+ * represents a row of the output matrix. The 1-based feature indexes map to 
+ * the columns 1 to clen-1, and the label is stored in the last column clen. 
+ * If the number of columns is unknown, it is inferred as the maximum feature 
+ * index plus one. Since the format is inherently sparse, we parse the raw 
+ * line bytes into split-local staging blocks of CSR arrays, and finally 
+ * construct the output directly as a CSR block of exact size (w/o per-cell 
+ * appends or intermediate sparse rows).
+ * 
+ */
+public class ReaderTextLIBSVM extends MatrixReader
+{
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());	
+		FileSystem fs = FileSystem.get(job);
+		Path path = new Path( fname );
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path); 
+		
+		FileInputFormat.addInputPath(job, path);
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+		InputSplit[] splits = informat.getSplits(job, 1);
+		splits = IOUtilFunctions.sortInputSplits(splits);
+		
+		//core read (sequential, all splits into a single staging block)
+		LIBSVMStagingBlock staging = new LIBSVMStagingBlock();
+		for( InputSplit split : splits )
+			readLIBSVMSplit(split, informat, job, clen, staging);
+		
+		//construct output block from staged rows
+		LIBSVMStagingBlock[] sblocks = new LIBSVMStagingBlock[]{staging};
+		MatrixBlock ret = createOutputMatrixBlock(sblocks, rlen, clen);
+		staging.copyTo(ret, 0, 0);
+		
+		//finally check if change of sparse/dense block representation required
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Reads all lines of the given split and appends the parsed rows 
+	 * to the given staging block.
+	 * 
+	 * @param split
+	 * @param informat
+	 * @param job
+	 * @param clen
+	 * @param dest
+	 * @throws IOException
+	 */
+	protected static void readLIBSVMSplit( InputSplit split, TextInputFormat informat, JobConf job, long clen, LIBSVMStagingBlock dest )
+		throws IOException
+	{
+		RecordReader<LongWritable,Text> reader = informat.getRecordReader(split, job, Reporter.NULL);
+		LongWritable key = new LongWritable();
+		Text value = new Text();
+		LIBSVMRow row = new LIBSVMRow();
+		
+		try {
+			while( reader.next(key, value) ) {
+				parseLIBSVMRow(value.getBytes(), 0, value.getLength(), clen, row);
+				dest.appendRow(row);
+			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(reader);
+		}
+	}
+	
+	/**
+	 * Allocates the CSR output block for the given staging blocks, incl 
+	 * the validation of the number of rows and inference of unknown columns.
+	 * 
+	 * @param staging
+	 * @param rlen
+	 * @param clen
+	 * @return
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	protected static MatrixBlock createOutputMatrixBlock( LIBSVMStagingBlock[] staging, long rlen, long clen ) 
+		throws IOException, DMLRuntimeException
+	{
+		//aggregate number of rows, non-zeros, and max feature index
+		long nrow = 0, lnnz = 0;
+		int maxIndex = 0;
+		for( LIBSVMStagingBlock sblock : staging ) {
+			nrow += sblock.getNumRows();
+			lnnz += sblock.getNonZeros();
+			maxIndex = Math.max(maxIndex, sblock.getMaxIndex());
+		}
+		long ncol = (clen > 0) ? clen : maxIndex + 1;
+		
+		//check read dimensions and size
+		if( rlen > 0 && nrow != rlen )
+			throw new IOException("Invalid number of rows ("+nrow+", expected="+rlen+") found in libsvm file.");
+		if( !OptimizerUtils.isValidCPDimensions(nrow, ncol) )
+			throw new DMLRuntimeException("Matrix dimensions too large for CP runtime: "+nrow+" x "+ncol);
+		if( lnnz > Integer.MAX_VALUE )
+			throw new DMLRuntimeException("Number of non-zeros too large for CSR block: "+lnnz);
+		
+		//allocate CSR arrays of exact size
+		SparseBlockCSR sblock = new SparseBlockCSR(new int[(int)nrow+1], 
+				new int[(int)lnnz], new double[(int)lnnz], (int)lnnz);
+		return new MatrixBlock((int)nrow, (int)ncol, lnnz, sblock);
+	}
+	
+	/**
+	 * Parses the given range of line bytes "label index:value ..." into
+	 * the given row buffer. Zero values are dropped, unsorted feature indexes 
+	 * are sorted, and trailing comments (starting with '#') are ignored.
+	 * 
+	 * @param buf
+	 * @param beg
+	 * @param end
+	 * @param clen number of columns incl label, or -1 if unknown
+	 * @param row
+	 * @throws IOException
+	 */
+	public static void parseLIBSVMRow( byte[] buf, int beg, int end, long clen, LIBSVMRow row ) 
+		throws IOException
+	{
+		row.reset();
+		
+		//parse label
+		int pos = skipTrimmable(buf, beg, end);
+		if( pos >= end ) 
+			throw new IOException("Empty line found in libsvm file.");
+		int tend = scanToken(buf, pos, end);
+		row.setLabel(IOUtilFunctions.parseDouble(buf, pos, tend-pos));
+		
+		//parse features
+		for( pos = skipTrimmable(buf, tend, end); pos < end && buf[pos] != '#'; 
+			pos = skipTrimmable(buf, tend, end) ) 
+		{
+			tend = scanToken(buf, pos, end);
+			int sep = pos;
+			while( sep < tend && buf[sep] != ':' )
+				sep++;
+			int index = (sep < tend) ? parseIndex(buf, pos, sep) : -1;
+			if( index < 1 || (clen > 0 && index >= clen) ) {
+				throw new IOException("Invalid feature '"+new String(buf, pos, tend-pos, IOUtilFunctions.UTF8)+"' "
+					+ "(expected index in [1,"+((clen>0)?clen-1:Integer.MAX_VALUE-1)+"]) found in libsvm file "
+					+ "for line: "+new String(buf, beg, end-beg, IOUtilFunctions.UTF8));
+			}
+			row.append(index-1, IOUtilFunctions.parseDouble(buf, sep+1, tend-sep-1));
+		}
+		
+		//sort and validate features
+		if( !row.finalizeRow() ) {
+			throw new IOException("Duplicate feature index found in libsvm file "
+				+ "for line: "+new String(buf, beg, end-beg, IOUtilFunctions.UTF8));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param buf
+	 * @param pos
+	 * @param end
+	 * @return
+	 */
+	private static int skipTrimmable( byte[] buf, int pos, int end ) {
+		while( pos < end && IOUtilFunctions.isTrimmable(buf[pos]) )
+			pos++;
+		return pos;
+	}
+	
+	/**
+	 * 
+	 * @param buf
+	 * @param pos
+	 * @param end
+	 * @return
+	 */
+	private static int scanToken( byte[] buf, int pos, int end ) {
+		while( pos < end && !IOUtilFunctions.isTrimmable(buf[pos]) )
+			pos++;
+		return pos;
+	}
+	
+	/**
+	 * Parses a positive integer index, or returns -1 if invalid.
+	 * 
+	 * @param buf
+	 * @param beg
+	 * @param end
+	 * @return
+	 */
+	private static int parseIndex( byte[] buf, int beg, int end ) {
+		if( beg >= end || end - beg > 10 )
+			return -1;
+		long ret = 0;
+		for( int i=beg; i<end; i++ ) {
+			if( buf[i] < '0' || buf[i] > '9' )
+				return -1;
+			ret = ret * 10 + (buf[i] - '0');
+		}
+		return (ret < Integer.MAX_VALUE) ? (int)ret : -1;
+	}
+	
+	/**
+	 * Reusable buffer of a single parsed row, i.e., the label and
+	 * non-zero features with 0-based column indexes.
+	 * 
+	 */
+	public static class LIBSVMRow 
+	{
+		private int[] _indexes = new int[16];
+		private double[] _values = new double[16];
+		private int _size = 0;
+		private double _label = 0;
+		private boolean _sorted = true;
+		
+		public void reset() {
+			_size = 0;
+			_label = 0;
+			_sorted = true;
+		}
+		
+		public void setLabel(double label) {
+			_label = label;
+		}
+		
+		public double getLabel() {
+			return _label;
+		}
+		
+		public int size() {
+			return _size;
+		}
+		
+		public int[] indexes() {
+			return _indexes;
+		}
+		
+		public double[] values() {
+			return _values;
+		}
+		
+		public void append(int col, double v) {
+			if( v == 0 )
+				return;
+			if( _size == _indexes.length ) {
+				int newCap = 2 * _indexes.length;
+				_indexes = Arrays.copyOf(_indexes, newCap);
+				_values = Arrays.copyOf(_values, newCap);
+			}
+			_sorted &= (_size == 0 || col > _indexes[_size-1]);
+			_indexes[_size] = col;
+			_values[_size] = v;
+			_size++;
+		}
+		
+		/**
+		 * Sorts the features by index if required.
+		 * 
+		 * @return false if duplicate indexes exist
+		 */
+		public boolean finalizeRow() {
+			if( _sorted )
+				return true;
+			SortUtils.sortByIndex(0, _size, _indexes, _values);
+			for( int k=1; k<_size; k++ )
+				if( _indexes[k-1] == _indexes[k] )
+					return false;
+			_sorted = true;
+			return true;
+		}
+	}
+	
+	/**
+	 * Split-local staging block of parsed rows, which stores the sorted 
+	 * features in growing CSR arrays and the labels in a separate array 
+	 * (because the label column is unknown if the number of columns is 
+	 * inferred from the data).
+	 * 
+	 */
+	protected static class LIBSVMStagingBlock 
+	{
+		private int[] _ptr = new int[1024+1];
+		private int[] _indexes = new int[1024];
+		private double[] _values = new double[1024];
+		private double[] _labels = new double[1024];
+		private int _nrow = 0;
+		private long _lnnz = 0; //non-zero labels
+		private int _maxIndex = 0;
+		
+		public int getNumRows() {
+			return _nrow;
+		}
+		
+		public long getNonZeros() {
+			return _ptr[_nrow] + _lnnz;
+		}
+		
+		public int getMaxIndex() {
+			return _maxIndex;
+		}
+		
+		public void appendRow(LIBSVMRow row) {
+			//ensure capacity of row arrays
+			if( _nrow + 1 == _ptr.length ) {
+				_ptr = Arrays.copyOf(_ptr, 2 * _ptr.length);
+				_labels = Arrays.copyOf(_labels, 2 * _labels.length);
+			}
+			//ensure capacity of feature arrays
+			int pos = _ptr[_nrow];
+			int len = row.size();
+			if( pos + len > _indexes.length ) {
+				int newCap = Math.max(2 * _indexes.length, pos + len);
+				_indexes = Arrays.copyOf(_indexes, newCap);
+				_values = Arrays.copyOf(_values, newCap);
+			}
+			
+			//append features and label
+			System.arraycopy(row.indexes(), 0, _indexes, pos, len);
+			System.arraycopy(row.values(), 0, _values, pos, len);
+			if( len > 0 )
+				_maxIndex = Math.max(_maxIndex, row.indexes()[len-1] + 1);
+			_labels[_nrow] = row.getLabel();
+			_lnnz += (row.getLabel() != 0) ? 1 : 0;
+			_ptr[++_nrow] = pos + len;
+		}
+		
+		/**
+		 * Copies all rows into the CSR arrays of the given output block,
+		 * starting at row offset rl and value offset pos, and appends the
+		 * non-zero labels into the last column. 
+		 * 
+		 * @param dest
+		 * @param rl
+		 * @param pos
+		 */
+		public void copyTo(MatrixBlock dest, int rl, int pos) {
+			SparseBlockCSR c = (SparseBlockCSR) dest.getSparseBlock();
+			int[] cptr = c.rowPointers();
+			int[] cix = c.indexes();
+			double[] cvals = c.values();
+			int lcol = dest.getNumColumns() - 1;
+			
+			for( int i=0; i<_nrow; i++ ) {
+				int apos = _ptr[i];
+				int alen = _ptr[i+1] - apos;
+				System.arraycopy(_indexes, apos, cix, pos, alen);
+				System.arraycopy(_values, apos, cvals, pos, alen);
+				pos += alen;
+				if( _labels[i] != 0 ) {
+					cix[pos] = lcol;
+					cvals[pos++] = _labels[i];
+				}
+				cptr[rl+i+1] = pos;
+			}
+			
+			//release staged rows
+			_ptr = null;
+			_indexes = null;
+			_values = null;
+			_labels = null;
+		}
+	}
+}
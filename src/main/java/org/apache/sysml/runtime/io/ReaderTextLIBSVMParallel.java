@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.TextInputFormat;
+
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.io.ReaderTextLIBSVM.LIBSVMStagingBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+
+/**
+ * Parallel version of ReaderTextLIBSVM.java. Similar to the parallel csv
+ * reader, we read all splits in a single pass into split-local staging blocks
+ * and finally stitch the staging blocks into the CSR output block at the row 
+ * and value offsets given by the prefix sums of the per-split row and non-zero
+ * counts. The stitch tasks write disjoint ranges of the CSR arrays.
+ * 
+ */
+public class ReaderTextLIBSVMParallel extends MatrixReader 
+{
+	private int _numThreads = 1;
+
+	public ReaderTextLIBSVMParallel() {
+		_numThreads = OptimizerUtils.getParallelTextReadParallelism();
+	}
+
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen,
+			int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		// prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		FileSystem fs = FileSystem.get(job);
+		Path path = new Path(fname);
+
+		// check existence and non-empty file
+		checkValidInputFile(fs, path);
+		
+		FileInputFormat.addInputPath(job, path);
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+
+		InputSplit[] splits = informat.getSplits(job, _numThreads);
+		splits = IOUtilFunctions.sortInputSplits(splits);
+
+		// Single Read Pass (read, parse bytes, append to split-local staging blocks)
+		LIBSVMStagingBlock[] staging = readLIBSVMMatrixFromHDFS(splits, informat, job, clen);
+		
+		// allocate CSR output block (exact nnz known after read) and stitch 
+		// staging blocks into output at the split row and value offsets
+		MatrixBlock ret = ReaderTextLIBSVM.createOutputMatrixBlock(staging, rlen, clen);
+		stitchLIBSVMStagingBlocks(staging, ret);
+		
+		//post-processing (change of sparse/dense block representation)
+		// - no sorting required because rows are sorted during parsing
+		ret.examSparsity();
+
+		return ret;
+	}
+
+	/**
+	 * 
+	 * @param splits
+	 * @param informat
+	 * @param job
+	 * @param clen
+	 * @return
+	 * @throws IOException
+	 */
+	private LIBSVMStagingBlock[] readLIBSVMMatrixFromHDFS(InputSplit[] splits, TextInputFormat informat, JobConf job, long clen) 
+		throws IOException 
+	{
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
+
+		try 
+		{
+			// create read tasks for all splits
+			ArrayList<LIBSVMReadTask> tasks = new ArrayList<LIBSVMReadTask>();
+			for( InputSplit split : splits )
+				tasks.add( new LIBSVMReadTask(split, informat, job, clen) );
+			List<Future<LIBSVMStagingBlock>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+
+			// collect staging blocks in split order (incl error handling)
+			LIBSVMStagingBlock[] ret = new LIBSVMStagingBlock[splits.length];
+			for( int i=0; i<splits.length; i++ )
+				ret[i] = rt.get(i).get();
+			return ret;
+		} 
+		catch (Exception e) {
+			throw new IOException("Read task for libsvm input failed: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param staging
+	 * @param dest
+	 * @throws IOException
+	 */
+	private void stitchLIBSVMStagingBlocks(LIBSVMStagingBlock[] staging, MatrixBlock dest) 
+		throws IOException
+	{
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
+		
+		try
+		{
+			// create stitch tasks for all non-empty staging blocks
+			ArrayList<LIBSVMStitchTask> tasks = new ArrayList<LIBSVMStitchTask>();
+			int rl = 0, pos = 0;
+			for( LIBSVMStagingBlock sblock : staging ) {
+				if( sblock.getNumRows() > 0 )
+					tasks.add( new LIBSVMStitchTask(sblock, dest, rl, pos) );
+				rl += sblock.getNumRows();
+				pos += (int)sblock.getNonZeros();
+			}
+			List<Future<Object>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			for( Future<Object> task : rt )
+				task.get(); //error handling
+		}
+		catch (Exception e) {
+			throw new IOException("Threadpool issue, while parallel read.", e);
+		}
+	}
+
+	/**
+	 * 
+	 * 
+	 */
+	private static class LIBSVMReadTask implements Callable<LIBSVMStagingBlock> 
+	{
+		private InputSplit _split = null;
+		private TextInputFormat _informat = null;
+		private JobConf _job = null;
+		private long _clen = -1;
+		
+		public LIBSVMReadTask(InputSplit split, TextInputFormat informat, JobConf job, long clen) {
+			_split = split;
+			_informat = informat;
+			_job = job;
+			_clen = clen;
+		}
+
+		@Override
+		public LIBSVMStagingBlock call() 
+			throws Exception 
+		{
+			LIBSVMStagingBlock ret = new LIBSVMStagingBlock();
+			ReaderTextLIBSVM.readLIBSVMSplit(_split, _informat, _job, _clen, ret);
+			return ret;
+		}
+	}
+	
+	/**
+	 * 
+	 * 
+	 */
+	private static class LIBSVMStitchTask implements Callable<Object> 
+	{
+		private LIBSVMStagingBlock _sblock = null;
+		private MatrixBlock _dest = null;
+		private int _rl = -1;
+		private int _pos = -1;
+		
+		public LIBSVMStitchTask(LIBSVMStagingBlock sblock, MatrixBlock dest, int rl, int pos) {
+			_sblock = sblock;
+			_dest = dest;
+			_rl = rl;
+			_pos = pos;
+		}
+
+		@Override
+		public Object call() 
+			throws Exception 
+		{
+			_sblock.copyTo(_dest, _rl, _pos);
+			return null;
+		}
+	}
+}
@@ -25,6 +25,8 @@ import java.io.IOException;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.SequenceFile.CompressionType;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.runtime.DMLRuntimeException;
@@ -68,7 +70,6 @@ public class WriterBinaryBlock extends MatrixWriter
 	}
 
 	@Override
-	@SuppressWarnings("deprecation")
 	public final void writeEmptyMatrixToHDFS(String fname, long rlen, long clen, int brlen, int bclen) 
 		throws IOException, DMLRuntimeException 
 	{
@@ -76,8 +77,7 @@ public class WriterBinaryBlock extends MatrixWriter
 		Path path = new Path( fname );
 		FileSystem fs = FileSystem.get(job);
 
-		SequenceFile.Writer writer = new SequenceFile.Writer(fs, job, path,
-				                        MatrixIndexes.class, MatrixBlock.class);
+		SequenceFile.Writer writer = createSequenceFileWriter(path, job, fs);
 		
 		MatrixIndexes index = new MatrixIndexes(1, 1);
 		MatrixBlock block = new MatrixBlock((int)Math.min(rlen, brlen),
@@ -86,6 +86,29 @@ public class WriterBinaryBlock extends MatrixWriter
 		writer.close();
 	}
 	
+	/**
+	 * Creates a sequence file writer of binary blocks, with the right replication factor 
+	 * (config via MRConfigurationNames.DFS_REPLICATION not possible since sequence file 
+	 * internally calls fs.getDefaultReplication()), and block compression if configured.
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @return
+	 * @throws IOException
+	 */
+	@SuppressWarnings("deprecation")
+	protected final SequenceFile.Writer createSequenceFileWriter( Path path, JobConf job, FileSystem fs ) 
+		throws IOException
+	{
+		CompressionCodec codec = BlockCompressionUtils.getConfiguredCodec(job);
+		short replication = (_replication > 0) ? (short)_replication : fs.getDefaultReplication();
+		
+		return SequenceFile.createWriter(fs, job, path, MatrixIndexes.class, MatrixBlock.class, 
+				job.getInt(MRConfigurationNames.IO_FILE_BUFFER_SIZE, 4096), replication, fs.getDefaultBlockSize(),
+				(codec != null) ? CompressionType.BLOCK : CompressionType.NONE, codec, null, new SequenceFile.Metadata());
+	}
+	
 	/**
 	 * 
 	 * @param path
@@ -118,7 +141,6 @@ public class WriterBinaryBlock extends MatrixWriter
 	 * @throws DMLRuntimeException
 	 * @throws IOException
 	 */
-	@SuppressWarnings("deprecation")
 	protected final void writeBinaryBlockMatrixToSequenceFile( Path path, JobConf job, FileSystem fs, MatrixBlock src, int brlen, int bclen, int rl, int ru ) 
 		throws DMLRuntimeException, IOException
 	{
@@ -126,19 +148,8 @@ public class WriterBinaryBlock extends MatrixWriter
 		int rlen = src.getNumRows();
 		int clen = src.getNumColumns();
 		
-		// 1) create sequence file writer, with right replication factor 
-		// (config via MRConfigurationNames.DFS_REPLICATION not possible since sequence file internally calls fs.getDefaultReplication())
-		SequenceFile.Writer writer = null;
-		if( _replication > 0 ) //if replication specified (otherwise default)
-		{
-			//copy of SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class), except for replication
-			writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class, job.getInt(MRConfigurationNames.IO_FILE_BUFFER_SIZE, 4096),
-					                         (short)_replication, fs.getDefaultBlockSize(), null, new SequenceFile.Metadata());	
-		}
-		else	
-		{
-			writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class);
-		}
+		// 1) create sequence file writer, with right replication factor and compression
+		SequenceFile.Writer writer = createSequenceFileWriter(path, job, fs);
 		
 		try
 		{
@@ -207,25 +218,13 @@ public class WriterBinaryBlock extends MatrixWriter
 	 * @throws IOException
 	 * @throws DMLRuntimeException 
 	 */
-	@SuppressWarnings("deprecation")
 	protected final void writeDiagBinaryBlockMatrixToHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock src, long rlen, long clen, int brlen, int bclen ) 
 		throws IOException, DMLRuntimeException
 	{
 		boolean sparse = src.isInSparseFormat();
 		
-		// 1) create sequence file writer, with right replication factor 
-		// (config via MRConfigurationNames.DFS_REPLICATION not possible since sequence file internally calls fs.getDefaultReplication())
-		SequenceFile.Writer writer = null;
-		if( _replication > 0 ) //if replication specified (otherwise default)
-		{
-			//copy of SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class), except for replication
-			writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class, job.getInt(MRConfigurationNames.IO_FILE_BUFFER_SIZE, 4096),
-					                         (short)_replication, fs.getDefaultBlockSize(), null, new SequenceFile.Metadata());	
-		}
-		else	
-		{
-			writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class);
-		}
+		// 1) create sequence file writer, with right replication factor and compression
+		SequenceFile.Writer writer = createSequenceFileWriter(path, job, fs);
 		
 		try
 		{
@@ -305,7 +304,6 @@ public class WriterBinaryBlock extends MatrixWriter
 	 * @throws IOException
 	 * @throws DMLRuntimeException
 	 */
-	@SuppressWarnings("deprecation")
 	public final void writePartitionedBinaryBlockMatrixToHDFS( Path path, JobConf job, MatrixBlock src, long rlen, long clen, int brlen, int bclen, PDataPartitionFormat pformat )
 			throws IOException, DMLRuntimeException
 	{
@@ -332,7 +330,7 @@ public class WriterBinaryBlock extends MatrixWriter
 					// 1) create sequence file writer, with right replication factor 
 					// (config via MRConfigurationNames.DFS_REPLICATION not possible since sequence file internally calls fs.getDefaultReplication())
 					Path path2 = new Path(path.toString()+File.separator+(++count));
-					SequenceFile.Writer writer = new SequenceFile.Writer(fs, job, path2, MatrixIndexes.class, MatrixBlock.class);
+					SequenceFile.Writer writer = createSequenceFileWriter(path2, job, fs);
 					
 					//3) reblock and write
 					try
@@ -382,7 +380,7 @@ public class WriterBinaryBlock extends MatrixWriter
 					// 1) create sequence file writer, with right replication factor 
 					// (config via MRConfigurationNames.DFS_REPLICATION not possible since sequence file internally calls fs.getDefaultReplication())
 					Path path2 = new Path(path.toString()+File.separator+(++count));
-					SequenceFile.Writer writer = new SequenceFile.Writer(fs, job, path2, MatrixIndexes.class, MatrixBlock.class);
+					SequenceFile.Writer writer = createSequenceFileWriter(path2, job, fs);
 					
 					//3) reblock and write
 					try
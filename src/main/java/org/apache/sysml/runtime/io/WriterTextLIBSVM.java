@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.MapReduceTool;
+
+/**
+ * Writer for the LIBSVM text format, where every row of the matrix is written
+ * as a line "label index:value ...". The last column of the matrix is written 
+ * as the label and all other non-zero columns j as 1-based feature indexes j+1,
+ * which is consistent with the readers of this format. Note that every row 
+ * is written (incl empty rows) in order to preserve the number of rows.
+ * 
+ */
+public class WriterTextLIBSVM extends MatrixWriter
+{
+	@Override
+	public final void writeMatrixToHDFS(MatrixBlock src, String fname, long rlen, long clen, int brlen, int bclen, long nnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//validity check matrix dimensions
+		if( src.getNumRows() != rlen || src.getNumColumns() != clen ) {
+			throw new IOException("Matrix dimensions mismatch with metadata: "+src.getNumRows()+"x"+src.getNumColumns()+" vs "+rlen+"x"+clen+".");
+		}
+				
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		FileSystem fs = FileSystem.get(job);
+		Path path = new Path( fname );
+
+		//if the file already exists on HDFS, remove it.
+		MapReduceTool.deleteFileIfExistOnHDFS( fname );
+			
+		//core write
+		writeLIBSVMMatrixToHDFS(path, job, fs, src, rlen, clen);
+	}
+
+	@Override
+	public final void writeEmptyMatrixToHDFS(String fname, long rlen, long clen, int brlen, int bclen) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		FileSystem fs = FileSystem.get(job);
+		Path path = new Path( fname );
+
+		//if the file already exists on HDFS, remove it.
+		MapReduceTool.deleteFileIfExistOnHDFS( fname );
+		
+		//write empty rows with zero labels (at least one line)
+		MatrixBlock src = new MatrixBlock((int)Math.max(rlen, 1), (int)Math.max(clen, 1), true);
+		writeLIBSVMMatrixToFile(path, job, fs, src, 0, src.getNumRows());
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @param src
+	 * @param rlen
+	 * @param clen
+	 * @throws IOException
+	 */
+	protected void writeLIBSVMMatrixToHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock src, long rlen, long clen )
+		throws IOException
+	{
+		//sequential write libsvm file
+		writeLIBSVMMatrixToFile(path, job, fs, src, 0, (int)rlen);
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @param src
+	 * @param rl
+	 * @param ru
+	 * @throws IOException
+	 */
+	protected final void writeLIBSVMMatrixToFile( Path path, JobConf job, FileSystem fs, MatrixBlock src, int rl, int ru )
+		throws IOException
+	{
+		BufferedWriter br = new BufferedWriter(new OutputStreamWriter(fs.create(path,true)));		
+
+		try
+		{
+			//for obj reuse and preventing repeated buffer re-allocations
+			StringBuilder sb = new StringBuilder();
+			for( int i=rl; i<ru; i++ ) {
+				appendLIBSVMRow(sb, src, i);
+				sb.append('\n');
+				br.write( sb.toString() ); //same as append
+				sb.setLength(0);
+			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(br);
+		}
+	}
+	
+	/**
+	 * Appends row i of the given matrix block in LIBSVM format (w/o newline)
+	 * to the given string builder. 
+	 * 
+	 * @param sb
+	 * @param src
+	 * @param i
+	 */
+	public static void appendLIBSVMRow( StringBuilder sb, MatrixBlock src, int i ) 
+	{
+		int lcol = src.getNumColumns() - 1;
+		
+		//label (last column)
+		sb.append( src.quickGetValue(i, lcol) );
+		
+		//features (all non-zero columns except the label)
+		if( src.isEmptyBlock(false) ) {
+			//no features
+		}
+		else if( src.isInSparseFormat() ) { //SPARSE
+			SparseBlock a = src.getSparseBlock();
+			if( a != null && !a.isEmpty(i) ) {
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				for( int k=apos; k<apos+alen && aix[k]<lcol; k++ ) {
+					sb.append(' ');
+					sb.append(aix[k]+1);
+					sb.append(':');
+					sb.append(avals[k]);
+				}
+			}
+		}
+		else { //DENSE
+			for( int j=0; j<lcol; j++ ) {
+				double lvalue = src.getValueDenseUnsafe(i, j);
+				if( lvalue != 0 ) { //for nnz
+					sb.append(' ');
+					sb.append(j+1);
+					sb.append(':');
+					sb.append(lvalue);
+				}
+			}
+		}
+	}
+}
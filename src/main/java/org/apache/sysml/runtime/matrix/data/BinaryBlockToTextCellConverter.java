@@ -72,9 +72,9 @@ Converter<MatrixIndexes, MatrixBlock, NullWritable, Text>
 		}
 		else
 		{
-			if(v1.getDenseBlock()==null)
+			if(v1.getDenseBlockValues()==null)
 				return;
-			denseArray=v1.getDenseBlock();
+			denseArray=v1.getDenseBlockValues();
 			nextInDenseArray=0;
 			denseArraySize=v1.getNumRows()*v1.getNumColumns();
 		}
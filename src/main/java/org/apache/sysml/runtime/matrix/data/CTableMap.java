@@ -22,6 +22,7 @@ package org.apache.sysml.runtime.matrix.data;
 import java.util.ArrayList;
 
 import org.apache.sysml.runtime.util.LongLongDoubleHashMap;
+import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleCursor;
 import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleEntry;
 
 /**
@@ -43,6 +44,12 @@ public class CTableMap
 		_maxCol = -1;
 	}
 	
+	public CTableMap(int capacity) {
+		_map = new LongLongDoubleHashMap(capacity);
+		_maxRow = -1;
+		_maxCol = -1;
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -94,6 +101,20 @@ public class CTableMap
 		_maxCol = Math.max(_maxCol, col);
 	}
 	
+	/**
+	 * Adds all cells of the given (partial) ctable map to this map.
+	 * 
+	 * @param that
+	 */
+	public void merge(CTableMap that) 
+	{
+		_map.merge(that._map);
+		
+		//maintain internal summaries 
+		_maxRow = Math.max(_maxRow, that._maxRow);
+		_maxCol = Math.max(_maxCol, that._maxCol);
+	}
+	
 	/**
 	 * 
 	 * @param rlen
@@ -111,13 +132,14 @@ public class CTableMap
 		if( sparse ) //SPARSE <- cells
 		{
 			//append cells to sparse target (prevent shifting)
-			for( LLDoubleEntry e : _map.extractValues() ) 
+			LLDoubleCursor c = _map.getCursor();
+			while( c.next() ) 
 			{
-				double value = e.value;
-				int rix = (int)e.key1;
-				int cix = (int)e.key2;
+				double value = c.getValue();
+				long rix = c.getKey1();
+				long cix = c.getKey2();
 				if( value != 0 && rix<=rlen && cix<=clen )
-					mb.appendValue( rix-1, cix-1, value );
+					mb.appendValue( (int)rix-1, (int)cix-1, value );
 			}
 			
 			//sort sparse target representation
@@ -126,14 +148,18 @@ public class CTableMap
 		else  //DENSE <- cells
 		{
 			//directly insert cells into dense target 
-			for( LLDoubleEntry e : _map.extractValues() ) 
+			mb.allocateDenseBlock();
+			DenseBlock c2 = mb.getDenseBlock();
+			LLDoubleCursor c = _map.getCursor();
+			while( c.next() ) 
 			{
-				double value = e.value;
-				int rix = (int)e.key1;
-				int cix = (int)e.key2;
+				double value = c.getValue();
+				long rix = c.getKey1();
+				long cix = c.getKey2();
 				if( value != 0 && rix<=rlen && cix<=clen )
-					mb.quickSetValue( rix-1, cix-1, value );
+					c2.set((int)rix-1, (int)cix-1, value);
 			}
+			mb.recomputeNonZeros();
 		}
 		
 		return mb;
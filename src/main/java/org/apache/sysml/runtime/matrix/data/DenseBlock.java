@@ -0,0 +1,347 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This DenseBlock is an abstraction for different dense, row-major
+ * matrix formats. Similar to the SparseBlock abstraction, dense blocks
+ * expose their underlying arrays in order to allow kernels without
+ * per-cell indirection: all rows reside in one of numBlocks() arrays
+ * and rows never span multiple arrays. Hence, kernels obtain the array
+ * and offset once per row via values(r) and pos(r), or once per block
+ * via valuesAt(bix), and then operate on plain double arrays.
+ *
+ * Example dense formats are DRB (a single linearized array, bounded by
+ * the max java array length) and LDRB (multiple row-aligned arrays for
+ * blocks that exceed 2^31-1 cells).
+ *
+ */
+public abstract class DenseBlock implements Serializable
+{
+	private static final long serialVersionUID = 4296765919004580339L;
+
+	public enum Type {
+		DRB,  //dense row block
+		LDRB, //large dense row block
+	}
+
+
+	////////////////////////
+	//basic allocation
+
+	/**
+	 * Resets the dense block by setting all cells to 0.
+	 */
+	public abstract void reset();
+
+	/**
+	 * Resets the dense block by setting all cells to 0, and
+	 * reshapes it to the given dimensions. The underlying arrays
+	 * are reallocated only if the capacity or layout is insufficient.
+	 *
+	 * @param rlen  number of rows
+	 * @param clen  number of columns
+	 */
+	public abstract void reset(int rlen, int clen);
+
+	/**
+	 * Reinterprets the existing allocation with the given dimensions
+	 * without modifying the data, which requires a sufficient capacity.
+	 * If the layout is not compatible with the new dimensions, the
+	 * dense block is reallocated and the existing cells are copied
+	 * in linearized row-major order.
+	 *
+	 * @param rlen  number of rows
+	 * @param clen  number of columns
+	 */
+	public abstract void reshape(int rlen, int clen);
+
+
+	////////////////////////
+	//obtain basic meta data
+
+	/**
+	 * Get the number of rows.
+	 *
+	 * @return
+	 */
+	public abstract int numRows();
+
+	/**
+	 * Get the number of columns.
+	 *
+	 * @return
+	 */
+	public abstract int numCols();
+
+	/**
+	 * Get the number of allocated blocks (i.e., arrays).
+	 *
+	 * @return
+	 */
+	public abstract int numBlocks();
+
+	/**
+	 * Get the number of rows per block, except the last one.
+	 *
+	 * @return
+	 */
+	public abstract int blockSize();
+
+	/**
+	 * Get the number of rows of the given block.
+	 *
+	 * @param bix  block index
+	 * @return
+	 */
+	public abstract int blockSize(int bix);
+
+	/**
+	 * Indicates if the dense block is backed by a single
+	 * contiguous array, which can be exploited for more
+	 * efficient operations.
+	 *
+	 * @return
+	 */
+	public abstract boolean isContiguous();
+
+	/**
+	 * Get the number of cells of the dense block.
+	 *
+	 * @return
+	 */
+	public long size() {
+		return (long)numRows() * numCols();
+	}
+
+	/**
+	 * Get the number of cells of the given block.
+	 *
+	 * @param bix  block index
+	 * @return
+	 */
+	public int size(int bix) {
+		return blockSize(bix) * numCols();
+	}
+
+	/**
+	 * Get the number of allocated cells.
+	 *
+	 * @return
+	 */
+	public abstract long capacity();
+
+	/**
+	 * Computes the number of non zero values of the entire dense block.
+	 *
+	 * @return
+	 */
+	public long countNonZeros() {
+		return countNonZeros(0, numRows(), 0, numCols());
+	}
+
+	/**
+	 * Computes the number of non zero values of the given range of
+	 * rows [rl, ru) and columns [cl, cu).
+	 *
+	 * @param rl  row lower index
+	 * @param ru  row upper index (exclusive)
+	 * @param cl  column lower index
+	 * @param cu  column upper index (exclusive)
+	 * @return
+	 */
+	public long countNonZeros(int rl, int ru, int cl, int cu)
+	{
+		final int n = numCols();
+		long nnz = 0;
+		if( cl==0 && cu==n ) { //specific case: all cols
+			for( int bix=index(rl), bl=rl; bl<ru; bix++ ) {
+				int bu = Math.min(ru, (bix+1)*blockSize());
+				double[] a = valuesAt(bix);
+				int alimit = pos(bl) + (bu-bl)*n;
+				for( int i=pos(bl); i<alimit; i++ )
+					nnz += (a[i]!=0) ? 1 : 0;
+				bl = bu;
+			}
+		}
+		else {
+			for( int i=rl; i<ru; i++ ) {
+				double[] a = values(i);
+				int apos = pos(i);
+				for( int j=apos+cl; j<apos+cu; j++ )
+					nnz += (a[j]!=0) ? 1 : 0;
+			}
+		}
+		return nnz;
+	}
+
+
+	////////////////////////
+	//obtain underlying arrays and positions
+
+	/**
+	 * Get the array holding row r.
+	 *
+	 * @param r  row index starting at 0
+	 * @return
+	 */
+	public abstract double[] values(int r);
+
+	/**
+	 * Get the array of the given block.
+	 *
+	 * @param bix  block index
+	 * @return
+	 */
+	public abstract double[] valuesAt(int bix);
+
+	/**
+	 * Get the block index of row r.
+	 *
+	 * @param r  row index starting at 0
+	 * @return
+	 */
+	public abstract int index(int r);
+
+	/**
+	 * Get the starting position of row r in its array.
+	 *
+	 * @param r  row index starting at 0
+	 * @return
+	 */
+	public abstract int pos(int r);
+
+	/**
+	 * Get the position of cell (r,c) in the array of row r.
+	 *
+	 * @param r  row index starting at 0
+	 * @param c  column index starting at 0
+	 * @return
+	 */
+	public int pos(int r, int c) {
+		return pos(r) + c;
+	}
+
+
+	////////////////////////
+	//cell-level access and updates
+
+	/**
+	 * Get the value of cell (r,c).
+	 *
+	 * @param r  row index starting at 0
+	 * @param c  column index starting at 0
+	 * @return
+	 */
+	public double get(int r, int c) {
+		return values(r)[pos(r, c)];
+	}
+
+	/**
+	 * Set the value of cell (r,c).
+	 *
+	 * @param r  row index starting at 0
+	 * @param c  column index starting at 0
+	 * @param v  value
+	 */
+	public void set(int r, int c, double v) {
+		values(r)[pos(r, c)] = v;
+	}
+
+	/**
+	 * Set all cells to the given value.
+	 *
+	 * @param v  value
+	 */
+	public void set(double v) {
+		set(0, numRows(), 0, numCols(), v);
+	}
+
+	/**
+	 * Set the given range of rows [rl, ru) and columns [cl, cu)
+	 * to the given value.
+	 *
+	 * @param rl  row lower index
+	 * @param ru  row upper index (exclusive)
+	 * @param cl  column lower index
+	 * @param cu  column upper index (exclusive)
+	 * @param v   value
+	 */
+	public void set(int rl, int ru, int cl, int cu, double v)
+	{
+		final int n = numCols();
+		if( cl==0 && cu==n ) { //specific case: all cols
+			for( int bix=index(rl), bl=rl; bl<ru; bix++ ) {
+				int bu = Math.min(ru, (bix+1)*blockSize());
+				Arrays.fill(valuesAt(bix), pos(bl), pos(bl)+(bu-bl)*n, v);
+				bl = bu;
+			}
+		}
+		else {
+			for( int i=rl; i<ru; i++ )
+				Arrays.fill(values(i), pos(i)+cl, pos(i)+cu, v);
+		}
+	}
+
+	/**
+	 * Copies the given dense block of equal dimensions into this block.
+	 *
+	 * @param that  dense block
+	 */
+	public void set(DenseBlock that)
+	{
+		final int n = numCols();
+		if( isContiguous() && that.isContiguous() )
+			System.arraycopy(that.valuesAt(0), 0, valuesAt(0), 0, (int)size());
+		else
+			for( int i=0; i<numRows(); i++ )
+				System.arraycopy(that.values(i), that.pos(i), values(i), pos(i), n);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getSimpleName());
+		sb.append(": rlen=");
+		sb.append(numRows());
+		sb.append(", clen=");
+		sb.append(numCols());
+		sb.append(", nblocks=");
+		sb.append(numBlocks());
+		sb.append(", blen=");
+		sb.append(blockSize());
+		sb.append("\n");
+		final int n = numCols();
+		for( int i=0; i<numRows(); i++ ) {
+			double[] a = values(i);
+			int apos = pos(i);
+			for( int j=apos; j<apos+n; j++ ) {
+				sb.append(a[j]);
+				sb.append("\t");
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+}
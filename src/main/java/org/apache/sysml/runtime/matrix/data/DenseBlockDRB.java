@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.Arrays;
+
+/**
+ * Dense row block (DRB): a single linearized double array in row-major
+ * order, limited to the max java array length of 2^31-1 cells. This is
+ * the default dense block representation.
+ *
+ */
+public class DenseBlockDRB extends DenseBlock
+{
+	private static final long serialVersionUID = 8546237533143716208L;
+
+	private double[] _data;
+	private int _rlen;
+	private int _clen;
+
+	public DenseBlockDRB(int rlen, int clen) {
+		reset(rlen, clen);
+	}
+
+	public DenseBlockDRB(double[] data, int rlen, int clen) {
+		_data = data;
+		_rlen = rlen;
+		_clen = clen;
+	}
+
+	@Override
+	public void reset() {
+		Arrays.fill(_data, 0, _rlen*_clen, 0);
+	}
+
+	@Override
+	public void reset(int rlen, int clen) {
+		int len = rlen * clen;
+		if( _data == null || _data.length < len )
+			_data = new double[len];
+		else
+			Arrays.fill(_data, 0, len, 0);
+		_rlen = rlen;
+		_clen = clen;
+	}
+
+	@Override
+	public void reshape(int rlen, int clen) {
+		//note: no reallocation, similar to direct array access
+		_rlen = rlen;
+		_clen = clen;
+	}
+
+	@Override
+	public int numRows() {
+		return _rlen;
+	}
+
+	@Override
+	public int numCols() {
+		return _clen;
+	}
+
+	@Override
+	public int numBlocks() {
+		return 1;
+	}
+
+	@Override
+	public int blockSize() {
+		return _rlen;
+	}
+
+	@Override
+	public int blockSize(int bix) {
+		return _rlen;
+	}
+
+	@Override
+	public boolean isContiguous() {
+		return true;
+	}
+
+	@Override
+	public long capacity() {
+		return (_data != null) ? _data.length : -1;
+	}
+
+	@Override
+	public double[] values(int r) {
+		return _data;
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		return _data;
+	}
+
+	@Override
+	public int index(int r) {
+		return 0;
+	}
+
+	@Override
+	public int pos(int r) {
+		return r * _clen;
+	}
+
+	@Override
+	public int pos(int r, int c) {
+		return r * _clen + c;
+	}
+
+	@Override
+	public double get(int r, int c) {
+		return _data[r * _clen + c];
+	}
+
+	@Override
+	public void set(int r, int c, double v) {
+		_data[r * _clen + c] = v;
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.Arrays;
+
+/**
+ * Large dense row block (LDRB): multiple linearized double arrays in
+ * row-major order, where each array holds blen complete rows. This
+ * representation is used for dense blocks exceeding the max java array
+ * length of 2^31-1 cells (16GB), while all rows of a block are still
+ * contiguous and hence, allow for efficient row-wise kernels.
+ *
+ */
+public class DenseBlockLDRB extends DenseBlock
+{
+	private static final long serialVersionUID = -2516387946339542432L;
+
+	//max array length, incl tolerance for jvm-specific array headers
+	public static final int MAX_ALLOC = Integer.MAX_VALUE - 1024;
+
+	private double[][] _data;
+	private int _rlen;
+	private int _clen;
+	private int _blen;
+
+	public DenseBlockLDRB(int rlen, int clen) {
+		this(rlen, clen, getDefaultBlockSize(clen));
+	}
+
+	/**
+	 * Creates a large dense block with the given number of rows per
+	 * block, which is mostly used for testing with small blocks.
+	 *
+	 * @param rlen  number of rows
+	 * @param clen  number of columns
+	 * @param blen  number of rows per block
+	 */
+	public DenseBlockLDRB(int rlen, int clen, int blen) {
+		if( clen > MAX_ALLOC || blen < 1 || (long)blen * clen > MAX_ALLOC )
+			throw new RuntimeException("Invalid large dense block configuration: "
+				+ rlen + "x" + clen + ", blen=" + blen + ".");
+		_blen = blen;
+		reset(rlen, clen);
+	}
+
+	/**
+	 * Gets the max number of rows per block for the given number of columns.
+	 *
+	 * @param clen  number of columns
+	 * @return
+	 */
+	public static int getDefaultBlockSize(int clen) {
+		return Math.max(MAX_ALLOC / Math.max(clen, 1), 1);
+	}
+
+	@Override
+	public void reset() {
+		for( int bix=0; bix<numBlocks(); bix++ )
+			Arrays.fill(_data[bix], 0, size(bix), 0);
+	}
+
+	@Override
+	public void reset(int rlen, int clen) {
+		if( isCompatible(rlen, clen) ) {
+			_rlen = rlen;
+			reset();
+		}
+		else {
+			allocate(rlen, clen);
+		}
+	}
+
+	@Override
+	public void reshape(int rlen, int clen) {
+		if( isCompatible(rlen, clen) ) {
+			_rlen = rlen;
+			return;
+		}
+		
+		//reallocate and copy the existing cells in linearized row-major
+		//order, which is consistent with the reinterpretation of DRB
+		double[][] data = _data;
+		int rlenOld = _rlen, clenOld = _clen, blenOld = _blen;
+		allocate(rlen, clen);
+		if( data == null )
+			return;
+		long len = Math.min((long)rlenOld * clenOld, (long)rlen * clen);
+		int sbix = 0, spos = 0, tbix = 0, tpos = 0;
+		for( long off = 0; off < len; ) {
+			int slen = Math.min(blenOld, rlenOld - sbix * blenOld) * clenOld;
+			int tlen = size(tbix);
+			int n = (int)Math.min(Math.min(slen - spos, tlen - tpos), len - off);
+			System.arraycopy(data[sbix], spos, _data[tbix], tpos, n);
+			spos += n; tpos += n; off += n;
+			if( spos == slen ) { sbix++; spos = 0; }
+			if( tpos == tlen ) { tbix++; tpos = 0; }
+		}
+	}
+
+	/**
+	 * Indicates if the existing allocation can hold the given
+	 * dimensions with identical row positions.
+	 *
+	 * @param rlen
+	 * @param clen
+	 * @return
+	 */
+	private boolean isCompatible(int rlen, int clen) {
+		if( _data == null || clen != _clen )
+			return false;
+		int nblocks = (int)Math.ceil((double)rlen / _blen);
+		if( nblocks > _data.length )
+			return false;
+		//last block of the new dimensions needs sufficient capacity
+		int lastlen = (rlen - (nblocks-1) * _blen) * clen;
+		return nblocks == 0 || _data[nblocks-1].length >= lastlen;
+	}
+
+	/**
+	 *
+	 * @param rlen
+	 * @param clen
+	 */
+	private void allocate(int rlen, int clen) {
+		if( (long)_blen * clen > MAX_ALLOC )
+			_blen = getDefaultBlockSize(clen);
+		_rlen = rlen;
+		_clen = clen;
+		int nblocks = (int)Math.ceil((double)rlen / _blen);
+		_data = new double[nblocks][];
+		for( int bix=0; bix<nblocks; bix++ )
+			_data[bix] = new double[size(bix)];
+	}
+
+	@Override
+	public int numRows() {
+		return _rlen;
+	}
+
+	@Override
+	public int numCols() {
+		return _clen;
+	}
+
+	@Override
+	public int numBlocks() {
+		return (int)Math.ceil((double)_rlen / _blen);
+	}
+
+	@Override
+	public int blockSize() {
+		return _blen;
+	}
+
+	@Override
+	public int blockSize(int bix) {
+		return Math.min(_blen, _rlen - bix * _blen);
+	}
+
+	@Override
+	public boolean isContiguous() {
+		return numBlocks() <= 1;
+	}
+
+	@Override
+	public long capacity() {
+		long len = 0;
+		for( int bix=0; bix<_data.length; bix++ )
+			len += _data[bix].length;
+		return len;
+	}
+
+	@Override
+	public double[] values(int r) {
+		return _data[r / _blen];
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		return _data[bix];
+	}
+
+	@Override
+	public int index(int r) {
+		return r / _blen;
+	}
+
+	@Override
+	public int pos(int r) {
+		return (r % _blen) * _clen;
+	}
+}
@@ -24,7 +24,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.sysml.lops.PartialAggregate.CorrectionLocationType;
@@ -53,6 +52,7 @@ import org.apache.sysml.runtime.matrix.operators.CMOperator;
 import org.apache.sysml.runtime.matrix.operators.CMOperator.AggregateOperationTypes;
 import org.apache.sysml.runtime.matrix.operators.Operator;
 import org.apache.sysml.runtime.matrix.operators.UnaryOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
@@ -258,7 +258,7 @@ public class LibMatrixAgg
 		//core multi-threaded unary aggregate computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<AggTask> tasks = new ArrayList<AggTask>();
 			int blklen = (int)(Math.ceil((double)m/k));
 			for( int i=0; i<k & i*blklen<m; i++ ) {
@@ -368,7 +368,7 @@ public class LibMatrixAgg
 		//core multi-threaded unary aggregate computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			int blklen = (int)(Math.ceil((double)m/k));
 			
 			//step 1: compute aggregates per row partition
@@ -466,7 +466,7 @@ public class LibMatrixAgg
 		
 		double val = -1;
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<AggTernaryTask> tasks = new ArrayList<AggTernaryTask>();
 			int blklen = (int)(Math.ceil((double)in1.rlen/k));
 			for( int i=0; i<k & i*blklen<in1.rlen; i++ )
@@ -558,7 +558,7 @@ public class LibMatrixAgg
 		//core multi-threaded grouped aggregate computation
 		//(currently: parallelization over columns to avoid additional memory requirements)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<GrpAggTask> tasks = new ArrayList<GrpAggTask>();
 			int blklen = (int)(Math.ceil((double)target.clen/k));
 			for( int i=0; i<k & i*blklen<target.clen; i++ )
@@ -608,7 +608,7 @@ public class LibMatrixAgg
 		if( (type == AggType.MAX_INDEX || type == AggType.MIN_INDEX) && ix.getColumnIndex()!=1 ) //MAXINDEX or MININDEX
 		{
 			int m = out.rlen;
-			double[] c = out.getDenseBlock();
+			double[] c = out.getDenseBlockValues();
 			for( int i=0, cix=0; i<m; i++, cix+=2 )
 				c[cix] = UtilFunctions.computeCellIndex(ix.getColumnIndex(), bclen, (int)c[cix]-1);
 		}
@@ -740,13 +740,13 @@ public class LibMatrixAgg
 		KahanObject kbuff = new KahanObject(0, 0);
 		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
 		
-		double[] a = in1.denseBlock;
-		double[] b = in2.denseBlock;
+		double[] a = in1.getDenseBlockValues();
+		double[] b = in2.getDenseBlockValues();
 		final int n = in1.clen;
 		
 		if( in3 != null ) //3 inputs
 		{
-			double[] c = in3.denseBlock;
+			double[] c = in3.getDenseBlockValues();
 			
 			for( int i=rl, ix=rl*n; i<ru; i++ ) 
 				for( int j=0; j<n; j++, ix++ ) {
@@ -873,8 +873,9 @@ public class LibMatrixAgg
 			}
 			else //DENSE target
 			{
+				double[] a = target.getDenseBlockValues();
 				for ( int i=0; i < target.getNumColumns(); i++ ) {
-					double d = target.denseBlock[ i ];
+					double d = a[ i ];
 					if( d != 0 ) //sparse-safe
 					{
 						int g = (int) groups.quickGetValue(i, 0);		
@@ -920,7 +921,7 @@ public class LibMatrixAgg
 			}
 			else //DENSE target
 			{
-				double[] a = target.denseBlock;
+				double[] a = target.getDenseBlockValues();
 				
 				for( int i=0, aix=0; i < groups.getNumRows(); i++, aix+=numCols ) 
 				{
@@ -1000,7 +1001,7 @@ public class LibMatrixAgg
 		}
 		else //DENSE target
 		{
-			double[] a = target.denseBlock;
+			double[] a = target.getDenseBlockValues();
 			
 			for( int i=0, aix=0; i < groups.getNumRows(); i++, aix+=target.clen ) 
 			{
@@ -1040,7 +1041,7 @@ public class LibMatrixAgg
 		if( groups.isInSparseFormat() || groups.isEmptyBlock(false) )
 			throw new DMLRuntimeException("Unsupported sparse input for aggregate-count on group vector.");
 		
-		double[] a = groups.denseBlock;
+		double[] a = groups.getDenseBlockValues();
 		int[] tmp = new int[numGroups];
 		int m = groups.rlen;
 		
@@ -1075,9 +1076,9 @@ public class LibMatrixAgg
 		aggVal.allocateDenseBlock(); //should always stay in dense
 		aggCorr.allocateDenseBlock(); //should always stay in dense
 		
-		double[] a = in.getDenseBlock();
-		double[] c = aggVal.getDenseBlock();
-		double[] cc = aggCorr.getDenseBlock();
+		double[] a = in.getDenseBlockValues();
+		double[] c = aggVal.getDenseBlockValues();
+		double[] cc = aggCorr.getDenseBlockValues();
 		
 		KahanObject buffer1 = new KahanObject(0, 0);
 		KahanPlus akplus = KahanPlus.getKahanPlusFnObject();
@@ -1120,8 +1121,8 @@ public class LibMatrixAgg
 		aggCorr.allocateDenseBlock(); //should always stay in dense
 		
 		SparseBlock a = in.getSparseBlock();
-		double[] c = aggVal.getDenseBlock();
-		double[] cc = aggCorr.getDenseBlock();
+		double[] c = aggVal.getDenseBlockValues();
+		double[] cc = aggCorr.getDenseBlockValues();
 		
 		KahanObject buffer1 = new KahanObject(0, 0);
 		KahanPlus akplus = KahanPlus.getKahanPlusFnObject();
@@ -1219,7 +1220,7 @@ public class LibMatrixAgg
 		final int m = in.rlen;
 		final int n = in.clen;
 		
-		double[] a = in.getDenseBlock();
+		double[] a = in.getDenseBlockValues();
 		
 		KahanObject buffer = new KahanObject(0, 0);
 		KahanPlus akplus = KahanPlus.getKahanPlusFnObject();
@@ -1256,7 +1257,7 @@ public class LibMatrixAgg
 		final int n = in.clen;
 		final int cix = (m-1)*n;
 		
-		double[] a = in.getDenseBlock();
+		double[] a = in.getDenseBlockValues();
 		
 		KahanObject buffer = new KahanObject(0, 0);
 		KahanPlus akplus = KahanPlus.getKahanPlusFnObject();
@@ -1338,7 +1339,7 @@ public class LibMatrixAgg
 		final int m = in.rlen;
 		final int n = in.clen;
 		
-		double[] a = in.getDenseBlock();
+		double[] a = in.getDenseBlockValues();
 		
 		KahanObject buffer = new KahanObject(0, 0);
 		KahanPlus akplus = KahanPlus.getKahanPlusFnObject();
@@ -1420,8 +1421,11 @@ public class LibMatrixAgg
 		final int m = in.rlen;
 		final int n = in.clen;
 		
-		double[] a = in.getDenseBlock();
-		double[] c = out.getDenseBlock();		
+		//note: the input is accessed via its dense block in order to support large
+		//dense blocks, the output is a linearized array except for cumulative aggregates
+		DenseBlock a = in.denseBlock;
+		double[] c = (out.denseBlock==null || out.denseBlock.isContiguous()) ?
+			out.getDenseBlockValues() : null;
 		
 		switch( optype )
 		{
@@ -1455,19 +1459,19 @@ public class LibMatrixAgg
 			{
 				KahanObject kbuff = new KahanObject(0, 0);
 				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
-				d_ucumkp(a, null, c, m, n, kbuff, kplus, rl, ru);
+				d_ucumkp(a, null, out.denseBlock, m, n, kbuff, kplus, rl, ru);
 				break;
 			}
 			case CUM_PROD: //CUMPROD
 			{
-				d_ucumm(a, null, c, m, n, rl, ru);
+				d_ucumm(a, null, out.denseBlock, m, n, rl, ru);
 				break;
 			}
 			case CUM_MIN:
 			case CUM_MAX:
 			{
 				double init = Double.MAX_VALUE * ((optype==AggType.CUM_MAX)?-1:1);
-				d_ucummxx(a, null, c, m, n, init, (Builtin)vFn, rl, ru);
+				d_ucummxx(a, null, out.denseBlock, m, n, init, (Builtin)vFn, rl, ru);
 				break;
 			}
 			case MIN: 
@@ -1551,7 +1555,7 @@ public class LibMatrixAgg
 		final int n = in.clen;
 		
 		SparseBlock a = in.getSparseBlock();
-		double[] c = out.getDenseBlock();
+		double[] c = out.getDenseBlockValues();
 		
 		switch( optype )
 		{
@@ -1682,8 +1686,8 @@ public class LibMatrixAgg
 		final int m = in.rlen;
 		final int n = in.clen;
 		
-		double[] a = in.getDenseBlock();
-		double[] c = out.getDenseBlock();		
+		DenseBlock a = in.denseBlock;
+		DenseBlock c = out.denseBlock;
 		
 		switch( optype )
 		{
@@ -1730,7 +1734,7 @@ public class LibMatrixAgg
 		final int n = in.clen;
 		
 		SparseBlock a = in.getSparseBlock();
-		double[] c = out.getDenseBlock();
+		double[] c = out.getDenseBlockValues();
 		
 		switch( optype )
 		{
@@ -1847,10 +1851,14 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_uakp( double[] a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru )
+	private static void d_uakp( DenseBlock a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru )
 	{
-		int len = Math.min((ru-rl)*n, a.length);
-		sum( a, rl*n, len, kbuff, kplus );		
+		//block-wise processing over contiguous row ranges
+		for( int bix=a.index(rl), bl=rl; bl<ru; bix++ ) {
+			int bu = Math.min(ru, (bix+1)*a.blockSize());
+			sum( a.valuesAt(bix), a.pos(bl), (bu-bl)*n, kbuff, kplus );
+			bl = bu;
+		}
 		c[0] = kbuff._sum;
 		c[1] = kbuff._correction;	
 	}
@@ -1865,12 +1873,12 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_uarkp( double[] a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
+	private static void d_uarkp( DenseBlock a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
-		for( int i=rl, aix=rl*n, cix=rl*2; i<ru; i++, aix+=n, cix+=2 )
+		for( int i=rl, cix=rl*2; i<ru; i++, cix+=2 )
 		{
 			kbuff.set(0, 0); //reset buffer
-			sum( a, aix, n, kbuff, kplus );
+			sum( a.values(i), a.pos(i), n, kbuff, kplus );
 			c[cix+0] = kbuff._sum;
 			c[cix+1] = kbuff._correction;		
 		}
@@ -1886,10 +1894,10 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_uackp( double[] a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
+	private static void d_uackp( DenseBlock a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
-		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
-			sumAgg( a, c, aix, 0, n, kbuff, kplus );
+		for( int i=rl; i<ru; i++ )
+			sumAgg( a.values(i), c, a.pos(i), 0, n, kbuff, kplus );
 	}
 
 	/**
@@ -1907,11 +1915,15 @@ public class LibMatrixAgg
 	 * @param rl Lower row limit.
 	 * @param ru Upper row limit.
 	 */
-	private static void d_uasqkp(double[] a, double[] c, int m, int n, KahanObject kbuff,
+	private static void d_uasqkp(DenseBlock a, double[] c, int m, int n, KahanObject kbuff,
 	                             KahanPlusSq kplusSq, int rl, int ru)
 	{
-		int len = Math.min((ru-rl)*n, a.length);
-		sumSq(a, rl*n, len, kbuff, kplusSq);
+		//block-wise processing over contiguous row ranges
+		for( int bix=a.index(rl), bl=rl; bl<ru; bix++ ) {
+			int bu = Math.min(ru, (bix+1)*a.blockSize());
+			sumSq(a.valuesAt(bix), a.pos(bl), (bu-bl)*n, kbuff, kplusSq);
+			bl = bu;
+		}
 		c[0] = kbuff._sum;
 		c[1] = kbuff._correction;
 	}
@@ -1932,12 +1944,12 @@ public class LibMatrixAgg
 	 * @param rl Lower row limit.
 	 * @param ru Upper row limit.
 	 */
-	private static void d_uarsqkp(double[] a, double[] c, int m, int n, KahanObject kbuff,
+	private static void d_uarsqkp(DenseBlock a, double[] c, int m, int n, KahanObject kbuff,
 	                              KahanPlusSq kplusSq, int rl, int ru)
 	{
-		for (int i=rl, aix=rl*n, cix=rl*2; i<ru; i++, aix+=n, cix+=2) {
+		for (int i=rl, cix=rl*2; i<ru; i++, cix+=2) {
 			kbuff.set(0, 0); //reset buffer
-			sumSq(a, aix, n, kbuff, kplusSq);
+			sumSq(a.values(i), a.pos(i), n, kbuff, kplusSq);
 			c[cix+0] = kbuff._sum;
 			c[cix+1] = kbuff._correction;
 		}
@@ -1959,11 +1971,11 @@ public class LibMatrixAgg
 	 * @param rl Lower row limit.
 	 * @param ru Upper row limit.
 	 */
-	private static void d_uacsqkp(double[] a, double[] c, int m, int n, KahanObject kbuff,
+	private static void d_uacsqkp(DenseBlock a, double[] c, int m, int n, KahanObject kbuff,
 	                              KahanPlusSq kplusSq, int rl, int ru)
 	{
-		for (int i=rl, aix=rl*n; i<ru; i++, aix+=n)
-			sumSqAgg(a, c, aix, 0, n, kbuff, kplusSq);
+		for (int i=rl; i<ru; i++)
+			sumSqAgg(a.values(i), c, a.pos(i), 0, n, kbuff, kplusSq);
 	}
 
 	/**
@@ -1976,7 +1988,7 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_ucumkp( double[] a, double[] agg, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
+	private static void d_ucumkp( DenseBlock a, double[] agg, DenseBlock c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
 		//init current row sum/correction arrays w/ neutral 0
 		double[] csums = new double[ 2*n ];
@@ -1984,9 +1996,9 @@ public class LibMatrixAgg
 			System.arraycopy(agg, 0, csums, 0, n);
 
 		//scan once and compute prefix sums
-		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
-			sumAgg( a, csums, aix, 0, n, kbuff, kplus );
-			System.arraycopy(csums, 0, c, aix, n);	
+		for( int i=rl; i<ru; i++ ) {
+			sumAgg( a.values(i), csums, a.pos(i), 0, n, kbuff, kplus );
+			System.arraycopy(csums, 0, c.values(i), c.pos(i), n);	
 		}
 	}
 	
@@ -2000,7 +2012,7 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_ucumm( double[] a, double[] agg, double[] c, int m, int n, int rl, int ru ) 
+	private static void d_ucumm( DenseBlock a, double[] agg, DenseBlock c, int m, int n, int rl, int ru ) 
 	{	
 		//init current row product array w/ neutral 1
 		double[] cprods = (agg!=null) ? agg : new double[ n ]; 
@@ -2008,9 +2020,9 @@ public class LibMatrixAgg
 			Arrays.fill(cprods, 1);
 		
 		//scan once and compute prefix products
-		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
-			productAgg( a, cprods, aix, 0, n );
-			System.arraycopy(cprods, 0, c, aix, n);
+		for( int i=rl; i<ru; i++ ) {
+			productAgg( a.values(i), cprods, a.pos(i), 0, n );
+			System.arraycopy(cprods, 0, c.values(i), c.pos(i), n);
 		}			
 	}
 	
@@ -2023,7 +2035,7 @@ public class LibMatrixAgg
 	 * @param n
 	 * @param builtin
 	 */
-	private static void d_ucummxx( double[] a, double[] agg, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
+	private static void d_ucummxx( DenseBlock a, double[] agg, DenseBlock c, int m, int n, double init, Builtin builtin, int rl, int ru )
 	{
 		//init current row min/max array w/ extreme value 
 		double[] cmxx = (agg!=null) ? agg : new double[ n ]; 
@@ -2031,9 +2043,9 @@ public class LibMatrixAgg
 			Arrays.fill(cmxx, init);
 				
 		//scan once and compute prefix min/max
-		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
-			builtinAgg( a, cmxx, aix, n, builtin );
-			System.arraycopy(cmxx, 0, c, aix, n);
+		for( int i=rl; i<ru; i++ ) {
+			builtinAgg( a.values(i), cmxx, a.pos(i), n, builtin );
+			System.arraycopy(cmxx, 0, c.values(i), c.pos(i), n);
 		}
 	}
 	/**
@@ -2046,11 +2058,11 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_uakptrace( double[] a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
+	private static void d_uakptrace( DenseBlock a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
 		//aggregate diag (via ix=n+1)
-		for( int i=rl, aix=rl*n+rl; i<ru; i++, aix+=(n+1) )
-			kplus.execute2(kbuff, a[ aix ]);			
+		for( int i=rl; i<ru; i++ )
+			kplus.execute2(kbuff, a.values(i)[ a.pos(i)+i ]);			
 		c[0] = kbuff._sum;
 		c[1] = kbuff._correction;	
 	}
@@ -2065,10 +2077,16 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_uamxx( double[] a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
+	private static void d_uamxx( DenseBlock a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
 	{
-		int len = Math.min((ru-rl)*n, a.length);
-		c[0] = builtin(a, rl*n, init, len, builtin);
+		//block-wise processing over contiguous row ranges
+		double val = init;
+		for( int bix=a.index(rl), bl=rl; bl<ru; bix++ ) {
+			int bu = Math.min(ru, (bix+1)*a.blockSize());
+			val = builtin(a.valuesAt(bix), a.pos(bl), val, (bu-bl)*n, builtin);
+			bl = bu;
+		}
+		c[0] = val;
 	}
 	
 	/**
@@ -2080,10 +2098,10 @@ public class LibMatrixAgg
 	 * @param n
 	 * @param builtin
 	 */
-	private static void d_uarmxx( double[] a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
+	private static void d_uarmxx( DenseBlock a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
 	{
-		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
-			c[i] = builtin(a, aix, init, n, builtin);
+		for( int i=rl; i<ru; i++ )
+			c[i] = builtin(a.values(i), a.pos(i), init, n, builtin);
 	}
 	
 	/**
@@ -2095,14 +2113,14 @@ public class LibMatrixAgg
 	 * @param n
 	 * @param builtin
 	 */
-	private static void d_uacmxx( double[] a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
+	private static void d_uacmxx( DenseBlock a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
 	{
 		//init output (base for incremental agg)
 		Arrays.fill(c, init);
 		
 		//execute builtin aggregate
-		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
-			builtinAgg( a, c, aix, n, builtin );
+		for( int i=rl; i<ru; i++ )
+			builtinAgg( a.values(i), c, a.pos(i), n, builtin );
 	}
 
 	/**
@@ -2115,13 +2133,15 @@ public class LibMatrixAgg
 	 * @param init
 	 * @param builtin
 	 */
-	private static void d_uarimxx( double[] a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
+	private static void d_uarimxx( DenseBlock a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
 	{
-		for( int i=rl, aix=rl*n, cix=rl*2; i<ru; i++, aix+=n, cix+=2 )
+		for( int i=rl, cix=rl*2; i<ru; i++, cix+=2 )
 		{
-			int maxindex = indexmax(a, aix, init, n, builtin);
+			double[] avals = a.values(i);
+			int aix = a.pos(i);
+			int maxindex = indexmax(avals, aix, init, n, builtin);
 			c[cix+0] = (double)maxindex + 1;
-			c[cix+1] = a[aix+maxindex]; //max value
+			c[cix+1] = avals[aix+maxindex]; //max value
 		}
 	}
 	
@@ -2135,13 +2155,15 @@ public class LibMatrixAgg
 	 * @param init
 	 * @param builtin
 	 */
-	private static void d_uarimin( double[] a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
+	private static void d_uarimin( DenseBlock a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
 	{
-		for( int i=rl, aix=rl*n, cix=rl*2; i<ru; i++, aix+=n, cix+=2 )
+		for( int i=rl, cix=rl*2; i<ru; i++, cix+=2 )
 		{
-			int minindex = indexmin(a, aix, init, n, builtin);
+			double[] avals = a.values(i);
+			int aix = a.pos(i);
+			int minindex = indexmin(avals, aix, init, n, builtin);
 			c[cix+0] = (double)minindex + 1;
-			c[cix+1] = a[aix+minindex]; //min value
+			c[cix+1] = avals[aix+minindex]; //min value
 		}
 	}
 	
@@ -2155,10 +2177,16 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_uamean( double[] a, double[] c, int m, int n, KahanObject kbuff, Mean kmean, int rl, int ru )
+	private static void d_uamean( DenseBlock a, double[] c, int m, int n, KahanObject kbuff, Mean kmean, int rl, int ru )
 	{
-		int len = Math.min((ru-rl)*n, a.length);
-		mean(a, rl*n, len, 0, kbuff, kmean);
+		//block-wise processing over contiguous row ranges
+		long len = 0;
+		for( int bix=a.index(rl), bl=rl; bl<ru; bix++ ) {
+			int bu = Math.min(ru, (bix+1)*a.blockSize());
+			mean(a.valuesAt(bix), a.pos(bl), (bu-bl)*n, len, kbuff, kmean);
+			len += (long)(bu-bl)*n;
+			bl = bu;
+		}
 		c[0] = kbuff._sum;
 		c[1] = len;
 		c[2] = kbuff._correction;
@@ -2174,12 +2202,12 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_uarmean( double[] a, double[] c, int m, int n, KahanObject kbuff, Mean kmean, int rl, int ru )
+	private static void d_uarmean( DenseBlock a, double[] c, int m, int n, KahanObject kbuff, Mean kmean, int rl, int ru )
 	{
-		for( int i=rl, aix=rl*n, cix=rl*3; i<ru; i++, aix+=n, cix+=3 )
+		for( int i=rl, cix=rl*3; i<ru; i++, cix+=3 )
 		{
 			kbuff.set(0, 0); //reset buffer
-			mean(a, aix, n, 0, kbuff, kmean);
+			mean(a.values(i), a.pos(i), n, 0, kbuff, kmean);
 			c[cix+0] = kbuff._sum;
 			c[cix+1] = n;
 			c[cix+2] = kbuff._correction;	
@@ -2195,11 +2223,11 @@ public class LibMatrixAgg
 	 * @param n
 	 * @param builtin
 	 */
-	private static void d_uacmean( double[] a, double[] c, int m, int n, KahanObject kbuff, Mean kmean, int rl, int ru )
+	private static void d_uacmean( DenseBlock a, double[] c, int m, int n, KahanObject kbuff, Mean kmean, int rl, int ru )
 	{
 		//execute builtin aggregate
-		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
-			meanAgg( a, c, aix, 0, n, kbuff, kmean );
+		for( int i=rl; i<ru; i++ )
+			meanAgg( a.values(i), c, a.pos(i), 0, n, kbuff, kmean );
 	}
 
 	/**
@@ -2217,11 +2245,15 @@ public class LibMatrixAgg
 	 * @param rl Lower row limit.
 	 * @param ru Upper row limit.
 	 */
-	private static void d_uavar(double[] a, double[] c, int m, int n, CM_COV_Object cbuff, CM cm,
+	private static void d_uavar(DenseBlock a, double[] c, int m, int n, CM_COV_Object cbuff, CM cm,
 	                            int rl, int ru) throws DMLRuntimeException
 	{
-		int len = Math.min((ru-rl)*n, a.length);
-		var(a, rl*n, len, cbuff, cm);
+		//block-wise processing over contiguous row ranges
+		for( int bix=a.index(rl), bl=rl; bl<ru; bix++ ) {
+			int bu = Math.min(ru, (bix+1)*a.blockSize());
+			var(a.valuesAt(bix), a.pos(bl), (bu-bl)*n, cbuff, cm);
+			bl = bu;
+		}
 		// store results: { var | mean, count, m2 correction, mean correction }
 		c[0] = cbuff.getRequiredResult(AggregateOperationTypes.VARIANCE);
 		c[1] = cbuff.mean._sum;
@@ -2246,13 +2278,13 @@ public class LibMatrixAgg
 	 * @param rl Lower row limit.
 	 * @param ru Upper row limit.
 	 */
-	private static void d_uarvar(double[] a, double[] c, int m, int n, CM_COV_Object cbuff, CM cm,
+	private static void d_uarvar(DenseBlock a, double[] c, int m, int n, CM_COV_Object cbuff, CM cm,
 	                             int rl, int ru) throws DMLRuntimeException
 	{
 		// calculate variance for each row
-		for (int i=rl, aix=rl*n, cix=rl*5; i<ru; i++, aix+=n, cix+=5) {
+		for (int i=rl, cix=rl*5; i<ru; i++, cix+=5) {
 			cbuff.reset(); // reset buffer for each row
-			var(a, aix, n, cbuff, cm);
+			var(a.values(i), a.pos(i), n, cbuff, cm);
 			// store row results: { var | mean, count, m2 correction, mean correction }
 			c[cix] = cbuff.getRequiredResult(AggregateOperationTypes.VARIANCE);
 			c[cix+1] = cbuff.mean._sum;
@@ -2278,12 +2310,12 @@ public class LibMatrixAgg
 	 * @param rl Lower row limit.
 	 * @param ru Upper row limit.
 	 */
-	private static void d_uacvar(double[] a, double[] c, int m, int n, CM_COV_Object cbuff, CM cm,
+	private static void d_uacvar(DenseBlock a, double[] c, int m, int n, CM_COV_Object cbuff, CM cm,
 	                             int rl, int ru) throws DMLRuntimeException
 	{
 		// calculate variance for each column incrementally
-		for (int i=rl, aix=rl*n; i<ru; i++, aix+=n)
-			varAgg(a, c, aix, 0, n, cbuff, cm);
+		for (int i=rl; i<ru; i++)
+			varAgg(a.values(i), c, a.pos(i), 0, n, cbuff, cm);
 	}
 
 	/**
@@ -2294,10 +2326,16 @@ public class LibMatrixAgg
 	 * @param m
 	 * @param n
 	 */
-	private static void d_uam( double[] a, double[] c, int m, int n, int rl, int ru )
+	private static void d_uam( DenseBlock a, double[] c, int m, int n, int rl, int ru )
 	{
-		int len = Math.min((ru-rl)*n, a.length);
-		c[0] = product( a, rl*n, len );	
+		//block-wise processing over contiguous row ranges
+		double val = 1;
+		for( int bix=a.index(rl), bl=rl; bl<ru; bix++ ) {
+			int bu = Math.min(ru, (bix+1)*a.blockSize());
+			val *= product( a.valuesAt(bix), a.pos(bl), (bu-bl)*n );
+			bl = bu;
+		}
+		c[0] = val;	
 	}
 	
 	
@@ -3259,7 +3297,7 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void mean( double[] a, int ai, final int len, int count, KahanObject kbuff, Mean mean )
+	private static void mean( double[] a, int ai, final int len, long count, KahanObject kbuff, Mean mean )
 	{
 		for( int i=0; i<len; i++, ai++, count++ )
 		{
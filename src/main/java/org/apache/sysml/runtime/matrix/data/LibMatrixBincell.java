@@ -19,7 +19,12 @@
 
 package org.apache.sysml.runtime.matrix.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.functionobjects.Divide;
@@ -37,6 +42,7 @@ import org.apache.sysml.runtime.functionobjects.Plus;
 import org.apache.sysml.runtime.functionobjects.Power2;
 import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.SortUtils;
 
@@ -63,6 +69,9 @@ public class LibMatrixBincell
 		INVALID,
 	}
 	
+	//internal configuration parameters
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
+	
 	private LibMatrixBincell() {
 		//prevent instantiation via private constructor
 	}
@@ -89,7 +98,9 @@ public class LibMatrixBincell
 		}
 		
 		//execute binary cell operations
-		if(op.sparseSafe)
+		if( isParallelBinaryScalar(m1, ret, op) )
+			parBinaryScalar(m1, ret, op);
+		else if(op.sparseSafe)
 			safeBinaryScalar(m1, ret, op);
 		else
 			unsafeBinaryScalar(m1, ret, op);
@@ -112,7 +123,9 @@ public class LibMatrixBincell
 		throws DMLRuntimeException
 	{
 		//execute binary cell operations
-		if(op.sparseSafe || isSparseSafeDivide(op, m2))
+		if( isParallelBinary(m1, m2, ret, op) )
+			parBinary(m1, m2, ret, op);
+		else if(op.sparseSafe || isSparseSafeDivide(op, m2))
 			safeBinary(m1, m2, ret, op);
 		else
 			unsafeBinary(m1, m2, ret, op);
@@ -267,23 +280,9 @@ public class LibMatrixBincell
 					SparseBlock lsblock = m1.sparseBlock;
 					SparseBlock rsblock = m2.sparseBlock;
 					
-					if( ret.sparse && lsblock.isAligned(rsblock) )
+					if( ret.sparse ) //SPARSE output (incl aligned inputs)
 					{
-						SparseBlock c = ret.sparseBlock;
-						for(int r=0; r<rlen; r++) 
-							if( !lsblock.isEmpty(r) ) {
-								int alen = lsblock.size(r);
-								int apos = lsblock.pos(r);
-								int[] aix = lsblock.indexes(r);
-								double[] avals = lsblock.values(r);
-								double[] bvals = rsblock.values(r);
-								c.allocate(r, alen);
-								for( int j=apos; j<apos+alen; j++ ) {
-									double tmp = op.fn.execute(avals[j], bvals[j]);
-									c.append(r, aix[j], tmp);
-								}
-								ret.nonZeros += c.size(r);
-							}
+						ret.nonZeros = safeBinaryMMSparseSparse(m1, m2, ret, op, 0, rlen);
 					}
 					else //general case
 					{	
@@ -336,89 +335,12 @@ public class LibMatrixBincell
 			{
 				//specific case in order to prevent binary search on sparse inputs (see quickget and quickset)
 				ret.allocateDenseBlock();
-				final int m = ret.rlen;
-				final int n = ret.clen;
-				double[] c = ret.denseBlock;
-				
-				//1) process left input: assignment
-				
-				if( m1.sparse ) //SPARSE left
-				{
-					Arrays.fill(ret.denseBlock, 0, ret.denseBlock.length, 0); 
-					
-					if( m1.sparseBlock != null )
-					{
-						SparseBlock a = m1.sparseBlock;
-						
-						for( int i=0, ix=0; i<m; i++, ix+=n ) {
-							if( !a.isEmpty(i) )
-							{
-								int apos = a.pos(i);
-								int alen = a.size(i);
-								int[] aix = a.indexes(i);
-								double[] avals = a.values(i);
-								for(int k = apos; k < apos+alen; k++) 
-									c[ix+aix[k]] = avals[k];
-							}
-						}
-					}
-				}
-				else //DENSE left
-				{
-					if( !m1.isEmptyBlock(false) ) 
-						System.arraycopy(m1.denseBlock, 0, c, 0, m*n);
-					else
-						Arrays.fill(ret.denseBlock, 0, m*n, 0); 
-				}
-				
-				//2) process right input: op.fn (+,-,*), * only if dense
-				if( m2.sparse ) //SPARSE right
-				{				
-					if(m2.sparseBlock!=null)
-					{
-						SparseBlock a = m2.sparseBlock;
-						
-						for( int i=0, ix=0; i<m; i++, ix+=n ) {
-							if( !a.isEmpty(i) ) {
-								int apos = a.pos(i);
-								int alen = a.size(i);
-								int[] aix = a.indexes(i);
-								double[] avals = a.values(i);
-								for(int k = apos; k < apos+alen; k++) 
-									c[ix+aix[k]] = op.fn.execute(c[ix+aix[k]], avals[k]);
-							}
-						}	
-					}
-				}
-				else //DENSE right
-				{
-					if( !m2.isEmptyBlock(false) )
-						for( int i=0; i<m*n; i++ )
-							c[i] = op.fn.execute(c[i], m2.denseBlock[i]);
-					else if(op.fn instanceof Multiply)
-						Arrays.fill(ret.denseBlock, 0, m*n, 0); 
-				}
-	
-				//3) recompute nnz
-				ret.recomputeNonZeros();
+				ret.nonZeros = safeBinaryMMSparseDenseDense(m1, m2, ret, op, 0, rlen);
 			}
 			else if( !ret.sparse && !m1.sparse && !m2.sparse && m1.denseBlock!=null && m2.denseBlock!=null )
 			{
 				ret.allocateDenseBlock();
-				final int m = ret.rlen;
-				final int n = ret.clen;
-				double[] c = ret.denseBlock;
-				
-				//int nnz = 0;
-				for( int i=0; i<m*n; i++ )
-				{
-					c[i] = op.fn.execute(m1.denseBlock[i], m2.denseBlock[i]);
-					//HotSpot JVM bug causes crash in presence of NaNs 
-					//nnz += (c[i]!=0)? 1 : 0;
-					if( c[i] != 0 )
-						ret.nonZeros++;
-				}
-				//result.nonZeros = nnz;
+				ret.nonZeros = binaryMMDenseDenseDense(m1, m2, ret, op, 0, rlen);
 			}
 			else //generic case
 			{
@@ -437,6 +359,224 @@ public class LibMatrixBincell
 		}
 	}
 	
+	/**
+	 * Sparse-safe matrix-matrix operation over sparse inputs and sparse output for 
+	 * the row range [rl, ru), where both inputs are non-empty and the output is 
+	 * assumed to be allocated. Only row-local writes are used, which allows for 
+	 * concurrent updates of disjoint row ranges over thread-safe sparse blocks.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryMMSparseSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		SparseBlock a = m1.sparseBlock;
+		SparseBlock b = m2.sparseBlock;
+		SparseBlock c = ret.sparseBlock;
+		boolean aligned = a.isAligned(b);
+		long nnz = 0;
+		
+		for( int i=rl; i<ru; i++ ) 
+		{
+			boolean aempty = a.isEmpty(i);
+			boolean bempty = b.isEmpty(i);
+			if( aempty && bempty )
+				continue; //both rows empty
+			
+			if( aligned && !aempty ) //ALIGNED rows
+			{
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				double[] bvals = b.values(i);
+				c.allocate(i, alen);
+				for( int j=apos; j<apos+alen; j++ ) {
+					double tmp = op.fn.execute(avals[j], bvals[j]);
+					c.append(i, aix[j], tmp);
+				}
+			}
+			else //GENERAL CASE (merge of sorted rows)
+			{
+				int apos = aempty ? 0 : a.pos(i);
+				int alen = aempty ? 0 : a.size(i);
+				int[] aix = aempty ? null : a.indexes(i);
+				double[] avals = aempty ? null : a.values(i);
+				int bpos = bempty ? 0 : b.pos(i);
+				int blen = bempty ? 0 : b.size(i);
+				int[] bix = bempty ? null : b.indexes(i);
+				double[] bvals = bempty ? null : b.values(i);
+				
+				int p1 = apos, p2 = bpos;
+				while( p1<apos+alen || p2<bpos+blen ) {
+					double v = 0;
+					int col = -1;
+					if( p2>=bpos+blen || (p1<apos+alen && aix[p1]<bix[p2]) ) {
+						v = op.fn.execute(avals[p1], 0);
+						col = aix[p1++];
+					}
+					else if( p1>=apos+alen || bix[p2]<aix[p1] ) {
+						v = op.fn.execute(0, bvals[p2]);
+						col = bix[p2++];
+					}
+					else { //equal column indexes
+						v = op.fn.execute(avals[p1], bvals[p2]);
+						col = aix[p1++]; p2++;
+					}
+					if( v != 0 )
+						c.append(i, col, v);
+				}
+			}
+			nnz += c.size(i);
+		}
+		
+		return nnz;
+	}
+	
+	/**
+	 * Sparse-safe matrix-matrix operation (+, -, and * with dense right-hand-side) 
+	 * with at least one sparse input and dense output for the row range [rl, ru), 
+	 * where the output is assumed to be allocated. This specific case prevents 
+	 * binary search on sparse inputs (see quickget and quickset).
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryMMSparseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		final int n = ret.clen;
+		DenseBlock c = ret.denseBlock;
+		
+		//1) process left input: assignment
+		
+		if( m1.sparse ) //SPARSE left
+		{
+			c.set(rl, ru, 0, n, 0); 
+			
+			if( m1.sparseBlock != null )
+			{
+				SparseBlock a = m1.sparseBlock;
+				
+				for( int i=rl; i<ru; i++ ) {
+					if( !a.isEmpty(i) )
+					{
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						double[] cvals = c.values(i);
+						int ix = c.pos(i);
+						for(int k = apos; k < apos+alen; k++) 
+							cvals[ix+aix[k]] = avals[k];
+					}
+				}
+			}
+		}
+		else //DENSE left
+		{
+			if( !m1.isEmptyBlock(false) ) {
+				DenseBlock a = m1.denseBlock;
+				for( int i=rl; i<ru; i++ )
+					System.arraycopy(a.values(i), a.pos(i), c.values(i), c.pos(i), n);
+			}
+			else
+				c.set(rl, ru, 0, n, 0); 
+		}
+		
+		//2) process right input: op.fn (+,-,*), * only if dense
+		if( m2.sparse ) //SPARSE right
+		{				
+			if(m2.sparseBlock!=null)
+			{
+				SparseBlock a = m2.sparseBlock;
+				
+				for( int i=rl; i<ru; i++ ) {
+					if( !a.isEmpty(i) ) {
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						double[] cvals = c.values(i);
+						int ix = c.pos(i);
+						for(int k = apos; k < apos+alen; k++) 
+							cvals[ix+aix[k]] = op.fn.execute(cvals[ix+aix[k]], avals[k]);
+					}
+				}	
+			}
+		}
+		else //DENSE right
+		{
+			if( !m2.isEmptyBlock(false) ) {
+				DenseBlock b = m2.denseBlock;
+				for( int i=rl; i<ru; i++ ) {
+					double[] bvals = b.values(i);
+					double[] cvals = c.values(i);
+					int bix = b.pos(i), cix = c.pos(i);
+					for( int j=0; j<n; j++ )
+						cvals[cix+j] = op.fn.execute(cvals[cix+j], bvals[bix+j]);
+				}
+			}
+			else if(op.fn instanceof Multiply)
+				c.set(rl, ru, 0, n, 0); 
+		}
+
+		//3) recompute nnz
+		return ret.recomputeNonZeros(rl, ru-1, 0, n-1);
+	}
+	
+	/**
+	 * Matrix-matrix operation over dense inputs and dense output for the row 
+	 * range [rl, ru), where the output is assumed to be allocated. Since all 
+	 * cells are computed, this kernel applies to sparse-safe and sparse-unsafe 
+	 * operations.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long binaryMMDenseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		final int n = ret.clen;
+		DenseBlock a = m1.denseBlock;
+		DenseBlock b = m2.denseBlock;
+		DenseBlock c = ret.denseBlock;
+		long nnz = 0;
+		
+		for( int i=rl; i<ru; i++ ) {
+			double[] avals = a.values(i), bvals = b.values(i), cvals = c.values(i);
+			int aix = a.pos(i), bix = b.pos(i), cix = c.pos(i);
+			for( int j=0; j<n; j++ ) {
+				cvals[cix+j] = op.fn.execute(avals[aix+j], bvals[bix+j]);
+				//HotSpot JVM bug causes crash in presence of NaNs 
+				//nnz += (c[i]!=0)? 1 : 0;
+				if( cvals[cix+j] != 0 )
+					nnz++;
+			}
+		}
+		
+		return nnz;
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -450,40 +590,66 @@ public class LibMatrixBincell
 	{
 		boolean isMultiply = (op.fn instanceof Multiply);
 		boolean skipEmpty = (isMultiply);
-		BinaryAccessType atype = getBinaryAccessType(m1, m2);
-		int rlen = m1.rlen;
-		int clen = m1.clen;
 		
 		//early abort on skip and empy
 		if( skipEmpty && (m1.isEmptyBlock(false) || m2.isEmptyBlock(false) ) )
 			return; // skip entire empty block
 		
 		ret.allocateDenseBlock();
-		double[] a = m1.denseBlock;
-		double[] b = m2.denseBlock;
-		double[] c = ret.denseBlock;
+		ret.nonZeros = binaryMVDense(m1, m2, ret, op, 0, m1.rlen);
+	}
+	
+	/**
+	 * Matrix-vector operation over dense inputs and dense output for the 
+	 * row range [rl, ru), where the output is assumed to be allocated.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long binaryMVDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		boolean isMultiply = (op.fn instanceof Multiply);
+		boolean skipEmpty = (isMultiply);
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		int clen = m1.clen;
+		
+		DenseBlock a = m1.denseBlock;
+		double[] b = m2.getDenseBlockValues(); //vector
+		DenseBlock c = ret.denseBlock;
 
 		if( atype == BinaryAccessType.MATRIX_COL_VECTOR )
 		{
-			for( int i=0, ix=0; i<rlen; i++, ix+=clen )
+			for( int i=rl; i<ru; i++ )
 			{
 				//replicate vector value
 				double v2 = (b==null) ? 0 : b[i];
 				if( skipEmpty && v2 == 0 ) //skip empty rows
 					continue;
-					
+				
+				double[] cvals = c.values(i);
+				int ix = c.pos(i);
 				if( isMultiply && v2 == 1 ) //ROW COPY
 				{
 					//a guaranteed to be non-null (see early abort)
-					System.arraycopy(a, ix, c, ix, clen);
+					System.arraycopy(a.values(i), a.pos(i), cvals, ix, clen);
 				}
 				else //GENERAL CASE
 				{
-					if( a != null )
+					if( a != null ) {
+						double[] avals = a.values(i);
+						int aix = a.pos(i);
 						for( int j=0; j<clen; j++ )
-							c[ix+j] = op.fn.execute( a[ix+j], v2 );	
+							cvals[ix+j] = op.fn.execute( avals[aix+j], v2 );	
+					}
 					else
-						Arrays.fill(c, ix, ix+clen, op.fn.execute( 0, v2 ));	
+						Arrays.fill(cvals, ix, ix+clen, op.fn.execute( 0, v2 ));	
 				}
 			}
 		}
@@ -492,26 +658,31 @@ public class LibMatrixBincell
 			if( a==null && b==null ) //both empty
 			{
 				double v = op.fn.execute( 0, 0 );
-				Arrays.fill(c, 0, rlen*clen, v);
+				c.set(rl, ru, 0, clen, v);
 			}
 			else if( a==null ) //left empty
 			{
 				//compute first row
+				double[] c0 = c.values(rl);
+				int rix = c.pos(rl);
 				for( int j=0; j<clen; j++ )
-					c[j] = op.fn.execute( 0, b[j] );
+					c0[rix+j] = op.fn.execute( 0, b[j] );
 				//copy first to all other rows
-				for( int i=1, ix=clen; i<rlen; i++, ix+=clen )
-					System.arraycopy(c, 0, c, ix, clen);
+				for( int i=rl+1; i<ru; i++ )
+					System.arraycopy(c0, rix, c.values(i), c.pos(i), clen);
 			}
 			else //default case (incl right empty) 
 			{
-				for( int i=0, ix=0; i<rlen; i++, ix+=clen )
+				for( int i=rl; i<ru; i++ ) {
+					double[] avals = a.values(i), cvals = c.values(i);
+					int aix = a.pos(i), ix = c.pos(i);
 					for( int j=0; j<clen; j++ )
-						c[ix+j] = op.fn.execute( a[ix+j], ((b!=null) ? b[j] : 0) );	
+						cvals[ix+j] = op.fn.execute( avals[aix+j], ((b!=null) ? b[j] : 0) );	
+				}
 			}
 		}
 		
-		ret.recomputeNonZeros();
+		return ret.recomputeNonZeros(rl, ru-1, 0, clen-1);
 	}
 	
 	/**
@@ -806,12 +977,12 @@ public class LibMatrixBincell
 				if(bOp.fn instanceof LessThan || bOp.fn instanceof GreaterThanEquals 
 						|| bOp.fn instanceof GreaterThan || bOp.fn instanceof LessThanEquals 
 						|| bOp.fn instanceof Equals)	{
-					Arrays.fill(mbOut.getDenseBlock(), iOffSet+iStartPos, iOffSet+iEndPos, 1.0);
+					Arrays.fill(mbOut.getDenseBlockValues(), iOffSet+iStartPos, iOffSet+iEndPos, 1.0);
 					lNNZ += (iEndPos-iStartPos);
 				}
 				else if (bOp.fn instanceof NotEquals) {
-					Arrays.fill(mbOut.getDenseBlock(), iOffSet, iOffSet+iStartPos, 1.0);
-					Arrays.fill(mbOut.getDenseBlock(), iOffSet+iEndPos, iOffSet+bv.length, 1.0);
+					Arrays.fill(mbOut.getDenseBlockValues(), iOffSet, iOffSet+iStartPos, 1.0);
+					Arrays.fill(mbOut.getDenseBlockValues(), iOffSet+iEndPos, iOffSet+bv.length, 1.0);
 					lNNZ += (iStartPos+(bv.length-iEndPos));
 				}
 			}
@@ -838,7 +1009,13 @@ public class LibMatrixBincell
 		int clen = m1.clen;
 		BinaryAccessType atype = getBinaryAccessType(m1, m2);
 		
-		if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) //MATRIX - COL_VECTOR
+		if( (atype == BinaryAccessType.MATRIX_COL_VECTOR || atype == BinaryAccessType.MATRIX_ROW_VECTOR)
+			&& !m1.sparse && !m2.sparse && !ret.sparse ) //MATRIX - VECTOR (DENSE all)
+		{
+			ret.allocateDenseBlock();
+			ret.nonZeros = binaryMVDense(m1, m2, ret, op, 0, rlen);
+		}
+		else if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) //MATRIX - COL_VECTOR
 		{
 			for(int r=0; r<rlen; r++)
 			{
@@ -887,19 +1064,12 @@ public class LibMatrixBincell
 		}
 		else // MATRIX - MATRIX
 		{
-			//dense non-empty vectors
-			if( m1.clen==1 && !m1.sparse && !m1.isEmptyBlock(false)   
+			//dense non-empty inputs (incl vectors)
+			if( !m1.sparse && !m1.isEmptyBlock(false)   
 				&& !m2.sparse && !m2.isEmptyBlock(false)  )
 			{
 				ret.allocateDenseBlock();
-				double[] a = m1.denseBlock;
-				double[] b = m2.denseBlock;
-				double[] c = ret.denseBlock;
-				for( int i=0; i<rlen; i++ ) {
-					c[i] = op.fn.execute( a[i], b[i] );
-					if( c[i] != 0 ) 
-						ret.nonZeros++;
-				}
+				ret.nonZeros = binaryMMDenseDenseDense(m1, m2, ret, op, 0, rlen);
 			}
 			//general case
 			else 
@@ -935,16 +1105,39 @@ public class LibMatrixBincell
 		if( m1.sparse != ret.sparse )
 			throw new DMLRuntimeException("Unsupported safe binary scalar operations over different input/output representation: "+m1.sparse+" "+ret.sparse);
 		
+		//allocate sparse row structure or dense block
+		if( m1.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock(true);
+		
+		ret.nonZeros = safeBinaryScalar(m1, ret, op, 0, m1.rlen);
+	}
+	
+	/**
+	 * Sparse-safe matrix-scalar operation for the row range [rl, ru), where the 
+	 * output is assumed to be allocated in the same representation as the input.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru)
+		throws DMLRuntimeException
+	{
 		boolean copyOnes = (op.fn instanceof NotEquals && op.getConstant()==0);
+		long nnz = 0;
 		
 		if( m1.sparse ) //SPARSE <- SPARSE
 		{	
-			//allocate sparse row structure
-			ret.allocateSparseRowsBlock();
 			SparseBlock a = m1.sparseBlock;
 			SparseBlock c = ret.sparseBlock;
 			
-			for(int r=0; r<Math.min(m1.rlen, a.numRows()); r++) {
+			for(int r=rl; r<Math.min(ru, a.numRows()); r++) {
 				if( !a.isEmpty(r) )
 				{
 					int apos = a.pos(r);
@@ -962,7 +1155,7 @@ public class LibMatrixBincell
 						System.arraycopy(aix, apos, crow.indexes(), 0, alen);
 						Arrays.fill(crow.values(), 0, alen, 1);
 						c.set(r, crow, false);
-						ret.nonZeros+=alen;
+						nnz += alen;
 					}
 					else //GENERAL CASE
 					{
@@ -975,29 +1168,33 @@ public class LibMatrixBincell
 						
 						for(int j=apos; j<apos+alen; j++) {
 							double val = op.executeScalar(avals[j]);
-							ret.appendValue(r, aix[j], val);
+							if( val != 0 )
+								c.append(r, aix[j], val);
 						}
+						nnz += c.size(r);
 					}
 				}
 			}
 		}
 		else //DENSE <- DENSE
 		{
-			//allocate dense block
-			ret.allocateDenseBlock(true);
-		
-			double[] a = m1.denseBlock;
-			double[] c = ret.denseBlock;
+			DenseBlock a = m1.denseBlock;
+			DenseBlock c = ret.denseBlock;
+			int n = m1.clen;
 			
-			int limit = m1.rlen*m1.clen;
-			for( int i=0; i<limit; i++ )
+			for( int i=rl; i<ru; i++ )
 			{
-				c[i] = op.executeScalar( a[i] );
-				if( c[i] != 0 )
-					ret.nonZeros++;
+				double[] avals = a.values(i), cvals = c.values(i);
+				int aix = a.pos(i), cix = c.pos(i);
+				for( int j=0; j<n; j++ ) {
+					cvals[cix+j] = op.executeScalar( avals[aix+j] );
+					if( cvals[cix+j] != 0 )
+						nnz++;
+				}
 			}
 		}
 		
+		return nnz;
 	}
 	
 	/**
@@ -1024,54 +1221,77 @@ public class LibMatrixBincell
 		if( ret.sparse )
 			throw new DMLRuntimeException("Unsupported unsafe binary scalar operations over sparse output representation.");
 		
+		//allocate dense block (if necessary), incl clear nnz
+		ret.allocateDenseBlock(true);
+		
+		ret.nonZeros = unsafeBinaryScalar(m1, ret, op, 0, m1.rlen);
+	}
+	
+	/**
+	 * Sparse-unsafe matrix-scalar operation for the row range [rl, ru), where 
+	 * the output is assumed to be allocated in dense representation.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long unsafeBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		int n = m1.clen;
+		DenseBlock c = ret.denseBlock;
+		long nnz = 0;
+		
 		if( m1.sparse ) //SPARSE MATRIX
 		{
-			ret.allocateDenseBlock();
-			
 			SparseBlock a = m1.sparseBlock;
-			double[] c = ret.denseBlock;			
-			int m = m1.rlen;
-			int n = m1.clen;
 			
 			//init dense result with unsafe 0-value
 			double cval0 = op.executeScalar(0);
-			Arrays.fill(c, cval0);
+			c.set(rl, ru, 0, n, cval0);
 			
 			//compute non-zero input values
-			for(int i=0, cix=0; i<m; i++, cix+=n) 
+			for(int i=rl; i<ru; i++) 
 			{
 				if( !a.isEmpty(i) ) {
 					int apos = a.pos(i);
 					int alen = a.size(i);
 					int[] aix = a.indexes(i);
 					double[] avals = a.values(i);
+					double[] cvals = c.values(i);
+					int cix = c.pos(i);
 					for(int j=apos; j<apos+alen; j++) {
 						double val = op.executeScalar(avals[j]);
-						c[ cix+aix[j] ] = val;
+						cvals[ cix+aix[j] ] = val;
 					}
 				}
 			}
 		
 			//recompute non zeros 
-			ret.recomputeNonZeros();
+			nnz = ret.recomputeNonZeros(rl, ru-1, 0, n-1);
 		}
 		else //DENSE MATRIX
 		{
-			//allocate dense block (if necessary), incl clear nnz
-			ret.allocateDenseBlock(true);
-			
-			double[] a = m1.denseBlock;
-			double[] c = ret.denseBlock;
+			DenseBlock a = m1.denseBlock;
 			
 			//compute scalar operation, incl nnz maintenance
-			int limit = m1.rlen*m1.clen;
-			for( int i=0; i<limit; i++ )
+			for( int i=rl; i<ru; i++ )
 			{
-				c[i] = op.executeScalar( a[i] );
-				if( c[i] != 0 )
-					ret.nonZeros++;
+				double[] avals = a.values(i), cvals = c.values(i);
+				int aix = a.pos(i), cix = c.pos(i);
+				for( int j=0; j<n; j++ ) {
+					cvals[cix+j] = op.executeScalar( avals[aix+j] );
+					if( cvals[cix+j] != 0 )
+						nnz++;
+				}
 			}
 		}
+		
+		return nnz;
 	}
 
 	/**
@@ -1338,5 +1558,255 @@ public class LibMatrixBincell
 		}
 	}
 	
+	//////////////////////////////////////////////////////
+	// private multi-threaded implementations
+	///////////////////////////////////
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @return
+	 */
+	private static boolean isParallelBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op)
+	{
+		//check degree of parallelism and minimum size
+		int k = op.getNumThreads();
+		if( k <= 1 || m1.rlen <= k || (long)m1.rlen*m1.clen < PAR_NUMCELL_THRESHOLD 
+			|| m1.isEmptyBlock(false) )
+			return false;
+		
+		//check supported input/output representations (sparse output 
+		//requires a sparse block with thread-safe updates of disjoint rows)
+		if( op.sparseSafe )
+			return (m1.sparse == ret.sparse) && (!ret.sparse 
+				|| ret.sparseBlock==null || ret.sparseBlock.isThreadSafe());
+		else
+			return !ret.sparse;
+	}
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @throws DMLRuntimeException
+	 */
+	private static void parBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op) 
+		throws DMLRuntimeException
+	{
+		//allocate output (see single-threaded operations)
+		if( op.sparseSafe && ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock(true);
+		
+		//core multi-threaded scalar operation
+		//(currently: always parallelization over number of rows)
+		try {
+			int k = op.getNumThreads();
+			int m = m1.rlen;
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<BincellScalarTask> tasks = new ArrayList<BincellScalarTask>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add(new BincellScalarTask(m1, ret, op, i*blklen, Math.min((i+1)*blklen, m)));
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : taskret )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @return
+	 */
+	private static boolean isParallelBinary(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op)
+	{
+		//check degree of parallelism and minimum size
+		int k = op.getNumThreads();
+		if( k <= 1 || m1.rlen <= k || (long)m1.rlen*m1.clen < PAR_NUMCELL_THRESHOLD 
+			|| m1.isEmptyBlock(false) || m2.isEmptyBlock(false) )
+			return false;
+		
+		return getParBinaryKernel(m1, m2, ret, op) != null;
+	}
+	
+	/**
+	 * Obtains the row-range kernel for multi-threaded matrix-matrix and matrix-vector
+	 * operations over non-empty inputs, or null if the combination of access type, 
+	 * input/output representations, and operation is not supported.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @return
+	 */
+	private static BinaryKernel getParBinaryKernel(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op)
+	{
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		boolean safe = op.sparseSafe || isSparseSafeDivide(op, m2);
+		
+		if(    atype == BinaryAccessType.MATRIX_COL_VECTOR 
+			|| atype == BinaryAccessType.MATRIX_ROW_VECTOR ) 
+		{
+			if( !m1.sparse && !m2.sparse && !ret.sparse )
+				return BinaryKernel.MV_DENSE;
+		}
+		else if( atype == BinaryAccessType.MATRIX_MATRIX )
+		{
+			if( !m1.sparse && !m2.sparse && !ret.sparse )
+				return BinaryKernel.MM_DENSE_DENSE_DENSE;
+			else if( safe && m1.sparse && m2.sparse && ret.sparse 
+				&& (ret.sparseBlock==null || ret.sparseBlock.isThreadSafe()) )
+				return BinaryKernel.MM_SPARSE_SPARSE;
+			else if( safe && !ret.sparse && (m1.sparse || m2.sparse) 
+				&& (op.fn instanceof Plus || op.fn instanceof Minus 
+				|| (op.fn instanceof Multiply && !m2.sparse)) )
+				return BinaryKernel.MM_SPARSE_DENSE_DENSE;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @throws DMLRuntimeException
+	 */
+	private static void parBinary(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) 
+		throws DMLRuntimeException
+	{
+		BinaryKernel kernel = getParBinaryKernel(m1, m2, ret, op);
+		
+		//allocate output (see single-threaded operations)
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		//core multi-threaded binary operation
+		//(currently: always parallelization over number of rows)
+		try {
+			int k = op.getNumThreads();
+			int m = m1.rlen;
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<BincellTask> tasks = new ArrayList<BincellTask>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add(new BincellTask(m1, m2, ret, op, kernel, i*blklen, Math.min((i+1)*blklen, m)));
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : taskret )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/////////////////////////////////////////////////////////
+	// Task Implementations for Multi-Threaded Operations  //
+	/////////////////////////////////////////////////////////
+	
+	private enum BinaryKernel {
+		MM_DENSE_DENSE_DENSE,
+		MM_SPARSE_SPARSE,
+		MM_SPARSE_DENSE_DENSE,
+		MV_DENSE,
+	}
+	
+	/**
+	 * 
+	 */
+	private static class BincellTask implements Callable<Long> 
+	{
+		private MatrixBlock _m1 = null;
+		private MatrixBlock _m2 = null;
+		private MatrixBlock _ret = null;
+		private BinaryOperator _op = null;
+		private BinaryKernel _kernel = null;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected BincellTask( MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, BinaryKernel kernel, int rl, int ru ) {
+			_m1 = m1;
+			_m2 = m2;
+			_ret = ret;
+			_op = op;
+			_kernel = kernel;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException
+		{
+			//execute binary operation on row partition
+			//(all kernels return the nnz of the row partition)
+			switch( _kernel ) {
+				case MM_DENSE_DENSE_DENSE:
+					return binaryMMDenseDenseDense(_m1, _m2, _ret, _op, _rl, _ru);
+				case MM_SPARSE_SPARSE:
+					return safeBinaryMMSparseSparse(_m1, _m2, _ret, _op, _rl, _ru);
+				case MM_SPARSE_DENSE_DENSE:
+					return safeBinaryMMSparseDenseDense(_m1, _m2, _ret, _op, _rl, _ru);
+				case MV_DENSE:
+					return binaryMVDense(_m1, _m2, _ret, _op, _rl, _ru);
+				default:
+					throw new DMLRuntimeException("Unsupported binary kernel: "+_kernel);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class BincellScalarTask implements Callable<Long> 
+	{
+		private MatrixBlock _m1 = null;
+		private MatrixBlock _ret = null;
+		private ScalarOperator _op = null;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected BincellScalarTask( MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru ) {
+			_m1 = m1;
+			_ret = ret;
+			_op = op;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException
+		{
+			//execute scalar operation on row partition
+			if( _op.sparseSafe )
+				return safeBinaryScalar(_m1, _ret, _op, _rl, _ru);
+			else
+				return unsafeBinaryScalar(_m1, _ret, _op, _rl, _ru);
+		}
+	}
 }
-
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.functionobjects.CTable;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+import org.apache.sysml.runtime.util.DataConverter;
+
+/**
+ * Library for local (single- and multi-threaded) ctable operations, i.e., 
+ * F = ctable(A, B|b, W|w), over all combinations of matrix and scalar inputs. 
+ * 
+ * The computation is partitioned into row ranges of the inputs, where each task
+ * aggregates into a thread-local result which are merged at the end. Outputs of 
+ * known and small dimensions are aggregated into dense blocks, all other outputs 
+ * into open-addressing hash maps (see CTableMap) without objects per cell.
+ */
+public class LibMatrixCTable 
+{
+	public static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
+	public static final long PAR_INTERMEDIATE_SIZE_THRESHOLD = 16*1024*1024; //Max 16MB
+	
+	private LibMatrixCTable() {
+		//prevent instantiation via private constructor
+	}
+	
+	/**
+	 * Computes ctable(in1, in2|cst2, in3|cst3), where matrix inputs of null
+	 * indicate scalar inputs. Output dimensions of -1 indicate unknown dimensions,
+	 * in which case the output dimensions are given by the max row/column index.
+	 * 
+	 * @param in1
+	 * @param in2
+	 * @param cst2
+	 * @param in3
+	 * @param cst3
+	 * @param ignoreZeros
+	 * @param dim1
+	 * @param dim2
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock ctable(MatrixBlock in1, MatrixBlock in2, double cst2, MatrixBlock in3, double cst3, 
+			boolean ignoreZeros, long dim1, long dim2, int k) 
+		throws DMLRuntimeException
+	{
+		//decompress compressed inputs (ctable reads raw blocks)
+		in1 = CompressedMatrixBlock.getUncompressed(in1);
+		in2 = (in2 != null) ? CompressedMatrixBlock.getUncompressed(in2) : null;
+		in3 = (in3 != null) ? CompressedMatrixBlock.getUncompressed(in3) : null;
+		
+		//ignore zeros only applies to ctable(A,B,w)
+		ignoreZeros &= (in2 != null && in3 == null);
+		
+		//only aggregate into dense result if dims known; it is important not to aggregate on sparse 
+		//result blocks because it would implicitly turn the O(N) algorithm into O(N log N). 
+		final int m = in1.rlen;
+		final long ncells = (long)in1.rlen * in1.clen;
+		boolean dimsKnown = (dim1 != -1 && dim2 != -1);
+		boolean dense = dimsKnown && !MatrixBlock.evalSparseFormatInMemory(dim1, dim2, ncells);
+		
+		//determine degree of parallelism, incl dense partial results only if small
+		int k2 = (k <= 1 || ncells < PAR_NUMCELL_THRESHOLD) ? 1 : Math.min(k, m);
+		if( dense && k2 > 1 && (dim1*dim2*k2 > ncells || dim1*dim2*8*k2 > PAR_INTERMEDIATE_SIZE_THRESHOLD) )
+			dense = false; //hash aggregation w/ subsequent conversion
+		
+		//allocate dense output (if required)
+		MatrixBlock out = null;
+		if( dense ) {
+			out = new MatrixBlock((int)dim1, (int)dim2, false);
+			out.allocateDenseBlock();
+		}
+		
+		//core ctable computation
+		CTableMap map = null;
+		if( k2 <= 1 ) { //SINGLE-THREADED
+			if( !dense )
+				map = new CTableMap();
+			ctableRows(in1, in2, cst2, in3, cst3, ignoreZeros, map, 
+				dense ? out.getDenseBlock() : null, 0, m);
+		}
+		else { //MULTI-THREADED
+			try {
+				ExecutorService pool = CommonThreadPool.get( k2 );
+				ArrayList<CTableTask> tasks = new ArrayList<CTableTask>();
+				int blklen = (int)(Math.ceil((double)m/k2));
+				for( int i=0; i<k2 & i*blklen<m; i++ ) {
+					//first task directly aggregates into dense output
+					DenseBlock c = !dense ? null : (i==0) ? out.getDenseBlock() :
+						DenseBlockFactory.createDenseBlock((int)dim1, (int)dim2);
+					tasks.add(new CTableTask(in1, in2, cst2, in3, cst3, ignoreZeros, 
+						c, i*blklen, Math.min((i+1)*blklen, m)));
+				}
+				//execute tasks and check for errors
+				List<Future<Object>> taskret = pool.invokeAll(tasks);
+				pool.shutdown();
+				for( Future<Object> task : taskret )
+					task.get();
+				
+				//merge partial results
+				if( dense ) {
+					DenseBlock c = out.getDenseBlock();
+					for( int i=1; i<tasks.size(); i++ )
+						addDenseBlock(c, tasks.get(i).getDenseResult());
+				}
+				else {
+					map = tasks.get(0).getMapResult();
+					for( int i=1; i<tasks.size(); i++ )
+						map.merge(tasks.get(i).getMapResult());
+				}
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+		
+		//convert hash aggregation result, where we need to respect potentially 
+		//specified output dimensions, because we might have decided for hash 
+		//aggregation just to prevent inefficiency in case of sparse outputs.  
+		if( !dense ) {
+			out = dimsKnown ? 
+				DataConverter.convertToMatrixBlock(map, (int)dim1, (int)dim2) :
+				DataConverter.convertToMatrixBlock(map);
+		}
+		else {
+			out.recomputeNonZeros();
+			out.examSparsity();
+		}
+		
+		return out;
+	}
+	
+	/**
+	 * 
+	 * @param in1
+	 * @param in2
+	 * @param cst2
+	 * @param in3
+	 * @param cst3
+	 * @param ignoreZeros
+	 * @param map
+	 * @param c
+	 * @param rl
+	 * @param ru
+	 * @throws DMLRuntimeException
+	 */
+	private static void ctableRows(MatrixBlock in1, MatrixBlock in2, double cst2, MatrixBlock in3, double cst3, 
+			boolean ignoreZeros, CTableMap map, DenseBlock c, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		CTable ctable = CTable.getCTableFnObject();
+		
+		if( ignoreZeros //SPARSE-SAFE & SPARSE INPUTS
+			&& in1.sparse && in2.sparse )
+		{
+			//note: only used if both inputs have aligned zeros, which
+			//allows us to infer that the nnz both inputs are equivalent
+			SparseBlock a = in1.sparseBlock;
+			SparseBlock b = in2.sparseBlock;
+			if( a == null || b == null )
+				return;
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) )
+					continue;
+				int alen = a.size(i);
+				int apos = a.pos(i);
+				double[] avals = a.values(i);
+				int bpos = b.pos(i);
+				double[] bvals = b.values(i); 
+				for( int j=0; j<alen; j++ ) {
+					if( c == null )
+						ctable.execute(avals[apos+j], bvals[bpos+j], cst3, ignoreZeros, map);
+					else
+						ctable.execute(avals[apos+j], bvals[bpos+j], cst3, ignoreZeros, c);
+				}
+			}
+		}
+		else //SPARSE-UNSAFE | GENERIC INPUTS
+		{
+			//sparse-unsafe ctable execution
+			//(because input values of 0 are invalid and have to result in errors) 
+			int n = in1.clen;
+			for( int i=rl; i<ru; i++ )
+				for( int j=0; j<n; j++ ) {
+					double v1 = in1.quickGetValue(i, j);
+					double v2 = (in2 != null) ? in2.quickGetValue(i, j) : cst2;
+					double w = (in3 != null) ? in3.quickGetValue(i, j) : cst3;
+					if( c == null )
+						ctable.execute(v1, v2, w, ignoreZeros, map);
+					else
+						ctable.execute(v1, v2, w, ignoreZeros, c);
+				}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param c
+	 * @param partial
+	 */
+	private static void addDenseBlock(DenseBlock c, DenseBlock partial) {
+		int m = c.numRows();
+		int n = c.numCols();
+		for( int i=0; i<m; i++ ) {
+			double[] cvals = c.values(i);
+			double[] pvals = partial.values(i);
+			int cix = c.pos(i);
+			int pix = partial.pos(i);
+			for( int j=0; j<n; j++ )
+				cvals[cix+j] += pvals[pix+j];
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class CTableTask implements Callable<Object>
+	{
+		private final MatrixBlock _in1;
+		private final MatrixBlock _in2;
+		private final double _cst2;
+		private final MatrixBlock _in3;
+		private final double _cst3;
+		private final boolean _ignoreZeros;
+		private final int _rl;
+		private final int _ru;
+		
+		//thread-local partial results
+		private final DenseBlock _c;
+		private final CTableMap _map;
+		
+		protected CTableTask(MatrixBlock in1, MatrixBlock in2, double cst2, MatrixBlock in3, double cst3, 
+				boolean ignoreZeros, DenseBlock c, int rl, int ru)
+		{
+			_in1 = in1;
+			_in2 = in2;
+			_cst2 = cst2;
+			_in3 = in3;
+			_cst3 = cst3;
+			_ignoreZeros = ignoreZeros;
+			_rl = rl;
+			_ru = ru;
+			_c = c;
+			_map = (c == null) ? new CTableMap() : null;
+		}
+		
+		@Override
+		public Object call() throws DMLRuntimeException
+		{
+			ctableRows(_in1, _in2, _cst2, _in3, _cst3, _ignoreZeros, _map, _c, _rl, _ru);
+			return null;
+		}
+		
+		public DenseBlock getDenseResult() {
+			return _c;
+		}
+		
+		public CTableMap getMapResult() {
+			return _map;
+		}
+	}
+}
@@ -20,14 +20,17 @@ package org.apache.sysml.runtime.matrix.data;
 
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.ConvolutionUtils;
 
 public class LibMatrixDNN {
@@ -56,7 +59,8 @@ public class LibMatrixDNN {
 	}
 	
 	enum TaskType {
-		ReshapeCol, Rotate180, Im2Col, Col2Im, MaxPooling_Forward, MaxPooling_Backward
+		ReshapeCol, Rotate180, Im2Col, Col2Im, MaxPooling_Forward, MaxPooling_Backward,
+		Conv2d, Conv2dBackwardFilter, Conv2dBackwardData
 	}
 	public static final int TASK_SIZE = 64; // to take care of extremely small tasks
 	
@@ -150,70 +154,9 @@ public class LibMatrixDNN {
 			throw new DMLRuntimeException("Incorrect dout dimensions in maxpooling_backward:" + input.getNumRows() + " " + input.getNumColumns() + " " + params.N + " " + params.K*params.P*params.Q);
 		}
 
-		int constrainedNumThreads = OptimizerUtils.getConstrainedNumThreads(params.numThreads);
-		if(!ALLOW_MULTI_THREADED_OPS || constrainedNumThreads <= 1) {
-			for (int n = 0; n < params.N; n++) {
-				for (int c = 0; c < params.C; c++) {
-					doPoolingBackward(n, c, params);
-				}
-			}
-		}
-		else {
-			runParallelConvTask(constrainedNumThreads, params.C, TaskType.MaxPooling_Backward, params);
-		}
+		runFusedConvTask(TaskType.MaxPooling_Backward, params, null, null);
 	}
 	
-	private static void doPoolingBackward(int n, int c, ConvolutionParameters params) {
-		double [] inputArray = null;
-		if (!params.input1.isInSparseFormat())
-			inputArray = params.input1.getDenseBlock();
-		double [] doutArray = null;
-		if (!params.input2.isInSparseFormat())
-			doutArray = params.input2.getDenseBlock();
-		double [] outputArray = null;
-		if (!params.output.isInSparseFormat())
-			outputArray = params.output.getDenseBlock();
-		
-		for (int p = 0; p < params.P; p++) {
-			for (int q = 0; q < params.Q; q++) {
-				int start_index_h = p * params.stride_h - params.pad_h;
-				int start_index_w = q * params.stride_w - params.pad_w;
-				int end_index_h = Math.min(start_index_h + params.R, params.H);
-				int end_index_w = Math.min(start_index_w + params.S, params.W);
-				start_index_h = Math.max(start_index_h, 0);
-				start_index_w = Math.max(start_index_w, 0);
-				int maxIndex = n*params.C*params.H*params.W + c*params.H*params.W +  start_index_h*params.W + start_index_w; 
-				double maxVal = -Double.MAX_VALUE; 
-
-
-				double currDoutVal = -1;
-				for (int h = start_index_h; h < end_index_h; h++) {
-					for (int w = start_index_w; w < end_index_w; w++) {
-						if(inputArray != null)
-							currDoutVal = inputArray[n*params.C*params.H*params.W + c*params.H*params.W +  h*params.W + w];
-						else
-							currDoutVal = params.input1.quickGetValue(n, c*params.H*params.W + h*params.W + w);
-
-						if(maxVal < currDoutVal) {
-							maxIndex = n*params.C*params.H*params.W + c*params.H*params.W +  h*params.W + w;
-							maxVal = currDoutVal;
-						}
-					}
-				}
-
-				double inVal = -1;
-				if(doutArray != null)
-					inVal = doutArray[n*params.C*params.P*params.Q + c*params.P*params.Q +  p * params.Q + q];
-				else
-					inVal = params.input2.quickGetValue(n, c*params.P*params.Q +  p * params.Q + q);
-
-				// synchronized(this) {
-					outputArray[maxIndex] += inVal;
-				// }
-			}
-		}
-	}
-
 	public static void maxpooling(MatrixBlock input, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
 		params.input1 = input;
 		params.output = outputBlock;
@@ -222,57 +165,68 @@ public class LibMatrixDNN {
 			throw new DMLRuntimeException("Incorrect input dimensions in maxpooling:" + input.getNumRows() + " " + input.getNumColumns() + " " + params.N + " " + params.K*params.P*params.Q);
 		}
 		
-		params.outputNNZ.set(0);
+		runFusedConvTask(TaskType.MaxPooling_Forward, params, null, null);
+	}
+
+	// Fused conv2d of images (N, C*H*W) and filter (K, C*R*S) into output (N, K*P*Q), computed
+	// per image over thread-local buffers (instead of im2col, matrix multiply, and reshape_col)
+	public static void conv2d(MatrixBlock input, MatrixBlock filter, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
+		params.input1 = input;
+		params.input2 = filter;
+		params.output = outputBlock;
 		
-		int constrainedNumThreads = OptimizerUtils.getConstrainedNumThreads(params.numThreads);
-		if(!ALLOW_MULTI_THREADED_OPS || constrainedNumThreads <= 1) {
-			for (int n = 0; n < params.N; n++) {
-				for (int c = 0; c < params.C; c++) {
-					doPooling(n, c, params);
-				}
-			}
+		if(input.getNumRows() != params.N || input.getNumColumns() != params.C*params.H*params.W) {
+			throw new DMLRuntimeException("Incorrect input dimensions in conv2d:" + input.getNumRows() + " " + input.getNumColumns() + " " + params.N + " " + params.C*params.H*params.W);
 		}
-		else {
-			runParallelConvTask(constrainedNumThreads, params.C, TaskType.MaxPooling_Forward, params);
-		}	
+		if(filter.getNumRows() != params.K || filter.getNumColumns() != params.C*params.R*params.S) {
+			throw new DMLRuntimeException("Incorrect filter dimensions in conv2d:" + filter.getNumRows() + " " + filter.getNumColumns() + " " + params.K + " " + params.C*params.R*params.S);
+		}
+		
+		// dense filter (K, CRS) for dense inputs, and its transpose (CRS, K) for sparse inputs
+		int CRS = params.C*params.R*params.S;
+		double [] filterArray = getDenseValues(filter, params.K, CRS);
+		double [] filterTArray = input.isInSparseFormat() ? transpose(filterArray, params.K, CRS) : null;
+		runFusedConvTask(TaskType.Conv2d, params, filterArray, filterTArray);
 	}
-
-	private static void doPooling(int n, int c, ConvolutionParameters params) {
-		double [] inputArray = null;
-		if (!params.input1.isInSparseFormat())
-			inputArray = params.input1.getDenseBlock();
-		double [] outputArray = null;
-		if (!params.output.isInSparseFormat())
-			outputArray = params.output.getDenseBlock();
+	
+	// Fused conv2d_backward_filter of images (N, C*H*W) and dout (N, K*P*Q) into output (K, C*R*S)
+	// (instead of im2col, rotate180, matrix multiply, and transpose)
+	public static void conv2d_backward_filter(MatrixBlock input, MatrixBlock dout, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
+		params.input1 = input;
+		params.input2 = dout;
+		params.output = outputBlock;
 		
-		long tmpNNZ = 0;
-		for (int p = 0; p < params.P; p++) {
-			for (int q = 0; q < params.Q; q++) {
-				int start_index_h = p * params.stride_h - params.pad_h;
-				int start_index_w = q * params.stride_w - params.pad_w;
-				int end_index_h = Math.min(start_index_h + params.R, params.H);
-				int end_index_w = Math.min(start_index_w + params.S, params.W);
-				start_index_h = Math.max(start_index_h, 0);
-				start_index_w = Math.max(start_index_w, 0);
-				int out_index = n*params.C*params.P*params.Q + c*params.P*params.Q +  p * params.Q + q;
-				outputArray[out_index] = -Double.MAX_VALUE;
-				for (int h = start_index_h; h < end_index_h; h++) {
-					for (int w = start_index_w; w < end_index_w; w++) {
-						double inVal = -1;
-						if(inputArray != null)
-							inVal = inputArray[n*params.C*params.H*params.W + c*params.H*params.W +  h*params.W + w];
-						else
-							inVal = params.input1.quickGetValue(n, c*params.H*params.W +  h*params.W + w);
-						outputArray[out_index] = Math.max(outputArray[out_index], inVal);
-						if(outputArray[out_index] != 0)
-							tmpNNZ++;
-					}
-				}
-			}
+		if(input.getNumRows() != params.N || input.getNumColumns() != params.C*params.H*params.W) {
+			throw new DMLRuntimeException("Incorrect input dimensions in conv2d_backward_filter:" + input.getNumRows() + " " + input.getNumColumns() + " " + params.N + " " + params.C*params.H*params.W);
 		}
-		params.outputNNZ.addAndGet(tmpNNZ);
+		if(dout.getNumRows() != params.N || dout.getNumColumns() != params.K*params.P*params.Q) {
+			throw new DMLRuntimeException("Incorrect dout dimensions in conv2d_backward_filter:" + dout.getNumRows() + " " + dout.getNumColumns() + " " + params.N + " " + params.K*params.P*params.Q);
+		}
+		
+		runFusedConvTask(TaskType.Conv2dBackwardFilter, params, null, null);
 	}
+	
+	// Fused conv2d_backward_data of filter (K, C*R*S) and dout (N, K*P*Q) into output (N, C*H*W)
+	// (instead of rotate180, matrix multiply, transpose, and col2im)
+	public static void conv2d_backward_data(MatrixBlock filter, MatrixBlock dout, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
+		params.input1 = filter;
+		params.input2 = dout;
+		params.output = outputBlock;
 		
+		if(filter.getNumRows() != params.K || filter.getNumColumns() != params.C*params.R*params.S) {
+			throw new DMLRuntimeException("Incorrect filter dimensions in conv2d_backward_data:" + filter.getNumRows() + " " + filter.getNumColumns() + " " + params.K + " " + params.C*params.R*params.S);
+		}
+		if(dout.getNumRows() != params.N || dout.getNumColumns() != params.K*params.P*params.Q) {
+			throw new DMLRuntimeException("Incorrect dout dimensions in conv2d_backward_data:" + dout.getNumRows() + " " + dout.getNumColumns() + " " + params.N + " " + params.K*params.P*params.Q);
+		}
+		
+		// dense filter (K, CRS) for sparse dout, and its transpose (CRS, K) for dense dout
+		int CRS = params.C*params.R*params.S;
+		double [] filterArray = getDenseValues(filter, params.K, CRS);
+		double [] filterTArray = !dout.isInSparseFormat() ? transpose(filterArray, params.K, CRS) : null;
+		runFusedConvTask(TaskType.Conv2dBackwardData, params, filterArray, filterTArray);
+	}
+	
 	// Reshape a 4D tensor of dimension (N, K, P, Q) to matrix of dimension (K, NPQ)
 	public static void rotate180(MatrixBlock input, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
 		params.input1 = input;
@@ -296,10 +250,10 @@ public class LibMatrixDNN {
 	private static void doRotate180(int n, ConvolutionParameters params) {
 		double [] inputArray = null;
 		if (!params.input1.isInSparseFormat())
-			inputArray = params.input1.getDenseBlock();
+			inputArray = params.input1.getDenseBlockValues();
 		double [] outputArray = null;
 		if (!params.output.isInSparseFormat())
-			outputArray = params.output.getDenseBlock();
+			outputArray = params.output.getDenseBlockValues();
 		
 		for (int k = 0; k < params.K; k++) {
 			for (int p = 0; p < params.P; p++) {
@@ -346,7 +300,7 @@ public class LibMatrixDNN {
 			}
 		}
 
-		ExecutorService pool = Executors.newFixedThreadPool( Math.min(constrainedNumThreads, tasks.size()) );
+		ExecutorService pool = CommonThreadPool.get( Math.min(constrainedNumThreads, tasks.size()) );
 		try {
 			pool.invokeAll(tasks);
 		} catch (InterruptedException e) {
@@ -395,20 +349,6 @@ public class LibMatrixDNN {
 						}
 					}
 					break;
-				case MaxPooling_Forward:
-					for (int n = n1; n < n2; n++) {
-						for (int z = z1; z < z2; z++) {
-							LibMatrixDNN.doPooling(n, z, params);
-						}
-					}
-					break;
-				case MaxPooling_Backward:
-					for (int n = n1; n < n2; n++) {
-						for (int z = z1; z < z2; z++) {
-							LibMatrixDNN.doPoolingBackward(n, z, params);
-						}
-					}
-					break;
 				default:
 					throw new RuntimeException("Unsupported ConvTask:" + type.name());
 			}
@@ -419,10 +359,10 @@ public class LibMatrixDNN {
 	private static void doReshapeCol(int n, ConvolutionParameters params) {
 		double [] inputArray = null;
 		if (!params.input1.isInSparseFormat())
-			inputArray = params.input1.getDenseBlock();
+			inputArray = params.input1.getDenseBlockValues();
 		double [] outputArray = null;
 		if (!params.output.isInSparseFormat())
-			outputArray = params.output.getDenseBlock();
+			outputArray = params.output.getDenseBlockValues();
 		
 		if(inputArray != null) {
 			for (int k = 0; k < params.K; k++)  {
@@ -483,10 +423,10 @@ public class LibMatrixDNN {
 	private static void doCol2imOverInputPath_NCHW(int n, int c, ConvolutionParameters params) {
 		double [] inputArray = null;
 		if (!params.input1.isInSparseFormat())
-			inputArray = params.input1.getDenseBlock();
+			inputArray = params.input1.getDenseBlockValues();
 		double [] outputArray = null;
 		if (!params.output.isInSparseFormat())
-			outputArray = params.output.getDenseBlock();
+			outputArray = params.output.getDenseBlockValues();
 		
 		for (int r = 0; r < params.R; r++) { // Get an input patch of size R X S
 			for (int s = 0; s < params.S; s++) {
@@ -527,10 +467,10 @@ public class LibMatrixDNN {
 	private static void doIm2colOverInputPath_NCHW(int n, int c, ConvolutionParameters params) {
 		double [] inputArray = null;
 		if (!params.input1.isInSparseFormat())
-			inputArray = params.input1.getDenseBlock();
+			inputArray = params.input1.getDenseBlockValues();
 		double [] outputArray = null;
 		if (!params.output.isInSparseFormat())
-			outputArray = params.output.getDenseBlock();
+			outputArray = params.output.getDenseBlockValues();
 		
 		final int inputOffset = n*params.C*params.H*params.W + c*params.H*params.W;
 		final int outputOffset = (c*params.R*params.S*params.N + n)*params.P*params.Q;
@@ -575,4 +515,511 @@ public class LibMatrixDNN {
 		
 		params.outputNNZ.addAndGet(tmpNNZ);
 	}
+	
+	///////////////////////////////////////
+	// Fused per-image kernels
+	///////////////////////////////////////
+	
+	private static void runFusedConvTask(TaskType type, ConvolutionParameters params, double[] filter, double[] filterT) throws DMLRuntimeException {
+		ArrayList<Object> ret = new ArrayList<Object>();
+		
+		// Partition images into one range per thread, where each task allocates its buffers 
+		// once and reuses them for all images in its range
+		int constrainedNumThreads = OptimizerUtils.getConstrainedNumThreads(params.numThreads);
+		try {
+			if(!ALLOW_MULTI_THREADED_OPS || constrainedNumThreads <= 1 || params.N <= 1) {
+				ret.add(new FusedConvTask(0, params.N, type, params, filter, filterT).call());
+			}
+			else {
+				ArrayList<FusedConvTask> tasks = new ArrayList<FusedConvTask>();
+				int blklen = (int)Math.ceil((double)params.N / constrainedNumThreads);
+				for (int n = 0; n < params.N; n += blklen) {
+					tasks.add(new FusedConvTask(n, Math.min(n+blklen, params.N), type, params, filter, filterT));
+				}
+				ExecutorService pool = CommonThreadPool.get(tasks.size());
+				List<Future<Object>> rtasks = pool.invokeAll(tasks);
+				pool.shutdown();
+				for (Future<Object> rtask : rtasks) {
+					ret.add(rtask.get());
+				}
+			}
+		}
+		catch(Exception e) {
+			throw new DMLRuntimeException("Error while executing multi-threaded " + type.name(), e);
+		}
+		
+		if(type == TaskType.Conv2dBackwardFilter) {
+			// Aggregate partial dfilter (K, CRS) and transposed partial dfilter (CRS, K)
+			params.outputNNZ.set(mergePartialFilters(ret, params));
+		}
+		else {
+			long nnz = 0;
+			for (Object tmp : ret) {
+				nnz += (Long) tmp;
+			}
+			params.outputNNZ.set(nnz);
+		}
+	}
+	
+	private static class FusedConvTask implements Callable<Object> {
+		int n1; int n2;
+		ConvolutionParameters params;
+		TaskType type;
+		double [] filter; double [] filterT;
+		public FusedConvTask(int n1, int n2, TaskType type, ConvolutionParameters params, double[] filter, double[] filterT) {
+			this.n1 = n1;
+			this.n2 = n2;
+			this.type = type;
+			this.params = params;
+			this.filter = filter;
+			this.filterT = filterT;
+		}
+		
+		@Override
+		public Object call() throws Exception {
+			switch(type) {
+				case Conv2d:
+					return LibMatrixDNN.doConv2d(n1, n2, filter, filterT, params);
+				case Conv2dBackwardFilter:
+					return LibMatrixDNN.doConv2dBackwardFilter(n1, n2, params);
+				case Conv2dBackwardData:
+					return LibMatrixDNN.doConv2dBackwardData(n1, n2, filter, filterT, params);
+				case MaxPooling_Forward:
+					return LibMatrixDNN.doPooling(n1, n2, params);
+				case MaxPooling_Backward:
+					return LibMatrixDNN.doPoolingBackward(n1, n2, params);
+				default:
+					throw new RuntimeException("Unsupported FusedConvTask:" + type.name());
+			}
+		}
+	}
+	
+	private static long doConv2d(int n1, int n2, double[] filter, double[] filterT, ConvolutionParameters params) {
+		final int K = params.K; final int CRS = params.C*params.R*params.S; final int PQ = params.P*params.Q;
+		MatrixBlock input = params.input1;
+		DenseBlock out = params.output.getDenseBlock();
+		
+		long nnz = 0;
+		if(!input.isInSparseFormat()) {
+			// Dense input: im2col of each image into buffer (CRS, PQ) and cache-blocked 
+			// matrix multiply (K, CRS) %*% (CRS, PQ) directly into output row (K, PQ)
+			DenseBlock in = input.getDenseBlock();
+			double [] col = new double[CRS*PQ];
+			for (int n = n1; n < n2 && in != null; n++) {
+				double [] outputArray = out.values(n);
+				int outputOffset = out.pos(n);
+				doIm2colDense(in.values(n), in.pos(n), col, false, params);
+				LibMatrixMult.matrixMultDenseDenseMM(filter, 0, col, 0, outputArray, outputOffset, K, CRS, PQ);
+				nnz += countNonZeros(outputArray, outputOffset, K*PQ);
+			}
+		}
+		else {
+			// Sparse input (e.g., after relu): scatter of each input non-zero times the 
+			// respective filter column into transposed output buffer (PQ, K), which avoids 
+			// im2col and makes the work proportional to the number of non-zeros
+			SparseBlock in = input.getSparseBlock();
+			double [] outT = new double[PQ*K];
+			for (int n = n1; n < n2 && in != null; n++) {
+				if(in.isEmpty(n))
+					continue;
+				Arrays.fill(outT, 0);
+				int apos = in.pos(n);
+				int alen = in.size(n);
+				int [] aix = in.indexes(n);
+				double [] avals = in.values(n);
+				for (int j = apos; j < apos+alen; j++) {
+					int c = aix[j] / (params.H*params.W);
+					int h = (aix[j] % (params.H*params.W)) / params.W;
+					int w = aix[j] % params.W;
+					for (int r = 0; r < params.R; r++) {
+						int p = getOutputIndex(h, r, params.stride_h, params.pad_h, params.P);
+						for (int s = 0; s < params.S && p >= 0; s++) {
+							int q = getOutputIndex(w, s, params.stride_w, params.pad_w, params.Q);
+							if(q >= 0)
+								vectMultiplyAdd(avals[j], filterT, outT, ((c*params.R + r)*params.S + s)*K, (p*params.Q + q)*K, K);
+						}
+					}
+				}
+				double [] outputArray = out.values(n);
+				int outputOffset = out.pos(n);
+				for (int pq = 0; pq < PQ; pq++) {
+					for (int k = 0; k < K; k++) {
+						outputArray[outputOffset + k*PQ + pq] = outT[pq*K + k];
+					}
+				}
+				nnz += countNonZeros(outputArray, outputOffset, K*PQ);
+			}
+		}
+		return nnz;
+	}
+	
+	private static double[][] doConv2dBackwardFilter(int n1, int n2, ConvolutionParameters params) {
+		final int K = params.K; final int CRS = params.C*params.R*params.S; final int PQ = params.P*params.Q;
+		MatrixBlock input = params.input1;
+		MatrixBlock dout = params.input2;
+		DenseBlock denseDout = dout.isInSparseFormat() ? null : dout.getDenseBlock();
+		double [] doutBuff = (denseDout == null) ? new double[K*PQ] : null;
+		
+		double [] dfilter = null;  // partial (K, CRS)
+		double [] dfilterT = null; // partial (CRS, K)
+		if(!input.isInSparseFormat()) {
+			// Dense input: transposed im2col of each image into buffer (PQ, CRS) and 
+			// cache-blocked matrix multiply (K, PQ) %*% (PQ, CRS) into partial dfilter
+			DenseBlock in = input.getDenseBlock();
+			if(in != null) {
+				dfilter = new double[K*CRS];
+				double [] colT = new double[PQ*CRS];
+				for (int n = n1; n < n2; n++) {
+					doIm2colDense(in.values(n), in.pos(n), colT, true, params);
+					double [] doutArray = doutBuff;
+					int doutOffset = 0;
+					if(denseDout != null) {
+						doutArray = denseDout.values(n);
+						doutOffset = denseDout.pos(n);
+					}
+					else
+						densifyRow(dout, n, doutBuff);
+					LibMatrixMult.matrixMultDenseDenseMM(doutArray, doutOffset, colT, 0, dfilter, 0, K, PQ, CRS);
+				}
+			}
+		}
+		else {
+			// Sparse input: scatter of each input non-zero times the respective row of 
+			// transposed dout buffer (PQ, K) into transposed partial dfilter (CRS, K)
+			SparseBlock in = input.getSparseBlock();
+			if(in != null) {
+				dfilterT = new double[CRS*K];
+				double [] doutT = new double[PQ*K];
+				for (int n = n1; n < n2; n++) {
+					if(in.isEmpty(n))
+						continue;
+					double [] doutArray = doutBuff;
+					int doutOffset = 0;
+					if(denseDout != null) {
+						doutArray = denseDout.values(n);
+						doutOffset = denseDout.pos(n);
+					}
+					else
+						densifyRow(dout, n, doutBuff);
+					for (int k = 0; k < K; k++) {
+						for (int pq = 0; pq < PQ; pq++) {
+							doutT[pq*K + k] = doutArray[doutOffset + k*PQ + pq];
+						}
+					}
+					int apos = in.pos(n);
+					int alen = in.size(n);
+					int [] aix = in.indexes(n);
+					double [] avals = in.values(n);
+					for (int j = apos; j < apos+alen; j++) {
+						int c = aix[j] / (params.H*params.W);
+						int h = (aix[j] % (params.H*params.W)) / params.W;
+						int w = aix[j] % params.W;
+						for (int r = 0; r < params.R; r++) {
+							int p = getOutputIndex(h, r, params.stride_h, params.pad_h, params.P);
+							for (int s = 0; s < params.S && p >= 0; s++) {
+								int q = getOutputIndex(w, s, params.stride_w, params.pad_w, params.Q);
+								if(q >= 0)
+									vectMultiplyAdd(avals[j], doutT, dfilterT, (p*params.Q + q)*K, ((c*params.R + r)*params.S + s)*K, K);
+							}
+						}
+					}
+				}
+			}
+		}
+		return new double[][]{dfilter, dfilterT};
+	}
+	
+	private static long mergePartialFilters(ArrayList<Object> partials, ConvolutionParameters params) {
+		final int K = params.K; final int CRS = params.C*params.R*params.S;
+		DenseBlock out = params.output.getDenseBlock();
+		long nnz = 0;
+		for (int k = 0; k < K; k++) {
+			double [] outputArray = out.values(k);
+			int outputOffset = out.pos(k);
+			for (Object tmp : partials) {
+				double [] dfilter = ((double[][]) tmp)[0];
+				double [] dfilterT = ((double[][]) tmp)[1];
+				if(dfilter != null) {
+					for (int crs = 0; crs < CRS; crs++)
+						outputArray[outputOffset + crs] += dfilter[k*CRS + crs];
+				}
+				if(dfilterT != null) {
+					for (int crs = 0; crs < CRS; crs++)
+						outputArray[outputOffset + crs] += dfilterT[crs*K + k];
+				}
+			}
+			nnz += countNonZeros(outputArray, outputOffset, CRS);
+		}
+		return nnz;
+	}
+	
+	private static long doConv2dBackwardData(int n1, int n2, double[] filter, double[] filterT, ConvolutionParameters params) {
+		final int K = params.K; final int CRS = params.C*params.R*params.S; final int PQ = params.P*params.Q;
+		MatrixBlock dout = params.input2;
+		DenseBlock out = params.output.getDenseBlock();
+		
+		long nnz = 0;
+		if(!dout.isInSparseFormat()) {
+			// Dense dout: cache-blocked matrix multiply (CRS, K) %*% (K, PQ) of each image
+			// into buffer (CRS, PQ), followed by col2im into output row (C, H, W)
+			DenseBlock denseDout = dout.getDenseBlock();
+			double [] col = new double[CRS*PQ];
+			for (int n = n1; n < n2 && denseDout != null; n++) {
+				Arrays.fill(col, 0);
+				LibMatrixMult.matrixMultDenseDenseMM(filterT, 0, denseDout.values(n), denseDout.pos(n), col, 0, CRS, K, PQ);
+				doCol2imDense(col, false, out.values(n), out.pos(n), params);
+				nnz += countNonZeros(out.values(n), out.pos(n), params.C*params.H*params.W);
+			}
+		}
+		else {
+			// Sparse dout: scatter of each dout non-zero times the respective filter row
+			// into transposed buffer (PQ, CRS), followed by col2im into output row (C, H, W)
+			SparseBlock sparseDout = dout.getSparseBlock();
+			double [] colT = new double[PQ*CRS];
+			for (int n = n1; n < n2 && sparseDout != null; n++) {
+				if(sparseDout.isEmpty(n))
+					continue;
+				Arrays.fill(colT, 0);
+				int apos = sparseDout.pos(n);
+				int alen = sparseDout.size(n);
+				int [] aix = sparseDout.indexes(n);
+				double [] avals = sparseDout.values(n);
+				for (int j = apos; j < apos+alen; j++) {
+					int k = aix[j] / PQ;
+					int pq = aix[j] % PQ;
+					vectMultiplyAdd(avals[j], filter, colT, k*CRS, pq*CRS, CRS);
+				}
+				doCol2imDense(colT, true, out.values(n), out.pos(n), params);
+				nnz += countNonZeros(out.values(n), out.pos(n), params.C*params.H*params.W);
+			}
+		}
+		return nnz;
+	}
+	
+	private static long doPooling(int n1, int n2, ConvolutionParameters params) {
+		final int HW = params.H*params.W; final int PQ = params.P*params.Q;
+		MatrixBlock input = params.input1;
+		DenseBlock denseInput = input.isInSparseFormat() ? null : input.getDenseBlock();
+		double [] inputBuff = (denseInput == null) ? new double[params.C*HW] : null;
+		DenseBlock out = params.output.getDenseBlock();
+		
+		long nnz = 0;
+		for (int n = n1; n < n2; n++) {
+			double [] inputArray = inputBuff;
+			int inputOffset = 0;
+			if(denseInput != null) {
+				inputArray = denseInput.values(n);
+				inputOffset = denseInput.pos(n);
+			}
+			else
+				densifyRow(input, n, inputBuff);
+			double [] outputArray = out.values(n);
+			int outputOffset = out.pos(n);
+			
+			for (int c = 0; c < params.C; c++) {
+				for (int p = 0; p < params.P; p++) {
+					int start_index_h = p * params.stride_h - params.pad_h;
+					int end_index_h = Math.min(start_index_h + params.R, params.H);
+					start_index_h = Math.max(start_index_h, 0);
+					for (int q = 0; q < params.Q; q++) {
+						int start_index_w = q * params.stride_w - params.pad_w;
+						int end_index_w = Math.min(start_index_w + params.S, params.W);
+						start_index_w = Math.max(start_index_w, 0);
+						double maxVal = -Double.MAX_VALUE;
+						for (int h = start_index_h; h < end_index_h; h++) {
+							for (int w = start_index_w; w < end_index_w; w++) {
+								maxVal = Math.max(maxVal, inputArray[inputOffset + c*HW + h*params.W + w]);
+							}
+						}
+						outputArray[outputOffset + c*PQ + p*params.Q + q] = maxVal;
+						if(maxVal != 0)
+							nnz++;
+					}
+				}
+			}
+		}
+		return nnz;
+	}
+	
+	private static long doPoolingBackward(int n1, int n2, ConvolutionParameters params) {
+		final int CHW = params.C*params.H*params.W; final int PQ = params.P*params.Q;
+		MatrixBlock input = params.input1;
+		MatrixBlock dout = params.input2;
+		DenseBlock denseInput = input.isInSparseFormat() ? null : input.getDenseBlock();
+		double [] inputBuff = (denseInput == null) ? new double[CHW] : null;
+		DenseBlock out = params.output.getDenseBlock();
+		
+		long nnz = 0;
+		for (int n = n1; n < n2; n++) {
+			double [] inputArray = inputBuff;
+			int inputOffset = 0;
+			if(denseInput != null) {
+				inputArray = denseInput.values(n);
+				inputOffset = denseInput.pos(n);
+			}
+			else
+				densifyRow(input, n, inputBuff);
+			double [] outputArray = out.values(n);
+			int outputOffset = out.pos(n);
+			
+			if(!dout.isInSparseFormat()) {
+				DenseBlock denseDout = dout.getDenseBlock();
+				if(denseDout != null) {
+					double [] doutArray = denseDout.values(n);
+					int doutOffset = denseDout.pos(n);
+					for (int cpq = 0; cpq < params.C*PQ; cpq++) {
+						double inVal = doutArray[doutOffset + cpq];
+						if(inVal != 0)
+							outputArray[outputOffset + getMaxIndex(inputArray, inputOffset, cpq, params)] += inVal;
+					}
+				}
+			}
+			else {
+				// Sparse dout: only non-zeros contribute to the output
+				SparseBlock sparseDout = dout.getSparseBlock();
+				if(sparseDout != null && !sparseDout.isEmpty(n)) {
+					int apos = sparseDout.pos(n);
+					int alen = sparseDout.size(n);
+					int [] aix = sparseDout.indexes(n);
+					double [] avals = sparseDout.values(n);
+					for (int j = apos; j < apos+alen; j++)
+						outputArray[outputOffset + getMaxIndex(inputArray, inputOffset, aix[j], params)] += avals[j];
+				}
+			}
+			nnz += countNonZeros(outputArray, outputOffset, CHW);
+		}
+		return nnz;
+	}
+	
+	// Returns the index (c, h, w) within the image of the first maximum in the pooling window of (c, p, q)
+	private static int getMaxIndex(double[] inputArray, int inputOffset, int cpq, ConvolutionParameters params) {
+		final int HW = params.H*params.W; final int PQ = params.P*params.Q;
+		int c = cpq / PQ;
+		int p = (cpq % PQ) / params.Q;
+		int q = cpq % params.Q;
+		int start_index_h = p * params.stride_h - params.pad_h;
+		int start_index_w = q * params.stride_w - params.pad_w;
+		int end_index_h = Math.min(start_index_h + params.R, params.H);
+		int end_index_w = Math.min(start_index_w + params.S, params.W);
+		start_index_h = Math.max(start_index_h, 0);
+		start_index_w = Math.max(start_index_w, 0);
+		int maxIndex = c*HW + start_index_h*params.W + start_index_w;
+		double maxVal = -Double.MAX_VALUE;
+		for (int h = start_index_h; h < end_index_h; h++) {
+			for (int w = start_index_w; w < end_index_w; w++) {
+				double currVal = inputArray[inputOffset + c*HW + h*params.W + w];
+				if(maxVal < currVal) {
+					maxIndex = c*HW + h*params.W + w;
+					maxVal = currVal;
+				}
+			}
+		}
+		return maxIndex;
+	}
+	
+	// im2col of a single image into buffer (CRS, PQ), or its transpose (PQ, CRS)
+	private static void doIm2colDense(double[] inputArray, int inputOffset, double[] col, boolean transposed, ConvolutionParameters params) {
+		final int HW = params.H*params.W; final int CRS = params.C*params.R*params.S; final int PQ = params.P*params.Q;
+		for (int c = 0; c < params.C; c++) {
+			for (int r = 0; r < params.R; r++) {
+				for (int s = 0; s < params.S; s++) {
+					int crs = (c*params.R + r)*params.S + s;
+					for (int p = 0; p < params.P; p++) {
+						int h = p*params.stride_h - params.pad_h + r;
+						boolean validH = (h >= 0 && h < params.H);
+						int inputIndex = inputOffset + c*HW + h*params.W;
+						for (int q = 0; q < params.Q; q++) {
+							int w = q*params.stride_w - params.pad_w + s;
+							int pq = p*params.Q + q;
+							col[transposed ? pq*CRS + crs : crs*PQ + pq] = 
+								(validH && w >= 0 && w < params.W) ? inputArray[inputIndex + w] : 0;
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	// col2im of buffer (CRS, PQ), or its transpose (PQ, CRS), into a single (zeroed) image 
+	private static void doCol2imDense(double[] col, boolean transposed, double[] outputArray, int outputOffset, ConvolutionParameters params) {
+		final int HW = params.H*params.W; final int CRS = params.C*params.R*params.S; final int PQ = params.P*params.Q;
+		for (int c = 0; c < params.C; c++) {
+			for (int r = 0; r < params.R; r++) {
+				for (int s = 0; s < params.S; s++) {
+					int crs = (c*params.R + r)*params.S + s;
+					for (int p = 0; p < params.P; p++) {
+						int h = p*params.stride_h - params.pad_h + r;
+						if(h < 0 || h >= params.H)
+							continue;
+						int outputIndex = outputOffset + c*HW + h*params.W;
+						for (int q = 0; q < params.Q; q++) {
+							int w = q*params.stride_w - params.pad_w + s;
+							int pq = p*params.Q + q;
+							if(w >= 0 && w < params.W)
+								outputArray[outputIndex + w] += col[transposed ? pq*CRS + crs : crs*PQ + pq];
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	// Returns the output index p (or q) that reads input index h (or w) at filter offset r (or s), or -1 
+	private static int getOutputIndex(int h, int r, int stride, int pad, int P) {
+		int tmp = h + pad - r;
+		if(tmp < 0 || tmp % stride != 0 || tmp / stride >= P)
+			return -1;
+		return tmp / stride;
+	}
+	
+	private static void vectMultiplyAdd(double aval, double[] b, double[] c, int bi, int ci, int len) {
+		for (int j = 0; j < len; j++)
+			c[ci + j] += aval * b[bi + j];
+	}
+	
+	private static long countNonZeros(double[] a, int ai, int len) {
+		long nnz = 0;
+		for (int i = ai; i < ai+len; i++)
+			nnz += (a[i] != 0) ? 1 : 0;
+		return nnz;
+	}
+	
+	private static void densifyRow(MatrixBlock mb, int r, double[] buff) {
+		Arrays.fill(buff, 0);
+		densifyRow(mb, r, buff, 0);
+	}
+	
+	private static void densifyRow(MatrixBlock mb, int r, double[] buff, int buffOffset) {
+		SparseBlock sblock = mb.getSparseBlock();
+		if(mb.isInSparseFormat() && sblock != null && !sblock.isEmpty(r)) {
+			int apos = sblock.pos(r);
+			int alen = sblock.size(r);
+			int [] aix = sblock.indexes(r);
+			double [] avals = sblock.values(r);
+			for (int j = apos; j < apos+alen; j++)
+				buff[buffOffset + aix[j]] = avals[j];
+		}
+	}
+	
+	// Returns the row-major dense values of the given (small) matrix, w/o copy if possible
+	private static double[] getDenseValues(MatrixBlock mb, int rlen, int clen) {
+		if(!mb.isInSparseFormat() && mb.getDenseBlock() != null && mb.getDenseBlock().isContiguous())
+			return mb.getDenseBlockValues();
+		double [] ret = new double[rlen*clen];
+		for (int i = 0; i < rlen; i++) {
+			if(mb.isInSparseFormat())
+				densifyRow(mb, i, ret, i*clen);
+			else if(mb.getDenseBlock() != null)
+				System.arraycopy(mb.getDenseBlock().values(i), mb.getDenseBlock().pos(i), ret, i*clen, clen);
+		}
+		return ret;
+	}
+	
+	private static double[] transpose(double[] a, int m, int n) {
+		double [] ret = new double[n*m];
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				ret[j*m + i] = a[i*n + j];
+		return ret;
+	}
 }
@@ -26,7 +26,6 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.commons.math3.util.FastMath;
@@ -40,6 +39,7 @@ import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.functionobjects.SwapIndex;
 import org.apache.sysml.runtime.functionobjects.ValueFunction;
 import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
 /**
@@ -184,7 +184,7 @@ public class LibMatrixMult
 		//core multi-threaded matrix mult computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultTask> tasks = new ArrayList<MatrixMultTask>();
 			int nk = (pm2r||pm2c) ? k : UtilFunctions.roundToNext(Math.min(8*k,num/32), k);
 			ArrayList<Integer> blklens = getBalancedBlockSizes(num, nk);
@@ -197,7 +197,7 @@ public class LibMatrixMult
 			ret.nonZeros = 0; //reset after execute
 			for( Future<Object> task : taskret ) {
 				if( pm2r )
-					vectAdd((double[])task.get(), ret.denseBlock, 0, 0, ret.rlen*ret.clen);
+					vectAdd((double[])task.get(), ret.getDenseBlockValues(), 0, 0, ret.rlen*ret.clen);
 				else
 					ret.nonZeros += (Long)task.get();
 			}
@@ -299,7 +299,7 @@ public class LibMatrixMult
 		//core matrix mult chain computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultChainTask> tasks = new ArrayList<MatrixMultChainTask>();
 			int blklen = (int)(Math.ceil((double)mX.rlen/k));
 			blklen += (blklen%24 != 0)?24-blklen%24:0;
@@ -310,7 +310,7 @@ public class LibMatrixMult
 			pool.shutdown();
 			//aggregate partial results
 			for( Future<double[]> task : taskret )
-				vectAdd(task.get(), ret.denseBlock, 0, 0, mX.clen);
+				vectAdd(task.get(), ret.getDenseBlockValues(), 0, 0, mX.clen);
 		}
 		catch(Exception ex) {
 			throw new DMLRuntimeException(ex);
@@ -396,7 +396,7 @@ public class LibMatrixMult
 	
 		//core multi-threaded matrix mult computation
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultTransposeTask> tasks = new ArrayList<MatrixMultTransposeTask>();
 			//load balance via #tasks=2k due to triangular shape 
 			int blklen = (int)(Math.ceil((double)ret.rlen/(2*k)));
@@ -490,7 +490,7 @@ public class LibMatrixMult
 		
 		try
 		{
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultPermuteTask> tasks = new ArrayList<MatrixMultPermuteTask>();
 			int blklen = (int)(Math.ceil((double)pm1.rlen/k));
 			for( int i=0; i<k & i*blklen<pm1.rlen; i++ )
@@ -581,7 +581,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWSLossTask> tasks = new ArrayList<MatrixMultWSLossTask>();
 			int blklen = (int)(Math.ceil((double)mX.rlen/k));
 			for( int i=0; i<k & i*blklen<mX.rlen; i++ )
@@ -672,7 +672,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWSigmoidTask> tasks = new ArrayList<MatrixMultWSigmoidTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -780,7 +780,7 @@ public class LibMatrixMult
 
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWDivTask> tasks = new ArrayList<MatrixMultWDivTask>();			
 			//create tasks (for wdivmm-left, parallelization over columns;
 			//for wdivmm-right, parallelization over rows; both ensure disjoint results)
@@ -878,7 +878,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWCeTask> tasks = new ArrayList<MatrixMultWCeTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -969,7 +969,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWuTask> tasks = new ArrayList<MatrixMultWuTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -1007,9 +1007,16 @@ public class LibMatrixMult
 	private static void matrixMultDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, boolean tm2, boolean pm2, int rl, int ru, int cl, int cu) 
 		throws DMLRuntimeException
 	{			
-		double[] a = m1.denseBlock;
-		double[] b = m2.denseBlock;
-		double[] c = ret.denseBlock;
+		//large dense blocks: row-wise kernel over multiple arrays
+		if( !m1.denseBlock.isContiguous() || !m2.denseBlock.isContiguous() || !ret.denseBlock.isContiguous() ) {
+			matrixMultDenseDenseLarge(m1.denseBlock, m2.denseBlock, ret.denseBlock, 
+					m1.rlen, m1.clen, m2.clen, tm2, pm2, rl, ru, cl, cu);
+			return;
+		}
+		
+		double[] a = m1.getDenseBlockValues();
+		double[] b = m2.getDenseBlockValues();
+		double[] c = ret.getDenseBlockValues();
 		final int m = m1.rlen;
 		final int n = m2.clen;
 		final int cd = m1.clen;
@@ -1158,6 +1165,69 @@ public class LibMatrixMult
 		
 	}
 	
+	/**
+	 * Dense-dense matrix multiplication over dense blocks with multiple
+	 * underlying arrays (e.g., more than 2^31-1 cells). Since rows never span
+	 * arrays, all inner loops still operate on plain arrays via the existing
+	 * vector primitives, i.e., without per-cell indirection.
+	 * 
+	 * @param a
+	 * @param b
+	 * @param c
+	 * @param m
+	 * @param cd
+	 * @param n
+	 * @param tm2
+	 * @param pm2
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 */
+	private static void matrixMultDenseDenseLarge(DenseBlock a, DenseBlock b, DenseBlock c, int m, int cd, int n, boolean tm2, boolean pm2, int rl, int ru, int cl, int cu) 
+	{
+		final int blocksizeI = 32;
+		final int blocksizeK = 24;
+		
+		if( pm2 ) //parallelization over rows in rhs matrix
+		{
+			for( int i=0; i<m; i++ ) {
+				double[] avals = a.values(i), cvals = c.values(i);
+				int aix = a.pos(i), cix = c.pos(i);
+				for( int k=rl; k<ru; k++ )
+					if( avals[aix+k] != 0 )
+						vectMultiplyAdd(avals[aix+k], b.values(k), cvals, b.pos(k), cix, n);
+			}
+		}
+		else if( tm2 ) //transposed skinny rhs
+		{
+			final int n2 = b.numRows();
+			for( int i=rl; i<ru; i++ ) {
+				double[] avals = a.values(i), cvals = c.values(i);
+				int aix = a.pos(i), cix = c.pos(i);
+				for( int j=0; j<n2; j++ )
+					cvals[cix+j] = dotProduct(avals, b.values(j), aix, b.pos(j), cd);
+			}
+		}
+		else //general case
+		{
+			//blocked execution (for less cache trashing of c and b)
+			for( int bi = rl; bi < ru; bi+=blocksizeI )
+				for( int bk = 0, bimin = Math.min(ru, bi+blocksizeI); bk < cd; bk+=blocksizeK ) {
+					int bkmin = Math.min(cd, bk+blocksizeK);
+					for( int i = bi; i < bimin; i++ ) {
+						double[] avals = a.values(i), cvals = c.values(i);
+						int aix = a.pos(i), cix = c.pos(i);
+						for( int k = bk; k < bkmin; k++ ) {
+							double val = avals[aix+k];
+							if( val != 0 )
+								vectMultiplyAdd(val, b.values(k), cvals, b.pos(k)+cl, cix+cl, cu-cl);
+						}
+					}
+				}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -1168,8 +1238,8 @@ public class LibMatrixMult
 	private static void matrixMultDenseSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, boolean pm2, int rl, int ru) 
 		throws DMLRuntimeException 
 	{	
-		double[] a = m1.denseBlock;
-		double[] c = ret.denseBlock;
+		double[] a = m1.getDenseBlockValues();
+		double[] c = ret.getDenseBlockValues();
 		int m = m1.rlen;
 		int cd = m1.clen;
 		int n = m2.clen;
@@ -1249,8 +1319,8 @@ public class LibMatrixMult
 	private static void matrixMultSparseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, boolean pm2, int rl, int ru) 
 		throws DMLRuntimeException
 	{	
-		double[] b = m2.denseBlock;
-		double[] c = ret.denseBlock;
+		double[] b = m2.getDenseBlockValues();
+		double[] c = ret.getDenseBlockValues();
 		final int m = m1.rlen;
 		final int n = m2.clen;
 		final int cd = m2.rlen;
@@ -1420,7 +1490,7 @@ public class LibMatrixMult
 	{	
 		SparseBlock a = m1.sparseBlock;
 		SparseBlock b = m2.sparseBlock;
-		double[] c = ret.denseBlock;
+		double[] c = ret.getDenseBlockValues();
 		int m = m1.rlen;
 		int cd = m1.clen;
 		int n = m2.clen;
@@ -1628,10 +1698,10 @@ public class LibMatrixMult
 	 */
 	private static void matrixMultChainDense(MatrixBlock mX, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, ChainType ct, int rl, int ru) 
 	{
-		double[] a = mX.denseBlock;
-		double[] b = mV.denseBlock;
-		double[] w = (mW!=null) ? mW.denseBlock : null;
-		double[] c = ret.denseBlock;
+		double[] a = mX.getDenseBlockValues();
+		double[] b = mV.getDenseBlockValues();
+		double[] w = (mW!=null) ? mW.getDenseBlockValues() : null;
+		double[] c = ret.getDenseBlockValues();
 		final int cd = mX.clen; //features in X
 		boolean weights = (ct == ChainType.XtwXv);
 		boolean weights2 = (ct == ChainType.XtXvy);
@@ -1683,9 +1753,9 @@ public class LibMatrixMult
 	private static void matrixMultChainSparse(MatrixBlock mX, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, ChainType ct, int rl, int ru) 
 	{
 		SparseBlock a = mX.sparseBlock;
-		double[] b = mV.denseBlock;
-		double[] w = (mW!=null) ? mW.denseBlock : null;
-		double[] c = ret.denseBlock;
+		double[] b = mV.getDenseBlockValues();
+		double[] w = (mW!=null) ? mW.getDenseBlockValues() : null;
+		double[] c = ret.getDenseBlockValues();
 		boolean weights = (ct == ChainType.XtwXv);
 		boolean weights2 = (ct == ChainType.XtXvy);
 		
@@ -1741,8 +1811,8 @@ public class LibMatrixMult
 	{
 		//2) transpose self matrix multiply dense
 		// (compute only upper-triangular matrix due to symmetry)
-		double[] a = m1.denseBlock;
-		double[] c = ret.denseBlock;
+		double[] a = m1.getDenseBlockValues();
+		double[] c = ret.getDenseBlockValues();
 		int m = m1.rlen;
 		int n = m1.clen;
 		
@@ -1880,7 +1950,7 @@ public class LibMatrixMult
 		//2) transpose self matrix multiply sparse
 		// (compute only upper-triangular matrix due to symmetry)		
 		SparseBlock a = m1.sparseBlock;
-		double[] c = ret.denseBlock;
+		double[] c = ret.getDenseBlockValues();
 		int m = m1.rlen;
 		int n = m1.clen;
 
@@ -2013,9 +2083,9 @@ public class LibMatrixMult
 	private static void matrixMultPermuteDense(MatrixBlock pm1, MatrixBlock m2, MatrixBlock ret1, MatrixBlock ret2, int rl, int ru) 
 		throws DMLRuntimeException
 	{
-		double[] a = pm1.denseBlock;
-		double[] b = m2.denseBlock;
-		double[] c = ret1.denseBlock;
+		double[] a = pm1.getDenseBlockValues();
+		double[] b = m2.getDenseBlockValues();
+		double[] c = ret1.getDenseBlockValues();
 
 		final int n = m2.clen;
 		final int brlen = ret1.getNumRows();
@@ -2036,7 +2106,7 @@ public class LibMatrixMult
 				if( lastblk!=-1 && lastblk<blk ){ 
 					ret2.sparse = false;
 					ret2.allocateDenseBlock();
-					c = ret2.denseBlock;		
+					c = ret2.getDenseBlockValues();		
 				}
 		
 				//memcopy entire dense row into target position
@@ -2057,8 +2127,8 @@ public class LibMatrixMult
 	 */
 	private static void matrixMultPermuteDenseSparse( MatrixBlock pm1, MatrixBlock m2, MatrixBlock ret1, MatrixBlock ret2, int rl, int ru)
 	{
-		double[] a = pm1.denseBlock;
-		double[] b = m2.denseBlock;
+		double[] a = pm1.getDenseBlockValues();
+		double[] b = m2.getDenseBlockValues();
 		SparseBlock c = ret1.sparseBlock;
 
 		final int n = m2.clen;
@@ -2103,7 +2173,7 @@ public class LibMatrixMult
 	 */
 	private static void matrixMultPermuteSparse( MatrixBlock pm1, MatrixBlock m2, MatrixBlock ret1, MatrixBlock ret2, int rl, int ru)
 	{
-		double[] a = pm1.denseBlock;
+		double[] a = pm1.getDenseBlockValues();
 		SparseBlock b = m2.sparseBlock;
 		SparseBlock c = ret1.sparseBlock;
 
@@ -2148,10 +2218,10 @@ public class LibMatrixMult
 	 */
 	private static void matrixMultWSLossDense(MatrixBlock mX, MatrixBlock mU, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, WeightsType wt, int rl, int ru)
 	{
-		double[] x = mX.denseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
-		double[] w = (mW!=null)? mW.denseBlock : null;
+		double[] x = mX.getDenseBlockValues();
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
+		double[] w = (mW!=null)? mW.getDenseBlockValues() : null;
 		final int n = mX.clen;
 		final int cd = mU.clen;
 		double wsloss = 0;
@@ -2234,8 +2304,8 @@ public class LibMatrixMult
 	{
 		SparseBlock x = mX.sparseBlock;
 		SparseBlock w = (mW!=null)? mW.sparseBlock : null;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
 		final int n = mX.clen; 
 		final int cd = mU.clen;
 		double wsloss = 0; 
@@ -2398,7 +2468,7 @@ public class LibMatrixMult
 			}
 			else //DENSE
 			{
-				double[] w = mW.denseBlock;
+				double[] w = mW.getDenseBlockValues();
 				
 				for( int i=rl, wix=rl*n; i<ru; i++, wix+=n )
 					for( int j=0; j<n; j++)
@@ -2431,7 +2501,7 @@ public class LibMatrixMult
 			}
 			else //DENSE
 			{
-				double[] x = mX.denseBlock;
+				double[] x = mX.getDenseBlockValues();
 				
 				for( int i=rl, xix=rl*n; i<ru; i++, xix+=n )
 					for( int j=0; j<n; j++)
@@ -2486,10 +2556,10 @@ public class LibMatrixMult
 	private static void matrixMultWSigmoidDense(MatrixBlock mW, MatrixBlock mU, MatrixBlock mV, MatrixBlock ret, WSigmoidType wt, int rl, int ru) 
 		throws DMLRuntimeException 
 	{	
-		double[] w = mW.denseBlock;
-		double[] c = ret.denseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
+		double[] w = mW.getDenseBlockValues();
+		double[] c = ret.getDenseBlockValues();
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
 		final int n = mW.clen;
 		final int cd = mU.clen;
 		
@@ -2538,8 +2608,8 @@ public class LibMatrixMult
 	{
 		SparseBlock w = mW.sparseBlock;
 		SparseBlock c = ret.sparseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
 		final int cd = mU.clen;
 		
 		boolean flagminus = (wt==WSigmoidType.MINUS || wt==WSigmoidType.LOG_MINUS); 
@@ -2606,8 +2676,8 @@ public class LibMatrixMult
 		else //DENSE
 		{
 			//w and c always in same representation
-			double[] w = mW.denseBlock;
-			double[] c = ret.denseBlock;
+			double[] w = mW.getDenseBlockValues();
+			double[] c = ret.getDenseBlockValues();
 		
 			for( int i=rl, ix=rl*n; i<ru; i++ )
 				for( int j=0; j<n; j++, ix++) {
@@ -2643,11 +2713,11 @@ public class LibMatrixMult
 		final int n = mW.clen;
 		final int cd = mU.clen;
 		
-		double[] w = mW.denseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
-		double[] x = (mX==null) ? null : mX.denseBlock;
-		double[] c = ret.denseBlock;
+		double[] w = mW.getDenseBlockValues();
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
+		double[] x = (mX==null) ? null : mX.getDenseBlockValues();
+		double[] c = ret.getDenseBlockValues();
 		
 		//approach: iterate over non-zeros of w, selective mm computation
 		//cache-conscious blocking: due to blocksize constraint (default 1000),
@@ -2703,9 +2773,9 @@ public class LibMatrixMult
 		final int cd = mU.clen;
 		
 		SparseBlock w = mW.sparseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
-		double[] c = ret.denseBlock;
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
+		double[] c = ret.getDenseBlockValues();
 		SparseBlock x = (mX==null) ? null : mX.sparseBlock;
 		
 		//approach: iterate over non-zeros of w, selective mm computation
@@ -2798,7 +2868,7 @@ public class LibMatrixMult
 		final int cd = mU.clen;
 
 		//output always in dense representation
-		double[] c = ret.denseBlock;
+		double[] c = ret.getDenseBlockValues();
 		
 		//approach: iterate over non-zeros of w, selective mm computation
 		if( mW.sparse ) //SPARSE
@@ -2831,7 +2901,7 @@ public class LibMatrixMult
 		}
 		else //DENSE
 		{
-			double[] w = mW.denseBlock;
+			double[] w = mW.getDenseBlockValues();
 		
 			for( int i=rl, ix=rl*n; i<ru; i++, ix+=n )
 				for( int j=cl; j<cu; j++)
@@ -2863,9 +2933,9 @@ public class LibMatrixMult
 	 */
 	private static void matrixMultWCeMMDense(MatrixBlock mW, MatrixBlock mU, MatrixBlock mV, double eps, MatrixBlock ret, WCeMMType wt, int rl, int ru)
 	{
-		double[] w = mW.denseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
+		double[] w = mW.getDenseBlockValues();
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
 		final int n = mW.clen;
 		final int cd = mU.clen;
 		double wceval = 0;
@@ -2908,8 +2978,8 @@ public class LibMatrixMult
 	private static void matrixMultWCeMMSparseDense(MatrixBlock mW, MatrixBlock mU, MatrixBlock mV, double eps, MatrixBlock ret, WCeMMType wt, int rl, int ru)
 	{
 		SparseBlock w = mW.sparseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
 		final int cd = mU.clen;
 		double wceval = 0; 
 		
@@ -2966,7 +3036,7 @@ public class LibMatrixMult
 		}
 		else //DENSE
 		{
-			double[] w = mW.denseBlock;
+			double[] w = mW.getDenseBlockValues();
 		
 			for( int i=rl, ix=rl*n; i<ru; i++ )
 				for( int j=0; j<n; j++, ix++) {
@@ -2996,10 +3066,10 @@ public class LibMatrixMult
 	private static void matrixMultWuMMDense(MatrixBlock mW, MatrixBlock mU, MatrixBlock mV, MatrixBlock ret, WUMMType wt, ValueFunction fn, int rl, int ru) 
 		throws DMLRuntimeException 
 	{	
-		double[] w = mW.denseBlock;
-		double[] c = ret.denseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
+		double[] w = mW.getDenseBlockValues();
+		double[] c = ret.getDenseBlockValues();
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
 		final int n = mW.clen;
 		final int cd = mU.clen;
 		
@@ -3047,8 +3117,8 @@ public class LibMatrixMult
 	{
 		SparseBlock w = mW.sparseBlock;
 		SparseBlock c = ret.sparseBlock;
-		double[] u = mU.denseBlock;
-		double[] v = mV.denseBlock;
+		double[] u = mU.getDenseBlockValues();
+		double[] v = mV.getDenseBlockValues();
 		final int cd = mU.clen;
 		
 		boolean flagmult = (wt==WUMMType.MULT); 
@@ -3113,8 +3183,8 @@ public class LibMatrixMult
 		else //DENSE
 		{
 			//w and c always in same representation
-			double[] w = mW.denseBlock;
-			double[] c = ret.denseBlock;
+			double[] w = mW.getDenseBlockValues();
+			double[] c = ret.getDenseBlockValues();
 		
 			for( int i=rl, ix=rl*n; i<ru; i++ )
 				for( int j=0; j<n; j++, ix++) {
@@ -3126,6 +3196,66 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * Single-threaded, cache-blocked dense-dense matrix multiplication c += a %*% b 
+	 * over raw arrays with offsets of a (m x cd), b (cd x n), and c (m x n). This 
+	 * kernel is used by fused operators that multiply thread-local buffers (e.g., 
+	 * per-image convolutions in LibMatrixDNN) without intermediate matrix blocks.
+	 * 
+	 * @param a
+	 * @param aix
+	 * @param b
+	 * @param bix
+	 * @param c
+	 * @param cix
+	 * @param m
+	 * @param cd
+	 * @param n
+	 */
+	static void matrixMultDenseDenseMM( double[] a, int aix, double[] b, int bix, double[] c, int cix, int m, int cd, int n )
+	{
+		final int blocksizeI = 32; 
+		final int blocksizeK = 24; 
+		final int blocksizeJ = 1024; 
+		
+		//temporary arrays (nnz a, b index)
+		double[] ta = new double[ blocksizeK ];
+		int[]  tbi  = new int[ blocksizeK ];
+		
+		//blocked execution
+		for( int bi = 0; bi < m; bi+=blocksizeI )
+			for( int bk = 0, bimin = Math.min(m, bi+blocksizeI); bk < cd; bk+=blocksizeK ) 
+				for( int bj = 0, bkmin = Math.min(cd, bk+blocksizeK); bj < n; bj+=blocksizeJ ) 
+				{
+					int bklen = bkmin-bk;
+					int bjlen = Math.min(n, bj+blocksizeJ)-bj;
+					
+					//core sub block matrix multiplication
+					for( int i = bi; i < bimin; i++) 
+					{
+						int aixi = aix + i * cd + bk; //start index on a
+						int cixj = cix + i * n + bj; //scan index on c
+						
+						//determine nnz of a (for sparsity-aware skipping of rows)
+						int knnz = copyNonZeroElements(a, aixi, bk, bj, n, ta, tbi, bklen);
+						
+						//rest not aligned to blocks of 4 rows
+						final int bn = knnz % 4;
+						switch( bn ){
+							case 1: vectMultiplyAdd(ta[0], b, c, bix+tbi[0], cixj, bjlen); break;
+							case 2: vectMultiplyAdd2(ta[0],ta[1], b, c, bix+tbi[0], bix+tbi[1], cixj, bjlen); break;
+							case 3: vectMultiplyAdd3(ta[0],ta[1],ta[2], b, c, bix+tbi[0], bix+tbi[1], bix+tbi[2], cixj, bjlen); break;
+						}
+						
+						//compute blocks of 4 rows (core inner loop)
+						for( int k = bn; k<knnz; k+=4 ){
+							vectMultiplyAdd4( ta[k], ta[k+1], ta[k+2], ta[k+3], b, c, 
+								bix+tbi[k], bix+tbi[k+1], bix+tbi[k+2], bix+tbi[k+3], cixj, bjlen );
+						}
+					}
+				}
+	}
+	
 	////////////////////////////////////////////
 	// performance-relevant utility functions //
 	////////////////////////////////////////////
@@ -3909,7 +4039,7 @@ public class LibMatrixMult
 	 */
 	private static void copyUpperToLowerTriangle( MatrixBlock ret )
 	{
-		double[] c = ret.denseBlock;
+		double[] c = ret.getDenseBlockValues();
 		final int m = ret.rlen;
 		final int n = ret.clen;
 		
@@ -4188,7 +4318,7 @@ public class LibMatrixMult
 			if( !_pm2r )
 				return _ret.recomputeNonZeros(rl, ru-1, cl, cu-1);
 			else
-				return _ret.getDenseBlock();
+				return _ret.getDenseBlockValues();
 		}
 	}
 	
@@ -4232,7 +4362,7 @@ public class LibMatrixMult
 			//to prevent synchronization (sequential aggregation led to better 
 			//performance after JIT)
 			
-			return ret.getDenseBlock();
+			return ret.getDenseBlockValues();
 		}
 	}
 
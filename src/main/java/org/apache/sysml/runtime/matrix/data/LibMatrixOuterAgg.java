@@ -895,7 +895,7 @@ public class LibMatrixOuterAgg
 
 		//allocate and initialize output values (not indices) 
 		out.allocateDenseBlock(true);
-		Arrays.fill(out.getDenseBlock(), 0, out.getNumColumns(), agg0);
+		Arrays.fill(out.getDenseBlockValues(), 0, out.getNumColumns(), agg0);
 		if(agg0 != 0.0)
 			out.setNonZeros(out.getNumColumns());
 		
@@ -955,7 +955,7 @@ public class LibMatrixOuterAgg
 
 		//allocate and initialize output values (not indices) 
 		out.allocateDenseBlock(true);
-		Arrays.fill(out.getDenseBlock(), 0, out.getNumColumns(), agg0);
+		Arrays.fill(out.getDenseBlockValues(), 0, out.getNumColumns(), agg0);
 		if(agg0 != 0.0)
 			out.setNonZeros(out.getNumColumns());
 		
@@ -1015,7 +1015,7 @@ public class LibMatrixOuterAgg
 
 		//allocate and initialize output values (not indices) 
 		out.allocateDenseBlock(true);
-		Arrays.fill(out.getDenseBlock(), 0, out.getNumColumns(), agg0);
+		Arrays.fill(out.getDenseBlockValues(), 0, out.getNumColumns(), agg0);
 		if(agg0 != 0.0)
 			out.setNonZeros(out.getNumColumns());
 		
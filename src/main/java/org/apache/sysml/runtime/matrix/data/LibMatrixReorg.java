@@ -23,17 +23,16 @@ package org.apache.sysml.runtime.matrix.data;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.functionobjects.DiagIndex;
 import org.apache.sysml.runtime.functionobjects.RevIndex;
@@ -41,6 +40,7 @@ import org.apache.sysml.runtime.functionobjects.SortIndex;
 import org.apache.sysml.runtime.functionobjects.SwapIndex;
 import org.apache.sysml.runtime.matrix.mapred.IndexedMatrixValue;
 import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.SortUtils;
 import org.apache.sysml.runtime.util.UtilFunctions;
@@ -64,6 +64,8 @@ public class LibMatrixReorg
 	public static final boolean SHALLOW_DENSE_VECTOR_TRANSPOSE = true;
 	public static final boolean SHALLOW_DENSE_ROWWISE_RESHAPE = true;
 	public static final boolean ALLOW_BLOCK_REUSE = false;
+	public static final boolean SPARSE_TRANSPOSE_TO_CSR = true;
+	public static final int TRANSPOSE_TILE_SIZE = 32; //32x32 tiles, 8KB per tile
 	
 	private enum ReorgType {
 		TRANSPOSE,
@@ -117,7 +119,7 @@ public class LibMatrixReorg
 				return diag(in, out); 
 			case SORT:      
 				SortIndex ix = (SortIndex) op.fn;
-				return sort(in, out, ix.getCol(), ix.getDecreasing(), ix.getIndexReturn());
+				return sort(in, out, ix.getCols(), ix.getDecreasing(), ix.getIndexReturn(), op.getNumThreads());
 			
 			default:        
 				throw new DMLRuntimeException("Unsupported reorg operator: "+op.fn);
@@ -146,12 +148,19 @@ public class LibMatrixReorg
 		//we don't need to create a copy, given our copy on write semantics.
 		//however, note that with update in-place this would be an invalid optimization
 		if( SHALLOW_DENSE_VECTOR_TRANSPOSE && !in.sparse && !out.sparse && (in.rlen==1 || in.clen==1)  ) {
-			out.denseBlock = in.denseBlock;
+			out.denseBlock = DenseBlockFactory.createDenseBlock(
+				in.getDenseBlockValues(), in.clen, in.rlen);
 			return out;
 		}
 		
 		//Timing time = new Timing(true);
 		
+		//sparse outputs via counting sort into CSR (w/o sparse row appends)
+		if( out.sparse && isCSRTranspose(in) ) {
+			transposeToCSR(in, out, 1);
+			return out;
+		}
+		
 		//allocate output arrays (if required)
 		if( out.sparse )
 			out.allocateSparseRowsBlock(false);
@@ -185,31 +194,37 @@ public class LibMatrixReorg
 		throws DMLRuntimeException
 	{
 		//redirect small or special cases to sequential execution
-		if( in.isEmptyBlock(false) || (in.rlen * in.clen < PAR_NUMCELL_THRESHOLD)
+		//(size threshold on cells for dense outputs and non-zeros for sparse outputs)
+		if( in.isEmptyBlock(false) || k <= 1
+			|| (out.sparse ? in.nonZeros : (long)in.rlen * in.clen) < PAR_NUMCELL_THRESHOLD
 			|| (SHALLOW_DENSE_VECTOR_TRANSPOSE && !in.sparse && !out.sparse && (in.rlen==1 || in.clen==1) )
-			|| (in.sparse && !out.sparse && in.rlen==1) || out.sparse )
+			|| (in.sparse && !out.sparse && in.rlen==1) || (out.sparse && !isCSRTranspose(in)) )
 		{
 			return transpose(in, out);
 		}
 		
 		//Timing time = new Timing(true);
 		
+		//sparse outputs via parallel counting sort into CSR
+		if( out.sparse ) {
+			out.nonZeros = in.nonZeros;
+			transposeToCSR(in, out, k);
+			return out;
+		}
+		
 		//set meta data and allocate output arrays (if required)
 		out.nonZeros = in.nonZeros;
-		if( out.sparse )
-			out.allocateSparseRowsBlock(false);
-		else
-			out.allocateDenseBlock(false);
+		out.allocateDenseBlock(false);
 		
 		//core multi-threaded transpose
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<TransposeTask> tasks = new ArrayList<TransposeTask>();
 			boolean row = in.sparse || in.rlen >= in.clen;
 			int len = row ? in.rlen : in.clen;
 			int blklen = (int)(Math.ceil((double)len/k));
 			blklen += (blklen%8 != 0)?8-blklen%8:0;
-			for( int i=0; i<k & i*blklen<in.rlen; i++ )
+			for( int i=0; i<k & i*blklen<len; i++ )
 				tasks.add(new TransposeTask(in, out, row, i*blklen, Math.min((i+1)*blklen, len)));
 			//execute tasks and check for errors
 			List<Future<Object>> taskret = pool.invokeAll(tasks);	
@@ -357,6 +372,29 @@ public class LibMatrixReorg
 	 */
 	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int by, boolean desc, boolean ixret) 
 		throws DMLRuntimeException
+	{
+		return sort(in, out, new int[]{by}, desc, ixret, 1);
+	}
+	
+	/**
+	 * Sorts the rows of the input by the given order-by columns (first column 
+	 * as primary key, subsequent columns break ties), with stable ordering of 
+	 * rows with equal keys. Multiple columns are sorted via stable passes in 
+	 * reverse column order over a primitive index vector, where each pass is
+	 * a parallel chunk-wise sort followed by stable merges. Rows with NaN keys
+	 * are ordered last (in ascending and descending order).
+	 * 
+	 * @param in
+	 * @param out
+	 * @param by
+	 * @param desc
+	 * @param ixret
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int[] by, boolean desc, boolean ixret, int k) 
+		throws DMLRuntimeException
 	{
 		//meta data gathering and preparation
 		boolean sparse = in.isInSparseFormat();
@@ -366,8 +404,11 @@ public class LibMatrixReorg
 		out.nonZeros = ixret ? rlen : in.nonZeros;
 		
 		//step 1: error handling
-		if( by <= 0 || clen < by )
-			throw new DMLRuntimeException("Sort configuration issue: non-existing orderby column: "+by+" ("+rlen+"x"+clen+" input).");
+		if( by == null || by.length == 0 )
+			throw new DMLRuntimeException("Sort configuration issue: no orderby column specified.");
+		for( int j=0; j<by.length; j++ )
+			if( by[j] <= 0 || clen < by[j] )
+				throw new DMLRuntimeException("Sort configuration issue: non-existing orderby column: "+by[j]+" ("+rlen+"x"+clen+" input).");
 		
 		//step 2: empty block / special case handling
 		if( !ixret ) //SORT DATA
@@ -378,7 +419,7 @@ public class LibMatrixReorg
 			if( !sparse && clen == 1 ) { //DENSE COLUMN VECTOR
 				//in-place quicksort, unstable (no indexes needed)
 				out.copy( in ); //dense
-				Arrays.sort(out.denseBlock);
+				Arrays.sort(out.getDenseBlockValues());
 				if( desc )
 					sortReverseDense(out);
 				return out;
@@ -396,35 +437,50 @@ public class LibMatrixReorg
 		
 		//step 3: index vector sorting
 		
-		//create index vector and extract values
+		//create index vector (and position/temporary vectors for multiple columns)
 		int[] vix = new int[rlen];
-		double[] values = new double[rlen];
-		for( int i=0; i<rlen; i++ ) {
+		for( int i=0; i<rlen; i++ )
 			vix[i] = i;
-			values[i] = in.quickGetValue(i, by-1);
-		}
+		double[] values = new double[rlen];
+		int[] pix = (by.length > 1) ? new int[rlen] : null;
+		int[] tix = (by.length > 1) ? new int[rlen] : null;
+		int[] nix = null; //NaN keys
 		
-		//sort index vector on extracted data (unstable)
-		SortUtils.sortByValue(0, rlen, values, vix);
-
-		//flip order if descending requested (note that this needs to happen
-		//before we ensure stable outputs, hence we also flip values)
-		if(desc) {
-			sortReverseDense(vix);
-			sortReverseDense(values);
-		}
-		
-		//final pass to ensure stable output
-		for( int i=0; i<rlen-1; i++ ) {
-			double tmp = values[i];
-			//determine run of equal values
-			int len = 0;
-			while( i+len+1<rlen && tmp==values[i+len+1] )
-				len++;
-			//unstable sort of run indexes (equal value guaranteed)
-			if( len>0 ) {
-				Arrays.sort(vix, i, i+len+1);
-				i += len; //skip processed run
+		//stable sort passes from last to first orderby column 
+		for( int j=by.length-1; j>=0; j-- ) 
+		{
+			//sort index vector directly (initial order), or positions
+			int[] ix = (j == by.length-1) ? vix : pix;
+			if( ix == pix )
+				for( int i=0; i<rlen; i++ )
+					pix[i] = i;
+			
+			//extract values in current order (negated for descending order,
+			//which keeps equal values in their current order), where rows with
+			//NaN keys are moved to the end, i.e., NaNs last for both directions
+			int n = 0, nnan = 0;
+			for( int i=0; i<rlen; i++ ) {
+				double val = in.quickGetValue(vix[i], by[j]-1);
+				if( Double.isNaN(val) ) {
+					nix = (nix != null) ? nix : new int[rlen];
+					nix[nnan++] = ix[i];
+				}
+				else {
+					values[n] = desc ? -val : val;
+					ix[n++] = ix[i];
+				}
+			}
+			if( nnan > 0 )
+				System.arraycopy(nix, 0, ix, n, nnan);
+			
+			//stable sort of rows with non-NaN keys
+			sortByValueStable(values, ix, n, k);
+			
+			//permute index vector according to sorted positions
+			if( ix == pix ) {
+				for( int i=0; i<rlen; i++ )
+					tix[i] = vix[pix[i]];
+				int[] tmp = vix; vix = tix; tix = tmp;
 			}
 		}
 
@@ -435,8 +491,10 @@ public class LibMatrixReorg
 			if( !sparse ) //DENSE
 			{
 				out.allocateDenseBlock(false);
+				DenseBlock a = in.denseBlock;
+				DenseBlock c = out.denseBlock;
 				for( int i=0; i<rlen; i++ ) {
-					System.arraycopy(in.denseBlock, vix[i]*clen, out.denseBlock, i*clen, clen);
+					System.arraycopy(a.values(vix[i]), a.pos(vix[i]), c.values(i), c.pos(i), clen);
 				}
 			}
 			else //SPARSE
@@ -474,6 +532,9 @@ public class LibMatrixReorg
 	public static MatrixBlock reshape( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise ) 
 		throws DMLRuntimeException
 	{
+		//decompress compressed inputs (reshape reads raw blocks)
+		in = CompressedMatrixBlock.getUncompressed(in, "reshape");
+		
 		int rlen = in.rlen;
 		int clen = in.clen;
 		
@@ -533,7 +594,7 @@ public class LibMatrixReorg
 	{
 		//prepare inputs
 		MatrixIndexes ixIn = in.getIndexes();
-		MatrixBlock mbIn = (MatrixBlock) in.getValue();
+		MatrixBlock mbIn = CompressedMatrixBlock.getUncompressed(in.getValue(), "reshape");
 		
 		//prepare result blocks (no reuse in order to guarantee mem constraints)
 		Collection<MatrixIndexes> rix = computeAllResultBlockIndexes(ixIn, rows1, cols1, brlen1, bclen1, rows2, cols2, brlen2, bclen2, rowwise);
@@ -809,8 +870,14 @@ public class LibMatrixReorg
 		final int n = in.clen;
 		final int n2 = out.clen;
 		
-		double[] a = in.getDenseBlock();
-		double[] c = out.getDenseBlock();
+		//large dense blocks: blocked row-wise transpose
+		if( !in.denseBlock.isContiguous() || !out.denseBlock.isContiguous() ) {
+			transposeLargeDenseToDense(in.denseBlock, out.denseBlock, rl, ru, cl, cu);
+			return;
+		}
+		
+		double[] a = in.getDenseBlockValues();
+		double[] c = out.getDenseBlockValues();
 		
 		if( m==1 || n==1 ) //VECTOR TRANSPOSE
 		{
@@ -820,27 +887,247 @@ public class LibMatrixReorg
 		}
 		else //MATRIX TRANSPOSE
 		{
-			//blocking according to typical L2 cache sizes 
-			final int blocksizeI = 128;
-			final int blocksizeJ = 128; 
+			//cache-oblivious recursive transpose (w/ small tiles for L1)
+			transposeDenseRec(a, c, n, n2, rl, ru, cl, cu);
+		}
+	}
+	
+	/**
+	 * Cache-oblivious dense transpose, which recursively splits the larger
+	 * dimension until the remaining tile fits into the L1 cache. This 
+	 * exploits all levels of the memory hierarchy without tuning block 
+	 * sizes to specific cache sizes.
+	 * 
+	 * @param a
+	 * @param c
+	 * @param n
+	 * @param n2
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 */
+	private static void transposeDenseRec(double[] a, double[] c, int n, int n2, int rl, int ru, int cl, int cu) 
+	{
+		final int dr = ru - rl;
+		final int dc = cu - cl;
+		
+		if( dr <= TRANSPOSE_TILE_SIZE && dc <= TRANSPOSE_TILE_SIZE ) {
+			//core transpose operation
+			for( int i=rl; i<ru; i++ )
+				transposeRow(a, c, i*n+cl, cl*n2+i, n2, dc);
+		}
+		else if( dr >= dc ) { //split rows
+			int mid = rl + dr/2;
+			transposeDenseRec(a, c, n, n2, rl, mid, cl, cu);
+			transposeDenseRec(a, c, n, n2, mid, ru, cl, cu);
+		}
+		else { //split columns
+			int mid = cl + dc/2;
+			transposeDenseRec(a, c, n, n2, rl, ru, cl, mid);
+			transposeDenseRec(a, c, n, n2, rl, ru, mid, cu);
+		}
+	}
+	
+	/**
+	 * Indicates if the transpose of the given input into a sparse output
+	 * can be computed via counting sort into a CSR block.
+	 * 
+	 * @param in
+	 * @return
+	 */
+	private static boolean isCSRTranspose(MatrixBlock in) {
+		return SPARSE_TRANSPOSE_TO_CSR && in.nonZeros >= 0 
+			&& in.nonZeros <= Integer.MAX_VALUE
+			&& (in.sparse ? in.sparseBlock != null : in.denseBlock != null);
+	}
+	
+	/**
+	 * Transpose of sparse or dense inputs into a sparse output in CSR 
+	 * format via a two-pass counting sort. The first pass counts the 
+	 * non-zeros per input column (output row), and the second pass scatters
+	 * the input rows in order into the preallocated CSR arrays, which yields
+	 * sorted column indexes without sparse row appends or reallocations. 
+	 * For multi-threaded execution, threads process disjoint input row 
+	 * ranges with thread-local counts and hence, disjoint output positions.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	private static void transposeToCSR(MatrixBlock in, MatrixBlock out, int k) 
+		throws DMLRuntimeException
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		
+		//determine row partitions (thread-local counts bounded by nnz)
+		int numParts = (k > 1 && (long)k * n <= in.nonZeros) ? Math.min(k, m) : 1;
+		int blklen = (int)(Math.ceil((double)m/numParts));
+		numParts = (int)(Math.ceil((double)m/blklen));
+		int[][] cnt = new int[numParts][n];
+		
+		try {
+			ExecutorService pool = (numParts > 1) ? CommonThreadPool.get(numParts) : null;
 			
-			//blocked execution
-			for( int bi = rl; bi<ru; bi+=blocksizeI )
-				for( int bj = cl; bj<cu; bj+=blocksizeJ )
-				{
-					int bimin = Math.min(bi+blocksizeI, ru);
-					int bjmin = Math.min(bj+blocksizeJ, cu);
-					//core transpose operation
-					for( int i=bi; i<bimin; i++ )
-					{
-						int aix = i * n + bj;
-						int cix = bj * n2 + i;
-						transposeRow(a, c, aix, cix, n2, bjmin-bj);
+			//pass 1: count non-zeros per column of row partitions
+			if( numParts == 1 )
+				countNnzPerColumn(in, cnt[0], 0, m);
+			else {
+				ArrayList<TransposeCSRTask> tasks = new ArrayList<TransposeCSRTask>();
+				for( int i=0; i<numParts; i++ )
+					tasks.add(new TransposeCSRTask(in, cnt[i], null, null, i*blklen, Math.min((i+1)*blklen, m)));
+				for( Future<Object> task : pool.invokeAll(tasks) )
+					task.get();
+			}
+			
+			//compute row pointers and partition offsets (exclusive prefix sums)
+			int[] rptr = new int[n+1];
+			long pos = 0;
+			for( int j=0; j<n; j++ ) {
+				rptr[j] = (int)pos;
+				for( int i=0; i<numParts; i++ ) {
+					int tmp = cnt[i][j];
+					cnt[i][j] = (int)pos;
+					pos += tmp;
+				}
+				if( pos > Integer.MAX_VALUE )
+					throw new DMLRuntimeException("Transpose to CSR: number of non-zeros exceeds "+Integer.MAX_VALUE+".");
+			}
+			rptr[n] = (int)pos;
+			
+			//pass 2: scatter row partitions into CSR arrays
+			int[] cix = new int[(int)pos];
+			double[] cvals = new double[(int)pos];
+			if( numParts == 1 )
+				scatterToCSR(in, cnt[0], cix, cvals, 0, m);
+			else {
+				ArrayList<TransposeCSRTask> tasks = new ArrayList<TransposeCSRTask>();
+				for( int i=0; i<numParts; i++ )
+					tasks.add(new TransposeCSRTask(in, cnt[i], cix, cvals, i*blklen, Math.min((i+1)*blklen, m)));
+				for( Future<Object> task : pool.invokeAll(tasks) )
+					task.get();
+				pool.shutdown();
+			}
+			
+			//set output meta data and sparse block
+			out.sparseBlock = new SparseBlockCSR(rptr, cix, cvals, (int)pos);
+			out.nonZeros = pos;
+		}
+		catch(DMLRuntimeException ex) {
+			throw ex;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param cnt
+	 * @param rl
+	 * @param ru
+	 */
+	private static void countNnzPerColumn(MatrixBlock in, int[] cnt, int rl, int ru) 
+	{
+		if( in.sparse ) { //SPARSE
+			SparseBlock a = in.sparseBlock;
+			for( int i=rl; i<ru; i++ )
+				if( !a.isEmpty(i) )
+					countAgg(cnt, a.indexes(i), a.pos(i), a.size(i));
+		}
+		else { //DENSE
+			DenseBlock a = in.denseBlock;
+			final int n = in.clen;
+			for( int i=rl; i<ru; i++ ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				for( int j=0; j<n; j++ )
+					cnt[j] += (avals[aix+j] != 0) ? 1 : 0;
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param cpos
+	 * @param cix
+	 * @param cvals
+	 * @param rl
+	 * @param ru
+	 */
+	private static void scatterToCSR(MatrixBlock in, int[] cpos, int[] cix, double[] cvals, int rl, int ru) 
+	{
+		if( in.sparse ) { //SPARSE
+			SparseBlock a = in.sparseBlock;
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) ) continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				for( int j=apos; j<apos+alen; j++ ) {
+					int pos = cpos[aix[j]]++;
+					cix[pos] = i;
+					cvals[pos] = avals[j];
+				}
+			}
+		}
+		else { //DENSE
+			DenseBlock a = in.denseBlock;
+			final int n = in.clen;
+			for( int i=rl; i<ru; i++ ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				for( int j=0; j<n; j++ ) {
+					double val = avals[aix+j];
+					if( val != 0 ) {
+						int pos = cpos[j]++;
+						cix[pos] = i;
+						cvals[pos] = val;
 					}
 				}
+			}
 		}
 	}
 	
+	/**
+	 * Transpose over dense blocks with multiple underlying arrays, where
+	 * rows are accessed via their arrays and positions in order to prevent
+	 * per-cell index computations.
+	 * 
+	 * @param a
+	 * @param c
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 */
+	private static void transposeLargeDenseToDense(DenseBlock a, DenseBlock c, int rl, int ru, int cl, int cu) 
+	{
+		//blocking according to typical L2 cache sizes 
+		final int blocksizeI = 128;
+		final int blocksizeJ = 128; 
+		
+		//blocked execution
+		for( int bi = rl; bi<ru; bi+=blocksizeI )
+			for( int bj = cl; bj<cu; bj+=blocksizeJ )
+			{
+				int bimin = Math.min(bi+blocksizeI, ru);
+				int bjmin = Math.min(bj+blocksizeJ, cu);
+				//core transpose operation
+				for( int i=bi; i<bimin; i++ ) {
+					double[] avals = a.values(i);
+					int aix = a.pos(i);
+					for( int j=bj; j<bjmin; j++ )
+						c.values(j)[c.pos(j)+i] = avals[aix+j];
+				}
+			}
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -856,7 +1143,7 @@ public class LibMatrixReorg
 		final int n2 = out.clen;
 		final int ennz2 = (int) (in.nonZeros/m2); 
 		
-		double[] a = in.getDenseBlock();
+		double[] a = in.getDenseBlockValues();
 		SparseBlock c = out.getSparseBlock();
 		
 		//blocking according to typical L2 cache sizes 
@@ -940,7 +1227,7 @@ public class LibMatrixReorg
 						int[] aix = a.indexes(i);
 						double[] avals = a.values(i);
 						int j = ix[iix]; //last block boundary
-						for( ; j<alen && aix[j]<bjmin; j++ ) {
+						for( ; j<alen && aix[apos+j]<bjmin; j++ ) {
 							c.allocate(aix[apos+j], ennz2,n2);
 							c.append(aix[apos+j], i, avals[apos+j]);
 						}
@@ -965,7 +1252,7 @@ public class LibMatrixReorg
 		final int n2 = out.clen;
 		
 		SparseBlock a = in.getSparseBlock();
-		double[] c = out.getDenseBlock();
+		double[] c = out.getDenseBlockValues();
 		
 		if( m==1 ) //ROW VECTOR TRANSPOSE
 		{
@@ -1062,8 +1349,17 @@ public class LibMatrixReorg
 		out.nonZeros = in.nonZeros;
 		out.allocateDenseBlock(false);
 		
-		double[] a = in.getDenseBlock();
-		double[] c = out.getDenseBlock();
+		//large dense blocks: row-wise copy
+		if( !in.denseBlock.isContiguous() || !out.denseBlock.isContiguous() ) {
+			DenseBlock a = in.denseBlock;
+			DenseBlock c = out.denseBlock;
+			for( int i=0; i<m; i++ )
+				System.arraycopy(a.values(i), a.pos(i), c.values(m-1-i), c.pos(m-1-i), n);
+			return;
+		}
+		
+		double[] a = in.getDenseBlockValues();
+		double[] c = out.getDenseBlockValues();
 		
 		//copy all rows into target positions
 		if( n == 1 ) { //column vector
@@ -1166,26 +1462,38 @@ public class LibMatrixReorg
 			return;
 		
 		//shallow dense by-row reshape (w/o result allocation)
-		if( SHALLOW_DENSE_ROWWISE_RESHAPE && rowwise ) {
+		if( SHALLOW_DENSE_ROWWISE_RESHAPE && rowwise && in.denseBlock.isContiguous() ) {
 			//since the physical representation of dense matrices is always the same,
 			//we don't need to create a copy, given our copy on write semantics.
 			//however, note that with update in-place this would be an invalid optimization
-			out.denseBlock = in.denseBlock;
+			out.denseBlock = DenseBlockFactory.createDenseBlock(
+				in.getDenseBlockValues(), rows, cols);
 			return;
 		}
 		
 		//allocate block if necessary
 		out.allocateDenseBlock(false);
 		
+		//large dense blocks: rowwise cell copy across block boundaries
+		if( !in.denseBlock.isContiguous() || !out.denseBlock.isContiguous() ) {
+			if( !rowwise )
+				throw new DMLRuntimeException("Unsupported colwise reshape of large dense block: "+rlen+"x"+clen+".");
+			DenseBlock a = in.denseBlock;
+			DenseBlock c = out.denseBlock;
+			for( long k=0; k<(long)rlen*clen; k++ )
+				c.set((int)(k/cols), (int)(k%cols), a.get((int)(k/clen), (int)(k%clen)));
+			return;
+		}
+		
 		//dense reshape
-		double[] a = in.denseBlock;
-		double[] c = out.denseBlock;
+		double[] a = in.getDenseBlockValues();
+		double[] c = out.getDenseBlockValues();
 		
 		if( rowwise )
 		{
 			//VECTOR-MATRIX, MATRIX-VECTOR, GENERAL CASE
 			//pure copy of rowwise internal representation
-			System.arraycopy(a, 0, c, 0, c.length);
+			System.arraycopy(a, 0, c, 0, (int)out.denseBlock.size());
 		}	
 		else //colwise
 		{
@@ -1363,7 +1671,7 @@ public class LibMatrixReorg
 		int estnnz = (int) (in.nonZeros/rows);
 		
 		//sparse reshape
-		double[] a = in.denseBlock;
+		double[] a = in.getDenseBlockValues();
 		SparseBlock c = out.sparseBlock;
 		
 		if( rowwise )
@@ -1443,7 +1751,7 @@ public class LibMatrixReorg
 		
 		//sparse/dense reshape
 		SparseBlock a = in.sparseBlock;
-		double[] c = out.denseBlock;
+		double[] c = out.getDenseBlockValues();
 		
 		if( rowwise )
 		{
@@ -1677,7 +1985,7 @@ public class LibMatrixReorg
 		
 		int rlen = in.rlen;
 		int clen = in.clen;
-		double[] a = in.denseBlock;
+		double[] a = in.getDenseBlockValues();
 		
 		//append all values to right blocks
 		MatrixIndexes ixtmp = new MatrixIndexes();
@@ -1869,7 +2177,7 @@ public class LibMatrixReorg
 			}
 			else //DENSE
 			{
-				double[] a = in.denseBlock;
+				double[] a = in.getDenseBlockValues();
 				
 				for(int i=0, aix=0; i<m; i++, aix+=n) {
 					for(int j=0; j<n; j++)
@@ -1905,8 +2213,8 @@ public class LibMatrixReorg
 		else if( !in.sparse && !ret.sparse )  //DENSE <- DENSE
 		{
 			ret.allocateDenseBlock();
-			double[] a = in.denseBlock;
-			double[] c = ret.denseBlock;
+			double[] a = in.getDenseBlockValues();
+			double[] c = ret.getDenseBlockValues();
 			
 			for( int i=0, aix=0, cix=0; i<m; i++, aix+=n )
 				if( flags[i] ) {
@@ -1917,7 +2225,7 @@ public class LibMatrixReorg
 		else //SPARSE <- DENSE
 		{
 			ret.allocateSparseRowsBlock();
-			double[] a = in.denseBlock;
+			double[] a = in.getDenseBlockValues();
 			
 			for( int i=0, aix=0, cix=0; i<m; i++, aix+=n )
 				if( flags[i] ) {
@@ -1970,7 +2278,7 @@ public class LibMatrixReorg
 			}
 			else //DENSE
 			{
-				double[] a = in.denseBlock;
+				double[] a = in.getDenseBlockValues();
 				
 				for(int i=0, aix=0; i<m; i++)
 					for(int j=0; j<n; j++, aix++)
@@ -2022,8 +2330,8 @@ public class LibMatrixReorg
 		else if( !in.sparse && !ret.sparse )  //DENSE <- DENSE
 		{
 			ret.allocateDenseBlock();
-			double[] a = in.denseBlock;
-			double[] c = ret.denseBlock;
+			double[] a = in.getDenseBlockValues();
+			double[] c = ret.getDenseBlockValues();
 			
 			for(int i=0, aix=0, lcix=0; i<m; i++, lcix+=clen2)
 				for(int j=0; j<n; j++, aix++)
@@ -2033,7 +2341,7 @@ public class LibMatrixReorg
 		else //SPARSE <- DENSE
 		{
 			ret.allocateSparseRowsBlock();
-			double[] a = in.denseBlock;
+			double[] a = in.getDenseBlockValues();
 			
 			for(int i=0, aix=0; i<m; i++)
 				for(int j=0; j<n; j++, aix++)
@@ -2164,7 +2472,7 @@ public class LibMatrixReorg
 				tmp[i] = in.quickGetValue(ixin+i, 0);
 		}
 		else { //DENSE
-			System.arraycopy(in.denseBlock, ixin, tmp, 0, len);
+			System.arraycopy(in.getDenseBlockValues(), ixin, tmp, 0, len);
 		}
 		
 		//init index array
@@ -2182,8 +2490,12 @@ public class LibMatrixReorg
 	 */
 	private static void sortReverseDense( MatrixBlock m1 )
 	{
+		double[] a = m1.getDenseBlockValues();
+		
+		//keep trailing NaNs of the ascending order last
 		int rlen = m1.rlen;
-		double[] a = m1.denseBlock;
+		while( rlen > 0 && Double.isNaN(a[rlen-1]) )
+			rlen--;
 		
 		for( int i=0; i<rlen/2; i++ ) {
 			double tmp = a[i];
@@ -2193,33 +2505,94 @@ public class LibMatrixReorg
 	}
 	
 	/**
+	 * Stable sort of the given values and index vector (positionally stable,
+	 * i.e., equal values retain their relative order). For large inputs, 
+	 * chunks are sorted in parallel and subsequently combined via rounds of
+	 * parallel pairwise merges over temporary arrays.
 	 * 
-	 * @param m1
+	 * @param values
+	 * @param ix
+	 * @param len number of leading values to sort
+	 * @param k
+	 * @throws DMLRuntimeException
 	 */
-	private static void sortReverseDense( int[] a )
+	private static void sortByValueStable( double[] values, int[] ix, final int len, int k ) 
+		throws DMLRuntimeException
 	{
-		int rlen = a.length;
+		//redirect small inputs to sequential execution
+		if( k <= 1 || len < PAR_NUMCELL_THRESHOLD ) {
+			SortUtils.sortByValueStable(0, len, values, ix);
+			return;
+		}
 		
-		for( int i=0; i<rlen/2; i++ ) {
-			int tmp = a[i];
-			a[i] = a[rlen - i -1];
-			a[rlen - i - 1] = tmp;
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			int blklen = (int)(Math.ceil((double)len/k));
+			
+			//parallel chunk-wise stable sort
+			ArrayList<SortTask> tasks = new ArrayList<SortTask>();
+			for( int lb=0; lb<len; lb+=blklen )
+				tasks.add(new SortTask(values, ix, lb, Math.min(lb+blklen, len)));
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			
+			//parallel pairwise merge rounds (alternating buffers)
+			double[] avals = values, cvals = new double[len];
+			int[] aix = ix, cix = new int[len];
+			for( int w=blklen; w<len; w*=2 ) {
+				ArrayList<MergeTask> mtasks = new ArrayList<MergeTask>();
+				for( int lb=0; lb<len; lb+=2*w )
+					mtasks.add(new MergeTask(avals, aix, cvals, cix, 
+						lb, Math.min(lb+w, len), Math.min(lb+2*w, len)));
+				for( Future<Object> task : pool.invokeAll(mtasks) )
+					task.get();
+				double[] tmp = avals; avals = cvals; cvals = tmp;
+				int[] tmpi = aix; aix = cix; cix = tmpi;
+			}
+			pool.shutdown();
+			
+			//copy back results if necessary
+			if( avals != values ) {
+				System.arraycopy(avals, 0, values, 0, len);
+				System.arraycopy(aix, 0, ix, 0, len);
+			}
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
 		}
 	}
 	
 	/**
+	 * Stable merge of the sorted runs [lb,mid) and [mid,ub) of a into c, 
+	 * where ties are resolved in favor of the left run.
 	 * 
-	 * @param a
+	 * @param avals
+	 * @param aix
+	 * @param cvals
+	 * @param cix
+	 * @param lb
+	 * @param mid
+	 * @param ub
 	 */
-	private static void sortReverseDense( double[] a )
+	private static void mergeSortedRuns( double[] avals, int[] aix, double[] cvals, int[] cix, int lb, int mid, int ub )
 	{
-		int rlen = a.length;
-		
-		for( int i=0; i<rlen/2; i++ ) {
-			double tmp = a[i];
-			a[i] = a[rlen - i -1];
-			a[rlen - i - 1] = tmp;
+		int i = lb, j = mid, pos = lb;
+		while( i < mid && j < ub ) {
+			if( avals[j] < avals[i] ) {
+				cvals[pos] = avals[j];
+				cix[pos++] = aix[j++];
+			}
+			else {
+				cvals[pos] = avals[i];
+				cix[pos++] = aix[i++];
+			}
 		}
+		//copy remaining elements of both runs
+		System.arraycopy(avals, i, cvals, pos, mid-i);
+		System.arraycopy(aix, i, cix, pos, mid-i);
+		pos += mid-i;
+		System.arraycopy(avals, j, cvals, pos, ub-j);
+		System.arraycopy(aix, j, cix, pos, ub-j);
 	}
 
 	/**
@@ -2274,51 +2647,89 @@ public class LibMatrixReorg
 	}
 	
 	/**
-	 *
+	 * 
 	 */
-	@SuppressWarnings("unused")
-	private static class AscRowComparator implements Comparator<Integer> 
+	private static class SortTask implements Callable<Object>
 	{
-		private MatrixBlock _mb = null;
-		private int _col = -1;
+		private double[] _values = null;
+		private int[] _ix = null;
+		private int _rl = -1;
+		private int _ru = -1;
 		
-		public AscRowComparator( MatrixBlock mb, int col )
-		{
-			_mb = mb;
-			_col = col;
+		protected SortTask(double[] values, int[] ix, int rl, int ru) {
+			_values = values;
+			_ix = ix;
+			_rl = rl;
+			_ru = ru;
 		}
-
+		
 		@Override
-		public int compare(Integer arg0, Integer arg1) 
-		{			
-			double val0 = _mb.quickGetValue(arg0, _col);
-			double val1 = _mb.quickGetValue(arg1, _col);			
-			return (val0 < val1 ? -1 : (val0 == val1 ? 0 : 1));
-		}		
+		public Object call() {
+			SortUtils.sortByValueStable(_rl, _ru, _values, _ix);
+			return null;
+		}
 	}
 	
 	/**
 	 * 
 	 */
-	@SuppressWarnings("unused")
-	private static class DescRowComparator implements Comparator<Integer> 
+	private static class MergeTask implements Callable<Object>
 	{
-		private MatrixBlock _mb = null;
-		private int _col = -1;
+		private double[] _avals = null;
+		private int[] _aix = null;
+		private double[] _cvals = null;
+		private int[] _cix = null;
+		private int _lb = -1;
+		private int _mid = -1;
+		private int _ub = -1;
+		
+		protected MergeTask(double[] avals, int[] aix, double[] cvals, int[] cix, int lb, int mid, int ub) {
+			_avals = avals;
+			_aix = aix;
+			_cvals = cvals;
+			_cix = cix;
+			_lb = lb;
+			_mid = mid;
+			_ub = ub;
+		}
 		
-		public DescRowComparator( MatrixBlock mb, int col )
-		{
-			_mb = mb;
-			_col = col;
+		@Override
+		public Object call() {
+			mergeSortedRuns(_avals, _aix, _cvals, _cix, _lb, _mid, _ub);
+			return null;
 		}
-
+	}
+	
+	/**
+	 * 
+	 */
+	private static class TransposeCSRTask implements Callable<Object>
+	{
+		private MatrixBlock _in = null;
+		private int[] _cnt = null;
+		private int[] _cix = null;
+		private double[] _cvals = null;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected TransposeCSRTask(MatrixBlock in, int[] cnt, int[] cix, double[] cvals, int rl, int ru) {
+			_in = in;
+			_cnt = cnt;
+			_cix = cix;
+			_cvals = cvals;
+			_rl = rl;
+			_ru = ru;
+		}
+		
 		@Override
-		public int compare(Integer arg0, Integer arg1) 
-		{			
-			double val0 = _mb.quickGetValue(arg0, _col);
-			double val1 = _mb.quickGetValue(arg1, _col);	
-			return (val0 > val1 ? -1 : (val0 == val1 ? 0 : 1));
-		}		
+		public Object call() {
+			//count pass if no output arrays given, otherwise scatter pass
+			if( _cix == null )
+				countNnzPerColumn(_in, _cnt, _rl, _ru);
+			else
+				scatterToCSR(_in, _cnt, _cix, _cvals, _rl, _ru);
+			return null;
+		}
 	}
 	
 	/**
@@ -41,6 +41,7 @@ import org.apache.sysml.lops.MMTSJ.MMTSJType;
 import org.apache.sysml.lops.MapMultChain.ChainType;
 import org.apache.sysml.lops.PartialAggregate.CorrectionLocationType;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.functionobjects.Builtin;
@@ -116,7 +117,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	protected long nonZeros   = 0;
 	
 	//matrix data (sparse or dense)
-	protected double[] denseBlock    = null;
+	protected DenseBlock denseBlock   = null;
 	protected SparseBlock sparseBlock = null;
 		
 	//sparse-block-specific attributes (allocation only)
@@ -178,6 +179,20 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		this.copy(that);
 	}
 	
+	public MatrixBlock(int rl, int cl, long nnz, SparseBlock sblock)
+	{
+		this(rl, cl, true);
+		nonZeros = nnz;
+		sparseBlock = sblock;
+	}
+	
+	public MatrixBlock(int rl, int cl, long nnz, DenseBlock dblock)
+	{
+		this(rl, cl, false);
+		nonZeros = nnz;
+		denseBlock = dblock;
+	}
+	
 	public MatrixBlock(MatrixBlock that, SparseBlock.Type stype, boolean deep)
 	{
 		//sanity check sparse matrix block
@@ -214,10 +229,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		{
 			if(denseBlock!=null)
 			{
-				if(denseBlock.length<rlen*clen)
+				if(denseBlock.capacity()<(long)rlen*clen)
 					denseBlock=null;
 				else
-					Arrays.fill(denseBlock, 0, rlen*clen, 0);
+					denseBlock.reset(rlen, clen);
 			}
 		}
 		nonZeros=0;
@@ -276,9 +291,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		allocateDenseBlock();
 		
 		//init with constant value (non-zero, see above)
-		int limit = rlen * clen;
-		Arrays.fill(denseBlock, 0, limit, v);
-		nonZeros=limit;
+		denseBlock.set(v);
+		nonZeros=(long)rlen * clen;
 	}
 	
 	/**
@@ -302,8 +316,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		allocateDenseBlock();
 		
 		//copy and compute nnz
-		for(int i=0, ix=0; i < r; i++, ix+=clen) 
-			System.arraycopy(arr[i], 0, denseBlock, ix, arr[i].length);
+		for(int i=0; i < r; i++) 
+			System.arraycopy(arr[i], 0, denseBlock.values(i), denseBlock.pos(i), arr[i].length);
 		recomputeNonZeros();
 		
 		maxrow = r;
@@ -331,7 +345,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		allocateDenseBlock();
 		
 		//copy and compute nnz 
-		System.arraycopy(arr, 0, denseBlock, 0, arr.length);
+		System.arraycopy(arr, 0, getDenseBlockValues(), 0, arr.length);
 		recomputeNonZeros();
 		
 		maxrow = r;
@@ -360,12 +374,11 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			
 			if( r*c == rlen*clen ) { //FULL MATRIX INIT
 				//memset value  
-				Arrays.fill(denseBlock, val);
+				denseBlock.set(val);
 			}
 			else { //PARTIAL MATRIX INIT
 				//rowwise memset value 
-				for(int i=0, ix=0; i < r; i++, ix+=clen) 
-					Arrays.fill(denseBlock, ix, ix+c, val);
+				denseBlock.set(0, r, 0, c, val);
 			}
 			
 			//set non zeros to input dims
@@ -414,21 +427,22 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	{
 		long limit = (long)rlen * clen;
 		
-		//check max size constraint (16GB dense), since java arrays are limited to 2^(32-1) elements)
-		if( limit > Integer.MAX_VALUE ) {
-			throw new RuntimeException("Dense in-memory matrix block ("+rlen+"x"+clen+") exceeds supported size of "+Integer.MAX_VALUE+" elements (16GB). " +
-					                   "Please, reduce the JVM heapsize to execute this in MR.");
-		}
-		
 		//allocate block if non-existing or too small (guaranteed to be 0-initialized),
+		//where dense blocks larger than 2^31-1 cells (16GB) use multiple arrays
 		if(!zeroOut && DMLScript.REUSE_NONZEROED_OUTPUT 
-			&& (denseBlock == null || denseBlock.length < limit)
+			&& (denseBlock == null || denseBlock.capacity() < limit)
+			&& limit <= Integer.MAX_VALUE
 			&& rlen != 1 && clen != 1 ) // Not a column vector 
 		{
-			denseBlock = LibMatrixDNN.getReuseableData(limit);
+			double[] data = LibMatrixDNN.getReuseableData(limit);
+			denseBlock = (data != null) ? 
+				DenseBlockFactory.createDenseBlock(data, rlen, clen) : null;
 		}
-		if(denseBlock == null || denseBlock.length < limit) {
-			denseBlock = new double[(int)limit];
+		if(denseBlock == null || denseBlock.capacity() < limit) {
+			denseBlock = DenseBlockFactory.createDenseBlock(rlen, clen);
+		}
+		else if(denseBlock.numRows() != rlen || denseBlock.numCols() != clen) {
+			denseBlock.reshape(rlen, clen);
 		}
 		
 		
@@ -525,6 +539,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 */
 	public void setNumRows(int r) {
 		rlen = r;
+		if( denseBlock != null )
+			denseBlock.reshape(rlen, clen);
 	}
 	
 	public int getNumColumns() {
@@ -533,6 +549,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	
 	public void setNumColumns(int c) {
 		clen = c;
+		if( denseBlock != null )
+			denseBlock.reshape(rlen, clen);
 	}
 	
 	public long getNonZeros() {
@@ -617,12 +635,29 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	////////
 	// Data handling
 	
-	public double[] getDenseBlock() {
+	public DenseBlock getDenseBlock() {
 		if( sparse )
 			return null;
 		return denseBlock;
 	}
 	
+	/**
+	 * Get the values of a dense block that is backed by a single array,
+	 * which is the case for all dense blocks up to 2^31-1 cells. Large 
+	 * dense blocks need to be accessed via getDenseBlock(). Operations
+	 * using this accessor are not compiled to CP for large dense blocks
+	 * (see Hop.isLargeDenseBlockSupported), and fail explicitly otherwise.
+	 * 
+	 * @return
+	 */
+	public double[] getDenseBlockValues() {
+		if( sparse || denseBlock == null )
+			return null;
+		if( !denseBlock.isContiguous() )
+			throw new RuntimeException("Unsupported access of large dense block ("+rlen+"x"+clen+") as a single array.");
+		return denseBlock.valuesAt(0);
+	}
+	
 	public SparseBlock getSparseBlock() {
 		if( !sparse )
 			return null;
@@ -706,7 +741,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		{
 			if( denseBlock==null )
 				return 0;
-			return denseBlock[r*clen+c]; 
+			return denseBlock.get(r, c); 
 		}
 	}
 	
@@ -742,10 +777,11 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			allocateDenseBlock(false);
 			
 			//set value and maintain nnz
-			int index=r*clen+c;
-			if( denseBlock[index]==0 )
+			double[] a = denseBlock.values(r);
+			int index = denseBlock.pos(r, c);
+			if( a[index]==0 )
 				nonZeros++;
-			denseBlock[index] = v;
+			a[index] = v;
 			if( v==0 )
 				nonZeros--;
 		}
@@ -755,7 +791,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	{
 		if(denseBlock==null)
 			return 0;
-		return denseBlock[r*clen+c]; 
+		return denseBlock.get(r, c); 
 	}
 	
 
@@ -766,7 +802,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 */	
 	public void setValueDenseUnsafe(int r, int c, double v) 
 	{
-		denseBlock[r*clen+c]=v;		
+		denseBlock.set(r, c, v);
 	}
 	
 	public double getValueSparseUnsafe(int r, int c) 
@@ -796,7 +832,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			allocateDenseBlock(false);
 			
 			//set value and maintain nnz
-			denseBlock[r*clen+c] = v;
+			denseBlock.set(r, c, v);
 			nonZeros++;
 		}
 		else //SPARSE
@@ -869,12 +905,14 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else //SPARSE <- DENSE
 		{
+			DenseBlock b = that.denseBlock;
 			for( int i=0; i<that.rlen; i++ )
 			{
 				int aix = rowoffset+i;
-				for( int j=0, bix=i*that.clen; j<that.clen; j++ )
+				double[] bvals = b.values(i);
+				for( int j=0, bix=b.pos(i); j<that.clen; j++ )
 				{
-					double val = that.denseBlock[bix+j];
+					double val = bvals[bix+j];
 					if( val != 0 ) {
 						//create sparserow only if required
 						sparseBlock.allocate(aix, estimatedNNzsPerRow,clen);
@@ -1190,17 +1228,19 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		reset();
 		
 		//copy dense to sparse
-		double[] a = denseBlock;
+		DenseBlock a = denseBlock;
 		SparseBlock c = sparseBlock;
 		
-		for( int i=0, aix=0; i<rlen; i++ )
-			for(int j=0; j<clen; j++, aix++)
-				if( a[aix] != 0 ) {
+		for( int i=0; i<rlen; i++ ) {
+			double[] avals = a.values(i);
+			for(int j=0, aix=a.pos(i); j<clen; j++, aix++)
+				if( avals[aix] != 0 ) {
 					//create sparse row only if required
 					c.allocate(i, estimatedNNzsPerRow, clen);
-					c.append(i, j, a[aix]);
+					c.append(i, j, avals[aix]);
 					nonZeros++;
 				}
+		}
 				
 		//cleanup dense block
 		denseBlock = null;
@@ -1220,28 +1260,25 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		if(sparseBlock==null)
 			return;
 		
-		int limit=rlen*clen;
-		if ( limit < 0 ) {
-			throw new DMLRuntimeException("Unexpected error in sparseToDense().. limit < 0: " + rlen + ", " + clen + ", " + limit);
-		}
-		
 		//allocate dense target block, but keep nnz (no need to maintain)
 		allocateDenseBlock(false);
-		Arrays.fill(denseBlock, 0, limit, 0);
+		denseBlock.reset();
 		
 		//copy sparse to dense
 		SparseBlock a = sparseBlock;
-		double[] c = denseBlock;
+		DenseBlock c = denseBlock;
 		
-		for( int i=0, cix=0; i<rlen; i++, cix+=clen)
+		for( int i=0; i<rlen; i++ )
 			if( !a.isEmpty(i) ) {
 				int apos = a.pos(i);
 				int alen = a.size(i);
 				int[] aix = a.indexes(i);
 				double[] avals = a.values(i);
+				double[] cvals = c.values(i);
+				int cix = c.pos(i);
 				for(int j=apos; j<apos+alen; j++)
 					if( avals[j] != 0 )
-						c[ cix+aix[j] ] = avals[j];
+						cvals[ cix+aix[j] ] = avals[j];
 			}
 		
 		//cleanup sparse rows
@@ -1260,14 +1297,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			//note: rlen might be <= sparseBlock.numRows()
 			nonZeros = sparseBlock.size(0, rlen);
 		}
-		else if( !sparse && denseBlock!=null ) //DENSE (max int)
+		else if( !sparse && denseBlock!=null ) //DENSE
 		{
-			double[] a = denseBlock;
-			final int limit=rlen*clen;
-			int nnz = 0;
-			for(int i=0; i<limit; i++)
-				nnz += (a[i]!=0) ? 1 : 0;
-			nonZeros = nnz;
+			nonZeros = denseBlock.countNonZeros();
 		}
 	}
 	
@@ -1301,21 +1333,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			}
 			return nnz;
 		}
-		else if( !sparse && denseBlock!=null ) //DENSE (max int)
+		else if( !sparse && denseBlock!=null ) //DENSE
 		{
-			double[] a = denseBlock;
-			final int n = clen;
-			int nnz = 0;
-			if( cl==0 && cu==n-1 ) { //specific case: all cols
-				for( int i=rl*n; i<(ru+1)*n; i++ )
-					nnz += (a[i]!=0) ? 1 : 0;
-			}
-			else {
-				for( int i=rl, ix=rl*n; i<=ru; i++, ix+=n )
-					for( int j=cl; j<=cu; j++ )
-						nnz += (a[ix+j]!=0) ? 1 : 0;
-			}
-			return nnz;
+			return denseBlock.countNonZeros(rl, ru+1, cl, cu+1);
 		}
 		
 		return 0; //empty block
@@ -1370,6 +1390,16 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	{
 		MatrixBlock that = checkType(thatValue);
 		
+		//copy of compressed blocks into uncompressed representation
+		if( that instanceof CompressedMatrixBlock && ((CompressedMatrixBlock)that).isCompressed() ) {
+			try {
+				that = ((CompressedMatrixBlock)that).decompress();
+			}
+			catch(DMLRuntimeException ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+		
 		if( this == that ) //prevent data loss (e.g., on sparse-dense conversion)
 			throw new RuntimeException( "Copy must not overwrite itself!" );
 		
@@ -1410,13 +1440,12 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	private void copyDenseToDense(MatrixBlock that)
 	{
 		nonZeros = that.nonZeros;
-		int limit = rlen*clen;
 		
 		//plain reset to 0 for empty input
 		if( that.isEmptyBlock(false) )
 		{
 			if(denseBlock!=null)
-				Arrays.fill(denseBlock, 0, limit, 0);
+				denseBlock.reset(rlen, clen);
 			return;
 		}
 		
@@ -1424,7 +1453,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		allocateDenseBlock(false);
 		
 		//actual copy 
-		System.arraycopy(that.denseBlock, 0, denseBlock, 0, limit);
+		denseBlock.set(that.denseBlock);
 	}
 	
 	private void copySparseToDense(MatrixBlock that)
@@ -1433,15 +1462,14 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		if( that.isEmptyBlock(false) )
 		{
 			if(denseBlock!=null)
-				Arrays.fill(denseBlock, 0);
+				denseBlock.reset(rlen, clen);
 			return;
 		}
 		
 		//allocate and init dense block (w/o overwriting nnz)
 		allocateDenseBlock(false);
 		
-		int start=0;
-		for(int r=0; r<Math.min(that.sparseBlock.numRows(), rlen); r++, start+=clen)
+		for(int r=0; r<Math.min(that.sparseBlock.numRows(), rlen); r++)
 		{
 			if(that.sparseBlock.isEmpty(r)) 
 				continue;
@@ -1449,9 +1477,11 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			int len = that.sparseBlock.size(r);
 			int[] aix = that.sparseBlock.indexes(r);
 			double[] avals = that.sparseBlock.values(r);
+			double[] c = denseBlock.values(r);
+			int start = denseBlock.pos(r);
 			
 			for(int i=pos; i<pos+len; i++) {
-				denseBlock[start+aix[i]]=avals[i];
+				c[start+aix[i]]=avals[i];
 			}
 		}
 	}
@@ -1467,13 +1497,15 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		
 		allocateSparseRowsBlock(false);
 	
-		for(int i=0, ix=0; i<rlen; i++)
+		DenseBlock a = that.denseBlock;
+		for(int i=0; i<rlen; i++)
 		{			
 			sparseBlock.reset(i, estimatedNNzsPerRow, clen);
+			double[] avals = a.values(i);
 			
-			for(int j=0; j<clen; j++)
+			for(int j=0, ix=a.pos(i); j<clen; j++)
 			{
-				double val = that.denseBlock[ix++];
+				double val = avals[ix++];
 				if( val != 0 ) {
 					//create sparse row only if required
 					sparseBlock.allocate(i, estimatedNNzsPerRow, clen);
@@ -1598,7 +1630,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 
 		//copy values
 		SparseBlock a = src.sparseBlock;
-		for( int i=0, ix=rl*clen; i<src.rlen; i++, ix+=clen )
+		DenseBlock c = denseBlock;
+		for( int i=0; i<src.rlen; i++ )
 		{	
 			if( !a.isEmpty(i) )
 			{
@@ -1606,9 +1639,11 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				int alen = a.size(i);
 				int[] aix = a.indexes(i);
 				double[] avals = a.values(i);
+				double[] cvals = c.values(rl+i);
+				int ix = c.pos(rl+i);
 				
 				for( int j=apos; j<apos+alen; j++ )
-					denseBlock[ix+cl+aix[j]] = avals[j];
+					cvals[ix+cl+aix[j]] = avals[j];
 				
 				if(awareDestNZ)
 					nonZeros += alen;
@@ -1631,14 +1666,17 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		
 		//copy values
 		SparseBlock a = sparseBlock;
-		for( int i=0, ix=0; i<src.rlen; i++, ix+=src.clen )
+		DenseBlock b = src.denseBlock;
+		for( int i=0; i<src.rlen; i++ )
 		{
 			int rix = rl + i;
+			double[] bvals = b.values(i);
+			int ix = b.pos(i);
 			if( a instanceof SparseBlockMCSR 
 				&& a.isEmpty(rix) ) //special case MCSR append
 			{
 				for( int j=0; j<src.clen; j++ ) {
-					double val = src.denseBlock[ix+j];
+					double val = bvals[ix+j];
 					if( val != 0 ) {
 						a.allocate(rix, estimatedNNzsPerRow, clen);
 						a.append(rix, cl+j, val); 
@@ -1652,18 +1690,18 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			{
 				int lnnz = a.size(rix);
 				if( cl==cu ) {
-					double val = src.denseBlock[ix];
+					double val = bvals[ix];
 					a.set(rix, cl, val);
 				}
 				else {
-					a.setIndexRange(rix, cl, cu+1, src.denseBlock, ix, src.clen);
+					a.setIndexRange(rix, cl, cu+1, bvals, ix, src.clen);
 				}
 				nonZeros += (a.size(rix) - lnnz);
 			}	
 			else //general case (w/o awareness NNZ)
 			{
 				for( int j=0; j<src.clen; j++ ) {
-					double val = src.denseBlock[ix+j];
+					double val = bvals[ix+j];
 					if( val != 0 ) 
 						a.set(rix, cl+j, val);
 				}
@@ -1691,12 +1729,14 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			nonZeros = nonZeros - recomputeNonZeros(rl, ru, cl, cu) + src.nonZeros;
 		
 		//copy values
-		int rowLen = cu-cl+1;				
-		if(clen == src.clen) //optimization for equal width
-			System.arraycopy(src.denseBlock, 0, denseBlock, rl*clen+cl, src.rlen*src.clen);
+		int rowLen = cu-cl+1;
+		DenseBlock a = src.denseBlock;
+		DenseBlock c = denseBlock;
+		if(clen == src.clen && a.isContiguous() && c.index(rl)==c.index(ru)) //optimization for equal width
+			System.arraycopy(a.valuesAt(0), 0, c.values(rl), c.pos(rl)+cl, src.rlen*src.clen);
 		else
-			for( int i=0, ix1=0, ix2=rl*clen+cl; i<src.rlen; i++, ix1+=src.clen, ix2+=clen ) {
-				System.arraycopy(src.denseBlock, ix1, denseBlock, ix2, rowLen);
+			for( int i=0; i<src.rlen; i++ ) {
+				System.arraycopy(a.values(i), a.pos(i), c.values(rl+i), c.pos(rl+i)+cl, rowLen);
 			}
 	}
 	
@@ -1727,12 +1767,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	
 	private void copyEmptyToDense(int rl, int ru, int cl, int cu)
 	{
-		int rowLen = cu-cl+1;				
-		if(clen == rowLen) //optimization for equal width
-			Arrays.fill(denseBlock, rl*clen+cl, ru*clen+cu+1, 0);
-		else
-			for( int i=rl, ix2=rl*clen+cl; i<=ru; i++, ix2+=clen )
-				Arrays.fill(denseBlock, ix2, ix2+rowLen, 0);
+		denseBlock.set(rl, ru+1, cl, cu+1, 0);
 	}
 
 	public void merge(CacheBlock that, boolean appendOnly) 
@@ -1794,31 +1829,36 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	{
 		if( that.sparse ) //DENSE <- SPARSE
 		{
-			double[] a = denseBlock;
+			DenseBlock a = denseBlock;
 			SparseBlock b = that.sparseBlock;
 			int m = rlen;
-			int n = clen;
 			
-			for( int i=0, aix=0; i<m; i++, aix+=n )
+			for( int i=0; i<m; i++ )
 				if( !b.isEmpty(i) )
 				{
+					double[] avals = a.values(i);
+					int aix = a.pos(i);
 					int bpos = b.pos(i);
 					int blen = b.size(i);
 					int[] bix = b.indexes(i);
 					double[] bval = b.values(i);
 					for( int j=bpos; j<bpos+blen; j++ )
 						if( bval[j] != 0 )
-							a[ aix + bix[j] ] = bval[j];
+							avals[ aix + bix[j] ] = bval[j];
 				}
 		}
 		else //DENSE <- DENSE
 		{
-			double[] a = denseBlock;
-			double[] b = that.denseBlock;
-			int len = rlen * clen;
+			DenseBlock a = denseBlock;
+			DenseBlock b = that.denseBlock;
 			
-			for( int i=0; i<len; i++ )
-				a[i] = ( b[i] != 0 ) ? b[i] : a[i];
+			for( int bi=0; bi<a.numBlocks(); bi++ ) {
+				double[] avals = a.valuesAt(bi);
+				double[] bvals = b.valuesAt(bi);
+				int len = a.size(bi);
+				for( int i=0; i<len; i++ )
+					avals[i] = ( bvals[i] != 0 ) ? bvals[i] : avals[i];
+			}
 		}
 	}
 	
@@ -1866,16 +1906,18 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		else //SPARSE <- DENSE
 		{
 			SparseBlock a = sparseBlock;
-			double[] b = that.denseBlock;
+			DenseBlock b = that.denseBlock;
 			int m = rlen;
 			int n = clen;
 			
-			for( int i=0, bix=0; i<m; i++, bix+=n )
+			for( int i=0; i<m; i++ )
 			{
 				boolean appended = false;
+				double[] bvals = b.values(i);
+				int bix = b.pos(i);
 				for( int j=0; j<n; j++ ) {
-					if( b[bix+j] != 0 ) {
-						appendValue(i, j, b[bix+j]);
+					if( bvals[bix+j] != 0 ) {
+						appendValue(i, j, bvals[bix+j]);
 						appended = true;
 					}
 				}
@@ -1898,6 +1940,21 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		clen = in.readInt();
 		byte bformat = in.readByte();
 		
+		//read block of given type
+		readFields(in, bformat);
+	}
+	
+	/**
+	 * Reads the dense or sparse block of the given type, after the basic
+	 * header (rlen, clen) has been read. 
+	 * 
+	 * @param in
+	 * @param bformat
+	 * @throws IOException
+	 */
+	protected void readFields(DataInput in, byte bformat) 
+		throws IOException 
+	{
 		//check type information
 		if( bformat<0 || bformat>=BlockType.values().length )
 			throw new IOException("invalid format: '"+bformat+"' (need to be 0-"+BlockType.values().length+").");
@@ -1954,28 +2011,35 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	{
 		allocateDenseBlock(true); //allocate block, clear nnz
 		
-		int limit = rlen*clen;
+		//note: large dense blocks are read block by block
+		DenseBlock a = denseBlock;
 		
 		if( in instanceof MatrixBlockDataInput ) //fast deserialize
 		{
 			MatrixBlockDataInput mbin = (MatrixBlockDataInput)in;
-			nonZeros = mbin.readDoubleArray(limit, denseBlock);
+			for( int bix=0; bix<a.numBlocks(); bix++ )
+				nonZeros += mbin.readDoubleArray(a.size(bix), a.valuesAt(bix));
 		}
 		else if( in instanceof DataInputBuffer && MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION ) 
 		{
 			//workaround because sequencefile.reader.next(key, value) does not yet support serialization framework
 			DataInputBuffer din = (DataInputBuffer)in;
 			MatrixBlockDataInput mbin = new FastBufferedDataInputStream(din);
-			nonZeros = mbin.readDoubleArray(limit, denseBlock);			
+			for( int bix=0; bix<a.numBlocks(); bix++ )
+				nonZeros += mbin.readDoubleArray(a.size(bix), a.valuesAt(bix));
 			((FastBufferedDataInputStream)mbin).close();
 		}
 		else //default deserialize
 		{
-			for( int i=0; i<limit; i++ )
-			{
-				denseBlock[i]=in.readDouble();
-				if(denseBlock[i]!=0)
-					nonZeros++;
+			for( int bix=0; bix<a.numBlocks(); bix++ ) {
+				double[] avals = a.valuesAt(bix);
+				int limit = a.size(bix);
+				for( int i=0; i<limit; i++ )
+				{
+					avals[i]=in.readDouble();
+					if(avals[i]!=0)
+						nonZeros++;
+				}
 			}
 		}
 	}
@@ -2027,16 +2091,18 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		throws IOException, DMLRuntimeException 
 	{
 		allocateDenseBlock(false); //allocate block
-		Arrays.fill(denseBlock, 0);
+		denseBlock.reset();
 		
 		for(int r=0; r<rlen; r++)
 		{
 			int nr = in.readInt();
+			double[] a = denseBlock.values(r);
+			int aix = denseBlock.pos(r);
 			for( int j=0; j<nr; j++ )
 			{
 				int c = in.readInt();
 				double val = in.readDouble(); 
-				denseBlock[r*clen+c] = val;
+				a[aix+c] = val;
 			}
 		}
 	}
@@ -2085,7 +2151,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		throws IOException, DMLRuntimeException 
 	{	
 		allocateDenseBlock(false); //allocate block
-		Arrays.fill(denseBlock, 0);
+		denseBlock.reset();
 		
 		if( clen > 1 ) //ULTRA-SPARSE BLOCK
 		{ 
@@ -2094,7 +2160,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				int r = in.readInt();
 				int c = in.readInt();
 				double val = in.readDouble();			
-				denseBlock[r*clen+c] = val;
+				denseBlock.set(r, c, val);
 			}
 		}
 		else //ULTRA-SPARSE COL
@@ -2103,7 +2169,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			for(long i=0; i<nonZeros; i++) {
 				int r = in.readInt();
 				double val = in.readDouble();			
-				denseBlock[r] = val;
+				denseBlock.set(r, 0, val);
 			}
 		}
 	}
@@ -2168,12 +2234,17 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	{
 		out.writeByte( BlockType.DENSE_BLOCK.ordinal() );
 		
-		int limit=rlen*clen;
-		if( out instanceof MatrixBlockDataOutput ) //fast serialize
-			((MatrixBlockDataOutput)out).writeDoubleArray(limit, denseBlock);
-		else //general case (if fast serialize not supported)
-			for(int i=0; i<limit; i++)
-				out.writeDouble(denseBlock[i]);
+		//note: large dense blocks are written block by block
+		DenseBlock a = denseBlock;
+		for( int bix=0; bix<a.numBlocks(); bix++ ) {
+			double[] avals = a.valuesAt(bix);
+			int limit = a.size(bix);
+			if( out instanceof MatrixBlockDataOutput ) //fast serialize
+				((MatrixBlockDataOutput)out).writeDoubleArray(limit, avals);
+			else //general case (if fast serialize not supported)
+				for(int i=0; i<limit; i++)
+					out.writeDouble(avals[i]);
+		}
 	}
 	
 	/**
@@ -2278,7 +2349,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		
 		//write data (from sparse to dense)
 		if( sparseBlock==null ) //empty block
-			for( int i=0; i<rlen*clen; i++ )
+			for( long i=0; i<(long)rlen*clen; i++ )
 				out.writeDouble(0);
 		else //existing sparse block
 		{
@@ -2320,27 +2391,32 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 
 		long wnnz = 0;
 		
+		DenseBlock a = denseBlock;
 		if( clen > 1 ) //ULTRA-SPARSE BLOCK
 		{
 			//block: write ijv-triples
-			for(int r=0, ix=0; r<rlen; r++)
-				for(int c=0; c<clen; c++, ix++)
-					if( denseBlock[ix]!=0 ) {
+			for(int r=0; r<rlen; r++) {
+				double[] avals = a.values(r);
+				for(int c=0, ix=a.pos(r); c<clen; c++, ix++)
+					if( avals[ix]!=0 ) {
 						out.writeInt(r);
 						out.writeInt(c);
-						out.writeDouble(denseBlock[ix]);
+						out.writeDouble(avals[ix]);
 						wnnz++;
 					}
+			}
 		}
 		else //ULTRA-SPARSE COL
 		{
 			//col: write iv-pairs
-			for(int r=0; r<rlen; r++)
-				if( denseBlock[r]!=0 ) {
+			for(int r=0; r<rlen; r++) {
+				double val = a.get(r, 0);
+				if( val!=0 ) {
 					out.writeInt(r);
-					out.writeDouble(denseBlock[r]);
+					out.writeDouble(val);
 					wnnz++;
 				}
+			}
 		}
 		
 		//validity check (nnz must exactly match written nnz)
@@ -2360,21 +2436,23 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		out.writeByte( BlockType.SPARSE_BLOCK.ordinal() ); //block type
 		writeNnzInfo( out, false );
 		
-		int start=0;
+		DenseBlock a = denseBlock;
 		for(int r=0; r<rlen; r++)
 		{
+			double[] avals = a.values(r);
+			int start = a.pos(r);
 			//count nonzeros
 			int nr=0;
 			for(int i=start; i<start+clen; i++)
-				if(denseBlock[i]!=0.0)
+				if(avals[i]!=0.0)
 					nr++;
 			out.writeInt(nr);
 			for(int c=0; c<clen; c++)
 			{
-				if(denseBlock[start]!=0.0)
+				if(avals[start]!=0.0)
 				{
 					out.writeInt(c);
-					out.writeDouble(denseBlock[start]);
+					out.writeDouble(avals[start]);
 				}
 				start++;
 			}
@@ -2924,15 +3002,17 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		{
 			//allocate dense output block
 			ret.allocateDenseBlock();						
-			double[] a = denseBlock;
-			double[] c = ret.denseBlock;
 			
-			//unary op, incl nnz maintenance
-			int len = m*n;
-			for( int i=0; i<len; i++ ) {
-				c[i] = op.fn.execute(a[i]);
-				ret.nonZeros += (c[i] != 0) ? 1 : 0;
-			}			
+			//unary op, incl nnz maintenance (block-wise for large blocks)
+			for( int bix=0; bix<denseBlock.numBlocks(); bix++ ) {
+				double[] a = denseBlock.valuesAt(bix);
+				double[] c = ret.denseBlock.valuesAt(bix);
+				int len = denseBlock.size(bix);
+				for( int i=0; i<len; i++ ) {
+					c[i] = op.fn.execute(a[i]);
+					ret.nonZeros += (c[i] != 0) ? 1 : 0;
+				}
+			}
 		}
 	}
 	
@@ -3024,13 +3104,17 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else
 		{
-			int limit=rlen*clen;
 			nonZeros=0;
-			for(int i=0; i<limit; i++)
+			for( int bix=0; bix<denseBlock.numBlocks(); bix++ )
 			{
-				denseBlock[i]=op.fn.execute(denseBlock[i]);
-				if(denseBlock[i]!=0)
-					nonZeros++;
+				double[] a = denseBlock.valuesAt(bix);
+				int limit = denseBlock.size(bix);
+				for(int i=0; i<limit; i++)
+				{
+					a[i]=op.fn.execute(a[i]);
+					if(a[i]!=0)
+						nonZeros++;
+				}
 			}
 		}
 	}
@@ -3055,13 +3139,16 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				allocateDenseBlock();
 			
 			//compute values in-place and update nnz
-			final int limit = rlen*clen;
-			int lnnz = 0;
-			for( int i=0; i<limit; i++ ) {
-				denseBlock[i] = op.fn.execute(denseBlock[i]);	
-				if( denseBlock[i]!=0 )
-					lnnz++;
-			}		
+			long lnnz = 0;
+			for( int bix=0; bix<denseBlock.numBlocks(); bix++ ) {
+				double[] a = denseBlock.valuesAt(bix);
+				final int limit = denseBlock.size(bix);
+				for( int i=0; i<limit; i++ ) {
+					a[i] = op.fn.execute(a[i]);	
+					if( a[i]!=0 )
+						lnnz++;
+				}
+			}
 			nonZeros = lnnz;
 			
 			//IBM JVM bug (JDK6) causes crash for certain inputs (w/ infinities) 
@@ -3081,7 +3168,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public MatrixValue binaryOperations(BinaryOperator op, MatrixValue thatValue, MatrixValue result) 
 		throws DMLRuntimeException
 	{
-		MatrixBlock that = checkType(thatValue);
+		MatrixBlock that = CompressedMatrixBlock.getUncompressed(checkType(thatValue));
 		MatrixBlock ret = checkType(result);
 		if( !LibMatrixBincell.isValidDimensionsBinary(this, that) ) {
 			throw new RuntimeException("Block sizes are not matched for binary " +
@@ -3113,7 +3200,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public void binaryOperationsInPlace(BinaryOperator op, MatrixValue thatValue) 
 		throws DMLRuntimeException
 	{
-		MatrixBlock that=checkType(thatValue);
+		MatrixBlock that = CompressedMatrixBlock.getUncompressed(checkType(thatValue));
 		if( !LibMatrixBincell.isValidDimensionsBinary(this, that) ) {
 			throw new RuntimeException("block sizes are not matched for binary " +
 					"cell operations: "+this.rlen+"*"+this.clen+" vs "+ that.rlen+"*"+that.clen);
@@ -3640,7 +3727,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				{
 					if( result.isInSparseFormat() ) //SPARSE<-DENSE
 					{
-						double[] a = denseBlock;
+						double[] a = getDenseBlockValues();
 						for( int i=0, aix=0; i<rlen; i++ )
 							for( int j=0; j<clen; j++, aix++ )
 							{
@@ -3652,9 +3739,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 					else //DENSE<-DENSE
 					{
 						result.allocateDenseBlock();
-						Arrays.fill(result.denseBlock, 0);
-						double[] a = denseBlock;
-						double[] c = result.denseBlock;
+						result.denseBlock.reset();
+						double[] a = getDenseBlockValues();
+						double[] c = result.getDenseBlockValues();
 						int n = result.clen;
 						
 						for( int i=0, aix=0; i<rlen; i++ )
@@ -3697,6 +3784,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public MatrixBlock appendOperations( MatrixBlock that, MatrixBlock ret, boolean cbind ) 	
 		throws DMLRuntimeException 
 	{
+		that = CompressedMatrixBlock.getUncompressed(that);
 		MatrixBlock result = checkType( ret );
 		final int m = cbind ? rlen : rlen+that.rlen;
 		final int n = cbind ? clen+that.clen : clen;
@@ -3867,7 +3955,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		throws DMLRuntimeException 
 	{
 		//check input types and dimensions
-		MatrixBlock m2 = checkType(m2Val);
+		MatrixBlock m2 = CompressedMatrixBlock.getUncompressed(checkType(m2Val));
 		MatrixBlock ret1 = checkType(out1Val);
 		MatrixBlock ret2 = checkType(out2Val);
 		
@@ -3913,6 +4001,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			int cl, int cu, MatrixBlock ret, UpdateType update) 
 		throws DMLRuntimeException 
 	{	
+		rhsMatrix = CompressedMatrixBlock.getUncompressed(rhsMatrix);
+		
 		// Check the validity of bounds
 		if ( rl < 0 || rl >= getNumRows() || ru < rl || ru >= getNumRows()
 				|| cl < 0 || cu >= getNumColumns() || cu < cl || cu >= getNumColumns() ) {
@@ -3927,6 +4017,12 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 					(rl+1) +":" + (ru+1) + ", " + (cl+1) + ":" + (cu+1) + "].");
 		}
 		
+		//update in-place of dense block shared by concurrent writers of disjoint ranges
+		if( update == UpdateType.INPLACE_SHARED ) {
+			leftIndexingSharedDense(rhsMatrix, rl, ru, cl, cu);
+			return this;
+		}
+		
 		MatrixBlock result = ret;		
 		boolean sp = estimateSparsityOnLeftIndexing(rlen, clen, nonZeros, 
 				     rhsMatrix.getNumRows(), rhsMatrix.getNumColumns(), rhsMatrix.getNonZeros());
@@ -3996,6 +4092,15 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		throws DMLRuntimeException 
 	{
 		double inVal = scalar.getDoubleValue();
+		
+		//update in-place of dense block shared by concurrent writers of disjoint ranges
+		if( update == UpdateType.INPLACE_SHARED ) {
+			if( sparse || denseBlock == null )
+				throw new DMLRuntimeException("Shared in-place left indexing requires an allocated dense block.");
+			denseBlock.set(rl, cl, inVal);
+			return this;
+		}
+		
 		boolean sp = estimateSparsityOnLeftIndexing(rlen, clen, nonZeros, 1, 1, (inVal!=0)?1:0);
 		
 		if( !update.isInPlace() ) //general case
@@ -4023,6 +4128,37 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		return ret;
 	}
 	
+	/**
+	 * Left indexing into a pre-allocated dense block that is shared by concurrent 
+	 * writers of disjoint index ranges (e.g., parfor workers). In contrast to the
+	 * general in-place update, this neither changes the block representation nor
+	 * maintains the number of non-zeros, which is recomputed once all writers
+	 * finished (see ResultMergeLocalShared). 
+	 * 
+	 * @param src
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 * @throws DMLRuntimeException
+	 */
+	private void leftIndexingSharedDense(MatrixBlock src, int rl, int ru, int cl, int cu) 
+		throws DMLRuntimeException
+	{
+		if( sparse || denseBlock == null )
+			throw new DMLRuntimeException("Shared in-place left indexing requires an allocated dense block.");
+		
+		//note: copy w/o nnz maintenance (awareDestNZ=false), hence explicit zero out
+		if( src.sparse || src.isEmptyBlock(false) )
+			copyEmptyToDense(rl, ru, cl, cu);
+		if( src.isEmptyBlock(false) )
+			return;
+		if( src.sparse )
+			copySparseToDense(rl, ru, cl, cu, src, false);
+		else
+			copyDenseToDense(rl, ru, cl, cu, src, false);
+	}
+	
 	/**
 	 * 
 	 * @param ixrange
@@ -4099,11 +4235,12 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		{
 			//note: always dense dest
 			dest.allocateDenseBlock();
+			double[] c = dest.getDenseBlockValues();
 			for( int i=rl; i<=ru; i++ ) {
 				if( !sparseBlock.isEmpty(i) ) {
 					double val = sparseBlock.get(i, cl);
 					if( val != 0 ) {
-						dest.denseBlock[i-rl] = val;
+						c[i-rl] = val;
 						dest.nonZeros++;
 					}
 				}
@@ -4148,12 +4285,22 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			return;
 		dest.allocateDenseBlock();
 
-		//indexing operation
-		if( cl==cu ) //COLUMN INDEXING
+		//indexing operation (row-wise for large input blocks, 
+		//where the output might be large as well)
+		DenseBlock a = denseBlock;
+		DenseBlock c = dest.denseBlock;
+		if( !a.isContiguous() || !c.isContiguous() ) //LARGE BLOCKS
 		{
+			for( int i=rl; i<=ru; i++ )
+				System.arraycopy(a.values(i), a.pos(i, cl), c.values(i-rl), c.pos(i-rl), cu-cl+1);
+		}
+		else if( cl==cu ) //COLUMN INDEXING
+		{
+			double[] avals = a.valuesAt(0);
+			double[] cvals = c.valuesAt(0);
 			if( clen==1 ) //vector -> vector
 			{
-				System.arraycopy(denseBlock, rl, dest.denseBlock, 0, ru-rl+1);
+				System.arraycopy(avals, rl, cvals, 0, ru-rl+1);
 			}
 			else //matrix -> vector
 			{
@@ -4162,7 +4309,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				//	dest.denseBlock[ix] = denseBlock[i];
 				int len = clen;
 				for( int i=rl*len+cl, ix=0; i<=ru*len+cu; i+=len, ix++ )
-					dest.denseBlock[ix] = denseBlock[i];
+					cvals[ix] = avals[i];
 			}
 		}
 		else // GENERAL RANGE INDEXING
@@ -4170,10 +4317,12 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			//IBM JVM bug (JDK7) causes crash for certain cl/cu values (e.g., divide by zero for 4) 
 			//for(int i = rl, ix1 = rl*clen+cl, ix2=0; i <= ru; i++, ix1+=clen, ix2+=dest.clen) 
 			//	System.arraycopy(denseBlock, ix1, dest.denseBlock, ix2, dest.clen);
+			double[] avals = a.valuesAt(0);
+			double[] cvals = c.valuesAt(0);
 			int len1 = clen;
 			int len2 = dest.clen;
 			for(int i = rl, ix1 = rl*len1+cl, ix2=0; i <= ru; i++, ix1+=len1, ix2+=len2) 
-				System.arraycopy(denseBlock, ix1, dest.denseBlock, ix2, len2);
+				System.arraycopy(avals, ix1, cvals, ix2, len2);
 		}
 		
 		//compute nnz of output (not maintained due to native calls)
@@ -4241,15 +4390,16 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		{
 			if(denseBlock!=null)
 			{
+				double[] a = getDenseBlockValues();
 				int i=((int)range.rowStart)*clen;
 				int r=(int) range.rowStart;
 				for(; r<Math.min(rowCut, range.rowEnd+1); r++)
 				{
 					int c=(int) range.colStart;
 					for(; c<Math.min(colCut, range.colEnd+1); c++)
-						topleft.appendValue(r+normalBlockRowFactor-rowCut, c+normalBlockColFactor-colCut, denseBlock[i+c]);
+						topleft.appendValue(r+normalBlockRowFactor-rowCut, c+normalBlockColFactor-colCut, a[i+c]);
 					for(; c<=range.colEnd; c++)
-						topright.appendValue(r+normalBlockRowFactor-rowCut, c-colCut, denseBlock[i+c]);
+						topright.appendValue(r+normalBlockRowFactor-rowCut, c-colCut, a[i+c]);
 					i+=clen;
 				}
 				
@@ -4257,9 +4407,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				{
 					int c=(int) range.colStart;
 					for(; c<Math.min(colCut, range.colEnd+1); c++)
-						bottomleft.appendValue(r-rowCut, c+normalBlockColFactor-colCut, denseBlock[i+c]);
+						bottomleft.appendValue(r-rowCut, c+normalBlockColFactor-colCut, a[i+c]);
 					for(; c<=range.colEnd; c++)
-						bottomright.appendValue(r-rowCut, c-colCut, denseBlock[i+c]);
+						bottomright.appendValue(r-rowCut, c-colCut, a[i+c]);
 					i+=clen;
 				}
 			}
@@ -4410,13 +4560,14 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		{
 			if(denseBlock!=null)
 			{
+				double[] a = getDenseBlockValues();
 				if(complementary)//if selection
 				{
 					int offset=((int)range.rowStart)*clen;
 					for(int r=(int) range.rowStart; r<=range.rowEnd; r++)
 					{
 						for(int c=(int) range.colStart; c<=range.colEnd; c++)
-							((MatrixBlock) result).appendValue(r, c, denseBlock[offset+c]);
+							((MatrixBlock) result).appendValue(r, c, a[offset+c]);
 						offset+=clen;
 					}
 				}else
@@ -4425,20 +4576,20 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 					int r=0;
 					for(; r<(int)range.rowStart; r++)
 						for(int c=0; c<clen; c++, offset++)
-							((MatrixBlock) result).appendValue(r, c, denseBlock[offset]);
+							((MatrixBlock) result).appendValue(r, c, a[offset]);
 					
 					for(; r<=(int)range.rowEnd; r++)
 					{
 						for(int c=0; c<(int)range.colStart; c++)
-							((MatrixBlock) result).appendValue(r, c, denseBlock[offset+c]);
+							((MatrixBlock) result).appendValue(r, c, a[offset+c]);
 						for(int c=(int)range.colEnd+1; c<clen; c++)
-							((MatrixBlock) result).appendValue(r, c, denseBlock[offset+c]);
+							((MatrixBlock) result).appendValue(r, c, a[offset+c]);
 						offset+=clen;
 					}
 					
 					for(; r<rlen; r++)
 						for(int c=0; c<clen; c++, offset++)
-							((MatrixBlock) result).appendValue(r, c, denseBlock[offset]);
+							((MatrixBlock) result).appendValue(r, c, a[offset]);
 				}
 				
 			}
@@ -4550,6 +4701,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		{
 			if(denseBlock!=null)
 			{
+				double[] a = getDenseBlockValues();
 				int limit=rlen*clen;
 				for(int i=0; i<limit; i++)
 				{
@@ -4557,7 +4709,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 					c=i%clen;
 					tempCellIndex.set(r, c);
 					op.indexFn.execute(tempCellIndex, tempCellIndex);
-					incrementalAggregateUnaryHelp(op.aggOp, result, tempCellIndex.row, tempCellIndex.column, denseBlock[i], buffer);
+					incrementalAggregateUnaryHelp(op.aggOp, result, tempCellIndex.row, tempCellIndex.column, a[i], buffer);
 				}
 			}
 		}
@@ -4704,13 +4856,13 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			else //DENSE
 			{
 				if(denseBlock!=null)
-					for(int i=(rlen-step)*clen; i<rlen*clen; i++)
-						if(denseBlock[i]!=0)
-							this.nonZeros--;
+					this.nonZeros -= denseBlock.countNonZeros(rlen-step, rlen, 0, clen);
 			}
 			
 			//just need to shrink the dimension, the deleted rows won't be accessed
 			rlen -= step;
+			if( denseBlock!=null )
+				denseBlock.reshape(rlen, clen);
 		}
 		
 		//e.g., rowSums, rowsMeans, rowsMaxs, rowsMeans, rowVars
@@ -4741,12 +4893,13 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			{
 				if(this.denseBlock!=null)
 				{
+					double[] a = getDenseBlockValues();
 					//the first row doesn't need to be copied
 					int targetIndex=clen-step;
 					int sourceOffset=clen;
 					this.nonZeros=0;
 					for(int i=0; i<targetIndex; i++)
-						if(denseBlock[i]!=0)
+						if(a[i]!=0)
 							this.nonZeros++;
 					
 					//start from the 2nd row
@@ -4754,7 +4907,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 					{
 						for(int c=0; c<clen-step; c++)
 						{
-							if((denseBlock[targetIndex]=denseBlock[sourceOffset+c])!=0)
+							if((a[targetIndex]=a[sourceOffset+c])!=0)
 								this.nonZeros++;
 							targetIndex++;
 						}
@@ -4764,6 +4917,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			}
 			
 			clen -= step;
+			if( denseBlock!=null )
+				denseBlock.reshape(rlen, clen);
 		}
 	}
 		
@@ -4811,9 +4966,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else if(denseBlock!=null)  //DENSE
 		{
+			double[] a = getDenseBlockValues();
 			//always vector (see check above)
 			for(int i=0; i<rlen; i++)
-				op.fn.execute(cmobj, denseBlock[i]);
+				op.fn.execute(cmobj, a[i]);
 		}
 
 		return cmobj;
@@ -4840,18 +4996,20 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else if(denseBlock!=null) //DENSE
 		{
+			double[] a = getDenseBlockValues();
 			//always vectors (see check above)
 			if( !weights.sparse )
 			{
 				//both dense vectors (default case)
-				if(weights.denseBlock!=null)
+				double[] w = weights.getDenseBlockValues();
+				if(w!=null)
 					for( int i=0; i<rlen; i++ )
-						op.fn.execute(cmobj, denseBlock[i], weights.denseBlock[i]);
+						op.fn.execute(cmobj, a[i], w[i]);
 			}
 			else
 			{
 				for(int i=0; i<rlen; i++) 
-					op.fn.execute(cmobj, denseBlock[i], weights.quickGetValue(i,0) );
+					op.fn.execute(cmobj, a[i], weights.quickGetValue(i,0) );
 			}
 		}
 		
@@ -4879,18 +5037,20 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else if(denseBlock!=null) //DENSE
 		{
+			double[] a = getDenseBlockValues();
 			//always vectors (see check above)
 			if( !that.sparse )
 			{
 				//both dense vectors (default case)
-				if(that.denseBlock!=null)
+				double[] b = that.getDenseBlockValues();
+				if(b!=null)
 					for( int i=0; i<rlen; i++ )
-						op.fn.execute(covobj, denseBlock[i], that.denseBlock[i]);
+						op.fn.execute(covobj, a[i], b[i]);
 			}
 			else
 			{
 				for(int i=0; i<rlen; i++)
-					op.fn.execute(covobj, denseBlock[i], that.quickGetValue(i,0));
+					op.fn.execute(covobj, a[i], that.quickGetValue(i,0));
 			}
 		}
 		
@@ -4923,18 +5083,21 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else if(denseBlock!=null) //DENSE
 		{
+			double[] a = getDenseBlockValues();
 			//always vectors (see check above)
 			if( !that.sparse && !weights.sparse )
 			{
 				//all dense vectors (default case)
-				if(that.denseBlock!=null)
+				double[] b = that.getDenseBlockValues();
+				double[] w = weights.getDenseBlockValues();
+				if(b!=null)
 					for( int i=0; i<rlen; i++ )
-						op.fn.execute(covobj, denseBlock[i], that.denseBlock[i], weights.denseBlock[i]);
+						op.fn.execute(covobj, a[i], b[i], w[i]);
 			}
 			else
 			{
 				for(int i=0; i<rlen; i++)
-					op.fn.execute(covobj, denseBlock[i], that.quickGetValue(i,0), weights.quickGetValue(i,0));
+					op.fn.execute(covobj, a[i], that.quickGetValue(i,0), weights.quickGetValue(i,0));
 			}
 		}
 		
@@ -4942,6 +5105,18 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	}
 
 	public MatrixValue sortOperations(MatrixValue weights, MatrixValue result) throws DMLRuntimeException {
+		return sortOperations(weights, result, 1);
+	}
+	
+	/**
+	 * 
+	 * @param weights
+	 * @param result
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixValue sortOperations(MatrixValue weights, MatrixValue result, int k) throws DMLRuntimeException {
 		boolean wtflag = (weights!=null);
 		
 		MatrixBlock wts= (weights == null ? null : checkType(weights));
@@ -4999,7 +5174,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		
 		// Sort td and tw based on values inside td (ascending sort), incl copy into result
 		SortIndex sfn = SortIndex.getSortIndexFnObject(1, false, false);
-		ReorgOperator rop = new ReorgOperator(sfn);
+		ReorgOperator rop = new ReorgOperator(sfn, k);
 		LibMatrixReorg.reorg(tdw, (MatrixBlock)result, rop);
 		
 		return result;
@@ -5213,6 +5388,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public MatrixValue aggregateBinaryOperations(MatrixValue m1Value, MatrixValue m2Value, MatrixValue result, AggregateBinaryOperator op) 
 		throws DMLRuntimeException
 	{
+		//redirect matrix-vector/vector-matrix multiplications over compressed blocks
+		if( m2Value instanceof CompressedMatrixBlock && ((CompressedMatrixBlock)m2Value).isCompressed() )
+			return ((CompressedMatrixBlock)m2Value).aggregateBinaryOperations(m1Value, m2Value, result, op);
+		
 		//check input types, dimensions, configuration
 		MatrixBlock m1 = checkType(m1Value);
 		MatrixBlock m2 = checkType(m2Value);
@@ -5256,6 +5435,11 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public ScalarObject aggregateTernaryOperations(MatrixBlock m1, MatrixBlock m2, MatrixBlock m3, AggregateBinaryOperator op) 
 		throws DMLRuntimeException
 	{
+		//decompress compressed inputs (ternary aggregates read raw blocks)
+		m1 = CompressedMatrixBlock.getUncompressed(m1);
+		m2 = CompressedMatrixBlock.getUncompressed(m2);
+		m3 = CompressedMatrixBlock.getUncompressed(m3);
+		
 		//check input dimensions and operators
 		if( m1.rlen!=m2.rlen || m1.clen!=m2.clen || (m3!=null && (m2.rlen!=m3.rlen || m2.clen!=m3.clen)) )
 			throw new DMLRuntimeException("Invalid dimensions for aggregate tertiary ("+m1.rlen+"x"+m1.clen+", "+m2.rlen+"x"+m2.clen+", "+m3.rlen+"x"+m3.clen+").");
@@ -5287,6 +5471,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public MatrixBlock  uaggouterchainOperations(MatrixBlock mbLeft, MatrixBlock mbRight, MatrixBlock mbOut, BinaryOperator bOp, AggregateUnaryOperator uaggOp) 
 		throws DMLRuntimeException
 	{
+		mbLeft = CompressedMatrixBlock.getUncompressed(mbLeft);
+		mbRight = CompressedMatrixBlock.getUncompressed(mbRight);
 		double bv[] = DataConverter.convertToDoubleVector(mbRight);
 		int bvi[] = null;
 		
@@ -5494,14 +5680,14 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				ret.sparse = false;
 				ret.allocateDenseBlock();	
 				SparseBlock a = sparseBlock;
-				double[] c = ret.denseBlock;
+				DenseBlock c = ret.denseBlock;
 				
 				//initialize with replacement (since all 0 values, see SPARSITY_TURN_POINT)
-				Arrays.fill(c, replacement); 
+				c.set(replacement); 
 				
 				//overwrite with existing values (via scatter)
 				if( a != null  ) //check for empty matrix
-					for( int i=0, cix=0; i<rlen; i++, cix+=clen )
+					for( int i=0; i<rlen; i++ )
 					{
 						if( !a.isEmpty(i) )
 						{
@@ -5509,27 +5695,35 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 							int alen = a.size(i);
 							int[] aix = a.indexes(i);
 							double[] avals = a.values(i);
+							double[] cvals = c.values(i);
+							int cix = c.pos(i);
 							for( int j=apos; j<apos+alen; j++ )
 								if( avals[ j ] != 0 )
-									c[ cix+aix[j] ] = avals[ j ];
+									cvals[ cix+aix[j] ] = avals[ j ];
 						}
 					}
 			}			
 		}
 		else //DENSE <- DENSE
 		{
-			int mn = ret.rlen * ret.clen;
 			ret.allocateDenseBlock();
-			double[] a = denseBlock;
-			double[] c = ret.denseBlock;
+			DenseBlock a = denseBlock;
+			DenseBlock c = ret.denseBlock;
 			
-			for( int i=0; i<mn; i++ ) 
+			//block-wise processing (equal block layout of input and output)
+			for( int bix=0; bix<a.numBlocks(); bix++ )
 			{
-				double val = a[i];
-				if( val== pattern || (NaNpattern && Double.isNaN(val)) )
-					c[i] = replacement;
-				else
-					c[i] = a[i];
+				double[] avals = a.valuesAt(bix);
+				double[] cvals = c.valuesAt(bix);
+				int len = a.size(bix);
+				for( int i=0; i<len; i++ ) 
+				{
+					double val = avals[i];
+					if( val== pattern || (NaNpattern && Double.isNaN(val)) )
+						cvals[i] = replacement;
+					else
+						cvals[i] = val;
+				}
 			}
 		}
 		
@@ -5554,7 +5748,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			MatrixValue that2Val, CTableMap resultMap, MatrixBlock resultBlock)
 		throws DMLRuntimeException 
 	{
-		MatrixBlock that2 = checkType(that2Val);
+		MatrixBlock that2 = CompressedMatrixBlock.getUncompressed(checkType(that2Val));
 		CTable ctable = CTable.getCTableFnObject();
 		double v2 = scalarThat;
 		
@@ -5678,7 +5872,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			throws DMLRuntimeException 
 	{	
 		//setup ctable computation
-		MatrixBlock that = checkType(thatVal);
+		MatrixBlock that = CompressedMatrixBlock.getUncompressed(checkType(thatVal));
 		CTable ctable = CTable.getCTableFnObject();
 		double w = scalarThat2;
 		
@@ -5747,7 +5941,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public void ternaryOperations(Operator op, MatrixValue thatMatrix, double thatScalar, MatrixBlock resultBlock)
 			throws DMLRuntimeException 
 	{	
-		MatrixBlock that = checkType(thatMatrix);
+		MatrixBlock that = CompressedMatrixBlock.getUncompressed(checkType(thatMatrix));
 		CTable ctable = CTable.getCTableFnObject();
 		double w = thatScalar;
 		
@@ -5784,8 +5978,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public void ternaryOperations(Operator op, MatrixValue thatVal, MatrixValue that2Val, CTableMap resultMap, MatrixBlock resultBlock)
 		throws DMLRuntimeException
 	{	
-		MatrixBlock that = checkType(thatVal);
-		MatrixBlock that2 = checkType(that2Val);
+		MatrixBlock that = CompressedMatrixBlock.getUncompressed(checkType(thatVal));
+		MatrixBlock that2 = CompressedMatrixBlock.getUncompressed(checkType(that2Val));
 		CTable ctable = CTable.getCTableFnObject();
 		
 		//sparse-unsafe ctable execution
@@ -5845,8 +6039,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		
 		//check input data types
 		MatrixBlock X = this;
-		MatrixBlock U = checkType(um);
-		MatrixBlock V = checkType(vm);
+		MatrixBlock U = CompressedMatrixBlock.getUncompressed(checkType(um));
+		MatrixBlock V = CompressedMatrixBlock.getUncompressed(checkType(vm));
 		MatrixBlock R = checkType(out);
 		
 		//prepare intermediates and output
@@ -6192,9 +6386,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		else
 		{
 			if(denseBlock!=null) {
-				for(int i=0, ix=0; i<rlen; i++, ix+=clen) {
+				for(int i=0; i<rlen; i++) {
 					for(int j=0; j<clen; j++) {
-						sb.append(this.denseBlock[ix+j]);
+						sb.append(denseBlock.get(i, j));
 						sb.append("\t");
 					}
 					sb.append("\n");
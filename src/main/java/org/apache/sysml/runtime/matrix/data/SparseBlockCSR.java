@@ -60,6 +60,21 @@ public class SparseBlockCSR extends SparseBlock
 		_size = 0;
 	}
 	
+	/**
+	 * Constructor for existing CSR arrays (without copy).
+	 * 
+	 * @param rowPtr  row pointer array (size: rlen+1)
+	 * @param colInd  column index array (size: >=nnz)
+	 * @param values  value array (size: >=nnz)
+	 * @param nnz     number of non-zeros
+	 */
+	public SparseBlockCSR(int[] rowPtr, int[] colInd, double[] values, int nnz) {
+		_ptr = rowPtr;
+		_indexes = colInd;
+		_values = values;
+		_size = nnz;
+	}
+	
 	/**
 	 * Copy constructor sparse block abstraction. 
 	 */
@@ -150,6 +165,34 @@ public class SparseBlockCSR extends SparseBlock
 		return (long) Math.min(size, Long.MAX_VALUE);
 	}
 	
+	/**
+	 * Get raw access to the underlying array of row pointers,
+	 * e.g., for bulk construction of CSR blocks by readers.
+	 * 
+	 * @return
+	 */
+	public int[] rowPointers() {
+		return _ptr;
+	}
+	
+	/**
+	 * Get raw access to the underlying array of column indexes.
+	 * 
+	 * @return
+	 */
+	public int[] indexes() {
+		return _indexes;
+	}
+	
+	/**
+	 * Get raw access to the underlying array of values.
+	 * 
+	 * @return
+	 */
+	public double[] values() {
+		return _values;
+	}
+	
 	///////////////////
 	//SparseBlock implementation
 
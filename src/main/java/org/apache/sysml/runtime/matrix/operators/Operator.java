@@ -38,4 +38,14 @@ public class Operator implements Serializable
 	{
 		sparseSafe = sparseSafeFlag;
 	}
+	
+	/**
+	 * Returns the degree of parallelism of this operator, 
+	 * which is 1 unless overridden by multi-threaded operators.
+	 * 
+	 * @return
+	 */
+	public int getNumThreads() {
+		return 1;
+	}
 }
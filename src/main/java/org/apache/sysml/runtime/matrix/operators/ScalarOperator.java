@@ -44,6 +44,7 @@ public class ScalarOperator  extends Operator
 	
 	public ValueFunction fn;
 	protected double _constant;
+	private int k = 1; //num threads
 	
 	public ScalarOperator(ValueFunction p, double cst)
 	{
@@ -98,6 +99,14 @@ public class ScalarOperator  extends Operator
 		}
 	}
 	
+	public void setNumThreads(int numThreads) {
+		k = numThreads;
+	}
+	
+	public int getNumThreads(){
+		return k;
+	}
+	
 	public double executeScalar(double in) throws DMLRuntimeException {
 		throw new DMLRuntimeException("executeScalar(): can not be invoked from base class.");
 	}
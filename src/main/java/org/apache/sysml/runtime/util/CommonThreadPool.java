@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Process-wide thread pool for all multi-threaded CP operations (matrix kernels,
+ * parallel readers and writers). Instead of creating and destroying a fixed thread
+ * pool per operation, requests with a degree of parallelism up to the local
+ * parallelism are served by a single, lazily created work-stealing pool. Since
+ * this shared pool never exceeds the number of virtual cores, concurrent requests
+ * from local parfor workers are bounded as well and hence do not oversubscribe
+ * the local machine. Requests with a larger degree of parallelism (e.g., for
+ * latency-bound I/O) fall back to a dedicated fixed thread pool.
+ *
+ * Callers use the returned executor exactly like a private pool, including the
+ * final shutdown, which is a no-op for the shared pool.
+ */
+public class CommonThreadPool implements ExecutorService
+{
+	//shared work-stealing pool (created on first use)
+	private static ForkJoinPool _shared = null;
+	//steal count of the shared pool at the last statistics reset
+	private static long _stealBase = 0;
+
+	private final ExecutorService _pool;
+	private final boolean _isShared;
+
+	private CommonThreadPool(ExecutorService pool, boolean shared) {
+		_pool = pool;
+		_isShared = shared;
+	}
+
+	/**
+	 * Obtains an executor service for the given degree of parallelism.
+	 *
+	 * @param k degree of parallelism
+	 * @return executor service (shared pool or dedicated pool)
+	 */
+	public static ExecutorService get(int k)
+	{
+		if( k <= InfrastructureAnalyzer.getLocalParallelism() ) {
+			Statistics.incrementSharedPoolRequests();
+			return new CommonThreadPool(getSharedPool(), true);
+		}
+
+		Statistics.incrementDedicatedPoolRequests();
+		return new CommonThreadPool(Executors.newFixedThreadPool(k), false);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private static synchronized ForkJoinPool getSharedPool() {
+		if( _shared == null )
+			_shared = new ForkJoinPool(InfrastructureAnalyzer.getLocalParallelism());
+		return _shared;
+	}
+
+	/**
+	 * Gets the number of threads of the shared pool, or 0 if it has not
+	 * been created yet.
+	 *
+	 * @return
+	 */
+	public static synchronized int getSharedPoolSize() {
+		return (_shared != null) ? _shared.getParallelism() : 0;
+	}
+
+	/**
+	 * Gets the number of tasks stolen by idle workers of the shared pool
+	 * since the last reset of the steal count.
+	 *
+	 * @return
+	 */
+	public static synchronized long getSharedPoolSteals() {
+		return (_shared != null) ? _shared.getStealCount() - _stealBase : 0;
+	}
+
+	/**
+	 * Resets the steal count of the shared pool, which is otherwise
+	 * cumulative over the lifetime of the pool (i.e., the JVM).
+	 */
+	public static synchronized void resetSharedPoolSteals() {
+		_stealBase = (_shared != null) ? _shared.getStealCount() : 0;
+	}
+
+	/**
+	 * Shuts down the shared pool; a subsequent request creates a new pool.
+	 */
+	public static synchronized void shutdownShared() {
+		if( _shared != null ) {
+			_shared.shutdown();
+			_shared = null;
+			_stealBase = 0;
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		//the shared pool is never shut down by its users
+		if( !_isShared )
+			_pool.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		if( !_isShared )
+			return _pool.shutdownNow();
+		return new ArrayList<Runnable>();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return _pool.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return _pool.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit)
+		throws InterruptedException
+	{
+		//users of the shared pool synchronize via the returned futures
+		if( _isShared )
+			return true;
+		return _pool.awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		Statistics.incrementPoolTasks(1);
+		return _pool.submit(task);
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		Statistics.incrementPoolTasks(1);
+		return _pool.submit(task, result);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		Statistics.incrementPoolTasks(1);
+		return _pool.submit(task);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+		throws InterruptedException
+	{
+		Statistics.incrementPoolTasks(tasks.size());
+		return _pool.invokeAll(tasks);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+		throws InterruptedException
+	{
+		Statistics.incrementPoolTasks(tasks.size());
+		return _pool.invokeAll(tasks, timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+		throws InterruptedException, ExecutionException
+	{
+		Statistics.incrementPoolTasks(tasks.size());
+		return _pool.invokeAny(tasks);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+		throws InterruptedException, ExecutionException, TimeoutException
+	{
+		Statistics.incrementPoolTasks(tasks.size());
+		return _pool.invokeAny(tasks, timeout, unit);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		Statistics.incrementPoolTasks(1);
+		_pool.execute(command);
+	}
+}
@@ -36,6 +36,10 @@ import org.apache.sysml.lops.LopProperties.ExecType;
 
 public class ConvolutionUtils {
 	
+	// Use fused per-image conv2d, conv2d_backward_filter and conv2d_backward_data instructions in CP 
+	// instead of the im2col/rotate180, matrix multiply and reshape_col/transpose/col2im pipelines
+	public static boolean ALLOW_FUSED_CP_CONVOLUTION = true;
+	
 	public static long getP(long H, long R, long verticalStride, long heightPadding) {
 		long ret = (H + 2 * heightPadding - R) / verticalStride + 1;
 		if(ret <= 0) {
@@ -73,11 +77,10 @@ public class ConvolutionUtils {
 		return false;
 	}
 	
-	public static Lop constructConvolutionBackwardFilterLops(Hop currentHop) throws HopsException, LopsException {
-		ExecType et = ExecType.CP;
+	public static Lop constructConvolutionBackwardFilterLops(Hop currentHop, ExecType et) throws HopsException, LopsException {
 		if(DMLScript.USE_ACCELERATOR)
 			et = ExecType.GPU; // TODO: Add memory estimate checks
-		else
+		else if(!ALLOW_FUSED_CP_CONVOLUTION || et != ExecType.CP)
 			return null;
 		
 		if(currentHop != null && isTranspose(currentHop)) {
@@ -112,7 +115,7 @@ public class ConvolutionUtils {
 	public static Lop constructConvolutionLops(Hop currentHop, ExecType et) throws HopsException, LopsException {
 		if(DMLScript.USE_ACCELERATOR)
 			et = ExecType.GPU; // TODO: Add memory estimate checks
-		else
+		else if(!ALLOW_FUSED_CP_CONVOLUTION || et != ExecType.CP)
 			return null;
 		
 		if(currentHop != null && isConvolutionOp(currentHop, ConvOp.RESHAPE_COL)) {
@@ -141,9 +144,9 @@ public class ConvolutionUtils {
 					long pad_h = currentHop.computeSizeInformation(inputs.get(4));
 					long pad_w = currentHop.computeSizeInformation(inputs.get(5));
 					long P = -1; long Q = -1;
-					if(H > 0 && R > 0 && stride_h > 0 && pad_h > 0)
+					if(H > 0 && R > 0 && stride_h > 0 && pad_h >= 0)
 						P = ConvolutionUtils.getP(H, R, stride_h, pad_h);
-					if(W > 0 && S > 0 && stride_w > 0 && pad_w > 0)
+					if(W > 0 && S > 0 && stride_w > 0 && pad_w >= 0)
 						Q = ConvolutionUtils.getQ(W, S, stride_w, pad_w);
 					long rlen = N;
 					long clen = ConvolutionOp.getExtractedVal(K, P, Q);
@@ -158,7 +161,7 @@ public class ConvolutionUtils {
 	public static Lop constructConvolutionBackwardDataLops(Hop currentHop, ExecType et) throws HopsException, LopsException {
 		if(DMLScript.USE_ACCELERATOR)
 			et = ExecType.GPU; // TODO: Add memory estimate checks
-		else
+		else if(!ALLOW_FUSED_CP_CONVOLUTION || et != ExecType.CP)
 			return null;
 		
 		if(currentHop != null && isConvolutionOp(currentHop, ConvOp.COL2IM)) {
@@ -429,7 +429,7 @@ public class DataConverter
 			else
 			{
 				//memcopy row major representation if at least 1 non-zero
-				System.arraycopy(mb.getDenseBlock(), 0, ret, 0, rows*cols);
+				System.arraycopy(mb.getDenseBlockValues(), 0, ret, 0, rows*cols);
 			}
 		}
 		
@@ -636,7 +636,7 @@ public class DataConverter
 			// special case double schema (without cell-object creation, 
 			// cache-friendly row-column copy)
 			double[][] a = new double[n][];
-			double[] c = mb.getDenseBlock();
+			double[] c = mb.getDenseBlockValues();
 			for( int j=0; j<n; j++ )
 				a[j] = (double[])frame.getColumn(j);			
 			int blocksizeIJ = 16; //blocks of a+overhead/c in L1 cache
@@ -795,7 +795,7 @@ public class DataConverter
 				// col pre-allocation, and cache-friendly row-column copy)
 				int m = mb.getNumRows();
 				int n = mb.getNumColumns();
-				double[] a = mb.getDenseBlock();
+				double[] a = mb.getDenseBlockValues();
 				double[][] c = new double[n][m];
 				int blocksizeIJ = 16; //blocks of a/c+overhead in L1 cache
 				if( !mb.isEmptyBlock(false) )
@@ -117,8 +117,13 @@ public class FastBufferedDataInputStream extends FilterInputStream implements Da
 	}
 
 	@Override
-	public char readChar() throws IOException {
-		throw new IOException("Not supported.");
+	public char readChar() 
+		throws IOException 
+	{
+		readFully(_buff, 0, 2);
+		
+		//2 bytes in big-endian order (see DataInput)
+		return (char)(((_buff[0] & 0xFF) << 8) | (_buff[1] & 0xFF));
 	}
 
 	@Override
@@ -181,7 +181,13 @@ public class FastBufferedDataOutputStream extends FilterOutputStream implements
 
 	@Override
 	public void writeChar(int v) throws IOException {
-		throw new IOException("Not supported.");
+		if (_count+2 > _bufflen) {
+		    flushBuffer();
+		}
+		
+		//2 bytes in big-endian order (see DataOutput)
+		_buff[_count++] = (byte)(v >>> 8);
+		_buff[_count++] = (byte)v;
 	}
 
 	@Override
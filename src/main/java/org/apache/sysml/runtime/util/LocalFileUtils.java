@@ -19,11 +19,15 @@
 
 package org.apache.sysml.runtime.util;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -36,9 +40,14 @@ import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+import org.apache.sysml.runtime.io.BlockCompressedInputStream;
+import org.apache.sysml.runtime.io.BlockCompressedOutputStream;
+import org.apache.sysml.runtime.io.BlockCompressionUtils;
 import org.apache.sysml.runtime.io.IOUtilFunctions;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
@@ -50,6 +59,9 @@ public class LocalFileUtils
 {
 	public static final int BUFFER_SIZE = 8192;
 	
+	//magic number 'SYSMLBLZ' of block-compressed local files
+	public static final long BLOCK_COMPRESSED_MAGIC = 0x5359534D4C424C5AL;
+	
 	//unique IDs per JVM for tmp files
 	private static IDSequence _seq = null;
 	private static String _workingDir = null;
@@ -86,7 +98,70 @@ public class LocalFileUtils
 	
 	/** Reads a matrix/frame block from local file system. */
 	public static CacheBlock readCacheBlockFromLocal(String filePathAndName, boolean matrix) throws IOException {
-		return (CacheBlock) readWritableFromLocal(filePathAndName, matrix?new MatrixBlock():new FrameBlock());
+		//open the file once and probe the format of evicted blocks via its header
+		FileChannel channel = FileChannel.open(Paths.get(filePathAndName), StandardOpenOption.READ);
+		try {
+			if( matrix ) {
+				//probe for mapped format of evicted matrix blocks
+				if( CacheableData.CACHING_MAPPED_FILES && MappedFileUtils.isMappedFormat(channel) )
+					return MappedFileUtils.readMatrixBlock(channel);
+				ByteBuffer header = readLocalFileHeader(channel, 9);
+				//probe for block-compressed matrix blocks (magic number of file header)
+				if( header != null && header.getLong(0) == BLOCK_COMPRESSED_MAGIC )
+					return (CacheBlock) readWritable(channel, filePathAndName, new MatrixBlock(), true);
+				//probe for compressed matrix blocks (block type of stream header)
+				if( header != null && header.get(8) == CompressedMatrixBlock.COMPRESSED_BLOCK )
+					return (CacheBlock) readWritable(channel, filePathAndName, new CompressedMatrixBlock(), false);
+			}
+			return (CacheBlock) readWritable(channel, filePathAndName, matrix?new MatrixBlock():new FrameBlock(), false);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+	
+	/**
+	 * Reads the first len bytes of the given channel (w/o changing its position), 
+	 * e.g., for probing the format of evicted blocks, or returns null if the file 
+	 * is smaller.
+	 * 
+	 * @param channel
+	 * @param len
+	 * @return
+	 * @throws IOException
+	 */
+	private static ByteBuffer readLocalFileHeader(FileChannel channel, int len) 
+		throws IOException 
+	{
+		ByteBuffer buff = ByteBuffer.allocate(len);
+		while( buff.hasRemaining() && channel.read(buff, buff.position()) >= 0 );
+		return !buff.hasRemaining() ? buff : null;
+	}
+	
+	/**
+	 * Reads a writable from the given channel (from its current position), 
+	 * where the caller is responsible for closing the channel.
+	 * 
+	 * @param channel
+	 * @param filePathAndName
+	 * @param ret
+	 * @param compressed
+	 * @return
+	 * @throws IOException
+	 */
+	private static Writable readWritable(FileChannel channel, String filePathAndName, Writable ret, boolean compressed) 
+		throws IOException
+	{
+		InputStream is = Channels.newInputStream(channel);
+		if( compressed ) {
+			//read magic number of file header
+			if( new DataInputStream(is).readLong() != BLOCK_COMPRESSED_MAGIC )
+				throw new IOException("Invalid block-compressed file: "+filePathAndName);
+			is = new BlockCompressedInputStream(is);
+		}
+		ret.readFields(new FastBufferedDataInputStream(is, 
+			compressed ? BlockCompressedOutputStream.BLOCK_SIZE : BUFFER_SIZE));
+		return ret;
 	}
 	
 	/**
@@ -100,17 +175,30 @@ public class LocalFileUtils
 	public static Writable readWritableFromLocal(String filePathAndName, Writable ret)
 		throws IOException
 	{
-		FileInputStream fis = new FileInputStream( filePathAndName );
-		FastBufferedDataInputStream in = new FastBufferedDataInputStream(fis, BUFFER_SIZE);
-		
+		return readWritableFromLocal(filePathAndName, ret, false);
+	}
+	
+	/**
+	 * Reads an arbitrary writable from local file system, where block-compressed files 
+	 * are decompressed block-wise via a buffered reader of the compression block size
+	 * (which allows to decompress directly into the read buffer).
+	 * 
+	 * @param filePathAndName
+	 * @param ret
+	 * @param compressed
+	 * @return
+	 * @throws IOException
+	 */
+	public static Writable readWritableFromLocal(String filePathAndName, Writable ret, boolean compressed)
+		throws IOException
+	{
+		FileChannel channel = FileChannel.open(Paths.get(filePathAndName), StandardOpenOption.READ);
 		try {
-			ret.readFields(in);
+			return readWritable(channel, filePathAndName, ret, compressed);
 		}
 		finally {
-			IOUtilFunctions.closeSilently(in);
+			IOUtilFunctions.closeSilently(channel);
 		}
-			
-		return ret;
 	}
 	
 	/** Writes a matrix block to local file system. */
@@ -125,7 +213,29 @@ public class LocalFileUtils
 	
 	/** Writes a matrix/frame block to local file system. */
 	public static void writeCacheBlockToLocal(String filePathAndName, CacheBlock cb) throws IOException {
-		writeWritableToLocal(filePathAndName, cb);
+		//block-compressed format for compressible matrix blocks if enabled,
+		//mapped format for dense/sparse matrix blocks, stream format otherwise
+		if( cb instanceof MatrixBlock && BlockCompressionUtils.isCompressionEnabled()
+			&& BlockCompressionUtils.isCompressible((MatrixBlock)cb) )
+		{
+			writeWritableToLocal(filePathAndName, cb, true);
+		}
+		else if( CacheableData.CACHING_MAPPED_FILES && cb instanceof MatrixBlock 
+			&& MappedFileUtils.isSupported((MatrixBlock)cb) ) 
+		{
+			FileChannel channel = null;
+			try {
+				channel = FileChannel.open(Paths.get(filePathAndName), StandardOpenOption.CREATE, 
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+				MappedFileUtils.writeMatrixBlock(channel, (MatrixBlock)cb);
+			}
+			finally {
+				IOUtilFunctions.closeSilently(channel);
+			}
+		}
+		else {
+			writeWritableToLocal(filePathAndName, cb);
+		}
 	}
 	
 	/**
@@ -138,15 +248,41 @@ public class LocalFileUtils
 	 */
 	public static void writeWritableToLocal(String filePathAndName, Writable mb)
 		throws IOException
+	{	
+		writeWritableToLocal(filePathAndName, mb, false);
+	}
+	
+	/**
+	 * Writes an arbitrary writable to local file system, where block-compressed files
+	 * consist of a magic number followed by the compressed blocks of the serialized 
+	 * writable. The buffered writer of the compression block size allows to compress 
+	 * directly from the write buffer.
+	 * 
+	 * @param filePathAndName
+	 * @param mb
+	 * @param compress
+	 * @throws IOException
+	 */
+	public static void writeWritableToLocal(String filePathAndName, Writable mb, boolean compress)
+		throws IOException
 	{	
 		FileOutputStream fos = new FileOutputStream( filePathAndName );
-		FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(fos, BUFFER_SIZE);
+		FastBufferedDataOutputStream out = null;
 		
 		try {
+			if( compress ) {
+				//uncompressed magic number, followed by compressed blocks
+				new DataOutputStream(fos).writeLong(BLOCK_COMPRESSED_MAGIC);
+				out = new FastBufferedDataOutputStream(new BlockCompressedOutputStream(fos), 
+					BlockCompressedOutputStream.BLOCK_SIZE);
+			}
+			else
+				out = new FastBufferedDataOutputStream(fos, BUFFER_SIZE);
 			mb.write(out);
 		}
 		finally {
 			IOUtilFunctions.closeSilently(out);
+			IOUtilFunctions.closeSilently(fos);
 		}	
 	}
 	
@@ -173,6 +309,32 @@ public class LocalFileUtils
 		}
 	}
 
+	/**
+	 * Writes a byte serialized matrix block in block-compressed format,
+	 * which is read via readCacheBlockFromLocal.
+	 * 
+	 * @param filePathAndName
+	 * @param data
+	 * @throws IOException
+	 */
+	public static void writeCompressedByteArrayToLocal( String filePathAndName, byte[] data )
+		throws IOException
+	{
+		FileOutputStream fos = new FileOutputStream( filePathAndName );
+		BlockCompressedOutputStream out = null;
+		
+		try {
+			//uncompressed magic number, followed by compressed blocks
+			new DataOutputStream(fos).writeLong(BLOCK_COMPRESSED_MAGIC);
+			out = new BlockCompressedOutputStream(fos);
+			out.write(data, 0, data.length);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(out);
+			IOUtilFunctions.closeSilently(fos);
+		}
+	}
+
 	/**
 	 * 
 	 * @param filePathAndName
@@ -6,9 +6,9 @@
  * to you under the Apache License, Version 2.0 (the
  * "License"); you may not use this file except in compliance
  * with the License.  You may obtain a copy of the License at
- * 
+ *
  *   http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
@@ -17,9 +17,11 @@
  * under the License.
  */
 
+
 package org.apache.sysml.runtime.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * This native long long - double hashmap is specifically designed for
@@ -28,19 +30,34 @@ import java.util.ArrayList;
  * to be more memory-efficient which is important for large maps in order
  * to keep data in the caches and prevent high-latency random memory access. 
  * 
+ * The map uses open addressing with linear probing over parallel arrays of 
+ * keys and values, i.e., it does not create any objects per entry. Since
+ * ctable keys are always positive, Long.MIN_VALUE is reserved as marker of 
+ * empty slots and hence not a valid key1.
+ * 
  */
 public class LongLongDoubleHashMap 
 {
 	private static final int INIT_CAPACITY = 8;
 	private static final int RESIZE_FACTOR = 2;
 	private static final float LOAD_FACTOR = 0.75f;
+	private static final long EMPTY = Long.MIN_VALUE;
 
-	private LLDoubleEntry[] data = null;
+	private long[] keys1 = null;
+	private long[] keys2 = null;
+	private double[] values = null;
 	private int size = -1;
 	
-	public LongLongDoubleHashMap()
-	{
-		data = new LLDoubleEntry[INIT_CAPACITY];
+	public LongLongDoubleHashMap() {
+		this(INIT_CAPACITY);
+	}
+	
+	public LongLongDoubleHashMap(int capacity) {
+		//round up to power of two, which is required for index computation
+		int len = INIT_CAPACITY;
+		while( len < capacity/LOAD_FACTOR && len <= Integer.MAX_VALUE/RESIZE_FACTOR )
+			len *= RESIZE_FACTOR;
+		allocate(len);
 		size = 0;
 	}
 
@@ -56,70 +73,105 @@ public class LongLongDoubleHashMap
 	 */
 	public void addValue(long key1, long key2, double value)
 	{
-		//compute entry index position
-		int hash = hash(key1, key2);
-		int ix = indexFor(hash, data.length);
-
-		//find existing entry and add value
-		for( LLDoubleEntry e = data[ix]; e!=null; e = e.next ) {
-			if( e.key1==key1 && e.key2==key2 ) {
-				e.value += value;
+		//probe for existing entry or first empty slot
+		int mask = keys1.length-1;
+		int ix = hash(key1, key2) & mask;
+		while( keys1[ix] != EMPTY ) {
+			if( keys1[ix]==key1 && keys2[ix]==key2 ) {
+				values[ix] += value;
 				return; //no need to append or resize
 			}
+			ix = (ix+1) & mask;
 		}
 		
 		//add non-existing entry (constant time)
-		LLDoubleEntry enew = new LLDoubleEntry(key1, key2, value);
-		enew.next = data[ix]; //colliding entries / null
-		data[ix] = enew;
+		if( size >= mask )
+			throw new RuntimeException("Maximum capacity of long-long-double hashmap exceeded: "+size);
+		keys1[ix] = key1;
+		keys2[ix] = key2;
+		values[ix] = value;
 		size++;
 		
 		//resize if necessary
-		if( size >= LOAD_FACTOR*data.length )
+		if( size >= LOAD_FACTOR*keys1.length )
 			resize();
 	}
 	
+	/**
+	 * Adds all entries of the given map to this map, 
+	 * which is used for merging partial ctable results.
+	 * 
+	 * @param that
+	 */
+	public void merge(LongLongDoubleHashMap that) 
+	{
+		long[] tkeys1 = that.keys1;
+		long[] tkeys2 = that.keys2;
+		double[] tvalues = that.values;
+		for( int i=0; i<tkeys1.length; i++ )
+			if( tkeys1[i] != EMPTY )
+				addValue(tkeys1[i], tkeys2[i], tvalues[i]);
+	}
+	
+	/**
+	 * Obtain a cursor over all entries of the map, which allows 
+	 * to iterate over all entries without object creation per entry.
+	 * 
+	 * @return
+	 */
+	public LLDoubleCursor getCursor() {
+		return new LLDoubleCursor();
+	}
+	
 	/**
 	 * 
 	 * @return
 	 */
 	public ArrayList<LLDoubleEntry> extractValues()
 	{
-		ArrayList<LLDoubleEntry> ret = new ArrayList<LLDoubleEntry>();
-		for( LLDoubleEntry e : data ) {
-			if( e != null ) {
-				while( e.next!=null ) {
-					ret.add(e);
-					e = e.next;
-				}
-				ret.add(e);	
-			}
-		}
+		ArrayList<LLDoubleEntry> ret = new ArrayList<LLDoubleEntry>(size);
+		for( int i=0; i<keys1.length; i++ )
+			if( keys1[i] != EMPTY )
+				ret.add(new LLDoubleEntry(keys1[i], keys2[i], values[i]));
 
 		return ret;
 	}
 	
+	/**
+	 * 
+	 * @param len
+	 */
+	private void allocate(int len) {
+		keys1 = new long[len];
+		keys2 = new long[len];
+		values = new double[len];
+		Arrays.fill(keys1, EMPTY);
+	}
+	
 	/**
 	 * 
 	 */
 	private void resize() {
 		//check for integer overflow on resize
-		if( data.length > Integer.MAX_VALUE/RESIZE_FACTOR )
+		if( keys1.length > Integer.MAX_VALUE/RESIZE_FACTOR )
 			return;
 		
-		//resize data array and copy existing contents
-		LLDoubleEntry[] olddata = data;
-		data = new LLDoubleEntry[data.length*RESIZE_FACTOR];
-		size = 0;
+		//resize data arrays and copy existing contents
+		long[] okeys1 = keys1;
+		long[] okeys2 = keys2;
+		double[] ovalues = values;
+		allocate(okeys1.length*RESIZE_FACTOR);
 		
-		//rehash all entries
-		for( LLDoubleEntry e : olddata ) {
-			if( e != null ) {
-				while( e.next!=null ) {
-					addValue(e.key1, e.key2, e.value);
-					e = e.next;
-				}
-				addValue(e.key1, e.key2, e.value);	
+		//rehash all entries (w/o duplicate checks)
+		int mask = keys1.length-1;
+		for( int i=0; i<okeys1.length; i++ ) {
+			if( okeys1[i] != EMPTY ) {
+				int ix = hash(okeys1[i], okeys2[i]) & mask;
+				while( keys1[ix] != EMPTY )
+					ix = (ix+1) & mask;
+				keys1[ix] = okeys1[i];
+				keys2[ix] = okeys2[i];
+				values[ix] = ovalues[i];
 			}
 		}
 	}
@@ -131,25 +183,37 @@ public class LongLongDoubleHashMap
 	 * @return
 	 */
 	private static int hash(long key1, long key2) {
-		//basic hash mixing of two longs hashes (w/o object creation)
-		int h = (int)(key1 ^ (key1 >>> 32));
-		h = h*31 + (int)(key2 ^ (key2 >>> 32));
-		
-		// This function ensures that hashCodes that differ only by
-		// constant multiples at each bit position have a bounded
-		// number of collisions (approximately 8 at default load factor).
-		h ^= (h >>> 20) ^ (h >>> 12);
-		return h ^ (h >>> 7) ^ (h >>> 4);
+		//multiplicative hash mixing of two longs (w/o object creation),
+		//which spreads consecutive keys as required for linear probing
+		long h = (key1 * 31 + key2) * 0x9E3779B97F4A7C15L;
+		int h2 = (int)(h ^ (h >>> 32));
+		return h2 ^ (h2 >>> 16);
 	}
-
+	
 	/**
-	 * 
-	 * @param h
-	 * @param length
-	 * @return
+	 * Cursor over all non-empty slots of the map.
 	 */
-	private static int indexFor(int h, int length) {
-		return h & (length-1);
+	public class LLDoubleCursor {
+		private int pos = -1;
+		
+		public boolean next() {
+			while( ++pos < keys1.length )
+				if( keys1[pos] != EMPTY )
+					return true;
+			return false;
+		}
+		
+		public long getKey1() {
+			return keys1[pos];
+		}
+		
+		public long getKey2() {
+			return keys2[pos];
+		}
+		
+		public double getValue() {
+			return values[pos];
+		}
 	}
 	
 	/**
@@ -159,13 +223,11 @@ public class LongLongDoubleHashMap
 		public long key1 = Long.MAX_VALUE;
 		public long key2 = Long.MAX_VALUE;
 		public double value = Double.MAX_VALUE;
-		public LLDoubleEntry next = null;
 		
 		public LLDoubleEntry(long k1, long k2, double val) {
 			key1 = k1;
 			key2 = k2;
 			value = val;
-			next = null;
 		}
 	}
 }
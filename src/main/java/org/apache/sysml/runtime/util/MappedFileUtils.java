@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCOO;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.matrix.data.SparseBlockFactory;
+import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
+import org.apache.sysml.runtime.matrix.data.SparseRow;
+
+/**
+ * Local file format for evicted matrix blocks, which stores the raw dense or
+ * CSR arrays in native byte order at page-aligned offsets. In contrast to the
+ * stream format of MatrixBlock.write, restores map the file regions via
+ * FileChannel.map and copy the arrays in bulk (without per-value deserialization
+ * and intermediate buffers). Since matrix blocks are backed by java arrays, the
+ * mapped regions are copied once into the allocated arrays.
+ *
+ * Layout: header page [magic, sparse, type, rlen, clen, nnz], followed by
+ * the dense values, or the CSR row pointers, column indexes and values,
+ * each starting at a page boundary.
+ *
+ */
+public class MappedFileUtils
+{
+	//magic number 'SYSMLMAP' (not a valid first byte of the stream format)
+	public static final long MAGIC = 0x5359534D4C4D4150L;
+
+	private static final int PAGE_SIZE = 4096;
+	private static final int BUFFER_SIZE = 1024*1024;
+	private static final int MAX_MAP_SIZE = 1024*1024*1024; //max region per map
+
+	/**
+	 * Indicates if the given matrix block is supported by the mapped format,
+	 * which excludes empty blocks, compressed blocks, and sparse blocks with 
+	 * more than Integer.MAX_VALUE non-zeros (limit of CSR).
+	 *
+	 * @param mb
+	 * @return
+	 */
+	public static boolean isSupported( MatrixBlock mb ) {
+		if( mb instanceof CompressedMatrixBlock && ((CompressedMatrixBlock)mb).isCompressed() )
+			return false;
+		return !mb.isEmptyBlock(false)
+			&& (mb.isInSparseFormat() ? mb.getSparseBlock() != null
+				&& mb.getNonZeros() <= Integer.MAX_VALUE : mb.getDenseBlock() != null);
+	}
+
+	/**
+	 * Indicates if the given file channel (at position 0) is in mapped format.
+	 *
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	public static boolean isMappedFormat( FileChannel channel )
+		throws IOException
+	{
+		if( channel.size() < PAGE_SIZE )
+			return false;
+		ByteBuffer buff = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+		while( buff.hasRemaining() && channel.read(buff, buff.position()) >= 0 );
+		buff.flip();
+		return buff.getLong() == MAGIC;
+	}
+
+	/**
+	 *
+	 * @param channel
+	 * @param mb
+	 * @throws IOException
+	 */
+	public static void writeMatrixBlock( FileChannel channel, MatrixBlock mb )
+		throws IOException
+	{
+		ChannelWriter out = new ChannelWriter(channel);
+		boolean sparse = mb.isInSparseFormat();
+		int rlen = mb.getNumRows();
+		int clen = mb.getNumColumns();
+
+		//compute row pointers of sparse blocks (any sparse block as CSR)
+		int[] ptr = null;
+		if( sparse ) {
+			SparseBlock a = mb.getSparseBlock();
+			ptr = new int[rlen+1];
+			for( int i=0; i<rlen; i++ )
+				ptr[i+1] = ptr[i] + (a.isEmpty(i) ? 0 : a.size(i));
+		}
+
+		//write header page
+		out.writeLong(MAGIC);
+		out.writeInt(sparse ? 1 : 0);
+		out.writeInt(sparse ? getSparseBlockType(mb.getSparseBlock()).ordinal() : 0);
+		out.writeInt(rlen);
+		out.writeInt(clen);
+		out.writeLong(sparse ? ptr[rlen] : mb.getNonZeros());
+		out.align();
+
+		if( !sparse ) { //DENSE
+			DenseBlock a = mb.getDenseBlock();
+			for( int bix=0; bix<a.numBlocks(); bix++ )
+				out.writeDoubles(a.valuesAt(bix), 0, a.size(bix));
+		}
+		else { //SPARSE
+			SparseBlock a = mb.getSparseBlock();
+			out.writeInts(ptr, 0, rlen+1);
+			out.align();
+
+			//column indexes and values
+			for( int i=0; i<rlen; i++ )
+				if( !a.isEmpty(i) )
+					out.writeInts(a.indexes(i), a.pos(i), a.size(i));
+			out.align();
+			for( int i=0; i<rlen; i++ )
+				if( !a.isEmpty(i) )
+					out.writeDoubles(a.values(i), a.pos(i), a.size(i));
+		}
+
+		out.flush();
+	}
+
+	/**
+	 *
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatrixBlock readMatrixBlock( FileChannel channel )
+		throws IOException
+	{
+		//read header page
+		MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0, PAGE_SIZE);
+		header.order(ByteOrder.nativeOrder());
+		if( header.getLong() != MAGIC )
+			throw new IOException("Invalid mapped file format.");
+		boolean sparse = (header.getInt() == 1);
+		SparseBlock.Type stype = SparseBlock.Type.values()[header.getInt()];
+		int rlen = header.getInt();
+		int clen = header.getInt();
+		long nnz = header.getLong();
+		long pos = PAGE_SIZE;
+
+		MatrixBlock ret = null;
+		if( !sparse ) { //DENSE
+			ret = new MatrixBlock(rlen, clen, false);
+			ret.allocateDenseBlock();
+			DenseBlock c = ret.getDenseBlock();
+			for( int bix=0; bix<c.numBlocks(); bix++ ) {
+				readDoubles(channel, pos, c.valuesAt(bix), c.size(bix));
+				pos += 8L * c.size(bix);
+			}
+			ret.setNonZeros(nnz);
+		}
+		else { //SPARSE (restore original sparse block type)
+			int[] ptr = new int[rlen+1];
+			readInts(channel, pos, ptr, rlen+1);
+			pos = align(pos + 4L*(rlen+1));
+			long pos2 = align(pos + 4L*nnz);
+			SparseBlock sblock = null;
+			if( stype == SparseBlock.Type.MCSR ) {
+				//read rows directly into sparse rows of exact size
+				SparseRow[] rows = new SparseRow[rlen];
+				ChannelReader in1 = new ChannelReader(channel, pos, 4L*nnz);
+				ChannelReader in2 = new ChannelReader(channel, pos2, 8L*nnz);
+				for( int i=0; i<rlen; i++ ) {
+					int alen = ptr[i+1] - ptr[i];
+					if( alen == 0 )
+						continue;
+					rows[i] = new SparseRow(alen);
+					in1.readInts(rows[i].indexes(), 0, alen);
+					in2.readDoubles(rows[i].values(), 0, alen);
+					rows[i].setSize(alen);
+				}
+				sblock = new SparseBlockMCSR(rows, false);
+			}
+			else {
+				//read csr arrays, and convert to other types (e.g., COO)
+				int[] ix = new int[(int)nnz];
+				double[] vals = new double[(int)nnz];
+				readInts(channel, pos, ix, (int)nnz);
+				readDoubles(channel, pos2, vals, (int)nnz);
+				sblock = SparseBlockFactory.copySparseBlock(
+					stype, new SparseBlockCSR(ptr, ix, vals, (int)nnz), false);
+			}
+			ret = new MatrixBlock(rlen, clen, nnz, sblock);
+		}
+
+		return ret;
+	}
+
+	/**
+	 *
+	 * @param sblock
+	 * @return
+	 */
+	private static SparseBlock.Type getSparseBlockType( SparseBlock sblock ) {
+		return (sblock instanceof SparseBlockCSR) ? SparseBlock.Type.CSR :
+			(sblock instanceof SparseBlockCOO) ? SparseBlock.Type.COO :
+			SparseBlock.Type.MCSR;
+	}
+
+	/**
+	 *
+	 * @param pos
+	 * @return
+	 */
+	private static long align( long pos ) {
+		return (pos + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+	}
+
+	/**
+	 *
+	 * @param channel
+	 * @param pos
+	 * @param c
+	 * @param len
+	 * @throws IOException
+	 */
+	private static void readDoubles( FileChannel channel, long pos, double[] c, int len )
+		throws IOException
+	{
+		new ChannelReader(channel, pos, 8L*len).readDoubles(c, 0, len);
+	}
+
+	/**
+	 *
+	 * @param channel
+	 * @param pos
+	 * @param c
+	 * @param len
+	 * @throws IOException
+	 */
+	private static void readInts( FileChannel channel, long pos, int[] c, int len )
+		throws IOException
+	{
+		new ChannelReader(channel, pos, 4L*len).readInts(c, 0, len);
+	}
+	
+	/**
+	 * Sequential reader of primitive arrays in native byte order from 
+	 * a region of a file channel, which maps and copies the region in 
+	 * chunks of bounded size (multiples of the value sizes).
+	 */
+	private static class ChannelReader
+	{
+		private final FileChannel _channel;
+		private final long _end;
+		private long _pos; //mapped bytes
+		private MappedByteBuffer _buff = null;
+		
+		public ChannelReader( FileChannel channel, long pos, long len ) {
+			_channel = channel;
+			_pos = pos;
+			_end = pos + len;
+		}
+		
+		public void readInts( int[] c, int off, int len ) throws IOException {
+			while( len > 0 ) {
+				if( _buff == null || !_buff.hasRemaining() )
+					map();
+				int n = Math.min(len, _buff.remaining()/4);
+				_buff.asIntBuffer().get(c, off, n);
+				_buff.position(_buff.position() + 4*n);
+				off += n; len -= n;
+			}
+		}
+		
+		public void readDoubles( double[] c, int off, int len ) throws IOException {
+			while( len > 0 ) {
+				if( _buff == null || !_buff.hasRemaining() )
+					map();
+				int n = Math.min(len, _buff.remaining()/8);
+				_buff.asDoubleBuffer().get(c, off, n);
+				_buff.position(_buff.position() + 8*n);
+				off += n; len -= n;
+			}
+		}
+		
+		private void map() throws IOException {
+			long n = Math.min(_end - _pos, MAX_MAP_SIZE);
+			if( n <= 0 )
+				throw new IOException("Read beyond end of mapped region.");
+			_buff = _channel.map(MapMode.READ_ONLY, _pos, n);
+			_buff.order(ByteOrder.nativeOrder());
+			_pos += n;
+		}
+	}
+
+	/**
+	 * Buffered writer of primitive arrays in native byte order
+	 * to a file channel, incl padding to page boundaries.
+	 */
+	private static class ChannelWriter
+	{
+		private final FileChannel _channel;
+		private final ByteBuffer _buff;
+		private long _pos = 0; //flushed bytes
+
+		public ChannelWriter( FileChannel channel ) {
+			_channel = channel;
+			_buff = ByteBuffer.allocateDirect(BUFFER_SIZE)
+				.order(ByteOrder.nativeOrder());
+		}
+
+		public void writeInt( int v ) throws IOException {
+			if( _buff.remaining() < 4 )
+				flush();
+			_buff.putInt(v);
+		}
+
+		public void writeLong( long v ) throws IOException {
+			if( _buff.remaining() < 8 )
+				flush();
+			_buff.putLong(v);
+		}
+
+		public void writeInts( int[] a, int off, int len ) throws IOException {
+			while( len > 0 ) {
+				if( _buff.remaining() < 4 )
+					flush();
+				int n = Math.min(len, _buff.remaining()/4);
+				_buff.asIntBuffer().put(a, off, n);
+				_buff.position(_buff.position() + 4*n);
+				off += n; len -= n;
+			}
+		}
+
+		public void writeDoubles( double[] a, int off, int len ) throws IOException {
+			while( len > 0 ) {
+				if( _buff.remaining() < 8 )
+					flush();
+				int n = Math.min(len, _buff.remaining()/8);
+				_buff.asDoubleBuffer().put(a, off, n);
+				_buff.position(_buff.position() + 8*n);
+				off += n; len -= n;
+			}
+		}
+
+		public void align() throws IOException {
+			//pad with zeros up to the next page boundary
+			long pos = _pos + _buff.position();
+			for( long i=pos; i<MappedFileUtils.align(pos); i++ ) {
+				if( !_buff.hasRemaining() )
+					flush();
+				_buff.put((byte)0);
+			}
+		}
+
+		public void flush() throws IOException {
+			_buff.flip();
+			while( _buff.hasRemaining() )
+				_pos += _channel.write(_buff, _pos);
+			_buff.clear();
+		}
+	}
+}
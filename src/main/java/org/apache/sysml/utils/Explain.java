@@ -21,6 +21,7 @@ package org.apache.sysml.utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -303,6 +304,9 @@ public class Explain
 		sb.append(counts.numJobs);
 		sb.append(" )\n");
 			
+		//merge instruction profile once for all instructions
+		HashMap<String,String> prof = InstructionProfiler.getExplainProfile();
+		
 		//explain functions (if exists)
 		Map<String, FunctionProgramBlock> funcMap = rtprog.getFunctionProgramBlocks();
 		if( funcMap != null && !funcMap.isEmpty() )
@@ -333,7 +337,7 @@ public class Explain
 				{
 					sb.append("----FUNCTION "+fkey+" [recompile="+fpb.isRecompileOnce()+"]\n");
 					for( ProgramBlock pb : fpb.getChildBlocks() )
-						sb.append( explainProgramBlock(pb,3) );
+						sb.append( explainProgramBlock(pb, 3, prof) );
 				}
 			}
 		}
@@ -341,7 +345,7 @@ public class Explain
 		//explain main program
 		sb.append("--MAIN PROGRAM\n");
 		for( ProgramBlock pb : rtprog.getProgramBlocks() )
-			sb.append( explainProgramBlock(pb,2) );
+			sb.append( explainProgramBlock(pb, 2, prof) );
 		
 		return sb.toString();	
 	}
@@ -353,7 +357,7 @@ public class Explain
 	 */
 	public static String explain( ProgramBlock pb )
 	{
-		return explainProgramBlock(pb, 0);
+		return explainProgramBlock(pb, 0, InstructionProfiler.getExplainProfile());
 	}
 	
 	/**
@@ -363,7 +367,7 @@ public class Explain
 	 */
 	public static String explain( ArrayList<Instruction> inst )
 	{
-		return explainInstructions(inst, 0);
+		return explainInstructions(inst, 0, InstructionProfiler.getExplainProfile());
 	}
 	
 	/**
@@ -374,7 +378,7 @@ public class Explain
 	 */
 	public static String explain( ArrayList<Instruction> inst, int level )
 	{
-		return explainInstructions(inst, level);
+		return explainInstructions(inst, level, InstructionProfiler.getExplainProfile());
 	}
 	
 	/**
@@ -384,7 +388,7 @@ public class Explain
 	 */
 	public static String explain( Instruction inst )
 	{
-		return explainGenericInstruction(inst, 0);
+		return explainGenericInstruction(inst, 0, InstructionProfiler.getExplainProfile());
 	}
 	
 	/**
@@ -827,9 +831,10 @@ public class Explain
 	 * 
 	 * @param pb
 	 * @param level
+	 * @param prof merged instruction profile, or null
 	 * @return
 	 */
-	private static String explainProgramBlock( ProgramBlock pb, int level ) 
+	private static String explainProgramBlock( ProgramBlock pb, int level, HashMap<String,String> prof ) 
 	{
 		StringBuilder sb = new StringBuilder();
 		String offset = createOffset(level);
@@ -838,7 +843,7 @@ public class Explain
 		{
 			FunctionProgramBlock fpb = (FunctionProgramBlock)pb;
 			for( ProgramBlock pbc : fpb.getChildBlocks() )
-				sb.append( explainProgramBlock( pbc, level+1) );
+				sb.append( explainProgramBlock( pbc, level+1, prof) );
 		}
 		else if (pb instanceof WhileProgramBlock)
 		{
@@ -849,24 +854,24 @@ public class Explain
 				sb.append("WHILE (lines "+wpb.getBeginLine()+"-"+wpb.getEndLine()+") [in-place="+wsb.getUpdateInPlaceVars().toString()+"]\n");
 			else
 				sb.append("WHILE (lines "+wpb.getBeginLine()+"-"+wpb.getEndLine()+")\n");
-			sb.append(explainInstructions(wpb.getPredicate(), level+1));			
+			sb.append(explainInstructions(wpb.getPredicate(), level+1, prof));			
 			for( ProgramBlock pbc : wpb.getChildBlocks() )
-				sb.append( explainProgramBlock( pbc, level+1) );
+				sb.append( explainProgramBlock( pbc, level+1, prof) );
 		}	
 		else if (pb instanceof IfProgramBlock)
 		{
 			IfProgramBlock ipb = (IfProgramBlock) pb;
 			sb.append(offset);
 			sb.append("IF (lines "+ipb.getBeginLine()+"-"+ipb.getEndLine()+")\n");
-			sb.append(explainInstructions(ipb.getPredicate(), level+1));
+			sb.append(explainInstructions(ipb.getPredicate(), level+1, prof));
 			for( ProgramBlock pbc : ipb.getChildBlocksIfBody() ) 
-				sb.append( explainProgramBlock( pbc, level+1) );
+				sb.append( explainProgramBlock( pbc, level+1, prof) );
 			if( !ipb.getChildBlocksElseBody().isEmpty() )
 			{	
 				sb.append(offset);
 				sb.append("ELSE\n");
 				for( ProgramBlock pbc : ipb.getChildBlocksElseBody() ) 
-					sb.append( explainProgramBlock( pbc, level+1) );
+					sb.append( explainProgramBlock( pbc, level+1, prof) );
 			}
 		}
 		else if (pb instanceof ForProgramBlock) //incl parfor
@@ -882,11 +887,11 @@ public class Explain
 				else
 					sb.append("FOR (lines "+fpb.getBeginLine()+"-"+fpb.getEndLine()+")\n");
 			}
-			sb.append(explainInstructions(fpb.getFromInstructions(), level+1));
-			sb.append(explainInstructions(fpb.getToInstructions(), level+1));
-			sb.append(explainInstructions(fpb.getIncrementInstructions(), level+1));
+			sb.append(explainInstructions(fpb.getFromInstructions(), level+1, prof));
+			sb.append(explainInstructions(fpb.getToInstructions(), level+1, prof));
+			sb.append(explainInstructions(fpb.getIncrementInstructions(), level+1, prof));
 			for( ProgramBlock pbc : fpb.getChildBlocks() ) 
-				sb.append( explainProgramBlock( pbc, level+1) );
+				sb.append( explainProgramBlock( pbc, level+1, prof) );
 			
 		}
 		else
@@ -896,7 +901,7 @@ public class Explain
 				sb.append("GENERIC (lines "+pb.getBeginLine()+"-"+pb.getEndLine()+") [recompile="+pb.getStatementBlock().requiresRecompilation()+"]\n");
 			else
 				sb.append("GENERIC (lines "+pb.getBeginLine()+"-"+pb.getEndLine()+") \n");
-			sb.append(explainInstructions(pb.getInstructions(), level+1));
+			sb.append(explainInstructions(pb.getInstructions(), level+1, prof));
 		}
 		
 		return sb.toString();
@@ -906,16 +911,17 @@ public class Explain
 	 * 
 	 * @param instSet
 	 * @param level
+	 * @param prof merged instruction profile, or null
 	 * @return
 	 */
-	private static String explainInstructions( ArrayList<Instruction> instSet, int level )
+	private static String explainInstructions( ArrayList<Instruction> instSet, int level, HashMap<String,String> prof )
 	{
 		StringBuilder sb = new StringBuilder();
 		String offsetInst = createOffset(level);
 		
 		for( Instruction inst : instSet )
 		{
-			String tmp = explainGenericInstruction(inst, level);
+			String tmp = explainGenericInstruction(inst, level, prof);
 			
 			sb.append( offsetInst );
 			sb.append( tmp );
@@ -928,9 +934,11 @@ public class Explain
 	/**
 	 * 
 	 * @param inst
+	 * @param level
+	 * @param prof merged instruction profile, or null
 	 * @return
 	 */
-	private static String explainGenericInstruction( Instruction inst, int level )
+	private static String explainGenericInstruction( Instruction inst, int level, HashMap<String,String> prof )
 	{
 		String tmp = null;
 		if( inst instanceof MRJobInstruction )
@@ -944,6 +952,11 @@ public class Explain
 			tmp = tmp.replaceAll(Lop.INSTRUCTION_DELIMITOR, ", ");
 		}
 		
+		//append latency profile of executed instructions (if available)
+		String iprof = InstructionProfiler.explain(inst, prof);
+		if( iprof != null )
+			tmp = tmp + " " + iprof;
+		
 		return tmp;
 	}
 	
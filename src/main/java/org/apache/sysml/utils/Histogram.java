@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.utils;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear (HDR-style) histogram of non-negative long values (e.g., latencies
+ * in nanoseconds), where values below 2^SUB_BITS are recorded exactly and larger 
+ * values in 2^SUB_BITS sub-buckets per power of two, i.e., with a relative error 
+ * of at most 1/32 over the entire range of values. Histograms are not thread-safe 
+ * and require external synchronization.
+ * 
+ */
+public class Histogram
+{
+	private static final int SUB_BITS = 5;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	
+	private long[] _counts = new long[4 * SUB_COUNT];
+	private long _count = 0;
+	private long _sum = 0;
+	private long _min = Long.MAX_VALUE;
+	private long _max = 0;
+	
+	public void add( long val ) {
+		val = Math.max(val, 0);
+		int ix = getIndex(val);
+		if( ix >= _counts.length )
+			_counts = Arrays.copyOf(_counts, Math.max(2 * _counts.length, ix + 1));
+		_counts[ix]++;
+		_count++;
+		_sum += val;
+		_min = Math.min(_min, val);
+		_max = Math.max(_max, val);
+	}
+	
+	public void merge( Histogram that ) {
+		if( that._counts.length > _counts.length )
+			_counts = Arrays.copyOf(_counts, that._counts.length);
+		for( int i=0; i<that._counts.length; i++ )
+			_counts[i] += that._counts[i];
+		_count += that._count;
+		_sum += that._sum;
+		_min = Math.min(_min, that._min);
+		_max = Math.max(_max, that._max);
+	}
+	
+	public long getCount() {
+		return _count;
+	}
+	
+	public long getTotal() {
+		return _sum;
+	}
+	
+	public long getMin() {
+		return (_count > 0) ? _min : 0;
+	}
+	
+	public long getMax() {
+		return _max;
+	}
+	
+	/**
+	 * Returns the given quantile as midpoint of the respective bucket, 
+	 * bounded by the observed minimum and maximum.
+	 * 
+	 * @param q
+	 * @return
+	 */
+	public long getPercentile( double q ) {
+		if( _count == 0 )
+			return 0;
+		long rank = Math.max((long)Math.ceil(q * _count), 1);
+		long cum = 0;
+		for( int i=0; i<_counts.length; i++ ) {
+			cum += _counts[i];
+			if( cum >= rank ) {
+				long lower = getLowerBound(i);
+				long upper = getLowerBound(i+1);
+				return Math.min(Math.max(lower + (upper-lower)/2, _min), _max);
+			}
+		}
+		return _max;
+	}
+	
+	private static int getIndex( long val ) {
+		if( val < SUB_COUNT )
+			return (int) val;
+		int shift = 63 - Long.numberOfLeadingZeros(val) - SUB_BITS;
+		return ((shift + 1) << SUB_BITS) + (int)((val >>> shift) - SUB_COUNT);
+	}
+	
+	private static long getLowerBound( int ix ) {
+		if( ix < SUB_COUNT )
+			return ix;
+		int shift = (ix >>> SUB_BITS) - 1;
+		return ((long)((ix & (SUB_COUNT-1)) + SUB_COUNT)) << shift;
+	}
+}
@@ -0,0 +1,454 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.utils;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.CPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.Data;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.OrderedJSONObject;
+
+/**
+ * Low-overhead instruction profiler (enabled via -profile), which records latency 
+ * histograms per opcode, DML line, shape class of the first matrix input (dense or 
+ * sparse, decimal size bucket), and degree of parallelism. Each thread records into 
+ * its own recorder (w/o contention), and recorders are merged on display or export. 
+ * Latencies are recorded in log-linear histograms (see Histogram), i.e., with a 
+ * relative error of at most 1/32 over the entire range of latencies.
+ * 
+ */
+public class InstructionProfiler 
+{
+	public static boolean PROFILE = false; //default profiling (see -profile)
+	
+	private static final int MAX_RECORDERS = 64; //before merge of terminated threads
+	
+	//shape classes besides (size bucket << 1 | sparse)
+	public static final int SHAPE_NONE = -1;
+	public static final int SHAPE_UNKNOWN = -2;
+	
+	//registered recorders of all threads and merged recorders of terminated threads
+	private static final ArrayList<Recorder> _recorders = new ArrayList<Recorder>();
+	private static final Recorder _terminated = new Recorder(null);
+	
+	private static final ThreadLocal<Recorder> _recorder = new ThreadLocal<Recorder>() {
+		@Override
+		protected Recorder initialValue() {
+			return register(new Recorder(Thread.currentThread()));
+		}
+	};
+	
+	/**
+	 * Obtains the shape class of the first matrix input of the given instruction, 
+	 * from the meta data of the symbol table entry (i.e., w/o pinning the data).
+	 * Note that this needs to happen before execution because instructions might
+	 * remove their inputs from the symbol table.
+	 * 
+	 * @param inst
+	 * @param ec
+	 * @return
+	 */
+	public static int getShapeClass( Instruction inst, ExecutionContext ec )
+	{
+		if( !(inst instanceof ComputationCPInstruction) )
+			return SHAPE_NONE;
+		CPOperand in = ((ComputationCPInstruction)inst).input1;
+		if( in == null || in.getDataType() != DataType.MATRIX )
+			return SHAPE_NONE;
+		Data dat = ec.getVariables().get(in.getName());
+		if( !(dat instanceof MatrixObject) )
+			return SHAPE_NONE;
+		
+		MatrixCharacteristics mc = ((MatrixObject)dat).getMatrixCharacteristics();
+		if( !mc.dimsKnown() )
+			return SHAPE_UNKNOWN;
+		long cells = Math.max(mc.getRows() * mc.getCols(), 1);
+		boolean sparse = mc.getNonZeros() >= 0 && 
+			MatrixBlock.evalSparseFormatInMemory(mc.getRows(), mc.getCols(), mc.getNonZeros());
+		return ((int)Math.log10(cells) << 1) | (sparse ? 1 : 0);
+	}
+	
+	/**
+	 * Records the latency of an executed instruction into the 
+	 * recorder of the current thread.
+	 * 
+	 * @param inst
+	 * @param shape
+	 * @param timeNanos
+	 */
+	public static void maintain( Instruction inst, int shape, long timeNanos )
+	{
+		int k = (inst instanceof CPInstruction) ? ((CPInstruction)inst).getNumThreads() : 1;
+		_recorder.get().record(inst.getExtendedOpcode(), inst.getLineNum(), shape, k, timeNanos);
+	}
+	
+	/**
+	 * 
+	 */
+	public static void reset()
+	{
+		synchronized( _recorders ) {
+			for( Recorder rec : _recorders )
+				rec.clear();
+			_terminated.clear();
+		}
+	}
+	
+	/**
+	 * Merges the recorders of all threads into a profile, 
+	 * ordered by total time in descending order.
+	 * 
+	 * @return
+	 */
+	public static ProfileEntry[] getProfile()
+	{
+		HashMap<ProfileKey, Histogram> tmp = new HashMap<ProfileKey, Histogram>();
+		synchronized( _recorders ) {
+			for( Recorder rec : _recorders )
+				rec.mergeInto(tmp);
+			_terminated.mergeInto(tmp);
+		}
+		
+		ProfileEntry[] ret = new ProfileEntry[tmp.size()];
+		int pos = 0;
+		for( Entry<ProfileKey, Histogram> e : tmp.entrySet() )
+			ret[pos++] = new ProfileEntry(e.getKey(), e.getValue());
+		Arrays.sort(ret, new Comparator<ProfileEntry>() {
+			@Override
+			public int compare(ProfileEntry arg0, ProfileEntry arg1) {
+				return Long.compare(arg1.getTotalTime(), arg0.getTotalTime());
+			}
+		});
+		
+		return ret;
+	}
+	
+	/**
+	 * Returns the top-k profile entries as table for statistics output.
+	 * 
+	 * @param num
+	 * @return
+	 */
+	public static String display( int num )
+	{
+		ProfileEntry[] prof = getProfile();
+		StringBuilder sb = new StringBuilder();
+		sb.append("Instruction latency profile (opcode, line, shape, k, count, total, p50, p99, max):\n");
+		for( int i=0; i<Math.min(num, prof.length); i++ ) {
+			ProfileEntry e = prof[i];
+			sb.append(String.format(" %d) %s\t%d\t%s\t%d\t%d\t%.3f sec\t%.3f ms\t%.3f ms\t%.3f ms\n",
+				i+1, e.getOpcode(), e.getLine(), e.getShape(), e.getNumThreads(), e.getCount(), 
+				e.getTotalTime()*1e-9, e.getPercentile(0.5)*1e-6, e.getPercentile(0.99)*1e-6, e.getMaxTime()*1e-6));
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Merges the profile once into summaries per opcode and line (over all shape
+	 * classes and degrees of parallelism), which is used for a single explain pass
+	 * in order to avoid merging all recorders per explained instruction. Note that 
+	 * the initial runtime explain happens before execution and hence shows profiles 
+	 * only for recompile explains or the profiled explain at the end of execution. 
+	 * 
+	 * @return map of summaries, or null if profiling is disabled
+	 */
+	public static HashMap<String, String> getExplainProfile()
+	{
+		if( !PROFILE )
+			return null;
+		
+		HashMap<String, Histogram> tmp = new HashMap<String, Histogram>();
+		for( ProfileEntry e : getProfile() ) {
+			String key = getExplainKey(e.getOpcode(), e.getLine());
+			Histogram hist = tmp.get(key);
+			if( hist == null ) {
+				hist = new Histogram();
+				tmp.put(key, hist);
+			}
+			hist.merge(e._hist);
+		}
+		
+		HashMap<String, String> ret = new HashMap<String, String>();
+		for( Entry<String, Histogram> e : tmp.entrySet() ) {
+			Histogram hist = e.getValue();
+			ret.put(e.getKey(), String.format("[n=%d, p50=%.3f ms, p99=%.3f ms]", hist.getCount(), 
+				hist.getPercentile(0.5)*1e-6, hist.getPercentile(0.99)*1e-6));
+		}
+		return ret;
+	}
+	
+	/**
+	 * Returns the summary of all profile entries of the given instruction's opcode 
+	 * and line for explain, or null if no profile exists.
+	 * 
+	 * @param inst
+	 * @param prof merged explain profile (see getExplainProfile), or null
+	 * @return
+	 */
+	public static String explain( Instruction inst, HashMap<String, String> prof )
+	{
+		if( prof == null || prof.isEmpty() )
+			return null;
+		return prof.get(getExplainKey(inst.getExtendedOpcode(), inst.getLineNum()));
+	}
+	
+	/**
+	 * 
+	 * @return
+	 * @throws JSONException
+	 */
+	public static String toJSON() 
+		throws JSONException
+	{
+		JSONArray entries = new JSONArray();
+		for( ProfileEntry e : getProfile() ) {
+			OrderedJSONObject o = new OrderedJSONObject();
+			o.put("opcode", e.getOpcode());
+			o.put("line", e.getLine());
+			o.put("shape", e.getShape());
+			o.put("k", e.getNumThreads());
+			o.put("count", e.getCount());
+			o.put("total_ns", e.getTotalTime());
+			o.put("min_ns", e.getMinTime());
+			o.put("p50_ns", e.getPercentile(0.5));
+			o.put("p90_ns", e.getPercentile(0.9));
+			o.put("p99_ns", e.getPercentile(0.99));
+			o.put("max_ns", e.getMaxTime());
+			entries.add(o);
+		}
+		
+		OrderedJSONObject ret = new OrderedJSONObject();
+		ret.put("profile", entries);
+		return ret.toString(2);
+	}
+	
+	/**
+	 * Writes the profile as JSON to the given file of the local file system.
+	 * 
+	 * @param fname
+	 * @throws IOException
+	 */
+	public static void writeJSON( String fname ) 
+		throws IOException
+	{
+		BufferedWriter bw = null;
+		try {
+			bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fname), "UTF-8"));
+			bw.write(toJSON());
+		}
+		catch(JSONException ex) {
+			throw new IOException(ex);
+		}
+		finally {
+			if( bw != null )
+				bw.close();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param opcode
+	 * @param line
+	 * @return
+	 */
+	private static String getExplainKey( String opcode, int line )
+	{
+		return opcode + "@" + line;
+	}
+	
+	/**
+	 * Registers a new recorder and merges recorders of terminated threads (e.g., 
+	 * parfor workers) in order to bound the number of registered recorders.
+	 * 
+	 * @param rec
+	 * @return
+	 */
+	private static Recorder register( Recorder rec )
+	{
+		synchronized( _recorders ) {
+			if( _recorders.size() >= MAX_RECORDERS ) {
+				Iterator<Recorder> iter = _recorders.iterator();
+				while( iter.hasNext() ) {
+					Recorder tmp = iter.next();
+					if( !tmp._thread.isAlive() ) {
+						tmp.mergeInto(_terminated._hists);
+						iter.remove();
+					}
+				}
+			}
+			_recorders.add(rec);
+		}
+		return rec;
+	}
+	
+	/**
+	 * Profile entry of merged histograms.
+	 */
+	public static class ProfileEntry
+	{
+		private final ProfileKey _key;
+		private final Histogram _hist;
+		
+		private ProfileEntry( ProfileKey key, Histogram hist ) {
+			_key = key;
+			_hist = hist;
+		}
+		
+		public String getOpcode() {
+			return _key._opcode;
+		}
+		
+		public int getLine() {
+			return _key._line;
+		}
+		
+		public String getShape() {
+			if( _key._shape == SHAPE_NONE )
+				return "-";
+			else if( _key._shape == SHAPE_UNKNOWN )
+				return "unknown";
+			return (((_key._shape & 1) != 0) ? "sparse" : "dense") + "-1e" + (_key._shape >>> 1);
+		}
+		
+		public int getNumThreads() {
+			return _key._k;
+		}
+		
+		public long getCount() {
+			return _hist.getCount();
+		}
+		
+		public long getTotalTime() {
+			return _hist.getTotal();
+		}
+		
+		public long getMinTime() {
+			return _hist.getMin();
+		}
+		
+		public long getMaxTime() {
+			return _hist.getMax();
+		}
+		
+		public long getPercentile( double q ) {
+			return _hist.getPercentile(q);
+		}
+	}
+	
+	/**
+	 * Per-thread recorder. Recording is synchronized in order to allow for 
+	 * consistent merge during execution, but uncontended in the common case.
+	 */
+	private static class Recorder
+	{
+		private final Thread _thread;
+		private final HashMap<ProfileKey, Histogram> _hists = new HashMap<ProfileKey, Histogram>();
+		private final ProfileKey _probe = new ProfileKey(); //reused lookup key
+		
+		private Recorder( Thread thread ) {
+			_thread = thread;
+		}
+		
+		private synchronized void record( String opcode, int line, int shape, int k, long time ) {
+			_probe.set(opcode, line, shape, k);
+			Histogram hist = _hists.get(_probe);
+			if( hist == null ) {
+				hist = new Histogram();
+				_hists.put(_probe.copy(), hist);
+			}
+			hist.add(time);
+		}
+		
+		private synchronized void mergeInto( HashMap<ProfileKey, Histogram> ret ) {
+			for( Entry<ProfileKey, Histogram> e : _hists.entrySet() ) {
+				Histogram hist = ret.get(e.getKey());
+				if( hist == null ) {
+					hist = new Histogram();
+					ret.put(e.getKey(), hist);
+				}
+				hist.merge(e.getValue());
+			}
+		}
+		
+		private synchronized void clear() {
+			_hists.clear();
+		}
+	}
+	
+	/**
+	 * Composite key of opcode, line, shape class, and degree of parallelism.
+	 */
+	private static class ProfileKey
+	{
+		private String _opcode;
+		private int _line;
+		private int _shape;
+		private int _k;
+		private int _hash;
+		
+		private void set( String opcode, int line, int shape, int k ) {
+			_opcode = opcode;
+			_line = line;
+			_shape = shape;
+			_k = k;
+			_hash = ((opcode.hashCode() * 31 + line) * 31 + shape) * 31 + k;
+		}
+		
+		private ProfileKey copy() {
+			ProfileKey ret = new ProfileKey();
+			ret.set(_opcode, _line, _shape, _k);
+			return ret;
+		}
+		
+		@Override
+		public int hashCode() {
+			return _hash;
+		}
+		
+		@Override
+		public boolean equals( Object o ) {
+			if( !(o instanceof ProfileKey) )
+				return false;
+			ProfileKey that = (ProfileKey) o;
+			return _line == that._line && _shape == that._shape 
+				&& _k == that._k && _opcode.equals(that._opcode);
+		}
+	}
+}
@@ -39,6 +39,7 @@ import org.apache.sysml.runtime.instructions.InstructionUtils;
 import org.apache.sysml.runtime.instructions.MRJobInstruction;
 import org.apache.sysml.runtime.instructions.cp.FunctionCallCPInstruction;
 import org.apache.sysml.runtime.instructions.spark.SPInstruction;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 
 /**
  * This class captures all statistics.
@@ -72,6 +73,7 @@ public class Statistics
 	private static AtomicLong hopRecompileTime = new AtomicLong(0); //in nano sec
 	private static AtomicLong hopRecompilePred = new AtomicLong(0); //count
 	private static AtomicLong hopRecompileSB = new AtomicLong(0);   //count
+	private static AtomicLong hopRecompileHits = new AtomicLong(0); //count plan cache hits
 
 	//Function recompile stats 
 	private static AtomicLong funRecompileTime = new AtomicLong(0); //in nano sec
@@ -91,6 +93,12 @@ public class Statistics
 	private static long parforOptCount = 0; //count
 	private static long parforInitTime = 0; //in milli sec
 	private static long parforMergeTime = 0; //in milli sec
+	private static AtomicLong parforSharedMerge = new AtomicLong(0); //count
+	
+	//common thread pool stats (potentially high update frequency)
+	private static AtomicLong poolSharedReqs = new AtomicLong(0); //count
+	private static AtomicLong poolDedicatedReqs = new AtomicLong(0); //count
+	private static AtomicLong poolTasks = new AtomicLong(0); //count
 	
 	//heavy hitter counts and times 
 	private static HashMap<String,Long> _cpInstTime   =  new HashMap<String, Long>();
@@ -291,6 +299,11 @@ public class Statistics
 		//note: not synchronized due to use of atomics
 		hopRecompileSB.addAndGet(delta);
 	}
+	
+	public static void incrementHOPRecompilePlanCacheHits() {
+		//note: not synchronized due to use of atomics
+		hopRecompileHits.incrementAndGet();
+	}
 
 	public static void incrementFunRecompileTime( long delta ) {
 		//note: not synchronized due to use of atomics
@@ -317,6 +330,26 @@ public class Statistics
 	public static synchronized void incrementParForMergeTime( long time ) {
 		parforMergeTime += time;
 	}
+	
+	public static void incrementParForSharedMerges() {
+		//note: not synchronized due to use of atomics
+		parforSharedMerge.incrementAndGet();
+	}
+
+	public static void incrementSharedPoolRequests() {
+		//note: not synchronized due to use of atomics
+		poolSharedReqs.incrementAndGet();
+	}
+	
+	public static void incrementDedicatedPoolRequests() {
+		//note: not synchronized due to use of atomics
+		poolDedicatedReqs.incrementAndGet();
+	}
+	
+	public static void incrementPoolTasks(long delta) {
+		//note: not synchronized due to use of atomics
+		poolTasks.addAndGet(delta);
+	}
 
 	public static void startCompileTimer() {
 		if( DMLScript.STATISTICS )
@@ -362,11 +395,18 @@ public class Statistics
 		hopRecompileTime.set(0);
 		hopRecompilePred.set(0);
 		hopRecompileSB.set(0);
+		hopRecompileHits.set(0);
 		
 		parforOptCount = 0;
 		parforOptTime = 0;
 		parforInitTime = 0;
 		parforMergeTime = 0;
+		parforSharedMerge.set(0);
+		
+		poolSharedReqs.set(0);
+		poolDedicatedReqs.set(0);
+		poolTasks.set(0);
+		CommonThreadPool.resetSharedPoolSteals();
 		
 		lTotalLix.set(0);
 		lTotalLixUIP.set(0);
@@ -586,6 +626,10 @@ public class Statistics
 		return hopRecompileSB.get();
 	}
 	
+	public static long getHopRecompilePlanCacheHits(){
+		return hopRecompileHits.get();
+	}
+	
 	public static long getFunRecompileTime(){
 		return funRecompileTime.get();
 	}
@@ -609,6 +653,22 @@ public class Statistics
 	public static long getParforMergeTime(){
 		return parforMergeTime;
 	}
+	
+	public static long getParforSharedMerges(){
+		return parforSharedMerge.get();
+	}
+	
+	public static long getSharedPoolRequests(){
+		return poolSharedReqs.get();
+	}
+	
+	public static long getDedicatedPoolRequests(){
+		return poolDedicatedReqs.get();
+	}
+	
+	public static long getPoolTasks(){
+		return poolTasks.get();
+	}
 
 	/**
 	 * Prints statistics.
@@ -659,12 +719,18 @@ public class Statistics
 			sb.append("Cache hits (Mem, WB, FS, HDFS):\t" + CacheStatistics.displayHits() + ".\n");
 			sb.append("Cache writes (WB, FS, HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
+			sb.append("Cache WB waits (lock, evict):\t" + CacheStatistics.displayBuffWaits() + ".\n");
+			sb.append("Cache prefetch (hits, misses):\t" + CacheStatistics.displayPrefetch() + ".\n");
+			sb.append("Cache write-behind (writes, queue, max):\t" + CacheStatistics.displayWriteBehind() + ".\n");
+			sb.append("Cache WB times (lock, wait, evict):\t" + CacheStatistics.displayBuffTime() + " sec.\n");
 			if(DMLScript.REUSE_NONZEROED_OUTPUT) {
 				sb.append("Allocation time (Dense/Sparse):\t" + String.format("%.3f", denseBlockAllocationTime.doubleValue()/1000000000) 
 						+ "/" + String.format("%.3f", sparseBlockAllocationTime.doubleValue()/1000000000)  + " sec.\n");
 			}
 			sb.append("HOP DAGs recompiled (PRED, SB):\t" + getHopRecompiledPredDAGs() + "/" + getHopRecompiledSBDAGs() + ".\n");
 			sb.append("HOP DAGs recompile time:\t" + String.format("%.3f", ((double)getHopRecompileTime())/1000000000) + " sec.\n");
+			if( getHopRecompilePlanCacheHits()>0 )
+				sb.append("HOP DAGs plan cache hits:\t" + getHopRecompilePlanCacheHits() + ".\n");
 			if( getFunRecompiles()>0 ) {
 				sb.append("Functions recompiled:\t\t" + getFunRecompiles() + ".\n");
 				sb.append("Functions recompile time:\t" + String.format("%.3f", ((double)getFunRecompileTime())/1000000000) + " sec.\n");	
@@ -687,13 +753,21 @@ public class Statistics
 				sb.append("ParFor optimize time:\t\t" + String.format("%.3f", ((double)getParforOptTime())/1000) + " sec.\n");	
 				sb.append("ParFor initialize time:\t\t" + String.format("%.3f", ((double)getParforInitTime())/1000) + " sec.\n");	
 				sb.append("ParFor result merge time:\t" + String.format("%.3f", ((double)getParforMergeTime())/1000) + " sec.\n");	
+				sb.append("ParFor shared result merges:\t" + getParforSharedMerges() + ".\n");
 				sb.append("ParFor total update in-place:\t" + lTotalUIPVar + "/" + lTotalLixUIP + "/" + lTotalLix + "\n");
 			}
+			if( getSharedPoolRequests()+getDedicatedPoolRequests()>0 ) {
+				sb.append("Thread pool reqs (shared, ded):\t" + getSharedPoolRequests() + "/" + getDedicatedPoolRequests() + ".\n");
+				sb.append("Thread pool tasks (total, stolen):\t" + getPoolTasks() + "/" + CommonThreadPool.getSharedPoolSteals() 
+						+ " (" + CommonThreadPool.getSharedPoolSize() + " threads).\n");
+			}
 			sb.append("Total JIT compile time:\t\t" + ((double)getJITCompileTime())/1000 + " sec.\n");
 			sb.append("Total JVM GC count:\t\t" + getJVMgcCount() + ".\n");
 			sb.append("Total JVM GC time:\t\t" + ((double)getJVMgcTime())/1000 + " sec.\n");
 			sb.append("Heavy hitter instructions (name, time, count):\n" + getHeavyHitters(10));
 		}
+		if( InstructionProfiler.PROFILE )
+			sb.append(InstructionProfiler.display(10));
 		
 		return sb.toString();
 	}
@@ -0,0 +1,402 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.binary.matrix_full_cellwise;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.GreaterThan;
+import org.apache.sysml.runtime.functionobjects.Minus;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.functionobjects.ValueFunction;
+import org.apache.sysml.runtime.instructions.CPInstructionParser;
+import org.apache.sysml.runtime.instructions.cp.CPInstruction;
+import org.apache.sysml.runtime.instructions.cp.MatrixMatrixArithmeticCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.ScalarMatrixArithmeticCPInstruction;
+import org.apache.sysml.runtime.matrix.data.LibMatrixBincell;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockFactory;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the multi-threaded cell-wise binary operations,
+ * which compares single- and multi-threaded results above the parallelization
+ * threshold of 1M cells for all parallel kernels (dense-dense, matrix-vector,
+ * sparse-sparse, sparse-dense, and matrix-scalar), including the fallback to
+ * single-threaded operations for outputs in non-thread-safe sparse blocks.
+ * It further covers the optional trailing degree of parallelism of binary
+ * CP instructions.
+ *
+ */
+public class FullCellwiseParallelTest extends AutomatedTestBase
+{
+	private final static int rows = 1283;
+	private final static int cols = 1011;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+	private final static int k = 8;
+	private final static double eps = 1e-10;
+
+	private enum InputType {
+		DENSE,
+		SPARSE,
+		SPARSE_CSR,
+		COL_VECTOR,
+		ROW_VECTOR,
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testDenseDensePlus() {
+		runParallelBinaryTest(InputType.DENSE, InputType.DENSE, Plus.getPlusFnObject(), false, null);
+	}
+
+	@Test
+	public void testDenseDenseGreater() {
+		runParallelBinaryTest(InputType.DENSE, InputType.DENSE, GreaterThan.getGreaterThanFnObject(), false, null);
+	}
+
+	@Test
+	public void testDenseColVectorMult() {
+		runParallelBinaryTest(InputType.DENSE, InputType.COL_VECTOR, Multiply.getMultiplyFnObject(), false, null);
+	}
+
+	@Test
+	public void testDenseRowVectorMinus() {
+		runParallelBinaryTest(InputType.DENSE, InputType.ROW_VECTOR, Minus.getMinusFnObject(), false, null);
+	}
+
+	@Test
+	public void testSparseSparsePlus() {
+		runParallelBinaryTest(InputType.SPARSE, InputType.SPARSE, Plus.getPlusFnObject(), true, null);
+	}
+
+	@Test
+	public void testSparseSparseMinusCSRInputs() {
+		runParallelBinaryTest(InputType.SPARSE_CSR, InputType.SPARSE_CSR, Minus.getMinusFnObject(), true, null);
+	}
+
+	@Test
+	public void testSparseSparseMultAligned() {
+		runParallelBinaryTest(InputType.SPARSE, null, Multiply.getMultiplyFnObject(), true, null);
+	}
+
+	@Test
+	public void testSparseSparsePlusCSROutput() {
+		runParallelBinaryTest(InputType.SPARSE, InputType.SPARSE, Plus.getPlusFnObject(), true, SparseBlock.Type.CSR);
+	}
+
+	@Test
+	public void testSparseSparsePlusCOOOutput() {
+		runParallelBinaryTest(InputType.SPARSE, InputType.SPARSE, Plus.getPlusFnObject(), true, SparseBlock.Type.COO);
+	}
+
+	@Test
+	public void testSparseDensePlus() {
+		runParallelBinaryTest(InputType.SPARSE, InputType.DENSE, Plus.getPlusFnObject(), false, null);
+	}
+
+	@Test
+	public void testDenseSparseMinus() {
+		runParallelBinaryTest(InputType.DENSE, InputType.SPARSE, Minus.getMinusFnObject(), false, null);
+	}
+
+	@Test
+	public void testDenseScalarMult() {
+		runParallelScalarTest(InputType.DENSE, Multiply.getMultiplyFnObject(), 7, false, null);
+	}
+
+	@Test
+	public void testSparseScalarMult() {
+		runParallelScalarTest(InputType.SPARSE, Multiply.getMultiplyFnObject(), 7, true, null);
+	}
+
+	@Test
+	public void testSparseScalarPlus() {
+		runParallelScalarTest(InputType.SPARSE, Plus.getPlusFnObject(), 7, false, null);
+	}
+
+	@Test
+	public void testSparseScalarMultCSROutput() {
+		runParallelScalarTest(InputType.SPARSE, Multiply.getMultiplyFnObject(), 7, true, SparseBlock.Type.CSR);
+	}
+
+	@Test
+	public void testParseMatrixMatrixNumThreads() throws DMLRuntimeException {
+		CPInstruction inst = CPInstructionParser.parseSingleInstruction(
+			createInstruction("+", matrix("_mVar1"), matrix("_mVar2"), "4"));
+		Assert.assertTrue(inst instanceof MatrixMatrixArithmeticCPInstruction);
+		Assert.assertEquals(4, inst.getNumThreads());
+	}
+
+	@Test
+	public void testParseMatrixScalarNumThreads() throws DMLRuntimeException {
+		CPInstruction inst = CPInstructionParser.parseSingleInstruction(
+			createInstruction("*", matrix("_mVar1"), literal("7"), "6"));
+		Assert.assertTrue(inst instanceof ScalarMatrixArithmeticCPInstruction);
+		Assert.assertEquals(6, inst.getNumThreads());
+	}
+
+	@Test
+	public void testParseScalarMatrixNumThreads() throws DMLRuntimeException {
+		CPInstruction inst = CPInstructionParser.parseSingleInstruction(
+			createInstruction("-", literal("7"), matrix("_mVar1"), "3"));
+		Assert.assertTrue(inst instanceof ScalarMatrixArithmeticCPInstruction);
+		Assert.assertEquals(3, inst.getNumThreads());
+	}
+
+	@Test
+	public void testParseRelationalBuiltinNumThreads() throws DMLRuntimeException {
+		CPInstruction inst1 = CPInstructionParser.parseSingleInstruction(
+			createInstruction(">", matrix("_mVar1"), literal("7"), "5"));
+		CPInstruction inst2 = CPInstructionParser.parseSingleInstruction(
+			createInstruction("max", matrix("_mVar1"), matrix("_mVar2"), "2"));
+		Assert.assertEquals(5, inst1.getNumThreads());
+		Assert.assertEquals(2, inst2.getNumThreads());
+	}
+
+	@Test
+	public void testParseDefaultNumThreads() throws DMLRuntimeException {
+		CPInstruction inst1 = CPInstructionParser.parseSingleInstruction(
+			createInstruction("+", matrix("_mVar1"), matrix("_mVar2"), null));
+		CPInstruction inst2 = CPInstructionParser.parseSingleInstruction(
+			createInstruction("*", matrix("_mVar1"), literal("7"), null));
+		Assert.assertEquals(1, inst1.getNumThreads());
+		Assert.assertEquals(1, inst2.getNumThreads());
+	}
+
+	@Test
+	public void testParseInvalidNumFields() {
+		try {
+			CPInstructionParser.parseSingleInstruction(createInstruction("+",
+				matrix("_mVar1"), matrix("_mVar2"), "4"+Lop.OPERAND_DELIMITOR+"4"));
+			Assert.fail("Expected DMLRuntimeException for five instruction fields.");
+		}
+		catch(DMLRuntimeException ex) {
+			//expected
+		}
+	}
+
+	/**
+	 *
+	 * @param type1
+	 * @param type2 second input type, or null for an input aligned with the first input
+	 * @param fn
+	 * @param sparseOut
+	 * @param stype sparse block type of a preallocated output, or null
+	 */
+	private void runParallelBinaryTest(InputType type1, InputType type2, ValueFunction fn, boolean sparseOut, SparseBlock.Type stype)
+	{
+		try
+		{
+			//generate input data
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, getSparsity(type1), 7);
+			double[][] B = (type2 != null) ? getRandomMatrix(getRows(type2), getCols(type2),
+				-1, 1, getSparsity(type2), 3) : alignedCopy(A, 3);
+			MatrixBlock mbA = createInput(A, type1);
+			MatrixBlock mbB = createInput(B, (type2 != null) ? type2 : type1);
+
+			//compute expected result
+			double[][] C = new double[rows][cols];
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					C[i][j] = fn.execute(A[i][j], B[(B.length==1)?0:i][(B[0].length==1)?0:j]);
+
+			//compute single- and multi-threaded operations
+			MatrixBlock ret1 = null, ret2 = null;
+			if( stype != null ) {
+				ret1 = createSparseOutput(stype);
+				ret2 = createSparseOutput(stype);
+				LibMatrixBincell.bincellOp(mbA, mbB, ret1, new BinaryOperator(fn, 1));
+				LibMatrixBincell.bincellOp(mbA, mbB, ret2, new BinaryOperator(fn, k));
+			}
+			else {
+				ret1 = (MatrixBlock) mbA.binaryOperations(new BinaryOperator(fn, 1), mbB, new MatrixBlock());
+				ret2 = (MatrixBlock) mbA.binaryOperations(new BinaryOperator(fn, k), mbB, new MatrixBlock());
+			}
+
+			//compare results and output representation
+			Assert.assertEquals(sparseOut, ret2.isInSparseFormat());
+			compareResults(C, ret1, ret2);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param type
+	 * @param fn
+	 * @param constant
+	 * @param sparseOut
+	 * @param stype sparse block type of a preallocated output, or null
+	 */
+	private void runParallelScalarTest(InputType type, ValueFunction fn, double constant, boolean sparseOut, SparseBlock.Type stype)
+	{
+		try
+		{
+			//generate input data
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, getSparsity(type), 7);
+			MatrixBlock mbA = createInput(A, type);
+
+			//compute expected result
+			double[][] C = new double[rows][cols];
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					C[i][j] = fn.execute(A[i][j], constant);
+
+			//compute single- and multi-threaded operations
+			ScalarOperator op1 = new RightScalarOperator(fn, constant);
+			ScalarOperator op2 = new RightScalarOperator(fn, constant);
+			op2.setNumThreads(k);
+			MatrixBlock ret1 = null, ret2 = null;
+			if( stype != null ) {
+				ret1 = createSparseOutput(stype);
+				ret2 = createSparseOutput(stype);
+				LibMatrixBincell.bincellOp(mbA, ret1, op1);
+				LibMatrixBincell.bincellOp(mbA, ret2, op2);
+			}
+			else {
+				ret1 = (MatrixBlock) mbA.scalarOperations(op1, new MatrixBlock());
+				ret2 = (MatrixBlock) mbA.scalarOperations(op2, new MatrixBlock());
+			}
+
+			//compare results and output representation
+			Assert.assertEquals(sparseOut, ret2.isInSparseFormat());
+			compareResults(C, ret1, ret2);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param C
+	 * @param ret1
+	 * @param ret2
+	 * @throws DMLRuntimeException
+	 */
+	private static void compareResults(double[][] C, MatrixBlock ret1, MatrixBlock ret2)
+		throws DMLRuntimeException
+	{
+		TestUtils.compareMatrices(C, DataConverter.convertToDoubleMatrix(ret1), rows, cols, eps);
+		TestUtils.compareMatrices(C, DataConverter.convertToDoubleMatrix(ret2), rows, cols, eps);
+
+		//check maintained number of non-zeros
+		long nnz1 = ret1.getNonZeros(), nnz2 = ret2.getNonZeros();
+		ret1.recomputeNonZeros();
+		ret2.recomputeNonZeros();
+		Assert.assertEquals(ret1.getNonZeros(), nnz1);
+		Assert.assertEquals(ret2.getNonZeros(), nnz2);
+		Assert.assertEquals(nnz1, nnz2);
+	}
+
+	/**
+	 *
+	 * @param X
+	 * @param type
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock createInput(double[][] X, InputType type)
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = DataConverter.convertToMatrixBlock(X);
+		Assert.assertEquals(type==InputType.SPARSE || type==InputType.SPARSE_CSR, ret.isInSparseFormat());
+		if( type == InputType.SPARSE_CSR )
+			ret = new MatrixBlock(ret, SparseBlock.Type.CSR, true);
+		return ret;
+	}
+
+	/**
+	 * Creates an empty sparse output, preallocated with the given sparse block type.
+	 *
+	 * @param stype
+	 * @return
+	 */
+	private static MatrixBlock createSparseOutput(SparseBlock.Type stype) {
+		return new MatrixBlock(rows, cols, 0, SparseBlockFactory.createSparseBlock(stype, rows));
+	}
+
+	/**
+	 * Creates a copy of the given matrix with identical non-zero structure.
+	 *
+	 * @param X
+	 * @param seed
+	 * @return
+	 */
+	private double[][] alignedCopy(double[][] X, long seed) {
+		double[][] R = getRandomMatrix(X.length, X[0].length, 1, 2, 1.0, seed);
+		for( int i=0; i<X.length; i++ )
+			for( int j=0; j<X[i].length; j++ )
+				R[i][j] = (X[i][j] != 0) ? R[i][j] : 0;
+		return R;
+	}
+
+	private static double getSparsity(InputType type) {
+		return (type==InputType.SPARSE || type==InputType.SPARSE_CSR) ? sparsity2 : sparsity1;
+	}
+
+	private static int getRows(InputType type) {
+		return (type==InputType.ROW_VECTOR) ? 1 : rows;
+	}
+
+	private static int getCols(InputType type) {
+		return (type==InputType.COL_VECTOR) ? 1 : cols;
+	}
+
+	/**
+	 *
+	 * @param opcode
+	 * @param in1
+	 * @param in2
+	 * @param k degree of parallelism, or null for instructions without this field
+	 * @return
+	 */
+	private static String createInstruction(String opcode, String in1, String in2, String k) {
+		return "CP" + Lop.OPERAND_DELIMITOR + opcode + Lop.OPERAND_DELIMITOR + in1
+			+ Lop.OPERAND_DELIMITOR + in2 + Lop.OPERAND_DELIMITOR + matrix("_mVar3")
+			+ ((k != null) ? Lop.OPERAND_DELIMITOR + k : "");
+	}
+
+	private static String matrix(String name) {
+		return name + Lop.DATATYPE_PREFIX + "MATRIX" + Lop.VALUETYPE_PREFIX + "DOUBLE";
+	}
+
+	private static String literal(String value) {
+		return value + Lop.DATATYPE_PREFIX + "SCALAR" + Lop.VALUETYPE_PREFIX
+			+ "DOUBLE" + Lop.LITERAL_PREFIX + "true";
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the page-aligned, mapped eviction file
+ * format of dense and sparse matrix blocks (write and restore roundtrip).
+ *
+ */
+public class CachingMappedEvictionTest extends AutomatedTestBase
+{
+	private final static int rows = 1321;
+	private final static int cols = 743;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.03;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testMappedEvictionDense() {
+		runMappedEvictionTest(sparsity1, null);
+	}
+
+	@Test
+	public void testMappedEvictionSparseMCSR() {
+		runMappedEvictionTest(sparsity2, SparseBlock.Type.MCSR);
+	}
+
+	@Test
+	public void testMappedEvictionSparseCSR() {
+		runMappedEvictionTest(sparsity2, SparseBlock.Type.CSR);
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 * @param stype
+	 */
+	private void runMappedEvictionTest( double sparsity, SparseBlock.Type stype )
+	{
+		File file = null;
+		try
+		{
+			//data generation
+			double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity, 7654321);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			mb.examSparsity();
+			if( stype != null && mb.isInSparseFormat() )
+				mb = new MatrixBlock(mb, stype, true);
+
+			//write and restore evicted block
+			file = File.createTempFile("cache", ".dat");
+			LocalFileUtils.writeCacheBlockToLocal(file.getAbsolutePath(), mb);
+			MatrixBlock mb2 = (MatrixBlock) LocalFileUtils
+				.readCacheBlockFromLocal(file.getAbsolutePath(), true);
+
+			//compare meta data and values
+			if( mb.isInSparseFormat() != mb2.isInSparseFormat() )
+				Assert.fail("Wrong sparse format after restore: "+mb2.isInSparseFormat());
+			if( mb.isInSparseFormat() && mb.getSparseBlock().getClass() != mb2.getSparseBlock().getClass() )
+				Assert.fail("Wrong sparse block type after restore: "+mb2.getSparseBlock().getClass().getSimpleName());
+			if( mb.getNonZeros() != mb2.getNonZeros() )
+				Assert.fail("Wrong number of non-zeros after restore: "+mb2.getNonZeros()+", expected: "+mb.getNonZeros());
+			double[][] B = DataConverter.convertToDoubleMatrix(mb2);
+			TestUtils.compareMatrices(A, B, rows, cols, 0);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			if( file != null )
+				file.delete();
+		}
+	}
+}
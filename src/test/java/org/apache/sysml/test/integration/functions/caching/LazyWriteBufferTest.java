@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.caching.CacheException;
+import org.apache.sysml.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the lazy write buffer with a small buffer
+ * size, which checks write-behind evictions and asynchronous prefetch of
+ * evicted blocks, including failed evictions that are reported on reads
+ * of the affected block but not to unrelated writers, as well as concurrent
+ * writes, reads, deletes, and evictions over all stripes of the buffer.
+ *
+ */
+public class LazyWriteBufferTest extends AutomatedTestBase
+{
+	private final static int rows = 200;
+	private final static int cols = 250;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+
+	private final static int numBlocks = 24;
+	private final static int numThreads = 4;
+	private final static int numRounds = 3;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testWriteBehindDense() {
+		runWriteBehindTest(sparsity1, false);
+	}
+
+	@Test
+	public void testWriteBehindSparse() {
+		runWriteBehindTest(sparsity2, false);
+	}
+
+	@Test
+	public void testWriteBehindFailedEviction() {
+		runWriteBehindTest(sparsity1, true);
+	}
+
+	@Test
+	public void testConcurrentWriteReadEvictDense() {
+		runConcurrentTest(sparsity1);
+	}
+
+	@Test
+	public void testConcurrentWriteReadEvictSparse() {
+		runConcurrentTest(sparsity2);
+	}
+
+	@Test
+	public void testPrefetchEvictedBlock() {
+		runPrefetchTest(false);
+	}
+
+	@Test
+	public void testPrefetchFailedEviction() {
+		runPrefetchTest(true);
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 * @param error evict the first block to an invalid file name
+	 */
+	private void runWriteBehindTest( double sparsity, boolean error )
+	{
+		boolean statsOld = DMLScript.STATISTICS;
+		DMLScript.STATISTICS = true;
+
+		try
+		{
+			MatrixBlock[] blocks = new MatrixBlock[numBlocks];
+			for( int i=0; i<numBlocks; i++ )
+				blocks[i] = createBlock(sparsity, i);
+			CacheableData.initCaching();
+			setWriteBufferLimit(blocks[0]);
+			CacheStatistics.reset();
+
+			//write blocks (exceeding the buffer size)
+			String[] fnames = new String[numBlocks];
+			for( int i=0; i<numBlocks; i++ ) {
+				fnames[i] = getFileName(i, error && i==0);
+				LazyWriteBuffer.writeBlock(fnames[i], blocks[i]);
+			}
+
+			//check evictions via write-behind
+			if( CacheableData.CACHING_ASYNC_WRITEBEHIND )
+				Assert.assertTrue("No write-behind evictions.", CacheStatistics.getWriteBehind() > 0);
+
+			//read and compare all blocks (incl failed eviction)
+			for( int i=0; i<numBlocks; i++ ) {
+				if( error && i==0 ) {
+					checkFailedRead(fnames[i]);
+					continue;
+				}
+				MatrixBlock tmp = (MatrixBlock) LazyWriteBuffer.readBlock(fnames[i], true);
+				compareBlocks(blocks[i], tmp);
+			}
+
+			//check failure reported again, but not after overwrite
+			if( error ) {
+				checkFailedRead(fnames[0]);
+				LazyWriteBuffer.writeBlock(fnames[0], blocks[0]);
+				compareBlocks(blocks[0], (MatrixBlock) LazyWriteBuffer.readBlock(fnames[0], true));
+			}
+
+			//check unrelated writes after failed eviction
+			for( int i=0; i<numBlocks; i++ ) {
+				LazyWriteBuffer.writeBlock(getFileName(numBlocks+i, false), blocks[i]);
+				LazyWriteBuffer.deleteBlock(fnames[i]);
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.cleanupCacheDir();
+			LazyWriteBuffer.setWriteBufferLimit(LazyWriteBuffer.getWriteBufferSize());
+			DMLScript.STATISTICS = statsOld;
+		}
+	}
+
+	/**
+	 * Concurrent workers that write, read, and delete their own blocks in
+	 * the shared buffer, where the distinct file names spread over all
+	 * stripes and the small buffer size causes evictions of blocks of other
+	 * workers (incl reads of concurrently evicted blocks from local FS).
+	 *
+	 * @param sparsity
+	 */
+	private void runConcurrentTest( double sparsity )
+	{
+		boolean statsOld = DMLScript.STATISTICS;
+		DMLScript.STATISTICS = true;
+		ExecutorService pool = null;
+
+		try
+		{
+			final MatrixBlock[] blocks = new MatrixBlock[numBlocks];
+			for( int i=0; i<numBlocks; i++ )
+				blocks[i] = createBlock(sparsity, i);
+			CacheableData.initCaching();
+			setWriteBufferLimit(blocks[0]);
+			CacheStatistics.reset();
+
+			//run concurrent workers on disjoint file names
+			pool = Executors.newFixedThreadPool(numThreads);
+			ArrayList<Future<Object>> rt = new ArrayList<Future<Object>>();
+			for( int k=0; k<numThreads; k++ ) {
+				final int pos = k;
+				rt.add(pool.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						//thread-local copies of input blocks
+						MatrixBlock[] lblocks = new MatrixBlock[numBlocks];
+						for( int i=0; i<numBlocks; i++ ) {
+							lblocks[i] = new MatrixBlock();
+							lblocks[i].copy(blocks[i]);
+						}
+						for( int r=0; r<numRounds; r++ ) {
+							for( int i=0; i<numBlocks; i++ )
+								LazyWriteBuffer.writeBlock(getFileName(pos*numBlocks+i, false), lblocks[(i+r+pos)%numBlocks]);
+							for( int i=0; i<numBlocks; i++ )
+								compareBlocks(lblocks[(i+r+pos)%numBlocks], (MatrixBlock)
+									LazyWriteBuffer.readBlock(getFileName(pos*numBlocks+i, false), true));
+							for( int i=0; i<numBlocks; i++ )
+								LazyWriteBuffer.deleteBlock(getFileName(pos*numBlocks+i, false));
+						}
+						return null;
+					}
+				}));
+			}
+			for( Future<Object> task : rt )
+				task.get();
+
+			//check evictions (from buffer to local FS)
+			Assert.assertTrue("No evictions.", CacheStatistics.getFSWrites() > 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			if( pool != null )
+				pool.shutdownNow();
+			CacheableData.cleanupCacheDir();
+			LazyWriteBuffer.setWriteBufferLimit(LazyWriteBuffer.getWriteBufferSize());
+			DMLScript.STATISTICS = statsOld;
+		}
+	}
+
+	/**
+	 *
+	 * @param error evict the matrix object to an invalid file name
+	 */
+	private void runPrefetchTest( boolean error )
+	{
+		boolean statsOld = DMLScript.STATISTICS;
+		DMLScript.STATISTICS = true;
+		String pathOld = null;
+
+		try
+		{
+			MatrixBlock mb = createBlock(sparsity1, 7);
+			CacheableData.initCaching();
+			setWriteBufferLimit(mb);
+			CacheStatistics.reset();
+
+			//create matrix object, and evict on release
+			pathOld = CacheableData.cacheEvictionLocalFilePath;
+			if( error )
+				CacheableData.cacheEvictionLocalFilePath = pathOld + "invalid/";
+			TestMatrixObject mo = new TestMatrixObject();
+			mo.acquireModify(mb);
+			mo.release();
+			CacheableData.cacheEvictionLocalFilePath = pathOld;
+
+			//evict matrix object buffer via writes of other blocks,
+			//and drop soft reference to enforce a restore
+			for( int i=0; i<numBlocks; i++ )
+				LazyWriteBuffer.writeBlock(getFileName(i, false), createBlock(sparsity1, i));
+			mo.clearSoftReference();
+
+			//async prefetch and subsequent read (hit or miss)
+			mo.prefetch();
+			try {
+				MatrixBlock mb2 = mo.acquireRead();
+				mo.release();
+				if( error )
+					Assert.fail("Missing exception on read of failed eviction.");
+				compareBlocks(mb, mb2);
+				Assert.assertEquals(1, CacheStatistics.getPrefetchHits()+CacheStatistics.getPrefetchMisses());
+			}
+			catch(CacheException ex) {
+				if( !error )
+					throw ex;
+			}
+
+			//check unrelated writes after failed prefetch
+			for( int i=0; i<numBlocks; i++ )
+				LazyWriteBuffer.writeBlock(getFileName(numBlocks+i, false), createBlock(sparsity1, i));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			if( pathOld != null )
+				CacheableData.cacheEvictionLocalFilePath = pathOld;
+			CacheableData.cleanupCacheDir();
+			LazyWriteBuffer.setWriteBufferLimit(LazyWriteBuffer.getWriteBufferSize());
+			DMLScript.STATISTICS = statsOld;
+		}
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 * @param seed
+	 * @return
+	 * @throws Exception
+	 */
+	private MatrixBlock createBlock( double sparsity, int seed )
+		throws Exception
+	{
+		double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, seed);
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+		mb.examSparsity();
+		return mb;
+	}
+
+	/**
+	 * Sets the buffer size to a third of all written blocks, in order
+	 * to enforce evictions with a write-behind budget of few blocks.
+	 *
+	 * @param mb
+	 */
+	private static void setWriteBufferLimit( MatrixBlock mb ) {
+		LazyWriteBuffer.setWriteBufferLimit(mb.getExactSerializedSize() * numBlocks / 3);
+	}
+
+	/**
+	 * Obtains a file name in the cache dir (deleted on cleanup), or
+	 * in a non-existing subdirectory in order to force failed evictions.
+	 *
+	 * @param pos
+	 * @param invalid
+	 * @return
+	 */
+	private static String getFileName( int pos, boolean invalid ) {
+		return CacheableData.cacheEvictionLocalFilePath + (invalid ? "invalid/" : "")
+			+ CacheableData.cacheEvictionLocalFilePrefix + "_lwb" + pos
+			+ CacheableData.CACHING_EVICTION_FILEEXTENSION;
+	}
+
+	/**
+	 *
+	 * @param fname
+	 */
+	private static void checkFailedRead( String fname ) {
+		try {
+			LazyWriteBuffer.readBlock(fname, true);
+			Assert.fail("Missing exception on read of failed eviction: "+fname);
+		}
+		catch(IOException ex) {
+			//expected
+		}
+	}
+
+	/**
+	 *
+	 * @param mb1
+	 * @param mb2
+	 */
+	private static void compareBlocks( MatrixBlock mb1, MatrixBlock mb2 ) {
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1),
+			DataConverter.convertToDoubleMatrix(mb2), rows, cols, 0);
+	}
+
+	/**
+	 * Matrix object that allows to drop its soft reference cache in
+	 * order to enforce a restore from the write buffer or local FS.
+	 */
+	private static class TestMatrixObject extends MatrixObject
+	{
+		private static final long serialVersionUID = 2891435187212352816L;
+
+		public TestMatrixObject() {
+			super(ValueType.DOUBLE, null, new MatrixFormatMetaData(
+				new MatrixCharacteristics(rows, cols, 1000, 1000),
+				OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+		}
+
+		public void clearSoftReference() {
+			clearCache();
+		}
+	}
+}
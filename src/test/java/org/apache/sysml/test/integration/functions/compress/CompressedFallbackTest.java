@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.compress;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * This is a DML-level test for operations without compressed implementation,
+ * which decompress their compressed inputs (aggregate ternary, unary aggregate
+ * outer chain, reshape, permutation matrix multiplication, and conv2d). With
+ * compressed.linalg=true, all persistent reads are compressed, and the results
+ * are compared with the results of the same script without compression.
+ *
+ */
+public class CompressedFallbackTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "CompressedFallbackTest";
+	private final static String TEST_DIR = "functions/compress/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + CompressedFallbackTest.class.getSimpleName() + "/";
+	private final static String TEST_CONF = "SystemML-config-compress.xml";
+
+	private final static int rows = 2000;
+	private final static int cols = 64; //1x8x8 images
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-8;
+
+	private final static String[] opcodes = new String[] {
+		"compress", "tak+*", "uaggouterchain", "rshape", "pmm", "conv2d" };
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME,
+			new String[] { "R1", "R2", "R3", "R4", "R5" }) );
+	}
+
+	@Test
+	public void testCompressedFallbackDenseCP() {
+		runCompressedFallbackTest(sparsity1);
+	}
+
+	@Test
+	public void testCompressedFallbackSparseCP() {
+		runCompressedFallbackTest(sparsity2);
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 */
+	private void runCompressedFallbackTest( double sparsity )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+
+			//generate compressible input data (few distinct values)
+			double[][] X = getRandomMatrix(rows, cols, 0, 3, sparsity, 7);
+			double[][] Y = getRandomMatrix(rows, cols, 0, 3, sparsity, 3);
+			double[][] v = getRandomMatrix(rows, 1, 0, 3, 1.0, 9);
+			round(X); round(Y); round(v);
+			writeInputMatrixWithMTD("X", X, true);
+			writeInputMatrixWithMTD("Y", Y, true);
+			writeInputMatrixWithMTD("v", v, true);
+
+			//run without compression (expected results)
+			programArgs = new String[]{ "-stats", "-args", input("X"), input("Y"), input("v"),
+				expected("R1"), expected("R2"), expected("R3"), expected("R4"), expected("R5"),
+				String.valueOf(rows) };
+			runTest(true, false, null, -1);
+
+			//run with compression of all inputs
+			programArgs = new String[]{ "-stats", "-config=" + HOME + TEST_CONF, "-args",
+				input("X"), input("Y"), input("v"), output("R1"), output("R2"),
+				output("R3"), output("R4"), output("R5"), String.valueOf(rows) };
+			runTest(true, false, null, -1);
+
+			//check executed operations (incl compression)
+			for( String opcode : opcodes )
+				Assert.assertTrue("Missing opcode: "+opcode,
+					Statistics.getCPHeavyHitterOpCodes().contains(opcode));
+
+			//compare matrices
+			for( String name : new String[]{"R1", "R2", "R3", "R4", "R5"} ) {
+				HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS(name);
+				HashMap<CellIndex, Double> expfile = TestUtils.readDMLMatrixFromHDFS(expected(name));
+				TestUtils.compareMatrices(dmlfile, expfile, eps, "Stat-Compressed", "Stat-Uncompressed");
+			}
+		}
+		finally {
+			rtplatform = platformOld;
+		}
+	}
+
+	/**
+	 *
+	 * @param A
+	 */
+	private static void round(double[][] A) {
+		for( int i=0; i<A.length; i++ )
+			for( int j=0; j<A[i].length; j++ )
+				A[i][j] = Math.round(A[i][j]);
+	}
+}
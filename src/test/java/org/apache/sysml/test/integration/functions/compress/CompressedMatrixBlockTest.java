@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.LibMatrixCTable;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for compressed matrix blocks, which compares
+ * the results of compressed operations (matrix-vector, vector-matrix, 
+ * unary aggregates, scalar operations, serialization, as well as binary, 
+ * append, left indexing, and ctable operations with compressed right-hand 
+ * side inputs) with the results of the same operations over the 
+ * uncompressed input.
+ *
+ */
+public class CompressedMatrixBlockTest extends AutomatedTestBase
+{
+	private final static int rows = 3123;
+	private final static int cols = 17;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-8;
+	
+	private enum OpType {
+		MV, VM, SUM, ROWSUMS, COLSUMS, MAX, SCALAR_PLUS, SCALAR_MULT, SERIALIZE, DECOMPRESS,
+		BINARY_RHS, CBIND_RHS, RBIND_RHS, LEFTINDEX_RHS, CTABLE_RHS
+	}
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testMatrixVectorDense() {
+		runCompressedTest(OpType.MV, sparsity1, 1);
+	}
+	
+	@Test
+	public void testMatrixVectorSparseMultiThreaded() {
+		runCompressedTest(OpType.MV, sparsity2, 4);
+	}
+	
+	@Test
+	public void testVectorMatrixDense() {
+		runCompressedTest(OpType.VM, sparsity1, 1);
+	}
+	
+	@Test
+	public void testVectorMatrixSparseMultiThreaded() {
+		runCompressedTest(OpType.VM, sparsity2, 4);
+	}
+	
+	@Test
+	public void testSumDense() {
+		runCompressedTest(OpType.SUM, sparsity1, 1);
+	}
+	
+	@Test
+	public void testRowSumsSparse() {
+		runCompressedTest(OpType.ROWSUMS, sparsity2, 4);
+	}
+	
+	@Test
+	public void testColSumsSparse() {
+		runCompressedTest(OpType.COLSUMS, sparsity2, 4);
+	}
+	
+	@Test
+	public void testMaxSparse() {
+		runCompressedTest(OpType.MAX, sparsity2, 1);
+	}
+	
+	@Test
+	public void testScalarPlusSparse() {
+		runCompressedTest(OpType.SCALAR_PLUS, sparsity2, 1);
+	}
+	
+	@Test
+	public void testScalarMultDense() {
+		runCompressedTest(OpType.SCALAR_MULT, sparsity1, 1);
+	}
+	
+	@Test
+	public void testSerializeDense() {
+		runCompressedTest(OpType.SERIALIZE, sparsity1, 1);
+	}
+	
+	@Test
+	public void testDecompressSparseMultiThreaded() {
+		runCompressedTest(OpType.DECOMPRESS, sparsity2, 4);
+	}
+	
+	@Test
+	public void testBinaryCompressedRhsDense() {
+		runCompressedTest(OpType.BINARY_RHS, sparsity1, 1);
+	}
+	
+	@Test
+	public void testBinaryCompressedRhsSparseMultiThreaded() {
+		runCompressedTest(OpType.BINARY_RHS, sparsity2, 4);
+	}
+	
+	@Test
+	public void testCbindCompressedRhsSparse() {
+		runCompressedTest(OpType.CBIND_RHS, sparsity2, 1);
+	}
+	
+	@Test
+	public void testRbindCompressedRhsDense() {
+		runCompressedTest(OpType.RBIND_RHS, sparsity1, 1);
+	}
+	
+	@Test
+	public void testLeftIndexingCompressedRhsDense() {
+		runCompressedTest(OpType.LEFTINDEX_RHS, sparsity1, 1);
+	}
+	
+	@Test
+	public void testLeftIndexingCompressedRhsSparse() {
+		runCompressedTest(OpType.LEFTINDEX_RHS, sparsity2, 1);
+	}
+	
+	@Test
+	public void testCTableCompressedRhsSparseMultiThreaded() {
+		runCompressedTest(OpType.CTABLE_RHS, sparsity2, 4);
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param sparsity
+	 * @param k
+	 */
+	private void runCompressedTest( OpType type, double sparsity, int k )
+	{
+		try
+		{
+			//data generation (few distinct values per column)
+			double[][] A = getRandomMatrix(rows, cols, 0, 9, sparsity, 7);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					A[i][j] = Math.round(A[i][j]);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			
+			//compress the matrix block
+			CompressedMatrixBlock cmb = new CompressedMatrixBlock(mb);
+			cmb.compress(k);
+			if( !cmb.isCompressed() )
+				Assert.fail("Matrix block was not compressed.");
+			
+			//execute operations on uncompressed and compressed blocks
+			MatrixBlock ret1 = null, ret2 = null;
+			AggregateOperator aop = new AggregateOperator(0, Plus.getPlusFnObject());
+			AggregateBinaryOperator abop = new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), aop, k);
+			switch( type ) {
+				case MV: {
+					MatrixBlock v = DataConverter.convertToMatrixBlock(getRandomMatrix(cols, 1, -1, 1, 1.0, 3));
+					ret1 = (MatrixBlock) mb.aggregateBinaryOperations(mb, v, new MatrixBlock(), abop);
+					ret2 = (MatrixBlock) cmb.aggregateBinaryOperations(cmb, v, new MatrixBlock(), abop);
+					break;
+				}
+				case VM: {
+					MatrixBlock v = DataConverter.convertToMatrixBlock(getRandomMatrix(1, rows, -1, 1, 1.0, 3));
+					ret1 = (MatrixBlock) mb.aggregateBinaryOperations(v, mb, new MatrixBlock(), abop);
+					ret2 = (MatrixBlock) cmb.aggregateBinaryOperations(v, cmb, new MatrixBlock(), abop);
+					break;
+				}
+				case SUM:
+				case ROWSUMS:
+				case COLSUMS:
+				case MAX: {
+					String opcode = (type==OpType.SUM) ? "uak+" : (type==OpType.ROWSUMS) ? 
+						"uark+" : (type==OpType.COLSUMS) ? "uack+" : "uamax";
+					AggregateUnaryOperator auop = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+					ret1 = (MatrixBlock) mb.aggregateUnaryOperations(auop, new MatrixBlock(), 
+						rows, cols, new MatrixIndexes(1, 1), true);
+					ret2 = (MatrixBlock) cmb.aggregateUnaryOperations(auop, new MatrixBlock(), 
+						rows, cols, new MatrixIndexes(1, 1), true);
+					break;
+				}
+				case SCALAR_PLUS:
+				case SCALAR_MULT: {
+					ScalarOperator sop = (type==OpType.SCALAR_PLUS) ?
+						new RightScalarOperator(Plus.getPlusFnObject(), 7) :
+						new RightScalarOperator(Multiply.getMultiplyFnObject(), 3);
+					ret1 = (MatrixBlock) mb.scalarOperations(sop, new MatrixBlock());
+					ret2 = (MatrixBlock) cmb.scalarOperations(sop, new MatrixBlock());
+					ret2 = CompressedMatrixBlock.getUncompressed(ret2);
+					break;
+				}
+				case SERIALIZE: {
+					ByteArrayOutputStream bos = new ByteArrayOutputStream();
+					DataOutputStream dos = new DataOutputStream(bos);
+					cmb.write(dos);
+					dos.flush();
+					if( bos.size() != cmb.getExactSizeOnDisk() )
+						Assert.fail("Wrong serialized size: "+bos.size()+", expected: "+cmb.getExactSizeOnDisk());
+					CompressedMatrixBlock cmb2 = new CompressedMatrixBlock();
+					cmb2.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+					ret1 = mb;
+					ret2 = cmb2.decompress();
+					break;
+				}
+				case DECOMPRESS: {
+					ret1 = mb;
+					ret2 = cmb.decompress(k);
+					break;
+				}
+				//uncompressed left-hand side, compressed right-hand side
+				case BINARY_RHS: {
+					MatrixBlock B = DataConverter.convertToMatrixBlock(getRandomMatrix(rows, cols, -1, 1, 0.7, 3));
+					BinaryOperator bop = new BinaryOperator(Plus.getPlusFnObject(), k);
+					ret1 = (MatrixBlock) B.binaryOperations(bop, mb, new MatrixBlock());
+					ret2 = (MatrixBlock) B.binaryOperations(bop, cmb, new MatrixBlock());
+					break;
+				}
+				case CBIND_RHS:
+				case RBIND_RHS: {
+					MatrixBlock B = DataConverter.convertToMatrixBlock(getRandomMatrix(rows, cols, -1, 1, 0.7, 3));
+					boolean cbind = (type==OpType.CBIND_RHS);
+					ret1 = B.appendOperations(mb, new MatrixBlock(), cbind);
+					ret2 = B.appendOperations(cmb, new MatrixBlock(), cbind);
+					break;
+				}
+				case LEFTINDEX_RHS: {
+					MatrixBlock B = DataConverter.convertToMatrixBlock(getRandomMatrix(rows+7, cols+3, -1, 1, 0.7, 3));
+					ret1 = B.leftIndexingOperations(mb, 3, rows+2, 1, cols, new MatrixBlock(), UpdateType.COPY);
+					ret2 = B.leftIndexingOperations(cmb, 3, rows+2, 1, cols, new MatrixBlock(), UpdateType.COPY);
+					break;
+				}
+				case CTABLE_RHS: {
+					//shift values to [1,10] as required by ctable
+					ScalarOperator sop = new RightScalarOperator(Plus.getPlusFnObject(), 1);
+					MatrixBlock mb1 = (MatrixBlock) mb.scalarOperations(sop, new MatrixBlock());
+					MatrixBlock cmb1 = (MatrixBlock) cmb.scalarOperations(sop, new MatrixBlock());
+					if( !(cmb1 instanceof CompressedMatrixBlock && ((CompressedMatrixBlock)cmb1).isCompressed()) )
+						Assert.fail("Scalar operation output was not compressed.");
+					double[][] B = getRandomMatrix(rows, cols, 1, 5, 1.0, 3);
+					for( int i=0; i<rows; i++ )
+						for( int j=0; j<cols; j++ )
+							B[i][j] = Math.round(B[i][j]);
+					MatrixBlock mbB = DataConverter.convertToMatrixBlock(B);
+					ret1 = LibMatrixCTable.ctable(mbB, mb1, 0, null, 1, false, -1, -1, k);
+					ret2 = LibMatrixCTable.ctable(mbB, cmb1, 0, null, 1, false, -1, -1, k);
+					break;
+				}
+			}
+			
+			//compare result matrices
+			double[][] C1 = DataConverter.convertToDoubleMatrix(ret1);
+			double[][] C2 = DataConverter.convertToDoubleMatrix(ret2);
+			TestUtils.compareMatrices(C1, C2, ret1.getNumRows(), ret1.getNumColumns(), eps);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -29,6 +29,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.instructions.spark.utils.SparkKryoRegistrator;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.util.UtilFunctions;
 import org.apache.sysml.test.integration.AutomatedTestBase;
@@ -36,6 +37,10 @@ import org.apache.sysml.test.utils.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
 public class FrameSerializationTest extends AutomatedTestBase
 {
 	private final static int rows = 2791;
@@ -45,6 +50,7 @@ public class FrameSerializationTest extends AutomatedTestBase
 	private enum SerType {
 		WRITABLE_SER,
 		JAVA_SER,
+		KRYO_SER,
 	}
 	
 	@Override
@@ -71,6 +77,16 @@ public class FrameSerializationTest extends AutomatedTestBase
 	public void testFrameMixedJava()  {
 		runFrameSerializeTest(schemaMixed, SerType.JAVA_SER);
 	}
+	
+	@Test
+	public void testFrameStringsKryo()  {
+		runFrameSerializeTest(schemaStrings, SerType.KRYO_SER);
+	}
+	
+	@Test
+	public void testFrameMixedKryo()  {
+		runFrameSerializeTest(schemaMixed, SerType.KRYO_SER);
+	}
 
 	
 	/**
@@ -123,6 +139,17 @@ public class FrameSerializationTest extends AutomatedTestBase
 				ObjectInputStream ois = new ObjectInputStream(bis);
 				frame = (FrameBlock) ois.readObject();
 			}
+			else if( stype == SerType.KRYO_SER ) {
+				//serialization
+				Kryo kryo = new Kryo();
+				new SparkKryoRegistrator().registerClasses(kryo);
+				Output out = new Output(4096, -1);
+				kryo.writeObject(out, frame);
+				
+				//deserialization
+				Input in = new Input(out.toBytes());
+				frame = kryo.readObject(in, FrameBlock.class);
+			}
 			
 			//check basic meta data
 			if( frame.getNumRows() != rows )
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.indexing;
+
+import java.util.HashMap;
+
+import org.apache.spark.api.java.JavaPairRDD;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
+import org.apache.sysml.runtime.instructions.spark.MatrixIndexingSPInstruction;
+import org.apache.sysml.runtime.instructions.spark.data.BlockPartitioner;
+import org.apache.sysml.runtime.instructions.spark.utils.RDDAggregateUtils;
+import org.apache.sysml.runtime.instructions.spark.utils.SparkUtils;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.IndexRange;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This test checks mini-batch right indexing in a loop over a partitioned 
+ * (reblocked) spark matrix, which allows for partition pruning, with batches 
+ * within single blocks as well as batches that span multiple blocks. The
+ * component tests check that merges with block partitioner (as used for
+ * repartition and caching) allow to prune partitions of unrequested blocks.
+ * 
+ */
+public class RightIndexingPartitionPruningTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "RightIndexingPartitionPruning";
+	private final static String TEST_DIR = "functions/indexing/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + RightIndexingPartitionPruningTest.class.getSimpleName() + "/";
+	
+	private final static double epsilon=0.0000000001;
+	private final static int rows = 3500;
+	private final static int cols = 1500;
+	
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	
+	private final static int blksize = 100;
+	private final static int numParts = 16;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"R"}));
+	}
+	
+	@Test
+	public void testSingleBlockBatchesDense() {
+		runPartitionPruningTest(100, false);
+	}
+	
+	@Test
+	public void testMultiBlockBatchesDense() {
+		runPartitionPruningTest(700, false);
+	}
+	
+	@Test
+	public void testSingleBlockBatchesSparse() {
+		runPartitionPruningTest(100, true);
+	}
+	
+	@Test
+	public void testMultiBlockBatchesSparse() {
+		runPartitionPruningTest(700, true);
+	}
+	
+	@Test
+	public void testPrunedPartitionsSingleBlockBatch() {
+		runPrunedPartitionsTest(101, 200, 1, cols);
+	}
+	
+	@Test
+	public void testPrunedPartitionsMultiBlockBatch() {
+		runPrunedPartitionsTest(251, 480, 1, cols);
+	}
+	
+	@Test
+	public void testPrunedPartitionsSingleBlock() {
+		runPrunedPartitionsTest(1401, 1450, 301, 400);
+	}
+	
+	/**
+	 * 
+	 * @param batchsize
+	 * @param sparse
+	 */
+	private void runPartitionPruningTest( int batchsize, boolean sparse ) 
+	{
+		RUNTIME_PLATFORM oldRTP = rtplatform;
+		boolean sparkConfigOld = DMLScript.USE_LOCAL_SPARK_CONFIG;
+		rtplatform = RUNTIME_PLATFORM.SPARK;
+		DMLScript.USE_LOCAL_SPARK_CONFIG = true;
+		
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			
+			int numBatches = rows / batchsize;
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", input("A"), 
+				Integer.toString(rows), Integer.toString(cols),
+				Integer.toString(batchsize), Integer.toString(numBatches), output("R") };
+			
+			//generate text input, which is hash-partitioned by spark reblock
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] A = getRandomMatrix(rows, cols, 0, 1, sparsity, 7);
+			writeInputMatrix("A", A, false);
+			
+			runTest(true, false, null, -1);
+			
+			//compute expected result (sum of all batches)
+			double[][] R = new double[batchsize][cols];
+			for( int k=0; k<numBatches; k++ )
+				for( int i=0; i<batchsize; i++ )
+					for( int j=0; j<cols; j++ )
+						R[i][j] += A[k*batchsize+i][j];
+			
+			//compare matrices 
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			HashMap<CellIndex, Double> expected = TestUtils.convert2DDoubleArrayToHashMap(R);
+			TestUtils.compareMatrices(dmlfile, expected, epsilon, "DML", "Expected");
+		}
+		finally
+		{
+			rtplatform = oldRTP;
+			DMLScript.USE_LOCAL_SPARK_CONFIG = sparkConfigOld;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 */
+	private void runPrunedPartitionsTest( long rl, long ru, long cl, long cu ) 
+	{
+		RUNTIME_PLATFORM oldRTP = DMLScript.rtplatform;
+		boolean sparkConfigOld = DMLScript.USE_LOCAL_SPARK_CONFIG;
+		DMLScript.rtplatform = RUNTIME_PLATFORM.SPARK;
+		DMLScript.USE_LOCAL_SPARK_CONFIG = true;
+		
+		SparkExecutionContext sec = null;
+		try
+		{
+			sec = (SparkExecutionContext) ExecutionContextFactory.createContext();
+			
+			//create hash-partitioned input and merge with block partitioner
+			double[][] A = getRandomMatrix(rows, cols, 0, 1, sparsity1, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, blksize, blksize, mb.getNonZeros());
+			JavaPairRDD<MatrixIndexes,MatrixBlock> in = SparkExecutionContext
+				.toMatrixJavaPairRDD(sec.getSparkContext(), mb, blksize, blksize)
+				.repartition(numParts);
+			JavaPairRDD<MatrixIndexes,MatrixBlock> out = RDDAggregateUtils.mergeByKey(mc, in);
+			
+			Assert.assertTrue("Missing partitioner.", SparkUtils.isPartitioned(out));
+			Assert.assertTrue("Wrong partitioner.", out.rdd().partitioner().get() instanceof BlockPartitioner);
+			Assert.assertEquals(numParts, out.partitions().size());
+			
+			//create partition pruning rdd for requested index range
+			IndexRange ixrange = new IndexRange(rl, ru, cl, cu);
+			Assert.assertTrue("Partition pruning not applicable.", 
+				MatrixIndexingSPInstruction.isPartitionPruningApplicable(out, mc, ixrange));
+			Assert.assertFalse("Partition pruning applicable for full range.", 
+				MatrixIndexingSPInstruction.isPartitionPruningApplicable(out, mc, new IndexRange(1, rows, 1, cols)));
+			JavaPairRDD<MatrixIndexes,MatrixBlock> pruned = 
+				MatrixIndexingSPInstruction.createPartitionPruningRDD(out, mc, ixrange);
+			
+			//check fewer partitions touched, but all requested blocks contained
+			long rbl = (rl-1)/blksize+1, rbu = (ru-1)/blksize+1;
+			long cbl = (cl-1)/blksize+1, cbu = (cu-1)/blksize+1;
+			Assert.assertTrue("No partitions pruned: "+pruned.partitions().size(), 
+				pruned.partitions().size() < out.partitions().size());
+			Assert.assertTrue("Too many partitions touched: "+pruned.partitions().size(), 
+				pruned.partitions().size() <= (rbu-rbl+1)*(cbu-cbl+1));
+			int count = 0;
+			for( MatrixIndexes ix : pruned.keys().collect() )
+				if( ix.getRowIndex()>=rbl && ix.getRowIndex()<=rbu 
+					&& ix.getColumnIndex()>=cbl && ix.getColumnIndex()<=cbu )
+					count++;
+			Assert.assertEquals((rbu-rbl+1)*(cbu-cbl+1), count);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			if( sec != null )
+				sec.close();
+			DMLScript.rtplatform = oldRTP;
+			DMLScript.USE_LOCAL_SPARK_CONFIG = sparkConfigOld;
+		}
+	}
+}
@@ -195,14 +195,54 @@ public class SeqParReadTest extends AutomatedTestBase {
 		runReadTypeFormatSparsitySizeTest(true, OutputInfo.MatrixMarketOutputInfo, true, true);
 	}
 
+	@Test
+	public void testSeqReadLIBSVMSparseSmall() {
+		runReadTypeFormatSparsitySizeTest(false, OutputInfo.LIBSVMOutputInfo, false, false);
+	}
+
+	@Test
+	public void testParReadLIBSVMSparseSmall() {
+		runReadTypeFormatSparsitySizeTest(true, OutputInfo.LIBSVMOutputInfo, false, false);
+	}
+
+	@Test
+	public void testSeqReadLIBSVMDenseSmall() {
+		runReadTypeFormatSparsitySizeTest(false, OutputInfo.LIBSVMOutputInfo, true, false);
+	}
+
+	@Test
+	public void testParReadLIBSVMDenseSmall() {
+		runReadTypeFormatSparsitySizeTest(true, OutputInfo.LIBSVMOutputInfo, true, false);
+	}
+
+	@Test
+	public void testSeqReadLIBSVMSparseBig() {
+		runReadTypeFormatSparsitySizeTest(false, OutputInfo.LIBSVMOutputInfo, false, true);
+	}
+
+	@Test
+	public void testParReadLIBSVMSparseBig() {
+		runReadTypeFormatSparsitySizeTest(true, OutputInfo.LIBSVMOutputInfo, false, true);
+	}
+
+	@Test
+	public void testSeqReadLIBSVMDenseBig() {
+		runReadTypeFormatSparsitySizeTest(false, OutputInfo.LIBSVMOutputInfo, true, true);
+	}
+
+	@Test
+	public void testParReadLIBSVMDenseBig() {
+		runReadTypeFormatSparsitySizeTest(true, OutputInfo.LIBSVMOutputInfo, true, true);
+	}
+
 	/*
-	 * Generate a matrix (big/small dense/sparse) and write it as AX(text/csv/mm/bin) & BX(mm)
+	 * Generate a matrix (big/small dense/sparse) and write it as AX(text/csv/mm/libsvm/bin) & BX(mm)
 	 * Read AX and sum-up using DML script scripts/functions/io/SeqParReadTest.dml
 	 * Read BX and sum-up using RScript scripts/functions/io/matrixmarket/mm_verify.R in MM format
 	 * Compare the two results
 	 * 
 	 * @param parallel : Is the read parallel or not(sequential)
-	 * @param fmt : text/csv/mm
+	 * @param fmt : text/csv/mm/libsvm
 	 * @param dense : Is the matrix dense or not(sparse)
 	 * @param big : Is the matrix big or not(small)
 	 * 
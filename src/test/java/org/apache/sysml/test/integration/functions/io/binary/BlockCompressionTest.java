@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.binary;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapred.JobConf;
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.runtime.controlprogram.caching.ByteBuffer;
+import org.apache.sysml.runtime.io.BlockCompressionCodec;
+import org.apache.sysml.runtime.io.BlockCompressionUtils;
+import org.apache.sysml.runtime.io.IOUtilFunctions;
+import org.apache.sysml.runtime.io.MatrixReader;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the block compression of evicted matrix blocks
+ * (local files, incl byte buffers of the buffer pool) and binary block files,
+ * for compressible (few distinct values) and incompressible (random values)
+ * dense and sparse matrices. Besides the roundtrip, it checks the compressed
+ * formats (magic number, sequence file codec) and reduced file sizes.
+ *
+ */
+public class BlockCompressionTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "BlockCompressionTest";
+	private final static String TEST_DIR = "functions/io/binary/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + BlockCompressionTest.class.getSimpleName() + "/";
+
+	private final static int rows = 2345;
+	private final static int cols = 789;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "X" }) );
+	}
+
+	@Test
+	public void testLocalDenseCompressible() {
+		runBlockCompressionTest(sparsity1, true, true);
+	}
+
+	@Test
+	public void testLocalDenseIncompressible() {
+		runBlockCompressionTest(sparsity1, false, true);
+	}
+
+	@Test
+	public void testLocalSparseCompressible() {
+		runBlockCompressionTest(sparsity2, true, true);
+	}
+
+	@Test
+	public void testLocalSparseIncompressible() {
+		runBlockCompressionTest(sparsity2, false, true);
+	}
+
+	@Test
+	public void testBufferSparseCompressible() {
+		runBufferCompressionTest(true);
+	}
+
+	@Test
+	public void testBufferSparseIncompressible() {
+		runBufferCompressionTest(false);
+	}
+
+	@Test
+	public void testBinaryBlockDenseCompressible() {
+		runBlockCompressionTest(sparsity1, true, false);
+	}
+
+	@Test
+	public void testBinaryBlockDenseIncompressible() {
+		runBlockCompressionTest(sparsity1, false, false);
+	}
+
+	@Test
+	public void testBinaryBlockSparseCompressible() {
+		runBlockCompressionTest(sparsity2, true, false);
+	}
+
+	@Test
+	public void testBinaryBlockSparseIncompressible() {
+		runBlockCompressionTest(sparsity2, false, false);
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 * @param compressible
+	 * @param local
+	 */
+	private void runBlockCompressionTest( double sparsity, boolean compressible, boolean local )
+	{
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			//enable block compression
+			DMLConfig conf2 = new DMLConfig();
+			conf2.setTextValue(DMLConfig.COMPRESSED_IO, BlockCompressionUtils.CODEC_LZ4);
+			ConfigurationManager.setLocalConfig(conf2);
+
+			//data generation (rounded values for compressible data)
+			double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity, 7);
+			if( compressible )
+				for( int i=0; i<rows; i++ )
+					for( int j=0; j<cols; j++ )
+						A[i][j] = Math.round(A[i][j]);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			Assert.assertEquals(compressible, BlockCompressionUtils.isCompressible(mb));
+
+			//write and read compressed matrix
+			MatrixBlock ret = null;
+			if( local ) {
+				LocalFileUtils.createLocalFileIfNotExist(output(""));
+				LocalFileUtils.writeCacheBlockToLocal(output("X"), mb);
+				ret = (MatrixBlock) LocalFileUtils.readCacheBlockFromLocal(output("X"), true);
+
+				//check compressed format and size (only compressible blocks)
+				Assert.assertEquals(compressible, hasBlockCompressedHeader(output("X")));
+				if( compressible )
+					Assert.assertTrue(new File(output("X")).length() < mb.getExactSerializedSize());
+			}
+			else {
+				MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 1000, 1000);
+				DataConverter.writeMatrixToHDFS(mb, output("X"), OutputInfo.BinaryBlockOutputInfo, mc);
+				ret = DataConverter.readMatrixFromHDFS(output("X"), InputInfo.BinaryBlockInputInfo, rows, cols, 1000, 1000);
+
+				//check block-compressed sequence files, and size compared to uncompressed write
+				checkBlockCompressedSequenceFiles(output("X"));
+				ConfigurationManager.setLocalConfig(new DMLConfig()); //default: none
+				DataConverter.writeMatrixToHDFS(mb, output("Y"), OutputInfo.BinaryBlockOutputInfo, mc);
+				if( compressible )
+					Assert.assertTrue(getFileSize(output("X")) < getFileSize(output("Y")));
+			}
+
+			//compare matrices
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+			Assert.assertEquals(mb.getNonZeros(), ret.getNonZeros());
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ConfigurationManager.setLocalConfig(conf);
+		}
+	}
+
+	/**
+	 * Evicts a byte-serialized (non-shallow) sparse block of the buffer pool,
+	 * and checks its compressed format and the restored block.
+	 *
+	 * @param compressible
+	 */
+	private void runBufferCompressionTest( boolean compressible )
+	{
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			//enable block compression
+			DMLConfig conf2 = new DMLConfig();
+			conf2.setTextValue(DMLConfig.COMPRESSED_IO, BlockCompressionUtils.CODEC_LZ4);
+			ConfigurationManager.setLocalConfig(conf2);
+
+			//data generation (rounded values for compressible data)
+			double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity2, 7);
+			if( compressible )
+				for( int i=0; i<rows; i++ )
+					for( int j=0; j<cols; j++ )
+						A[i][j] = Math.round(A[i][j]);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+
+			//serialize into byte buffer and evict
+			ByteBuffer buff = new ByteBuffer(mb.getExactSerializedSize());
+			buff.serializeBlock(mb);
+			Assert.assertFalse("Unexpected shallow serialization.", buff.isShallow());
+			LocalFileUtils.createLocalFileIfNotExist(output(""));
+			buff.evictBuffer(output("X"));
+			MatrixBlock ret = (MatrixBlock) LocalFileUtils.readCacheBlockFromLocal(output("X"), true);
+
+			//check compressed format and size, and compare matrices
+			Assert.assertEquals(compressible, hasBlockCompressedHeader(output("X")));
+			if( compressible )
+				Assert.assertTrue(new File(output("X")).length() < mb.getExactSerializedSize());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+			Assert.assertEquals(mb.getNonZeros(), ret.getNonZeros());
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ConfigurationManager.setLocalConfig(conf);
+		}
+	}
+
+	/**
+	 *
+	 * @param fname
+	 * @return
+	 * @throws IOException
+	 */
+	private static boolean hasBlockCompressedHeader( String fname )
+		throws IOException
+	{
+		DataInputStream in = new DataInputStream(new FileInputStream(fname));
+		try {
+			return in.readLong() == LocalFileUtils.BLOCK_COMPRESSED_MAGIC;
+		}
+		finally {
+			IOUtilFunctions.closeSilently(in);
+		}
+	}
+
+	/**
+	 *
+	 * @param fname
+	 * @throws IOException
+	 */
+	@SuppressWarnings("deprecation")
+	private static void checkBlockCompressedSequenceFiles( String fname )
+		throws IOException
+	{
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = FileSystem.get(job);
+		for( Path lpath : MatrixReader.getSequenceFilePaths(fs, path) ) {
+			SequenceFile.Reader reader = new SequenceFile.Reader(fs, lpath, job);
+			try {
+				Assert.assertTrue("Not block-compressed: "+lpath, reader.isBlockCompressed());
+				Assert.assertTrue("Wrong codec: "+reader.getCompressionCodec(),
+					reader.getCompressionCodec() instanceof BlockCompressionCodec);
+			}
+			finally {
+				IOUtilFunctions.closeSilently(reader);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param fname
+	 * @return
+	 * @throws IOException
+	 */
+	private static long getFileSize( String fname )
+		throws IOException
+	{
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = FileSystem.get(job);
+		long ret = 0;
+		for( Path lpath : MatrixReader.getSequenceFilePaths(fs, path) )
+			ret += fs.getFileStatus(lpath).getLen();
+		return ret;
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.instructions.spark.data.PartitionedBlock;
+import org.apache.sysml.runtime.instructions.spark.utils.SparkKryoRegistrator;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * This is a component test for the kryo serialization of matrix indexes,
+ * matrix blocks, and partitioned matrix blocks as used for spark shuffle, 
+ * broadcasts, and serialized storage levels.
+ *
+ */
+public class KryoSerializationTest extends AutomatedTestBase 
+{
+	private final static int rows = 1234;
+	private final static int cols1 = 567;
+	private final static int cols2 = 4;
+	private final static int blen = 100;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testEmptyBlock() {
+		runKryoSerializationTest( cols1, 0.0, false );
+	}
+	
+	@Test
+	public void testDenseBlock() {
+		runKryoSerializationTest( cols1, 1.0, false );
+	}
+	
+	@Test
+	public void testSparseBlock() {
+		runKryoSerializationTest( cols1, 0.1, false );
+	}
+	
+	@Test
+	public void testUltraSparseBlock() {
+		runKryoSerializationTest( cols2, 0.0001, false );
+	}
+	
+	@Test
+	public void testPartitionedDenseBlock() {
+		runKryoSerializationTest( cols1, 1.0, true );
+	}
+	
+	@Test
+	public void testPartitionedSparseBlock() {
+		runKryoSerializationTest( cols1, 0.1, true );
+	}
+	
+	@Test
+	public void testMatrixIndexes() 
+	{
+		Kryo kryo = createKryo();
+		MatrixIndexes ix = new MatrixIndexes(7, 3L*Integer.MAX_VALUE);
+		Output out = new Output(64, -1);
+		kryo.writeObject(out, ix);
+		MatrixIndexes ix2 = kryo.readObject(new Input(out.toBytes()), MatrixIndexes.class);
+		Assert.assertEquals(ix, ix2);
+	}
+	
+	/**
+	 * 
+	 * @param cols
+	 * @param sparsity
+	 * @param partitioned
+	 */
+	@SuppressWarnings("unchecked")
+	private void runKryoSerializationTest( int cols, double sparsity, boolean partitioned ) 
+	{
+		try
+		{
+			//data generation
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			
+			//serialization via registered serializers
+			Kryo kryo = createKryo();
+			Output out = new Output(4096, -1);
+			PartitionedBlock<MatrixBlock> pmb = partitioned ? 
+				new PartitionedBlock<MatrixBlock>(mb, blen, blen) : null;
+			kryo.writeObject(out, partitioned ? pmb : mb);
+			
+			//deserialization and comparison
+			Input in = new Input(out.toBytes());
+			if( partitioned ) {
+				PartitionedBlock<MatrixBlock> pmb2 = kryo.readObject(in, PartitionedBlock.class);
+				Assert.assertEquals(pmb.getNumRows(), pmb2.getNumRows());
+				Assert.assertEquals(pmb.getNumCols(), pmb2.getNumCols());
+				for( int i=1; i<=pmb.getNumRowBlocks(); i++ )
+					for( int j=1; j<=pmb.getNumColumnBlocks(); j++ )
+						compareMatrixBlocks(pmb.getBlock(i, j), pmb2.getBlock(i, j));
+			}
+			else {
+				compareMatrixBlocks(mb, kryo.readObject(in, MatrixBlock.class));
+			}
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param mb1
+	 * @param mb2
+	 */
+	private static void compareMatrixBlocks(MatrixBlock mb1, MatrixBlock mb2) {
+		int rlen = mb1.getNumRows(), clen = mb1.getNumColumns();
+		Assert.assertEquals(rlen, mb2.getNumRows());
+		Assert.assertEquals(clen, mb2.getNumColumns());
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1), 
+			DataConverter.convertToDoubleMatrix(mb2), rlen, clen, 0);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private static Kryo createKryo() {
+		Kryo kryo = new Kryo();
+		new SparkKryoRegistrator().registerClasses(kryo);
+		return kryo;
+	}
+}
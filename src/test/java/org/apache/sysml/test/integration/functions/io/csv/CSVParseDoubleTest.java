@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.csv;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.io.IOUtilFunctions;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the byte-level double parser and delimiter
+ * scanner of the parallel csv reader, which checks that parsed values are
+ * bit-identical to Double.parseDouble, including the fallback cases.
+ *
+ */
+public class CSVParseDoubleTest extends AutomatedTestBase
+{
+	private final static int numRandom = 100000;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testParseIntegers() {
+		runParseDoubleTest(new String[]{"0", "1", "-1", "+1", "7", "-0", "+0", "000123",
+			"9007199254740992", "9007199254740993", "-9007199254740993", "123456789012345678",
+			"1234567890123456789", "12345678901234567890123"});
+	}
+
+	@Test
+	public void testParseDecimals() {
+		runParseDoubleTest(new String[]{"0.1", "-0.1", ".5", "-.5", "1.", "3.14159", "0.000001",
+			"1.7976931348623157", "0.30000000000000004", "2.2250738585072014", "123.456000",
+			"0.1234567890123456789", "-98765.43210987654321"});
+	}
+
+	@Test
+	public void testParseExponents() {
+		runParseDoubleTest(new String[]{"1e0", "1E5", "1e-5", "1e+5", "-2.5e10", "2.5E-10",
+			"1e22", "1e23", "1e-22", "1e-23", "4.9e-324", "1.7976931348623157e308", "1e308",
+			"1e309", "1e-400", "0e5", "-0e-5", "1e00022", "12345e-3", "1.5e-7"});
+	}
+
+	@Test
+	public void testParseSpecialValues() {
+		runParseDoubleTest(new String[]{"NaN", "Infinity", "-Infinity", "+Infinity",
+			"1d", "1.5f", "0x1p3", "-0x1.8p-2"});
+	}
+
+	@Test
+	public void testParseWhitespace() {
+		runParseDoubleTest(new String[]{" 1", "1 ", " -2.5 ", "\t3e2", "7\r", "\t Infinity "});
+	}
+
+	@Test
+	public void testParseInvalid() {
+		String[] vals = new String[]{"", "-", ".", "1e", "1e+", "abc", "1.2.3", "--1", "1,5"};
+		for( String val : vals ) {
+			boolean err1 = false, err2 = false;
+			try { Double.parseDouble(val); }
+			catch(NumberFormatException ex) { err1 = true; }
+			try { parse(val); }
+			catch(NumberFormatException ex) { err2 = true; }
+			Assert.assertEquals("Wrong error handling for '"+val+"'", err1, err2);
+		}
+	}
+
+	@Test
+	public void testParseRandom() {
+		Random rand = new Random(7);
+		String[] vals = new String[numRandom];
+		for( int i=0; i<numRandom; i++ ) {
+			switch( i % 4 ) {
+				case 0: vals[i] = Double.toString(rand.nextDouble()); break;
+				case 1: vals[i] = Double.toString((rand.nextDouble()-0.5) * Math.pow(10, rand.nextInt(40)-20)); break;
+				case 2: vals[i] = String.valueOf(rand.nextLong() % 100000000) + "." + rand.nextInt(1000000); break;
+				default: vals[i] = Double.toString(rand.nextGaussian() * 1e-7); break;
+			}
+		}
+		runParseDoubleTest(vals);
+	}
+
+	@Test
+	public void testIndexOf() {
+		byte[] buf = "1,2,,3;;4;;".getBytes(IOUtilFunctions.UTF8);
+		byte[] comma = ",".getBytes(IOUtilFunctions.UTF8);
+		byte[] semi = ";;".getBytes(IOUtilFunctions.UTF8);
+		Assert.assertEquals(1, IOUtilFunctions.indexOf(buf, 0, buf.length, comma));
+		Assert.assertEquals(3, IOUtilFunctions.indexOf(buf, 2, buf.length, comma));
+		Assert.assertEquals(4, IOUtilFunctions.indexOf(buf, 4, buf.length, comma));
+		Assert.assertEquals(-1, IOUtilFunctions.indexOf(buf, 5, buf.length, comma));
+		Assert.assertEquals(-1, IOUtilFunctions.indexOf(buf, 2, 3, comma));
+		Assert.assertEquals(6, IOUtilFunctions.indexOf(buf, 0, buf.length, semi));
+		Assert.assertEquals(9, IOUtilFunctions.indexOf(buf, 7, buf.length, semi));
+		Assert.assertEquals(-1, IOUtilFunctions.indexOf(buf, 7, buf.length-1, semi));
+	}
+
+	@Test
+	public void testIsTrimmable() {
+		for( int b=Byte.MIN_VALUE; b<=Byte.MAX_VALUE; b++ ) {
+			boolean trim = String.valueOf((char)(b & 0xff)).trim().isEmpty();
+			Assert.assertEquals("Wrong trimmable flag for "+b, trim, IOUtilFunctions.isTrimmable((byte)b));
+		}
+	}
+
+	/**
+	 *
+	 * @param vals
+	 */
+	private void runParseDoubleTest( String[] vals )
+	{
+		for( String val : vals ) {
+			double expected = Double.parseDouble(val);
+			double actual = parse(val);
+			if( Double.doubleToRawLongBits(expected) != Double.doubleToRawLongBits(actual)
+				&& !(Double.isNaN(expected) && Double.isNaN(actual)) )
+				Assert.fail("Wrong parsed value for '"+val+"': "+actual+" (expected "+expected+").");
+		}
+	}
+
+	/**
+	 * Parses the given string from the middle of a larger buffer
+	 * in order to check the handling of offset and length.
+	 *
+	 * @param val
+	 * @return
+	 */
+	private static double parse( String val ) {
+		byte[] buf = ("9,"+val+",9").getBytes(IOUtilFunctions.UTF8);
+		return IOUtilFunctions.parseDouble(buf, 2, buf.length-4);
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.csv;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.io.IOUtilFunctions;
+import org.apache.sysml.runtime.io.ReaderTextCSV;
+import org.apache.sysml.runtime.io.ReaderTextCSVParallel;
+import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the single-pass parallel csv reader, which
+ * compares its results (values and nnz) with the sequential csv reader for
+ * csv files with header, empty cells and fill values, trailing delimiters,
+ * whitespace, multi-character delimiters, as well as dense and sparse
+ * staging (known dimensions and nnz).
+ *
+ */
+public class ReadCSVParallelTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "ReadCSVParallelTest";
+	private final static String TEST_DIR = "functions/io/csv/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + ReadCSVParallelTest.class.getSimpleName() + "/";
+
+	private final static int rows = 3456;
+	private final static int cols = 43;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.02;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "X" }) );
+	}
+
+	@Test
+	public void testDenseNoHeader() {
+		runReadCSVParallelTest(sparsity1, false, ",", false, false, false, false);
+	}
+
+	@Test
+	public void testDenseHeader() {
+		runReadCSVParallelTest(sparsity1, true, ",", false, false, false, false);
+	}
+
+	@Test
+	public void testDenseHeaderWhitespaceMultiCharDelim() {
+		runReadCSVParallelTest(sparsity1, true, "::", false, false, true, false);
+	}
+
+	@Test
+	public void testDenseFillEmptyCells() {
+		runReadCSVParallelTest(sparsity1, false, ",", true, false, false, false);
+	}
+
+	@Test
+	public void testDenseFillTrailingDelimiter() {
+		runReadCSVParallelTest(sparsity1, true, ",", true, true, false, false);
+	}
+
+	@Test
+	public void testSparseNoHeader() {
+		runReadCSVParallelTest(sparsity2, false, ",", false, false, false, false);
+	}
+
+	@Test
+	public void testSparseHeaderFill() {
+		runReadCSVParallelTest(sparsity2, true, ",", true, false, true, false);
+	}
+
+	@Test
+	public void testSparseStagingKnownNnz() {
+		runReadCSVParallelTest(sparsity2, false, ",", false, false, false, true);
+	}
+
+	@Test
+	public void testSparseStagingKnownNnzFillTrailingDelimiter() {
+		runReadCSVParallelTest(sparsity2, true, ";", true, true, true, true);
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 * @param header
+	 * @param delim
+	 * @param fill write zeros as empty cells, read with fill
+	 * @param trailing write a trailing delimiter, i.e., an additional empty column
+	 * @param whitespace write whitespace around cells
+	 * @param known pass known dimensions and nnz to the readers
+	 */
+	private void runReadCSVParallelTest( double sparsity, boolean header, String delim,
+		boolean fill, boolean trailing, boolean whitespace, boolean known )
+	{
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			//data generation and csv write
+			double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			writeCSVFile(output("X"), A, header, delim, fill, trailing, whitespace);
+
+			//read with sequential and parallel reader
+			int ncol = cols + (trailing ? 1 : 0);
+			long rlen = known ? rows : -1;
+			long clen = known ? ncol : -1;
+			long nnz = known ? mb.getNonZeros() : -1;
+			CSVFileFormatProperties props = new CSVFileFormatProperties(header, delim, fill, 0, "");
+			MatrixBlock ret1 = new ReaderTextCSV(props).readMatrixFromHDFS(output("X"), rlen, clen, 1000, 1000, nnz);
+			MatrixBlock ret2 = new ReaderTextCSVParallel(props).readMatrixFromHDFS(output("X"), rlen, clen, 1000, 1000, nnz);
+
+			//compare matrices (exact values, dims, and nnz)
+			Assert.assertEquals(rows, ret2.getNumRows());
+			Assert.assertEquals(ncol, ret2.getNumColumns());
+			Assert.assertEquals(mb.getNonZeros(), ret2.getNonZeros());
+			Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1),
+				DataConverter.convertToDoubleMatrix(ret2), rows, ncol, 0);
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(ret2), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param fname
+	 * @param A
+	 * @param header
+	 * @param delim
+	 * @param fill
+	 * @param trailing
+	 * @param whitespace
+	 * @throws Exception
+	 */
+	private static void writeCSVFile(String fname, double[][] A, boolean header, String delim,
+		boolean fill, boolean trailing, boolean whitespace)
+		throws Exception
+	{
+		File f = new File(fname);
+		f.getParentFile().mkdirs();
+		BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(f), IOUtilFunctions.UTF8));
+		try {
+			String pad = whitespace ? " " : "";
+			if( header ) {
+				for( int j=0; j<A[0].length; j++ )
+					bw.write(((j>0) ? delim : "") + "C" + (j+1));
+				bw.write(trailing ? delim + "\n" : "\n");
+			}
+			for( int i=0; i<A.length; i++ ) {
+				StringBuilder sb = new StringBuilder();
+				for( int j=0; j<A[i].length; j++ ) {
+					if( j > 0 )
+						sb.append(delim);
+					if( A[i][j] != 0 || !fill )
+						sb.append(pad + A[i][j] + pad);
+				}
+				if( trailing )
+					sb.append(delim);
+				bw.write(sb.toString() + (whitespace ? "\t\n" : "\n"));
+			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(bw);
+		}
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.libsvm;
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
+import org.apache.sysml.runtime.instructions.spark.functions.CopyTextInputFunction;
+import org.apache.sysml.runtime.instructions.spark.utils.RDDConverterUtils;
+import org.apache.sysml.runtime.io.ReaderTextLIBSVM;
+import org.apache.sysml.runtime.io.ReaderTextLIBSVMParallel;
+import org.apache.sysml.runtime.io.WriterTextLIBSVM;
+import org.apache.sysml.runtime.io.WriterTextLIBSVMParallel;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the libsvm format, which checks the write/read
+ * roundtrip of the sequential and parallel writers (incl multiple part files)
+ * and readers, as well as the spark conversions from binary block to libsvm
+ * lines (compared to the lines of the writers) and from libsvm files with
+ * unknown number of rows and non-zeros to binary block.
+ *
+ */
+public class LIBSVMReadWriteTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "LIBSVMReadWriteTest";
+	private final static String TEST_DIR = "functions/io/libsvm/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + LIBSVMReadWriteTest.class.getSimpleName() + "/";
+
+	private final static int rows = 1234;
+	private final static int cols = 567;
+	private final static int blksize = 100;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.02;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "X" }) );
+	}
+
+	@Test
+	public void testWriteReadSequentialDense() {
+		runWriteReadTest(sparsity1, false);
+	}
+
+	@Test
+	public void testWriteReadSequentialSparse() {
+		runWriteReadTest(sparsity2, false);
+	}
+
+	@Test
+	public void testWriteReadParallelDense() {
+		runWriteReadTest(sparsity1, true);
+	}
+
+	@Test
+	public void testWriteReadParallelSparse() {
+		runWriteReadTest(sparsity2, true);
+	}
+
+	@Test
+	public void testSparkConvertDense() {
+		runSparkConvertTest(sparsity1);
+	}
+
+	@Test
+	public void testSparkConvertSparse() {
+		runSparkConvertTest(sparsity2);
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 * @param parallel use the parallel writer with multiple part files
+	 */
+	private void runWriteReadTest( double sparsity, boolean parallel )
+	{
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			//data generation
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+
+			//write libsvm file (small part file size to force multiple part files)
+			if( parallel ) {
+				new WriterTextLIBSVMParallel() {
+					@Override
+					protected long getPartFileSize() {
+						return 16*1024;
+					}
+				}.writeMatrixToHDFS(mb, output("X"), rows, cols, blksize, blksize, mb.getNonZeros());
+				if( OptimizerUtils.getParallelTextWriteParallelism() > 1 )
+					Assert.assertTrue("Missing part files.", new File(output("X")).isDirectory());
+			}
+			else
+				new WriterTextLIBSVM().writeMatrixToHDFS(mb, output("X"), rows, cols, blksize, blksize, mb.getNonZeros());
+
+			//read with sequential and parallel reader
+			MatrixBlock ret1 = new ReaderTextLIBSVM().readMatrixFromHDFS(output("X"), rows, cols, blksize, blksize, -1);
+			MatrixBlock ret2 = new ReaderTextLIBSVMParallel().readMatrixFromHDFS(output("X"), rows, cols, blksize, blksize, -1);
+
+			//compare matrices (exact values, dims, and nnz)
+			Assert.assertEquals(mb.getNonZeros(), ret1.getNonZeros());
+			Assert.assertEquals(mb.getNonZeros(), ret2.getNonZeros());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(ret1), rows, cols, 0);
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(ret2), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 */
+	private void runSparkConvertTest( double sparsity )
+	{
+		RUNTIME_PLATFORM oldRTP = DMLScript.rtplatform;
+		boolean sparkConfigOld = DMLScript.USE_LOCAL_SPARK_CONFIG;
+		DMLScript.rtplatform = RUNTIME_PLATFORM.SPARK;
+		DMLScript.USE_LOCAL_SPARK_CONFIG = true;
+
+		SparkExecutionContext sec = null;
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			sec = (SparkExecutionContext) ExecutionContextFactory.createContext();
+
+			//data generation
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, blksize, blksize, mb.getNonZeros());
+
+			//binary block to libsvm (multiple column blocks, sorted)
+			JavaPairRDD<MatrixIndexes,MatrixBlock> in = SparkExecutionContext
+				.toMatrixJavaPairRDD(sec.getSparkContext(), mb, blksize, blksize);
+			List<String> lines = RDDConverterUtils.binaryBlockToLibsvm(in, mc, true).collect();
+			Assert.assertEquals(rows, lines.size());
+			StringBuilder sb = new StringBuilder();
+			for( int i=0; i<rows; i++ ) {
+				WriterTextLIBSVM.appendLIBSVMRow(sb, mb, i);
+				Assert.assertEquals(sb.toString(), lines.get(i));
+				sb.setLength(0);
+			}
+
+			//libsvm to binary block (unknown rows and nnz)
+			new WriterTextLIBSVM().writeMatrixToHDFS(mb, output("X"), rows, cols, blksize, blksize, mb.getNonZeros());
+			JavaPairRDD<LongWritable, Text> input = sec.getSparkContext()
+				.hadoopFile(output("X"), TextInputFormat.class, LongWritable.class, Text.class)
+				.mapToPair(new CopyTextInputFunction());
+			MatrixCharacteristics mcOut = new MatrixCharacteristics(-1, cols, blksize, blksize);
+			JavaPairRDD<MatrixIndexes,MatrixBlock> out = RDDConverterUtils.libsvmToBinaryBlock(
+				sec.getSparkContext(), input, mcOut);
+			MatrixBlock ret = SparkExecutionContext.toMatrixBlock(out, rows, cols, blksize, blksize, -1);
+
+			//compare matrices and meta data
+			Assert.assertEquals(rows, mcOut.getRows());
+			Assert.assertEquals(mb.getNonZeros(), mcOut.getNonZeros());
+			Assert.assertEquals(mb.getNonZeros(), ret.getNonZeros());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			if( sec != null )
+				sec.close();
+			DMLScript.rtplatform = oldRTP;
+			DMLScript.USE_LOCAL_SPARK_CONFIG = sparkConfigOld;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.jmlc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.jmlc.Connection;
+import org.apache.sysml.api.jmlc.PreparedScript;
+import org.apache.sysml.api.jmlc.PreparedScriptBatcher;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Micro-batched scoring of single-row requests from concurrent clients,
+ * with a reused model and scalar.
+ */
+public class PreparedScriptBatcherTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "pooled-score";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + PreparedScriptBatcherTest.class.getSimpleName() + "/";
+	
+	private final static int cols = 53;
+	private final static int classes = 7;
+	private final static int clients = 16;
+	private final static int nRuns = 50; //per client
+	private final static double scale = 3;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "Y" }) ); 
+	}
+	
+	@Test
+	public void testBatchedScoringNoWindow() throws IOException {
+		runBatchedScoringTest(64, 0, 2);
+	}
+	
+	@Test
+	public void testBatchedScoringSingleRowBatches() throws IOException {
+		runBatchedScoringTest(1, 1000, 2);
+	}
+	
+	@Test
+	public void testBatchedScoringWindow() throws IOException {
+		runBatchedScoringTest(64, 2000, 2);
+	}
+	
+	@Test
+	public void testBatchedScoringWindowSingleThread() throws IOException {
+		runBatchedScoringTest(16, 2000, 1);
+	}
+
+	/**
+	 * 
+	 * @param batchSize
+	 * @param windowMicros
+	 * @param k
+	 * @throws IOException
+	 */
+	private void runBatchedScoringTest( int batchSize, long windowMicros, int k ) 
+		throws IOException
+	{
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+		
+		//generate model and input rows
+		final double[][] W = getRandomMatrix(cols, classes, -1, 1, 1.0, 7);
+		final double[][] X = getRandomMatrix(clients * nRuns, cols, -1, 1, 0.7, 3);
+		
+		Connection conn = new Connection();
+		PreparedScriptBatcher batcher = null;
+		ExecutorService clientPool = Executors.newFixedThreadPool(clients);
+		try
+		{
+			//prepare script w/ reused model and scalar
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml");
+			PreparedScript pstmt = conn.prepareScript(script, 
+				new String[]{"X","W","s"}, new String[]{"Y"}, false);
+			pstmt.setMatrix("W", W, true);
+			pstmt.setScalar("s", scale, true);
+			batcher = new PreparedScriptBatcher(pstmt, "X", "Y", cols, batchSize, windowMicros, k);
+			
+			//score rows from concurrent clients
+			final PreparedScriptBatcher fbatcher = batcher;
+			ArrayList<Future<double[][]>> futures = new ArrayList<Future<double[][]>>();
+			for( int c=0; c<clients; c++ ) {
+				final int cix = c;
+				futures.add(clientPool.submit(new Callable<double[][]>() {
+					@Override
+					public double[][] call() throws Exception {
+						double[][] ret = new double[nRuns][];
+						for( int i=0; i<nRuns; i++ )
+							ret[i] = fbatcher.score(X[cix*nRuns+i]);
+						return ret;
+					}
+				}));
+			}
+			
+			//compare output rows
+			for( int c=0; c<clients; c++ ) {
+				double[][] Y = futures.get(c).get();
+				for( int i=0; i<nRuns; i++ )
+					TestUtils.compareMatrices(new double[][]{computeScores(X[c*nRuns+i], W)}, 
+						new double[][]{Y[i]}, 1, classes, 1e-10);
+			}
+			
+			//check batch statistics
+			Assert.assertEquals(clients*nRuns, batcher.getPool().getNumCalls() * batcher.getMeanBatchSize(), 1e-6);
+			Assert.assertTrue(batcher.getMeanBatchSize() <= batchSize);
+			if( batchSize > 1 && windowMicros > 0 )
+				Assert.assertTrue("No coalesced requests: "+batcher.getMeanBatchSize(),
+					batcher.getMeanBatchSize() > 1);
+			Assert.assertTrue(batcher.getLatency(0.99) > 0);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally {
+			clientPool.shutdown();
+			if( batcher != null )
+				batcher.close();
+			conn.close();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param x
+	 * @param W
+	 * @return
+	 */
+	private static double[] computeScores( double[] x, double[][] W ) {
+		double[] ret = new double[W[0].length];
+		for( int j=0; j<W[0].length; j++ ) {
+			double sum = 0;
+			for( int l=0; l<W.length; l++ )
+				sum += x[l] * W[l][j];
+			ret[j] = sum * scale;
+		}
+		return ret;
+	}
+}
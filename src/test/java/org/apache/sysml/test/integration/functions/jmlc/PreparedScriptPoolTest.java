@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.jmlc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.jmlc.Connection;
+import org.apache.sysml.api.jmlc.PreparedScript;
+import org.apache.sysml.api.jmlc.PreparedScriptPool;
+import org.apache.sysml.api.jmlc.ResultVariables;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Concurrent scoring via a pool of copies of a single prepared script,
+ * with a reused model and per-call matrix and scalar inputs.
+ */
+public class PreparedScriptPoolTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "pooled-score";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + PreparedScriptPoolTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 37;
+	private final static int cols = 53;
+	private final static int classes = 7;
+	private final static int nRuns = 96;
+	
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "Y" }) ); 
+	}
+	
+	@Test
+	public void testPooledScoringDenseSingleThread() throws IOException {
+		runPooledScoringTest(false, 1);
+	}
+	
+	@Test
+	public void testPooledScoringSparseSingleThread() throws IOException {
+		runPooledScoringTest(true, 1);
+	}
+	
+	@Test
+	public void testPooledScoringDenseMultiThread() throws IOException {
+		runPooledScoringTest(false, 8);
+	}
+	
+	@Test
+	public void testPooledScoringSparseMultiThread() throws IOException {
+		runPooledScoringTest(true, 8);
+	}
+
+	/**
+	 * 
+	 * @param sparse
+	 * @param k
+	 * @throws IOException
+	 */
+	private void runPooledScoringTest( boolean sparse, int k ) 
+		throws IOException
+	{
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+		
+		//generate model and inputs
+		double[][] W = getRandomMatrix(cols, classes, -1, 1, 1.0, 7);
+		ArrayList<double[][]> Xset = new ArrayList<double[][]>();
+		for( int i=0; i<nRuns; i++ )
+			Xset.add(getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, i+1));
+		
+		Connection conn = new Connection();
+		PreparedScriptPool pool = null;
+		try
+		{
+			//prepare script w/ reused model
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml");
+			PreparedScript pstmt = conn.prepareScript(script, 
+				new String[]{"X","W","s"}, new String[]{"Y"}, false);
+			pstmt.setMatrix("W", W, true);
+			pool = new PreparedScriptPool(pstmt, k);
+			
+			//submit all calls, w/ some calls executed in the calling thread
+			ArrayList<Future<ResultVariables>> futures = new ArrayList<Future<ResultVariables>>();
+			ArrayList<ResultVariables> results = new ArrayList<ResultVariables>();
+			for( int i=0; i<nRuns; i++ ) {
+				Map<String, Object> inputs = new HashMap<String, Object>();
+				inputs.put("X", Xset.get(i));
+				inputs.put("s", Double.valueOf(i+1));
+				if( i % 4 == 0 )
+					results.add(pool.execute(inputs));
+				else
+					futures.add(pool.submit(inputs));
+			}
+			for( Future<ResultVariables> f : futures )
+				results.add(f.get());
+			
+			//compare results in order of creation
+			for( int i=0, pos=0, fpos=0; i<nRuns; i++ ) {
+				ResultVariables rs = (i % 4 == 0) ? results.get(pos++) : 
+					results.get(nRuns/4 + fpos++); 
+				double[][] Y = rs.getMatrix("Y");
+				TestUtils.compareMatrices(computeScores(Xset.get(i), W, i+1), Y, rows, classes, 1e-10);
+			}
+			
+			//check latency statistics
+			Assert.assertEquals(nRuns, pool.getNumCalls());
+			Assert.assertTrue(pool.getExecLatency(0.5) > 0);
+			Assert.assertTrue(pool.getCallLatency(0.99) >= pool.getExecLatency(0.5));
+			Assert.assertTrue(pool.getLatencyStatistics().contains("Calls:\t\t\t"+nRuns+"."));
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally {
+			if( pool != null )
+				pool.close();
+			conn.close();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @param W
+	 * @param s
+	 * @return
+	 */
+	private static double[][] computeScores( double[][] X, double[][] W, double s ) {
+		double[][] ret = new double[X.length][W[0].length];
+		for( int i=0; i<X.length; i++ )
+			for( int j=0; j<W[0].length; j++ ) {
+				double sum = 0;
+				for( int l=0; l<W.length; l++ )
+					sum += X[i][l] * W[l][j];
+				ret[i][j] = sum * s;
+			}
+		return ret;
+	}
+}
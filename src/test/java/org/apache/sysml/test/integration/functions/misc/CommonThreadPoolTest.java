@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * This is a component test for the process-wide thread pool, covering the reuse
+ * of the shared pool, the fallback to dedicated pools for a degree of parallelism
+ * above the local parallelism, the no-op shutdown of the shared pool, and the
+ * reset of the pool statistics.
+ *
+ */
+public class CommonThreadPoolTest extends AutomatedTestBase
+{
+	private final static int numTasks = 100;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testSharedPoolReuse() throws Exception {
+		int par = InfrastructureAnalyzer.getLocalParallelism();
+		Statistics.reset();
+
+		ExecutorService pool1 = CommonThreadPool.get(par);
+		runTasks(pool1);
+		pool1.shutdown();
+		ExecutorService pool2 = CommonThreadPool.get(1);
+		runTasks(pool2);
+		pool2.shutdown();
+
+		//both requests served by the same shared pool
+		Assert.assertEquals(2, Statistics.getSharedPoolRequests());
+		Assert.assertEquals(0, Statistics.getDedicatedPoolRequests());
+		Assert.assertEquals(2*numTasks, Statistics.getPoolTasks());
+		Assert.assertEquals(par, CommonThreadPool.getSharedPoolSize());
+	}
+
+	@Test
+	public void testDedicatedPoolFallback() throws Exception {
+		int par = InfrastructureAnalyzer.getLocalParallelism();
+		Statistics.reset();
+
+		ExecutorService pool = CommonThreadPool.get(par+1);
+		runTasks(pool);
+		pool.shutdown();
+
+		//dedicated pools are shut down by their users
+		Assert.assertEquals(0, Statistics.getSharedPoolRequests());
+		Assert.assertEquals(1, Statistics.getDedicatedPoolRequests());
+		Assert.assertTrue(pool.isShutdown());
+		Assert.assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+		Assert.assertTrue(pool.isTerminated());
+	}
+
+	@Test
+	public void testSharedPoolNoOpShutdown() throws Exception {
+		ExecutorService pool1 = CommonThreadPool.get(1);
+		runTasks(pool1);
+		pool1.shutdown();
+		Assert.assertFalse(pool1.isShutdown());
+		Assert.assertTrue(pool1.awaitTermination(1, TimeUnit.MILLISECONDS));
+		Assert.assertTrue(pool1.shutdownNow().isEmpty());
+		Assert.assertFalse(pool1.isShutdown());
+
+		//shared pool remains usable after shutdown of its users
+		ExecutorService pool2 = CommonThreadPool.get(1);
+		runTasks(pool2);
+		pool2.shutdown();
+	}
+
+	@Test
+	public void testSharedPoolStealsReset() throws Exception {
+		ExecutorService pool = CommonThreadPool.get(
+			InfrastructureAnalyzer.getLocalParallelism());
+		runTasks(pool);
+		pool.shutdown();
+
+		//cumulative steal count is rebased on statistics reset
+		Statistics.reset();
+		Assert.assertEquals(0, CommonThreadPool.getSharedPoolSteals());
+		Assert.assertEquals(0, Statistics.getPoolTasks());
+	}
+
+	/**
+	 *
+	 * @param pool
+	 * @throws Exception
+	 */
+	private static void runTasks(ExecutorService pool)
+		throws Exception
+	{
+		ArrayList<SumTask> tasks = new ArrayList<SumTask>();
+		for( int i=0; i<numTasks; i++ )
+			tasks.add(new SumTask(i));
+		List<Future<Long>> rets = pool.invokeAll(tasks);
+		for( int i=0; i<numTasks; i++ )
+			Assert.assertEquals((long)i*(i+1)/2, (long)rets.get(i).get());
+	}
+
+	/**
+	 *
+	 */
+	private static class SumTask implements Callable<Long>
+	{
+		private final int _n;
+
+		protected SumTask(int n) {
+			_n = n;
+		}
+
+		@Override
+		public Long call() {
+			long sum = 0;
+			for( int i=1; i<=_n; i++ )
+				sum += i;
+			return sum;
+		}
+	}
+}
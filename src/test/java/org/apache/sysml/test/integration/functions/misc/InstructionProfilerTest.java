@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.InstructionProfiler;
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONObject;
+
+/**
+ * Tests the instruction profiler (-profile) including its json export, 
+ * for dense and sparse inputs of a repeatedly executed instruction.
+ * 
+ */
+public class InstructionProfilerTest extends AutomatedTestBase 
+{	
+	private static final String TEST_NAME1 = "InstructionProfiler";
+	private static final String TEST_DIR = "functions/misc/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + InstructionProfilerTest.class.getSimpleName() + "/";
+	
+	private static final int rows = 1234;
+	private static final int cols = 56;
+	private static final int iters = 7;
+	private static final double sparsity1 = 0.9;
+	private static final double sparsity2 = 0.01;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration( TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testProfileDense() {
+		testInstructionProfiler( TEST_NAME1, sparsity1 );
+	}
+	
+	@Test
+	public void testProfileSparse() {
+		testInstructionProfiler( TEST_NAME1, sparsity2 );
+	}
+	
+	/**
+	 * 
+	 * @param testname
+	 * @param sparsity
+	 */
+	private void testInstructionProfiler( String testname, double sparsity )
+	{	
+		try {
+			TestConfiguration config = getTestConfiguration(testname);
+			loadTestConfiguration(config);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + testname + ".dml";
+			programArgs = new String[]{ "-profile", output("profile.json"), "-args", 
+				String.valueOf(rows), String.valueOf(cols), String.valueOf(sparsity), 
+				String.valueOf(iters), output("R") };
+
+			runTest(true, false, null, -1); 
+			
+			//check exported profile of the tsmm instruction
+			JSONObject prof = new JSONObject(new InputStreamReader(
+				new FileInputStream(output("profile.json")), "UTF-8"));
+			JSONArray entries = prof.getJSONArray("profile");
+			Assert.assertTrue("Empty instruction profile.", entries.size() > 0);
+			long count = 0;
+			for( int i=0; i<entries.size(); i++ ) {
+				JSONObject e = entries.getJSONObject(i);
+				if( e.getString("opcode").equals("tsmm") ) {
+					count += e.getLong("count");
+					Assert.assertEquals(sparsity < 0.4, e.getString("shape").startsWith("sparse"));
+					Assert.assertTrue(e.getLong("min_ns") <= e.getLong("p50_ns"));
+					Assert.assertTrue(e.getLong("p50_ns") <= e.getLong("p99_ns"));
+					Assert.assertTrue(e.getLong("p99_ns") <= e.getLong("max_ns"));
+				}
+			}
+			Assert.assertEquals(iters, count);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			InstructionProfiler.PROFILE = false;
+		}
+	}	
+}
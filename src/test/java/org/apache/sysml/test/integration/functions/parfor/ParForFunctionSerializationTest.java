@@ -21,9 +21,30 @@ package org.apache.sysml.test.integration.functions.parfor;
 
 import java.util.HashMap;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.parser.AParserWrapper;
+import org.apache.sysml.parser.DMLProgram;
+import org.apache.sysml.parser.DMLTranslator;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.ParForProgramBlock;
+import org.apache.sysml.runtime.controlprogram.Program;
+import org.apache.sysml.runtime.controlprogram.ProgramBlock;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysml.runtime.controlprogram.parfor.ParForBody;
+import org.apache.sysml.runtime.controlprogram.parfor.ProgramConverter;
+import org.apache.sysml.runtime.instructions.cp.DoubleObject;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
 import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
 import org.apache.sysml.test.integration.AutomatedTestBase;
 import org.apache.sysml.test.integration.TestConfiguration;
 import org.apache.sysml.test.utils.TestUtils;
@@ -33,6 +54,7 @@ public class ParForFunctionSerializationTest extends AutomatedTestBase
 
 	private final static String TEST_NAME1 = "parfor_funct";
 	private final static String TEST_NAME2 = "parfor_extfunct";
+	private final static String TEST_NAME3 = "parfor_funct_sp";
 	private final static String TEST_DIR = "functions/parfor/";
 	private final static String TEST_CLASS_DIR = TEST_DIR + ParForFunctionSerializationTest.class.getSimpleName() + "/";
 	private final static double eps = 1e-10;
@@ -49,6 +71,8 @@ public class ParForFunctionSerializationTest extends AutomatedTestBase
 			new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "Rout" }) );
 		addTestConfiguration(TEST_NAME2, 
 			new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "Rout" }) );
+		addTestConfiguration(TEST_NAME3, 
+			new TestConfiguration(TEST_CLASS_DIR, TEST_NAME3, new String[] { "Rout" }) );
 	}
 
 	@Test
@@ -62,6 +86,74 @@ public class ParForFunctionSerializationTest extends AutomatedTestBase
 	{
 		runFunctionTest(2);
 	}
+	
+	@Test
+	public void testParForFunctSerializationSpark() 
+	{
+		runFunctionTest(3);
+	}
+	
+	@Test
+	public void testParForBodyBinaryRoundTrip() 
+		throws Exception
+	{
+		//compile parfor with function call and scalar/matrix variables
+		String script = "foo = function(Matrix[Double] X) return (Matrix[Double] Y) {\n"
+			+ "  Y = X * 2 + 1;\n"
+			+ "}\n"
+			+ "V = rand(rows=10, cols=10, seed=7);\n"
+			+ "R = matrix(0, rows=1, cols=10);\n"
+			+ "parfor( i in 1:10, opt=NONE ) {\n"
+			+ "  X = V[,i];\n"
+			+ "  Y = foo(X);\n"
+			+ "  R[1,i] = sum(Y);\n"
+			+ "}\n"
+			+ "write(R, \"R\");\n";
+		DMLConfig conf = new DMLConfig();
+		AParserWrapper parser = AParserWrapper.createParser(false);
+		DMLProgram prog = parser.parse(DMLScript.DML_FILE_PATH_ANTLR_PARSER, script, new HashMap<String,String>());
+		DMLTranslator dmlt = new DMLTranslator(prog);
+		dmlt.liveVariableAnalysis(prog);
+		dmlt.validateParseTree(prog);
+		dmlt.constructHops(prog);
+		dmlt.rewriteHopsDAG(prog);
+		dmlt.constructLops(prog);
+		Program rtprog = prog.getRuntimeProgram(conf);
+		
+		ParForProgramBlock pfpb = null;
+		for( ProgramBlock pb : rtprog.getProgramBlocks() )
+			if( pb instanceof ParForProgramBlock )
+				pfpb = (ParForProgramBlock) pb;
+		Assert.assertNotNull("No parfor program block found.", pfpb);
+		
+		ExecutionContext ec = ExecutionContextFactory.createContext(rtprog);
+		ec.setVariable("s", new DoubleObject(7));
+		ec.setVariable("V", new MatrixObject(ValueType.DOUBLE, "scratch/V", new MatrixFormatMetaData(
+			new MatrixCharacteristics(10, 10, 1000, 1000, 100), OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo)));
+		ParForBody body = new ParForBody(pfpb.getChildBlocks(), pfpb.getResultVariables(), ec);
+		
+		//serialize and parse binary and string representations
+		String str = ProgramConverter.serializeParForBody(body);
+		byte[] bin = ProgramConverter.serializeParForBodyBinary(body);
+		Assert.assertTrue("Binary body not smaller than string body: "+bin.length, 
+			bin.length < str.getBytes("UTF-8").length);
+		ParForBody body1 = ProgramConverter.parseParForBody(str, 3);
+		ParForBody body2 = ProgramConverter.parseParForBody(bin, 3);
+		
+		//compare parsed bodies (program blocks, functions, variables)
+		Assert.assertEquals(body.getChildBlocks().size(), body2.getChildBlocks().size());
+		Assert.assertEquals(body.getResultVarNames(), body2.getResultVarNames());
+		Program prog2 = body2.getChildBlocks().get(0).getProgram();
+		Assert.assertEquals(body1.getChildBlocks().get(0).getProgram().getFunctionProgramBlocks().keySet(),
+			prog2.getFunctionProgramBlocks().keySet());
+		Assert.assertFalse("Function not serialized.", prog2.getFunctionProgramBlocks().isEmpty());
+		Assert.assertEquals(7, ((DoubleObject)body2.getVariables().get("s")).getDoubleValue(), 0);
+		MatrixObject mo = (MatrixObject)body2.getVariables().get("V");
+		Assert.assertEquals("scratch/V", mo.getFileName());
+		Assert.assertEquals(100, mo.getMatrixCharacteristics().getNonZeros());
+		Assert.assertEquals(ProgramConverter.serializeParForBody(body1), 
+			ProgramConverter.serializeParForBody(body2));
+	}
 
 	
 	private void runFunctionTest( int testNum )
@@ -71,35 +163,50 @@ public class ParForFunctionSerializationTest extends AutomatedTestBase
 		{
 			case 1: TEST_NAME = TEST_NAME1; break;
 			case 2: TEST_NAME = TEST_NAME2; break;
+			case 3: TEST_NAME = TEST_NAME3; break;
 		}
 		
-		TestConfiguration config = getTestConfiguration(TEST_NAME);
-		config.addVariable("rows", rows);
-		config.addVariable("cols", cols);
-		loadTestConfiguration(config);
+		RUNTIME_PLATFORM oldRT = rtplatform;
+		boolean oldUseSparkConfig = DMLScript.USE_LOCAL_SPARK_CONFIG;
+		if( testNum == 3 ) {
+			DMLScript.USE_LOCAL_SPARK_CONFIG = true;
+			rtplatform = RUNTIME_PLATFORM.HYBRID_SPARK;
+		}
+		
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			config.addVariable("rows", rows);
+			config.addVariable("cols", cols);
+			loadTestConfiguration(config);
 		
-		/* This is for running the junit test the new way, i.e., construct the arguments directly */
-		String HOME = SCRIPT_DIR + TEST_DIR;
-		fullDMLScriptName = HOME + TEST_NAME + ".dml";
-		programArgs = new String[]{"-args", input("V"), 
-			Integer.toString(rows), Integer.toString(cols), output("R") };
+			/* This is for running the junit test the new way, i.e., construct the arguments directly */
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", input("V"), 
+				Integer.toString(rows), Integer.toString(cols), output("R") };
 		
-		fullRScriptName = HOME + TEST_NAME1 + ".R";
-		rCmd = "Rscript" + " " + fullRScriptName + " " + inputDir() + " " + expectedDir();
+			fullRScriptName = HOME + TEST_NAME1 + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " + inputDir() + " " + expectedDir();
 
-		long seed = System.nanoTime();
-        double[][] V = getRandomMatrix(rows, cols, 0, 1, sparsity, seed);
-		writeInputMatrix("V", V, true);
+			long seed = System.nanoTime();
+	        double[][] V = getRandomMatrix(rows, cols, 0, 1, sparsity, seed);
+			writeInputMatrix("V", V, true);
 
-		boolean exceptionExpected = false;
-		runTest(true, exceptionExpected, null, -1);
-		runRScript(true);
+			boolean exceptionExpected = false;
+			runTest(true, exceptionExpected, null, -1);
+			runRScript(true);
 		
-		//compare matrices
-		HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
-		HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("Rout");
-		TestUtils.compareMatrices(dmlfile, rfile, eps, "DML", "R");			
-
+			//compare matrices
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("Rout");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "DML", "R");			
+		}
+		finally
+		{
+			rtplatform = oldRT;
+			DMLScript.USE_LOCAL_SPARK_CONFIG = oldUseSparkConfig;
+		}
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.parfor;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * This test checks parfor results that are written in-place by all workers into
+ * a shared dense output (disjoint rows or columns indexed by the iteration 
+ * variable), including the preservation of the initial state of untouched 
+ * rows/columns and the final nnz maintenance for dense and sparse results.
+ * Overlapping writes (of cells not indexed by the iteration variable) are
+ * expected to fall back to the regular result merge.
+ *
+ */
+public class ParForSharedResultMergeTest extends AutomatedTestBase 
+{
+	private final static String TEST_DIR = "functions/parfor/";
+	private final static String TEST_NAME1 = "parfor_shared1"; //rowwise
+	private final static String TEST_NAME2 = "parfor_shared2"; //colwise
+	private final static String TEST_NAME3 = "parfor_shared3"; //rowwise, overlapping
+	private final static String TEST_CLASS_DIR = TEST_DIR + ParForSharedResultMergeTest.class.getSimpleName() + "/";
+	
+	private final static double eps = 1e-10;
+	
+	private final static int rows = 1073;
+	private final static int cols = 321;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.01;
+	
+	@Override
+	public void setUp() 
+	{
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R" }) );
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "R" }) );
+		addTestConfiguration(TEST_NAME3, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME3, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testParForSharedRowwiseDense() {
+		runParForSharedResultMergeTest(TEST_NAME1, false);
+	}
+	
+	@Test
+	public void testParForSharedRowwiseSparse() {
+		runParForSharedResultMergeTest(TEST_NAME1, true);
+	}
+	
+	@Test
+	public void testParForSharedColwiseDense() {
+		runParForSharedResultMergeTest(TEST_NAME2, false);
+	}
+	
+	@Test
+	public void testParForSharedColwiseSparse() {
+		runParForSharedResultMergeTest(TEST_NAME2, true);
+	}
+	
+	@Test
+	public void testParForSharedOverlappingDense() {
+		runParForSharedResultMergeTest(TEST_NAME3, false);
+	}
+	
+	/**
+	 * 
+	 * @param testname
+	 * @param sparse
+	 */
+	private void runParForSharedResultMergeTest( String testname, boolean sparse )
+	{	
+		TestConfiguration config = getTestConfiguration(testname);
+		loadTestConfiguration(config);
+		
+		String HOME = SCRIPT_DIR + TEST_DIR;
+		fullDMLScriptName = HOME + testname + ".dml";
+		programArgs = new String[]{"-stats", "-args", input("A"), output("R") };
+
+		//generate input data
+		double[][] A = getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, 7);
+		writeInputMatrixWithMTD("A", A, true);
+		
+		//run test
+		runTest(true, false, null, -1);
+		
+		//check shared output (w/o merge) only for disjoint writes
+		long expectedShared = testname.equals(TEST_NAME3) ? 0 : 1;
+		Assert.assertEquals("Wrong number of shared result merges.",
+			expectedShared, Statistics.getParforSharedMerges());
+		
+		//compute expected result (untouched first row/col of initial state)
+		boolean rowwise = !testname.equals(TEST_NAME2);
+		double[][] R = new double[rows][cols];
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ ) {
+				int ix = rowwise ? i : j;
+				R[i][j] = (ix == 0) ? 7 : A[i][j] * 2 + ((A[i][j]!=0) ? ix+1 : 0);
+			}
+		
+		//compare matrices
+		HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+		double[][] R2 = TestUtils.convertHashMapToDoubleArray(dmlfile, rows, cols);
+		TestUtils.compareMatrices(R, R2, rows, cols, eps);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.parfor;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.controlprogram.parfor.LocalTaskQueue;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the lock-free parfor task queue, which checks
+ * that all tasks are consumed exactly once by concurrent workers (with and 
+ * without streaming task creation), and that idle workers steal tasks from
+ * the deques of other workers.
+ *
+ */
+public class ParForTaskQueueTest extends AutomatedTestBase 
+{
+	private final static int numTasks = 100000;
+	private final static int numWorkers = 8;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testSingleDequeClosedInput() {
+		runTaskQueueTest(1, false);
+	}
+	
+	@Test
+	public void testSingleDequeStreaming() {
+		runTaskQueueTest(1, true);
+	}
+	
+	@Test
+	public void testWorkerDequesClosedInput() {
+		runTaskQueueTest(numWorkers, false);
+	}
+	
+	@Test
+	public void testWorkerDequesStreaming() {
+		runTaskQueueTest(numWorkers, true);
+	}
+	
+	@Test
+	public void testWorkStealing() 
+	{
+		try {
+			LocalTaskQueue<Integer> queue = new LocalTaskQueue<Integer>(numWorkers);
+			for( int i=0; i<numTasks; i++ )
+				queue.enqueueTask(i);
+			queue.closeInput();
+			
+			//single worker drains all deques
+			int count = 0;
+			while( queue.dequeueTask(0) != LocalTaskQueue.NO_MORE_TASKS )
+				count++;
+			
+			Assert.assertEquals(numTasks, count);
+			Assert.assertEquals(numTasks - numTasks/numWorkers, queue.getNumStolenTasks());
+			Assert.assertEquals(0, queue.size());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param numDeques
+	 * @param streaming
+	 */
+	private void runTaskQueueTest( int numDeques, boolean streaming ) 
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(numWorkers);
+		
+		try
+		{
+			final LocalTaskQueue<Integer> queue = new LocalTaskQueue<Integer>(numDeques);
+			final boolean[] seen = new boolean[numTasks];
+			
+			if( !streaming )
+				enqueueTasks(queue);
+			
+			//start workers
+			ArrayList<Future<Integer>> rt = new ArrayList<Future<Integer>>();
+			for( int i=0; i<numWorkers; i++ ) {
+				final int ix = i;
+				rt.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int count = 0;
+						Integer t = null;
+						while( (t = queue.dequeueTask(ix)) != LocalTaskQueue.NO_MORE_TASKS ) {
+							synchronized( seen ) {
+								Assert.assertFalse(seen[t]);
+								seen[t] = true;
+							}
+							count++;
+						}
+						return count;
+					}
+				}));
+			}
+			
+			if( streaming )
+				enqueueTasks(queue);
+			
+			//check that all tasks are processed exactly once
+			int count = 0;
+			for( Future<Integer> task : rt )
+				count += task.get();
+			Assert.assertEquals(numTasks, count);
+			for( int i=0; i<numTasks; i++ )
+				Assert.assertTrue(seen[i]);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param queue
+	 * @throws InterruptedException
+	 */
+	private static void enqueueTasks( LocalTaskQueue<Integer> queue ) 
+		throws InterruptedException 
+	{
+		for( int i=0; i<numTasks; i++ )
+			queue.enqueueTask(i);
+		queue.closeInput();
+	}
+}
@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.recompile;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.Hop.OpOp2;
+import org.apache.sysml.hops.MemoTable;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.estim.DensityMap;
+import org.apache.sysml.hops.recompile.Recompiler;
+import org.apache.sysml.hops.rewrite.HopRewriteUtils;
+import org.apache.sysml.hops.rewrite.RewriteMatrixMultChainOptimization;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the density map sparsity estimator of matrix
+ * products and cell-wise operations over skewed, block-structured inputs, 
+ * compared to the exact number of non-zeros and the closed-form estimates,
+ * as well as for the recompilation of matrix multiplication chains over
+ * density maps collected on read.
+ *
+ */
+public class DensityMapEstimatorTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "DensityMapEstimatorTest";
+	private final static String TEST_DIR = "functions/recompile/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + DensityMapEstimatorTest.class.getSimpleName() + "/";
+	
+	private final static int n = 3000;
+	private final static int m = 500;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "A", "B", "C" }) );
+	}
+	
+	@Test
+	public void testMatMultDisjointBlocks() {
+		//A non-zero in first column block, B non-zero in other row blocks
+		MatrixBlock A = createBlockMatrix(n, n, new double[][]{{0.3,0,0},{0,0,0},{0,0,0}}, 7);
+		MatrixBlock B = createBlockMatrix(n, n, new double[][]{{0,0,0},{0.3,0.3,0.3},{0.3,0.3,0.3}}, 3);
+		
+		long est = DensityMap.estimMatMult(DensityMap.create(A), DensityMap.create(B)).getNonZeros();
+		long exact = matMultNonZeros(A, B);
+		double spAvg = OptimizerUtils.getMatMultSparsity(getSparsity(A), getSparsity(B), n, n, n, false);
+		
+		Assert.assertEquals(0, exact);
+		Assert.assertEquals(exact, est);
+		Assert.assertTrue(spAvg > 0.5);
+	}
+	
+	@Test
+	public void testMatMultSkewed() {
+		//dense-ish first row block (e.g., high-degree vertices), and skewed rows of B
+		MatrixBlock A = createBlockMatrix(n, n, new double[][]{{0.01,0.01,0.01},{0.001,0,0},{0.001,0,0}}, 7);
+		MatrixBlock B = createBlockMatrix(n, m, new double[][]{{0.002},{0.02},{0.02}}, 3);
+		
+		long est = DensityMap.estimMatMult(DensityMap.create(A), DensityMap.create(B)).getNonZeros();
+		long exact = matMultNonZeros(A, B);
+		long estAvg = (long)((double)n * m * OptimizerUtils.getMatMultSparsity(
+			getSparsity(A), getSparsity(B), n, n, m, false));
+		long estWorst = (long)((double)n * m * OptimizerUtils.getMatMultSparsity(
+			getSparsity(A), getSparsity(B), n, n, m, true));
+		
+		double err = Math.abs((double)est/exact - 1);
+		Assert.assertTrue("Wrong estimate: "+est+" vs "+exact, err < 0.05);
+		Assert.assertTrue(err < Math.abs((double)estAvg/exact - 1));
+		Assert.assertTrue(err < Math.abs((double)estWorst/exact - 1));
+	}
+	
+	@Test
+	public void testMatMultTranspose() {
+		MatrixBlock A = createBlockMatrix(n, m, new double[][]{{0.01},{0},{0.05}}, 7);
+		MatrixBlock At = LibMatrixReorg.transpose(A, new MatrixBlock(m, n, true));
+		
+		DensityMap mapA = DensityMap.create(A);
+		DensityMap mapAt = DensityMap.create(At);
+		Assert.assertEquals(A.getNonZeros(), mapA.getNonZeros());
+		Assert.assertEquals(A.getNonZeros(), mapA.transpose().getNonZeros());
+		Assert.assertEquals(m, mapA.transpose().getNumRows());
+		
+		//t(A) %*% A via transposed map and map of transpose
+		long est1 = DensityMap.estimMatMult(mapA.transpose(), mapA).getNonZeros();
+		long est2 = DensityMap.estimMatMult(mapAt, mapA).getNonZeros();
+		Assert.assertEquals(est1, est2);
+		
+		//skewed rows vs uniform costs of t(A) %*% A
+		double cost = DensityMap.estimMatMultCost(mapAt, mapA);
+		double costAvg = (double)A.getNonZeros() * A.getNonZeros() / n;
+		Assert.assertTrue(cost > costAvg);
+	}
+	
+	@Test
+	public void testBinaryDisjointBlocks() {
+		MatrixBlock A = createBlockMatrix(n, n, new double[][]{{0.1,0,0},{0,0.1,0},{0,0,0}}, 7);
+		MatrixBlock B = createBlockMatrix(n, n, new double[][]{{0,0,0},{0,0,0},{0.1,0.1,0.1}}, 3);
+		DensityMap mapA = DensityMap.create(A);
+		DensityMap mapB = DensityMap.create(B);
+		
+		Assert.assertEquals(0, DensityMap.estimBinary(mapA, mapB, OpOp2.MULT).getNonZeros());
+		Assert.assertEquals(A.getNonZeros() + B.getNonZeros(), 
+			DensityMap.estimBinary(mapA, mapB, OpOp2.PLUS).getNonZeros());
+		
+		//no estimates for mismatching dimensions (e.g., matrix-vector)
+		Assert.assertNull(DensityMap.estimBinary(mapA, DensityMap.create(new MatrixBlock(n, 1, true)), OpOp2.MULT));
+	}
+	
+	@Test
+	public void testRecompileSkewedChain() {
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+		
+		//A non-zero in first column block, B non-zero in other row blocks, 
+		//i.e., A %*% B is empty but the dimensions favor A %*% (B %*% C)
+		LocalVariableMap vars = new LocalVariableMap();
+		vars.put("A", readMatrix(output("A"), createBlockMatrix(n, n, new double[][]{{0.3,0,0},{0,0,0},{0,0,0}}, 7)));
+		vars.put("B", readMatrix(output("B"), createBlockMatrix(n, n, new double[][]{{0,0,0},{0.3,0.3,0.3},{0.3,0.3,0.3}}, 3)));
+		vars.put("C", readMatrix(output("C"), createBlockMatrix(n, m, new double[][]{{0.02},{0.02},{0.02}}, 5)));
+		for( String var : vars.keySet() )
+			Assert.assertNotNull(((MatrixObject)vars.get(var)).getDensityMap());
+		
+		boolean flag = OptimizerUtils.ALLOW_DENSITY_MAP_ESTIMATES;
+		try {
+			//recompile without density maps (dimension-based chain order)
+			OptimizerUtils.ALLOW_DENSITY_MAP_ESTIMATES = false;
+			Hop root1 = recompileChain(vars);
+			Assert.assertTrue(isInput(root1.getInput().get(0), "A"));
+			Assert.assertNull(root1.getDensityMap());
+			
+			//recompile with density maps (sparsity-aware chain order)
+			OptimizerUtils.ALLOW_DENSITY_MAP_ESTIMATES = true;
+			Hop root2 = recompileChain(vars);
+			Assert.assertTrue(isInput(root2.getInput().get(1), "C"));
+			Assert.assertEquals(0, root2.getDensityMap().getNonZeros());
+			Assert.assertTrue(root2.getOutputMemEstimate() < root1.getOutputMemEstimate());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			OptimizerUtils.ALLOW_DENSITY_MAP_ESTIMATES = flag;
+		}
+	}
+	
+	/**
+	 * Writes the given matrix as binary block file, and reads it into 
+	 * a new matrix object (which collects its density map).
+	 * 
+	 * @param fname
+	 * @param mb
+	 * @return
+	 */
+	private static MatrixObject readMatrix(String fname, MatrixBlock mb) {
+		try {
+			MatrixCharacteristics mc = new MatrixCharacteristics(mb.getNumRows(), 
+				mb.getNumColumns(), 1000, 1000, mb.getNonZeros());
+			DataConverter.writeMatrixToHDFS(mb, fname, OutputInfo.BinaryBlockOutputInfo, mc);
+			MatrixObject mo = new MatrixObject(ValueType.DOUBLE, fname, 
+				new MatrixFormatMetaData(mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+			mo.acquireRead();
+			mo.release();
+			return mo;
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Creates the hop dag of (A %*% B) %*% C over transient reads of unknown
+	 * size, and applies the recompile steps of statistics update, matrix 
+	 * multiplication chain optimization, and memory estimates.
+	 * 
+	 * @param vars
+	 * @return root of the rewritten chain
+	 * @throws Exception
+	 */
+	private static Hop recompileChain(LocalVariableMap vars) 
+		throws Exception
+	{
+		Hop A = createTransientRead("A");
+		Hop B = createTransientRead("B");
+		Hop C = createTransientRead("C");
+		Hop root = HopRewriteUtils.createMatrixMultiply(
+			HopRewriteUtils.createMatrixMultiply(A, B), C);
+		
+		root.resetVisitStatus();
+		Recompiler.rUpdateStatistics(root, vars);
+		root.resetVisitStatus();
+		new RewriteMatrixMultChainOptimization().rewriteHopDAG(root, null);
+		root.resetVisitStatus();
+		root.refreshMemEstimates(new MemoTable());
+		return root;
+	}
+	
+	private static Hop createTransientRead(String name) {
+		return new DataOp(name, DataType.MATRIX, ValueType.DOUBLE, 
+			DataOpTypes.TRANSIENTREAD, null, -1, -1, -1, 1000, 1000);
+	}
+	
+	private static boolean isInput(Hop hop, String name) {
+		return hop instanceof DataOp && hop.getName().equals(name);
+	}
+	
+	/**
+	 * Creates a sparse matrix of 3 row blocks and the given number of column
+	 * blocks with uniformly distributed non-zeros of the given sparsity per block.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param sp
+	 * @param seed
+	 * @return
+	 */
+	private MatrixBlock createBlockMatrix(int rows, int cols, double[][] sp, long seed) {
+		double[][] A = new double[rows][cols];
+		int brlen = rows / sp.length;
+		int bclen = cols / sp[0].length;
+		for( int bi=0; bi<sp.length; bi++ )
+			for( int bj=0; bj<sp[bi].length; bj++ ) {
+				if( sp[bi][bj] == 0 ) 
+					continue;
+				double[][] tmp = getRandomMatrix(brlen, bclen, 1, 2, sp[bi][bj], seed++);
+				for( int i=0; i<brlen; i++ )
+					System.arraycopy(tmp[i], 0, A[bi*brlen+i], bj*bclen, bclen);
+			}
+		
+		MatrixBlock ret = DataConverter.convertToMatrixBlock(A);
+		try {
+			ret.examSparsity();
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		Assert.assertTrue(ret.isInSparseFormat());
+		return ret;
+	}
+	
+	private static double getSparsity(MatrixBlock mb) {
+		return OptimizerUtils.getSparsity(mb.getNumRows(), mb.getNumColumns(), mb.getNonZeros());
+	}
+	
+	/**
+	 * 
+	 * @param A
+	 * @param B
+	 * @return
+	 */
+	private long matMultNonZeros(MatrixBlock A, MatrixBlock B) {
+		try {
+			MatrixBlock C = new MatrixBlock(A.getNumRows(), B.getNumColumns(), false);
+			LibMatrixMult.matrixMult(A, B, C);
+			C.recomputeNonZeros();
+			return C.getNonZeros();
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.recompile;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests the reuse of recompiled plans of statement blocks with unchanged
+ * size signatures, across loop iterations with alternating scalar values,
+ * which are part of the signature because they are replaced by literals.
+ * 
+ */
+public class RecompilePlanCacheTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "recompile_plan_cache";
+	private final static String TEST_DIR = "functions/recompile/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + 
+		RecompilePlanCacheTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 1200;
+	private final static int cols = 30;
+	private final static int iters = 10;
+	
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration( TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[]{"R"}) );
+	}
+
+	@Test
+	public void testPlanCacheDense() {
+		runPlanCacheTest(sparsity1, true);
+	}
+	
+	@Test
+	public void testPlanCacheSparse() {
+		runPlanCacheTest(sparsity2, true);
+	}
+	
+	@Test
+	public void testNoPlanCacheDense() {
+		runPlanCacheTest(sparsity1, false);
+	}
+	
+	@Test
+	public void testNoPlanCacheSparse() {
+		runPlanCacheTest(sparsity2, false);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param planCache
+	 */
+	private void runPlanCacheTest( double sparsity, boolean planCache )
+	{	
+		boolean oldFlag = OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE;
+		
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-stats", "-args", input("A"), 
+				Integer.toString(iters), output("R") };
+			
+			OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE = planCache;
+			
+			//generate input data
+			double[][] A = getRandomMatrix(rows, cols, 0, 1, sparsity, 7);
+			writeInputMatrixWithMTD("A", A, true);
+			
+			runTest(true, false, null, -1); 
+			
+			//compare results with colSums(A) * sum of scalars (2 for even, 1 for odd i)
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			double sumIters = 2 * (iters / 2) + (iters - iters / 2);
+			for( int j=0; j<cols; j++ ) {
+				double sum = 0;
+				for( int i=0; i<rows; i++ )
+					sum += A[i][j];
+				Double val = dmlfile.get(new CellIndex(1, j+1));
+				Assert.assertEquals(sum * sumIters, (val!=null) ? val : 0, 1e-8);
+			}
+			
+			//check for reused plans
+			if( planCache )
+				Assert.assertTrue("No plan cache hits.", Statistics.getHopRecompilePlanCacheHits() > 0);
+			else
+				Assert.assertEquals(0, Statistics.getHopRecompilePlanCacheHits());
+		}
+		finally {
+			OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE = oldFlag;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.reorg;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for stable, multi-column sort (order) with
+ * single- and multi-threaded execution, where the number of rows exceeds
+ * the threshold for parallel sort and the keys have many duplicates, 
+ * as well as NaN keys (ordered last for ascending and descending order).
+ *
+ */
+public class MultiColumnOrderTest extends AutomatedTestBase
+{
+	private final static int rows = (int)LibMatrixReorg.PAR_NUMCELL_THRESHOLD + 1234; //just above parallel threshold
+	private final static int cols = 4;
+	private final static int[] by = new int[]{3, 1};
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testOrderMultiColumnAscSingleThreaded() {
+		runMultiColumnOrderTest(false, false, 1);
+	}
+
+	@Test
+	public void testOrderMultiColumnDescSingleThreaded() {
+		runMultiColumnOrderTest(true, false, 1);
+	}
+
+	@Test
+	public void testOrderMultiColumnAscMultiThreaded() {
+		runMultiColumnOrderTest(false, false, 4);
+	}
+
+	@Test
+	public void testOrderMultiColumnDescMultiThreaded() {
+		runMultiColumnOrderTest(true, false, 4);
+	}
+
+	@Test
+	public void testOrderMultiColumnAscNaNSingleThreaded() {
+		runMultiColumnOrderTest(false, true, 1);
+	}
+
+	@Test
+	public void testOrderMultiColumnDescNaNSingleThreaded() {
+		runMultiColumnOrderTest(true, true, 1);
+	}
+
+	@Test
+	public void testOrderMultiColumnAscNaNMultiThreaded() {
+		runMultiColumnOrderTest(false, true, 4);
+	}
+
+	@Test
+	public void testOrderMultiColumnDescNaNMultiThreaded() {
+		runMultiColumnOrderTest(true, true, 4);
+	}
+
+	@Test
+	public void testOrderColumnVectorDescNaN() {
+		double[][] A = new double[][]{{3},{Double.NaN},{1},{7},{Double.NaN},{3}};
+		try {
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock ret1 = LibMatrixReorg.sort(mb, new MatrixBlock(6, 1, false), new int[]{1}, true, false, 1);
+			MatrixBlock ret2 = LibMatrixReorg.sort(mb, new MatrixBlock(6, 1, false), new int[]{1}, true, true, 1);
+			double[] expect1 = new double[]{7, 3, 3, 1, Double.NaN, Double.NaN};
+			double[] expect2 = new double[]{4, 1, 6, 3, 2, 5};
+			for( int i=0; i<6; i++ ) {
+				Assert.assertEquals(expect1[i], ret1.quickGetValue(i, 0), 0);
+				Assert.assertEquals(expect2[i], ret2.quickGetValue(i, 0), 0);
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param desc
+	 * @param nan replace the largest keys with NaNs
+	 * @param k
+	 */
+	private void runMultiColumnOrderTest( boolean desc, boolean nan, int k )
+	{
+		try
+		{
+			//data generation (few distinct values per column)
+			final double[][] A = getRandomMatrix(rows, cols, 0, 7, 1.0, 7);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					A[i][j] = (nan && Math.round(A[i][j]) == 7) ?
+						Double.NaN : Math.round(A[i][j]);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+
+			//compute sort indexes
+			MatrixBlock ret = LibMatrixReorg.sort(mb, new MatrixBlock(rows, 1, false), by, desc, true, k);
+
+			//compare index vectors
+			Integer[] ix = computeReferenceOrder(A, by, desc);
+			for( int i=0; i<rows; i++ )
+				if( ret.quickGetValue(i, 0) != ix[i]+1 )
+					Assert.fail("Wrong sort index at position "+i+": "+ret.quickGetValue(i, 0)+", expected: "+(ix[i]+1));
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Reference order via stable merge sort of boxed indexes, where
+	 * NaN keys are ordered last for ascending and descending order.
+	 *
+	 * @param A
+	 * @param by
+	 * @param desc
+	 * @return 0-based row indexes in sorted order
+	 */
+	protected static Integer[] computeReferenceOrder( final double[][] A, final int[] by, boolean desc )
+	{
+		Integer[] ix = new Integer[A.length];
+		for( int i=0; i<A.length; i++ )
+			ix[i] = i;
+		final int sign = desc ? -1 : 1;
+		Arrays.sort(ix, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer arg0, Integer arg1) {
+				for( int j=0; j<by.length; j++ ) {
+					double v0 = A[arg0][by[j]-1];
+					double v1 = A[arg1][by[j]-1];
+					if( Double.isNaN(v0) || Double.isNaN(v1) ) {
+						if( Double.isNaN(v0) != Double.isNaN(v1) )
+							return Double.isNaN(v0) ? 1 : -1;
+						continue;
+					}
+					int cmp = Double.compare(v0, v1);
+					if( cmp != 0 )
+						return sign * cmp;
+				}
+				return 0;
+			}
+		});
+		return ix;
+	}
+}
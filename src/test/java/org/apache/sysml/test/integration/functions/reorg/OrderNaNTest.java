@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.reorg;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a DML-level test for stable multi-column order with index return,
+ * ascending and descending, with and without NaN keys. NaN keys are ordered
+ * last for both ascending and descending order (R's default na.last=TRUE).
+ * The multi-threaded variant uses a number of rows just above the threshold
+ * for parallel sort.
+ *
+ */
+public class OrderNaNTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "OrderNaN";
+	private final static String TEST_DIR = "functions/reorg/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + OrderNaNTest.class.getSimpleName() + "/";
+
+	private final static int rows1 = 1017;
+	private final static int rows2 = (int)LibMatrixReorg.PAR_NUMCELL_THRESHOLD + 1234;
+	private final static int cols = 2;
+	private final static int[] by = new int[]{2, 1};
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "B" }) );
+	}
+
+	@Test
+	public void testOrderAsc() {
+		runOrderNaNTest(false, false, rows1);
+	}
+
+	@Test
+	public void testOrderDesc() {
+		runOrderNaNTest(true, false, rows1);
+	}
+
+	@Test
+	public void testOrderAscNaN() {
+		runOrderNaNTest(false, true, rows1);
+	}
+
+	@Test
+	public void testOrderDescNaN() {
+		runOrderNaNTest(true, true, rows1);
+	}
+
+	@Test
+	public void testOrderDescNaNMultiThreaded() {
+		runOrderNaNTest(true, true, rows2);
+	}
+
+	/**
+	 *
+	 * @param desc
+	 * @param nan replace the largest keys with NaNs
+	 * @param rows
+	 */
+	private void runOrderNaNTest( boolean desc, boolean nan, int rows )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", input("A"),
+				Boolean.toString(desc).toUpperCase(), output("B") };
+
+			//data generation (few distinct values, largest as NaN)
+			double[][] A = getRandomMatrix(rows, cols, 1, 7, 1.0, 7);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					A[i][j] = (nan && Math.round(A[i][j]) == 7) ?
+						Double.NaN : Math.round(A[i][j]);
+			writeInputMatrixWithMTD("A", A, false);
+
+			runTest(true, false, null, -1);
+
+			//compare index vectors with stable reference order
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("B");
+			Integer[] ix = MultiColumnOrderTest.computeReferenceOrder(A, by, desc);
+			for( int i=0; i<rows; i++ ) {
+				Double val = dmlfile.get(new CellIndex(i+1, 1));
+				Assert.assertEquals("Wrong sort index at position "+i+".",
+					(double)(ix[i]+1), (val!=null) ? val : 0, 0);
+			}
+		}
+		finally {
+			rtplatform = platformOld;
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.reorg;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the transpose kernels, incl the counting
+ * sort into CSR for sparse outputs, with single- and multi-threaded execution.
+ *
+ */
+public class TransposeKernelTest extends AutomatedTestBase
+{
+	private final static int rows = 2017;
+	private final static int cols = 1103;
+	private final static double sparsity = 0.03;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testTransposeSparseMCSRSingleThreaded() {
+		runTransposeTest(SparseBlock.Type.MCSR, 1);
+	}
+
+	@Test
+	public void testTransposeSparseMCSRMultiThreaded() {
+		runTransposeTest(SparseBlock.Type.MCSR, 4);
+	}
+
+	@Test
+	public void testTransposeSparseCSRSingleThreaded() {
+		runTransposeTest(SparseBlock.Type.CSR, 1);
+	}
+
+	@Test
+	public void testTransposeSparseCSRMultiThreaded() {
+		runTransposeTest(SparseBlock.Type.CSR, 4);
+	}
+
+	@Test
+	public void testTransposeDenseToSparseMultiThreaded() {
+		runTransposeTest(null, 4);
+	}
+
+	/**
+	 *
+	 * @param stype
+	 * @param k
+	 */
+	private void runTransposeTest( SparseBlock.Type stype, int k )
+	{
+		try
+		{
+			//data generation (sparse input, or dense input w/ sparse output)
+			double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			if( stype != null ) {
+				mb.examSparsity();
+				mb = new MatrixBlock(mb, stype, true);
+			}
+
+			//compute transpose
+			MatrixBlock ret = new MatrixBlock(cols, rows, true);
+			ret = (k > 1) ? LibMatrixReorg.transpose(mb, ret, k) : LibMatrixReorg.transpose(mb, ret);
+
+			//compare meta data and values
+			if( !ret.isInSparseFormat() )
+				Assert.fail("Wrong output format: dense, expected: sparse");
+			if( mb.getNonZeros() != ret.getNonZeros() )
+				Assert.fail("Wrong number of non-zeros: "+ret.getNonZeros()+", expected: "+mb.getNonZeros());
+			double[][] B = DataConverter.convertToDoubleMatrix(ret);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					if( A[i][j] != B[j][i] )
+						Assert.fail("Wrong value at ("+j+","+i+"): "+B[j][i]+", expected: "+A[i][j]);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.sparse;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
+import org.apache.sysml.runtime.matrix.data.DenseBlockDRB;
+import org.apache.sysml.runtime.matrix.data.DenseBlockLDRB;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a dense matrix block component test for set, get, nnz
+ * maintenance, and copy functionality. Large dense blocks are tested
+ * with small numbers of rows per block in order to cover block
+ * boundaries without huge allocations.
+ *
+ */
+public class DenseBlockGetSetTest extends AutomatedTestBase
+{
+	private final static int rows = 732;
+	private final static int cols = 354;
+	private final static int blen = 37; //rows per block (LDRB)
+	private final static double sparsity1 = 0.1;
+	private final static double sparsity2 = 0.9;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testDenseBlockDRBSparse()  {
+		runDenseBlockGetSetTest(DenseBlock.Type.DRB, sparsity1);
+	}
+
+	@Test
+	public void testDenseBlockDRBDense()  {
+		runDenseBlockGetSetTest(DenseBlock.Type.DRB, sparsity2);
+	}
+
+	@Test
+	public void testDenseBlockLDRBSparse()  {
+		runDenseBlockGetSetTest(DenseBlock.Type.LDRB, sparsity1);
+	}
+
+	@Test
+	public void testDenseBlockLDRBDense()  {
+		runDenseBlockGetSetTest(DenseBlock.Type.LDRB, sparsity2);
+	}
+
+	/**
+	 *
+	 * @param btype
+	 * @param sparsity
+	 */
+	private void runDenseBlockGetSetTest( DenseBlock.Type btype, double sparsity)
+	{
+		try
+		{
+			//data generation
+			double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity, 7654321);
+
+			//init dense block via set
+			DenseBlock dblock = createDenseBlock(btype);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					dblock.set(i, j, A[i][j]);
+
+			//check basic meta data
+			if( dblock.numRows() != rows || dblock.numCols() != cols )
+				Assert.fail("Wrong dimensions: "+dblock.numRows()+"x"+dblock.numCols());
+			if( btype == DenseBlock.Type.LDRB && dblock.isContiguous() )
+				Assert.fail("Wrong contiguous flag for "+dblock.numBlocks()+" blocks.");
+
+			//check correct values via get and row arrays
+			for( int i=0; i<rows; i++ ) {
+				double[] avals = dblock.values(i);
+				int apos = dblock.pos(i);
+				for( int j=0; j<cols; j++ ) {
+					if( dblock.get(i, j) != A[i][j] || avals[apos+j] != A[i][j] )
+						Assert.fail("Wrong get value for cell ("+i+","+j+"): "+dblock.get(i, j)+", expected: "+A[i][j]);
+				}
+			}
+
+			//check for correct number of non-zeros (full and range)
+			long nnz = 0, nnz2 = 0;
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ ) {
+					nnz += (A[i][j]!=0) ? 1 : 0;
+					nnz2 += (i>=5 && i<rows-3 && j>=7 && j<cols-2 && A[i][j]!=0) ? 1 : 0;
+				}
+			if( nnz != dblock.countNonZeros() )
+				Assert.fail("Wrong number of non-zeros: "+dblock.countNonZeros()+", expected: "+nnz);
+			if( nnz2 != dblock.countNonZeros(5, rows-3, 7, cols-2) )
+				Assert.fail("Wrong number of range non-zeros: "+dblock.countNonZeros(5, rows-3, 7, cols-2)+", expected: "+nnz2);
+
+			//check copy into a block of the other type
+			DenseBlock dblock2 = createDenseBlock((btype==DenseBlock.Type.DRB) ?
+					DenseBlock.Type.LDRB : DenseBlock.Type.DRB);
+			dblock2.set(dblock);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					if( dblock2.get(i, j) != A[i][j] )
+						Assert.fail("Wrong copied value for cell ("+i+","+j+"): "+dblock2.get(i, j)+", expected: "+A[i][j]);
+
+			//check range set and reset
+			dblock.set(3, rows-1, 0, cols, 7);
+			if( dblock.countNonZeros(3, rows-1, 0, cols) != (long)(rows-4)*cols )
+				Assert.fail("Wrong number of non-zeros after range set.");
+			dblock.reset();
+			if( dblock.countNonZeros() != 0 )
+				Assert.fail("Wrong number of non-zeros after reset: "+dblock.countNonZeros());
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param btype
+	 * @return
+	 */
+	private static DenseBlock createDenseBlock( DenseBlock.Type btype ) {
+		switch( btype ) {
+			case DRB: return new DenseBlockDRB(rows, cols);
+			case LDRB: return new DenseBlockLDRB(rows, cols, blen);
+			default:
+				throw new RuntimeException("Unsupported dense block type: "+btype);
+		}
+	}
+}
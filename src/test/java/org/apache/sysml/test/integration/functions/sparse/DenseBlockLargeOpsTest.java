@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.sparse;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.functionobjects.SwapIndex;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
+import org.apache.sysml.runtime.matrix.data.DenseBlockLDRB;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is an operation-level test for large dense blocks (LDRB) with enabled
+ * large dense blocks, which compares the results of the supported operations
+ * (matrix multiply, unary aggregates, cell-wise, transpose, reshape, and
+ * slice) over matrix blocks backed by multiple arrays with the results over
+ * single-array blocks. Large dense blocks are tested with small numbers of
+ * rows per block in order to cover block boundaries without huge allocations.
+ * Additionally, it checks the reshape of large dense blocks with incompatible
+ * layouts, and the compiler's detection of large dense blocks.
+ *
+ */
+public class DenseBlockLargeOpsTest extends AutomatedTestBase
+{
+	private final static int rows = 732;
+	private final static int cols = 123;
+	private final static int cols2 = 47;
+	private final static int blen = 37; //rows per block (LDRB)
+	private final static double eps = 1e-9;
+
+	private enum OpType {
+		MATMULT,
+		SUM,
+		ROWSUMS,
+		COLMAXS,
+		PLUS,
+		SCALAR_MULT,
+		TRANSPOSE,
+		RESHAPE,
+		SLICE,
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testLargeDenseMatMult() {
+		runLargeDenseOpsTest(OpType.MATMULT);
+	}
+
+	@Test
+	public void testLargeDenseSum() {
+		runLargeDenseOpsTest(OpType.SUM);
+	}
+
+	@Test
+	public void testLargeDenseRowSums() {
+		runLargeDenseOpsTest(OpType.ROWSUMS);
+	}
+
+	@Test
+	public void testLargeDenseColMaxs() {
+		runLargeDenseOpsTest(OpType.COLMAXS);
+	}
+
+	@Test
+	public void testLargeDensePlus() {
+		runLargeDenseOpsTest(OpType.PLUS);
+	}
+
+	@Test
+	public void testLargeDenseScalarMult() {
+		runLargeDenseOpsTest(OpType.SCALAR_MULT);
+	}
+
+	@Test
+	public void testLargeDenseTranspose() {
+		runLargeDenseOpsTest(OpType.TRANSPOSE);
+	}
+
+	@Test
+	public void testLargeDenseReshape() {
+		runLargeDenseOpsTest(OpType.RESHAPE);
+	}
+
+	@Test
+	public void testLargeDenseSlice() {
+		runLargeDenseOpsTest(OpType.SLICE);
+	}
+
+	@Test
+	public void testLargeDenseBlockReshapeIncompatible() {
+		runLargeDenseBlockReshapeTest();
+	}
+
+	@Test
+	public void testLargeDenseBlockCompilerCheck() {
+		runLargeDenseBlockCompilerTest();
+	}
+
+	/**
+	 *
+	 * @param type
+	 */
+	private void runLargeDenseOpsTest( OpType type )
+	{
+		boolean flagOld = OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS;
+
+		try
+		{
+			OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS = true;
+
+			//data generation (single-array and multi-array blocks)
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, 1.0, 7);
+			double[][] B = getRandomMatrix(cols, cols2, -1, 1, 1.0, 3);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock mbB = DataConverter.convertToMatrixBlock(B);
+			MatrixBlock lmbA = createLargeDenseMatrixBlock(A);
+			Assert.assertFalse(lmbA.getDenseBlock().isContiguous());
+
+			//execute operations on single-array and multi-array blocks
+			MatrixBlock ret1 = null, ret2 = null;
+			switch( type ) {
+				case MATMULT: {
+					AggregateOperator aop = new AggregateOperator(0, Plus.getPlusFnObject());
+					AggregateBinaryOperator abop = new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), aop);
+					ret1 = (MatrixBlock) mbA.aggregateBinaryOperations(mbA, mbB, new MatrixBlock(), abop);
+					ret2 = (MatrixBlock) lmbA.aggregateBinaryOperations(lmbA, mbB, new MatrixBlock(), abop);
+					break;
+				}
+				case SUM:
+				case ROWSUMS:
+				case COLMAXS: {
+					String opcode = (type==OpType.SUM) ? "uak+" : (type==OpType.ROWSUMS) ? "uark+" : "uacmax";
+					AggregateUnaryOperator auop = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+					ret1 = (MatrixBlock) mbA.aggregateUnaryOperations(auop, new MatrixBlock(),
+						rows, cols, new MatrixIndexes(1, 1), true);
+					ret2 = (MatrixBlock) lmbA.aggregateUnaryOperations(auop, new MatrixBlock(),
+						rows, cols, new MatrixIndexes(1, 1), true);
+					break;
+				}
+				case PLUS: {
+					BinaryOperator bop = new BinaryOperator(Plus.getPlusFnObject());
+					ret1 = (MatrixBlock) mbA.binaryOperations(bop, mbA, new MatrixBlock());
+					ret2 = (MatrixBlock) lmbA.binaryOperations(bop, lmbA, new MatrixBlock());
+					break;
+				}
+				case SCALAR_MULT: {
+					RightScalarOperator sop = new RightScalarOperator(Multiply.getMultiplyFnObject(), 3);
+					ret1 = (MatrixBlock) mbA.scalarOperations(sop, new MatrixBlock());
+					ret2 = (MatrixBlock) lmbA.scalarOperations(sop, new MatrixBlock());
+					break;
+				}
+				case TRANSPOSE: {
+					ReorgOperator rop = new ReorgOperator(SwapIndex.getSwapIndexFnObject());
+					ret1 = (MatrixBlock) mbA.reorgOperations(rop, new MatrixBlock(), 0, 0, 0);
+					ret2 = (MatrixBlock) lmbA.reorgOperations(rop, new MatrixBlock(), 0, 0, 0);
+					break;
+				}
+				case RESHAPE: {
+					//rowwise reshape to more columns (rows across block boundaries)
+					ret1 = LibMatrixReorg.reshape(mbA, new MatrixBlock(), rows/4, cols*4, true);
+					ret2 = LibMatrixReorg.reshape(lmbA, new MatrixBlock(), rows/4, cols*4, true);
+					break;
+				}
+				case SLICE: {
+					ret1 = mbA.sliceOperations(blen-3, 3*blen+5, 7, cols-2, new MatrixBlock());
+					ret2 = lmbA.sliceOperations(blen-3, 3*blen+5, 7, cols-2, new MatrixBlock());
+					break;
+				}
+			}
+
+			//compare results
+			Assert.assertEquals(ret1.getNumRows(), ret2.getNumRows());
+			Assert.assertEquals(ret1.getNumColumns(), ret2.getNumColumns());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1),
+				DataConverter.convertToDoubleMatrix(ret2), ret1.getNumRows(), ret1.getNumColumns(), eps);
+
+			//single-array access of large dense blocks fails explicitly
+			try {
+				lmbA.getDenseBlockValues();
+				Assert.fail("Missing exception for single-array access of large dense block.");
+			}
+			catch(RuntimeException ex) {
+				//expected
+			}
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS = flagOld;
+		}
+	}
+
+	/**
+	 * Reshapes a large dense block into dimensions with a different number
+	 * of columns (incompatible layout), which requires a reallocation while
+	 * preserving the cells in linearized row-major order.
+	 */
+	private void runLargeDenseBlockReshapeTest()
+	{
+		double[][] A = getRandomMatrix(rows, cols, -1, 1, 1.0, 7);
+		DenseBlock dblock = createLargeDenseMatrixBlock(A).getDenseBlock();
+
+		//reshape to more columns (fewer rows per block) and back
+		dblock.reshape(rows/4, cols*4);
+		for( int k=0; k<rows*cols; k++ )
+			if( dblock.get(k/(cols*4), k%(cols*4)) != A[k/cols][k%cols] )
+				Assert.fail("Wrong reshaped value for cell "+k+": "+dblock.get(k/(cols*4), k%(cols*4)));
+		dblock.reshape(rows, cols);
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ )
+				if( dblock.get(i, j) != A[i][j] )
+					Assert.fail("Wrong value for cell ("+i+","+j+") after reshape: "+dblock.get(i, j));
+
+		//shrink number of columns (prefix of the linearized cells)
+		dblock.reshape(rows, cols2);
+		for( int k=0; k<rows*cols2; k++ )
+			if( dblock.get(k/cols2, k%cols2) != A[k/cols][k%cols] )
+				Assert.fail("Wrong shrunk value for cell "+k+": "+dblock.get(k/cols2, k%cols2));
+	}
+
+	/**
+	 * Checks the compiler's detection of large dense blocks, which prevents
+	 * operations without large dense block support from being compiled to CP.
+	 */
+	private void runLargeDenseBlockCompilerTest()
+	{
+		boolean flagOld = OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS;
+
+		try
+		{
+			OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS = true;
+			Assert.assertTrue(OptimizerUtils.isValidCPMatrixSize(100000, 100000, 1.0));
+			Assert.assertTrue(OptimizerUtils.isLargeDenseBlock(100000, 100000, -1));
+			Assert.assertFalse(OptimizerUtils.isLargeDenseBlock(100000, 100000, 100000));
+			Assert.assertFalse(OptimizerUtils.isLargeDenseBlock(rows, cols, -1));
+
+			OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS = false;
+			Assert.assertFalse(OptimizerUtils.isValidCPMatrixSize(100000, 100000, 1.0));
+			Assert.assertFalse(OptimizerUtils.isLargeDenseBlock(100000, 100000, -1));
+		}
+		finally {
+			OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS = flagOld;
+		}
+	}
+
+	/**
+	 *
+	 * @param A
+	 * @return
+	 */
+	private static MatrixBlock createLargeDenseMatrixBlock( double[][] A ) {
+		DenseBlock dblock = new DenseBlockLDRB(A.length, A[0].length, blen);
+		for( int i=0; i<A.length; i++ )
+			for( int j=0; j<A[i].length; j++ )
+				dblock.set(i, j, A[i][j]);
+		return new MatrixBlock(A.length, A[0].length, dblock.countNonZeros(), dblock);
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sysml.test.integration.functions.tensor;
+
+import java.util.HashMap;
+
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.util.ConvolutionUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares the fused per-image CP conv2d, conv2d_backward_filter, and conv2d_backward_data
+ * instructions against the unfused im2col/rotate180, matrix multiply, and reshape_col/col2im
+ * pipelines, for dense and sparse images and dout.
+ */
+public class FusedConv2DTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "FusedConv2DTest";
+	private final static String TEST_DIR = "functions/tensor/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + FusedConv2DTest.class.getSimpleName() + "/";
+	private final static double epsilon=0.0000000001;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, 
+				new String[] {"out", "dw", "dx"}));
+	}
+	
+	@Test
+	public void testFusedConv2DDense() 
+	{
+		int numImg = 5; int imgSize = 9; int numChannels = 3; int numFilters = 4; int filterSize = 3; int stride = 1; int pad = 1;
+		runFusedConv2DTest(imgSize, numImg, numChannels, numFilters, filterSize, stride, pad, 1.0);
+	}
+	
+	@Test
+	public void testFusedConv2DDenseStride() 
+	{
+		int numImg = 3; int imgSize = 10; int numChannels = 2; int numFilters = 3; int filterSize = 4; int stride = 2; int pad = 1;
+		runFusedConv2DTest(imgSize, numImg, numChannels, numFilters, filterSize, stride, pad, 1.0);
+	}
+	
+	@Test
+	public void testFusedConv2DSparse() 
+	{
+		int numImg = 5; int imgSize = 9; int numChannels = 3; int numFilters = 4; int filterSize = 3; int stride = 1; int pad = 1;
+		runFusedConv2DTest(imgSize, numImg, numChannels, numFilters, filterSize, stride, pad, 0.1);
+	}
+	
+	@Test
+	public void testFusedConv2DSparseStride() 
+	{
+		int numImg = 3; int imgSize = 10; int numChannels = 2; int numFilters = 3; int filterSize = 4; int stride = 2; int pad = 1;
+		runFusedConv2DTest(imgSize, numImg, numChannels, numFilters, filterSize, stride, pad, 0.1);
+	}
+	
+	/**
+	 * 
+	 * @param imgSize
+	 * @param numImg
+	 * @param numChannels
+	 * @param numFilters
+	 * @param filterSize
+	 * @param stride
+	 * @param pad
+	 * @param sparsity
+	 */
+	public void runFusedConv2DTest( int imgSize, int numImg, int numChannels, int numFilters, 
+			int filterSize, int stride, int pad, double sparsity) 
+	{
+		RUNTIME_PLATFORM oldRTP = rtplatform;
+		boolean oldFlag = ConvolutionUtils.ALLOW_FUSED_CP_CONVOLUTION;
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			
+			String RI_HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = RI_HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-explain", "-stats", "-args",  "" + imgSize, "" + numImg, 
+				"" + numChannels, "" + numFilters, "" + filterSize, "" + stride, "" + pad, 
+				"" + sparsity, output("out"), output("dw"), output("dx")};
+			
+			//run unfused pipelines
+			ConvolutionUtils.ALLOW_FUSED_CP_CONVOLUTION = false;
+			runTest(true, false, null, -1);
+			Assert.assertFalse(Statistics.getCPHeavyHitterOpCodes().contains("conv2d"));
+			HashMap<CellIndex, Double> out1 = readDMLMatrixFromHDFS("out");
+			HashMap<CellIndex, Double> dw1 = readDMLMatrixFromHDFS("dw");
+			HashMap<CellIndex, Double> dx1 = readDMLMatrixFromHDFS("dx");
+			
+			//run fused instructions
+			ConvolutionUtils.ALLOW_FUSED_CP_CONVOLUTION = true;
+			runTest(true, false, null, -1);
+			Assert.assertTrue(Statistics.getCPHeavyHitterOpCodes().contains("conv2d"));
+			Assert.assertTrue(Statistics.getCPHeavyHitterOpCodes().contains("conv2d_backward_filter"));
+			Assert.assertTrue(Statistics.getCPHeavyHitterOpCodes().contains("conv2d_backward_data"));
+			HashMap<CellIndex, Double> out2 = readDMLMatrixFromHDFS("out");
+			HashMap<CellIndex, Double> dw2 = readDMLMatrixFromHDFS("dw");
+			HashMap<CellIndex, Double> dx2 = readDMLMatrixFromHDFS("dx");
+			
+			//compare fused and unfused results
+			TestUtils.compareMatrices(out2, out1, epsilon, "out-fused", "out-unfused");
+			TestUtils.compareMatrices(dw2, dw1, epsilon, "dw-fused", "dw-unfused");
+			TestUtils.compareMatrices(dx2, dx1, epsilon, "dx-fused", "dx-unfused");
+		}
+		finally
+		{
+			rtplatform = oldRTP;
+			ConvolutionUtils.ALLOW_FUSED_CP_CONVOLUTION = oldFlag;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.ternary;
+
+import org.junit.Test;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixCTable;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a ctable component test for the single- and multi-threaded local
+ * ctable computation, covering dense aggregation for outputs of known and small 
+ * dimensions, as well as hash aggregation for unknown or large dimensions.
+ * 
+ */
+public class CTableParallelTest extends AutomatedTestBase 
+{
+	private final static int rows = 1234567;
+	private final static int maxVal1 = 7, maxVal2 = 15;
+	private final static int maxVal3 = 2345, maxVal4 = 1234;
+	private final static int k = 8;
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testCTableDenseKnownDims() {
+		runCTableParallelTest(maxVal1, maxVal2, false, false, maxVal1, maxVal2);
+	}
+	
+	@Test
+	public void testCTableDenseKnownDimsWeights() {
+		runCTableParallelTest(maxVal1, maxVal2, true, false, maxVal1, maxVal2);
+	}
+	
+	@Test
+	public void testCTableDenseTruncatedDims() {
+		runCTableParallelTest(maxVal1, maxVal2, false, false, maxVal1-2, maxVal2-5);
+	}
+	
+	@Test
+	public void testCTableUnknownDims() {
+		runCTableParallelTest(maxVal1, maxVal2, false, false, -1, -1);
+	}
+	
+	@Test
+	public void testCTableUnknownDimsWeights() {
+		runCTableParallelTest(maxVal1, maxVal2, true, false, -1, -1);
+	}
+	
+	@Test
+	public void testCTableHistogramUnknownDims() {
+		runCTableParallelTest(maxVal3, maxVal2, false, true, -1, -1);
+	}
+	
+	@Test
+	public void testCTableLargeKnownDims() {
+		runCTableParallelTest(maxVal3, maxVal4, false, false, maxVal3, maxVal4);
+	}
+	
+	@Test
+	public void testCTableLargeUnknownDimsWeights() {
+		runCTableParallelTest(maxVal3, maxVal4, true, false, -1, -1);
+	}
+	
+	/**
+	 * 
+	 * @param max1
+	 * @param max2
+	 * @param weights
+	 * @param hist
+	 * @param dim1
+	 * @param dim2
+	 */
+	private void runCTableParallelTest(int max1, int max2, boolean weights, boolean hist, int dim1, int dim2)
+	{
+		try
+		{
+			//generate input data (values <=0 invalid)
+			double[][] A = floor(getRandomMatrix(rows, 1, 1, max1, 1.0, 7));
+			double[][] B = floor(getRandomMatrix(rows, 1, 1, max2, 1.0, 3));
+			double[][] W = getRandomMatrix(rows, 1, 0, 1, 1.0, 11);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock mbB = hist ? null : DataConverter.convertToMatrixBlock(B);
+			MatrixBlock mbW = weights ? DataConverter.convertToMatrixBlock(W) : null;
+			
+			//compute expected result (unknown dims given by max values)
+			int m = dim1, n = dim2;
+			for( int i=0; i<rows && dim1<0; i++ ) {
+				m = Math.max(m, (int)A[i][0]);
+				n = Math.max(n, hist ? 2 : (int)B[i][0]);
+			}
+			double[][] F = new double[m][n];
+			for( int i=0; i<rows; i++ ) {
+				int r = (int)A[i][0];
+				int c = hist ? 2 : (int)B[i][0];
+				if( r <= m && c <= n )
+					F[r-1][c-1] += weights ? W[i][0] : 1;
+			}
+			
+			//compute single- and multi-threaded ctable
+			MatrixBlock ret1 = LibMatrixCTable.ctable(mbA, mbB, 2, mbW, 1, false, dim1, dim2, 1);
+			MatrixBlock ret2 = LibMatrixCTable.ctable(mbA, mbB, 2, mbW, 1, false, dim1, dim2, k);
+			
+			//compare results
+			TestUtils.compareMatrices(F, DataConverter.convertToDoubleMatrix(ret1), m, n, eps);
+			TestUtils.compareMatrices(F, DataConverter.convertToDoubleMatrix(ret2), m, n, eps);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @return
+	 */
+	private static double[][] floor( double[][] X ) {
+		for( int i=0; i<X.length; i++ )
+			for( int j=0; j<X[i].length; j++ )
+				X[i][j] = Math.floor(X[i][j]);
+		return X;
+	}
+}
@@ -25,7 +25,8 @@ import org.junit.runners.Suite;
 /** Group together the tests in this package into a single suite so that the Maven build
  *  won't run two of them at once. */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({	
+@Suite.SuiteClasses({
+	FullCellwiseParallelTest.class,
 	FullMatrixMatrixCellwiseOperationTest.class,
 	FullMatrixVectorColCellwiseOperationTest.class,
 	FullMatrixVectorRowCellwiseOperationTest.class,
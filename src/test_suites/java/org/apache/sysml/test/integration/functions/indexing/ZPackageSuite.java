@@ -31,6 +31,7 @@ import org.junit.runners.Suite;
 	LeftIndexingSparseSparseTest.class,
 	LeftIndexingTest.class,
 	RightIndexingMatrixTest.class,
+	RightIndexingPartitionPruningTest.class,
 	RightIndexingVectorTest.class,
 	
 	Jdk7IssueRightIndexingTest.class,
@@ -26,6 +26,8 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+	BlockCompressionTest.class,
+	KryoSerializationTest.class,
 	SerializeTest.class
 })
 
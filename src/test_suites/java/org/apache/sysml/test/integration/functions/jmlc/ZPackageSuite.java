@@ -34,6 +34,8 @@ import org.junit.runners.Suite;
 	FrameReadMetaTest.class,
 	FrameTransformTest.class,
 	JMLCInputOutputTest.class,
+	PreparedScriptBatcherTest.class,
+	PreparedScriptPoolTest.class,
 	ReuseModelVariablesTest.class,
 	SystemTMulticlassSVMScoreTest.class
 })
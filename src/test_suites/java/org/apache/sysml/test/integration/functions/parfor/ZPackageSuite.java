@@ -36,6 +36,8 @@ import org.junit.runners.Suite;
 	ParForNaNResultMergeTest.class,
 	ParForReplaceThreadIDRecompileTest.class,
 	ParForRowwiseDataPartitioningTest.class,
+	ParForSharedResultMergeTest.class,
+	ParForTaskQueueTest.class,
 	
 	ParForParallelRemoteResultMergeTest.class,
 	ParForSerialRemoteResultMergeTest.class,
@@ -28,6 +28,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	BranchRemovalTest.class,
 	CSVReadUnknownSizeTest.class,
+	DensityMapEstimatorTest.class,
 	FunctionRecompileTest.class,
 	IPAAssignConstantPropagationTest.class,
 	IPAComplexAppendTest.class,
@@ -40,6 +41,7 @@ import org.junit.runners.Suite;
 	RandRecompileTest.class,
 	RandSizeExpressionEvalTest.class,
 	ReblockRecompileTest.class,
+	RecompilePlanCacheTest.class,
 	RemoveEmptyPotpourriTest.class,
 	RemoveEmptyRecompileTest.class,
 	RewriteComplexMapMultChainTest.class,
@@ -30,7 +30,9 @@ import org.junit.runners.Suite;
 	FullOrderTest.class,
 	FullReverseTest.class,
 	FullTransposeTest.class,
-	MatrixReshapeTest.class
+	MatrixReshapeTest.class,
+	MultiColumnOrderTest.class,
+	OrderNaNTest.class
 })
 
 
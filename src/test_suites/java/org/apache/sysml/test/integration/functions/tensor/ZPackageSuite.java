@@ -29,6 +29,7 @@ import org.junit.runners.Suite;
 	Conv2DBackwardDataTest.class,
 	Conv2DBackwardTest.class,
 	Conv2DTest.class,
+	FusedConv2DTest.class,
 	PoolBackwardTest.class,
 	PoolTest.class
 })